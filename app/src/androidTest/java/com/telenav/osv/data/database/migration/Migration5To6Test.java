@@ -0,0 +1,45 @@
+package com.telenav.osv.data.database.migration;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import com.telenav.osv.data.database.KVDatabase;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration5To6Test {
+    private static final String TEST_DB = "migration-test";
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(InstrumentationRegistry.getInstrumentation(),
+            KVDatabase.class.getCanonicalName(),
+            new FrameworkSQLiteOpenHelperFactory());
+
+    @Test
+    public void testMigration5To6() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 5);
+        MigrationTestData.insertSequence(database);
+        database.close();
+
+        database = helper.runMigrationsAndValidate(TEST_DB, 6, true, new Migration5To6());
+
+        assertEquals(1, MigrationTestData.count(database, "sequence", "id", MigrationTestData.SEQUENCE_ID));
+        assertEquals(0, MigrationTestData.count(database, "sequence_fingerprint", "sequence_id", MigrationTestData.SEQUENCE_ID));
+        database.execSQL("PRAGMA foreign_keys = ON");
+        database.execSQL("INSERT INTO sequence_fingerprint (sequence_id, folder_modified, file_count, folder_size) VALUES (?, 1500000000000, 2, 2048)", new Object[]{MigrationTestData.SEQUENCE_ID});
+        assertEquals(1, MigrationTestData.count(database, "sequence_fingerprint", "sequence_id", MigrationTestData.SEQUENCE_ID));
+        //the new table is removed together with its sequence
+        database.execSQL("DELETE FROM sequence WHERE id = ?", new Object[]{MigrationTestData.SEQUENCE_ID});
+        assertEquals(0, MigrationTestData.count(database, "sequence_fingerprint", "sequence_id", MigrationTestData.SEQUENCE_ID));
+    }
+}
@@ -0,0 +1,47 @@
+package com.telenav.osv.data.database.migration;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import com.telenav.osv.data.database.KVDatabase;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration7To8Test {
+    private static final String TEST_DB = "migration-test";
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(InstrumentationRegistry.getInstrumentation(),
+            KVDatabase.class.getCanonicalName(),
+            new FrameworkSQLiteOpenHelperFactory());
+
+    @Test
+    public void testMigration7To8() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 7);
+        MigrationTestData.insertSequence(database);
+        MigrationTestData.insertFrameWithLocation(database);
+        assertFalse(MigrationTestData.indexExists(database, "index_frame_sequence_id_id"));
+        assertFalse(MigrationTestData.indexExists(database, "index_location_sequence_id"));
+        database.close();
+
+        database = helper.runMigrationsAndValidate(TEST_DB, 8, true, new Migration7To8());
+
+        assertTrue(MigrationTestData.indexExists(database, "index_frame_sequence_id_id"));
+        assertTrue(MigrationTestData.indexExists(database, "index_location_sequence_id"));
+        assertEquals(1, MigrationTestData.count(database, "frame", "sequence_id", MigrationTestData.SEQUENCE_ID));
+        assertEquals(1, MigrationTestData.count(database, "location", "sequence_id", MigrationTestData.SEQUENCE_ID));
+        assertEquals(1, MigrationTestData.count(database, "location", "frame_id", MigrationTestData.FRAME_ID));
+    }
+}
@@ -0,0 +1,51 @@
+package com.telenav.osv.data.database.migration;
+
+import android.database.Cursor;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Rows inserted with the plain sql of the Room schema versions 5 and above, before a migration is run, and the queries used to check them after it.
+ */
+class MigrationTestData {
+
+    static final String SEQUENCE_ID = "sequence";
+
+    static final String FRAME_ID = "frame";
+
+    static final String LOCATION_ID = "location";
+
+    static final String FILE_PATH = "/sequence";
+
+    static void insertSequence(SupportSQLiteDatabase database) {
+        database.execSQL("INSERT INTO sequence (id, obd, lat, lon, address_name, distance, app_version, timestamp, frame_count, video_count, disk_size, file_path, " +
+                        "online_id, consistency_status) VALUES (?, 0, 46.77, 23.59, 'address', 120.5, '1.0', 1500000000000, 1, 1, 2048, ?, -1, 0)",
+                new Object[]{SEQUENCE_ID, FILE_PATH});
+    }
+
+    static void insertFrameWithLocation(SupportSQLiteDatabase database) {
+        database.execSQL("INSERT INTO frame (id, timestamp, file_path, `index`, sequence_id) VALUES (?, 1500000000000, ?, 0, ?)",
+                new Object[]{FRAME_ID, FILE_PATH + "/0.jpg", SEQUENCE_ID});
+        database.execSQL("INSERT INTO location (id, lat, lon, sequence_id, video_id, frame_id) VALUES (?, 46.77, 23.59, ?, NULL, ?)",
+                new Object[]{LOCATION_ID, SEQUENCE_ID, FRAME_ID});
+    }
+
+    /**
+     * @return the number of rows of the given table which match the given column value.
+     */
+    static int count(SupportSQLiteDatabase database, String table, String column, String value) {
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", new Object[]{value})) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+    /**
+     * @return {@code true} if an index with the given name exists in the database, {@code false} otherwise.
+     */
+    static boolean indexExists(SupportSQLiteDatabase database, String name) {
+        try (Cursor cursor = database.query("SELECT name FROM sqlite_master WHERE type = 'index' AND name = ?", new Object[]{name})) {
+            return cursor.moveToFirst();
+        }
+    }
+}
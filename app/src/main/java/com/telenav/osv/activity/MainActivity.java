@@ -367,10 +367,10 @@ public class MainActivity extends OSVActivity {
                         user -> {
                             //checks if the user is logged in
                             int userType = user.getUserType();
-                            Log.d(TAG, String.format("checkUserInfo. Status: success. Id: %s. Message: User found.", user.getID()));
+                            Log.d(TAG, "checkUserInfo. Status: success. Id: %s. Message: User found.", user.getID());
                             if (userType == PreferenceTypes.USER_TYPE_UNKNOWN) {
                                 if (mUserDataManager != null) {
-                                    Log.d(TAG, String.format("checkUserInfo userDetails. Status: init. Id: %s. Message: Requesting user details.", user.getID()));
+                                    Log.d(TAG, "checkUserInfo userDetails. Status: init. Id: %s. Message: Requesting user details.", user.getID());
                                     mUserDataManager.getUserProfileDetails(new NetworkResponseDataListener<UserData>() {
 
                                         @Override
@@ -381,9 +381,9 @@ public class MainActivity extends OSVActivity {
                                         @Override
                                         public void requestFinished(int status, UserData userdata) {
                                             Log.d(TAG,
-                                                    String.format("checkUserInfo userDetails. Status: init. Id: %s. Status code: %s. Message: Requesting user details.",
-                                                            user.getID(),
-                                                            status));
+                                                    "checkUserInfo userDetails. Status: init. Id: %s. Status code: %s. Message: Requesting user details.",
+                                                    user.getID(),
+                                                    status);
                                             if (userdata != null) {
                                                 String id = appPrefs.getStringPreference(PreferenceTypes.K_USER_ID);
                                                 String loginType = appPrefs.getStringPreference(PreferenceTypes.K_LOGIN_TYPE);
@@ -399,7 +399,7 @@ public class MainActivity extends OSVActivity {
                             }
                         },
                         //onError
-                        throwable -> Log.d(TAG, String.format("checkUserInfo. Status: error. Message: %s", throwable.getMessage())),
+                        throwable -> Log.d(TAG, "checkUserInfo. Status: error. Message: %s", throwable.getMessage()),
                         //OnComplete
                         () -> Log.d(TAG, "checkUserInfo. Status: complete. Message: User not found.")
                 );
@@ -241,7 +241,7 @@ public class PlayerActivity extends OSVActivity {
                 .subscribe(
                         //onSuccess
                         sequence -> {
-                            Log.d(TAG, String.format("openScreen. Status: success. Sequence id: %s. Message: Sequences loaded successful. ", sequenceId));
+                            Log.d(TAG, "openScreen. Status: success. Sequence id: %s. Message: Sequences loaded successful. ", sequenceId);
                             PlaybackManager player;
                             SequenceDetailsCompressionBase compressionBase = sequence.getCompressionDetails();
                             if (compressionBase instanceof SequenceDetailsCompressionJpeg) {
@@ -262,13 +262,13 @@ public class PlayerActivity extends OSVActivity {
                         },
                         //onError
                         throwable -> {
-                            Log.d(TAG, String.format("openScreen. Status: complete. Sequence id: %s. Message: %s. ", sequenceId, throwable.getLocalizedMessage()));
+                            Log.d(TAG, "openScreen. Status: complete. Sequence id: %s. Message: %s. ", sequenceId, throwable.getLocalizedMessage());
                             Toast.makeText(this, R.string.something_wrong_try_again, Toast.LENGTH_SHORT).show();
                             finish();
                         },
                         //OnComplete
                         () -> {
-                            Log.d(TAG, String.format("openScreen. Status: complete. Sequence id: %s. Message: Local sequence was not found. ", sequenceId));
+                            Log.d(TAG, "openScreen. Status: complete. Sequence id: %s. Message: Local sequence was not found. ", sequenceId);
                             Toast.makeText(this, R.string.something_wrong_try_again, Toast.LENGTH_SHORT).show();
                             finish();
                         }
@@ -102,6 +102,8 @@ public class KVApplication extends Application {
 
         public void uncaughtException(Thread thread, Throwable ex) {
             Log.e(TAG, "uncaughtException: " + Log.getStackTraceString(ex));
+            //writes the stack trace and the previous entries before the crash report, which includes the crashlytics logs
+            Log.flush();
 
             isDebug = Utils.isDebugBuild(KVApplication.this);
             if (!isDebug) {
@@ -114,6 +116,7 @@ public class KVApplication extends Application {
             }
             if (!mIsMainProcess) {
                 Log.d(TAG, "uncaughtException: ");
+                Log.flush();
                 System.exit(1);
                 return;
             }
@@ -125,6 +128,7 @@ public class KVApplication extends Application {
                     stopService(new Intent(KVApplication.this, CameraHandlerService.class));
                 }
                 Log.w(TAG, "uncaughtException: on ui thread");
+                Log.flush();
                 if (isDebug) {
                     mDefaultExHandler.uncaughtException(thread, ex);
                 } else {
@@ -167,7 +171,7 @@ public class KVApplication extends Application {
                 KVApplication.VERSION_NAME);
 
         appPrefs = new ApplicationPreferences(this);
-        Log.d(TAG, String.format("onCreate: app code version - %s", appPrefs.getFloatPreference(PreferenceTypes.K_VERSION_CODE)));
+        Log.d(TAG, "onCreate: app code version - %s", appPrefs.getFloatPreference(PreferenceTypes.K_VERSION_CODE));
         migratePreferences();
         initPrefsFtue();
         appPrefs.saveLongPreference(PreferenceTypes.K_RECORD_START_TIME, 0);
@@ -305,6 +309,7 @@ public class KVApplication extends Application {
             mRecorder = new RecorderManager(KVApplication.this,
                     getUserDataSource(),
                     getSequenceLocalDataSource(),
+                    Injection.provideLocationLocalDataSource(this),
                     getObdManager(),
                     getShutterManager(),
                     getMetadataSensorManager(),
@@ -1,25 +1,25 @@
 package com.telenav.osv.application.initialisation;
 
 import android.content.Context;
-import android.location.Location;
+import android.os.SystemClock;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 
 import com.telenav.osv.common.listener.GenericListener;
 import com.telenav.osv.data.frame.datasource.local.FrameLocalDataSource;
-import com.telenav.osv.data.frame.model.Frame;
 import com.telenav.osv.data.location.datasource.LocationLocalDataSource;
-import com.telenav.osv.data.location.model.KVLocation;
 import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
 import com.telenav.osv.data.sequence.model.LocalSequence;
 import com.telenav.osv.data.sequence.model.details.SequenceDetails;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsFingerprint;
 import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal;
 import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionBase;
 import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionVideo;
 import com.telenav.osv.data.video.datasource.VideoLocalDataSource;
 import com.telenav.osv.data.video.model.Video;
 import com.telenav.osv.item.KVFile;
+import com.telenav.osv.recorder.metadata.MetadataGzipRecovery;
 import com.telenav.osv.utils.ComputingDistance;
 import com.telenav.osv.utils.Log;
 import com.telenav.osv.utils.Utils;
@@ -30,12 +30,16 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 
 /**
  * Class which handles all related functionality related to data consistency.
+ * <p> The sequences are processed in parallel, up to {@link #MAX_CONCURRENT_SEQUENCES} at a time. After a sequence was processed the fingerprint of its folder is
+ * persisted, the sequences with an unchanged folder fingerprint are skipped on the following checks.
  * @author horatiuf
  */
 public class DataConsistency {
@@ -50,6 +54,11 @@ public class DataConsistency {
      */
     private static final int EPOCH_START_YEAR = 1970;
 
+    /**
+     * The maximum number of sequences processed at the same time. The processing is mostly disk bound, therefore a higher value will not speed up the process.
+     */
+    private static final int MAX_CONCURRENT_SEQUENCES = 4;
+
     /**
      * Instance for the current class.
      */
@@ -90,7 +99,27 @@ public class DataConsistency {
      * initialised.
      */
     @DataConsistencyStatus
-    private int status = DataConsistencyStatus.IDLE;
+    private volatile int status = DataConsistencyStatus.IDLE;
+
+    /**
+     * The number of sequences which will be processed by the current data consistency.
+     */
+    private volatile int totalCount;
+
+    /**
+     * The number of sequences which were processed so far by the current data consistency, including the skipped ones.
+     */
+    private final AtomicInteger processedCount = new AtomicInteger();
+
+    /**
+     * The number of sequences which were skipped since their folder did not change since the previous data consistency.
+     */
+    private final AtomicInteger skippedCount = new AtomicInteger();
+
+    /**
+     * The duration in milliseconds of the last finished data consistency.
+     */
+    private volatile long duration;
 
     /**
      * The rx stream representing the data consistency. This is kept in memory for termination/quick stop.
@@ -163,41 +192,44 @@ public class DataConsistency {
      * <p> In case there is any file inconsistencies with the sequence it will be removed, for data inconsistency they will be automatically corrected.
      */
     public void start() {
+        long startTime = SystemClock.elapsedRealtime();
         disposable = sequenceLocalDataSource
                 .getSequences()
                 .subscribeOn(Schedulers.io())
-                .observeOn(Schedulers.io())
+                .doOnSuccess(items -> {
+                    status = DataConsistencyStatus.PROCESSING;
+                    totalCount = items.size();
+                    processedCount.set(0);
+                    skippedCount.set(0);
+                    Log.d(TAG, "start. Status: initialised. Sequences: %s. Message: Starting to start all sequences for consistency.", totalCount);
+                })
+                .flattenAsObservable(items -> items)
+                .flatMap(localSequence -> Observable
+                                .fromCallable(() -> processSequence(localSequence))
+                                .subscribeOn(Schedulers.io()),
+                        MAX_CONCURRENT_SEQUENCES)
                 .subscribe(
-                        //OnSuccess
-                        items -> {
-                            status = DataConsistencyStatus.PROCESSING;
-                            Log.d(TAG, "start. Status: initialised. Message: Starting to start all sequences for consistency.");
-                            for (LocalSequence localSequence : items) {
-                                String sequenceId = localSequence.getID();
-                                Log.d(TAG, String.format("start. Status: start. Message: Starting to start sequence :%s for consistency.", sequenceId));
-                                SequenceDetails sequenceDetails = localSequence.getDetails();
-                                SequenceDetailsLocal sequenceDetailsLocal = localSequence.getLocalDetails();
-                                SequenceDetailsCompressionBase sequenceDetailsCompressionBase = localSequence.getCompressionDetails();
-                                boolean sequenceFileConsistency = isSequenceFileConsistent(sequenceDetailsLocal,
-                                        sequenceDetails.getOnlineId(),
-                                        sequenceDetailsCompressionBase instanceof SequenceDetailsCompressionVideo,
-                                        sequenceId);
-                                Log.d(TAG, String.format("start. Status: %s. Id: %s. Message: Process sequence file consistency.", sequenceFileConsistency, sequenceId));
-                                if (!sequenceFileConsistency) {
-                                    removeSequence(localSequence.getLocalDetails().getFolder(), sequenceId);
-                                    continue;
-                                }
-
-                                sequenceDataConsistency(sequenceDetailsLocal, sequenceDetails, sequenceId);
-                                Log.d(TAG, "start. Status: finished. Message: Finish to start sequence consistency.");
+                        //OnNext
+                        skipped -> {
+                            if (skipped) {
+                                skippedCount.incrementAndGet();
                             }
-                            notifyListeners(false);
-                            Log.d(TAG, "start. Status: end. Message: Processed all sequences for consistency.");
+                            processedCount.incrementAndGet();
                         },
                         //onError
                         throwable -> {
-                            Log.d(TAG, String.format("start. Status: error. Message: %s.", throwable.getLocalizedMessage()));
+                            duration = SystemClock.elapsedRealtime() - startTime;
+                            Log.d(TAG, "start. Status: error. Duration: %s ms. Message: %s.", duration, throwable.getLocalizedMessage());
                             notifyListeners(true);
+                        },
+                        //onComplete
+                        () -> {
+                            duration = SystemClock.elapsedRealtime() - startTime;
+                            Log.d(TAG, "start. Status: end. Processed: %s. Skipped: %s. Duration: %s ms. Message: Processed all sequences for consistency.",
+                                    processedCount.get(),
+                                    skippedCount.get(),
+                                    duration);
+                            notifyListeners(false);
                         }
                 );
     }
@@ -210,6 +242,34 @@ public class DataConsistency {
         return status;
     }
 
+    /**
+     * @return the number of sequences which will be processed by the current data consistency.
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the number of sequences which were processed so far by the current data consistency, including the skipped ones.
+     */
+    public int getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * @return the number of sequences which were skipped by the current data consistency since their folder did not change.
+     */
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    /**
+     * @return the duration in milliseconds of the last finished data consistency, {@code 0} if none finished yet.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
     /**
      * Forces stopping on the data consistency mechanism.
      */
@@ -235,6 +295,59 @@ public class DataConsistency {
         }
     }
 
+    /**
+     * Process the given sequence for both file and data consistency, unless the sequence folder did not change since the last check.
+     * @param localSequence the sequence to be processed.
+     * @return {@code true} if the sequence was skipped, {@code false} otherwise.
+     */
+    private boolean processSequence(@NonNull LocalSequence localSequence) {
+        String sequenceId = localSequence.getID();
+        SequenceDetails sequenceDetails = localSequence.getDetails();
+        SequenceDetailsLocal sequenceDetailsLocal = localSequence.getLocalDetails();
+        KVFile sequenceFolder = sequenceDetailsLocal.getFolder();
+        if (isSequenceFolderUnchanged(sequenceId, sequenceDetailsLocal)) {
+            Log.d(TAG, "processSequence. Status: skip. Id: %s. Message: Sequence folder not changed since the last consistency.", sequenceId);
+            return true;
+        }
+        Log.d(TAG, "processSequence. Status: start. Message: Starting to start sequence :%s for consistency.", sequenceId);
+        boolean sequenceFileConsistency = isSequenceFileConsistent(sequenceDetailsLocal,
+                sequenceDetails.getOnlineId(),
+                localSequence.getCompressionDetails() instanceof SequenceDetailsCompressionVideo,
+                sequenceId);
+        Log.d(TAG, "processSequence. Status: %s. Id: %s. Message: Process sequence file consistency.", sequenceFileConsistency, sequenceId);
+        if (!sequenceFileConsistency) {
+            removeSequence(sequenceFolder, sequenceId);
+            return false;
+        }
+        sequenceDataConsistency(sequenceDetailsLocal, sequenceDetails, sequenceId);
+        //the fingerprint is computed after the checks since these can change the folder content, e.g. the metadata removal
+        SequenceDetailsFingerprint fingerprint = SequenceDetailsFingerprint.fromFolder(sequenceFolder);
+        if (fingerprint != null && sequenceDetailsLocal.getConsistencyStatus() == SequenceDetailsLocal.SequenceConsistencyStatus.VALID) {
+            sequenceLocalDataSource.updateFingerprint(sequenceId, fingerprint);
+        } else {
+            //a fingerprint kept for a missing folder would match again once the folder is restored, e.g. by inserting the sd card, and skip the repair of the sequence
+            boolean deleteFingerprint = sequenceLocalDataSource.deleteFingerprint(sequenceId);
+            Log.d(TAG, "processSequence. Status: %s. Id: %s. Message: Fingerprint removed since the sequence is not valid.", deleteFingerprint, sequenceId);
+        }
+        Log.d(TAG, "processSequence. Status: finished. Message: Finish to start sequence consistency.");
+        return false;
+    }
+
+    /**
+     * @param sequenceId the sequence identifier.
+     * @param sequenceDetailsLocal the local details of the sequence, used for the persisted consistency status and the physical folder.
+     * @return {@code true} if the sequence is valid, its folder exists and the folder fingerprint is the same as the one persisted by the last consistency check, {@code false}
+     * otherwise.
+     */
+    private boolean isSequenceFolderUnchanged(@NonNull String sequenceId, @NonNull SequenceDetailsLocal sequenceDetailsLocal) {
+        KVFile sequenceFolder = sequenceDetailsLocal.getFolder();
+        if (sequenceDetailsLocal.getConsistencyStatus() != SequenceDetailsLocal.SequenceConsistencyStatus.VALID || !sequenceFolder.exists()) {
+            return false;
+        }
+        SequenceDetailsFingerprint storedFingerprint = sequenceLocalDataSource.getFingerprint(sequenceId);
+        return storedFingerprint != null && storedFingerprint.equals(SequenceDetailsFingerprint.fromFolder(sequenceFolder));
+    }
+
     /**
      * Checks and fix the data consistency for the sequence. This will represent:
      * <ul>
@@ -254,26 +367,23 @@ public class DataConsistency {
         if (sequenceDetailsLocal.getConsistencyStatus() == SequenceDetailsLocal.SequenceConsistencyStatus.EXTERNAL_DATA_MISSING) {
             boolean updateDiskSize = sequenceLocalDataSource.updateDiskSize(sequenceId, 0);
             Log.d(TAG,
-                    String.format(
-                            "sequenceDataConsistency update disk size. Status: %s. Size: 0. Message: Updating the disk size since the external data is missing.",
-                            updateDiskSize));
+                    "sequenceDataConsistency update disk size. Status: %s. Size: 0. Message: Updating the disk size since the external data is missing.",
+                    updateDiskSize);
         } else if (sequenceDetailsLocal.getDiskSize() == 0) {
             Long newDiskSize = Utils.folderSize(sequenceFolder);
             boolean updateDiskSize = sequenceLocalDataSource.updateDiskSize(sequenceId, newDiskSize);
             Log.d(TAG,
-                    String.format(
-                            "sequenceDataConsistency update disk size. Status: %s. Size: %s. Message: Updating the disk size since it is not set.",
-                            updateDiskSize,
-                            newDiskSize));
+                    "sequenceDataConsistency update disk size. Status: %s. Size: %s. Message: Updating the disk size since it is not set.",
+                    updateDiskSize,
+                    newDiskSize);
         }
         if (sequenceDetails.getDateTime().getYear() == EPOCH_START_YEAR) {
             long dateTimeLong = sequenceFolder.lastModified();
             boolean updateDateTime = sequenceLocalDataSource.updateDateTime(sequenceId, new DateTime(dateTimeLong));
             Log.d(TAG,
-                    String.format(
-                            "sequenceDataConsistency update distance. Status: %s. Distance: %s. Message: Updating the datetime since it is set as default.",
-                            updateDateTime,
-                            dateTimeLong));
+                    "sequenceDataConsistency update distance. Status: %s. Distance: %s. Message: Updating the datetime since it is set as default.",
+                    updateDateTime,
+                    dateTimeLong);
         }
         if (sequenceDetails.getDistance() == 0) {
             updateDistanceForSequenceId(sequenceDetails, sequenceId);
@@ -282,11 +392,11 @@ public class DataConsistency {
         int videoNo = videoLocalDataSource.getVideoCountBySequenceId(sequenceId);
         int frameNo = locationLocalDataSource.getLocationsCountBySequenceId(sequenceId);
         boolean updateCompressionInfo = sequenceLocalDataSource.updateCompressionSizeInfo(sequenceId, frameNo, videoNo);
-        Log.d(TAG, String.format(
+        Log.d(TAG,
                 "sequenceDataConsistency update compression info. Status: %s. Message: Updating compression size of the sequence. Video no: %s. Frame no: %s.",
                 updateCompressionInfo,
                 videoNo,
-                frameNo));
+                frameNo);
         Log.d(TAG, "isSequenceFileConsistent. Status: finishing. Message: Finish to start file specific sequence consistency");
     }
 
@@ -295,25 +405,23 @@ public class DataConsistency {
      * <p> This will only happen at a migration since there is no other way to get the old distance to the new sequence since it was only cached and not persisted.
      */
     private void updateDistanceForSequenceId(SequenceDetails sequenceDetails, String sequenceId) {
-        List<KVLocation> sequenceLocations = locationLocalDataSource.getLocationsBySequenceId(sequenceId).blockingGet();
-        if (sequenceLocations != null) {
+        double[] coordinates = locationLocalDataSource.getCoordinatesBySequenceId(sequenceId);
+        if (coordinates != null) {
             double distance = 0;
-            for (int i = 0; i < sequenceLocations.size() - 1; i++) {
-                Location currentLocation = sequenceLocations.get(i).getLocation();
-                Location nextLocation = sequenceLocations.get(i + 1).getLocation();
+            //the coordinates are pairs of latitude and longitude
+            for (int i = 0; i + 3 < coordinates.length; i += 2) {
                 distance += ComputingDistance.distanceBetween(
-                        currentLocation.getLongitude(),
-                        currentLocation.getLatitude(),
-                        nextLocation.getLongitude(),
-                        nextLocation.getLatitude());
+                        coordinates[i + 1],
+                        coordinates[i],
+                        coordinates[i + 3],
+                        coordinates[i + 2]);
             }
             if (distance != 0) {
                 boolean updateDistance = sequenceLocalDataSource.updateDistance(sequenceId, distance);
                 Log.d(TAG,
-                        String.format(
-                                "sequenceDataConsistency update distance. Status: %s. Distance: %s. Message: Updating the distance since it is not set.",
-                                updateDistance,
-                                distance));
+                        "sequenceDataConsistency update distance. Status: %s. Distance: %s. Message: Updating the distance since it is not set.",
+                        updateDistance,
+                        distance);
                 sequenceDetails.setDistance(distance);
             } else {
                 Log.d(TAG, "sequenceDataConsistency update distance: Status: abort. Message: Not enough locations in order to compute distance.");
@@ -352,14 +460,14 @@ public class DataConsistency {
             Log.d(TAG, "isSequenceFileConsistent. Status: finishing. Message: Finish to start file specific sequence consistency");
             int missingExternal = SequenceDetailsLocal.SequenceConsistencyStatus.EXTERNAL_DATA_MISSING;
             boolean updateConsistencyStatus = sequenceLocalDataSource.updateConsistencyStatus(sequenceId, missingExternal);
-            Log.d(TAG, String.format(
+            Log.d(TAG,
                     "isSequenceFileConsistent. Status: external data missing. Message: Sd card was removed, updating consistency status flag. Status: %s",
-                    updateConsistencyStatus));
+                    updateConsistencyStatus);
             sequenceDetailsLocal.setConsistencyStatus(missingExternal);
             sequenceFileConsistency = true;
         }
 
-        Log.d(TAG, String.format("isSequenceFileConsistent. Status: %s. Message: Finish to start file specific sequence consistency.", sequenceFileConsistency));
+        Log.d(TAG, "isSequenceFileConsistent. Status: %s. Message: Finish to start file specific sequence consistency.", sequenceFileConsistency);
         return sequenceFileConsistency;
     }
 
@@ -375,6 +483,13 @@ public class DataConsistency {
             return false;
         }
         Log.d(TAG, "processSequenceFileConsistency. Status: metadata check. Message: Starting to check the metadata existence");
+        if (isOnlineNotSetSet) {
+            KVFile recoveredMetadata = MetadataGzipRecovery.INSTANCE.recover(sequenceFolder);
+            if (recoveredMetadata != null) {
+                Log.d(TAG, "processSequenceFileConsistency. Status: metadata recovered. Size: %s. Message: Recovered the compressed metadata of an unfinished recording.",
+                        Utils.fileSize(recoveredMetadata));
+            }
+        }
         File[] metadata = Utils.findFilesByExtension(sequenceFolder, new ArrayList<String>() {
             {
                 add(SequenceDetailsCompressionBase.SequenceFilesExtensions.METADATA_DEFAULT);
@@ -383,24 +498,32 @@ public class DataConsistency {
             {
                 add(SequenceDetailsCompressionBase.SequenceFilesExtensions.METADATA_TXT);
             }
+
+            {
+                add(SequenceDetailsCompressionBase.SequenceFilesExtensions.METADATA_BINARY);
+            }
+
+            {
+                add(SequenceDetailsCompressionBase.SequenceFilesExtensions.METADATA_PARTIAL);
+            }
         });
         boolean metadataExists = metadata.length != 0;
         if (isOnlineNotSetSet) {
             if (!metadataExists) {
                 int metadataMissingStatus = SequenceDetailsLocal.SequenceConsistencyStatus.METADATA_MISSING;
                 boolean updateConsistencyStatus = sequenceLocalDataSource.updateConsistencyStatus(sequenceId, metadataMissingStatus);
-                Log.d(TAG, String.format(
+                Log.d(TAG,
                         "processSequenceFileConsistency. Status: %s. Message: Online id not set and metadata file not found. Updating consistency status flag.",
-                        updateConsistencyStatus));
+                        updateConsistencyStatus);
                 sequenceDetailsLocal.setConsistencyStatus(metadataMissingStatus);
             }
         } else if (metadataExists) {
             for (File file : metadata) {
                 boolean deletingMetadataFiles = file.delete();
-                Log.d(TAG, String.format(
+                Log.d(TAG,
                         "processSequenceFileConsistency. Status: metadata remove. Status: %s. Name: %s. Message: Online id set and metadata file not found. Removing metadata.",
                         deletingMetadataFiles,
-                        file.getName()));
+                        file.getName());
             }
         }
         Log.d(TAG, "processSequenceFileConsistency. Status: compression check. Message: Starting to check the compression size");
@@ -411,7 +534,7 @@ public class DataConsistency {
         }
         int validStatus = SequenceDetailsLocal.SequenceConsistencyStatus.VALID;
         boolean updateConsistencyStatus = sequenceLocalDataSource.updateConsistencyStatus(sequenceId, validStatus);
-        Log.d(TAG, String.format("processSequenceFileConsistency. Status: %s. Message: Updating consistency status flag to valid.", updateConsistencyStatus));
+        Log.d(TAG, "processSequenceFileConsistency. Status: %s. Message: Updating consistency status flag to valid.", updateConsistencyStatus);
         sequenceDetailsLocal.setConsistencyStatus(validStatus);
         return true;
     }
@@ -427,7 +550,7 @@ public class DataConsistency {
                 if (isFileAbsent(video.getPath())) {
                     int dataMissing = SequenceDetailsLocal.SequenceConsistencyStatus.DATA_MISSING;
                     boolean updateConsistencyStatus = sequenceLocalDataSource.updateConsistencyStatus(sequenceId, dataMissing);
-                    Log.d(TAG, String.format("videoSequenceFileCompressionCheck. Status: %s. Message: Missing video, updating consistency status flag.", updateConsistencyStatus));
+                    Log.d(TAG, "videoSequenceFileCompressionCheck. Status: %s. Message: Missing video, updating consistency status flag.", updateConsistencyStatus);
                     sequenceDetailsLocal.setConsistencyStatus(dataMissing);
                     return;
                 }
@@ -441,19 +564,19 @@ public class DataConsistency {
      */
     private void frameSequenceCompressionCheck(@NonNull String sequenceId, @NonNull SequenceDetailsLocal sequenceDetailsLocal) {
         Log.d(TAG, "isSequenceFileConsistent. Status: frame compression check. Message: Starting to check the frame compression checks.");
-        List<Frame> frames = frameLocalDataSource.getFrames(sequenceId).blockingGet();
-        if (frames != null && !frames.isEmpty()) {
-            for (Frame frame : frames) {
-                if (isFileAbsent(frame.getFilePath())) {
-                    int dataMissing = SequenceDetailsLocal.SequenceConsistencyStatus.DATA_MISSING;
-                    boolean updateConsistencyStatus = sequenceLocalDataSource.updateConsistencyStatus(sequenceId, dataMissing);
-                    Log.d(TAG, String.format(
-                            "frameSequenceCompressionCheck. Status: %s. Message: Missing frame, updating consistency status flag.",
-                            updateConsistencyStatus));
-                    sequenceDetailsLocal.setConsistencyStatus(dataMissing);
-                    return;
-                }
-            }
+        //the file paths are streamed from the persistence and the check stops at the first missing file
+        boolean frameMissing = frameLocalDataSource
+                .getFrameFilePathsLazy(sequenceId)
+                .any(this::isFileAbsent)
+                .blockingGet();
+        if (frameMissing) {
+            int dataMissing = SequenceDetailsLocal.SequenceConsistencyStatus.DATA_MISSING;
+            boolean updateConsistencyStatus = sequenceLocalDataSource.updateConsistencyStatus(sequenceId, dataMissing);
+            Log.d(TAG,
+                    "frameSequenceCompressionCheck. Status: %s. Message: Missing frame, updating consistency status flag.",
+                    updateConsistencyStatus);
+            sequenceDetailsLocal.setConsistencyStatus(dataMissing);
+            return;
         }
         Log.d(TAG, "isSequenceFileConsistent. Status: frame check complete. Message: Finished frame compression check successfully.");
     }
@@ -471,7 +594,7 @@ public class DataConsistency {
      */
     private void removeSequence(KVFile file, String sequenceId) {
         boolean removeSequence = file.delete() && sequenceLocalDataSource.deleteSequence(sequenceId);
-        Log.d(TAG, String.format("removeSequence. Status: %s. Message: Removal of both database and physical folder.", removeSequence));
+        Log.d(TAG, "removeSequence. Status: %s. Message: Removal of both database and physical folder.", removeSequence);
     }
 
     /**
@@ -41,6 +41,7 @@ import com.telenav.osv.network.KVApi;
 import com.telenav.osv.network.endpoint.FactoryServerEndpointUrl;
 import com.telenav.osv.network.request.interceptor.JarvisRequestAuthorizationInterceptor;
 import com.telenav.osv.network.util.RetrofitFactory;
+import com.telenav.osv.network.util.SharedHttpClient;
 import com.telenav.osv.obd.manager.ObdManager;
 import com.telenav.osv.recorder.camera.Camera;
 import com.telenav.osv.recorder.camera.CameraManager;
@@ -53,6 +54,7 @@ import com.telenav.osv.recorder.metadata.callback.MetadataObdCallback;
 import com.telenav.osv.recorder.metadata.callback.MetadataPhotoVideoCallback;
 import com.telenav.osv.recorder.persistence.RecordingPersistence;
 import com.telenav.osv.recorder.persistence.frame.FramePersistenceManager;
+import com.telenav.osv.recorder.persistence.frame.JpegFileWriter;
 import com.telenav.osv.recorder.persistence.video.VideoPersistenceManager;
 import com.telenav.osv.recorder.score.PositionMatcher;
 import com.telenav.osv.recorder.score.Score;
@@ -77,6 +79,9 @@ import com.telenav.osv.upload.UploadManager;
 import com.telenav.osv.upload.UploadManagerImpl;
 import com.telenav.osv.utils.Size;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 import okhttp3.OkHttpClient;
 import retrofit2.CallAdapter;
 import retrofit2.Converter;
@@ -295,6 +300,8 @@ public class Injection {
 
     /**
      * Provides {@code RecordingPersistence} implementation which is responsible to store JPEG images.
+     * The frames are committed in groups, see {@link FramePersistenceManager#GROUP_COMMIT_MAX_FRAMES} and {@link FramePersistenceManager#GROUP_COMMIT_MAX_DELAY_MS},
+     * while the JPEG files are written by a {@link JpegFileWriter} which syncs them periodically.
      * @param sequenceLocalDataSource data source for sequence used to update the details when a picture is taken.
      * @param locationLocalDataSource data source for location used to store the frame location.
      * @param frameLocalDataSource data source for storing frame information.
@@ -309,7 +316,25 @@ public class Injection {
         checkNotNull(locationLocalDataSource);
         checkNotNull(frameLocalDataSource);
         checkNotNull(metadataPhotoVideoCallback);
-        return new FramePersistenceManager(sequenceLocalDataSource, locationLocalDataSource, frameLocalDataSource, metadataPhotoVideoCallback);
+        return new FramePersistenceManager(sequenceLocalDataSource,
+                locationLocalDataSource,
+                frameLocalDataSource,
+                metadataPhotoVideoCallback,
+                new JpegFileWriter(JpegFileWriter.DEFAULT_CAPACITY,
+                        JpegFileWriter.SyncPolicy.PERIODIC,
+                        JpegFileWriter.DEFAULT_SYNC_INTERVAL_MS,
+                        provideJpegFileWriterExecutor()),
+                FramePersistenceManager.GROUP_COMMIT_MAX_FRAMES,
+                FramePersistenceManager.GROUP_COMMIT_MAX_DELAY_MS);
+    }
+
+    /**
+     * Provides the executor shared by all the {@link JpegFileWriter}s, therefore a new frame persistence, created when the recording switches between photo and
+     * video, does not start a new thread.
+     * @return the {@code Executor} which runs the JPEG file writes one at a time in order on a single thread.
+     */
+    public static Executor provideJpegFileWriterExecutor() {
+        return JpegFileWriterExecutorHolder.INSTANCE;
     }
 
     /**
@@ -472,10 +497,10 @@ public class Injection {
 
     /**
      * @param applicationPreferences used to fetch user token
-     * @return a new {@code OkHttpClient} instance for use in MapBox
+     * @return a new {@code OkHttpClient} instance for use in MapBox, derived from the {@link SharedHttpClient}.
      */
     public static OkHttpClient provideMapBoxOkHttpClient(@NonNull ApplicationPreferences applicationPreferences) {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        OkHttpClient.Builder builder = SharedHttpClient.newBuilder();
         if (LoginUtils.isLoginTypePartner(applicationPreferences)) {
             builder.addInterceptor(new JarvisRequestAuthorizationInterceptor(applicationPreferences));
         }
@@ -604,4 +629,12 @@ public class Injection {
         checkNotNull(locationService);
         return new GpsTrailHelper(locationService);
     }
+
+    /**
+     * Holder of the executor returned by {@link #provideJpegFileWriterExecutor()}, created on the first use.
+     */
+    private static class JpegFileWriterExecutorHolder {
+
+        private static final Executor INSTANCE = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "JpegFileWriter"));
+    }
 }
@@ -34,7 +34,7 @@ public abstract class KVServiceConnection<T extends KVBaseService, G extends KVB
 
     @Override
     public void onServiceConnected(ComponentName componentName, IBinder service) {
-        Log.d(TAG, String.format("onServiceConnected. Component name: %s", componentName.getClassName()));
+        Log.d(TAG, "onServiceConnected. Component name: %s", componentName.getClassName());
         @SuppressWarnings("unchecked")
         G binder = (G) service;
         @SuppressWarnings("unchecked")
@@ -45,7 +45,7 @@ public abstract class KVServiceConnection<T extends KVBaseService, G extends KVB
 
     @Override
     public void onServiceDisconnected(ComponentName componentName) {
-        Log.d(TAG, String.format("onServiceDisconnected. Component name: %s", componentName.getClassName()));
+        Log.d(TAG, "onServiceDisconnected. Component name: %s", componentName.getClassName());
         service = null;
         bounded = false;
     }
@@ -0,0 +1,163 @@
+package com.telenav.osv.common.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Function;
+
+/**
+ * Observer which delivers the events on a scheduler, merging the events of the same key which wait for the consumer.
+ * <p>
+ * The producer never waits for the consumer, and the pending events are limited to the number of distinct keys, which makes a slow consumer skip the intermediate
+ * states of an event instead of queueing them.
+ * @see SimpleEventBus#conflatedObservable(Class, Function, BiFunction, Scheduler)
+ */
+class ConflatingObserver<T> implements Observer<T>, Disposable, Runnable {
+
+    private final Observer<? super T> downstream;
+
+    private final Function<? super T, ?> keySelector;
+
+    private final BiFunction<T, T, T> merger;
+
+    private final Scheduler.Worker worker;
+
+    /**
+     * The events waiting for the consumer by key, in the order of their first post.
+     */
+    private final Map<Object, T> pending = new LinkedHashMap<>();
+
+    /**
+     * The number of drain requests, the drain being scheduled when it goes from 0 to 1.
+     */
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    private Disposable upstream;
+
+    private Throwable error;
+
+    private volatile boolean done;
+
+    private volatile boolean disposed;
+
+    ConflatingObserver(Observer<? super T> downstream, Function<? super T, ?> keySelector, BiFunction<T, T, T> merger, Scheduler.Worker worker) {
+        this.downstream = downstream;
+        this.keySelector = keySelector;
+        this.merger = merger;
+        this.worker = worker;
+    }
+
+    @Override
+    public void onSubscribe(Disposable disposable) {
+        upstream = disposable;
+        downstream.onSubscribe(this);
+    }
+
+    @Override
+    public void onNext(T event) {
+        if (done) {
+            return;
+        }
+        try {
+            Object key = keySelector.apply(event);
+            synchronized (pending) {
+                T pendingEvent = pending.get(key);
+                pending.put(key, pendingEvent == null ? event : merger.apply(pendingEvent, event));
+            }
+        } catch (Throwable throwable) {
+            Exceptions.throwIfFatal(throwable);
+            upstream.dispose();
+            onError(throwable);
+            return;
+        }
+        scheduleDrain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        error = throwable;
+        done = true;
+        scheduleDrain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        scheduleDrain();
+    }
+
+    @Override
+    public void dispose() {
+        if (!disposed) {
+            disposed = true;
+            upstream.dispose();
+            worker.dispose();
+            synchronized (pending) {
+                pending.clear();
+            }
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Delivers the pending events on the worker of the scheduler.
+     */
+    @Override
+    public void run() {
+        int missed = 1;
+        List<T> events = new ArrayList<>();
+        while (true) {
+            if (disposed) {
+                return;
+            }
+            boolean terminated = done;
+            synchronized (pending) {
+                events.addAll(pending.values());
+                pending.clear();
+            }
+            for (T event : events) {
+                if (disposed) {
+                    return;
+                }
+                downstream.onNext(event);
+            }
+            events.clear();
+            if (terminated) {
+                if (error != null) {
+                    downstream.onError(error);
+                } else {
+                    downstream.onComplete();
+                }
+                worker.dispose();
+                return;
+            }
+            missed = drainRequests.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainRequests.getAndIncrement() == 0) {
+            worker.schedule(this);
+        }
+    }
+}
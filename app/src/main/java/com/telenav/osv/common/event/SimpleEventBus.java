@@ -1,25 +1,117 @@
 package com.telenav.osv.common.event;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import androidx.annotation.NonNull;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Function;
 import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
 
+/**
+ * Event bus which keeps a channel per event class.
+ * <p>
+ * A posted event is dispatched only to the channels of its class and of its supertypes, looked up once per event class, therefore a subscriber costs nothing to the
+ * events of other classes. The slow consumers of frequent events can subscribe with {@link #conflatedObservable(Class, Function, BiFunction, Scheduler)}, which
+ * merges the events waiting for the consumer instead of queueing all of them.
+ */
 public class SimpleEventBus {
-    private final PublishSubject<Object> mBusSubject;
 
-    public SimpleEventBus() {
-        mBusSubject = PublishSubject.create();
-    }
+    /**
+     * The channel of each event class which has, or had, subscribers.
+     */
+    private final ConcurrentHashMap<Class<?>, Subject<Object>> channels = new ConcurrentHashMap<>();
+
+    /**
+     * The channels to which the events of each posted class are dispatched, the channel of the class and the channels of its supertypes.
+     */
+    private final Map<Class<?>, List<Subject<Object>>> dispatchCache = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented when a channel is added, in order to discard the dispatch lists computed concurrently.
+     */
+    private final AtomicInteger channelsVersion = new AtomicInteger();
 
     public void post(Object event) {
-        mBusSubject.onNext(event);
+        Class<?> eventClass = event.getClass();
+        List<Subject<Object>> eventChannels = dispatchCache.get(eventClass);
+        if (eventChannels == null) {
+            eventChannels = findChannels(eventClass);
+        }
+        for (int i = 0, size = eventChannels.size(); i < size; i++) {
+            eventChannels.get(i).onNext(event);
+        }
     }
 
+    /**
+     * @return the observable of all the events posted on the bus.
+     */
     public Observable<Object> observable() {
-        return mBusSubject;
+        return getChannel(Object.class);
     }
 
+    /**
+     * @return the observable of the events which are instances of the given class.
+     */
     @SuppressWarnings("unchecked")
     public <T> Observable<T> filteredObservable(final Class<T> eventClass) {
-        return mBusSubject.filter(eventClass::isInstance).map(event -> (T) event);
+        return (Observable<T>) getChannel(eventClass);
+    }
+
+    /**
+     * Observable of the events which are instances of the given class, delivered on the given scheduler.
+     * <p>
+     * The events posted while the consumer is busy are kept by key, an event replacing the event with the same key, merged with it, and keeping its place. The
+     * pending events are then limited to the number of keys whatever the rate of the posts.
+     * @param eventClass the class of the events.
+     * @param keySelector the key of an event, the events with equal keys being merged.
+     * @param merger the function merging a pending event with a new event of the same key.
+     * @param scheduler the scheduler on which the events are delivered.
+     */
+    public <T> Observable<T> conflatedObservable(@NonNull Class<T> eventClass,
+                                                 @NonNull Function<? super T, ?> keySelector,
+                                                 @NonNull BiFunction<T, T, T> merger,
+                                                 @NonNull Scheduler scheduler) {
+        return filteredObservable(eventClass).lift(downstream -> new ConflatingObserver<>(downstream, keySelector, merger, scheduler.createWorker()));
+    }
+
+    private Subject<Object> getChannel(Class<?> eventClass) {
+        Subject<Object> channel = channels.get(eventClass);
+        if (channel == null) {
+            Subject<Object> newChannel = PublishSubject.create().toSerialized();
+            channel = channels.putIfAbsent(eventClass, newChannel);
+            if (channel == null) {
+                channel = newChannel;
+                channelsVersion.incrementAndGet();
+                dispatchCache.clear();
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * Computes and caches the channels to which the events of the given class are dispatched.
+     */
+    private List<Subject<Object>> findChannels(Class<?> eventClass) {
+        int version = channelsVersion.get();
+        List<Subject<Object>> eventChannels = new ArrayList<>();
+        for (Map.Entry<Class<?>, Subject<Object>> entry : channels.entrySet()) {
+            if (entry.getKey().isAssignableFrom(eventClass)) {
+                eventChannels.add(entry.getValue());
+            }
+        }
+        eventChannels = Collections.unmodifiableList(eventChannels);
+        dispatchCache.put(eventClass, eventChannels);
+        if (channelsVersion.get() != version) {
+            //a channel was added meanwhile, the list is computed again on the next post
+            dispatchCache.remove(eventClass);
+        }
+        return eventChannels;
     }
 }
@@ -1,6 +1,7 @@
 package com.telenav.osv.common.model.base;
 
 import com.jakewharton.retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+import com.telenav.osv.network.util.SharedHttpClient;
 import okhttp3.FormBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -59,7 +60,7 @@ public abstract class BaseInteractorImpl {
      * @return the instance of the {@code OkHttpClient}.
      */
     private OkHttpClient createOkHttpClient(String token) {
-        OkHttpClient.Builder client = new OkHttpClient.Builder();
+        OkHttpClient.Builder client = SharedHttpClient.newBuilder();
         client.addInterceptor(chain -> {
             RequestBody requestBody = new FormBody.Builder()
                     .add(BODY_PARAM_ACCESS_TOKEN, token)
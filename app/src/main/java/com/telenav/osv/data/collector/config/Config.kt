@@ -26,7 +26,11 @@ class Config private constructor(
         val sourceList: List<String> = ArrayList(),
         val obdConnectionListener: ObdConnectionListener = ObdConnectionListener.EMPTY,
         val dataListeners: Map<EventDataListener, MutableList<String>> = HashMap(),
-        val datafrequency: Map<String, Int>) {
+        val datafrequency: Map<String, Int>,
+        /**
+         * The maximum time in microseconds the phone sensor events can be batched in the hardware FIFO, 0 if they are not batched
+         */
+        val maxReportLatencyUs: Int = 0) {
 
     /**
      * Map that contains the sensor and the collection frequency
@@ -51,6 +55,7 @@ class Config private constructor(
         private var obdConnectionListener: ObdConnectionListener = ObdConnectionListener.EMPTY
         private val dataListeners: MutableMap<EventDataListener, MutableList<String>> = HashMap()
         private val sensorFrequencies: MutableMap<String, Int> = HashMap()
+        private var maxReportLatencyUs = 0
         fun setBluetoothDevice(@NonNull bluetoothDevice: BluetoothDevice?): Builder {
             this.bluetoothDevice = bluetoothDevice
             return this
@@ -103,9 +108,18 @@ class Config private constructor(
             return this
         }
 
+        /**
+         * Sets the maximum time in microseconds the phone sensor events can be delayed in the hardware FIFO in order to be delivered in batches.
+         * The sensors without a FIFO deliver each event as soon as it is read.
+         */
+        fun setMaxReportLatency(maxReportLatencyUs: Int): Builder {
+            this.maxReportLatencyUs = maxReportLatencyUs
+            return this
+        }
+
         fun build(): Config {
             validateInput()
-            return Config(bluetoothDevice, bleMacAddress, sourceList, obdConnectionListener, dataListeners, sensorFrequencies)
+            return Config(bluetoothDevice, bleMacAddress, sourceList, obdConnectionListener, dataListeners, sensorFrequencies, maxReportLatencyUs)
         }
 
         private fun validateInput() {
@@ -0,0 +1,14 @@
+package com.telenav.osv.data.collector.datatype
+
+import com.telenav.osv.data.collector.datatype.datatypes.SensorSampleBuffer
+
+/**
+ * Zero allocation counterpart of [EventDataListener] for the phone sensors which provide samples, the ones with three axes and the pressure.
+ *
+ * An [EventDataListener] which also implements this interface receives the readings of these sensors here, as an index in the
+ * [SensorSampleBuffer] of the sensor, instead of [EventDataListener.onNewEvent]. The sample is valid only during the call, the values
+ * which are needed afterwards have to be copied.
+ */
+interface SensorSampleListener {
+    fun onSensorSample(samples: SensorSampleBuffer, index: Int)
+}
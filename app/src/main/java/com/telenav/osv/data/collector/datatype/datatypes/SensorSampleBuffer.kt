@@ -0,0 +1,137 @@
+package com.telenav.osv.data.collector.datatype.datatypes
+
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil.AvailableData
+
+/**
+ * Ring buffer which holds the latest samples of a phone sensor as primitive arrays, one array for the timestamps and one for each axis,
+ * in order to deliver the sensor readings without allocating an object for each of them.
+ *
+ * The buffer is written by the collector of the sensor on the sensor thread, a sample is identified by the index returned by [append]
+ * and is valid until [capacity] newer samples are appended. The sensors with a single value, such as the pressure, use only the x axis.
+ */
+class SensorSampleBuffer(@AvailableData val sensorType: String, capacity: Int = DEFAULT_CAPACITY) {
+
+    private val mask: Int
+
+    private val timestamps: LongArray
+
+    private val xValues: FloatArray
+
+    private val yValues: FloatArray
+
+    private val zValues: FloatArray
+
+    /**
+     * The number of samples appended since the buffer was created or cleared.
+     */
+    var count: Long = 0
+        private set
+
+    init {
+        require(capacity > 0) { "Capacity must be positive" }
+        val size = Integer.highestOneBit((capacity - 1) shl 1).coerceAtLeast(1)
+        mask = size - 1
+        timestamps = LongArray(size)
+        xValues = FloatArray(size)
+        yValues = FloatArray(size)
+        zValues = FloatArray(size)
+    }
+
+    /**
+     * The number of samples the buffer retains, the requested capacity rounded up to a power of two.
+     */
+    val capacity: Int
+        get() = mask + 1
+
+    /**
+     * The index of the latest sample or -1 if the buffer is empty.
+     */
+    val latestIndex: Int
+        get() = if (count == 0L) -1 else ((count - 1) and mask.toLong()).toInt()
+
+    /**
+     * Stores a sample, overwriting the oldest one if the buffer is full.
+     * @return the index of the sample.
+     */
+    fun append(timestamp: Long, x: Float, y: Float, z: Float): Int {
+        val index = (count and mask.toLong()).toInt()
+        timestamps[index] = timestamp
+        xValues[index] = x
+        yValues[index] = y
+        zValues[index] = z
+        count++
+        return index
+    }
+
+    fun getTimestamp(index: Int): Long {
+        return timestamps[index]
+    }
+
+    fun getxValue(index: Int): Float {
+        return xValues[index]
+    }
+
+    fun getyValue(index: Int): Float {
+        return yValues[index]
+    }
+
+    fun getzValue(index: Int): Float {
+        return zValues[index]
+    }
+
+    fun clear() {
+        count = 0
+    }
+
+    /**
+     * Creates the [BaseObject] of a sample for the consumers which still require the object model.
+     * @return the object of the sensor type or null if the sensor type has no object created from samples.
+     */
+    fun toBaseObject(index: Int): BaseObject<*>? {
+        val baseObject: BaseObject<*> = when (sensorType) {
+            LibraryUtil.PRESSURE -> PressureObject(xValues[index], LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            else -> {
+                val threeAxesObject = createThreeAxesObject() ?: return null
+                threeAxesObject.setxValue(xValues[index])
+                threeAxesObject.setyValue(yValues[index])
+                threeAxesObject.setzValue(zValues[index])
+                threeAxesObject
+            }
+        }
+        baseObject.timestamp = timestamps[index]
+        return baseObject
+    }
+
+    private fun createThreeAxesObject(): ThreeAxesObject? {
+        return when (sensorType) {
+            LibraryUtil.ACCELEROMETER -> AccelerometerObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            LibraryUtil.LINEAR_ACCELERATION -> LinearAccelerationObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            LibraryUtil.GYROSCOPE -> GyroscopeObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            LibraryUtil.GRAVITY -> GravityObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            LibraryUtil.MAGNETIC -> CompassObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            LibraryUtil.HEADING -> HeadingObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            LibraryUtil.ROTATION_VECTOR_NORTH_REFERENCE -> RotationVectorNorthObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            LibraryUtil.ROTATION_VECTOR_RAW -> RotationVectorRawObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            else -> null
+        }
+    }
+
+    companion object {
+        /**
+         * The default number of retained samples, one second of readings at the highest frequency of [LibraryUtil.F_100HZ].
+         */
+        const val DEFAULT_CAPACITY = 128
+
+        /**
+         * The sensors whose readings are delivered as samples.
+         */
+        private val SAMPLED_SENSOR_TYPES = setOf(LibraryUtil.ACCELEROMETER, LibraryUtil.LINEAR_ACCELERATION, LibraryUtil.GYROSCOPE, LibraryUtil.GRAVITY,
+                LibraryUtil.MAGNETIC, LibraryUtil.HEADING, LibraryUtil.ROTATION_VECTOR_NORTH_REFERENCE, LibraryUtil.ROTATION_VECTOR_RAW, LibraryUtil.PRESSURE)
+
+        @JvmStatic
+        fun isSampled(@AvailableData sensorType: String): Boolean {
+            return SAMPLED_SENSOR_TYPES.contains(sensorType)
+        }
+    }
+}
@@ -98,6 +98,7 @@ object LibraryUtil {
     const val UNREGISTER_SENSOR_TAG = "unregisterSensorFromListener"
     const val SET_FREQUENCY_TAG = "setFrequency"
     const val FREQUENCY_TAG = "frequency"
+    const val MAX_REPORT_LATENCY_TAG = "maxReportLatency"
     const val SENSOR_TYPE_TAG = "sensorType"
 
     /**
@@ -1,9 +1,23 @@
 package com.telenav.osv.data.collector.log
 
 import android.util.Log
+import com.telenav.osv.BuildConfig
 import timber.log.Timber
 
-class LogWrapperTree : Timber.Tree() {
+/**
+ * Tree which chains the Timber logs to logcat.
+ *
+ * The tree is planted by [com.telenav.osv.data.collector.manager.DataCollectorManager] only in the debug builds, where the default [minLevel] is
+ * [Log.VERBOSE], therefore every priority is logged. The release builds plant [NoOpTree], which rejects every priority in its [isLoggable].
+ * Timber checks [isLoggable] before formatting the arguments of a log call, therefore in the release builds the parameterized calls such as
+ * `Timber.d("Speed: %s", speed)` cost nothing, unlike the string templates.
+ */
+class LogWrapperTree(private val minLevel: Int = BuildConfig.LOG_MIN_LEVEL) : Timber.Tree() {
+
+    override fun isLoggable(tag: String?, priority: Int): Boolean {
+        return priority >= minLevel
+    }
+
     override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
         if (t == null) {
             Log.println(priority, tag, message)
@@ -14,4 +28,4 @@ class LogWrapperTree : Timber.Tree() {
      """.trimIndent())
         }
     }
-}
\ No newline at end of file
+}
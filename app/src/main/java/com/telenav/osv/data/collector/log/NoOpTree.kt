@@ -3,6 +3,10 @@ package com.telenav.osv.data.collector.log
 import timber.log.Timber
 
 class NoOpTree : Timber.Tree() {
+    override fun isLoggable(tag: String?, priority: Int): Boolean {
+        return false
+    }
+
     override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
         // do nothing
     }
@@ -33,6 +33,7 @@ class DataCollectorManager internal constructor(private val context: Context,
         if (sources.isEmpty()) {
             Timber.tag(LibraryUtil.ERROR_TAG).e(LibraryUtil.NO_SOURCE_ADDED)
         } else {
+            eventDataManager.setMaxReportLatency(config.maxReportLatencyUs)
             registerSensorsToListener()
             setSensorsFrequencies()
             eventDataManager.checkSensors(config)
@@ -153,6 +153,13 @@ class EventDataManager : ObdConnectionListener {
         }
     }
 
+    /**
+     * Sets the maximum time in microseconds the phone sensor events can be batched, applied when the phone sensors are registered
+     */
+    fun setMaxReportLatency(maxReportLatencyUs: Int) {
+        phoneSensorsManager.maxReportLatencyUs = maxReportLatencyUs
+    }
+
     fun setSensorFrequency(sensor: String, frequency: Int) {
         if (isPhoneSensor(sensor)) {
             if (isPhoneFrequency(frequency)) {
@@ -1,14 +1,18 @@
 package com.telenav.osv.data.collector.obddata
 
 import com.telenav.osv.data.collector.datatype.ObdConnectionListener
+import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.obddata.manager.OBDFrequencyManager
 import com.telenav.osv.data.collector.obddata.manager.OBDSensorManager
+import com.telenav.osv.data.collector.obddata.manager.ObdCommandScheduler
 import com.telenav.osv.data.collector.obddata.manager.ObdDataListener
 import com.telenav.osv.data.collector.obddata.obdinitializer.ATConstants
 import com.telenav.osv.data.collector.obddata.obdinitializer.AbstractOBDInitializer
 import com.telenav.osv.data.collector.obddata.sensors.ObdReadFailure
 import timber.log.Timber
+import java.io.IOException
+import java.io.InputStream
 import java.lang.Thread.sleep
 import java.util.*
 import java.util.concurrent.atomic.AtomicBoolean
@@ -31,6 +35,23 @@ abstract class AbstractClientDataTransmission(obdDataListener: ObdDataListener)
     @Volatile
     protected var isRetrievingVin = false
 
+    /**
+     * the sensor objects converted from the latest response, used by the collection thread in order to adapt the following requests
+     */
+    @Volatile
+    private var lastResponseResults: List<BaseObject<*>> = emptyList()
+
+    /**
+     * parser of the responses to the mode 01 requests, used by the collection thread
+     */
+    protected val responseParser = ElmResponseParser()
+
+    /**
+     * true while a request of the collection thread waits for its response
+     */
+    @Volatile
+    protected var isSensorRequestPending = false
+
     /**
      * object that handles errors that appear during OBD communication
      */
@@ -57,17 +78,47 @@ abstract class AbstractClientDataTransmission(obdDataListener: ObdDataListener)
     }
 
     /**
-     * sends a command to the OBD, on two conditions:
-     * 1. the sensor is available
-     * 2. the sensor is listened by at least one listener
-     * @param sensorType - the type of sensor requested
+     * converts a response of the OBD and notifies the listener of each sensor value it holds
+     * @param response - the response to a command, possibly holding several PIDs
+     */
+    protected fun notifyResponse(response: String?) {
+        notifyResults(ObdHelper.convertResults(response))
+    }
+
+    /**
+     * reads the response to a mode 01 request with the byte level parser and notifies the listener of each sensor value it holds
+     * @param inputStream - the stream of the OBD connection
      */
-    private fun sendObdCommand(sensorType: String?) {
-        val command: String? = ObdHelper.getCommandFromSensorType(sensorType)
-        if (OBDSensorManager.instance.isSensorListened(sensorType) && command != null) {
-            writeCommand(command)
-            Timber.tag(TAG).d("sensorExtracted: %s", sensorType)
+    @Throws(IOException::class)
+    protected fun readSensorResponse(inputStream: InputStream?) {
+        responseParser.readResponse(inputStream, RESPONSE_WAITING_TIME)
+        notifyResults(responseParser.parse())
+    }
+
+    /**
+     * notifies the listener of each sensor value of a response
+     * @param results - the sensor objects converted from the response
+     */
+    protected fun notifyResults(results: List<BaseObject<*>>) {
+        for (sensor in results) {
+            obdDataListener.onSensorChanged(sensor)
         }
+        //copied since the list of the parser is reused by the next response
+        lastResponseResults = ArrayList(results)
+    }
+
+    /**
+     * sends a request of the collection to the OBD, then lets the scheduler adapt to the response
+     * @param scheduler - the scheduler which built the request
+     * @param request - the request for one or more sensors
+     */
+    private fun sendObdRequest(scheduler: ObdCommandScheduler, request: ObdCommandScheduler.Request) {
+        lastResponseResults = emptyList()
+        isSensorRequestPending = true
+        writeCommand(request.command)
+        isSensorRequestPending = false
+        scheduler.onResponse(request, lastResponseResults)
+        Timber.tag(TAG).d("sensorExtracted: %s", request.sensors)
     }
 
     /**
@@ -181,13 +232,17 @@ abstract class AbstractClientDataTransmission(obdDataListener: ObdDataListener)
 
     /**
      * method used for reading the response from an OBD only after a delay
+     * the mode 01 requests are not delayed, their response is read as soon as the ELM327 prompt arrives
      * @param sendingCommand - the command sent to the OBD
      * @return - the amount of time to wait, in milliseconds
      */
     fun getDelayForCommand(sendingCommand: String?): Int {
-        return when (sendingCommand) {
-            OBDConstants.CMD_SPEED, OBDConstants.CMD_RPM, OBDConstants.CMD_FUEL_CONSUMPTION_RATE, OBDConstants.CMD_FUEL_TANK_LEVEL_INPUT, OBDConstants.CMD_ENGINE_TORQUE, ATConstants.S0, ATConstants.E0, ATConstants.DP, ATConstants.H1, ATConstants.H0 -> 100
-            OBDConstants.CMD_VIN, ATConstants.Z -> 800
+        return when {
+            sendingCommand == null -> NO_DELAY
+            sendingCommand == OBDConstants.CMD_VIN || sendingCommand == ATConstants.Z -> 800
+            ObdHelper.isCurrentDataRequest(sendingCommand) -> NO_DELAY
+            sendingCommand == ATConstants.S0 || sendingCommand == ATConstants.E0 || sendingCommand == ATConstants.DP || sendingCommand == ATConstants.H1
+                    || sendingCommand == ATConstants.H0 -> 100
             else -> 200
         }
     }
@@ -235,16 +290,19 @@ abstract class AbstractClientDataTransmission(obdDataListener: ObdDataListener)
         val wasCollectionStopped = AtomicBoolean()
         private var hasFrequencyChanged = false
         override fun run() {
-            var sensorFrequencies = frequencyArray
+            val scheduler = ObdCommandScheduler(frequencyArray) { OBDSensorManager.instance.isSensorListened(it) }
             while (requestData && !this.isInterrupted) {
                 if (shouldCollect) {
-                    for (sensor in sensorFrequencies) {
-                        sendObdCommand(sensor)
+                    val request = scheduler.nextRequest()
+                    if (request != null) {
+                        sendObdRequest(scheduler, request)
+                    } else {
+                        delay(IDLE_WAITING_TIME)
                     }
                 }
                 if (hasFrequencyChanged) {
                     Timber.tag(TAG).d("OVI: Frequency changed")
-                    sensorFrequencies = frequencyArray
+                    scheduler.setSensorFrequencies(frequencyArray)
                     hasFrequencyChanged = false
                 }
             }
@@ -288,6 +346,17 @@ abstract class AbstractClientDataTransmission(obdDataListener: ObdDataListener)
          */
         private const val ATZ_WAITING_TIME = 800
 
+        /**
+         * the time to wait before checking again the listened sensors when none of them is listened
+         */
+        private const val IDLE_WAITING_TIME = 100
+        private const val NO_DELAY = 0
+
+        /**
+         * the maximum time to wait for the prompt which ends the response to a mode 01 request
+         */
+        private const val RESPONSE_WAITING_TIME = 1000L
+
         /**
          * Tag used for testing
          */
@@ -15,6 +15,8 @@ import com.telenav.osv.data.collector.obddata.obdinitializer.AbstractOBDInitiali
 import com.telenav.osv.data.collector.obddata.obdinitializer.BleObdInitializer
 import com.telenav.osv.utils.StringUtils
 import timber.log.Timber
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
 
 /**
  * Created by adrianbostan on 11/10/16.
@@ -36,6 +38,11 @@ class ClientDataTransmissionBle(obdDataListener: ObdDataListener) : AbstractClie
      */
     private var characteristicResultBle: String? = null
 
+    /**
+     * released when the ELM327 prompt arrives, in order to send the next request as soon as the previous one was answered
+     */
+    private val responseReceived = Semaphore(0)
+
     /**
      * Sensors availabilities
      */
@@ -112,8 +119,21 @@ class ClientDataTransmissionBle(obdDataListener: ObdDataListener) : AbstractClie
     }
 
     override fun writeCommand(sendingCommand: String) {
-        sendCommandToBle(sendingCommand)
-        delay(getDelayForCommand(sendingCommand))
+        responseReceived.drainPermits()
+        synchronized(responseParser) {
+            responseParser.reset()
+        }
+        val isWritten = sendCommandToBle(sendingCommand)
+        val commandDelay = getDelayForCommand(sendingCommand)
+        if (commandDelay > 0) {
+            delay(commandDelay)
+        } else if (isWritten) {
+            try {
+                responseReceived.tryAcquire(RESPONSE_WAITING_TIME, TimeUnit.MILLISECONDS)
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+            }
+        }
     }
 
     /**
@@ -121,6 +141,17 @@ class ClientDataTransmissionBle(obdDataListener: ObdDataListener) : AbstractClie
      * @param characteristic - Characteristic that is received
      */
     private fun formCharacteristicResult(characteristic: BluetoothGattCharacteristic) {
+        if (isSensorRequestPending) {
+            //the responses of the collection are parsed from the bytes of the characteristic without building strings
+            synchronized(responseParser) {
+                if (responseParser.append(characteristic.value)) {
+                    notifyResults(responseParser.parse())
+                    responseParser.reset()
+                    responseReceived.release()
+                }
+            }
+            return
+        }
         characteristicResult += characteristic.getStringValue(0)
         Timber.tag(TAG).d("onCharacteristicChangedBle characteristicResult: %s", characteristicResult)
         if (characteristicResult.trim { it <= ' ' }.endsWith(">")) {
@@ -130,11 +161,9 @@ class ClientDataTransmissionBle(obdDataListener: ObdDataListener) : AbstractClie
             characteristicResultBle = characteristicResult
 
             //notify listeners of the baseObject read
-            val baseObject = ObdHelper.convertResult(characteristicResult)
-            if (baseObject != null) {
-                obdDataListener.onSensorChanged(baseObject)
-            }
+            notifyResponse(characteristicResult)
             characteristicResult = StringUtils.EMPTY_STRING
+            responseReceived.release()
         }
     }
 
@@ -254,6 +283,11 @@ class ClientDataTransmissionBle(obdDataListener: ObdDataListener) : AbstractClie
          * Tag used for logging
          */
         private val TAG = ClientDataTransmissionBle::class.java.simpleName
+
+        /**
+         * the maximum time to wait for the response to a mode 01 request
+         */
+        private const val RESPONSE_WAITING_TIME = 1000L
     }
 
     /**
@@ -2,7 +2,6 @@ package com.telenav.osv.data.collector.obddata
 
 import android.bluetooth.BluetoothSocket
 import android.content.Context
-import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.obddata.exceptions.ObdUnsupportedOperationException
 import com.telenav.osv.data.collector.obddata.manager.OBDServiceManager
@@ -57,13 +56,14 @@ class ClientDataTransmissionBluetooth(private val bluetoothSocket: BluetoothSock
             }
             ObdHelper.sendCommand(outputStream, sendingCommand)
             delay(getDelayForCommand(sendingCommand))
+            if (ObdHelper.isCurrentDataRequest(sendingCommand)) {
+                readSensorResponse(inputStream)
+                return
+            }
             rawData = ObdHelper.getRawData(inputStream)
             if (sendingCommand != ATConstants.Z) {
-                val sensor: BaseObject<*>? = ObdHelper.convertResult(rawData)
-                if (sensor != null) {
-                    //notify listener of the sensor event
-                    obdDataListener.onSensorChanged(sensor)
-                }
+                //notify listener of the sensor events
+                notifyResponse(rawData)
             }
         } catch (e: IOException) {
             Timber.tag(TAG).e(e, "Bluetooth stream exception")
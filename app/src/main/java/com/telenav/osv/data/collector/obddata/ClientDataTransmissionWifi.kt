@@ -2,7 +2,6 @@ package com.telenav.osv.data.collector.obddata
 
 import android.content.Context
 import android.text.TextUtils
-import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.obddata.manager.OBDServiceManager
 import com.telenav.osv.data.collector.obddata.manager.ObdDataListener
@@ -56,14 +55,14 @@ class ClientDataTransmissionWifi(private val wifiSocket: Socket?, obdDataListene
             }
             ObdHelper.sendCommand(outputStream, sendingCommand)
             delay(getDelayForCommand(sendingCommand))
+            if (ObdHelper.isCurrentDataRequest(sendingCommand)) {
+                readSensorResponse(inputStream)
+                return
+            }
             rawData = ObdHelper.getRawData(inputStream)
             if (sendingCommand !== ATConstants.Z) {
-                val sensor: BaseObject<*>? = ObdHelper.convertResult(rawData)
-
-                //notify listener of the sensor event
-                if (sensor != null) {
-                    obdDataListener.onSensorChanged(sensor)
-                }
+                //notify listener of the sensor events
+                notifyResponse(rawData)
             }
         } catch (e: IOException) {
             Timber.tag(TAG).e(e, "IOException when writing command to stream")
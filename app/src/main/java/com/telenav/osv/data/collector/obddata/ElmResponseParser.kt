@@ -0,0 +1,317 @@
+package com.telenav.osv.data.collector.obddata
+
+import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.datatype.datatypes.EngineTorqueObject
+import com.telenav.osv.data.collector.datatype.datatypes.FuelConsumptionRateObject
+import com.telenav.osv.data.collector.datatype.datatypes.FuelLevelObject
+import com.telenav.osv.data.collector.datatype.datatypes.FuelTypeObject
+import com.telenav.osv.data.collector.datatype.datatypes.ObdEngineSpeedObject
+import com.telenav.osv.data.collector.datatype.datatypes.ObdSpeedObject
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import java.io.IOException
+import java.io.InputStream
+
+/**
+ * Byte level parser of the ELM327 responses to the mode 01 requests, modelled on the ByteArrayScanner of the connectivity module.
+ *
+ * The response is read in a reused byte array until the ELM327 prompt, then each line is decoded from hexadecimal straight into the bytes of the response,
+ * without creating a string, and the data of each PID is converted into its sensor object. A response may hold several PIDs, and may be split in several CAN frames:
+ * the byte count of the response, then each frame prefixed by its index, for example "00E", "0:410D320C1AF8", "1:2F805E01906301", "2:2C000000000000".
+ * The lines which are not hexadecimal, such as "SEARCHING...", "NO DATA" or the echo of the request, are ignored.
+ *
+ * The parser is not thread safe, and the list returned by [parse] is reused by the next call.
+ */
+class ElmResponseParser(capacity: Int = DEFAULT_CAPACITY) {
+
+    /**
+     * the characters of the response, without the prompt
+     */
+    private val data = ByteArray(capacity)
+
+    private var length = 0
+
+    /**
+     * the bytes decoded from the lines of the current message
+     */
+    private val payload = IntArray(capacity / 2)
+
+    private var payloadLength = 0
+
+    /**
+     * the byte count of the current multi frame message or 0 for a single frame message
+     */
+    private var expectedPayloadLength = 0
+
+    private val results: MutableList<BaseObject<*>> = ArrayList()
+
+    /**
+     * true if the prompt which ends the response was received
+     */
+    var isComplete = false
+        private set
+
+    fun reset() {
+        length = 0
+        isComplete = false
+    }
+
+    /**
+     * Reads a response until the prompt, reading the available bytes at once. The characters which do not fit in the parser are dropped.
+     * @param inputStream the stream of the OBD connection
+     * @param timeoutMs the time after which the reading stops if the prompt did not arrive
+     * @return true if the prompt was received
+     */
+    @Throws(IOException::class)
+    fun readResponse(inputStream: InputStream?, timeoutMs: Long): Boolean {
+        reset()
+        if (inputStream == null) {
+            return false
+        }
+        val start = System.currentTimeMillis()
+        while (!isComplete && System.currentTimeMillis() - start < timeoutMs) {
+            if (length == data.size) {
+                //the response is too long, its end is consumed in order to not be read as the next response
+                val character = inputStream.read()
+                if (character < 0) {
+                    return false
+                }
+                isComplete = character == PROMPT.toInt()
+                continue
+            }
+            val read = inputStream.read(data, length, data.size - length)
+            if (read < 0) {
+                return false
+            }
+            append(data, length, read)
+        }
+        return isComplete
+    }
+
+    /**
+     * Appends the characters received on a connection which delivers the response in chunks, such as a BLE characteristic.
+     * @return true if the prompt was received
+     */
+    fun append(chunk: ByteArray): Boolean {
+        if (!isComplete) {
+            append(chunk, 0, chunk.size)
+        }
+        return isComplete
+    }
+
+    /**
+     * Converts the PIDs of the response.
+     * @return the sensor objects found in the response, in the order of the response
+     */
+    fun parse(): List<BaseObject<*>> {
+        results.clear()
+        payloadLength = 0
+        expectedPayloadLength = 0
+        var lineStart = 0
+        while (lineStart < length) {
+            var lineEnd = indexOf(data, lineStart, length, LINE_END)
+            if (lineEnd == -1) {
+                lineEnd = length
+            }
+            parseLine(lineStart, lineEnd)
+            lineStart = lineEnd + 1
+        }
+        flushMessage()
+        return results
+    }
+
+    private fun append(chunk: ByteArray, offset: Int, count: Int) {
+        for (i in offset until offset + count) {
+            val character = chunk[i]
+            if (character == PROMPT) {
+                isComplete = true
+                return
+            }
+            if (length < data.size) {
+                data[length++] = character
+            }
+        }
+    }
+
+    private fun parseLine(start: Int, end: Int) {
+        val frameSeparator = indexOf(data, start, end, FRAME_SEPARATOR)
+        if (frameSeparator != -1) {
+            //a consecutive frame, or the first frame of a message without byte count
+            if (!decodeHex(frameSeparator + 1, end)) {
+                payloadLength = 0
+            }
+            return
+        }
+        val digits = countHexDigits(start, end)
+        if (digits == MULTI_FRAME_LENGTH_DIGITS) {
+            flushMessage()
+            expectedPayloadLength = parseHex(start, end)
+            return
+        }
+        if (digits > 0) {
+            flushMessage()
+            if (decodeHex(start, end)) {
+                flushMessage()
+            }
+            payloadLength = 0
+        }
+    }
+
+    /**
+     * Converts the PIDs of the decoded message, stopping at the first PID which is not known, such as the padding of the last CAN frame.
+     */
+    private fun flushMessage() {
+        val messageLength = if (expectedPayloadLength in 1 until payloadLength) expectedPayloadLength else payloadLength
+        if (messageLength > 0 && payload[0] == RESPONSE_MODE_CURRENT_DATA) {
+            var position = 1
+            while (position < messageLength) {
+                val pid = payload[position]
+                val dataLength = getDataLength(pid)
+                if (dataLength == 0 || position + dataLength >= messageLength) {
+                    break
+                }
+                val a = payload[position + 1]
+                val b = if (dataLength > 1) payload[position + 2] else 0
+                createSensorObject(pid, a, b)?.let { results.add(it) }
+                position += 1 + dataLength
+            }
+        }
+        payloadLength = 0
+        expectedPayloadLength = 0
+    }
+
+    /**
+     * Decodes the hexadecimal characters of a line into the payload, ignoring the spaces.
+     * @return false if the line holds other characters or an odd number of digits
+     */
+    private fun decodeHex(start: Int, end: Int): Boolean {
+        var high = -1
+        for (i in start until end) {
+            val character = data[i]
+            if (character == SPACE) {
+                continue
+            }
+            val digit = hexDigit(character)
+            if (digit < 0) {
+                return false
+            }
+            if (high < 0) {
+                high = digit
+            } else {
+                if (payloadLength == payload.size) {
+                    return false
+                }
+                payload[payloadLength++] = high shl 4 or digit
+                high = -1
+            }
+        }
+        return high < 0
+    }
+
+    /**
+     * @return the number of hexadecimal digits of the line, or -1 if it holds other characters than digits and spaces
+     */
+    private fun countHexDigits(start: Int, end: Int): Int {
+        var digits = 0
+        for (i in start until end) {
+            val character = data[i]
+            if (character == SPACE) {
+                continue
+            }
+            if (hexDigit(character) < 0) {
+                return -1
+            }
+            digits++
+        }
+        return digits
+    }
+
+    private fun parseHex(start: Int, end: Int): Int {
+        var value = 0
+        for (i in start until end) {
+            val digit = hexDigit(data[i])
+            if (digit >= 0) {
+                value = value shl 4 or digit
+            }
+        }
+        return value
+    }
+
+    companion object {
+        /**
+         * the default capacity, large enough for a response of six PIDs split in several CAN frames, with spaces
+         */
+        const val DEFAULT_CAPACITY = 256
+
+        const val PID_SPEED = 0x0D
+        const val PID_RPM = 0x0C
+        const val PID_FUEL_TANK_LEVEL_INPUT = 0x2F
+        const val PID_FUEL_TYPE = 0x51
+        const val PID_FUEL_CONSUMPTION_RATE = 0x5E
+        const val PID_ENGINE_TORQUE = 0x63
+
+        /**
+         * the first byte of a response to a mode 01 request
+         */
+        private const val RESPONSE_MODE_CURRENT_DATA = 0x41
+        private const val MULTI_FRAME_LENGTH_DIGITS = 3
+
+        /**
+         * the characters of the response: the '>' prompt, the '\r' line end, the ':' after the index of a CAN frame and the ' ' between the bytes
+         */
+        private const val PROMPT: Byte = 0x3E
+        private const val LINE_END: Byte = 0x0D
+        private const val FRAME_SEPARATOR: Byte = 0x3A
+        private const val SPACE: Byte = 0x20
+
+        /**
+         * @return the number of data bytes which follow the PID in a response or 0 if the PID is not known
+         */
+        @JvmStatic
+        fun getDataLength(pid: Int): Int {
+            return when (pid) {
+                PID_SPEED, PID_FUEL_TANK_LEVEL_INPUT, PID_FUEL_TYPE -> 1
+                PID_RPM, PID_FUEL_CONSUMPTION_RATE, PID_ENGINE_TORQUE -> 2
+                else -> 0
+            }
+        }
+
+        /**
+         * Creates the sensor object of a PID from the data bytes A and B of the response, using the formulas of the OBD-II standard.
+         * @return the sensor object or null if the PID is not known
+         */
+        @JvmStatic
+        fun createSensorObject(pid: Int, a: Int, b: Int): BaseObject<*>? {
+            return when (pid) {
+                PID_SPEED -> ObdSpeedObject(a, LibraryUtil.OBD_READ_SUCCESS)
+                PID_RPM -> ObdEngineSpeedObject((256 * a + b) / 4.0, LibraryUtil.OBD_READ_SUCCESS)
+                PID_FUEL_TANK_LEVEL_INPUT -> FuelLevelObject(100 / 255.0 * a, LibraryUtil.OBD_READ_SUCCESS)
+                PID_FUEL_TYPE -> if (a < OBDConstants.FUEL_TYPES.size) {
+                    FuelTypeObject(OBDConstants.FUEL_TYPES[a], LibraryUtil.OBD_READ_SUCCESS)
+                } else {
+                    FuelTypeObject(null, LibraryUtil.OBD_READ_FAILURE)
+                }
+                PID_FUEL_CONSUMPTION_RATE -> FuelConsumptionRateObject((256 * a + b) / 20.0, LibraryUtil.OBD_READ_SUCCESS)
+                PID_ENGINE_TORQUE -> EngineTorqueObject(256 * a + b, LibraryUtil.OBD_READ_SUCCESS)
+                else -> null
+            }
+        }
+
+        private fun hexDigit(character: Byte): Int {
+            return when (val value = character.toInt()) {
+                in '0'.toInt()..'9'.toInt() -> value - '0'.toInt()
+                in 'A'.toInt()..'F'.toInt() -> value - 'A'.toInt() + 10
+                in 'a'.toInt()..'f'.toInt() -> value - 'a'.toInt() + 10
+                else -> -1
+            }
+        }
+
+        private fun indexOf(data: ByteArray, start: Int, end: Int, character: Byte): Int {
+            for (i in start until end) {
+                if (data[i] == character) {
+                    return i
+                }
+            }
+            return -1
+        }
+    }
+}
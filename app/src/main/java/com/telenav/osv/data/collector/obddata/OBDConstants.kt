@@ -43,6 +43,21 @@ object OBDConstants {
      */
     const val CMD_VIN = "0902"
 
+    /**
+     * mode of the requests for the current data, followed by one or more PIDs
+     */
+    const val MODE_CURRENT_DATA = "01"
+
+    /**
+     * PIDs of the mode 01 sensors, used for building the multi PID requests
+     */
+    const val PID_SPEED = "0D"
+    const val PID_RPM = "0C"
+    const val PID_FUEL_TANK_LEVEL_INPUT = "2F"
+    const val PID_FUEL_TYPE = "51"
+    const val PID_FUEL_CONSUMPTION_RATE = "5E"
+    const val PID_ENGINE_TORQUE = "63"
+
     /**
      * Prefix of the response that comes from speed sensor
      */
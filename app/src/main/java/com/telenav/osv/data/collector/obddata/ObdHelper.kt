@@ -21,6 +21,18 @@ object ObdHelper {
     private const val TAG = "ObdHelper"
     private const val COMMAND_SUBSTRING_LENGTH = 4
 
+    /**
+     * The maximum length of a response, large enough for a multi PID response split in several CAN frames
+     */
+    private const val MAX_RESPONSE_LENGTH = 256
+
+    /**
+     * The number of digits of the byte count which precedes a response split in several CAN frames
+     */
+    private const val MULTI_FRAME_LENGTH_DIGITS = 3
+    private const val PID_LENGTH = 2
+    private const val HEXA_BASE = 16
+
     /**
      * Sends a command on the stream
      *
@@ -56,7 +68,7 @@ object ObdHelper {
         // read until '>' arrives
         val start = System.currentTimeMillis()
         if (inputStream != null) {
-            while (((inputStream.read().toByte().also { b = it }).toChar() != '>') && res.length < 60 && System.currentTimeMillis() - start < 1000) {
+            while (((inputStream.read().toByte().also { b = it }).toChar() != '>') && res.length < MAX_RESPONSE_LENGTH && System.currentTimeMillis() - start < 1000) {
                 res.append(b.toChar())
             }
         }
@@ -103,6 +115,81 @@ object ObdHelper {
         return null
     }
 
+    /**
+     * Convert the data that comes from obd for a request of one or more mode 01 PIDs. A multi PID response holds the PIDs one after the other, each followed by its data,
+     * and is split in several lines when it does not fit in a single CAN frame:
+     * the byte count of the response, then each frame prefixed by its index, for example "013", "0:410D320C1AF8", "1:2F805E0190...".
+     * The responses which are not mode 01, such as the VIN, are converted by [convertResult].
+     *
+     * @param responseData response that comes
+     * @return the sensor objects found in the response, in the order of the response
+     */
+    fun convertResults(responseData: String?): List<BaseObject<*>> {
+        if (responseData == null || responseData.isEmpty()) {
+            return emptyList()
+        }
+        val results: MutableList<BaseObject<*>> = ArrayList()
+        var multiFrameResponse: StringBuilder? = null
+        var multiFrameLength = 0
+        for (responseLine in responseData.split('\r')) {
+            val line = responseLine.replace(" ", "").replace(">", "")
+            val frameSeparator = line.indexOf(':')
+            if (frameSeparator > 0) {
+                if (multiFrameResponse == null) {
+                    multiFrameResponse = StringBuilder()
+                }
+                multiFrameResponse.append(line, frameSeparator + 1, line.length)
+            } else if (line.length == MULTI_FRAME_LENGTH_DIGITS && isHexadecimal(line)) {
+                if (multiFrameResponse != null) {
+                    convertMultiPidResponse(truncate(multiFrameResponse, multiFrameLength), results)
+                }
+                multiFrameResponse = StringBuilder()
+                multiFrameLength = line.toInt(HEXA_BASE) * 2
+            } else {
+                convertMultiPidResponse(line, results)
+            }
+        }
+        if (multiFrameResponse != null) {
+            convertMultiPidResponse(truncate(multiFrameResponse, multiFrameLength), results)
+        }
+        if (results.isEmpty()) {
+            convertResult(responseData)?.let { results.add(it) }
+        }
+        return results
+    }
+
+    /**
+     * Converts each PID of a mode 01 response, stopping at the first PID which is not known, such as the padding of the last CAN frame.
+     */
+    private fun convertMultiPidResponse(response: String, results: MutableList<BaseObject<*>>) {
+        if (!response.startsWith(OBDConstants.PREFIX_RESPONSE_MODE1_PID)) {
+            return
+        }
+        var position = OBDConstants.PREFIX_RESPONSE_MODE1_PID.length
+        while (position + PID_LENGTH <= response.length) {
+            val dataLength = getPidDataLength(response.substring(position, position + PID_LENGTH))
+            val end = position + PID_LENGTH + dataLength * 2
+            if (dataLength == 0 || end > response.length) {
+                return
+            }
+            convertResult(OBDConstants.PREFIX_RESPONSE_MODE1_PID + response.substring(position, end))?.let { results.add(it) }
+            position = end
+        }
+    }
+
+    private fun truncate(response: StringBuilder, length: Int): String {
+        return if (length in 1 until response.length) response.substring(0, length) else response.toString()
+    }
+
+    private fun isHexadecimal(value: String): Boolean {
+        for (character in value) {
+            if (Character.digit(character, HEXA_BASE) < 0) {
+                return false
+            }
+        }
+        return true
+    }
+
     private fun handleEchoedResponse(response: String): String {
         if (response.startsWith(OBDConstants.CMD_SPEED)) {
             return response.replaceFirst(OBDConstants.CMD_SPEED.toRegex(), "")
@@ -182,6 +269,43 @@ object ObdHelper {
         }
     }
 
+    /**
+     * @return true if the command is a mode 01 request, whose response is read by the [ElmResponseParser]
+     */
+    fun isCurrentDataRequest(command: String?): Boolean {
+        return command != null && command.startsWith(OBDConstants.MODE_CURRENT_DATA)
+    }
+
+    /**
+     * retrieves the mode 01 PID of a specific sensor type
+     *
+     * @param sensorType
+     * @return the PID or null if the sensor is not read with a mode 01 request
+     */
+    fun getPidFromSensorType(sensorType: String?): String? {
+        return when (sensorType) {
+            LibraryUtil.SPEED -> OBDConstants.PID_SPEED
+            LibraryUtil.RPM -> OBDConstants.PID_RPM
+            LibraryUtil.FUEL_TANK_LEVEL_INPUT -> OBDConstants.PID_FUEL_TANK_LEVEL_INPUT
+            LibraryUtil.FUEL_CONSUMPTION_RATE -> OBDConstants.PID_FUEL_CONSUMPTION_RATE
+            LibraryUtil.FUEL_TYPE -> OBDConstants.PID_FUEL_TYPE
+            LibraryUtil.ENGINE_TORQUE -> OBDConstants.PID_ENGINE_TORQUE
+            else -> null
+        }
+    }
+
+    /**
+     * @param pid - a mode 01 PID
+     * @return the number of data bytes which follow the PID in a response or 0 if the PID is not known
+     */
+    fun getPidDataLength(pid: String?): Int {
+        return when (pid) {
+            OBDConstants.PID_SPEED, OBDConstants.PID_FUEL_TANK_LEVEL_INPUT, OBDConstants.PID_FUEL_TYPE -> 1
+            OBDConstants.PID_RPM, OBDConstants.PID_FUEL_CONSUMPTION_RATE, OBDConstants.PID_ENGINE_TORQUE -> 2
+            else -> 0
+        }
+    }
+
     private fun getSpeed(responseData: String): SpeedObject {
         val speedSensor = SpeedObdSensor()
         val speedValueInt: Int? = speedSensor.convertValue(responseData)
@@ -218,7 +342,7 @@ object ObdHelper {
     private fun getFuelType(responseData: String): FuelTypeObject? {
         val typeObdSensor = FuelTypeObdSensor()
         val fuelTypeValueTransformed: Int? = typeObdSensor.convertValue(responseData)
-        return if (fuelTypeValueTransformed == null || fuelTypeValueTransformed <= OBDConstants.FUEL_TYPES.size - 1) {
+        return if (fuelTypeValueTransformed == null || fuelTypeValueTransformed > OBDConstants.FUEL_TYPES.size - 1) {
             FuelTypeObject(null, LibraryUtil.OBD_READ_FAILURE)
         } else {
             Timber.tag(TAG).d("fuelTypeValueTransformed: $fuelTypeValueTransformed. Time: $utcTime")
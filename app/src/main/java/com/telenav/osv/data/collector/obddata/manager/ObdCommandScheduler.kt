@@ -0,0 +1,178 @@
+package com.telenav.osv.data.collector.obddata.manager
+
+import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.obddata.OBDConstants
+import com.telenav.osv.data.collector.obddata.ObdHelper
+import timber.log.Timber
+import java.util.*
+
+/**
+ * class used for building the requests sent to the OBD during the collection
+ *
+ * The sensors are taken in the order of the collection vector computed by [OBDFrequencyManager], and the consecutive distinct sensors are grouped in a single
+ * mode 01 request of up to [MAX_PIDS_PER_REQUEST] PIDs, therefore a sensor with a higher weight is still requested more often than the others.
+ * Each request ends with the number of CAN frames of the expected response, which makes the ELM327 return as soon as the response arrived instead of waiting for its timeout.
+ *
+ * The scheduler adapts to the vehicle from the responses passed to [onResponse]:
+ * 1. a sensor missing from several consecutive multi PID responses, while the other PIDs are answered, is requested alone from then on
+ * 2. if several consecutive multi PID requests are not answered at all, the vehicle does not support them and every sensor is requested alone
+ */
+class ObdCommandScheduler(sensorFrequencies: Array<out String?>, private val isSensorListened: (String) -> Boolean) {
+
+    private var sensorFrequencies: Array<out String?> = sensorFrequencies
+
+    /**
+     * the position of the next sensor in the collection vector
+     */
+    private var position = 0
+
+    /**
+     * the number of consecutive multi PID responses from which each sensor was missing
+     */
+    private val missedResponses: MutableMap<String, Int> = HashMap()
+
+    /**
+     * the sensors which are requested alone
+     */
+    private val isolatedSensors: MutableSet<String> = HashSet()
+
+    /**
+     * the number of consecutive multi PID requests without any response
+     */
+    private var failedRequests = 0
+
+    /**
+     * the maximum number of PIDs grouped in a request, 1 if the vehicle does not support multi PID requests
+     */
+    var maxPidsPerRequest = MAX_PIDS_PER_REQUEST
+        private set
+
+    /**
+     * replaces the collection vector when the sensor frequencies changed, keeping what was learned about the vehicle
+     */
+    fun setSensorFrequencies(sensorFrequencies: Array<out String?>) {
+        this.sensorFrequencies = sensorFrequencies
+        position = 0
+    }
+
+    /**
+     * @return - the next request or null if none of the sensors of the collection vector is listened
+     */
+    fun nextRequest(): Request? {
+        val sensors: MutableList<String> = ArrayList(maxPidsPerRequest)
+        var scanned = 0
+        while (scanned < sensorFrequencies.size && sensors.size < maxPidsPerRequest) {
+            val sensor = sensorFrequencies[position]
+            if (sensor != null && ObdHelper.getPidFromSensorType(sensor) != null && isSensorListened(sensor)) {
+                if (sensors.contains(sensor) || (sensors.isNotEmpty() && isolatedSensors.contains(sensor))) {
+                    break
+                }
+                sensors.add(sensor)
+                if (isolatedSensors.contains(sensor)) {
+                    advance()
+                    break
+                }
+            }
+            advance()
+            scanned++
+        }
+        return if (sensors.isEmpty()) null else Request(sensors)
+    }
+
+    /**
+     * updates the state of the vehicle based on the sensors found in the response to a request
+     * @param request - the request sent to the OBD
+     * @param results - the sensor objects converted from the response
+     */
+    fun onResponse(request: Request, results: List<BaseObject<*>>) {
+        if (request.sensors.size == 1) {
+            return
+        }
+        if (results.isEmpty()) {
+            failedRequests++
+            if (failedRequests >= MAX_FAILED_REQUESTS && maxPidsPerRequest > 1) {
+                maxPidsPerRequest = 1
+                Timber.tag(TAG).d("Multi PID requests are not supported, requesting one PID at a time")
+            }
+            return
+        }
+        failedRequests = 0
+        for (sensor in request.sensors) {
+            if (results.any { it.getSensorType() == sensor }) {
+                missedResponses.remove(sensor)
+                continue
+            }
+            val missed = (missedResponses[sensor] ?: 0) + 1
+            missedResponses[sensor] = missed
+            if (missed >= MAX_MISSED_RESPONSES) {
+                isolatedSensors.add(sensor)
+                Timber.tag(TAG).d("%s is missing from the multi PID responses, requesting it alone", sensor)
+            }
+        }
+    }
+
+    private fun advance() {
+        position = (position + 1) % sensorFrequencies.size
+    }
+
+    /**
+     * a request sent to the OBD, for one or more sensors
+     */
+    class Request internal constructor(val sensors: List<String>) {
+
+        /**
+         * the command written to the ELM327
+         */
+        val command: String
+
+        init {
+            command = if (sensors.size == 1) {
+                ObdHelper.getCommandFromSensorType(sensors[0])!!
+            } else {
+                val builder = StringBuilder(OBDConstants.MODE_CURRENT_DATA)
+                var responseLength = OBDConstants.MODE_CURRENT_DATA.length / 2
+                for (sensor in sensors) {
+                    val pid = ObdHelper.getPidFromSensorType(sensor)
+                    builder.append(pid)
+                    responseLength += 1 + ObdHelper.getPidDataLength(pid)
+                }
+                builder.append(Integer.toHexString(getFrameCount(responseLength)).toUpperCase(Locale.US))
+                builder.toString()
+            }
+        }
+
+        /**
+         * @return the number of CAN frames of a response of the given length, a single frame holding up to 7 bytes, otherwise the first frame holding 6 bytes
+         * and each following frame 7 bytes
+         */
+        private fun getFrameCount(responseLength: Int): Int {
+            return if (responseLength <= SINGLE_FRAME_LENGTH) {
+                1
+            } else {
+                1 + (responseLength - FIRST_FRAME_LENGTH + CONSECUTIVE_FRAME_LENGTH - 1) / CONSECUTIVE_FRAME_LENGTH
+            }
+        }
+    }
+
+    companion object {
+        /**
+         * the maximum number of PIDs of a mode 01 request allowed by the OBD-II standard
+         */
+        const val MAX_PIDS_PER_REQUEST = 6
+
+        /**
+         * the number of consecutive multi PID responses missing a sensor before it is requested alone
+         */
+        const val MAX_MISSED_RESPONSES = 3
+
+        /**
+         * the number of consecutive multi PID requests without response before falling back to single PID requests
+         */
+        const val MAX_FAILED_REQUESTS = 3
+
+        private const val SINGLE_FRAME_LENGTH = 7
+        private const val FIRST_FRAME_LENGTH = 6
+        private const val CONSECUTIVE_FRAME_LENGTH = 7
+        private val TAG = ObdCommandScheduler::class.java.simpleName
+    }
+}
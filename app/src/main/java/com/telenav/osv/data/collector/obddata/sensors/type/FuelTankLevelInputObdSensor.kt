@@ -34,7 +34,7 @@ class FuelTankLevelInputObdSensor : CarObdSensor<Double?> {
          * @return Fuel level in %
          */
         private fun getFuelTankLevel(tankLevelHexa: Int): Double {
-            return 10 / 255.0 * tankLevelHexa
+            return 100 / 255.0 * tankLevelHexa
         }
     }
 }
\ No newline at end of file
@@ -12,7 +12,7 @@ class FuelTypeObdSensor : CarObdSensor<Int?> {
     override fun convertValue(hexResponse: String): Int? {
         val hexResponseReplaced = hexResponse.replace("\r".toRegex(), " ").replace(" ".toRegex(), "")
         return try {
-            hexResponseReplaced.substring(hexResponseReplaced.length - 2).toInt()
+            hexResponseReplaced.substring(hexResponseReplaced.length - 2).toInt(16)
         } catch (e: NumberFormatException) {
             Timber.tag(TAG).e(e, "Fuel type response has invalid format:%s", hexResponseReplaced)
             null
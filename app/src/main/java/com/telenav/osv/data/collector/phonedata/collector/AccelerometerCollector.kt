@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.AccelerometerObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -26,7 +25,7 @@ class AccelerometerCollector(phoneDataListener: PhoneDataListener?, notifyHandle
                 accelerometerSensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_ACCELEROMETER)
             }
             if (accelerometerSensor != null) {
-                sensorManager!!.registerListener(this, accelerometerSensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, accelerometerSensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -43,11 +42,7 @@ class AccelerometerCollector(phoneDataListener: PhoneDataListener?, notifyHandle
     }
 
     override fun onSensorChanged(event: SensorEvent) {
-        val accelerometerObject: ThreeAxesObject = AccelerometerObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-        accelerometerObject.setxValue(-event.values[0])
-        accelerometerObject.setyValue(-event.values[1])
-        accelerometerObject.setzValue(-event.values[2])
-        determineTimestamp(event.timestamp, accelerometerObject)
+        onNewSensorSample(LibraryUtil.ACCELEROMETER, event.timestamp, -event.values[0], -event.values[1], -event.values[2])
     }
 
     override fun onAccuracyChanged(sensor: Sensor, accuracy: Int) {
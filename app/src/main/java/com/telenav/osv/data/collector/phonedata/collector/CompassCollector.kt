@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.CompassObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -25,7 +24,7 @@ class CompassCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Han
                 magneticSensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD)
             }
             if (magneticSensor != null) {
-                sensorManager!!.registerListener(this, magneticSensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, magneticSensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -42,11 +41,7 @@ class CompassCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Han
     }
 
     override fun onSensorChanged(event: SensorEvent) {
-        val compassObject: ThreeAxesObject = CompassObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-        compassObject.setxValue(event.values[0])
-        compassObject.setyValue(event.values[1])
-        compassObject.setzValue(event.values[2])
-        determineTimestamp(event.timestamp, compassObject)
+        onNewSensorSample(LibraryUtil.MAGNETIC, event.timestamp, event.values[0], event.values[1], event.values[2])
     }
 
     override fun onAccuracyChanged(sensor: Sensor, accuracy: Int) {
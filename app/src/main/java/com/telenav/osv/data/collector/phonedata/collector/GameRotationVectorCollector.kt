@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.RotationVectorRawObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -28,7 +27,7 @@ class GameRotationVectorCollector(phoneDataListener: PhoneDataListener?, notifyH
                 gameRotationVectorSensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR)
             }
             if (gameRotationVectorSensor != null) {
-                sensorManager!!.registerListener(this, gameRotationVectorSensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, gameRotationVectorSensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -47,11 +46,8 @@ class GameRotationVectorCollector(phoneDataListener: PhoneDataListener?, notifyH
     override fun onSensorChanged(event: SensorEvent) {
         SensorManager.getRotationMatrixFromVector(mRotationMatrixS, event.values)
         SensorManager.getOrientation(mRotationMatrixS, mOrientationS)
-        val gameRotationVectorObject: ThreeAxesObject = RotationVectorRawObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-        gameRotationVectorObject.setxValue(-mOrientationS[1]) //pitch
-        gameRotationVectorObject.setyValue(mOrientationS[2]) //roll
-        gameRotationVectorObject.setzValue(-mOrientationS[0]) //yaw
-        determineTimestamp(event.timestamp, gameRotationVectorObject)
+        //pitch, roll, yaw
+        onNewSensorSample(LibraryUtil.ROTATION_VECTOR_RAW, event.timestamp, -mOrientationS[1], mOrientationS[2], -mOrientationS[0])
     }
 
     override fun onAccuracyChanged(sensor: Sensor, accuracy: Int) {
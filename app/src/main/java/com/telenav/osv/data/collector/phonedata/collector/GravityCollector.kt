@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.GravityObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -26,7 +25,7 @@ class GravityCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Han
                 gravitySensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_GRAVITY)
             }
             if (gravitySensor != null) {
-                sensorManager!!.registerListener(this, gravitySensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, gravitySensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -43,11 +42,7 @@ class GravityCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Han
     }
 
     override fun onSensorChanged(event: SensorEvent) {
-        val gravityObject: ThreeAxesObject = GravityObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-        gravityObject.setxValue(-event.values[0])
-        gravityObject.setyValue(-event.values[1])
-        gravityObject.setzValue(-event.values[2])
-        determineTimestamp(event.timestamp, gravityObject)
+        onNewSensorSample(LibraryUtil.GRAVITY, event.timestamp, -event.values[0], -event.values[1], -event.values[2])
     }
 
     override fun onAccuracyChanged(sensor: Sensor, accuracy: Int) {
@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.GyroscopeObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -25,7 +24,7 @@ class GyroCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Handle
                 gyroSensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_GYROSCOPE)
             }
             if (gyroSensor != null) {
-                sensorManager!!.registerListener(this, gyroSensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, gyroSensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -42,11 +41,7 @@ class GyroCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Handle
     }
 
     override fun onSensorChanged(event: SensorEvent) {
-        val gyroObject: ThreeAxesObject = GyroscopeObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-        gyroObject.setxValue(event.values[0])
-        gyroObject.setyValue(event.values[1])
-        gyroObject.setzValue(event.values[2])
-        determineTimestamp(event.timestamp, gyroObject)
+        onNewSensorSample(LibraryUtil.GYROSCOPE, event.timestamp, event.values[0], event.values[1], event.values[2])
     }
 
     override fun onAccuracyChanged(sensor: Sensor, accuracy: Int) {
@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.HeadingObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -30,8 +29,8 @@ class HeadingCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Han
                 gravitySensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_ACCELEROMETER)
             }
             if (magneticSensor != null && gravitySensor != null) {
-                sensorManager!!.registerListener(this, magneticSensor, frequency, notifyHandler)
-                sensorManager!!.registerListener(this, gravitySensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, magneticSensor, frequency)
+                registerSensorListener(sensorManager!!, this, gravitySensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -61,11 +60,8 @@ class HeadingCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Han
                     mHeadingValues[1] = Math.toDegrees(mHeadingValues[1].toDouble()).toFloat()
                     mHeadingValues[2] = Math.toDegrees(mHeadingValues[2].toDouble()).toFloat()
                     mHeadingValues[0] = if (mHeadingValues[0] >= 0) mHeadingValues[0] else mHeadingValues[0] + 360
-                    val headingObject: ThreeAxesObject = HeadingObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-                    headingObject.setxValue(mHeadingValues[1]) // heading pitch
-                    headingObject.setyValue(mHeadingValues[2]) // heading roll
-                    headingObject.setzValue(mHeadingValues[0]) // heading azimuth. When this value is 0 the device points to north
-                    determineTimestamp(event.timestamp, headingObject)
+                    // heading pitch, heading roll and heading azimuth. When the azimuth is 0 the device points to north
+                    onNewSensorSample(LibraryUtil.HEADING, event.timestamp, mHeadingValues[1], mHeadingValues[2], mHeadingValues[0])
                 }
             }
         }
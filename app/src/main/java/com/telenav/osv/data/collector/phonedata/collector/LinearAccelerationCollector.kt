@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.LinearAccelerationObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -26,7 +25,7 @@ class LinearAccelerationCollector(phoneDataListener: PhoneDataListener?, notifyH
                 linearAccelerationSensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_LINEAR_ACCELERATION)
             }
             if (linearAccelerationSensor != null) {
-                sensorManager!!.registerListener(this, linearAccelerationSensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, linearAccelerationSensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -43,11 +42,7 @@ class LinearAccelerationCollector(phoneDataListener: PhoneDataListener?, notifyH
     }
 
     override fun onSensorChanged(event: SensorEvent) {
-        val linearAccelerationObject: ThreeAxesObject = LinearAccelerationObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-        linearAccelerationObject.setxValue(event.values[0])
-        linearAccelerationObject.setyValue(event.values[1])
-        linearAccelerationObject.setzValue(event.values[2])
-        determineTimestamp(event.timestamp, linearAccelerationObject)
+        onNewSensorSample(LibraryUtil.LINEAR_ACCELERATION, event.timestamp, event.values[0], event.values[1], event.values[2])
     }
 
     override fun onAccuracyChanged(sensor: Sensor, accuracy: Int) {
@@ -1,7 +1,12 @@
 package com.telenav.osv.data.collector.phonedata.collector
 
+import android.hardware.Sensor
+import android.hardware.SensorEventListener
+import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.datatype.datatypes.SensorSampleBuffer
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil.AvailableData
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 import com.telenav.osv.data.collector.phonedata.util.MicrosecondsConverter
 import com.telenav.osv.data.collector.phonedata.util.MillisecondsConverter
@@ -31,8 +36,19 @@ open class PhoneCollector(var phoneDataListener: PhoneDataListener?, var notifyH
     private var isUnitTimeDetermined = false
     private var timestampConverter: TimestampConverter? = null
     private var desiredDelay = Int.MIN_VALUE
+
+    /**
+     * The maximum time in microseconds a sensor event can be delayed in the hardware FIFO before it is delivered, 0 in order to deliver each event
+     * as soon as it is read. The batched events are delivered together, reducing the wakeups of the application processor.
+     */
+    var maxReportLatencyUs = 0
     private var previousEventTimestamp: Long = 0
 
+    /**
+     * The samples of the sensor, created on the first sample delivered by [onNewSensorSample]
+     */
+    private var samples: SensorSampleBuffer? = null
+
     /**
      * Notify the client when a sensor is not available
      */
@@ -45,7 +61,7 @@ open class PhoneCollector(var phoneDataListener: PhoneDataListener?, var notifyH
     @Synchronized
     fun onNewSensorEvent(baseObject: BaseObject<*>) {
         phoneDataListener?.let {
-            if (passesFrequencyFilter(baseObject)) {
+            if (passesFrequencyFilter(baseObject.timestamp)) {
                 previousEventTimestamp = baseObject.timestamp
                 it.onSensorChanged(baseObject)
             }
@@ -80,27 +96,64 @@ open class PhoneCollector(var phoneDataListener: PhoneDataListener?, var notifyH
      */
     @Synchronized
     fun determineTimestamp(eventTimestamp: Long, baseObject: BaseObject<*>) {
-        if (isCollectionStarted) {
-            val currentTime = System.currentTimeMillis()
-            if (currentTime - firstSystemReadingTime >= ONE_SECOND_IN_MILLI && !isUnitTimeDetermined) {
-                isUnitTimeDetermined = true
-                timestampConverter = getTimestampConverter(firstSensorReadingTime, eventTimestamp)
+        val timestamp = convertTimestamp(eventTimestamp)
+        if (timestamp != TIMESTAMP_NOT_DETERMINED) {
+            if (timestamp > 0) {
+                baseObject.timestamp = timestamp
             }
-            timestampConverter?.let {
-                if (isUnitTimeDetermined) {
-                    val timestamp: Long = it.getTimestamp(eventTimestamp)
-                    if (timestamp > 0) {
-                        baseObject.timestamp = timestamp
-                    }
-                    onNewSensorEvent(baseObject)
+            onNewSensorEvent(baseObject)
+        }
+    }
+
+    /**
+     * Allocation free counterpart of [determineTimestamp] called from the collectors of the sensors which provide samples.
+     * The sample is stored in the [SensorSampleBuffer] of the collector and passed to [PhoneDataListener.onSensorSample],
+     * a [BaseObject] is created only if the listener still requires it.
+     * @param sensorType The type of the sensor
+     * @param eventTimestamp The timestamp of a sensor event
+     * @param x The value of the x axis or the value of a single value sensor
+     */
+    @Synchronized
+    fun onNewSensorSample(@AvailableData sensorType: String, eventTimestamp: Long, x: Float, y: Float = 0f, z: Float = 0f) {
+        var timestamp = convertTimestamp(eventTimestamp)
+        if (timestamp == TIMESTAMP_NOT_DETERMINED) {
+            return
+        }
+        if (timestamp <= 0) {
+            timestamp = System.currentTimeMillis()
+        }
+        phoneDataListener?.let {
+            if (passesFrequencyFilter(timestamp)) {
+                previousEventTimestamp = timestamp
+                val sampleBuffer = samples ?: SensorSampleBuffer(sensorType).also { buffer -> samples = buffer }
+                val index = sampleBuffer.append(timestamp, x, y, z)
+                if (it.onSensorSample(sampleBuffer, index)) {
+                    sampleBuffer.toBaseObject(index)?.let { baseObject -> it.onSensorChanged(baseObject) }
                 }
             }
+        }
+    }
 
-        } else {
+    /**
+     * Converts the timestamp of a sensor event. The first value of a sensor is read and then one second is waited
+     * before reading the second value. This delay is used in order to determine the time unit of a sensor event.
+     * @param eventTimestamp The timestamp of a sensor event
+     * @return The converted timestamp or [TIMESTAMP_NOT_DETERMINED] while the time unit is not determined
+     */
+    private fun convertTimestamp(eventTimestamp: Long): Long {
+        if (!isCollectionStarted) {
             firstSensorReadingTime = eventTimestamp
             firstSystemReadingTime = System.currentTimeMillis()
             isCollectionStarted = true
+            return TIMESTAMP_NOT_DETERMINED
         }
+        val currentTime = System.currentTimeMillis()
+        if (currentTime - firstSystemReadingTime >= ONE_SECOND_IN_MILLI && !isUnitTimeDetermined) {
+            isUnitTimeDetermined = true
+            timestampConverter = getTimestampConverter(firstSensorReadingTime, eventTimestamp)
+        }
+        val converter = timestampConverter
+        return if (converter != null && isUnitTimeDetermined) converter.getTimestamp(eventTimestamp) else TIMESTAMP_NOT_DETERMINED
     }
 
     /**
@@ -112,17 +165,34 @@ open class PhoneCollector(var phoneDataListener: PhoneDataListener?, var notifyH
         return eventTimestampInNano / NANO_TO_MILLI > Y2015
     }
 
+    /**
+     * Registers the listener for a sensor, batching the events in the hardware FIFO when [maxReportLatencyUs] is set and the sensor has a FIFO.
+     * @return true if the sensor was registered
+     */
+    protected fun registerSensorListener(sensorManager: SensorManager, listener: SensorEventListener, sensor: Sensor, frequency: Int): Boolean {
+        return if (maxReportLatencyUs > 0 && sensor.fifoMaxEventCount > 0) {
+            sensorManager.registerListener(listener, sensor, frequency, maxReportLatencyUs, notifyHandler)
+        } else {
+            sensorManager.registerListener(listener, sensor, frequency, notifyHandler)
+        }
+    }
+
     fun setUpFrequencyFilter(delayMicroseconds: Int) {
         desiredDelay = delayMicroseconds / 1000
     }
 
-    private fun passesFrequencyFilter(baseObject: BaseObject<*>): Boolean {
+    private fun passesFrequencyFilter(timestamp: Long): Boolean {
         return if (desiredDelay <= 0) {
             true
-        } else baseObject.timestamp - previousEventTimestamp > desiredDelay
+        } else timestamp - previousEventTimestamp > desiredDelay
     }
 
     companion object {
+        /**
+         * Returned by [convertTimestamp] while the time unit of the sensor events is not determined
+         */
+        private const val TIMESTAMP_NOT_DETERMINED = Long.MIN_VALUE
+
         /**
          * The timestamp for end of year 2015. It is used in order to determine if the sensor event timestamp
          * represents the current time in nanoseconds
@@ -24,7 +24,7 @@ class PressureCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Ha
                 pressureSensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_PRESSURE)
             }
             if (pressureSensor != null) {
-                sensorManager!!.registerListener(this, pressureSensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, pressureSensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -43,7 +43,7 @@ class PressureCollector(phoneDataListener: PhoneDataListener?, notifyHandler: Ha
     override fun onSensorChanged(event: SensorEvent) {
         val sensorValues = event.values
         if (sensorValues != null && sensorValues.isNotEmpty()) {
-            determineTimestamp(event.timestamp, PressureObject(sensorValues[0] / 10, LibraryUtil.PHONE_SENSOR_READ_SUCCESS))
+            onNewSensorSample(LibraryUtil.PRESSURE, event.timestamp, sensorValues[0] / 10)
         }
     }
 
@@ -7,7 +7,6 @@ import android.hardware.SensorEventListener
 import android.hardware.SensorManager
 import android.os.Handler
 import com.telenav.osv.data.collector.datatype.datatypes.RotationVectorNorthObject
-import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.phonedata.manager.PhoneDataListener
 
@@ -28,7 +27,7 @@ class RotationVectorCollector(phoneDataListener: PhoneDataListener?, notifyHandl
                 rotationVectorSensor = sensorManager!!.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR)
             }
             if (rotationVectorSensor != null) {
-                sensorManager!!.registerListener(this, rotationVectorSensor, frequency, notifyHandler)
+                registerSensorListener(sensorManager!!, this, rotationVectorSensor, frequency)
                 isSensorRegistered = true
                 setUpFrequencyFilter(frequency)
             } else {
@@ -47,11 +46,8 @@ class RotationVectorCollector(phoneDataListener: PhoneDataListener?, notifyHandl
     override fun onSensorChanged(event: SensorEvent) {
         SensorManager.getRotationMatrixFromVector(mRotationMatrixS, event.values)
         SensorManager.getOrientation(mRotationMatrixS, mOrientationS)
-        val rotationVectorObject: ThreeAxesObject = RotationVectorNorthObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
-        rotationVectorObject.setxValue(-mOrientationS[1]) //pitch
-        rotationVectorObject.setyValue(mOrientationS[2]) //roll
-        rotationVectorObject.setzValue(-mOrientationS[0]) //yaw
-        determineTimestamp(event.timestamp, rotationVectorObject)
+        //pitch, roll, yaw
+        onNewSensorSample(LibraryUtil.ROTATION_VECTOR_NORTH_REFERENCE, event.timestamp, -mOrientationS[1], mOrientationS[2], -mOrientationS[0])
     }
 
     override fun onAccuracyChanged(sensor: Sensor, accuracy: Int) {
@@ -1,10 +1,19 @@
 package com.telenav.osv.data.collector.phonedata.manager
 
 import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.datatype.datatypes.SensorSampleBuffer
 
 /**
  * PhoneDataListener interface is used in order to be able to notify the manager when a new value is read from the sensors
  */
 interface PhoneDataListener {
     fun onSensorChanged(baseObject: BaseObject<*>)
-}
\ No newline at end of file
+
+    /**
+     * Notifies a new sample of a sensor without creating an object for it.
+     * @return true if the sample is also required as a [BaseObject] passed to [onSensorChanged].
+     */
+    fun onSensorSample(samples: SensorSampleBuffer, index: Int): Boolean {
+        return true
+    }
+}
@@ -6,7 +6,10 @@ import android.content.Intent
 import android.content.ServiceConnection
 import android.os.IBinder
 import com.telenav.osv.data.collector.datatype.EventDataListener
+import com.telenav.osv.data.collector.datatype.SensorSampleListener
 import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.datatype.datatypes.SensorSampleBuffer
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil.PhoneSensors
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil.PhoneSensorsFrequency
 import com.telenav.osv.data.collector.phonedata.service.PhoneService
@@ -33,23 +36,52 @@ class PhoneSensorsManager {
     private var phoneService: PhoneService? = null
     private var isServiceStarted = false
 
+    /**
+     * The maximum time in microseconds the sensor events can be batched in the hardware FIFO, passed to the service when the collection starts
+     */
+    var maxReportLatencyUs = 0
+
+    /**
+     * The listeners which receive the samples of each sensor, rebuilt when the registrations change in order to deliver the samples without allocations
+     */
+    @Volatile
+    private var sampleListeners: Map<String, Array<SensorSampleListener>> = emptyMap()
+
+    /**
+     * The sensors which have at least one listener which requires the readings as objects
+     */
+    @Volatile
+    private var objectListenedSensors: Set<String> = emptySet()
+
     /**
      * The manager will be notified via this interface when a new sensor value is read
      */
     private val phoneDataListener: PhoneDataListener = object : PhoneDataListener {
         override fun onSensorChanged(baseObject: BaseObject<*>) {
+            val isSample = baseObject.statusCode == LibraryUtil.PHONE_SENSOR_READ_SUCCESS && sampleListeners.containsKey(baseObject.getSensorType())
             for ((listener) in classListeners!!) {
-                if (isSensorListened(listener, baseObject.getSensorType())) {
+                //the sample listeners already received the reading in onSensorSample
+                if (isSensorListened(listener, baseObject.getSensorType()) && !(isSample && listener is SensorSampleListener)) {
                     listener!!.onNewEvent(baseObject)
                 }
             }
         }
+
+        override fun onSensorSample(samples: SensorSampleBuffer, index: Int): Boolean {
+            val listeners = sampleListeners[samples.sensorType]
+            if (listeners != null) {
+                for (listener in listeners) {
+                    listener.onSensorSample(samples, index)
+                }
+            }
+            return objectListenedSensors.contains(samples.sensorType)
+        }
     }
     private val mServiceConnection: ServiceConnection = object : ServiceConnection {
         override fun onServiceConnected(name: ComponentName, service: IBinder) {
             val phoneServiceBinder: PhoneServiceBinder = service as PhoneServiceBinder
             phoneService = phoneServiceBinder.phoneService
-            phoneService!!.startCollecting(sensorTypes, sensorsFrequency, phoneDataListener)
+            phoneService!!.startCollecting(sensorTypes, sensorsFrequency, maxReportLatencyUs, phoneDataListener)
             Timber.tag(TAG).d("Phone service connected")
         }
 
@@ -103,6 +135,7 @@ class PhoneSensorsManager {
         if (classListeners != null && listener != null) {
             unregisterSensors(listener, classListeners[listener])
             classListeners.remove(listener)
+            updateSampleListeners()
         }
     }
 
@@ -121,6 +154,7 @@ class PhoneSensorsManager {
                 removeSensorFrequency(sensor)
             }
             classListeners[listener] = sensorTypes
+            updateSampleListeners()
         }
     }
 
@@ -207,6 +241,30 @@ class PhoneSensorsManager {
                 classListeners[listener] = sensorsTypeList
             }
         }
+        updateSampleListeners()
+    }
+
+    /**
+     * Rebuilds the listeners of the samples of each sensor and the sensors which are still required as objects.
+     * A listener which implements [SensorSampleListener] receives the samples instead of the objects.
+     */
+    private fun updateSampleListeners() {
+        val listenersBySensor = HashMap<String, MutableList<SensorSampleListener>>()
+        val objectSensors = HashSet<String>()
+        for ((listener, sensors) in classListeners!!) {
+            if (sensors == null) {
+                continue
+            }
+            for (sensor in sensors) {
+                if (listener is SensorSampleListener && SensorSampleBuffer.isSampled(sensor)) {
+                    listenersBySensor.getOrPut(sensor) { ArrayList() }.add(listener)
+                } else {
+                    objectSensors.add(sensor)
+                }
+            }
+        }
+        sampleListeners = listenersBySensor.mapValues { it.value.toTypedArray() }
+        objectListenedSensors = objectSensors
     }
 
     /**
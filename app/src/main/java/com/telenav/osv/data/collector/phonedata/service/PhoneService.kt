@@ -47,12 +47,13 @@ class PhoneService : Service() {
         thread = null
     }
 
-    fun startCollecting(sensors: Array<String>, frequency: Map<String, Int?>?, phoneDataListener: PhoneDataListener?) {
+    fun startCollecting(sensors: Array<String>, frequency: Map<String, Int?>?, maxReportLatencyUs: Int, phoneDataListener: PhoneDataListener?) {
         mServiceHandler!!.setDataListener(phoneDataListener)
         val bundle = Bundle()
         bundle.putStringArray(LibraryUtil.SENSOR_TYPE_TAG, sensors)
         bundle.putString(LibraryUtil.SENSOR_OPERATION_TAG, LibraryUtil.REGISTER_SENSOR_TAG)
         bundle.putSerializable(LibraryUtil.FREQUENCY_TAG, frequency as Serializable?)
+        bundle.putInt(LibraryUtil.MAX_REPORT_LATENCY_TAG, maxReportLatencyUs)
         val message: Message = mServiceHandler!!.obtainMessage()
         message.data = bundle
         mServiceHandler!!.sendMessage(message)
@@ -42,6 +42,12 @@ class ServiceHandler internal constructor(looper: Looper?, private val context:
      * Default frequency for phone sensors
      */
     private val defaultFrequency = 0
+
+    /**
+     * The maximum time in microseconds the events of the motion and pressure sensors can be batched in the hardware FIFO. The heading and the compass
+     * are not batched since their latest value is paired with the photos.
+     */
+    private var maxReportLatencyUs = 0
     private var phoneDataListener: PhoneDataListener? = null
     override fun handleMessage(msg: Message) {
         val bundle = msg.data
@@ -146,6 +152,9 @@ class ServiceHandler internal constructor(looper: Looper?, private val context:
      */
     private fun handleSensorsRegistration(bundle: Bundle?) {
         if (bundle != null) {
+            if (bundle.containsKey(LibraryUtil.MAX_REPORT_LATENCY_TAG)) {
+                maxReportLatencyUs = bundle.getInt(LibraryUtil.MAX_REPORT_LATENCY_TAG)
+            }
             registerSensors(bundle.getStringArray(LibraryUtil.SENSOR_TYPE_TAG), bundle.getSerializable(LibraryUtil.FREQUENCY_TAG) as Map<String, Int>)
         }
     }
@@ -206,24 +215,28 @@ class ServiceHandler internal constructor(looper: Looper?, private val context:
                 if (accelerometerCollector == null) {
                     accelerometerCollector = AccelerometerCollector(phoneDataListener, this)
                 }
+                accelerometerCollector!!.maxReportLatencyUs = maxReportLatencyUs
                 accelerometerCollector!!.registerAccelerometerListener(context!!, frequency)
             }
             LibraryUtil.LINEAR_ACCELERATION -> {
                 if (linearAccelerationCollector == null) {
                     linearAccelerationCollector = LinearAccelerationCollector(phoneDataListener, this)
                 }
+                linearAccelerationCollector!!.maxReportLatencyUs = maxReportLatencyUs
                 linearAccelerationCollector!!.registerLinearAccelerationListener(context!!, frequency)
             }
             LibraryUtil.GYROSCOPE -> {
                 if (gyroCollector == null) {
                     gyroCollector = GyroCollector(phoneDataListener, this)
                 }
+                gyroCollector!!.maxReportLatencyUs = maxReportLatencyUs
                 gyroCollector!!.registerGyroListener(context!!, frequency)
             }
             LibraryUtil.GRAVITY -> {
                 if (gravityCollector == null) {
                     gravityCollector = GravityCollector(phoneDataListener, this)
                 }
+                gravityCollector!!.maxReportLatencyUs = maxReportLatencyUs
                 gravityCollector!!.registerGravityListener(context!!, frequency)
             }
             LibraryUtil.PHONE_GPS_ACCURACY, LibraryUtil.PHONE_GPS_ALTITUDE, LibraryUtil.PHONE_GPS_BEARING, LibraryUtil.PHONE_GPS_SPEED, LibraryUtil.PHONE_GPS, LibraryUtil.GPS_DATA, LibraryUtil.NMEA_DATA -> {
@@ -260,6 +273,7 @@ class ServiceHandler internal constructor(looper: Looper?, private val context:
                 if (pressureCollector == null) {
                     pressureCollector = PressureCollector(phoneDataListener, this)
                 }
+                pressureCollector!!.maxReportLatencyUs = maxReportLatencyUs
                 pressureCollector!!.registerPressureListener(context!!, frequency)
             }
             LibraryUtil.PROXIMITY -> {
@@ -272,12 +286,14 @@ class ServiceHandler internal constructor(looper: Looper?, private val context:
                 if (rotationVectorCollector == null) {
                     rotationVectorCollector = RotationVectorCollector(phoneDataListener, this)
                 }
+                rotationVectorCollector!!.maxReportLatencyUs = maxReportLatencyUs
                 rotationVectorCollector!!.registerRotationVectorListener(context!!, frequency)
             }
             LibraryUtil.ROTATION_VECTOR_RAW -> {
                 if (gameRotationVectorCollector == null) {
                     gameRotationVectorCollector = GameRotationVectorCollector(phoneDataListener, this)
                 }
+                gameRotationVectorCollector!!.maxReportLatencyUs = maxReportLatencyUs
                 gameRotationVectorCollector!!.registerGameRotationVectorListener(context!!, frequency)
             }
             LibraryUtil.STEP_COUNT -> {
@@ -9,14 +9,18 @@ import com.telenav.osv.data.frame.database.entity.FrameEntity;
 import com.telenav.osv.data.frame.database.entity.FrameWithLocationEntity;
 import com.telenav.osv.data.frame.model.Frame;
 import com.telenav.osv.data.location.database.entity.LocationEntity;
+import com.telenav.osv.data.location.database.entity.SequencePolylineEntity;
 import com.telenav.osv.data.location.model.KVLocation;
+import com.telenav.osv.data.location.model.SequencePolyline;
 import com.telenav.osv.data.score.database.entity.ScoreEntity;
 import com.telenav.osv.data.score.datasource.ScoreDataSource;
 import com.telenav.osv.data.score.model.ScoreHistory;
 import com.telenav.osv.data.sequence.database.entity.SequenceEntity;
+import com.telenav.osv.data.sequence.database.entity.SequenceFingerprintEntity;
 import com.telenav.osv.data.sequence.database.entity.SequenceWithRewardEntity;
 import com.telenav.osv.data.sequence.model.LocalSequence;
 import com.telenav.osv.data.sequence.model.details.SequenceDetails;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsFingerprint;
 import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal;
 import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionBase;
 import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionJpeg;
@@ -155,6 +159,41 @@ public class DataConverter {
                 videoEntity.getFilePath());
     }
 
+    /**
+     * @param fingerprint the {@code SequenceDetailsFingerprint} to be translated into a {@code SequenceFingerprintEntity}.
+     * @param sequenceID the sequence identifier to which the fingerprint belongs.
+     * @return {@code SequenceFingerprintEntity} with all the data from the given params.
+     */
+    public static SequenceFingerprintEntity toSequenceFingerprintEntity(@NonNull SequenceDetailsFingerprint fingerprint, @NonNull String sequenceID) {
+        return new SequenceFingerprintEntity(
+                sequenceID,
+                fingerprint.getFolderModified(),
+                fingerprint.getFileCount(),
+                fingerprint.getFolderSize());
+    }
+
+    /**
+     * @param fingerprintEntity the {@code SequenceFingerprintEntity} to be translated into a {@code SequenceDetailsFingerprint}.
+     * @return {@code SequenceDetailsFingerprint} model with all the data from the given params.
+     */
+    public static SequenceDetailsFingerprint toSequenceDetailsFingerprint(@NonNull SequenceFingerprintEntity fingerprintEntity) {
+        return new SequenceDetailsFingerprint(
+                fingerprintEntity.getFolderModified(),
+                fingerprintEntity.getFileCount(),
+                fingerprintEntity.getFolderSize());
+    }
+
+    /**
+     * @param polylineEntity the {@code SequencePolylineEntity} to be translated into a {@code SequencePolyline}.
+     * @return {@code SequencePolyline} model with all the data from the given params.
+     */
+    public static SequencePolyline toSequencePolyline(@NonNull SequencePolylineEntity polylineEntity) {
+        return new SequencePolyline(
+                polylineEntity.getSequenceID(),
+                polylineEntity.getPoints(),
+                polylineEntity.getLocationCount());
+    }
+
     /**
      * @param kvLocations {@code collection} of {@code KVLocation} objects.
      * @return {@code collection} of {@code Android} locations translated from {@code collection} of {@code KVLocation} objects.
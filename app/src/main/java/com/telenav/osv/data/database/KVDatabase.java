@@ -11,14 +11,21 @@ import com.telenav.osv.data.database.migration.Migration1To2;
 import com.telenav.osv.data.database.migration.Migration2To3;
 import com.telenav.osv.data.database.migration.Migration3To4;
 import com.telenav.osv.data.database.migration.Migration4To5;
+import com.telenav.osv.data.database.migration.Migration5To6;
+import com.telenav.osv.data.database.migration.Migration6To7;
+import com.telenav.osv.data.database.migration.Migration7To8;
 import com.telenav.osv.data.frame.database.dao.FrameDao;
 import com.telenav.osv.data.frame.database.entity.FrameEntity;
 import com.telenav.osv.data.location.database.dao.LocationDao;
+import com.telenav.osv.data.location.database.dao.SequencePolylineDao;
 import com.telenav.osv.data.location.database.entity.LocationEntity;
+import com.telenav.osv.data.location.database.entity.SequencePolylineEntity;
 import com.telenav.osv.data.score.database.dao.ScoreDao;
 import com.telenav.osv.data.score.database.entity.ScoreEntity;
 import com.telenav.osv.data.sequence.database.dao.SequenceDao;
+import com.telenav.osv.data.sequence.database.dao.SequenceFingerprintDao;
 import com.telenav.osv.data.sequence.database.entity.SequenceEntity;
+import com.telenav.osv.data.sequence.database.entity.SequenceFingerprintEntity;
 import com.telenav.osv.data.video.database.dao.VideoDao;
 import com.telenav.osv.data.video.database.entity.VideoEntity;
 import com.telenav.osv.utils.ConverterHelper;
@@ -33,17 +40,21 @@ import com.telenav.osv.utils.ConverterHelper;
  * <li>Score - {@link #sequenceDao()}</li>
  * <li>Score - {@link #locationDao()}</li>
  * <li>Score - {@link #frameDao()}</li>
+ * <li>Sequence fingerprint - {@link #sequenceFingerprintDao()}</li>
+ * <li>Sequence polyline - {@link #sequencePolylineDao()}</li>
  * </ul>
  * @author horatiuf
  */
 @Database(
-        version = 5,
+        version = 8,
         entities = {
                 SequenceEntity.class,
                 VideoEntity.class,
                 FrameEntity.class,
                 ScoreEntity.class,
-                LocationEntity.class})
+                LocationEntity.class,
+                SequenceFingerprintEntity.class,
+                SequencePolylineEntity.class})
 @TypeConverters(ConverterHelper.class)
 public abstract class KVDatabase extends RoomDatabase {
 
@@ -73,7 +84,10 @@ public abstract class KVDatabase extends RoomDatabase {
                                 new Migration1To2(),
                                 new Migration2To3(),
                                 new Migration3To4(),
-                                new Migration4To5())
+                                new Migration4To5(),
+                                new Migration5To6(),
+                                new Migration6To7(),
+                                new Migration7To8())
                         .build();
             }
         }
@@ -104,4 +118,14 @@ public abstract class KVDatabase extends RoomDatabase {
      * @return instance to the {@code FrameDao} which will be automatically populated by the {@code Room} library.
      */
     public abstract FrameDao frameDao();
+
+    /**
+     * @return instance to the {@code SequenceFingerprintDao} which will be automatically populated by the {@code Room} library.
+     */
+    public abstract SequenceFingerprintDao sequenceFingerprintDao();
+
+    /**
+     * @return instance to the {@code SequencePolylineDao} which will be automatically populated by the {@code Room} library.
+     */
+    public abstract SequencePolylineDao sequencePolylineDao();
 }
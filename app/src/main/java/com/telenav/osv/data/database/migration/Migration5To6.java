@@ -0,0 +1,51 @@
+package com.telenav.osv.data.database.migration;
+
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.telenav.osv.utils.Log;
+
+/**
+ * Custom implementation of Room {@code Migration} class from version 5 to 6.
+ * <p>
+ * Adds the 'sequence_fingerprint' table used by the data consistency in order to skip the sequences which did not change since the last check.
+ */
+public class Migration5To6 extends Migration {
+
+    /**
+     * The {@code String} representing the TAG of the current class.
+     */
+    public static final String TAG = Migration5To6.class.getSimpleName();
+
+    /**
+     * Sql statement in order to create the 'sequence_fingerprint' table for version 6.
+     */
+    private static final String DB_CREATE_SEQUENCE_FINGERPRINT_TABLE =
+            "CREATE TABLE IF NOT EXISTS `sequence_fingerprint` (`sequence_id` TEXT NOT NULL, `folder_modified` INTEGER NOT NULL, `file_count` INTEGER NOT NULL, " +
+                    "`folder_size` INTEGER NOT NULL, PRIMARY KEY(`sequence_id`), FOREIGN KEY(`sequence_id`) REFERENCES `sequence`(`id`) ON UPDATE NO ACTION ON DELETE " +
+                    "CASCADE )";
+
+    /**
+     * The start version for the migration.
+     */
+    private static final int START_VERSION = 5;
+
+    /**
+     * The end version for the migration.
+     */
+    private static final int END_VERSION = 6;
+
+    /**
+     * Creates a new migration between {@code startVersion} and {@code endVersion}.
+     */
+    public Migration5To6() {
+        super(START_VERSION, END_VERSION);
+    }
+
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+        Log.d(TAG, "migrate. Status: create. Message: creating version 6 sequence fingerprint empty table.");
+        database.execSQL(DB_CREATE_SEQUENCE_FINGERPRINT_TABLE);
+        Log.d(TAG, "migrate. Status: finishing. Message: Migration successful.");
+    }
+}
@@ -0,0 +1,50 @@
+package com.telenav.osv.data.database.migration;
+
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.telenav.osv.utils.Log;
+
+/**
+ * Custom implementation of Room {@code Migration} class from version 6 to 7.
+ * <p>
+ * Adds the 'sequence_polyline' table which holds the simplified polyline of each sequence, displayed on the map instead of all the sequence locations.
+ */
+public class Migration6To7 extends Migration {
+
+    /**
+     * The {@code String} representing the TAG of the current class.
+     */
+    public static final String TAG = Migration6To7.class.getSimpleName();
+
+    /**
+     * Sql statement in order to create the 'sequence_polyline' table for version 7.
+     */
+    private static final String DB_CREATE_SEQUENCE_POLYLINE_TABLE =
+            "CREATE TABLE IF NOT EXISTS `sequence_polyline` (`sequence_id` TEXT NOT NULL, `points` TEXT NOT NULL, `location_count` INTEGER NOT NULL, PRIMARY KEY" +
+                    "(`sequence_id`), FOREIGN KEY(`sequence_id`) REFERENCES `sequence`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )";
+
+    /**
+     * The start version for the migration.
+     */
+    private static final int START_VERSION = 6;
+
+    /**
+     * The end version for the migration.
+     */
+    private static final int END_VERSION = 7;
+
+    /**
+     * Creates a new migration between {@code startVersion} and {@code endVersion}.
+     */
+    public Migration6To7() {
+        super(START_VERSION, END_VERSION);
+    }
+
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+        Log.d(TAG, "migrate. Status: create. Message: creating version 7 sequence polyline empty table.");
+        database.execSQL(DB_CREATE_SEQUENCE_POLYLINE_TABLE);
+        Log.d(TAG, "migrate. Status: finishing. Message: Migration successful.");
+    }
+}
@@ -0,0 +1,59 @@
+package com.telenav.osv.data.database.migration;
+
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.telenav.osv.utils.Log;
+
+/**
+ * Custom implementation of Room {@code Migration} class from version 7 to 8.
+ * <p>
+ * Adds the indices on the 'sequence_id' column for the 'frame' and 'location' tables, since all the sequence specific queries filter on it:
+ * <ul>
+ * <li>frame - composite index with the 'id' column, which covers the identifiers and count queries and the identifier ordered pages.</li>
+ * <li>location - index on the 'sequence_id' column only, its entries are sorted by rowid within a sequence therefore the locations are read in recording order without
+ * a sort.</li>
+ * </ul>
+ */
+public class Migration7To8 extends Migration {
+
+    /**
+     * The {@code String} representing the TAG of the current class.
+     */
+    public static final String TAG = Migration7To8.class.getSimpleName();
+
+    /**
+     * Sql statement in order to create the sequence index for the 'frame' table for version 8.
+     */
+    private static final String DB_CREATE_FRAME_SEQUENCE_INDEX = "CREATE INDEX IF NOT EXISTS `index_frame_sequence_id_id` ON `frame` (`sequence_id`, `id`)";
+
+    /**
+     * Sql statement in order to create the sequence index for the 'location' table for version 8.
+     */
+    private static final String DB_CREATE_LOCATION_SEQUENCE_INDEX = "CREATE INDEX IF NOT EXISTS `index_location_sequence_id` ON `location` (`sequence_id`)";
+
+    /**
+     * The start version for the migration.
+     */
+    private static final int START_VERSION = 7;
+
+    /**
+     * The end version for the migration.
+     */
+    private static final int END_VERSION = 8;
+
+    /**
+     * Creates a new migration between {@code startVersion} and {@code endVersion}.
+     */
+    public Migration7To8() {
+        super(START_VERSION, END_VERSION);
+    }
+
+    @Override
+    public void migrate(SupportSQLiteDatabase database) {
+        Log.d(TAG, "migrate. Status: create. Message: creating version 8 sequence indices for frame and location tables.");
+        database.execSQL(DB_CREATE_FRAME_SEQUENCE_INDEX);
+        database.execSQL(DB_CREATE_LOCATION_SEQUENCE_INDEX);
+        Log.d(TAG, "migrate. Status: finishing. Message: Migration successful.");
+    }
+}
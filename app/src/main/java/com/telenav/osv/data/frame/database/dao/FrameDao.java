@@ -1,6 +1,7 @@
 package com.telenav.osv.data.frame.database.dao;
 
 import java.util.List;
+import android.database.Cursor;
 import com.telenav.osv.data.database.dao.BaseDao;
 import com.telenav.osv.data.frame.database.entity.FrameEntity;
 import com.telenav.osv.data.frame.database.entity.FrameWithLocationEntity;
@@ -19,7 +20,8 @@ import io.reactivex.Single;
  * <li>{@link #findAllByIds(int[])}</li>
  * <li>{@link #findByID(String)}</li>
  * <li>{@link #findBySequenceID(String)}</li>
- * <li>{@link #findAllWithLocationBySequenceID(String)}</li>
+ * <li>{@link #findWithLocationBySequenceIdAfter(String, String, int)}</li>
+ * <li>{@link #findFilePathsBySequenceID(String)}</li>
  * </ul>
  * Remove:
  * <ul>
@@ -60,6 +62,15 @@ public interface FrameDao extends BaseDao<FrameEntity> {
     @Query("SELECT id FROM frame where sequence_id = :sequenceID")
     Single<List<String>> findAllIdsBySequenceId(String sequenceID);
 
+    /**
+     * @param sequenceID the sequence identifier by which the frames will be filtered by.
+     * @param afterId the identifier after which the page starts, in identifier order, an empty string for the first page.
+     * @param limit the maximum number of identifiers returned.
+     * @return a page of frame identifiers for the given sequence, sorted by identifier.
+     */
+    @Query("SELECT id FROM frame WHERE sequence_id = :sequenceID AND id > :afterId ORDER BY id LIMIT :limit")
+    List<String> findIdsBySequenceIdAfter(String sequenceID, String afterId, int limit);
+
     /**
      * @param ID the identifier in order to find a specific {@code FrameEntity}.
      * @return either the {@code FrameWithLocationEntity} which matched the given id, or an empty value otherwise.
@@ -80,15 +91,24 @@ public interface FrameDao extends BaseDao<FrameEntity> {
 
     /**
      * @param sequenceID the sequence identifier by which the entities will be filtered by.
-     * @return a collection of entities which matched the given sequence id. The location entity will be embedded into the objects.
+     * @param afterId the identifier after which the page starts, in identifier order, an empty string for the first page.
+     * @param limit the maximum number of entities returned.
+     * @return a page of entities which matched the given sequence id, sorted by identifier. The location entity will be embedded into the objects.
      */
     @Transaction
     @Query("SELECT frame.*, " +
             "location.id as loc_id, " +
             "location.lat as loc_lat, " +
             "location.lon as loc_lon " +
-            "FROM frame JOIN location ON frame.id = location.frame_id WHERE frame.sequence_id = :sequenceID")
-    Maybe<List<FrameWithLocationEntity>> findAllWithLocationBySequenceID(String sequenceID);
+            "FROM frame JOIN location ON frame.id = location.frame_id WHERE frame.sequence_id = :sequenceID AND frame.id > :afterId ORDER BY frame.id LIMIT :limit")
+    List<FrameWithLocationEntity> findWithLocationBySequenceIdAfter(String sequenceID, String afterId, int limit);
+
+    /**
+     * @param sequenceID the sequence identifier by which the frames will be filtered by.
+     * @return a {@code Cursor} over the file paths of the frames for the given sequence, in order for the rows to be read one at a time. The cursor must be closed by the caller.
+     */
+    @Query("SELECT file_path FROM frame WHERE sequence_id = :sequenceID")
+    Cursor findFilePathsBySequenceID(String sequenceID);
 
     /**
      * @param sequenceID the sequence identifier in order to find a specific {@code FrameEntity}.
@@ -7,6 +7,7 @@ import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import static androidx.room.ForeignKey.CASCADE;
 
@@ -15,6 +16,9 @@ import static androidx.room.ForeignKey.CASCADE;
  * @author horatiuf
  */
 @Entity(tableName = "frame",
+        indices = {
+                @Index(value = {"sequence_id", "id"})
+        },
         foreignKeys = {
                 @ForeignKey(entity = SequenceEntity.class,
                         parentColumns = "id",
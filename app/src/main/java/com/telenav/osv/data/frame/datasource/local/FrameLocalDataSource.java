@@ -1,9 +1,11 @@
 package com.telenav.osv.data.frame.datasource.local;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 import com.telenav.osv.data.CompressionDataSource;
 import com.telenav.osv.data.frame.model.Frame;
 import androidx.annotation.NonNull;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 
@@ -11,10 +13,11 @@ import io.reactivex.Single;
  * Local interface for the frame persistence such as:
  * <ul>
  * <li>{@link #getFrames(String)}</li>
- * <li>{@link #getFramesWithLocations(String)}</li>
+ * <li>{@link #getFramesWithLocationsPaged(String, int)}</li>
  * <li>{@link #deleteFrame(String)}</li>
  * <li>{@link #saveFrame(Frame, String)}</li>
  * <li>{@link #getFrameCountBySequenceId(String)}</li>
+ * <li>{@link #runInTransaction(Callable)}</li>
  * </ul>
  * @author horatiuf
  */
@@ -27,13 +30,6 @@ public interface FrameLocalDataSource extends CompressionDataSource {
      */
     Maybe<List<Frame>> getFrames(@NonNull String sequenceId);
 
-    /**
-     * The main difference between this an the {@code getFrames} method is that this includes the location where the frame was taken.
-     * @param sequenceId the sequence id for which the query for local frame will be filtered by.
-     * @return {@code Maybe} stream of a collection of {@code Frame} objects which have foreign key the given sequence identifier.
-     */
-    Maybe<List<Frame>> getFramesWithLocations(@NonNull String sequenceId);
-
     /**
      * @param frameId the frame id for which the query will be filtered by.
      * @return {@code Maybe} stream of a collection of {@code Frame} objects which have foreign key the given sequence identifier.
@@ -55,6 +51,29 @@ public interface FrameLocalDataSource extends CompressionDataSource {
      **/
     Single<List<String>> getFrameIdsBySequenceId(@NonNull String sequenceId);
 
+    /**
+     * The lazy alternative of {@link #getFrameIdsBySequenceId(String)}, the identifiers are loaded from the persistence in pages only when requested by the subscriber.
+     * @param sequenceId the sequence id for which the frame identifiers are loaded.
+     * @param pageSize the number of identifiers loaded by a persistence query.
+     * @return {@code Flowable} emitting the frame identifiers of the sequence, sorted by identifier.
+     */
+    Flowable<String> getFrameIdsBySequenceIdLazy(@NonNull String sequenceId, int pageSize);
+
+    /**
+     * The main difference between this an the {@code getFrames} method is that this includes the location where the frame was taken. Each page is loaded from the
+     * persistence only when requested by the subscriber, therefore the frames of a long sequence are not loaded at once.
+     * @param sequenceId the sequence id for which the frames are loaded.
+     * @param pageSize the number of frames loaded by a persistence query.
+     * @return {@code Flowable} emitting the pages of frames with locations of the sequence, sorted by identifier.
+     */
+    Flowable<List<Frame>> getFramesWithLocationsPaged(@NonNull String sequenceId, int pageSize);
+
+    /**
+     * @param sequenceId the sequence id for which the frame file paths are loaded.
+     * @return {@code Flowable} emitting the file paths of the sequence frames, read one at a time from the persistence while requested by the subscriber.
+     */
+    Flowable<String> getFrameFilePathsLazy(@NonNull String sequenceId);
+
     /**
      * Removes the frame from the persistence.
      * @param frameId {@code identifier} for the frame. It cannot be null.
@@ -74,4 +93,12 @@ public interface FrameLocalDataSource extends CompressionDataSource {
      * @return {@code number} of the frames for given sequence identifier.
      */
     int getFrameCountBySequenceId(@NonNull String sequenceId);
+
+    /**
+     * Runs the given persistence operations in a single database transaction, which is committed only if the operations succeed.
+     * All the local data sources share the same database, therefore the operations can use any of them.
+     * @param operations the operations to run, returning {@code true} if the transaction should be committed, {@code false} for a rollback.
+     * @return {@code true} if the transaction was committed, {@code false} otherwise.
+     */
+    boolean runInTransaction(@NonNull Callable<Boolean> operations);
 }
@@ -1,6 +1,7 @@
 package com.telenav.osv.data.frame.datasource.local;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.annotation.NonNull;
 
@@ -9,11 +10,17 @@ import com.telenav.osv.data.database.DataConverter;
 import com.telenav.osv.data.database.KVDatabase;
 import com.telenav.osv.data.frame.database.dao.FrameDao;
 import com.telenav.osv.data.frame.database.entity.FrameEntity;
+import com.telenav.osv.data.frame.database.entity.FrameWithLocationEntity;
 import com.telenav.osv.data.frame.model.Frame;
 import com.telenav.osv.utils.Log;
+import com.telenav.osv.utils.StringUtils;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
@@ -50,12 +57,17 @@ public class FrameLocalDataSourceImpl implements FrameLocalDataSource {
      */
     private FrameDao frameDao;
 
+    /**
+     * The database used for the transactions which span over multiple data sources.
+     */
+    private KVDatabase kvDatabase;
+
     /**
      * Default constructor for the current class. Private to prevent instantiation outside the class scope.
      * @param context the {@code Context} used to instantiate the local persistence.
      */
     private FrameLocalDataSourceImpl(@NonNull Context context) {
-        KVDatabase kvDatabase = Injection.provideKVDatabase(context);
+        kvDatabase = Injection.provideKVDatabase(context);
         frameDao = kvDatabase.frameDao();
     }
 
@@ -74,9 +86,9 @@ public class FrameLocalDataSourceImpl implements FrameLocalDataSource {
     public Maybe<List<Frame>> getFrames(String sequenceId) {
         return frameDao
                 .findAllBySequenceID(sequenceId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getFrames. Status: success. Sequence id: %s. Message: Frames found.", sequenceId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getFrames. Status: complete. Sequence id: %s. Message: Frames not found.", sequenceId)))
-                .doOnError(throwable -> Log.d(TAG, String.format("getFrames. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage())))
+                .doOnSuccess(items -> Log.d(TAG, "getFrames. Status: success. Sequence id: %s. Message: Frames found.", sequenceId))
+                .doOnComplete(() -> Log.d(TAG, "getFrames. Status: complete. Sequence id: %s. Message: Frames not found.", sequenceId))
+                .doOnError(throwable -> Log.d(TAG, "getFrames. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(DataConverter::toFrame)
@@ -85,29 +97,14 @@ public class FrameLocalDataSourceImpl implements FrameLocalDataSource {
 
     }
 
-    @Override
-    public Maybe<List<Frame>> getFramesWithLocations(String sequenceId) {
-        return frameDao
-                .findAllWithLocationBySequenceID(sequenceId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getFramesWithLocations. Status: success. Sequence id: %s. Message: Frames found.", sequenceId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getFramesWithLocations. Status: complete. Sequence id: %s. Message: Frames not found.", sequenceId)))
-                .doOnError(throwable -> Log.d(TAG,
-                        String.format("getFramesWithLocations. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage())))
-                .flatMap(entities -> Observable
-                        .fromIterable(entities)
-                        .map(DataConverter::toFrame)
-                        .toList()
-                        .toMaybe());
-    }
-
     @Override
     public Maybe<Frame> getFrame(@NonNull String frameId) {
         return frameDao
                 .findByID(frameId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getFrame. Status: success. Frame id: %s. Message: Frames found.", frameId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getFrame. Status: complete. Frame id: %s. Message: Frames not found.", frameId)))
+                .doOnSuccess(items -> Log.d(TAG, "getFrame. Status: success. Frame id: %s. Message: Frames found.", frameId))
+                .doOnComplete(() -> Log.d(TAG, "getFrame. Status: complete. Frame id: %s. Message: Frames not found.", frameId))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getFrame. Status: error. Frame id: %s. Message: %s.", frameId, throwable.getLocalizedMessage())))
+                        "getFrame. Status: error. Frame id: %s. Message: %s.", frameId, throwable.getLocalizedMessage()))
                 .map(DataConverter::toFrame);
     }
 
@@ -115,10 +112,10 @@ public class FrameLocalDataSourceImpl implements FrameLocalDataSource {
     public Maybe<Frame> getFrameWithLocation(@NonNull String frameId) {
         return frameDao
                 .findWithLocationByID(frameId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getFrameWithLocation. Status: success. Frame id: %s. Message: Frames found.", frameId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getFrameWithLocation. Status: complete. Frame id: %s. Message: Frames not found.", frameId)))
+                .doOnSuccess(items -> Log.d(TAG, "getFrameWithLocation. Status: success. Frame id: %s. Message: Frames found.", frameId))
+                .doOnComplete(() -> Log.d(TAG, "getFrameWithLocation. Status: complete. Frame id: %s. Message: Frames not found.", frameId))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getFrameWithLocation. Status: error. Frame id: %s. Message: %s.", frameId, throwable.getLocalizedMessage())))
+                        "getFrameWithLocation. Status: error. Frame id: %s. Message: %s.", frameId, throwable.getLocalizedMessage()))
                 .map(DataConverter::toFrame);
     }
 
@@ -127,20 +124,75 @@ public class FrameLocalDataSourceImpl implements FrameLocalDataSource {
         return frameDao
                 .findAllIdsBySequenceId(sequenceId)
                 .doOnSuccess(items -> Log.d(TAG, "getFrameIdsBySequenceId. Status: success. Message: frames ids found."))
-                .doOnError(throwable -> Log.d(TAG, String.format("getFrameIdsBySequenceId. Status: error. Message: %s.", throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getFrameIdsBySequenceId. Status: error. Message: %s.", throwable.getLocalizedMessage()));
+    }
+
+    @Override
+    public Flowable<String> getFrameIdsBySequenceIdLazy(@NonNull String sequenceId, int pageSize) {
+        return Flowable.generate(FrameIdsPage::new, (page, emitter) -> {
+            if (page.frameIds.isEmpty() && !page.last) {
+                List<String> frameIds = frameDao.findIdsBySequenceIdAfter(sequenceId, page.lastFrameId, pageSize);
+                Log.d(TAG, "getFrameIdsBySequenceIdLazy. Status: success. Sequence id: %s. Message: Loaded %s frame ids.", sequenceId, frameIds.size());
+                page.frameIds.addAll(frameIds);
+                page.last = frameIds.size() < pageSize;
+            }
+            String frameId = page.frameIds.poll();
+            if (frameId == null) {
+                emitter.onComplete();
+            } else {
+                page.lastFrameId = frameId;
+                emitter.onNext(frameId);
+            }
+            return page;
+        });
+    }
+
+    @Override
+    public Flowable<List<Frame>> getFramesWithLocationsPaged(@NonNull String sequenceId, int pageSize) {
+        return Flowable.generate(FrameIdsPage::new, (page, emitter) -> {
+            if (page.last) {
+                emitter.onComplete();
+                return page;
+            }
+            List<FrameWithLocationEntity> entities = frameDao.findWithLocationBySequenceIdAfter(sequenceId, page.lastFrameId, pageSize);
+            Log.d(TAG, "getFramesWithLocationsPaged. Status: success. Sequence id: %s. Message: Loaded %s frames.", sequenceId, entities.size());
+            page.last = entities.size() < pageSize;
+            if (entities.isEmpty()) {
+                emitter.onComplete();
+                return page;
+            }
+            List<Frame> frames = new ArrayList<>(entities.size());
+            for (FrameWithLocationEntity entity : entities) {
+                frames.add(DataConverter.toFrame(entity));
+            }
+            page.lastFrameId = entities.get(entities.size() - 1).getFrameEntity().getFrameId();
+            emitter.onNext(frames);
+            return page;
+        });
+    }
+
+    @Override
+    public Flowable<String> getFrameFilePathsLazy(@NonNull String sequenceId) {
+        return Flowable.<String, Cursor>generate(() -> frameDao.findFilePathsBySequenceID(sequenceId), (cursor, emitter) -> {
+            if (cursor.moveToNext()) {
+                emitter.onNext(cursor.getString(0));
+            } else {
+                emitter.onComplete();
+            }
+        }, Cursor::close);
     }
 
     @Override
     public boolean deleteFrame(@NonNull String frameId) {
         boolean deleteResult = frameDao.deleteById(frameId) != 0;
-        Log.d(TAG, String.format("deleteFrame. Status: %s. Id: %s.", deleteResult, frameId));
+        Log.d(TAG, "deleteFrame. Status: %s. Id: %s.", deleteResult, frameId);
         return deleteResult;
     }
 
     @Override
     public boolean saveFrame(@NonNull Frame frame, @NonNull String sequenceID) {
         if (frame == null) {
-            Log.d(TAG, String.format("saveFrame. The frame is null. Sequence id: %s", sequenceID));
+            Log.d(TAG, "saveFrame. The frame is null. Sequence id: %s", sequenceID);
             return false;
         }
 
@@ -149,7 +201,7 @@ public class FrameLocalDataSourceImpl implements FrameLocalDataSource {
         //persist the frame
         String frameEntityID = frameEntity.getFrameId();
         if (frameEntityID == null) {
-            Log.d(TAG, String.format("saveFrame. The frame was not persisted successfully. Sequence id: %s", sequenceID));
+            Log.d(TAG, "saveFrame. The frame was not persisted successfully. Sequence id: %s", sequenceID);
             return false;
         }
         return true;
@@ -158,10 +210,47 @@ public class FrameLocalDataSourceImpl implements FrameLocalDataSource {
     @Override
     public int getFrameCountBySequenceId(@NonNull String sequenceId) {
         int frameCount = frameDao.findNumberOfRows(sequenceId);
-        Log.d(TAG, String.format(
+        Log.d(TAG,
                 "getFrameCountBySequenceId. Sequence id: %s. Count: %s. Message: Fetching the frame count from the persistence for the sequence given.",
                 sequenceId,
-                frameCount));
+                frameCount);
         return frameCount;
     }
+
+    @Override
+    public boolean runInTransaction(@NonNull Callable<Boolean> operations) {
+        boolean committed = false;
+        kvDatabase.beginTransaction();
+        try {
+            if (operations.call()) {
+                kvDatabase.setTransactionSuccessful();
+                committed = true;
+            }
+        } catch (Exception e) {
+            Log.d(TAG, "runInTransaction. Status: error. Message: %s.", e.getMessage());
+        } finally {
+            kvDatabase.endTransaction();
+        }
+        Log.d(TAG, "runInTransaction. Status: %s.", committed ? "committed" : "rollback");
+        return committed;
+    }
+
+    /**
+     * The state of {@link #getFrameIdsBySequenceIdLazy(String, int)} holding the currently loaded page of frame identifiers, also used by
+     * {@link #getFramesWithLocationsPaged(String, int)} for the position of the next page.
+     */
+    private static class FrameIdsPage {
+
+        private final ArrayDeque<String> frameIds = new ArrayDeque<>();
+
+        /**
+         * The last emitted identifier, the next page starts after it. Empty for the first page since all the identifiers are greater.
+         */
+        private String lastFrameId = StringUtils.EMPTY_STRING;
+
+        /**
+         * Flag which is {@code true} when the last loaded page was incomplete, therefore there are no more identifiers to load.
+         */
+        private boolean last;
+    }
 }
@@ -1,6 +1,7 @@
 package com.telenav.osv.data.location.database.dao;
 
 import java.util.List;
+import android.database.Cursor;
 import com.telenav.osv.data.database.dao.BaseDao;
 import com.telenav.osv.data.location.database.entity.LocationEntity;
 import androidx.room.Dao;
@@ -17,7 +18,7 @@ import io.reactivex.Single;
  * <li>{@link #findAllByIds(int[])}</li>
  * <li>{@link #findByID(String)}</li>
  * <li>{@link #findAllBySequenceID(String)}</li>
- * <li>{@link #findAllBySequenceID(String)}</li>
+ * <li>{@link #findCoordinatesBySequenceID(String)}</li>
  * </ul>
  * Remove:
  * <ul>
@@ -55,9 +56,18 @@ public interface LocationDao extends BaseDao<LocationEntity> {
      * @param sequenceID the sequence identifier in order to find a specific {@code LocationEntity}.
      * @return either the collection of {@code LocationEntity} which matched the given sequence id, or an empty value otherwise.
      */
-    @Query("SELECT * FROM location WHERE sequence_id = :sequenceID")
+    @Query("SELECT * FROM location WHERE sequence_id = :sequenceID ORDER BY rowid")
     Maybe<List<LocationEntity>> findAllBySequenceID(String sequenceID);
 
+    /**
+     * The streaming alternative of {@link #findAllBySequenceID(String)} for the consumers which need only the coordinates.
+     * @param sequenceID the sequence identifier by which the locations will be filtered by.
+     * @return a {@code Cursor} over the 'lat' and 'lon' columns of the locations for the given sequence in the recording order, in order for the rows to be read one at a
+     * time. The cursor must be closed by the caller.
+     */
+    @Query("SELECT lat, lon FROM location WHERE sequence_id = :sequenceID ORDER BY rowid")
+    Cursor findCoordinatesBySequenceID(String sequenceID);
+
     /**
      * @param videoID the video identifier in order to find a specific {@code LocationEntity}.
      * @return either the collection of {@code LocationEntity} which matched the given video id, or an empty value otherwise.
@@ -0,0 +1,68 @@
+package com.telenav.osv.data.location.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.telenav.osv.data.database.dao.BaseDao;
+import com.telenav.osv.data.location.database.entity.SequencePolylineEntity;
+
+import java.util.List;
+
+import io.reactivex.Single;
+
+/**
+ * The DAO used in order to access, insert and remove {@code SequencePolylineEntity} objects.
+ * <p>
+ * Access:
+ * <ul>
+ * <li>{@link #findAllSequenceIds()}</li>
+ * <li>{@link #findAllBySequenceIds(List)}</li>
+ * <li>{@link #findSequenceIdsWithoutPolyline()}</li>
+ * </ul>
+ * Remove:
+ * <ul>
+ * <li>{@link #deleteBySequenceId(String)}</li>
+ * </ul>
+ * @see BaseDao
+ */
+@Dao
+public interface SequencePolylineDao extends BaseDao<SequencePolylineEntity> {
+
+    @Override
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    List<Long> insertAll(SequencePolylineEntity... entities);
+
+    @Override
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    long insert(SequencePolylineEntity entity);
+
+    /**
+     * @return the identifiers of all the sequences which have a persisted polyline, without the sequences for which the polyline could not be created.
+     */
+    @Query("SELECT sequence_id FROM sequence_polyline WHERE location_count > 0")
+    Single<List<String>> findAllSequenceIds();
+
+    /**
+     * @param sequenceIds the sequence identifiers by which the entities will be filtered by.
+     * @return a collection of entities which matched the given sequence ids.
+     */
+    @Query("SELECT * FROM sequence_polyline WHERE sequence_id IN (:sequenceIds)")
+    List<SequencePolylineEntity> findAllBySequenceIds(List<String> sequenceIds);
+
+    /**
+     * @return the identifiers of the sequences which have locations but do not have a persisted polyline, i.e. recorded before the polylines were introduced. The
+     * sequences for which the polyline could not be created have an empty polyline, therefore they are not returned again.
+     */
+    @Query("SELECT sequence.id FROM sequence LEFT JOIN sequence_polyline ON sequence_polyline.sequence_id = sequence.id "
+            + "WHERE sequence_polyline.sequence_id IS NULL AND EXISTS (SELECT 1 FROM location WHERE location.sequence_id = sequence.id)")
+    List<String> findSequenceIdsWithoutPolyline();
+
+    /**
+     * Remove a {@code SequencePolylineEntity} which match the given parameter.
+     * @param sequenceId the identifier for a {@code SequenceEntity} by which the {@code SequencePolylineEntity} will match in order to be removed.
+     */
+    @Query("DELETE FROM sequence_polyline WHERE sequence_id = :sequenceId")
+    int deleteBySequenceId(String sequenceId);
+}
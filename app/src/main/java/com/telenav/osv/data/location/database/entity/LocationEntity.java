@@ -18,7 +18,8 @@ import static androidx.room.ForeignKey.CASCADE;
 @Entity(tableName = "location",
         indices = {
                 @Index(value = "video_id"),
-                @Index(value = "frame_id")
+                @Index(value = "frame_id"),
+                @Index(value = "sequence_id")
         },
         foreignKeys = {
                 @ForeignKey(entity = VideoEntity.class,
@@ -0,0 +1,71 @@
+package com.telenav.osv.data.location.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+import com.telenav.osv.data.sequence.database.entity.SequenceEntity;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Entity class for persistence for the simplified polyline of a sequence, used as a summary of the sequence locations on the map. This will use {@link androidx.room.Room}
+ * annotation to show the column and their specific name.
+ */
+@Entity(tableName = "sequence_polyline",
+        foreignKeys = {
+                @ForeignKey(entity = SequenceEntity.class,
+                        parentColumns = "id",
+                        childColumns = "sequence_id",
+                        onDelete = CASCADE)})
+public class SequencePolylineEntity {
+
+    /**
+     * Foreign key in order to tie a polyline to a sequence.
+     */
+    @PrimaryKey
+    @ColumnInfo(name = "sequence_id")
+    @NonNull
+    private String sequenceID;
+
+    /**
+     * The simplified points of the sequence in the encoded polyline format.
+     * @see com.telenav.osv.utils.PolylineUtils
+     */
+    @ColumnInfo(name = "points")
+    @NonNull
+    private String points;
+
+    /**
+     * The number of locations from which the polyline was simplified.
+     */
+    @ColumnInfo(name = "location_count")
+    @NonNull
+    private Integer locationCount;
+
+    /**
+     * Default constructor for the current class.
+     */
+    public SequencePolylineEntity(@NonNull String sequenceID, @NonNull String points, @NonNull Integer locationCount) {
+        this.sequenceID = sequenceID;
+        this.points = points;
+        this.locationCount = locationCount;
+    }
+
+    @NonNull
+    public String getSequenceID() {
+        return sequenceID;
+    }
+
+    @NonNull
+    public String getPoints() {
+        return points;
+    }
+
+    @NonNull
+    public Integer getLocationCount() {
+        return locationCount;
+    }
+}
@@ -4,6 +4,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.telenav.osv.data.location.model.KVLocation;
+import com.telenav.osv.data.location.model.SequencePolyline;
 
 import java.util.List;
 
@@ -21,6 +22,11 @@ import io.reactivex.Single;
  * <li>{@link #getLocationById(String)}</li>
  * <li>{@link #getLocationByFrameId(String)}</li>
  * <li>{@link #getLocationsCountBySequenceId(String)}</li>
+ * <li>{@link #getCoordinatesBySequenceId(String)}</li>
+ * <li>{@link #persistSequencePolyline(String)}</li>
+ * <li>{@link #persistMissingSequencePolylines(String)}</li>
+ * <li>{@link #getSequencePolylineIds()}</li>
+ * <li>{@link #getSequencePolylines(List)}</li>
  * </ul>
  *
  * @author horatiuf
@@ -78,4 +84,39 @@ public interface LocationLocalDataSource {
      * @return {@code number} representing how many location are persisted for the sequence identified by the given id.
      */
     int getLocationsCountBySequenceId(@NonNull String sequenceId);
+
+    /**
+     * The lightweight alternative of {@link #getLocationsBySequenceId(String)} for the consumers which need only the coordinates. The locations are read one at a time from
+     * the persistence without creating a model for each. This is a blocking call.
+     * @param sequenceId the identifier of the sequence.
+     * @return the coordinates in the recording order as pairs of latitude and longitude, i.e. the latitude of the n-th location is at index 2 * n and the longitude at
+     * 2 * n + 1. The locations without coordinates are skipped.
+     */
+    double[] getCoordinatesBySequenceId(@NonNull String sequenceId);
+
+    /**
+     * Simplifies the locations of the given sequence and persists the result as the sequence polyline, replacing any previous one. This is a blocking call.
+     * @param sequenceId the identifier of the sequence for which the polyline will be persisted.
+     * @return {@code true} if the polyline was persisted, {@code false} otherwise, e.g. the sequence has no locations.
+     */
+    boolean persistSequencePolyline(@NonNull String sequenceId);
+
+    /**
+     * Persists the polyline for each sequence with locations which does not have one yet, e.g. sequences recorded before the polylines were introduced. A sequence for
+     * which the polyline can not be created gets an empty polyline, therefore it is not processed again. This is a blocking call.
+     * @param excludedSequenceId the identifier of a sequence which should not be processed, i.e. the one currently recording, or {@code null} to process all.
+     * @return {@code number} of polylines persisted.
+     */
+    int persistMissingSequencePolylines(@Nullable String excludedSequenceId);
+
+    /**
+     * @return {@code Single} representing the identifiers of all the sequences which have a persisted polyline.
+     */
+    Single<List<String>> getSequencePolylineIds();
+
+    /**
+     * @param sequenceIds the identifiers of the sequences for which the polylines are loaded.
+     * @return {@code Single} representing the persisted polylines for the given sequences.
+     */
+    Single<List<SequencePolyline>> getSequencePolylines(@NonNull List<String> sequenceIds);
 }
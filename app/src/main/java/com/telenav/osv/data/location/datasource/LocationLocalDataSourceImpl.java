@@ -1,15 +1,23 @@
 package com.telenav.osv.data.location.datasource;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.telenav.osv.common.Injection;
 import com.telenav.osv.data.database.DataConverter;
 import com.telenav.osv.data.location.database.dao.LocationDao;
+import com.telenav.osv.data.location.database.dao.SequencePolylineDao;
+import com.telenav.osv.data.location.database.entity.SequencePolylineEntity;
 import com.telenav.osv.data.location.model.KVLocation;
+import com.telenav.osv.data.location.model.SequencePolyline;
 import com.telenav.osv.utils.Log;
+import com.telenav.osv.utils.PolylineUtils;
+import com.telenav.osv.utils.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import io.reactivex.Maybe;
@@ -27,6 +35,23 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
      */
     public static final String TAG = LocationLocalDataSourceImpl.class.getSimpleName();
 
+    /**
+     * The maximum distance in meters between a sequence location and the simplified polyline of the sequence.
+     */
+    private static final double POLYLINE_TOLERANCE_METERS = 2;
+
+    /**
+     * The maximum number of sequence identifiers bound in a single query, below the limit of variables of a sqlite statement.
+     */
+    private static final int POLYLINE_QUERY_CHUNK_SIZE = 500;
+
+    /**
+     * The column indexes of the coordinates in the cursor returned by {@link LocationDao#findCoordinatesBySequenceID(String)}.
+     */
+    private static final int COORDINATES_COLUMN_LATITUDE = 0;
+
+    private static final int COORDINATES_COLUMN_LONGITUDE = 1;
+
     /**
      * The instance of the current class.
      */
@@ -37,12 +62,18 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
      */
     private LocationDao locationDao;
 
+    /**
+     * Instance of the {@code database} DAO for the sequence polyline data.
+     */
+    private SequencePolylineDao sequencePolylineDao;
+
     /**
      * Default constructor for the current class. Private to prevent instantiation from external sources.
      * @param context the {@code Context} used to instantiate the local persistence.
      */
     private LocationLocalDataSourceImpl(@NonNull Context context) {
         locationDao = Injection.provideKVDatabase(context).locationDao();
+        sequencePolylineDao = Injection.provideKVDatabase(context).sequencePolylineDao();
     }
 
     /**
@@ -59,14 +90,14 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
     @Override
     public boolean saveLocation(@NonNull KVLocation kvLocation, String videoID, String frameID) {
         boolean locationSaved = locationDao.insert(DataConverter.toLocationEntity(kvLocation, videoID, frameID)) != 0;
-        Log.d(TAG, String.format("Location persisted. Status: %s. Id: %s", locationSaved, kvLocation.getID()));
+        Log.d(TAG, "Location persisted. Status: %s. Id: %s", locationSaved, kvLocation.getID());
         return locationSaved;
     }
 
     @Override
     public boolean delete(String locationID) {
         boolean locationRemoved = locationDao.deleteById(locationID) != 0;
-        Log.d(TAG, String.format("Location deleted. Status: %s. Id: %s", locationRemoved, locationID));
+        Log.d(TAG, "Location deleted. Status: %s. Id: %s", locationRemoved, locationID);
         return locationRemoved;
     }
 
@@ -74,10 +105,10 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
     public Maybe<List<KVLocation>> getLocationsBySequenceId(String sequenceID) {
         return locationDao
                 .findAllBySequenceID(sequenceID)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getLocationsBySequenceId. Status: success. Sequence id: %s. Message: Locations found.", sequenceID)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getLocationsBySequenceId. Status: complete. Sequence id: %s. Message: Locations not found.", sequenceID)))
+                .doOnSuccess(items -> Log.d(TAG, "getLocationsBySequenceId. Status: success. Sequence id: %s. Message: Locations found.", sequenceID))
+                .doOnComplete(() -> Log.d(TAG, "getLocationsBySequenceId. Status: complete. Sequence id: %s. Message: Locations not found.", sequenceID))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getLocationsBySequenceId. Status: error. Sequence id: %s. Message: %s.", sequenceID, throwable.getLocalizedMessage())))
+                        "getLocationsBySequenceId. Status: error. Sequence id: %s. Message: %s.", sequenceID, throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(DataConverter::toKVLocation)
@@ -91,7 +122,7 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
                 .findAll()
                 .doOnSuccess(items -> Log.d(TAG, "getLocations. Status: success. Message: Locations found."))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getLocations. Status: error. Message: %s.", throwable.getLocalizedMessage())))
+                        "getLocations. Status: error. Message: %s.", throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(DataConverter::toKVLocation)
@@ -102,10 +133,10 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
     public Maybe<List<KVLocation>> getLocationsByVideoId(String videoID) {
         return locationDao
                 .findByVideoID(videoID)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getLocationsByVideoId. Status: success. Video id: %s. Message: Locations found.", videoID)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getLocationsByVideoId. Status: complete. Video id: %s. Message: Locations not found.", videoID)))
+                .doOnSuccess(items -> Log.d(TAG, "getLocationsByVideoId. Status: success. Video id: %s. Message: Locations found.", videoID))
+                .doOnComplete(() -> Log.d(TAG, "getLocationsByVideoId. Status: complete. Video id: %s. Message: Locations not found.", videoID))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getLocationsByVideoId. Status: error. Video id: %s. Message: %s.", videoID, throwable.getLocalizedMessage())))
+                        "getLocationsByVideoId. Status: error. Video id: %s. Message: %s.", videoID, throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(DataConverter::toKVLocation)
@@ -117,9 +148,9 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
     public Maybe<KVLocation> getLocationById(String locationID) {
         return locationDao
                 .findByID(locationID)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getLocationById. Status: success. Location id: %s. Message: Location found.", locationID)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getLocationById. Status: complete. Location id: %s. Message: Location not found.", locationID)))
-                .doOnError(throwable -> Log.d(TAG, String.format("getLocationById. Status: error. Location id: %s. Message: %s.", locationID, throwable.getLocalizedMessage())))
+                .doOnSuccess(items -> Log.d(TAG, "getLocationById. Status: success. Location id: %s. Message: Location found.", locationID))
+                .doOnComplete(() -> Log.d(TAG, "getLocationById. Status: complete. Location id: %s. Message: Location not found.", locationID))
+                .doOnError(throwable -> Log.d(TAG, "getLocationById. Status: error. Location id: %s. Message: %s.", locationID, throwable.getLocalizedMessage()))
                 .map(DataConverter::toKVLocation);
     }
 
@@ -127,9 +158,9 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
     public Maybe<KVLocation> getLocationByFrameId(String frameID) {
         return locationDao
                 .findByFrameID(frameID)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getLocationByFrameId. Status: success. Frame id: %s. Message: Location found.", frameID)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getLocationByFrameId. Status: complete. Frame id: %s. Message: Location not found.", frameID)))
-                .doOnError(throwable -> Log.d(TAG, String.format("getLocationByFrameId. Status: error. Frame id: %s. Message: %s.", frameID, throwable.getLocalizedMessage())))
+                .doOnSuccess(items -> Log.d(TAG, "getLocationByFrameId. Status: success. Frame id: %s. Message: Location found.", frameID))
+                .doOnComplete(() -> Log.d(TAG, "getLocationByFrameId. Status: complete. Frame id: %s. Message: Location not found.", frameID))
+                .doOnError(throwable -> Log.d(TAG, "getLocationByFrameId. Status: error. Frame id: %s. Message: %s.", frameID, throwable.getLocalizedMessage()))
                 .map(DataConverter::toKVLocation);
     }
 
@@ -137,10 +168,109 @@ public class LocationLocalDataSourceImpl implements LocationLocalDataSource {
     public int getLocationsCountBySequenceId(@NonNull String sequenceId) {
         int locationsCountBySeqId = locationDao.findNumberOfRows(sequenceId);
         Log.d(TAG,
-                String.format(
-                        "getLocationsCountBySequenceId. Status: success. Seq id: %s. Message: Found %s rows with the given sequence id.",
-                        sequenceId,
-                        locationsCountBySeqId));
+                "getLocationsCountBySequenceId. Status: success. Seq id: %s. Message: Found %s rows with the given sequence id.",
+                sequenceId,
+                locationsCountBySeqId);
         return locationsCountBySeqId;
     }
+
+    @Override
+    public double[] getCoordinatesBySequenceId(@NonNull String sequenceId) {
+        try (Cursor cursor = locationDao.findCoordinatesBySequenceID(sequenceId)) {
+            double[] coordinates = new double[cursor.getCount() * 2];
+            int coordinateCount = 0;
+            while (cursor.moveToNext()) {
+                if (!cursor.isNull(COORDINATES_COLUMN_LATITUDE) && !cursor.isNull(COORDINATES_COLUMN_LONGITUDE)) {
+                    coordinates[coordinateCount++] = cursor.getDouble(COORDINATES_COLUMN_LATITUDE);
+                    coordinates[coordinateCount++] = cursor.getDouble(COORDINATES_COLUMN_LONGITUDE);
+                }
+            }
+            Log.d(TAG, "getCoordinatesBySequenceId. Status: success. Sequence id: %s. Message: Found %s coordinates.", sequenceId, coordinateCount / 2);
+            if (coordinateCount < coordinates.length) {
+                double[] validCoordinates = new double[coordinateCount];
+                System.arraycopy(coordinates, 0, validCoordinates, 0, coordinateCount);
+                return validCoordinates;
+            }
+            return coordinates;
+        }
+    }
+
+    @Override
+    public boolean persistSequencePolyline(@NonNull String sequenceId) {
+        double[] coordinates = getCoordinatesBySequenceId(sequenceId);
+        int size = coordinates.length / 2;
+        if (size == 0) {
+            Log.d(TAG, "persistSequencePolyline. Status: abort. Sequence id: %s. Message: No locations found.", sequenceId);
+            return false;
+        }
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = coordinates[i * 2];
+            longitudes[i] = coordinates[i * 2 + 1];
+        }
+        int[] indexes = PolylineUtils.simplify(latitudes, longitudes, POLYLINE_TOLERANCE_METERS);
+        boolean polylineSaved = sequencePolylineDao.insert(new SequencePolylineEntity(sequenceId, PolylineUtils.encode(latitudes, longitudes, indexes), size)) != 0;
+        Log.d(TAG, "persistSequencePolyline. Status: %s. Sequence id: %s. Message: Simplified %s locations to %s points.", polylineSaved, sequenceId, size,
+                indexes.length);
+        return polylineSaved;
+    }
+
+    @Override
+    public int persistMissingSequencePolylines(@Nullable String excludedSequenceId) {
+        int persistedCount = 0;
+        for (String sequenceId : sequencePolylineDao.findSequenceIdsWithoutPolyline()) {
+            if (sequenceId == null || sequenceId.equals(excludedSequenceId)) {
+                continue;
+            }
+            boolean polylineSaved;
+            try {
+                polylineSaved = persistSequencePolyline(sequenceId);
+            } catch (Exception e) {
+                Log.d(TAG, "persistMissingSequencePolylines. Status: error. Sequence id: %s. Message: %s.", sequenceId, e.getMessage());
+                polylineSaved = false;
+            }
+            if (polylineSaved) {
+                persistedCount++;
+            } else {
+                persistEmptySequencePolyline(sequenceId);
+            }
+        }
+        Log.d(TAG, "persistMissingSequencePolylines. Status: success. Message: Persisted %s polylines.", persistedCount);
+        return persistedCount;
+    }
+
+    /**
+     * Persists an empty polyline for a sequence for which the polyline could not be created, so the sequence is not processed again on each load. The empty polyline is
+     * replaced when the polyline of the sequence is persisted again.
+     */
+    private void persistEmptySequencePolyline(@NonNull String sequenceId) {
+        try {
+            sequencePolylineDao.insert(new SequencePolylineEntity(sequenceId, StringUtils.EMPTY_STRING, 0));
+        } catch (Exception e) {
+            Log.d(TAG, "persistEmptySequencePolyline. Status: error. Sequence id: %s. Message: %s.", sequenceId, e.getMessage());
+        }
+    }
+
+    @Override
+    public Single<List<String>> getSequencePolylineIds() {
+        return sequencePolylineDao
+                .findAllSequenceIds()
+                .doOnError(throwable -> Log.d(TAG, "getSequencePolylineIds. Status: error. Message: %s.", throwable.getLocalizedMessage()));
+    }
+
+    @Override
+    public Single<List<SequencePolyline>> getSequencePolylines(@NonNull List<String> sequenceIds) {
+        return Single.fromCallable(() -> {
+            List<SequencePolyline> polylines = new ArrayList<>(sequenceIds.size());
+            for (int start = 0; start < sequenceIds.size(); start += POLYLINE_QUERY_CHUNK_SIZE) {
+                List<String> chunk = sequenceIds.subList(start, Math.min(start + POLYLINE_QUERY_CHUNK_SIZE, sequenceIds.size()));
+                for (SequencePolylineEntity entity : sequencePolylineDao.findAllBySequenceIds(chunk)) {
+                    polylines.add(DataConverter.toSequencePolyline(entity));
+                }
+            }
+            Log.d(TAG, "getSequencePolylines. Status: success. Message: Found %s polylines.", polylines.size());
+            return polylines;
+        });
+    }
 }
@@ -0,0 +1,58 @@
+package com.telenav.osv.data.location.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Model for the simplified polyline of a sequence, used as a summary of the sequence locations in order to not load all of them on the map.
+ * <p>
+ * The points are stored in the encoded polyline format, use {@link com.telenav.osv.utils.PolylineUtils#decode(String)} in order to obtain the coordinates.
+ */
+public class SequencePolyline {
+
+    /**
+     * The sequence identifier for which the polyline corresponds to.
+     */
+    private String sequenceId;
+
+    /**
+     * The simplified points of the sequence in the encoded polyline format.
+     */
+    private String encodedPoints;
+
+    /**
+     * The number of locations from which the polyline was simplified.
+     */
+    private int locationCount;
+
+    /**
+     * Default constructor for the current class.
+     */
+    public SequencePolyline(@NonNull String sequenceId, @NonNull String encodedPoints, int locationCount) {
+        this.sequenceId = sequenceId;
+        this.encodedPoints = encodedPoints;
+        this.locationCount = locationCount;
+    }
+
+    /**
+     * @return {@code String} representing {@link #sequenceId}.
+     */
+    @NonNull
+    public String getSequenceId() {
+        return sequenceId;
+    }
+
+    /**
+     * @return {@code String} representing {@link #encodedPoints}.
+     */
+    @NonNull
+    public String getEncodedPoints() {
+        return encodedPoints;
+    }
+
+    /**
+     * @return {@code int} representing {@link #locationCount}.
+     */
+    public int getLocationCount() {
+        return locationCount;
+    }
+}
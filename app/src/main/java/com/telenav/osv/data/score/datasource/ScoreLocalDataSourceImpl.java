@@ -71,21 +71,21 @@ public class ScoreLocalDataSourceImpl implements ScoreDataSource {
     @Override
     public boolean insertScore(ScoreHistory scoreHistory, String sequenceId) {
         boolean insertScore = scoreDao.insert(DataConverter.toScoreEntity(scoreHistory, sequenceId)) != 0;
-        Log.d(TAG, String.format("insertScore. Status: %s. Score id: %s. Sequence id: %s.", insertScore, scoreHistory.getID(), sequenceId));
+        Log.d(TAG, "insertScore. Status: %s. Score id: %s. Sequence id: %s.", insertScore, scoreHistory.getID(), sequenceId);
         return insertScore;
     }
 
     @Override
     public boolean updateObdPhotoCount(String scoreHistoryId, int obdPhotoCount) {
         boolean updateObdPhotoCount = scoreDao.updateObdPhotoCount(scoreHistoryId, obdPhotoCount) != 0;
-        Log.d(TAG, String.format("updateObdPhotoCount. Status: %s. Score id: %s. Obd photo count: %s.", updateObdPhotoCount, scoreHistoryId, obdPhotoCount));
+        Log.d(TAG, "updateObdPhotoCount. Status: %s. Score id: %s. Obd photo count: %s.", updateObdPhotoCount, scoreHistoryId, obdPhotoCount);
         return updateObdPhotoCount;
     }
 
     @Override
     public boolean updatePhotoCount(String scoreHistoryId, int photoCount) {
         boolean updatePhotoCount = scoreDao.updatePhotoCount(scoreHistoryId, photoCount) != 0;
-        Log.d(TAG, String.format("updatePhotoCount. Status: %s. Score id: %s. Obd photo count: %s.", updatePhotoCount, scoreHistoryId, photoCount));
+        Log.d(TAG, "updatePhotoCount. Status: %s. Score id: %s. Obd photo count: %s.", updatePhotoCount, scoreHistoryId, photoCount);
         return updatePhotoCount;
     }
 
@@ -93,9 +93,9 @@ public class ScoreLocalDataSourceImpl implements ScoreDataSource {
     public Maybe<Map<Integer, ScoreHistory>> getScoreHistory(String sequenceId) {
         return scoreDao
                 .findAllBySequenceID(sequenceId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getScoreHistory. Status: success. Sequence id: %s. Message: Score history found.", sequenceId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getScoreHistory. Status: complete. Sequence id: %s. Message: Score history not found.", sequenceId)))
-                .doOnError(throwable -> Log.d(TAG, String.format("getScoreHistory. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage())))
+                .doOnSuccess(items -> Log.d(TAG, "getScoreHistory. Status: success. Sequence id: %s. Message: Score history found.", sequenceId))
+                .doOnComplete(() -> Log.d(TAG, "getScoreHistory. Status: complete. Sequence id: %s. Message: Score history not found.", sequenceId))
+                .doOnError(throwable -> Log.d(TAG, "getScoreHistory. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage()))
                 .toObservable()
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
@@ -0,0 +1,57 @@
+package com.telenav.osv.data.sequence.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.telenav.osv.data.database.dao.BaseDao;
+import com.telenav.osv.data.sequence.database.entity.SequenceFingerprintEntity;
+
+import java.util.List;
+
+/**
+ * The DAO used in order to access, insert and remove {@code SequenceFingerprintEntity} objects.
+ * <p>
+ * Access:
+ * <ul>
+ * <li>{@link #findBySequenceID(String)}</li>
+ * </ul>
+ * Remove:
+ * <ul>
+ * <li>{@link #deleteBySequenceId(String)}</li>
+ * <li>{@link #deleteAll()}</li>
+ * </ul>
+ * @see BaseDao
+ */
+@Dao
+public interface SequenceFingerprintDao extends BaseDao<SequenceFingerprintEntity> {
+
+    @Override
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    List<Long> insertAll(SequenceFingerprintEntity... entities);
+
+    @Override
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    long insert(SequenceFingerprintEntity entity);
+
+    /**
+     * @param sequenceID the sequence identifier in order to find a specific {@code SequenceFingerprintEntity}.
+     * @return either the {@code SequenceFingerprintEntity} which matched the given sequence id, or {@code null} otherwise.
+     */
+    @Query("SELECT * FROM sequence_fingerprint WHERE sequence_id = :sequenceID")
+    SequenceFingerprintEntity findBySequenceID(String sequenceID);
+
+    /**
+     * Remove a {@code SequenceFingerprintEntity} which match the given parameter.
+     * @param sequenceId the identifier for a {@code SequenceEntity} by which the {@code SequenceFingerprintEntity} will match in order to be removed.
+     */
+    @Query("DELETE FROM sequence_fingerprint WHERE sequence_id = :sequenceId")
+    int deleteBySequenceId(String sequenceId);
+
+    /**
+     * Remove all {@code SequenceFingerprintEntity} existing in the persistence.
+     */
+    @Query("DELETE FROM sequence_fingerprint")
+    int deleteAll();
+}
@@ -0,0 +1,81 @@
+package com.telenav.osv.data.sequence.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Entity class for persistence for the sequence folder fingerprint stored by the data consistency. This will use {@link androidx.room.Room} annotation to show the column
+ * and their specific name.
+ */
+@Entity(tableName = "sequence_fingerprint",
+        foreignKeys = {
+                @ForeignKey(entity = SequenceEntity.class,
+                        parentColumns = "id",
+                        childColumns = "sequence_id",
+                        onDelete = CASCADE)})
+public class SequenceFingerprintEntity {
+
+    /**
+     * Foreign key in order to tie a fingerprint to a sequence.
+     */
+    @PrimaryKey
+    @ColumnInfo(name = "sequence_id")
+    @NonNull
+    private String sequenceID;
+
+    /**
+     * The last modified time of the sequence folder.
+     */
+    @ColumnInfo(name = "folder_modified")
+    @NonNull
+    private Long folderModified;
+
+    /**
+     * The number of files in the sequence folder.
+     */
+    @ColumnInfo(name = "file_count")
+    @NonNull
+    private Integer fileCount;
+
+    /**
+     * The total size of the files in the sequence folder.
+     */
+    @ColumnInfo(name = "folder_size")
+    @NonNull
+    private Long folderSize;
+
+    /**
+     * Default constructor for the current class.
+     */
+    public SequenceFingerprintEntity(@NonNull String sequenceID, @NonNull Long folderModified, @NonNull Integer fileCount, @NonNull Long folderSize) {
+        this.sequenceID = sequenceID;
+        this.folderModified = folderModified;
+        this.fileCount = fileCount;
+        this.folderSize = folderSize;
+    }
+
+    @NonNull
+    public String getSequenceID() {
+        return sequenceID;
+    }
+
+    @NonNull
+    public Long getFolderModified() {
+        return folderModified;
+    }
+
+    @NonNull
+    public Integer getFileCount() {
+        return fileCount;
+    }
+
+    @NonNull
+    public Long getFolderSize() {
+        return folderSize;
+    }
+}
@@ -3,8 +3,10 @@ package com.telenav.osv.data.sequence.datasource.local;
 import java.util.List;
 import org.joda.time.DateTime;
 import com.telenav.osv.data.sequence.model.LocalSequence;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsFingerprint;
 import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal.SequenceConsistencyStatus;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 
@@ -22,6 +24,7 @@ import io.reactivex.Single;
  * <li>{@link #getSequencesWithReward()}</li>
  * <li>{@link #getSequencesIds()}</li>
  * <li>{@link #getSequenceWithReward(String)}</li>
+ * <li>{@link #getFingerprint(String)}</li>
  * </ul>
  * Change methods:
  * <ul>
@@ -30,6 +33,8 @@ import io.reactivex.Single;
  * <li>{@link #updateOnlineId(String, long)}</li>
  * <li>{@link #updateSequenceSizeInfo(String, long, int, int)}</li>
  * <li>{@link #updateSequence(LocalSequence)}</li>
+ * <li>{@link #updateFingerprint(String, SequenceDetailsFingerprint)}</li>
+ * <li>{@link #deleteFingerprint(String)}</li>
  * </ul>
  * Persist method:
  * <ul>
@@ -220,4 +225,24 @@ public interface SequenceLocalDataSource {
      * @return {@code true} if the update was successful in the persistence, {@code false} otherwise.
      */
     boolean updateSequence(@NonNull LocalSequence sequence);
+
+    /**
+     * @param sequenceId the identifier for the {@code LocalSequence}.
+     * @return the folder fingerprint stored for the sequence by the last data consistency check, or {@code null} if there is none.
+     */
+    @Nullable
+    SequenceDetailsFingerprint getFingerprint(@NonNull String sequenceId);
+
+    /**
+     * @param sequenceId the identifier for the {@code LocalSequence}.
+     * @param fingerprint the folder fingerprint which will replace any previous fingerprint of the sequence.
+     * @return {@code true} if the update was successful in the persistence, {@code false} otherwise.
+     */
+    boolean updateFingerprint(@NonNull String sequenceId, @NonNull SequenceDetailsFingerprint fingerprint);
+
+    /**
+     * @param sequenceId the identifier for the {@code LocalSequence}.
+     * @return {@code true} if a fingerprint of the sequence was removed from the persistence, {@code false} otherwise.
+     */
+    boolean deleteFingerprint(@NonNull String sequenceId);
 }
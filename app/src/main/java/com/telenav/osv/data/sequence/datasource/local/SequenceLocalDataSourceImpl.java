@@ -3,6 +3,7 @@ package com.telenav.osv.data.sequence.datasource.local;
 import android.content.Context;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.telenav.osv.application.initialisation.DataConsistency;
 import com.telenav.osv.common.Injection;
@@ -12,7 +13,10 @@ import com.telenav.osv.data.location.datasource.LocationLocalDataSource;
 import com.telenav.osv.data.location.model.KVLocation;
 import com.telenav.osv.data.score.datasource.ScoreDataSource;
 import com.telenav.osv.data.sequence.database.dao.SequenceDao;
+import com.telenav.osv.data.sequence.database.dao.SequenceFingerprintDao;
+import com.telenav.osv.data.sequence.database.entity.SequenceFingerprintEntity;
 import com.telenav.osv.data.sequence.model.LocalSequence;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsFingerprint;
 import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal;
 import com.telenav.osv.data.video.datasource.VideoLocalDataSource;
 import com.telenav.osv.utils.Log;
@@ -72,6 +76,11 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
      */
     private SequenceDao sequenceDao;
 
+    /**
+     * The database DAO for the sequence folder fingerprints stored by the data consistency.
+     */
+    private SequenceFingerprintDao sequenceFingerprintDao;
+
     /**
      * Default constructor for the current class. Made private to prevent intention outside the current class scope.
      */
@@ -87,6 +96,7 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
 
         //init the sequence persistence.
         sequenceDao = Injection.provideKVDatabase(context).sequenceDao();
+        sequenceFingerprintDao = Injection.provideKVDatabase(context).sequenceFingerprintDao();
     }
 
 
@@ -113,7 +123,7 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
         return sequenceDao
                 .findAll()
                 .doOnSuccess(items -> Log.d(TAG, "getSequences. Status: success. Message: Sequences found."))
-                .doOnError(throwable -> Log.d(TAG, String.format("getSequences. Status: error. Message: %s.", throwable.getLocalizedMessage())))
+                .doOnError(throwable -> Log.d(TAG, "getSequences. Status: error. Message: %s.", throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(DataConverter::toLocalSequence)
@@ -125,7 +135,7 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
         return sequenceDao
                 .findAll(getSequenceConsistencyStatuses(include, sequenceConsistencyStatus))
                 .doOnSuccess(items -> Log.d(TAG, "getSequences. Status: success. Message: Sequences found."))
-                .doOnError(throwable -> Log.d(TAG, String.format("getSequences. Status: error. Message: %s.", throwable.getLocalizedMessage())))
+                .doOnError(throwable -> Log.d(TAG, "getSequences. Status: error. Message: %s.", throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(DataConverter::toLocalSequence)
@@ -137,7 +147,7 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
         return sequenceDao
                 .findAllIds()
                 .doOnSuccess(items -> Log.d(TAG, "getSequencesIds. Status: success. Message: Sequences ids found."))
-                .doOnError(throwable -> Log.d(TAG, String.format("getSequencesIds. Status: error. Message: %s.", throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getSequencesIds. Status: error. Message: %s.", throwable.getLocalizedMessage()));
     }
 
     @Override
@@ -145,7 +155,7 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
         return sequenceDao
                 .findAllWithRewards(getSequenceConsistencyStatuses(include, sequenceConsistencyStatus))
                 .doOnSuccess(items -> Log.d(TAG, "getSequencesWithReward. Status: success. Message: Sequences found."))
-                .doOnError(throwable -> Log.d(TAG, String.format("getSequencesWithReward. Status: error. Message: %s.", throwable.getLocalizedMessage())))
+                .doOnError(throwable -> Log.d(TAG, "getSequencesWithReward. Status: error. Message: %s.", throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(item -> DataConverter.toLocalSequence(
@@ -159,7 +169,7 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
         return sequenceDao
                 .findAllWithRewards()
                 .doOnSuccess(items -> Log.d(TAG, "getSequencesWithReward. Status: success. Message: Sequences found."))
-                .doOnError(throwable -> Log.d(TAG, String.format("getSequencesWithReward. Status: error. Message: %s.", throwable.getLocalizedMessage())))
+                .doOnError(throwable -> Log.d(TAG, "getSequencesWithReward. Status: error. Message: %s.", throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(item -> DataConverter.toLocalSequence(
@@ -171,14 +181,14 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
     @Override
     public boolean persistSequence(@NonNull LocalSequence sequence) {
         boolean sequencePersist = sequenceDao.insert(DataConverter.toSequenceEntity(sequence)) != 0;
-        Log.d(TAG, String.format("persistSequence. Status: %s. Sequence id: %s.", sequencePersist, sequence.getID()));
+        Log.d(TAG, "persistSequence. Status: %s. Sequence id: %s.", sequencePersist, sequence.getID());
         return sequencePersist;
     }
 
     @Override
     public boolean isPopulated() {
         boolean isPopulated = sequenceDao.countAll() != 0;
-        Log.d(TAG, String.format("isPopulated. Status: %s. ", isPopulated));
+        Log.d(TAG, "isPopulated. Status: %s. ", isPopulated);
         return isPopulated;
     }
 
@@ -186,10 +196,10 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
     public boolean updateSequence(@NonNull LocalSequence sequence) {
         boolean sequenceUpdated = sequenceDao.update(DataConverter.toSequenceEntity(sequence)) != 0;
         Log.d(TAG,
-                String.format("updateSequence. Status: %s. Sequence id: %s. Locations: %s",
-                        sequenceUpdated,
-                        sequence.getID(),
-                        sequence.getCompressionDetails().getLocationsCount()));
+                "updateSequence. Status: %s. Sequence id: %s. Locations: %s",
+                sequenceUpdated,
+                sequence.getID(),
+                sequence.getCompressionDetails().getLocationsCount());
         return sequenceUpdated;
     }
 
@@ -197,12 +207,12 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
     public Maybe<LocalSequence> getSequence(@NotNull String sequenceId) {
         return sequenceDao
                 .findByID(sequenceId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getSequence. Status: success. Sequence id: %s. Message: Sequence found.", sequenceId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getSequence. Status: complete. Sequence id: %s. Message: Sequence not found.", sequenceId)))
+                .doOnSuccess(items -> Log.d(TAG, "getSequence. Status: success. Sequence id: %s. Message: Sequence found.", sequenceId))
+                .doOnComplete(() -> Log.d(TAG, "getSequence. Status: complete. Sequence id: %s. Message: Sequence not found.", sequenceId))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getSequence. Status: error. Sequence id: %s.  Message: %s.",
-                                sequenceId,
-                                throwable.getLocalizedMessage())))
+                        "getSequence. Status: error. Sequence id: %s.  Message: %s.",
+                        sequenceId,
+                        throwable.getLocalizedMessage()))
                 .map(DataConverter::toLocalSequence);
     }
 
@@ -210,19 +220,19 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
     public Maybe<LocalSequence> getSequenceWithAll(@NotNull String sequenceId) {
         return sequenceDao
                 .findByIDWithReward(sequenceId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getSequenceWithReward. Status: success. Sequence id: %s. Message: Sequence found.", sequenceId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getSequenceWithReward. Status: complete. Sequence id: %s. Message: Sequence not found.", sequenceId)))
+                .doOnSuccess(items -> Log.d(TAG, "getSequenceWithReward. Status: success. Sequence id: %s. Message: Sequence found.", sequenceId))
+                .doOnComplete(() -> Log.d(TAG, "getSequenceWithReward. Status: complete. Sequence id: %s. Message: Sequence not found.", sequenceId))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getSequenceWithReward. Status: error. Sequence id: %s.  Message: %s.",
-                                sequenceId,
-                                throwable.getLocalizedMessage())))
+                        "getSequenceWithReward. Status: error. Sequence id: %s.  Message: %s.",
+                        sequenceId,
+                        throwable.getLocalizedMessage()))
                 .map(item -> {
                     List<KVLocation> kvLocations = locationLocalDataSource.getLocationsBySequenceId(sequenceId).blockingGet();
                     if (kvLocations != null) {
                         int locationsCount = kvLocations.size();
-                        Log.d(TAG, String.format(
+                        Log.d(TAG,
                                 "getSequenceWithReward. Status: update location data. Message: %s locations for the sequence found in the persistence.",
-                                locationsCount));
+                                locationsCount);
                         LocalSequence localSequence = DataConverter.toLocalSequence(scoreLocalDataSource, item);
                         localSequence.getCompressionDetails().setCoordinates(DataConverter.toLocations(kvLocations));
                         return localSequence;
@@ -235,12 +245,12 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
     public Maybe<LocalSequence> getSequenceWithReward(@NotNull String sequenceId) {
         return sequenceDao
                 .findByIDWithReward(sequenceId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getSequenceWithReward. Status: success. Sequence id: %s. Message: Sequence found.", sequenceId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getSequenceWithReward. Status: complete. Sequence id: %s. Message: Sequence not found.", sequenceId)))
+                .doOnSuccess(items -> Log.d(TAG, "getSequenceWithReward. Status: success. Sequence id: %s. Message: Sequence found.", sequenceId))
+                .doOnComplete(() -> Log.d(TAG, "getSequenceWithReward. Status: complete. Sequence id: %s. Message: Sequence not found.", sequenceId))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getSequenceWithReward. Status: error. Sequence id: %s.  Message: %s.",
-                                sequenceId,
-                                throwable.getLocalizedMessage())))
+                        "getSequenceWithReward. Status: error. Sequence id: %s.  Message: %s.",
+                        sequenceId,
+                        throwable.getLocalizedMessage()))
                 .map(item -> DataConverter.toLocalSequence(
                         scoreLocalDataSource,
                         item));
@@ -249,73 +259,95 @@ public class SequenceLocalDataSourceImpl implements SequenceLocalDataSource {
     @Override
     public boolean deleteSequence(@NotNull String sequenceId) {
         boolean deleteResult = sequenceDao.deleteById(sequenceId) != 0;
-        Log.d(TAG, String.format("deleteSequence. Status: %s. Sequence id: %s.", deleteResult, sequenceId));
+        Log.d(TAG, "deleteSequence. Status: %s. Sequence id: %s.", deleteResult, sequenceId);
         return deleteResult;
     }
 
     @Override
     public boolean updateObd(@NotNull String sequenceId, boolean obd) {
         boolean updateObd = sequenceDao.updateObd(sequenceId, obd) != 0;
-        Log.d(TAG, String.format("updateObd. Status: %s. Sequence id: %s.", updateObd, sequenceId));
+        Log.d(TAG, "updateObd. Status: %s. Sequence id: %s.", updateObd, sequenceId);
         return updateObd;
     }
 
     @Override
     public boolean updateOnlineId(@NotNull String sequenceId, long onlineID) {
         boolean updateOnlineId = sequenceDao.updateOnlineId(sequenceId, onlineID) != 0;
-        Log.d(TAG, String.format("updateOnlineId. Status: %s. Sequence id: %s.", updateOnlineId, sequenceId));
+        Log.d(TAG, "updateOnlineId. Status: %s. Sequence id: %s.", updateOnlineId, sequenceId);
         return updateOnlineId;
     }
 
     @Override
     public boolean updateDiskSize(@NotNull String sequenceId, long diskSize) {
         boolean updateDiskSize = sequenceDao.updateDiskSize(sequenceId, diskSize) != 0;
-        Log.d(TAG, String.format("updateDiskSize. Status: %s. Sequence id: %s.", updateDiskSize, sequenceId));
+        Log.d(TAG, "updateDiskSize. Status: %s. Sequence id: %s.", updateDiskSize, sequenceId);
         return updateDiskSize;
     }
 
     @Override
     public boolean updateDistance(@NotNull String sequenceId, double distance) {
         boolean updateDistance = sequenceDao.updateDistance(sequenceId, distance) != 0;
-        Log.d(TAG, String.format("updateDistance. Status: %s. Sequence id: %s.", updateDistance, sequenceId));
+        Log.d(TAG, "updateDistance. Status: %s. Sequence id: %s.", updateDistance, sequenceId);
         return updateDistance;
     }
 
     @Override
     public boolean updateDateTime(@NonNull String sequenceId, DateTime creationDate) {
         boolean updateDateTime = sequenceDao.updateDateTime(sequenceId, creationDate) != 0;
-        Log.d(TAG, String.format("updateDateTime. Status: %s. Sequence id: %s.", updateDateTime, sequenceId));
+        Log.d(TAG, "updateDateTime. Status: %s. Sequence id: %s.", updateDateTime, sequenceId);
         return updateDateTime;
     }
 
     @Override
     public boolean updateSequenceSizeInfo(@NotNull String sequenceId, long diskSize, int frameCount, int videoCount) {
         boolean updateSequenceSizeInfo = sequenceDao.updateSizeInfo(sequenceId, diskSize, frameCount, videoCount) != 0;
-        Log.d(TAG, String.format("updateSequenceSizeInfo. Status: %s. Sequence id: %s.", updateSequenceSizeInfo, sequenceId));
+        Log.d(TAG, "updateSequenceSizeInfo. Status: %s. Sequence id: %s.", updateSequenceSizeInfo, sequenceId);
         return updateSequenceSizeInfo;
     }
 
     @Override
     public boolean updateCompressionSizeInfo(@NonNull String sequenceId, int frameCount, int videoCount) {
         boolean updateSequenceCompressionSizeInfo = sequenceDao.updateCompressionNumbers(sequenceId, frameCount, videoCount) != 0;
-        Log.d(TAG, String.format("updateCompressionSizeInfo. Status: %s. Sequence id: %s.", updateSequenceCompressionSizeInfo, sequenceId));
+        Log.d(TAG, "updateCompressionSizeInfo. Status: %s. Sequence id: %s.", updateSequenceCompressionSizeInfo, sequenceId);
         return updateSequenceCompressionSizeInfo;
     }
 
     @Override
     public boolean updateAddressName(@NonNull String sequenceId, String addressName) {
         boolean updateAddressName = sequenceDao.updateAddressName(sequenceId, addressName) != 0;
-        Log.d(TAG, String.format("updateAddressName. Status: %s. Sequence id: %s.", updateAddressName, sequenceId));
+        Log.d(TAG, "updateAddressName. Status: %s. Sequence id: %s.", updateAddressName, sequenceId);
         return updateAddressName;
     }
 
     @Override
     public boolean updateConsistencyStatus(@NonNull String sequenceId, int consistencyStatus) {
         boolean updateConsistencyStatus = sequenceDao.updateConsistencyStatus(sequenceId, consistencyStatus) != 0;
-        Log.d(TAG, String.format("updateConsistencyStatus. Status: %s. Sequence id: %s.", updateConsistencyStatus, sequenceId));
+        Log.d(TAG, "updateConsistencyStatus. Status: %s. Sequence id: %s.", updateConsistencyStatus, sequenceId);
         return updateConsistencyStatus;
     }
 
+    @Nullable
+    @Override
+    public SequenceDetailsFingerprint getFingerprint(@NonNull String sequenceId) {
+        SequenceFingerprintEntity fingerprintEntity = sequenceFingerprintDao.findBySequenceID(sequenceId);
+        Log.d(TAG, "getFingerprint. Status: %s. Sequence id: %s.", fingerprintEntity != null, sequenceId);
+        return fingerprintEntity == null ? null : DataConverter.toSequenceDetailsFingerprint(fingerprintEntity);
+    }
+
+    @Override
+    public boolean updateFingerprint(@NonNull String sequenceId, @NonNull SequenceDetailsFingerprint fingerprint) {
+        boolean updateFingerprint = sequenceFingerprintDao.insert(DataConverter.toSequenceFingerprintEntity(fingerprint, sequenceId)) != -1;
+        Log.d(TAG, "updateFingerprint. Status: %s. Sequence id: %s.", updateFingerprint, sequenceId);
+        return updateFingerprint;
+    }
+
+    @Override
+    public boolean deleteFingerprint(@NonNull String sequenceId) {
+        boolean deleteFingerprint = sequenceFingerprintDao.deleteBySequenceId(sequenceId) != 0;
+        Log.d(TAG, "deleteFingerprint. Status: %s. Sequence id: %s.", deleteFingerprint, sequenceId);
+        return deleteFingerprint;
+    }
+
     /**
      * @param include flag which if set to {@code} true will filter the sequences based on the given list of sequence consistency status. The value must be from
      * {@link SequenceDetailsLocal.SequenceConsistencyStatus} interface, otherwise it will exclude said given status.
@@ -0,0 +1,87 @@
+package com.telenav.osv.data.sequence.model.details;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.telenav.osv.item.KVFile;
+
+/**
+ * Cheap fingerprint of a sequence folder, used in order to detect if the folder changed since the last data consistency check.
+ * <p> The fingerprint is made of the folder last modified time, which changes when a file is added, removed or renamed, the number of files and their total size,
+ * which covers the files changed in place.</p>
+ */
+public class SequenceDetailsFingerprint {
+
+    /**
+     * The last modified time of the sequence folder.
+     */
+    private long folderModified;
+
+    /**
+     * The number of files in the sequence folder.
+     */
+    private int fileCount;
+
+    /**
+     * The total size of the files in the sequence folder.
+     */
+    private long folderSize;
+
+    /**
+     * Default constructor for the current class.
+     */
+    public SequenceDetailsFingerprint(long folderModified, int fileCount, long folderSize) {
+        this.folderModified = folderModified;
+        this.fileCount = fileCount;
+        this.folderSize = folderSize;
+    }
+
+    /**
+     * @param folder the sequence folder for which the fingerprint will be computed. Only the direct children of the folder are taken into account.
+     * @return the fingerprint of the given folder or {@code null} if the folder cannot be listed.
+     */
+    @Nullable
+    public static SequenceDetailsFingerprint fromFolder(@NonNull KVFile folder) {
+        KVFile[] files = folder.listFiles();
+        if (files == null) {
+            return null;
+        }
+        long folderSize = 0;
+        for (KVFile file : files) {
+            folderSize += file.length();
+        }
+        return new SequenceDetailsFingerprint(folder.lastModified(), files.length, folderSize);
+    }
+
+    public long getFolderModified() {
+        return folderModified;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public long getFolderSize() {
+        return folderSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SequenceDetailsFingerprint that = (SequenceDetailsFingerprint) o;
+        return folderModified == that.folderModified && fileCount == that.fileCount && folderSize == that.folderSize;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (folderModified ^ (folderModified >>> 32));
+        result = 31 * result + fileCount;
+        result = 31 * result + (int) (folderSize ^ (folderSize >>> 32));
+        return result;
+    }
+}
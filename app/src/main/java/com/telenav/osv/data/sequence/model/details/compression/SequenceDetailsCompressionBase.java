@@ -96,6 +96,8 @@ public abstract class SequenceDetailsCompressionBase {
      * <li>{@link #JPEG}</li>
      * <li>{@link #METADATA_TXT}</li>
      * <li>{@link #METADATA_DEFAULT}</li>
+     * <li>{@link #METADATA_BINARY}</li>
+     * <li>{@link #METADATA_PARTIAL}</li>
      * </ul>
      */
     public @interface SequenceFilesExtensions {
@@ -118,5 +120,15 @@ public abstract class SequenceDetailsCompressionBase {
          * The default extension of compressed metadata.s
          */
         String METADATA_DEFAULT = ".txt.gz";
+
+        /**
+         * The extension of the binary metadata, converted to the default metadata before upload.
+         */
+        String METADATA_BINARY = ".bin";
+
+        /**
+         * The extension of the compressed metadata while the recording is in progress, recovered to the default metadata if the recording was not finished.
+         */
+        String METADATA_PARTIAL = ".gz.part";
     }
 }
@@ -61,7 +61,7 @@ public class UserRepository implements UserDataSource {
     @Override
     public void updateCacheUserDetails(BaseUserDetails userDetails) {
         if (cachedUser != null) {
-            Log.d(TAG, String.format("Cached user updated details. User name: %s. Details type: %s", cachedUser.getUserName(), userDetails.getType()));
+            Log.d(TAG, "Cached user updated details. User name: %s. Details type: %s", cachedUser.getUserName(), userDetails.getType());
             cachedUser.setDetails(userDetails);
         } else {
             Log.d(TAG, "Cached user details null");
@@ -102,10 +102,10 @@ public class UserRepository implements UserDataSource {
                 .concatWith(userLocalDataSource.saveUser(user))
                 .doOnComplete(() -> {
                     cachedUser = user;
-                    Log.d(TAG, String.format("Save user: user persisted in cache. Id: %s. Username: %s. Login type: %s",
+                    Log.d(TAG, "Save user: user persisted in cache. Id: %s. Username: %s. Login type: %s",
                             user.getID(),
                             user.getUserName(),
-                            user.getLoginType()));
+                            user.getLoginType());
                 });
     }
 
@@ -120,6 +120,6 @@ public class UserRepository implements UserDataSource {
      */
     private void persistCache(@Nullable User user) {
         cachedUser = user;
-        Log.d(TAG, String.format("User persisted in cache. Name: %s. ", user != null ? user.getUserName() : null));
+        Log.d(TAG, "User persisted in cache. Name: %s. ", user != null ? user.getUserName() : null);
     }
 }
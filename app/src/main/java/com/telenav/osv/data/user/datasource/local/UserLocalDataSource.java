@@ -72,17 +72,17 @@ public class UserLocalDataSource implements UserDataSource {
             String jarvisRefreshToken = appPrefs.getStringPreference(PreferenceTypes.JARVIS_REFRESH_TOKEN);
 
             if (StringUtils.isEmpty(userId)) {
-                Log.d(TAG, String.format("getUser. Status: complete. Id: %s. Message: User not found.", userId));
+                Log.d(TAG, "getUser. Status: complete. Id: %s. Message: User not found.", userId);
                 emitter.onComplete();
                 return;
             }
 
             if (!validateUser(name, accessToken)) {
                 String message = "User data not valid.";
-                Log.d(TAG, String.format("getUser. Status: error. Id: %s. Message: %s.", userId, message));
+                Log.d(TAG, "getUser. Status: error. Id: %s. Message: %s.", userId, message);
                 emitter.onError(new Throwable(message));
             } else {
-                Log.d(TAG, String.format("getUser. Status: success. Id: %s. Message: User found.", userId));
+                Log.d(TAG, "getUser. Status: success. Id: %s. Message: User found.", userId);
                 emitter.onSuccess(new User(
                         userId,
                         accessToken,
@@ -121,7 +121,7 @@ public class UserLocalDataSource implements UserDataSource {
     @Override
     public Completable saveUser(User user) {
         return Completable.create(emitter -> {
-            Log.d(TAG, String.format("Save user. Id: %s", user.getID()));
+            Log.d(TAG, "Save user. Id: %s", user.getID());
             if (validateUser(user)) {
                 saveUserData(
                         user.getAccessToken(),
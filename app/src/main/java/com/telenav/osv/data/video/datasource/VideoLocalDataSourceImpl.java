@@ -65,40 +65,40 @@ public class VideoLocalDataSourceImpl implements VideoLocalDataSource {
     public Maybe<Video> getVideo(@NotNull String videoId) {
         return videoDao
                 .findByID(videoId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getVideo. Status: success. Video id: %s. Message: Video found.", videoId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getVideo. Status: complete. Video id: %s. Message: Video not found.", videoId)))
+                .doOnSuccess(items -> Log.d(TAG, "getVideo. Status: success. Video id: %s. Message: Video found.", videoId))
+                .doOnComplete(() -> Log.d(TAG, "getVideo. Status: complete. Video id: %s. Message: Video not found.", videoId))
                 .doOnError(throwable -> Log.d(TAG,
-                        String.format("getVideo. Status: error. Video id: %s.  Message: %s.",
-                                videoId,
-                                throwable.getLocalizedMessage())))
+                        "getVideo. Status: error. Video id: %s.  Message: %s.",
+                        videoId,
+                        throwable.getLocalizedMessage()))
                 .map(DataConverter::toVideo);
     }
 
     @Override
     public boolean saveVideo(Video video, String sequenceID) {
         boolean videoInserted = videoDao.insert(DataConverter.toVideoEntity(video, sequenceID)) != 0;
-        Log.d(TAG, String.format("saveVideo. Status: %s. Sequence id: %s.", videoInserted, sequenceID));
+        Log.d(TAG, "saveVideo. Status: %s. Sequence id: %s.", videoInserted, sequenceID);
         return videoInserted;
     }
 
     @Override
     public boolean updateVideo(Video video, String sequenceID) {
         boolean updateVideo = videoDao.update(DataConverter.toVideoEntity(video, sequenceID)) != 0;
-        Log.d(TAG, String.format("updateVideo. Status: %s. Sequence id: %s.", updateVideo, sequenceID));
+        Log.d(TAG, "updateVideo. Status: %s. Sequence id: %s.", updateVideo, sequenceID);
         return updateVideo;
     }
 
     @Override
     public boolean updateFrameCount(String videoId, int frameCount) {
         boolean updateVideoFrameCount = videoDao.updateFrameCount(videoId, frameCount) != 0;
-        Log.d(TAG, String.format("updateVideoFrameCount. Status: %s. Frame count: %s.", updateVideoFrameCount, frameCount));
+        Log.d(TAG, "updateVideoFrameCount. Status: %s. Frame count: %s.", updateVideoFrameCount, frameCount);
         return updateVideoFrameCount;
     }
 
     @Override
     public boolean deleteVideo(@NonNull String videoID) {
         boolean videoDelete = videoDao.deleteById(videoID) != 0;
-        Log.d(TAG, String.format("deleteVideo. Status: %s. Video id: %s.", videoDelete, videoID));
+        Log.d(TAG, "deleteVideo. Status: %s. Video id: %s.", videoDelete, videoID);
         return videoDelete;
     }
 
@@ -107,16 +107,16 @@ public class VideoLocalDataSourceImpl implements VideoLocalDataSource {
         return videoDao
                 .findAllIdsBySequenceId(sequenceId)
                 .doOnSuccess(items -> Log.d(TAG, "getVideoIdsBySequenceId. Status: success. Message: Videos ids found."))
-                .doOnError(throwable -> Log.d(TAG, String.format("getVideoIdsBySequenceId. Status: error. Message: %s.", throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getVideoIdsBySequenceId. Status: error. Message: %s.", throwable.getLocalizedMessage()));
     }
 
     @Override
     public Maybe<List<Video>> getVideos(String sequenceId) {
         return videoDao
                 .findAllBySequenceID(sequenceId)
-                .doOnSuccess(items -> Log.d(TAG, String.format("getVideos. Status: success. Sequence id: %s. Message: Videos found.", sequenceId)))
-                .doOnComplete(() -> Log.d(TAG, String.format("getVideos. Status: complete. Sequence id: %s. Message: Videos not found.", sequenceId)))
-                .doOnError(throwable -> Log.d(TAG, String.format("getVideos. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage())))
+                .doOnSuccess(items -> Log.d(TAG, "getVideos. Status: success. Sequence id: %s. Message: Videos found.", sequenceId))
+                .doOnComplete(() -> Log.d(TAG, "getVideos. Status: complete. Sequence id: %s. Message: Videos not found.", sequenceId))
+                .doOnError(throwable -> Log.d(TAG, "getVideos. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage()))
                 .flatMap(entities -> Observable
                         .fromIterable(entities)
                         .map(DataConverter::toVideo)
@@ -127,10 +127,10 @@ public class VideoLocalDataSourceImpl implements VideoLocalDataSource {
     @Override
     public int getVideoCountBySequenceId(@NonNull String sequenceId) {
         int videoCount = videoDao.findNumberOfRows(sequenceId);
-        Log.d(TAG, String.format(
+        Log.d(TAG,
                 "getVideoCountBySequenceId. Sequence id: %s. Count: %s. Message: Fetching the video count from persistence for the sequence given.",
                 sequenceId,
-                videoCount));
+                videoCount);
         return videoCount;
     }
 }
@@ -51,8 +51,13 @@ public class EventBus {
         }
     }
 
+    /**
+     * Builds the bus with the subscriber index generated at compile time from the {@code @Subscribe} methods of the app, so {@link #register(Object)} does not
+     * scan the subscribers by reflection. The subscribers missing from the index, such as the Kotlin classes, are still found by reflection.
+     */
     private static org.greenrobot.eventbus.EventBus getEventBus() {
         EventBusBuilder builder = org.greenrobot.eventbus.EventBus.builder();
+        builder.addIndex(new KVEventBusIndex());
         builder.installDefaultEventBus();
         builder.logNoSubscriberMessages(false);
         return builder.build();
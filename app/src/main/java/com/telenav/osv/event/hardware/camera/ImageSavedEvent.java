@@ -17,11 +17,17 @@ public class ImageSavedEvent extends OSVEvent {
 
     private Location imageLocation;
 
-    public ImageSavedEvent(double distance, long diskSize, int frameCount, Location imageLocation) {
+    /**
+     * The number of frames skipped so far by the recording since the previous frame was still being captured or persisted.
+     */
+    private int skippedFrameCount;
+
+    public ImageSavedEvent(double distance, long diskSize, int frameCount, Location imageLocation, int skippedFrameCount) {
         this.distance = distance;
         this.diskSize = diskSize;
         this.frameCount = frameCount;
         this.imageLocation = imageLocation;
+        this.skippedFrameCount = skippedFrameCount;
     }
 
     public double getDistance() {
@@ -39,4 +45,8 @@ public class ImageSavedEvent extends OSVEvent {
     public Location getImageLocation() {
         return imageLocation;
     }
+
+    public int getSkippedFrameCount() {
+        return skippedFrameCount;
+    }
 }
@@ -47,7 +47,7 @@ class AndroidLocationProvider extends LocationProvider implements LocationListen
                 androidLocationProviderHelper.startLocationUpdates(this);
                 isLocationUpdatesStarted.set(true);
             } catch (Exception e) {
-                Log.d(TAG, String.format("startLocationUpdates: %s " + e.getMessage()));
+                Log.d(TAG, "startLocationUpdates: %s", e.getMessage());
             }
         }
     }
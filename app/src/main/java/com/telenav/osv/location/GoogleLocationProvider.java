@@ -96,7 +96,7 @@ class GoogleLocationProvider extends LocationProvider {
                     try {
                         fusedLocationProviderClient.requestLocationUpdates(locationRequest, locationCallback, Looper.myLooper());
                     } catch (SecurityException exception) {
-                        Log.d(TAG, String.format("startLocationUpdates: %s", exception.getMessage()));
+                        Log.d(TAG, "startLocationUpdates: %s", exception.getMessage());
                         if (locationUpdatesProcessor != null) {
                             locationUpdatesProcessor.onError(exception);
                         }
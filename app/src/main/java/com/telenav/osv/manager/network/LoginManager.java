@@ -176,7 +176,7 @@ public class LoginManager extends NetworkManager implements GoogleApiClient.OnCo
                         .subscribe(
                                 //onSuccess
                                 localUser -> {
-                                    Log.d(TAG, String.format("loginManager constructor. Status: success. ID: %s. Message: User found.", localUser.getID()));
+                                    Log.d(TAG, "loginManager constructor. Status: success. ID: %s. Message: User found.", localUser.getID());
                                     onLoginSuccessful(new AccountData(localUser.getID(),
                                             localUser.getUserName(),
                                             localUser.getDisplayName(),
@@ -185,7 +185,7 @@ public class LoginManager extends NetworkManager implements GoogleApiClient.OnCo
                                             AccountData.getAccountTypeForString(localUser.getLoginType())));
                                 },
                                 //on error
-                                throwable -> Log.d(TAG, String.format("loginManager constructor. Status: error. Message: %s.", throwable.getMessage())),
+                                throwable -> Log.d(TAG, "loginManager constructor. Status: error. Message: %s.", throwable.getMessage()),
                                 //OnComplete
                                 () -> {
                                     Log.d(TAG, "loginManager constructor. Status: complete. Message: User not found.");
@@ -287,7 +287,7 @@ public class LoginManager extends NetworkManager implements GoogleApiClient.OnCo
                         },
                         //onError
                         throwable -> {
-                            Log.d(TAG, String.format("Delete user invalid. Message: %s", throwable.getMessage()));
+                            Log.d(TAG, "Delete user invalid. Message: %s", throwable.getMessage());
                             Toast.makeText(mContext, R.string.something_wrong_try_again, Toast.LENGTH_SHORT).show();
                         }
                 );
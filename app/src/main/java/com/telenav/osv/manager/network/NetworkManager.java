@@ -10,15 +10,17 @@ import com.android.volley.Network;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.BasicNetwork;
-import com.android.volley.toolbox.DiskBasedCache;
 import com.android.volley.toolbox.HttpStack;
-import com.android.volley.toolbox.HurlStack;
 import com.telenav.osv.application.ApplicationPreferences;
 import com.telenav.osv.application.KVApplication;
 import com.telenav.osv.application.PreferenceTypes;
 import com.telenav.osv.common.Injection;
+import com.telenav.osv.manager.network.cache.AppendOnlyDiskCache;
+import com.telenav.osv.manager.network.cache.TieredCache;
 import com.telenav.osv.network.endpoint.FactoryServerEndpointUrl;
+import com.telenav.osv.network.util.SharedHttpClient;
 import com.telenav.osv.utils.BackgroundThreadPool;
+import com.telenav.osv.utils.Log;
 
 import java.io.File;
 
@@ -32,6 +34,11 @@ public abstract class NetworkManager {
 
     private static final String TAG = "NetworkManager";
 
+    /**
+     * The response cache shared by all the request queues, since they use the same cache directory.
+     */
+    private static TieredCache responseCache;
+
     /**
      * context used for operations, should use application context
      */
@@ -66,23 +73,35 @@ public abstract class NetworkManager {
 
     /**
      * Creates a default instance of the worker pool and calls {@link RequestQueue#start()} on it.
+     * <p>The requests are performed by an {@link OkHttpStack} on the {@link SharedHttpClient}, therefore they use the connection pool of the application.
      * @param context A {@link Context} to use for creating the cache dir.
      * @return A started {@link RequestQueue} instance.
      */
     RequestQueue newRequestQueue(Context context, int nrOfThreads) {
-        File cacheDir = new File(context.getCacheDir(), "volley");
-        HttpStack stack = new HurlStack();
+        HttpStack stack = new OkHttpStack(SharedHttpClient.get());
         Network network = new BasicNetwork(stack);
         if (mQueueThread == null) {
             mQueueThread = new HandlerThread("QueueThread", Process.THREAD_PRIORITY_BACKGROUND);
         }
         backgroundHandler = new Handler(mQueueThread.getLooper());
-        RequestQueue queue = new RequestQueue(new DiskBasedCache(cacheDir), network, nrOfThreads, new ExecutorDelivery(backgroundHandler));
+        RequestQueue queue = new RequestQueue(getResponseCache(context), network, nrOfThreads, new ExecutorDelivery(backgroundHandler));
         queue.start();
 
         return queue;
     }
 
+    /**
+     * @param context A {@link Context} to use for creating the cache dir.
+     * @return the response cache shared by all the request queues, the disk tier is loaded lazily on its first access.
+     */
+    static synchronized TieredCache getResponseCache(Context context) {
+        if (responseCache == null) {
+            File cacheDir = new File(context.getCacheDir(), "volley");
+            responseCache = new TieredCache(TieredCache.DEFAULT_MEMORY_SIZE_BYTES, new AppendOnlyDiskCache(cacheDir, AppendOnlyDiskCache.DEFAULT_MAX_SIZE_BYTES));
+        }
+        return responseCache;
+    }
+
     void runInBackground(Runnable runnable) {
         BackgroundThreadPool.post(runnable);
     }
@@ -95,6 +114,7 @@ public abstract class NetworkManager {
     }
 
     void destroy() {
+        Log.d(TAG, "destroy. Status: success. Response cache: %s", getResponseCache(mContext));
         mQueue.cancelAll(new RequestQueue.RequestFilter() {
 
             @Override
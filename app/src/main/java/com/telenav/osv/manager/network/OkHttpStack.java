@@ -0,0 +1,199 @@
+package com.telenav.osv.manager.network;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpStack;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+
+/**
+ * An {@link HttpStack} based on {@link OkHttpClient}, which allows the legacy Volley requests to use the same connection pool as the rest of the application.
+ * <p>
+ * The timeout of each request is applied on a client derived from the given one, which keeps its connection pool and dispatcher.
+ */
+public class OkHttpStack implements HttpStack {
+
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+    private final OkHttpClient client;
+
+    /**
+     * Default constructor for the current class.
+     * @param client the client used to perform the requests.
+     */
+    public OkHttpStack(@NonNull OkHttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Checks if a response message contains a body.
+     * @param requestMethod request method
+     * @param responseCode response status code
+     * @return whether the response has a body
+     * @see <a href="https://tools.ietf.org/html/rfc7230#section-3.3">RFC 7230 section 3.3</a>
+     */
+    private static boolean hasResponseBody(int requestMethod, int responseCode) {
+        return requestMethod != Request.Method.HEAD && !(HttpStatus.SC_CONTINUE <= responseCode && responseCode < HttpStatus.SC_OK) &&
+                responseCode != HttpStatus.SC_NO_CONTENT && responseCode != HttpStatus.SC_NOT_MODIFIED;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void setMethodAndBody(okhttp3.Request.Builder builder, Request<?> request) throws IOException, AuthFailureError {
+        switch (request.getMethod()) {
+            case Request.Method.DEPRECATED_GET_OR_POST:
+                // If the request's post body is null, then the assumption is that the request is GET. Otherwise, it is assumed that the request is a POST.
+                byte[] postBody = request.getPostBody();
+                if (postBody != null) {
+                    builder.post(RequestBody.create(MediaType.parse(request.getPostBodyContentType()), postBody));
+                } else {
+                    builder.get();
+                }
+                break;
+            case Request.Method.GET:
+                builder.get();
+                break;
+            case Request.Method.DELETE:
+                builder.delete();
+                break;
+            case Request.Method.POST:
+                builder.post(createBody(request));
+                break;
+            case Request.Method.PUT:
+                builder.put(createBody(request));
+                break;
+            case Request.Method.HEAD:
+                builder.head();
+                break;
+            case Request.Method.OPTIONS:
+                builder.method("OPTIONS", null);
+                break;
+            case Request.Method.TRACE:
+                builder.method("TRACE", null);
+                break;
+            case Request.Method.PATCH:
+                builder.patch(createBody(request));
+                break;
+            default:
+                throw new IllegalStateException("Unknown method type.");
+        }
+    }
+
+    /**
+     * @return the body of the request, which streams the multipart entity if there is one, or an empty body if the request has none.
+     */
+    private static RequestBody createBody(Request<?> request) throws AuthFailureError {
+        MediaType contentType = MediaType.parse(request.getBodyContentType());
+        HttpEntity entity = request.getMultipartEntity();
+        if (entity != null) {
+            return new RequestBody() {
+
+                @Nullable
+                @Override
+                public MediaType contentType() {
+                    return contentType;
+                }
+
+                @Override
+                public long contentLength() {
+                    return entity.getContentLength();
+                }
+
+                @Override
+                public void writeTo(@NonNull BufferedSink sink) throws IOException {
+                    entity.writeTo(sink.outputStream());
+                }
+            };
+        }
+        byte[] body = request.getBody();
+        return RequestBody.create(contentType, body != null ? body : new byte[0]);
+    }
+
+    private static ProtocolVersion toProtocolVersion(Protocol protocol) {
+        switch (protocol) {
+            case HTTP_1_0:
+                return new ProtocolVersion("HTTP", 1, 0);
+            case HTTP_2:
+            case H2_PRIOR_KNOWLEDGE:
+                return new ProtocolVersion("HTTP", 2, 0);
+            default:
+                return new ProtocolVersion("HTTP", 1, 1);
+        }
+    }
+
+    /**
+     * Initializes an {@link HttpEntity} from the given {@link Response}, the content stream closes the response when it is closed.
+     */
+    private static HttpEntity entityFromResponse(Response response) {
+        BasicHttpEntity entity = new BasicHttpEntity();
+        ResponseBody body = response.body();
+        if (body != null) {
+            entity.setContent(body.byteStream());
+            entity.setContentLength(body.contentLength());
+        }
+        entity.setContentEncoding(response.header(HEADER_CONTENT_ENCODING));
+        entity.setContentType(response.header(HEADER_CONTENT_TYPE));
+        return entity;
+    }
+
+    @Override
+    public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders) throws IOException, AuthFailureError {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl());
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        for (Map.Entry<String, String> header : additionalHeaders.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        setMethodAndBody(builder, request);
+
+        Call call = getClient(request.getTimeoutMs()).newCall(builder.build());
+        Response okHttpResponse = call.execute();
+        BasicHttpResponse response = new BasicHttpResponse(
+                new BasicStatusLine(toProtocolVersion(okHttpResponse.protocol()), okHttpResponse.code(), okHttpResponse.message()));
+        if (hasResponseBody(request.getMethod(), okHttpResponse.code())) {
+            response.setEntity(entityFromResponse(okHttpResponse));
+        } else {
+            okHttpResponse.close();
+        }
+        Headers headers = okHttpResponse.headers();
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            response.addHeader(headers.name(i), headers.value(i));
+        }
+        return response;
+    }
+
+    /**
+     * @return the client with the given timeout, which shares the connection pool and the dispatcher with {@link #client}.
+     */
+    private OkHttpClient getClient(int timeoutMs) {
+        if (client.connectTimeoutMillis() == timeoutMs && client.readTimeoutMillis() == timeoutMs && client.writeTimeoutMillis() == timeoutMs) {
+            return client;
+        }
+        return client.newBuilder()
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+}
@@ -202,7 +202,7 @@ public class UserDataManager extends NetworkManager implements Response.ErrorLis
                             requestUserProfileDetails(user, listener);
                         },
                         //onError
-                        throwable -> Log.d(TAG, String.format("getUserProfileDetails. Status: error. Message: %s", throwable.getMessage())),
+                        throwable -> Log.d(TAG, "getUserProfileDetails. Status: error. Message: %s", throwable.getMessage()),
                         //onComplete
                         () -> {
                             Log.d(TAG, "getUserProfileDetails. Status: complete. Message: User not found.");
@@ -0,0 +1,898 @@
+package com.telenav.osv.manager.network.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.android.volley.Cache;
+import com.telenav.osv.utils.Log;
+
+/**
+ * Volley {@link Cache} which stores all the entries in a single append-only file.
+ * <p>
+ * Each record is a small header, holding the key and the cache metadata, followed by the response data. A put appends a new record and a remove appends a tombstone,
+ * the latest record of a key wins. The index, which maps each key to the position of its latest record, is kept in memory and is built lazily, on the first access.
+ * <p>
+ * Next to the cache file a journal, in the style of the {@code DiskLruCache} one, logs the position of each appended record. The index is built by replaying the
+ * journal, which does not touch the cache file, and only the records appended after the last journaled one are read from the cache file and added to the journal.
+ * The journal is a hint: a journaled record which overlaps the previous one or which is beyond the end of the cache file stops the replay, and a truncated record at
+ * the end of the cache file, left by a crash, is discarded. The journal is rewritten from the index when its replay stopped early or when it holds more dead records
+ * than live ones, in which case the dead records between the journaled ones are skipped.
+ * <p>
+ * The index is a concurrent map and the operations on a key are serialized by one of {@link #KEY_LOCK_STRIPES} striped locks, therefore a get does not wait for
+ * the operations on other keys. The reads use positional reads of the file channel, the appends are serialized with each other, while the load, the trim, the
+ * compaction and the clear hold the file exclusively.
+ * <p>
+ * When the live entries exceed the maximum size the least recently used entries are dropped, and when the file holds more dead records than live ones it is compacted
+ * by copying the live records into a new file through {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+ * <p>
+ * The app uses this cache instead of the Volley {@code DiskBasedCache}, whose initialization opens and parses the header of every cached file under its single
+ * monitor, therefore the published volley-osc is used unchanged.
+ */
+public class AppendOnlyDiskCache implements Cache {
+
+    /**
+     * The default maximum size of the live entries in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE_BYTES = 5 * 1024 * 1024;
+
+    /**
+     * The name of the cache file in the cache directory.
+     */
+    static final String FILE_NAME = "responses.cache";
+
+    /**
+     * The name of the journal file in the cache directory.
+     */
+    static final String JOURNAL_FILE_NAME = "responses.journal";
+
+    private static final String TAG = AppendOnlyDiskCache.class.getSimpleName();
+
+    /**
+     * The name of the temporary file used while compacting.
+     */
+    private static final String COMPACT_FILE_NAME = FILE_NAME + ".tmp";
+
+    /**
+     * The name of the temporary file used while rewriting the journal.
+     */
+    private static final String JOURNAL_TMP_FILE_NAME = JOURNAL_FILE_NAME + ".tmp";
+
+    /**
+     * Magic number of a record holding an entry.
+     */
+    private static final int MAGIC_ENTRY = 0x20200511;
+
+    /**
+     * Magic number of a record removing an entry.
+     */
+    private static final int MAGIC_REMOVE = 0x20200512;
+
+    /**
+     * Magic number at the start of the journal.
+     */
+    private static final int MAGIC_JOURNAL = 0x20200601;
+
+    /**
+     * The fraction of the maximum size to which the live entries are trimmed.
+     */
+    private static final float HYSTERESIS_FACTOR = 0.9f;
+
+    /**
+     * The size of the fixed fields of a record: the magic number, the header length and the data length.
+     */
+    private static final int RECORD_PREFIX_BYTES = 3 * Integer.BYTES;
+
+    /**
+     * The number of locks which serialize the operations on the same key, a power of two.
+     */
+    private static final int KEY_LOCK_STRIPES = 16;
+
+    /**
+     * The minimum number of dead journal records before the journal is rewritten.
+     */
+    private static final int JOURNAL_REBUILD_MIN_DEAD_RECORDS = 256;
+
+    /**
+     * The position of each key's latest record.
+     */
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+
+    /**
+     * The locks of the keys, the lock of a key is selected by the hash of the key.
+     */
+    private final Object[] keyLocks = new Object[KEY_LOCK_STRIPES];
+
+    /**
+     * Held shared by the operations on the keys and exclusively by the operations which replace or close the file.
+     */
+    private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes the appends to the cache file and to the journal, guards the sizes of the records.
+     */
+    private final Object appendLock = new Object();
+
+    /**
+     * The clock of the accesses of the entries, used to drop the least recently used entries.
+     */
+    private final AtomicLong accessClock = new AtomicLong();
+
+    private final File directory;
+
+    private final long maxSizeBytes;
+
+    private volatile RandomAccessFile file;
+
+    private FileChannel channel;
+
+    @Nullable
+    private DataOutputStream journal;
+
+    /**
+     * The number of records in the journal.
+     */
+    private int journalRecords;
+
+    /**
+     * Flag which stores if the last replay reached the end of the journal.
+     */
+    private boolean journalReplayed;
+
+    /**
+     * The position of the next record in the cache file.
+     */
+    private long fileLength;
+
+    /**
+     * The total size of the live records in bytes.
+     */
+    private long liveBytes;
+
+    /**
+     * The total size of the dead records in bytes, i.e. the overwritten or removed entries and the tombstones.
+     */
+    private long deadBytes;
+
+    /**
+     * Default constructor for the current class.
+     * @param directory the cache directory. The files which are not part of this cache are deleted when the cache is loaded, since the directory is owned by the cache.
+     * @param maxSizeBytes the maximum size of the live entries in bytes.
+     */
+    public AppendOnlyDiskCache(@NonNull File directory, long maxSizeBytes) {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        for (int i = 0; i < KEY_LOCK_STRIPES; i++) {
+            keyLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * The index is loaded lazily by the first access, therefore nothing is done here.
+     */
+    @Override
+    public void initialize() {
+    }
+
+    @Nullable
+    @Override
+    public Entry get(String key) {
+        if (!ensureLoaded()) {
+            return null;
+        }
+        synchronized (getKeyLock(key)) {
+            try {
+                return read(key);
+            } catch (IOException e) {
+                Log.d(TAG, "get. Status: error. Key: %s. Message: %s.", key, e.getMessage());
+                appendRemove(key);
+            }
+        }
+        maintain();
+        return null;
+    }
+
+    @Override
+    public void put(String key, Entry entry) {
+        if (!ensureLoaded()) {
+            return;
+        }
+        synchronized (getKeyLock(key)) {
+            appendEntry(key, entry);
+        }
+        maintain();
+    }
+
+    @Override
+    public void invalidate(String key, boolean fullExpire) {
+        if (!ensureLoaded()) {
+            return;
+        }
+        synchronized (getKeyLock(key)) {
+            Entry entry;
+            try {
+                entry = read(key);
+            } catch (IOException e) {
+                Log.d(TAG, "invalidate. Status: error. Key: %s. Message: %s.", key, e.getMessage());
+                entry = null;
+            }
+            if (entry == null) {
+                return;
+            }
+            entry.softTtl = 0;
+            if (fullExpire) {
+                entry.ttl = 0;
+            }
+            appendEntry(key, entry);
+        }
+        maintain();
+    }
+
+    @Override
+    public void remove(String key) {
+        if (!ensureLoaded()) {
+            return;
+        }
+        synchronized (getKeyLock(key)) {
+            appendRemove(key);
+        }
+        maintain();
+    }
+
+    @Override
+    public void clear() {
+        fileLock.writeLock().lock();
+        try {
+            closeFile();
+            new File(directory, FILE_NAME).delete();
+            new File(directory, JOURNAL_FILE_NAME).delete();
+            index.clear();
+            synchronized (appendLock) {
+                fileLength = 0;
+                liveBytes = 0;
+                deadBytes = 0;
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+        Log.d(TAG, "clear. Status: success. Message: Cache cleared.");
+    }
+
+    /**
+     * @return the number of entries in the cache.
+     */
+    public int size() {
+        return ensureLoaded() ? index.size() : 0;
+    }
+
+    /**
+     * @return the size of the cache file in bytes.
+     */
+    public long getFileSize() {
+        synchronized (appendLock) {
+            return liveBytes + deadBytes;
+        }
+    }
+
+    private Object getKeyLock(String key) {
+        return keyLocks[key.hashCode() & (KEY_LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Reads the entry of a key from the cache file, must be called while holding the lock of the key.
+     * @return the entry or {@code null} if the key is not cached.
+     * @throws IOException if the record of the key cannot be read.
+     */
+    @Nullable
+    private Entry read(String key) throws IOException {
+        fileLock.readLock().lock();
+        try {
+            IndexEntry indexEntry = index.get(key);
+            if (file == null || indexEntry == null) {
+                return null;
+            }
+            indexEntry.lastAccess = accessClock.incrementAndGet();
+            byte[] header = new byte[indexEntry.headerLength];
+            readFully(ByteBuffer.wrap(header), indexEntry.offset + RECORD_PREFIX_BYTES);
+            Entry entry = readHeader(key, header);
+            entry.data = new byte[indexEntry.dataLength];
+            readFully(ByteBuffer.wrap(entry.data), indexEntry.offset + RECORD_PREFIX_BYTES + indexEntry.headerLength);
+            return entry;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the record of an entry, must be called while holding the lock of the key.
+     */
+    private void appendEntry(String key, Entry entry) {
+        fileLock.readLock().lock();
+        try {
+            if (file == null) {
+                return;
+            }
+            byte[] header = writeHeader(key, entry);
+            synchronized (appendLock) {
+                long offset = fileLength;
+                writeRecord(offset, MAGIC_ENTRY, header, entry.data);
+                IndexEntry indexEntry = new IndexEntry(offset, header.length, entry.data.length, accessClock.incrementAndGet());
+                fileLength = offset + indexEntry.getRecordLength();
+                discard(index.put(key, indexEntry));
+                liveBytes += indexEntry.getRecordLength();
+                appendJournal(MAGIC_ENTRY, key, indexEntry);
+            }
+        } catch (IOException e) {
+            Log.d(TAG, "put. Status: error. Key: %s. Message: %s.", key, e.getMessage());
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the tombstone of a key, must be called while holding the lock of the key.
+     */
+    private void appendRemove(String key) {
+        fileLock.readLock().lock();
+        try {
+            if (file == null || !index.containsKey(key)) {
+                return;
+            }
+            byte[] header = writeHeader(key, null);
+            synchronized (appendLock) {
+                long offset = fileLength;
+                writeRecord(offset, MAGIC_REMOVE, header, null);
+                IndexEntry tombstone = new IndexEntry(offset, header.length, 0, 0);
+                fileLength = offset + tombstone.getRecordLength();
+                discard(index.remove(key));
+                deadBytes += tombstone.getRecordLength();
+                appendJournal(MAGIC_REMOVE, key, tombstone);
+            }
+        } catch (IOException e) {
+            Log.d(TAG, "remove. Status: error. Key: %s. Message: %s.", key, e.getMessage());
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a record at the end of the cache file, must be called while holding the append lock. A record which was not fully written is cut from the file,
+     * otherwise it would be followed by the next records and the next load would stop at it.
+     * @param data the response data, {@code null} for a tombstone.
+     * @throws IOException if the record could not be written.
+     */
+    private void writeRecord(long offset, int magic, byte[] header, @Nullable byte[] data) throws IOException {
+        try {
+            file.seek(offset);
+            file.writeInt(magic);
+            file.writeInt(header.length);
+            file.writeInt(data != null ? data.length : 0);
+            file.write(header);
+            if (data != null) {
+                file.write(data);
+            }
+        } catch (IOException e) {
+            try {
+                file.setLength(offset);
+            } catch (IOException truncateError) {
+                Log.d(TAG, "writeRecord. Status: error. Message: Unable to remove the partial record. %s.", truncateError.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Logs the position of an appended record in the journal, must be called while holding the append lock. The journal is deleted if it cannot be written,
+     * since the records which are not journaled are read from the cache file on the next load.
+     */
+    private void appendJournal(int magic, String key, IndexEntry indexEntry) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            writeJournalRecord(journal, magic, key, indexEntry);
+            journal.flush();
+            journalRecords++;
+        } catch (IOException e) {
+            Log.d(TAG, "appendJournal. Status: error. Message: %s.", e.getMessage());
+            closeJournal();
+            new File(directory, JOURNAL_FILE_NAME).delete();
+        }
+    }
+
+    /**
+     * Opens the cache file and builds the index if this was not done yet.
+     * @return {@code true} if the cache can be used, {@code false} otherwise.
+     */
+    private boolean ensureLoaded() {
+        if (file != null) {
+            return true;
+        }
+        fileLock.writeLock().lock();
+        try {
+            return file != null || load();
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the cache file and builds the index, must be called while holding the file exclusively.
+     * @return {@code true} if the cache can be used, {@code false} otherwise.
+     */
+    private boolean load() {
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.d(TAG, "load. Status: error. Message: Unable to create cache dir %s.", directory.getAbsolutePath());
+            return false;
+        }
+        deleteForeignFiles();
+        long start = System.nanoTime();
+        List<JournalRecord> scannedRecords;
+        try {
+            file = openFile(new File(directory, FILE_NAME));
+            channel = file.getChannel();
+            index.clear();
+            liveBytes = 0;
+            deadBytes = 0;
+            long replayedLength = replayJournal();
+            scannedRecords = readIndex(replayedLength);
+            fileLength = file.length();
+        } catch (IOException e) {
+            Log.d(TAG, "load. Status: error. Message: %s.", e.getMessage());
+            closeFile();
+            index.clear();
+            return false;
+        }
+        if (!journalReplayed || journalRecords - index.size() > Math.max(JOURNAL_REBUILD_MIN_DEAD_RECORDS, index.size())) {
+            rebuildJournal();
+        } else {
+            openJournal();
+            for (JournalRecord record : scannedRecords) {
+                appendJournal(record.magic, record.key, record.indexEntry);
+            }
+        }
+        Log.d(TAG, "load. Status: success. Entries: %s. Scanned records: %s. Live bytes: %s. Dead bytes: %s. Duration: %s ms.",
+                index.size(),
+                scannedRecords.size(),
+                liveBytes,
+                deadBytes,
+                (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Builds the index from the journal, the replay stops at the first journaled record which does not match the cache file. The space between two journaled
+     * records holds dead records.
+     * @return the length of the cache file covered by the replayed records.
+     */
+    private long replayJournal() {
+        journalRecords = 0;
+        journalReplayed = false;
+        File journalFile = new File(directory, JOURNAL_FILE_NAME);
+        if (!journalFile.exists()) {
+            return 0;
+        }
+        long replayedLength = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            long length = file.length();
+            if (input.readInt() != MAGIC_JOURNAL) {
+                return 0;
+            }
+            while (true) {
+                int magic;
+                try {
+                    magic = input.readInt();
+                } catch (EOFException e) {
+                    journalReplayed = true;
+                    break;
+                }
+                String key = input.readUTF();
+                long offset = input.readLong();
+                int headerLength = input.readInt();
+                int dataLength = input.readInt();
+                IndexEntry indexEntry = new IndexEntry(offset, headerLength, dataLength, accessClock.incrementAndGet());
+                if ((magic != MAGIC_ENTRY && magic != MAGIC_REMOVE) || headerLength < 0 || dataLength < 0 || offset < replayedLength
+                        || offset + indexEntry.getRecordLength() > length) {
+                    break;
+                }
+                deadBytes += offset - replayedLength;
+                if (magic == MAGIC_ENTRY) {
+                    discard(index.put(key, indexEntry));
+                    liveBytes += indexEntry.getRecordLength();
+                } else {
+                    discard(index.remove(key));
+                    deadBytes += indexEntry.getRecordLength();
+                }
+                replayedLength = offset + indexEntry.getRecordLength();
+                journalRecords++;
+            }
+        } catch (IOException e) {
+            Log.d(TAG, "replayJournal. Status: error. Message: %s.", e.getMessage());
+        }
+        return replayedLength;
+    }
+
+    /**
+     * Adds to the index the records found in the cache file after the given offset, by reading the record headers in order. The file is truncated after the last
+     * complete record.
+     * @return the records read, which are not journaled.
+     */
+    private List<JournalRecord> readIndex(long offset) throws IOException {
+        long length = file.length();
+        List<JournalRecord> records = new ArrayList<>();
+        file.seek(offset);
+        while (offset + RECORD_PREFIX_BYTES <= length) {
+            int magic = file.readInt();
+            int headerLength = file.readInt();
+            int dataLength = file.readInt();
+            IndexEntry indexEntry = new IndexEntry(offset, headerLength, dataLength, accessClock.incrementAndGet());
+            if ((magic != MAGIC_ENTRY && magic != MAGIC_REMOVE) || headerLength < 0 || dataLength < 0 || offset + indexEntry.getRecordLength() > length) {
+                break;
+            }
+            String key = file.readUTF();
+            if (magic == MAGIC_ENTRY) {
+                discard(index.put(key, indexEntry));
+                liveBytes += indexEntry.getRecordLength();
+            } else {
+                discard(index.remove(key));
+                deadBytes += indexEntry.getRecordLength();
+            }
+            offset += indexEntry.getRecordLength();
+            records.add(new JournalRecord(magic, key, indexEntry));
+            file.seek(offset);
+        }
+        if (offset < length) {
+            Log.d(TAG, "readIndex. Status: truncate. Message: Discarded %s bytes of incomplete records.", length - offset);
+            file.setLength(offset);
+        }
+        return records;
+    }
+
+    /**
+     * Moves the size of a replaced or removed record from the live to the dead bytes.
+     */
+    private void discard(@Nullable IndexEntry indexEntry) {
+        if (indexEntry != null) {
+            liveBytes -= indexEntry.getRecordLength();
+            deadBytes += indexEntry.getRecordLength();
+        }
+    }
+
+    /**
+     * Trims and compacts the cache file if needed, while holding the file exclusively. Must not be called while holding the lock of a key.
+     */
+    private void maintain() {
+        synchronized (appendLock) {
+            if (liveBytes <= maxSizeBytes && !isCompactionNeeded()) {
+                return;
+            }
+        }
+        fileLock.writeLock().lock();
+        try {
+            if (file == null) {
+                return;
+            }
+            if (liveBytes > maxSizeBytes) {
+                trim();
+            } else if (isCompactionNeeded()) {
+                compact();
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the least recently used entries while the live entries exceed the maximum size, then compacts the file.
+     */
+    private void trim() {
+        List<Map.Entry<String, IndexEntry>> entries = getEntriesInAccessOrder();
+        int pruned = 0;
+        for (int i = 0; i < entries.size() && liveBytes > maxSizeBytes * HYSTERESIS_FACTOR; i++) {
+            discard(index.remove(entries.get(i).getKey()));
+            pruned++;
+        }
+        Log.d(TAG, "trim. Status: success. Message: Pruned %s entries.", pruned);
+        // the pruned entries have no tombstone, therefore the file must be rewritten in order to not resurrect them on the next load
+        compact();
+    }
+
+    private boolean isCompactionNeeded() {
+        return deadBytes > liveBytes && deadBytes > maxSizeBytes * (1 - HYSTERESIS_FACTOR);
+    }
+
+    /**
+     * Rewrites the cache file with only the live records, in access order, and the journal for the new file.
+     */
+    private void compact() {
+        File compactFile = new File(directory, COMPACT_FILE_NAME);
+        Map<String, IndexEntry> compactIndex = new HashMap<>();
+        long offset = 0;
+        try (RandomAccessFile output = new RandomAccessFile(compactFile, "rw")) {
+            output.setLength(0);
+            FileChannel destination = output.getChannel();
+            for (Map.Entry<String, IndexEntry> entry : getEntriesInAccessOrder()) {
+                IndexEntry indexEntry = entry.getValue();
+                long recordLength = indexEntry.getRecordLength();
+                long transferred = 0;
+                while (transferred < recordLength) {
+                    transferred += channel.transferTo(indexEntry.offset + transferred, recordLength - transferred, destination);
+                }
+                compactIndex.put(entry.getKey(), new IndexEntry(offset, indexEntry.headerLength, indexEntry.dataLength, indexEntry.lastAccess));
+                offset += recordLength;
+            }
+        } catch (IOException e) {
+            Log.d(TAG, "compact. Status: error. Message: %s.", e.getMessage());
+            compactFile.delete();
+            return;
+        }
+        closeFile();
+        // the journal of the old file is deleted first, therefore a crash before the new journal is written leads to a scan of the new file
+        new File(directory, JOURNAL_FILE_NAME).delete();
+        if (!compactFile.renameTo(new File(directory, FILE_NAME))) {
+            Log.d(TAG, "compact. Status: error. Message: Unable to replace the cache file.");
+            clear();
+            return;
+        }
+        index.putAll(compactIndex);
+        try {
+            file = openFile(new File(directory, FILE_NAME));
+            channel = file.getChannel();
+        } catch (IOException e) {
+            Log.d(TAG, "compact. Status: error. Message: %s.", e.getMessage());
+            closeFile();
+            index.clear();
+            liveBytes = 0;
+            deadBytes = 0;
+            return;
+        }
+        Log.d(TAG, "compact. Status: success. Live bytes: %s. Dropped bytes: %s.", offset, deadBytes);
+        fileLength = offset;
+        liveBytes = offset;
+        deadBytes = 0;
+        rebuildJournal();
+    }
+
+    /**
+     * Writes a new journal holding only the live records, then opens it for appending.
+     */
+    private void rebuildJournal() {
+        closeJournal();
+        File journalFile = new File(directory, JOURNAL_FILE_NAME);
+        File tmpFile = new File(directory, JOURNAL_TMP_FILE_NAME);
+        List<Map.Entry<String, IndexEntry>> entries = new ArrayList<>(index.entrySet());
+        // the journal records must follow the order of the records in the cache file
+        Collections.sort(entries, (first, second) -> Long.compare(first.getValue().offset, second.getValue().offset));
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            output.writeInt(MAGIC_JOURNAL);
+            for (Map.Entry<String, IndexEntry> entry : entries) {
+                writeJournalRecord(output, MAGIC_ENTRY, entry.getKey(), entry.getValue());
+            }
+        } catch (IOException e) {
+            Log.d(TAG, "rebuildJournal. Status: error. Message: %s.", e.getMessage());
+            tmpFile.delete();
+            return;
+        }
+        if (!tmpFile.renameTo(journalFile)) {
+            Log.d(TAG, "rebuildJournal. Status: error. Message: Unable to replace the journal.");
+            tmpFile.delete();
+            return;
+        }
+        openJournal();
+        journalRecords = entries.size();
+    }
+
+    /**
+     * Opens the journal for appending, or creates it if it does not exist.
+     */
+    private void openJournal() {
+        File journalFile = new File(directory, JOURNAL_FILE_NAME);
+        try {
+            boolean exists = journalFile.exists();
+            journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, exists)));
+            if (!exists) {
+                journal.writeInt(MAGIC_JOURNAL);
+                journal.flush();
+                journalRecords = 0;
+            }
+        } catch (IOException e) {
+            Log.d(TAG, "openJournal. Status: error. Message: %s.", e.getMessage());
+            closeJournal();
+            journalFile.delete();
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            Log.d(TAG, "closeJournal. Status: error. Message: %s.", e.getMessage());
+        }
+        journal = null;
+    }
+
+    /**
+     * @return the entries of the index from the least to the most recently used.
+     */
+    private List<Map.Entry<String, IndexEntry>> getEntriesInAccessOrder() {
+        List<Map.Entry<String, IndexEntry>> entries = new ArrayList<>(index.entrySet());
+        Collections.sort(entries, (first, second) -> Long.compare(first.getValue().lastAccess, second.getValue().lastAccess));
+        return entries;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of the cache file.");
+            }
+        }
+    }
+
+    /**
+     * Deletes the files left in the cache directory by other cache implementations.
+     */
+    private void deleteForeignFiles() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        int deleted = 0;
+        for (File foreignFile : files) {
+            String name = foreignFile.getName();
+            if (!FILE_NAME.equals(name) && !JOURNAL_FILE_NAME.equals(name) && foreignFile.delete()) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            Log.d(TAG, "deleteForeignFiles. Status: success. Message: Deleted %s files.", deleted);
+        }
+    }
+
+    /**
+     * Opens the cache file for reading and appending.
+     */
+    @VisibleForTesting
+    RandomAccessFile openFile(File cacheFile) throws IOException {
+        return new RandomAccessFile(cacheFile, "rw");
+    }
+
+    private void closeFile() {
+        closeJournal();
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            Log.d(TAG, "closeFile. Status: error. Message: %s.", e.getMessage());
+        }
+        file = null;
+        channel = null;
+    }
+
+    private static void writeJournalRecord(DataOutputStream output, int magic, String key, IndexEntry indexEntry) throws IOException {
+        output.writeInt(magic);
+        output.writeUTF(key);
+        output.writeLong(indexEntry.offset);
+        output.writeInt(indexEntry.headerLength);
+        output.writeInt(indexEntry.dataLength);
+    }
+
+    /**
+     * @return the header of a record, the header of a tombstone holds only the key.
+     */
+    private static byte[] writeHeader(String key, @Nullable Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeUTF(key);
+        if (entry != null) {
+            output.writeUTF(entry.etag != null ? entry.etag : "");
+            output.writeLong(entry.serverDate);
+            output.writeLong(entry.lastModified);
+            output.writeLong(entry.ttl);
+            output.writeLong(entry.softTtl);
+            output.writeInt(entry.responseHeaders.size());
+            for (Map.Entry<String, String> header : entry.responseHeaders.entrySet()) {
+                output.writeUTF(header.getKey());
+                output.writeUTF(header.getValue() != null ? header.getValue() : "");
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Entry readHeader(String key, byte[] header) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(header));
+        if (!key.equals(input.readUTF())) {
+            throw new IOException("Key mismatch.");
+        }
+        Entry entry = new Entry();
+        String etag = input.readUTF();
+        entry.etag = etag.isEmpty() ? null : etag;
+        entry.serverDate = input.readLong();
+        entry.lastModified = input.readLong();
+        entry.ttl = input.readLong();
+        entry.softTtl = input.readLong();
+        int headerCount = input.readInt();
+        if (headerCount < 0) {
+            throw new EOFException("Negative header count.");
+        }
+        Map<String, String> responseHeaders = new HashMap<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            responseHeaders.put(input.readUTF(), input.readUTF());
+        }
+        entry.responseHeaders = responseHeaders;
+        return entry;
+    }
+
+    /**
+     * A record read from the cache file which is added to the journal.
+     */
+    private static class JournalRecord {
+
+        private final int magic;
+
+        private final String key;
+
+        private final IndexEntry indexEntry;
+
+        private JournalRecord(int magic, String key, IndexEntry indexEntry) {
+            this.magic = magic;
+            this.key = key;
+            this.indexEntry = indexEntry;
+        }
+    }
+
+    /**
+     * The position of a record in the cache file.
+     */
+    private static class IndexEntry {
+
+        private final long offset;
+
+        private final int headerLength;
+
+        private final int dataLength;
+
+        /**
+         * The value of the access clock when the entry was last used.
+         */
+        private volatile long lastAccess;
+
+        private IndexEntry(long offset, int headerLength, int dataLength, long lastAccess) {
+            this.offset = offset;
+            this.headerLength = headerLength;
+            this.dataLength = dataLength;
+            this.lastAccess = lastAccess;
+        }
+
+        private long getRecordLength() {
+            return (long) RECORD_PREFIX_BYTES + headerLength + dataLength;
+        }
+    }
+}
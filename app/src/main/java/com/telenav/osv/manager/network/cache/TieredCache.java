@@ -0,0 +1,182 @@
+package com.telenav.osv.manager.network.cache;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.android.volley.Cache;
+
+/**
+ * Volley {@link Cache} with a memory LRU tier in front of a disk tier.
+ * <p>
+ * A get is served from memory when possible, without waiting for the disk tier, otherwise from the disk tier, in which case the entry is promoted to memory. The returned
+ * entry is a copy which shares the data of the cached entry but has its own response headers, since Volley merges the headers of a not modified response into it. A put writes through both tiers. The memory tier is bounded by the size of the entries' data, the entries larger than a fraction of it are kept only on disk.
+ * <p>
+ * The hits of each tier and the misses are counted, see {@link #getMemoryHitCount()}, {@link #getDiskHitCount()} and {@link #getMissCount()}.
+ */
+public class TieredCache implements Cache {
+
+    /**
+     * The default maximum size of the memory tier in bytes.
+     */
+    public static final int DEFAULT_MEMORY_SIZE_BYTES = 2 * 1024 * 1024;
+
+    /**
+     * The divider of the memory size which gives the maximum size of an entry kept in memory.
+     */
+    private static final int MAX_MEMORY_ENTRY_DIVIDER = 8;
+
+    private final LruCache<String, Entry> memoryCache;
+
+    private final Cache diskCache;
+
+    private final int maxMemoryEntryBytes;
+
+    private final AtomicLong memoryHitCount = new AtomicLong();
+
+    private final AtomicLong diskHitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Default constructor for the current class.
+     * @param memorySizeBytes the maximum size of the memory tier in bytes.
+     * @param diskCache the disk tier.
+     */
+    public TieredCache(int memorySizeBytes, @NonNull Cache diskCache) {
+        this.diskCache = diskCache;
+        this.maxMemoryEntryBytes = memorySizeBytes / MAX_MEMORY_ENTRY_DIVIDER;
+        this.memoryCache = new LruCache<String, Entry>(memorySizeBytes) {
+            @Override
+            protected int sizeOf(String key, Entry value) {
+                return value.data.length;
+            }
+        };
+    }
+
+    @Override
+    public void initialize() {
+        diskCache.initialize();
+    }
+
+    @Nullable
+    @Override
+    public Entry get(String key) {
+        Entry entry = memoryCache.get(key);
+        if (entry != null) {
+            memoryHitCount.incrementAndGet();
+            return copyOf(entry);
+        }
+        return getFromDisk(key);
+    }
+
+    @Override
+    public synchronized void put(String key, Entry entry) {
+        diskCache.put(key, entry);
+        putInMemory(key, entry);
+    }
+
+    @Override
+    public synchronized void invalidate(String key, boolean fullExpire) {
+        Entry entry = memoryCache.get(key);
+        if (entry != null) {
+            entry.softTtl = 0;
+            if (fullExpire) {
+                entry.ttl = 0;
+            }
+        }
+        diskCache.invalidate(key, fullExpire);
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        memoryCache.remove(key);
+        diskCache.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        memoryCache.evictAll();
+        diskCache.clear();
+    }
+
+    /**
+     * @return the number of gets served by the memory tier.
+     */
+    public long getMemoryHitCount() {
+        return memoryHitCount.get();
+    }
+
+    /**
+     * @return the number of gets served by the disk tier.
+     */
+    public long getDiskHitCount() {
+        return diskHitCount.get();
+    }
+
+    /**
+     * @return the number of gets which found no entry.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        long memoryHits = memoryHitCount.get();
+        long diskHits = diskHitCount.get();
+        long misses = missCount.get();
+        long total = memoryHits + diskHits + misses;
+        return String.format(Locale.US, "Memory hits: %s. Disk hits: %s. Misses: %s. Hit rate: %.1f%%. Memory size: %s bytes.",
+                memoryHits,
+                diskHits,
+                misses,
+                total == 0 ? 0 : (memoryHits + diskHits) * 100d / total,
+                memoryCache.size());
+    }
+
+    /**
+     * Reads the entry from the disk tier and promotes it to memory, under the same lock as the writes in order to not promote an entry which was replaced meanwhile.
+     */
+    private synchronized Entry getFromDisk(String key) {
+        Entry entry = memoryCache.get(key);
+        if (entry != null) {
+            memoryHitCount.incrementAndGet();
+            return copyOf(entry);
+        }
+        entry = diskCache.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        diskHitCount.incrementAndGet();
+        putInMemory(key, entry);
+        return copyOf(entry);
+    }
+
+    /**
+     * @return a copy of the given entry which shares its data, with a mutable copy of its response headers.
+     */
+    private static Entry copyOf(Entry entry) {
+        Entry copy = new Entry();
+        copy.data = entry.data;
+        copy.etag = entry.etag;
+        copy.serverDate = entry.serverDate;
+        copy.lastModified = entry.lastModified;
+        copy.ttl = entry.ttl;
+        copy.softTtl = entry.softTtl;
+        copy.responseHeaders = new HashMap<>(entry.responseHeaders);
+        return copy;
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        if (entry.data.length > maxMemoryEntryBytes) {
+            memoryCache.remove(key);
+            return;
+        }
+        memoryCache.put(key, entry);
+    }
+}
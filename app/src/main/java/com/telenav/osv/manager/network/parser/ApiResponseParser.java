@@ -144,12 +144,12 @@ public abstract class ApiResponseParser<T extends ApiResponse> {
                 Date date = Utils.onlineDateFormat.parse(dateFormat);
                 timestamp = date.getTime();
             } catch (ParseException parseException) {
-                Log.d(TAG, String.format("ParseException for date. Sequence id: %s. Exception: %s", id, parseException.getMessage()));
+                Log.d(TAG, "ParseException for date. Sequence id: %s. Exception: %s", id, parseException.getMessage());
             }
         } catch (NumberFormatException numberFormatException) {
-            Log.d(TAG, String.format("Number format exception. Sequence id: %s. Exception: %s", id, numberFormatException.getMessage()));
+            Log.d(TAG, "Number format exception. Sequence id: %s. Exception: %s", id, numberFormatException.getMessage());
         } catch (JSONException jsonException) {
-            Log.d(TAG, String.format("Json exception. Sequence id: %s. Exception: %s", id, jsonException.getMessage()));
+            Log.d(TAG, "Json exception. Sequence id: %s. Exception: %s", id, jsonException.getMessage());
         }
 
         SequenceDetails sequenceDetails = new SequenceDetails(initialLocation,
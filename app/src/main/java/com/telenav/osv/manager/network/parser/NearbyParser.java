@@ -66,7 +66,7 @@ public class NearbyParser extends ApiResponseParser<TrackCollection> {
                     }
                 }
             } catch (Exception exception) {
-                Log.d(TAG, String.format("Exception while parsing sequence. Exception: %s", exception.getMessage()));
+                Log.d(TAG, "Exception while parsing sequence. Exception: %s", exception.getMessage());
             }
         }
         return collectionData;
@@ -107,13 +107,13 @@ public class NearbyParser extends ApiResponseParser<TrackCollection> {
                 Date date = dateFormat.parse(dateStr);
                 timestamp = date.getTime();
             } catch (ParseException parseException) {
-                Log.d(TAG, String.format("ParseException for date. Sequence id: %s. Exception: %s", id, parseException.getMessage()));
+                Log.d(TAG, "ParseException for date. Sequence id: %s. Exception: %s", id, parseException.getMessage());
             }
             appVersion = jsonObject.getString("app_version");
         } catch (NumberFormatException numberFormatException) {
-            Log.d(TAG, String.format("Number format exception. Sequence id: %s. Exception: %s", id, numberFormatException.getMessage()));
+            Log.d(TAG, "Number format exception. Sequence id: %s. Exception: %s", id, numberFormatException.getMessage());
         } catch (JSONException jsonException) {
-            Log.d(TAG, String.format("Json exception. Sequence id: %s. Exception: %s", id, jsonException.getMessage()));
+            Log.d(TAG, "Json exception. Sequence id: %s. Exception: %s", id, jsonException.getMessage());
         }
 
         Location location = new Location(StringUtils.EMPTY_STRING);
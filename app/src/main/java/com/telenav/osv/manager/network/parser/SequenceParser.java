@@ -59,7 +59,7 @@ public class SequenceParser extends ApiResponseParser<TrackCollection> {
                 }
             }
         } catch (Exception exception) {
-            Log.d(TAG, String.format("Exception while parsing sequence. Exception: %s", exception.getMessage()));
+            Log.d(TAG, "Exception while parsing sequence. Exception: %s", exception.getMessage());
         }
 
         return collection;
@@ -86,7 +86,7 @@ public class SequenceParser extends ApiResponseParser<TrackCollection> {
         try {
             history = sequenceJsonFormat.getJSONObject(upload_history_argument_name);
         } catch (JSONException jsonException) {
-            Log.d(TAG, String.format("No upload history found. Parsing exception: %s", jsonException.getLocalizedMessage()));
+            Log.d(TAG, "No upload history found. Parsing exception: %s", jsonException.getLocalizedMessage());
             boolean uploadHistory = sequenceJsonFormat.getBoolean(upload_history_argument_name);
             if (!uploadHistory) {
                 Log.d(TAG, "No upload history found.");
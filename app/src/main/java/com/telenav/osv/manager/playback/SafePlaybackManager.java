@@ -41,6 +41,7 @@ import com.telenav.osv.utils.Utils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
@@ -57,6 +58,11 @@ public class SafePlaybackManager extends PlaybackManager implements SeekBar.OnSe
 
     private static final int OFFSCREEN_LIMIT = 20;
 
+    /**
+     * The number of frames loaded by a persistence query while the playback is prepared.
+     */
+    private static final int FRAMES_PAGE_SIZE = 100;
+
     private static long PLAYBACK_RATE = 250;
 
     private final LocalSequence mSequence;
@@ -366,22 +372,16 @@ public class SafePlaybackManager extends PlaybackManager implements SeekBar.OnSe
         final ArrayList<KVLatLng> track = new ArrayList<>();
         final String sequenceId = mSequence.getID();
         framesDisposable = frameLocalDataSource
-                .getFramesWithLocations(sequenceId)
+                .getFramesWithLocationsPaged(sequenceId, FRAMES_PAGE_SIZE)
                 .subscribeOn(Schedulers.io())
+                //each page is converted to the playback nodes when loaded, therefore the frames of the whole sequence are not held at once
+                .doOnNext(frames -> addFrames(frames, nodes, track))
+                .ignoreElements()
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                        //onSuccess
-                        frames -> {
-                            Log.d(TAG, String.format("loadFrames. Status: successful. Sequence id: %s. Message: Frames loaded successful for the sequence.", sequenceId));
-                            for (Frame frame : frames) {
-                                Location frameLocation = frame.getLocation();
-                                if (frameLocation != null && frameLocation.getLatitude() != 0.0 && frameLocation.getLongitude() != 0.0) {
-                                    int frameSeqIndex = frame.getIndex();
-                                    KVLatLng coord = new KVLatLng(frameLocation.getLatitude(), frameLocation.getLongitude(), frameSeqIndex);
-                                    nodes.add(new ImageFile(new KVFile(frame.getFilePath()), frameSeqIndex, coord, false));
-                                    track.add(coord);
-                                }
-                            }
+                        //onComplete
+                        () -> {
+                            Log.d(TAG, "loadFrames. Status: successful. Sequence id: %s. Message: Frames loaded successful for the sequence.", sequenceId);
                             Collections.sort(nodes, (lhs, rhs) -> lhs.index - rhs.index);
                             Collections.sort(track, (lhs, rhs) -> lhs.getIndex() - rhs.getIndex());
                             activity.enableProgressBar(false);
@@ -399,9 +399,22 @@ public class SafePlaybackManager extends PlaybackManager implements SeekBar.OnSe
                             play();
                         },
                         //onError
-                        throwable -> Log.d(TAG, String.format("loadFrames. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage())),
-                        //OnComplete
-                        () -> Log.d(TAG, String.format("loadFrames. Status: complete. Sequence id: %s. Message: Frames not found.", sequenceId)));
+                        throwable -> Log.d(TAG, "loadFrames. Status: error. Sequence id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage()));
+    }
+
+    /**
+     * Adds the playback node and the track coordinate of each frame with a valid location from the given page.
+     */
+    private void addFrames(List<Frame> frames, List<ImageFile> nodes, List<KVLatLng> track) {
+        for (Frame frame : frames) {
+            Location frameLocation = frame.getLocation();
+            if (frameLocation != null && frameLocation.getLatitude() != 0.0 && frameLocation.getLongitude() != 0.0) {
+                int frameSeqIndex = frame.getIndex();
+                KVLatLng coord = new KVLatLng(frameLocation.getLatitude(), frameLocation.getLongitude(), frameSeqIndex);
+                nodes.add(new ImageFile(new KVFile(frame.getFilePath()), frameSeqIndex, coord, false));
+                track.add(coord);
+            }
+        }
     }
 
     private void playImpl() {
@@ -213,7 +213,7 @@ public class VideoPlayerManager extends PlaybackManager implements SeekBar.OnSee
         if (nextFrame > seekBar.getMax()) {
             return;
         }
-        Log.d(TAG, String.format("next frame: %s", nextFrame));
+        Log.d(TAG, "next frame: %s", nextFrame);
         seekBar.setProgress(nextFrame);
         seekToPosition(nextFrame);
     }
@@ -224,7 +224,7 @@ public class VideoPlayerManager extends PlaybackManager implements SeekBar.OnSee
         if (previousFrame < 0) {
             return;
         }
-        Log.d(TAG, String.format("previous frame: %s", previousFrame));
+        Log.d(TAG, "previous frame: %s", previousFrame);
         seekBar.setProgress(previousFrame);
         seekToPosition(previousFrame);
     }
@@ -252,7 +252,7 @@ public class VideoPlayerManager extends PlaybackManager implements SeekBar.OnSee
     public void fastForward() {
         //double the speed for the fast forward
         float speed = player.getPlaybackParameters().speed * 2;
-        Log.d(TAG, String.format("fastForward: speed = %s", speed));
+        Log.d(TAG, "fastForward: speed = %s", speed);
         PlaybackParameters parameters = new PlaybackParameters(speed);
         player.setPlaybackParameters(parameters);
     }
@@ -262,7 +262,7 @@ public class VideoPlayerManager extends PlaybackManager implements SeekBar.OnSee
         //split the speed in half for fast backward
         //the minimum speed is 1f
         float speed = player.getPlaybackParameters().speed / 2;
-        Log.d(TAG, String.format("fastBackward: speed = %s", speed));
+        Log.d(TAG, "fastBackward: speed = %s", speed);
         PlaybackParameters parameters = new PlaybackParameters(speed < 1 ? 1f : speed);
         player.setPlaybackParameters(parameters);
     }
@@ -358,7 +358,7 @@ public class VideoPlayerManager extends PlaybackManager implements SeekBar.OnSee
 
     @Override
     public void onPlayerStateChanged(boolean playWhenReady, int playbackState) {
-        Log.d(TAG, String.format("onPlayerStateChanged: playWhenReady  - %s, playbackState - %s", playWhenReady, playbackState));
+        Log.d(TAG, "onPlayerStateChanged: playWhenReady  - %s, playbackState - %s", playWhenReady, playbackState);
         switch (playbackState) {
             case Player.STATE_IDLE:
                 handler.removeCallbacks(runnable);
@@ -421,7 +421,7 @@ public class VideoPlayerManager extends PlaybackManager implements SeekBar.OnSee
         int videoProgress = (progress - 1) * frameInterval;
         int videoIndex = videoProgress / videoDuration;
         int frameInMs = videoProgress - videoIndex * videoDuration;
-        Log.d(TAG, String.format("seekToPosition: frame progress %s, video index %s, frame in ms %s", videoProgress, videoIndex, frameInMs));
+        Log.d(TAG, "seekToPosition: frame progress %s, video index %s, frame in ms %s", videoProgress, videoIndex, frameInMs);
         player.seekTo(videoIndex, frameInMs);
     }
 }
\ No newline at end of file
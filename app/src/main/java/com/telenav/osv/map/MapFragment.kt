@@ -64,6 +64,11 @@ class MapFragment(private var mapMode: MapModes = MapModes.IDLE, private var pla
     }
 
     private var mapRender: MapRender? = null
+
+    /**
+     * Flag which marks that the gps trail updates were received before the [mapRender] was available, therefore the whole trail is required.
+     */
+    private var gpsTrailOutOfSync = false
     private lateinit var appPrefs: ApplicationPreferences
     private var mapboxMap: MapboxMap? = null
     private lateinit var fragmentMapBinding: FragmentMapBinding
@@ -227,9 +232,23 @@ class MapFragment(private var mapMode: MapModes = MapModes.IDLE, private var pla
 
     override fun onGpsTrailChanged(gpsTrail: List<Location>) {
         onMapMove()
+        gpsTrailOutOfSync = mapRender == null
         mapRender?.updateRecording(gpsTrail)
     }
 
+    override fun onGpsTrailAppended(location: Location, droppedCount: Int) {
+        onMapMove()
+        val mapRender = this.mapRender
+        if (mapRender == null) {
+            gpsTrailOutOfSync = true
+        } else if (gpsTrailOutOfSync) {
+            //the render missed previous updates, setting the listener again will send the whole trail
+            recordingViewModel.setListenerRecordingGpsTrail(this)
+        } else {
+            mapRender.appendRecording(location, droppedCount)
+        }
+    }
+
     /**
      * Switches the map mode for the map. This method only exposes the viewModel logic.
      * //ToDo: to be removed, recommended inject the view model directly for direct control of the fragment.
@@ -314,6 +333,7 @@ class MapFragment(private var mapMode: MapModes = MapModes.IDLE, private var pla
             Log.d(TAG, "observeOnMapRender. Map status change: $it")
             if (it.value == MapRenderMode.DISABLED.value) {
                 mapRender?.clearMap()
+                gpsTrailOutOfSync = true
                 val mapView = fragmentMapBinding.root.findViewById(R.id.mapView) as View
                 mapView.visibility = View.GONE
             } else {
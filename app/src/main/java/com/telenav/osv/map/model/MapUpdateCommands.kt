@@ -8,12 +8,15 @@ import com.telenav.osv.tasks.model.Task
  */
 open class MapUpdateBase
 
-open class MapUpdateBaseSequences(open var sequences: List<List<LatLng>>) : MapUpdateBase()
+/**
+ * Base command for the updates which display the local sequences, identified by the sequence id.
+ */
+open class MapUpdateBaseSequences(open var sequences: Map<String, List<LatLng>>) : MapUpdateBase()
 
-class MapUpdateRecording(sequences: List<List<LatLng>> = mutableListOf()) : MapUpdateBaseSequences(sequences)
+class MapUpdateRecording(sequences: Map<String, List<LatLng>> = mapOf()) : MapUpdateBaseSequences(sequences)
 
-class MapUpdateDefault(sequences: List<List<LatLng>> = mutableListOf()) : MapUpdateBaseSequences(sequences)
+class MapUpdateDefault(sequences: Map<String, List<LatLng>> = mapOf()) : MapUpdateBaseSequences(sequences)
 
-data class MapUpdateGrid(val tasks: List<Task> = arrayListOf(), val jarvisUserId: Int = 0, val includeLabels: Boolean = false, override var sequences: List<List<LatLng>> = mutableListOf()) : MapUpdateBaseSequences(sequences)
+data class MapUpdateGrid(val tasks: List<Task> = arrayListOf(), val jarvisUserId: Int = 0, val includeLabels: Boolean = false, override var sequences: Map<String, List<LatLng>> = mapOf()) : MapUpdateBaseSequences(sequences)
 
 data class MapUpdatePreview(val localSequence: List<LatLng>, val symbolLocation: LatLng? = null) : MapUpdateBase()
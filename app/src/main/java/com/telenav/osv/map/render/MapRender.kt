@@ -32,6 +32,7 @@ import com.telenav.osv.utils.Log
  * * [updatePreview]
  * * [updateRecording]
  * * [clearMap]
+ * * [appendRecording]
  * * [clearGpsTrail]
  * * [updateGrid]
  *
@@ -54,6 +55,11 @@ class MapRender(context: Context,
     private val mapTemplateHelper: MapRenderTemplateHelper = MapRenderTemplateHelper(renderGrid, renderGps, renderSymbol, renderGpsTrail, renderSequence, renderCoverage)
     private var lastCenterLocation: LatLng? = null
 
+    /**
+     * The sequences currently displayed by the [renderSequence], used in order to send only the changed sequences on update.
+     */
+    private val displayedSequences = HashMap<String, List<LatLng>>()
+
     /**
      * Renders the current template for the map denoted by the exposed [MapRenderTemplateIdentifier]
      * @param mapTemplateIdentifier the identifier for the template according to the map will be render by
@@ -73,16 +79,16 @@ class MapRender(context: Context,
     /**
      * Default rendering which will render the coverages, sequences and center on the current GPS location.
      */
-    fun updateDefault(sequences: List<List<LatLng>> = mutableListOf(), lastKnowLocation: LatLng? = null) {
-        renderSequence.update(sequences)
+    fun updateDefault(sequences: Map<String, List<LatLng>> = mapOf(), lastKnowLocation: LatLng? = null) {
+        updateSequences(sequences)
         centerOnCurrentLocation(lastKnowLocation)
     }
 
     /**
      * Rendering used in the case of the recording.
      */
-    fun updateRecording(lastKnowLocation: LatLng? = null, localSequences: List<List<LatLng>> = mutableListOf()) {
-        renderSequence.update(localSequences)
+    fun updateRecording(lastKnowLocation: LatLng? = null, localSequences: Map<String, List<LatLng>> = mapOf()) {
+        updateSequences(localSequences)
         centerOnCurrentLocation(lastKnowLocation, CameraMode.TRACKING)
     }
 
@@ -98,20 +104,29 @@ class MapRender(context: Context,
         }
     }
 
+    /**
+     * Rendering used in the case of the recording for the specific case of a location appended to the gps trail.
+     * @param location the location appended at the end of the gps trail.
+     * @param droppedCount the number of locations removed from the start of the gps trail.
+     */
+    fun appendRecording(location: Location, droppedCount: Int) {
+        renderGpsTrail.appendTrail(LatLng(location), droppedCount)
+    }
+
     /**
      * The grids rendering by using the given parameter and the user identifier.
      */
-    fun updateGrid(tasks: List<Task>, jarvisUserId: Int, includeLabels: Boolean, localSequences: List<List<LatLng>> = mutableListOf()) {
+    fun updateGrid(tasks: List<Task>, jarvisUserId: Int, includeLabels: Boolean, localSequences: Map<String, List<LatLng>> = mapOf()) {
         Log.d(TAG, "updateGrid. LocalSequences size: ${localSequences.size}. Task size: ${tasks.size}. Include labels: $includeLabels. Jarvis user id: $jarvisUserId.")
         renderGrid.updateGridView(tasks, jarvisUserId, includeLabels)
-        renderSequence.update(localSequences)
+        updateSequences(localSequences)
     }
 
     /**
      * The preview rendering which render the local sequence including the symbol. This will center internally around a bounding box.
      */
     fun updatePreview(localSequence: List<LatLng>, symbolLocation: LatLng?) {
-        renderSequence.update(listOf(localSequence))
+        updateSequences(mapOf(PREVIEW_SEQUENCE_ID to localSequence))
         if (symbolLocation != null) {
             renderSymbol.update(symbolLocation)
         }
@@ -129,9 +144,12 @@ class MapRender(context: Context,
         renderGps.clear()
         renderCoverage.clear()
         renderSequence.clear()
+        renderSequence.reset()
+        displayedSequences.clear()
         renderSymbol.clear()
         renderGrid.clear()
         renderGpsTrail.clear()
+        renderGpsTrail.reset()
     }
 
     /**
@@ -163,10 +181,28 @@ class MapRender(context: Context,
         return renderGrid.onMapClick(point)
     }
 
+    /**
+     * Updates the [renderSequence] only with the sequences which changed since the last update, the unchanged sequences are identified by id and reference.
+     */
+    private fun updateSequences(sequences: Map<String, List<LatLng>>) {
+        val removedIds = displayedSequences.keys.filter { !sequences.containsKey(it) }
+        val changedSequences = sequences.filter { (id, sequence) -> displayedSequences[id] !== sequence }
+        removedIds.forEach { displayedSequences.remove(it) }
+        displayedSequences.putAll(changedSequences)
+        renderSequence.update(changedSequences, removedIds)
+    }
+
     private fun centerOnBoundBox(latLngs: List<LatLng>) {
         val latLngBounds = LatLngBounds.Builder()
                 .includes(latLngs)
                 .build()
         mapboxMap.animateCamera(CameraUpdateFactory.newLatLngBounds(latLngBounds, 80))
     }
-}
\ No newline at end of file
+
+    private companion object {
+        /**
+         * The id used for the single sequence displayed in preview, which replaces all the other displayed sequences.
+         */
+        private const val PREVIEW_SEQUENCE_ID = "preview"
+    }
+}
@@ -15,62 +15,153 @@ import com.telenav.osv.R
 
 /**
  * The render related to gps trail which will draw on the map the trail representing a recording session for [MapboxMap]. This entry method for this is the [render] method while
- * for updates the [updateTrail] method which requires a list of [LatLng] which will represent the trail.
+ * for updates the [updateTrail] method which requires a list of [LatLng] which will represent the whole trail, or the [appendTrail] method for a location appended to the trail.
+ *
+ * The trail is split in chunks of [CHUNK_SIZE] points. The closed chunks are displayed by a source which is updated only when a chunk is closed or removed, while the last chunk
+ * which receives the appended points is displayed by a separate tip source. Therefore an appended point updates only a small source, regardless of the trail length.
  * @param context required for updating ui related resources on line properties
  */
 class MapBoxRenderGpsTrail(context: Context, mapBoxMap: MapboxMap) : MapBoxRenderBase(context, mapBoxMap) {
 
+    private val chunks = ArrayDeque<TrailChunk>()
+
+    private val tip = ArrayList<Point>(CHUNK_SIZE)
+
+    /**
+     * The number of points removed from the start of the trail which are still displayed, the oldest chunk is removed once all its points were removed.
+     */
+    private var pendingDroppedCount = 0
+
     /**
      * Update the gps trail based on given param.
      * @param gpsTrail the collection of [LatLng] representing the current gps trail.
      */
     fun updateTrail(gpsTrail: List<LatLng>) {
-        mapboxMap.getStyle {
-            it.getSource(SOURCE_ID_GPS_TRAIL)?.let { source ->
-                val featureCollection = FeatureCollection.fromFeature(
-                        Feature.fromGeometry(
-                                LineString.fromLngLats(gpsTrail.map { gpsTrailLatLng -> Point.fromLngLat(gpsTrailLatLng.longitude, gpsTrailLatLng.latitude) })))
-                val sourceGeoJson = source as GeoJsonSource
-                sourceGeoJson.setGeoJson(featureCollection)
-            }
+        reset()
+        for (latLng in gpsTrail) {
+            appendPoint(Point.fromLngLat(latLng.longitude, latLng.latitude))
         }
+        updateSource(SOURCE_ID_GPS_TRAIL, historyFeatureCollection())
+        updateSource(SOURCE_ID_GPS_TRAIL_TIP, tipFeatureCollection())
     }
 
     /**
-     * Clean the gps trail by removing both the layer and the source.
+     * Appends a point to the gps trail.
+     * @param latLng the point appended at the end of the trail.
+     * @param droppedCount the number of points removed from the start of the trail.
+     */
+    fun appendTrail(latLng: LatLng, droppedCount: Int) {
+        pendingDroppedCount += droppedCount
+        var historyChanged = false
+        while (chunks.isNotEmpty() && chunks.first().points.size <= pendingDroppedCount) {
+            pendingDroppedCount -= chunks.removeFirst().points.size
+            historyChanged = true
+        }
+        historyChanged = appendPoint(Point.fromLngLat(latLng.longitude, latLng.latitude)) || historyChanged
+        if (historyChanged) {
+            updateSource(SOURCE_ID_GPS_TRAIL, historyFeatureCollection())
+        }
+        updateSource(SOURCE_ID_GPS_TRAIL_TIP, tipFeatureCollection())
+    }
+
+    /**
+     * Removes the cached trail without updating the map.
+     */
+    fun reset() {
+        chunks.clear()
+        tip.clear()
+        pendingDroppedCount = 0
+    }
+
+    /**
+     * Clean the gps trail by removing both the layers and the sources.
      */
     override fun clear() {
         mapboxMap.getStyle {
             it.removeLayer(LAYER_ID_GPS_TRAIL)
+            it.removeLayer(LAYER_ID_GPS_TRAIL_TIP)
             it.removeSource(SOURCE_ID_GPS_TRAIL)
+            it.removeSource(SOURCE_ID_GPS_TRAIL_TIP)
         }
     }
 
     override fun render() {
         mapboxMap.getStyle {
-            it.addSource(GeoJsonSource(SOURCE_ID_GPS_TRAIL, FeatureCollection.fromFeatures(arrayListOf())))
-            // The layer properties for our line.
-            it.addLayer(
-                    LineLayer(LAYER_ID_GPS_TRAIL, SOURCE_ID_GPS_TRAIL)
-                            .withProperties(
-                                    PropertyFactory.lineDasharray(
-                                            arrayOf(
-                                                    DASHED_LINER_SIZE_DISTANCE,
-                                                    DASHED_LINE_TRAIL_SIZE
-                                            )
-                                    ),
-                                    PropertyFactory.lineCap(Property.LINE_CAP_ROUND),
-                                    PropertyFactory.lineJoin(Property.LINE_JOIN_ROUND),
-                                    PropertyFactory.lineWidth(LINE_WIDTH),
-                                    PropertyFactory.lineColor(context.resources.getColor(R.color.default_purple))
-                            )
-            )
+            it.addSource(GeoJsonSource(SOURCE_ID_GPS_TRAIL, historyFeatureCollection()))
+            it.addSource(GeoJsonSource(SOURCE_ID_GPS_TRAIL_TIP, tipFeatureCollection()))
+            it.addLayer(createTrailLayer(LAYER_ID_GPS_TRAIL, SOURCE_ID_GPS_TRAIL))
+            it.addLayer(createTrailLayer(LAYER_ID_GPS_TRAIL_TIP, SOURCE_ID_GPS_TRAIL_TIP))
+        }
+    }
+
+    /**
+     * @return `true` if the tip was closed as a chunk, `false` otherwise.
+     */
+    private fun appendPoint(point: Point): Boolean {
+        tip.add(point)
+        if (tip.size < CHUNK_SIZE) {
+            return false
+        }
+        chunks.addLast(TrailChunk(ArrayList(tip), chunks.lastOrNull()?.points?.last()))
+        tip.clear()
+        return true
+    }
+
+    private fun historyFeatureCollection(): FeatureCollection {
+        return FeatureCollection.fromFeatures(chunks.map { it.feature })
+    }
+
+    private fun tipFeatureCollection(): FeatureCollection {
+        val points = ArrayList<Point>(tip.size + 1)
+        chunks.lastOrNull()?.let { points.add(it.points.last()) }
+        points.addAll(tip)
+        if (points.size < 2) {
+            return FeatureCollection.fromFeatures(arrayListOf())
+        }
+        return FeatureCollection.fromFeature(Feature.fromGeometry(LineString.fromLngLats(points)))
+    }
+
+    private fun updateSource(sourceId: String, featureCollection: FeatureCollection) {
+        mapboxMap.getStyle {
+            it.getSource(sourceId)?.let { source ->
+                val sourceGeoJson = source as GeoJsonSource
+                sourceGeoJson.setGeoJson(featureCollection)
+            }
         }
     }
 
+    private fun createTrailLayer(layerId: String, sourceId: String): LineLayer {
+        // The layer properties for our line.
+        return LineLayer(layerId, sourceId)
+                .withProperties(
+                        PropertyFactory.lineDasharray(
+                                arrayOf(
+                                        DASHED_LINER_SIZE_DISTANCE,
+                                        DASHED_LINE_TRAIL_SIZE
+                                )
+                        ),
+                        PropertyFactory.lineCap(Property.LINE_CAP_ROUND),
+                        PropertyFactory.lineJoin(Property.LINE_JOIN_ROUND),
+                        PropertyFactory.lineWidth(LINE_WIDTH),
+                        PropertyFactory.lineColor(context.resources.getColor(R.color.default_purple))
+                )
+    }
+
+    /**
+     * A closed chunk of the trail with the feature built once when closed.
+     * @param points the points of the chunk.
+     * @param previousPoint the last point of the previous chunk, used in order to connect the chunks.
+     */
+    private class TrailChunk(val points: List<Point>, previousPoint: Point?) {
+        val feature: Feature = Feature.fromGeometry(LineString.fromLngLats(if (previousPoint == null) points else listOf(previousPoint) + points))
+    }
+
     private companion object {
         private const val SOURCE_ID_GPS_TRAIL = "geojson-gps-trail"
         private const val LAYER_ID_GPS_TRAIL = "layer-gps-trail"
+        private const val SOURCE_ID_GPS_TRAIL_TIP = "geojson-gps-trail-tip"
+        private const val LAYER_ID_GPS_TRAIL_TIP = "layer-gps-trail-tip"
+        private const val CHUNK_SIZE = 200
         private const val DASHED_LINER_SIZE_DISTANCE = 0.01f
         private const val DASHED_LINE_TRAIL_SIZE = 2f
         private const val LINE_WIDTH = 5f
@@ -15,34 +15,45 @@ import com.telenav.osv.R
 import com.telenav.osv.utils.LogUtils
 
 /**
- * The render related to sequence for [MapboxMap]. This entry method for this is the [render] method while for updates the [update] method which requires a list of lists of [LatLng] which will represent a list of sequences in point format.
+ * The render related to sequence for [MapboxMap]. This entry method for this is the [render] method while for updates the [update] method which requires the changed sequences, identified by their ids, in point format and the ids of the removed sequences.
+ *
+ * The features are cached by sequence id in order to build only the features for the changed sequences on each update.
  */
 class MapBoxRenderSequence(
         context: Context,
         mapboxMap: MapboxMap) : MapBoxRenderBase(context, mapboxMap) {
 
+    private val features = LinkedHashMap<String, Feature>()
+
     /**
      * Update the given parameters for the source which was added while implementing the [render] method.
-     * @param sequences a list containing a list of points which encapsulated a sequence.
+     * @param changedSequences the sequences which were added or changed since the last update, identified by the sequence id.
+     * @param removedIds the ids of the sequences which were removed since the last update.
      */
-    fun update(sequences: List<List<LatLng>> = mutableListOf()) {
+    fun update(changedSequences: Map<String, List<LatLng>> = mapOf(), removedIds: Collection<String> = listOf()) {
+        for (id in removedIds) {
+            features.remove(id)
+        }
+        for ((id, sequence) in changedSequences) {
+            features[id] = Feature.fromGeometry(LineString.fromLngLats(sequence.map { Point.fromLngLat(it.longitude, it.latitude) }))
+        }
         mapboxMap.getStyle { style ->
             style.getSource(ID_SOURCE_SEQUENCES)?.let {
-                val features = mutableListOf<Feature>()
-                for (sequence in sequences) {
-                    features.add(
-                            Feature.fromGeometry(
-                                    LineString.fromLngLats(sequence.map { Point.fromLngLat(it.longitude, it.latitude) }))
-                    )
-                }
-                val featureCollection = FeatureCollection.fromFeatures(features)
-                LogUtils.logDebug("MapBoxRenderSequence", "feature collection size: ${featureCollection.features()?.size}")
+                val featureCollection = FeatureCollection.fromFeatures(features.values.toList())
+                LogUtils.logDebug("MapBoxRenderSequence", "feature collection size: ${featureCollection.features()?.size}. Changed: ${changedSequences.size}. Removed: ${removedIds.size}")
                 val geoJsonSource = it as GeoJsonSource
                 geoJsonSource.setGeoJson(featureCollection)
             }
         }
     }
 
+    /**
+     * Removes all the cached features, the next [update] will need to provide all the sequences as changed.
+     */
+    fun reset() {
+        features.clear()
+    }
+
     override fun render() {
         mapboxMap.getStyle { style ->
             style.addSource(GeoJsonSource(ID_SOURCE_SEQUENCES, FeatureCollection.fromFeatures(mutableListOf<Feature>())))
@@ -13,6 +13,7 @@ import com.telenav.osv.application.PreferenceTypes
 import com.telenav.osv.common.Injection
 import com.telenav.osv.common.model.KVLatLng
 import com.telenav.osv.data.location.datasource.LocationLocalDataSource
+import com.telenav.osv.data.location.model.SequencePolyline
 import com.telenav.osv.data.user.datasource.UserDataSource
 import com.telenav.osv.event.EventBus
 import com.telenav.osv.event.SdkEnabledEvent
@@ -31,9 +32,10 @@ import com.telenav.osv.map.model.MapModes
 import com.telenav.osv.map.render.mapbox.grid.loader.GridsLoader
 import com.telenav.osv.ui.fragment.camera.controls.viewmodel.RecordingViewModel
 import com.telenav.osv.utils.Log
-import com.telenav.osv.utils.StringUtils
+import com.telenav.osv.utils.PolylineUtils
 import com.telenav.osv.utils.Utils
 import com.telenav.osv.utils.getMapMode
+import io.reactivex.Single
 import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.schedulers.Schedulers
@@ -65,6 +67,11 @@ class MapViewModel(private val locationLocalDataSource: LocationLocalDataSource,
     private var boundingBoxUS = KVBoundingBox(KVLatLng(49.034, -125.041), KVLatLng(24.519, -68.701))
     private var jarvisUserId: Int? = null
 
+    /**
+     * The decoded local sequences polylines, identified by the sequence id. The lists are not changed once cached, which allows the render to skip the unchanged sequences.
+     */
+    private val localSequences = LinkedHashMap<String, List<LatLng>>()
+
     init {
         TAG = MapViewModel::class.java.simpleName
     }
@@ -410,38 +417,51 @@ class MapViewModel(private val locationLocalDataSource: LocationLocalDataSource,
         mutableLocationEnable.postValue(enable)
     }
 
+    /**
+     * Displays the local sequences by using the persisted simplified polyline of each sequence. The decoded polylines are cached by sequence id, therefore only the polylines
+     * of new sequences are loaded, while the removed sequences are dropped from the cache. The sequences without a polyline, e.g. recorded by an older version, are processed
+     * before loading.
+     */
     private fun displayAllLocalSequences(mapRenderBaseSequences: MapUpdateBaseSequences) {
+        val currentSequenceId = recordingViewModel.currentSequenceIdIfSet
         disposables.add(
-                locationLocalDataSource
-                        .locations
+                Single.fromCallable { locationLocalDataSource.persistMissingSequencePolylines(currentSequenceId) }
+                        .flatMap { locationLocalDataSource.sequencePolylineIds }
+                        .flatMap { sequenceIds ->
+                            val displayedIds = sequenceIds.filter { it != currentSequenceId }
+                            val missingIds = synchronized(localSequences) {
+                                localSequences.keys.retainAll(displayedIds)
+                                displayedIds.filter { !localSequences.containsKey(it) }
+                            }
+                            Log.d(TAG, "displayAllLocalSequences. Sequences size: ${displayedIds.size}. Loading: ${missingIds.size}")
+                            if (missingIds.isEmpty()) Single.just(emptyList<SequencePolyline>()) else locationLocalDataSource.getSequencePolylines(missingIds)
+                        }
+                        .map { polylines ->
+                            synchronized(localSequences) {
+                                for (polyline in polylines) {
+                                    localSequences[polyline.sequenceId] = toLatLngs(polyline.encodedPoints)
+                                }
+                                LinkedHashMap(localSequences)
+                            }
+                        }
                         .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
-                                { locations ->
-                                    val sequences = mutableListOf<List<LatLng>>()
-                                    if (locations.isEmpty()) {
-                                        Log.d(TAG, "displayAllLocalSequences. Status: abort. Message: Empty sequences.")
-                                        mapRenderBaseSequences.sequences = mutableListOf()
-                                        mutableMapUpdate.postValue(mapRenderBaseSequences)
-                                        return@subscribe
-                                    }
-                                    val sequencesGrouped = locations.filter { location ->
-                                        location.sequenceId != (recordingViewModel.currentSequenceIdIfSet
-                                                ?: StringUtils.EMPTY_STRING)
-                                    }.groupBy { it.sequenceId }
-                                    Log.d(TAG, "displayAllLocalSequences. Locations size: ${sequencesGrouped.size}")
-                                    for ((_, value) in sequencesGrouped) {
-                                        sequences.add(value.map { LatLng(it.location) })
-                                    }
+                                { sequences ->
                                     mapRenderBaseSequences.sequences = sequences
                                     mutableMapUpdate.postValue(mapRenderBaseSequences)
                                 },
                                 //onError
                                 { throwable ->
-                                    Log.d(TAG, String.format("displayLocalSequencesRunnable. Status: error. Message: %s.", throwable.localizedMessage))
+                                    Log.d(TAG, "displayLocalSequencesRunnable. Status: error. Message: %s.", throwable.localizedMessage)
                                 }))
     }
 
+    private fun toLatLngs(encodedPoints: String): List<LatLng> {
+        val coordinates = PolylineUtils.decode(encodedPoints)
+        return List(coordinates.size / 2) { LatLng(coordinates[it * 2], coordinates[it * 2 + 1]) }
+    }
+
     /**
      * Enables/disables the map buttons, i.e. record and position.
      *
@@ -70,6 +70,21 @@ public interface KVApi {
             @Part(KVApiRequestsFields.SEQUENCE_INDEX) RequestBody videoIndexInSequence,
             @Part MultipartBody.Part videoFile);
 
+    /**
+     * Uploads a byte range of a video file. The ranges are sent in order, the server acknowledges each range with a valid status and assembles the video after the range
+     * which ends at {@code totalSize}. Called only when {@code BuildConfig.VIDEO_CHUNKED_UPLOAD} is enabled, since the servers do not provide it yet.
+     */
+    @Multipart
+    @Streaming
+    @POST("1.0/video/chunk/")
+    Single<ResponseModelUploadVideo> uploadVideoChunk(
+            @Part(KVApiRequestsFields.ACCESS_TOKEN) RequestBody accessToken,
+            @Part(KVApiRequestsFields.SEQUENCE_ID) RequestBody onlineSequenceId,
+            @Part(KVApiRequestsFields.SEQUENCE_INDEX) RequestBody videoIndexInSequence,
+            @Part("chunkOffset") RequestBody chunkOffset,
+            @Part("totalSize") RequestBody totalSize,
+            @Part MultipartBody.Part videoChunk);
+
     @StringDef
     @interface KVApiRequestsFields {
         String ACCESS_TOKEN = "access_token";
@@ -50,7 +50,7 @@ class FactoryServerEndpointUrl(private val applicationPreferences: ApplicationPr
         } else {
             BuildConfig.KV_BASE_URL
         }
-        Log.d(TAG, String.format("invalidate. Status: set environment. Environment: %s.", url))
+        Log.d(TAG, "invalidate. Status: set environment. Environment: %s.", url)
         return url
     }
 
@@ -63,7 +63,7 @@ class FactoryServerEndpointUrl(private val applicationPreferences: ApplicationPr
         } else {
             BuildConfig.KV_BASE_URL
         }
-        Log.d(TAG, String.format("invalidate. Status: set environment. Environment: %s.", url))
+        Log.d(TAG, "invalidate. Status: set environment. Environment: %s.", url)
         return url
     }
 
@@ -0,0 +1,61 @@
+package com.telenav.osv.network.request;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import javax.annotation.Nullable;
+import org.jetbrains.annotations.NotNull;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Request body which streams a byte range of a file, used in order to upload a large file in chunks.
+ * <p> The file is opened on each {@link #writeTo(BufferedSink)} call, therefore the body can be written again when the request is retried.
+ */
+public class FileRangeRequestBody extends RequestBody {
+
+    private final MediaType contentType;
+
+    private final File file;
+
+    private final long offset;
+
+    private final long length;
+
+    /**
+     * Default constructor for the current class.
+     * @param contentType the media type of the file.
+     * @param file the file from which the range is read.
+     * @param offset the offset in bytes of the range in the file.
+     * @param length the length in bytes of the range.
+     */
+    public FileRangeRequestBody(@Nullable MediaType contentType, File file, long offset, long length) {
+        this.contentType = contentType;
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            inputStream.getChannel().position(offset);
+            Source source = Okio.source(inputStream);
+            sink.write(source, length);
+        }
+    }
+}
@@ -43,7 +43,7 @@ public class ProgressRequestBody extends RequestBody {
         try {
             return delegate.contentLength();
         } catch (IOException e) {
-            Log.d(TAG, String.format("contentLength. Status: error. Message: %s", e.getLocalizedMessage()));
+            Log.d(TAG, "contentLength. Status: error. Message: %s", e.getLocalizedMessage());
         }
         return UNKOWN_BYTES_SIZE;
     }
@@ -83,7 +83,7 @@ public class UploadInterceptor extends NetworkConnectionInterceptor {
                         //onSuccess
                         isInternetAvailable -> this.isInternetAvailable = isInternetAvailable,
                         //error
-                        throwable -> Log.d(TAG, String.format("constructor. Status: error on internet. Message: %s.", throwable.getMessage())));
+                        throwable -> Log.d(TAG, "constructor. Status: error on internet. Message: %s.", throwable.getMessage()));
     }
 
     @Override
@@ -28,7 +28,7 @@ public class ProgressResponseInterceptor implements Interceptor {
 
         String progressResponseIdentifier = originalResponse.request().header(NetworkRequestHeaderIdentifiers.HEADER_REQUEST_IDENTIFIER);
         boolean fileIdentifierIsSet = progressResponseIdentifier != null && !progressResponseIdentifier.isEmpty();
-        Log.d(TAG, String.format("intercept. Status: %s. Message: Progress response identifier set status.", fileIdentifierIsSet));
+        Log.d(TAG, "intercept. Status: %s. Message: Progress response identifier set status.", fileIdentifierIsSet);
 
         if (fileIdentifierIsSet) {
             builder.body(
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
 import com.telenav.osv.item.KVFile;
+import com.telenav.osv.network.request.FileRangeRequestBody;
 import com.telenav.osv.network.request.ProgressRequestBody;
 import com.telenav.osv.network.request.ProgressRequestListener;
 
@@ -77,6 +78,25 @@ public class NetworkRequestConverter {
         return MultipartBody.Part.createFormData(name, file.getName(), requestBody);
     }
 
+    /**
+     * Generate a MultipartBody.Part object for a byte range of the given file, used for the upload of a file in chunks.
+     * <p> This will either create a generic body or a progress specific one based on the null or set value of the given {@code progressRequestListener} param.
+     *
+     * @return {@code MultipartBody.Part} with given params wrapped into specific format.
+     */
+    public static MultipartBody.Part generateMultipartBodyPart(@MediaTypesDef String type,
+                                                               String name,
+                                                               KVFile file,
+                                                               long offset,
+                                                               long length,
+                                                               @Nullable ProgressRequestListener progressRequestListener) {
+        RequestBody requestBody = new FileRangeRequestBody(getMediaType(type), file, offset, length);
+        if (progressRequestListener != null) {
+            requestBody = generateProgressRequestBody(requestBody, progressRequestListener);
+        }
+        return MultipartBody.Part.createFormData(name, file.getName(), requestBody);
+    }
+
     public static ProgressRequestBody generateProgressRequestBody(RequestBody requestBody, ProgressRequestListener progressRequestListener) {
         return new ProgressRequestBody(requestBody, progressRequestListener);
     }
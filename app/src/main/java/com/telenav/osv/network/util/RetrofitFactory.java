@@ -72,14 +72,14 @@ public class RetrofitFactory {
     }
 
     /**
-     * @return a new {@code OkHttpClient} instance with {@link UploadInterceptor} attached.
+     * @return a new {@code OkHttpClient} instance with {@link UploadInterceptor} attached, derived from the {@link SharedHttpClient}.
      */
     private static OkHttpClient provideUploadOkHttpClient(SimpleEventBus simpleEventBus,
                                                           ApplicationPreferences applicationPreferences,
                                                           Context context,
                                                           ListenerDefault noInternetListener) {
         // Add the interceptor to OkHttpClient
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        OkHttpClient.Builder builder = SharedHttpClient.newBuilder();
         builder.connectTimeout(TIMEOUT_UPLOAD_IN_MINUTES, TimeUnit.MINUTES);
         builder.readTimeout(TIMEOUT_UPLOAD_IN_MINUTES, TimeUnit.MINUTES);
         builder.writeTimeout(TIMEOUT_UPLOAD_IN_MINUTES, TimeUnit.MINUTES);
@@ -88,10 +88,10 @@ public class RetrofitFactory {
     }
 
     /**
-     * This method provides generic OkHttpClient builder
+     * This method provides generic OkHttpClient builder, derived from the {@link SharedHttpClient}.
      */
     private static OkHttpClient.Builder provideGenericOkHttpClientBuilder() {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        OkHttpClient.Builder builder = SharedHttpClient.newBuilder();
         builder.connectTimeout(CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS);
         builder.readTimeout(READ_TIMEOUT, TimeUnit.MILLISECONDS);
         builder.writeTimeout(WRITE_TIMEOUT, TimeUnit.MILLISECONDS);
@@ -0,0 +1,55 @@
+package com.telenav.osv.network.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import androidx.annotation.NonNull;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Holder for the HTTP transport shared by all the clients of the application: Retrofit, Jarvis, MapBox and the legacy Volley requests.
+ * <p>
+ * The shared client owns the only connection pool and dispatcher. Each client is derived from it by {@link #newBuilder()}, which keeps the pool and the dispatcher while
+ * allowing its own interceptors and timeouts, therefore the connections to the same host are reused, multiplexed over HTTP/2 when the server supports it, by all the clients.
+ */
+public class SharedHttpClient {
+
+    /**
+     * The maximum number of idle connections kept in the pool.
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+
+    /**
+     * The time an idle connection is kept in the pool.
+     */
+    private static final long KEEP_ALIVE_DURATION_IN_MINUTES = 5;
+
+    private static OkHttpClient instance;
+
+    private SharedHttpClient() {}
+
+    /**
+     * @return the shared {@code OkHttpClient} instance, which has no interceptors and the default timeouts.
+     */
+    @NonNull
+    public static synchronized OkHttpClient get() {
+        if (instance == null) {
+            instance = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_IN_MINUTES, TimeUnit.MINUTES))
+                    .dispatcher(new Dispatcher())
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .build();
+        }
+        return instance;
+    }
+
+    /**
+     * @return a new {@code OkHttpClient} builder which shares the connection pool and the dispatcher of the shared client.
+     */
+    @NonNull
+    public static OkHttpClient.Builder newBuilder() {
+        return get().newBuilder();
+    }
+}
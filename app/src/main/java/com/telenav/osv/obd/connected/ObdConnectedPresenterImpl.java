@@ -232,7 +232,7 @@ public class ObdConnectedPresenterImpl implements ObdConnectedPresenter {
         int durationHour = Hours.hoursBetween(recordStartTime, localDateTime).getHours();
         localDateTime = localDateTime.minusHours(durationHour);
         int durationMin = Minutes.minutesBetween(recordStartTime, localDateTime).getMinutes();
-        Log.d(TAG, String.format("Update duration. Hour: %s. Minutes: %s", durationHour, durationMin));
+        Log.d(TAG, "Update duration. Hour: %s. Minutes: %s", durationHour, durationMin);
         view.updateDuration(durationHour, durationMin);
     }
 }
@@ -123,7 +123,7 @@ public class ObdManager implements ObdConnectionListener, EventDataListener {
 
     @Override
     public void onConnectionStateChanged(Context context, String source, int statusCode) {
-        Log.d(TAG, String.format("OBD connection state changed. Source: %s. Status code: %s,", source, statusCode));
+        Log.d(TAG, "OBD connection state changed. Source: %s. Status code: %s,", source, statusCode);
         if (statusCode != LibraryUtil.OBD_REATTEMPT_CONNECTION) {
             notifyObdDisconnected();
         }
@@ -131,13 +131,13 @@ public class ObdManager implements ObdConnectionListener, EventDataListener {
 
     @Override
     public void onConnectionStopped(String source) {
-        Log.d(TAG, String.format("OBD connection stopped. Source: %s,", source));
+        Log.d(TAG, "OBD connection stopped. Source: %s,", source);
         notifyObdDisconnected();
     }
 
     @Override
     public void onDeviceConnected(Context context, String source) {
-        Log.d(TAG, String.format("OBD device connected. Source: %s.", source));
+        Log.d(TAG, "OBD device connected. Source: %s.", source);
         notifyObdConnecting();
     }
 
@@ -154,12 +154,12 @@ public class ObdManager implements ObdConnectionListener, EventDataListener {
                 }
                 speedData = new SpeedData((int) (speedObject.getSpeed()), baseObject.getTimestamp());
             }
-            Log.d(TAG, String.format("Obd speed sensor. Speed: %s. Error: %s", speedObject.getSpeed(), speedObject.getErrorCodeDescription()));
+            Log.d(TAG, "Obd speed sensor. Speed: %s. Error: %s", speedObject.getSpeed(), speedObject.getErrorCodeDescription());
             for (ObdConnectionListener listener : mObdConnectionListener) {
                 listener.onSpeedObtained(speedData);
             }
         } else {
-            Log.d(TAG, String.format("Unsupported sensor type: %s", baseObject.getSensorType()));
+            Log.d(TAG, "Unsupported sensor type: %s", baseObject.getSensorType());
         }
     }
 
@@ -315,7 +315,7 @@ public class ObdManager implements ObdConnectionListener, EventDataListener {
      * @return {@code true} if the setup has been successful, {@code false} otherwise.
      */
     private boolean setupDataCollectorForObd(@ObdTypes int type, @Nullable String bleDeviceMacAddress) {
-        Log.d(TAG, String.format("Setup obd for type: %s.", type));
+        Log.d(TAG, "Setup obd for type: %s.", type);
         if (type == ObdTypes.NOT_SET) {
             return false;
         }
@@ -73,7 +73,7 @@ public class ObdConnectionDialogPresenterImpl implements ObdConnectionDialogCont
         } else {
             setupObd = obdManager.setupObd(obdType);
         }
-        Log.d(TAG, String.format("OBD setup. Type: %s. Address: %s.Success status: %s", obdType, address, setupObd));
+        Log.d(TAG, "OBD setup. Type: %s. Address: %s.Success status: %s", obdType, address, setupObd);
         if (setupObd) {
             startCollecting();
         }
@@ -87,7 +87,7 @@ public class ObdConnectionDialogPresenterImpl implements ObdConnectionDialogCont
 
     @Override
     public void onSpeedObtained(SpeedData speed) {
-        Log.d(TAG, String.format("Obd speed received: %s", speed.getSpeed()));
+        Log.d(TAG, "Obd speed received: %s", speed.getSpeed());
         if (speed.getSpeed() != -1) {
             view.updateUiForObdConnected();
         }
@@ -60,7 +60,7 @@ class ObdBleDevicesPresenterImpl extends ObdConnectionDialogPresenterImpl implem
 
     @Override
     public void onDeviceSelected(String address) {
-        Log.d(TAG, String.format("Device selected. Address: %s", address));
+        Log.d(TAG, "Device selected. Address: %s", address);
         if (address != null && !address.isEmpty()) {
             mBtAdapter.cancelDiscovery();
             applicationPreferences.saveBooleanPreference(PreferenceTypes.K_OBD_MANUAL_STOPPED, false);
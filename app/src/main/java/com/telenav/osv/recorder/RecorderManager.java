@@ -22,6 +22,7 @@ import com.telenav.osv.application.KVApplication;
 import com.telenav.osv.application.PreferenceTypes;
 import com.telenav.osv.command.PhotoCommand;
 import com.telenav.osv.common.Injection;
+import com.telenav.osv.data.location.datasource.LocationLocalDataSource;
 import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
 import com.telenav.osv.data.sequence.model.LocalSequence;
 import com.telenav.osv.data.sequence.model.details.SequenceDetails;
@@ -64,6 +65,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.CompletableObserver;
 import io.reactivex.Observable;
@@ -127,6 +129,11 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
 
     private SequenceLocalDataSource sequenceLocalDataSource;
 
+    /**
+     * The location data source used in order to persist the simplified polyline of a finished sequence.
+     */
+    private LocationLocalDataSource locationLocalDataSource;
+
     /**
      * @see com.telenav.osv.data.user.datasource.local.UserLocalDataSource
      */
@@ -136,6 +143,11 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
 
     private Disposable takePictureDisposable;
 
+    /**
+     * The number of frames of the current recording which were not captured since the previous frame was still being captured or persisted.
+     */
+    private final AtomicInteger skippedFrameCount = new AtomicInteger();
+
     /**
      * The recording {@code Subject} which emits a {@code Boolean} to the currently subscribed observers.
      * The value emitted will be {@code true} if the recording started,{@code false } otherwise.
@@ -162,9 +174,15 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
      */
     private GpsTrailHelper gpsTrailHelper;
 
+    /**
+     * Finalises the recorded sequence once the persistence committed all its frames.
+     */
+    private RecordingSequenceFinisher sequenceFinisher;
+
     public RecorderManager(@NonNull KVApplication app,
                            @NonNull UserDataSource userLocalDataSource,
                            @NonNull SequenceLocalDataSource sequenceLocalDataSource,
+                           @NonNull LocationLocalDataSource locationLocalDataSource,
                            @NonNull ObdManager obdManager,
                            @NonNull Shutter shutterManager,
                            @NonNull MetadataSensorManager metadataSensorManager,
@@ -174,6 +192,8 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
         this.mOBDManager = obdManager;
         this.shutterManager = shutterManager;
         this.sequenceLocalDataSource = sequenceLocalDataSource;
+        this.sequenceFinisher = new RecordingSequenceFinisher(sequenceLocalDataSource);
+        this.locationLocalDataSource = locationLocalDataSource;
         this.metadataSensorManager = metadataSensorManager;
         this.gpsTrailHelper = gpsTrailHelper;
         int coreNum = 1;
@@ -274,10 +294,10 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
             long sequenceSize = sequence.getLocalDetails().getDiskSize();
             long newSequenceSize = sequenceSize + metadataSize;
             Log.d(TAG,
-                    String.format("onMetadataLoggingFinished. Status: update disk size. Sequence size: %s. Metadata size: %s. New size: %s.",
-                            sequenceSize,
-                            metadataSize,
-                            newSequenceSize));
+                    "onMetadataLoggingFinished. Status: update disk size. Sequence size: %s. Metadata size: %s. New size: %s.",
+                    sequenceSize,
+                    metadataSize,
+                    newSequenceSize);
             sequenceLocalDataSource.updateDiskSize(sequenceId, newSequenceSize);
             sequence.getLocalDetails().setDiskSize(newSequenceSize);
             appPrefs.removePreference(PreferenceTypes.K_CURRENT_SEQUENCE_ID);
@@ -319,6 +339,7 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
         shutterManager.onRecordingStateChanged(true);
         observeOnTakeImageRequests();
         mThreadPoolExec.execute(() -> {
+            skippedFrameCount.set(0);
             recording = true;
             //save the start record time
             long currentTimeMillis = LocalDateTime.now().toDateTime().getMillis();
@@ -336,7 +357,7 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
                         sequence.setRewardDetails(rewardBase);
                     },
                     //onError
-                    throwable -> Log.d(TAG, String.format("startRecording. Status: error. Message: %s.", throwable.getLocalizedMessage())),
+                    throwable -> Log.d(TAG, "startRecording. Status: error. Message: %s.", throwable.getLocalizedMessage()),
                     //onComplete
                     () -> Log.d(TAG, "startRecording. Status: complete. Message: User not found.")
             );
@@ -398,6 +419,13 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
         return recording;
     }
 
+    /**
+     * @return the number of frames of the current recording which were skipped since the previous frame was still being captured or persisted, e.g. the storage is slow.
+     */
+    public int getSkippedFrameCount() {
+        return skippedFrameCount.get();
+    }
+
     /**
      * The method is used to stop the recording. When a recording is stopped the number of frames for the current sequence is updated.
      * <p>If the number of frames for the current sequence is 0 then the device folder and its data from the persistence will be removed.
@@ -478,37 +506,23 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
             //resets the recording
             appPrefs.saveLongPreference(PreferenceTypes.K_RECORD_START_TIME, 0);
             recording = false;
+            if (skippedFrameCount.get() != 0) {
+                Log.w(TAG, "getStopRecordingRunnable. Status: frames skipped. Skipped frames: %s. Message: Frames were skipped due to the persistence backpressure.",
+                        skippedFrameCount.get());
+            }
             if (!appPrefs.getBooleanPreference(PreferenceTypes.K_FOCUS_MODE_STATIC) && camera != null) {
                 camera.unlockFocus();
             }
+            //the persistence stop is awaited since it commits the pending frames of the sequence, therefore the sequence is checked and the metadata is stopped only after it
+            boolean persistenceStopped = sequenceFinisher.stopPersistence(recordingPersistence);
+            metadataSensorManager.stop();
+            //the identifier of the finished sequence for which the map polyline is persisted, set only if the sequence is valid
+            String polylineSequenceId = null;
             //if the last sequence was created but no frames was stored for it, then the sequence will be removed
             if (sequence != null) {
-                SequenceDetailsLocal sequenceDetailsLocal = sequence.getLocalDetails();
-                String sequenceID = sequence.getID();
-                KVFile sequenceFolder = sequenceDetailsLocal.getFolder();
-                // if the sequence metadata is missing or the sequence does not have any locations persisted any data related to it both on the persistence and on db.
-                if (!Utils.doesMetadataExist(sequenceFolder) || sequence.getCompressionDetails().getLocationsCount() == 0) {
-                    boolean sequenceRemove = sequenceLocalDataSource.deleteSequence(sequenceID);
-                    Log.d(TAG,
-                            String.format(
-                                    "getStopRecordingRunnable removeSequence. Status: %s. Id: %s. Message: Removing sequence due issues with either location or metadata.",
-                                    sequenceRemove,
-                                    sequenceID));
-                    if (sequenceFolder != null) {
-                        boolean folderRemoved = sequenceFolder.delete();
-                        Log.d(TAG,
-                                String.format(
-                                        "getStopRecordingRunnable removeSequence. Status: %s. Id: %s. Message: Deleting folder for the sequence.",
-                                        folderRemoved,
-                                        sequenceID));
-                    }
-                } else {
+                if (sequenceFinisher.finishSequence(sequence)) {
                     Log.d(TAG, "getStopRecordingRunnable. Status: schedule auto-upload. Message: Scheduling auto-upload for the new recorder sequence.");
-                    boolean updateMetadataDiskSize = sequenceLocalDataSource.updateDiskSize(sequenceID,
-                            sequence.getLocalDetails().getDiskSize() + Utils.getMetadataSize(sequenceFolder));
-                    Log.d(TAG, String.
-                            format("getStopRecordingRunnable add metadata to disk size. Status: %s. Message: Attempting to update disk size of the sequence.",
-                                    updateMetadataDiskSize));
+                    polylineSequenceId = sequence.getID();
                     //ToDo: schedule auto-upload
                 }
 
@@ -528,7 +542,7 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
                                     bundle.putDouble("length", sequenceDetails.getDistance());
                                     analytics.logEvent("recorded_track", bundle);
                                 },
-                                throwable -> Log.d(TAG, String.format("getStopRecordingRunnable getUser. Status: error. Message: %s.", throwable.getLocalizedMessage())),
+                                throwable -> Log.d(TAG, "getStopRecordingRunnable getUser. Status: error. Message: %s.", throwable.getLocalizedMessage()),
                                 () -> {
                                     Log.d(TAG, "getStopRecordingRunnable getUser. Status: complete. Message: User not found.");
                                     SequenceDetails sequenceDetails = sequence.getDetails();
@@ -543,19 +557,29 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
                         );
             }
             Log.d(TAG, "stopRecording");
-            if (recordingPersistence != null) {
-                recordingPersistence.stop()
-                        .subscribe(() -> {
-                            Log.d(TAG, "stop RecordingPersistence. Status: success");
-                        }, throwable -> {
-                            Log.d(TAG, String.format("stop RecordingPersistence. Status: error. Message: %s", throwable.getMessage()));
-                        });
+            if (persistenceStopped) {
+                //the polyline is persisted after the persistence stopped in order to include all the locations of the sequence
+                persistSequencePolyline(polylineSequenceId);
             }
-            metadataSensorManager.stop();
             gpsTrailHelper.stop(null);
         };
     }
 
+    /**
+     * Persists the simplified polyline of a finished sequence, which is displayed on the map instead of all the sequence locations.
+     * @param sequenceId the identifier of the finished sequence, if {@code null} nothing will be persisted.
+     */
+    private void persistSequencePolyline(@Nullable String sequenceId) {
+        if (sequenceId == null) {
+            return;
+        }
+        try {
+            locationLocalDataSource.persistSequencePolyline(sequenceId);
+        } catch (Exception e) {
+            Log.d(TAG, "persistSequencePolyline. Status: error. Id: %s. Message: %s.", sequenceId, e.getMessage());
+        }
+    }
+
     /**
      * @return {@code LocalSequence} representing the new recorded sequence with default values.
      */
@@ -687,8 +711,11 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
             return;
         }
         //check if a take frame operation is already started, then wait for that operation until is finished
-        //before starting a new one.
+        //before starting a new one. The operation is also held while the frame persistence is full, e.g. the storage is slow,
+        //which is the backpressure from the persistence to the frame capture.
         if (takePictureDisposable != null && !takePictureDisposable.isDisposed()) {
+            Log.w(TAG, "takeFrame. Status: skipped. Skipped frames: %s. Message: The previous frame is still being captured or persisted.",
+                    skippedFrameCount.incrementAndGet());
             return;
         }
         takePictureDisposable = camera.takePicture()
@@ -704,7 +731,7 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
                             //update UI with EventBuss (of course) to show data on recorder screen
                             ImageSavedEvent imageSavedEvent = new ImageSavedEvent(sequence.getDetails().getDistance(),
                                     sequence.getLocalDetails().getDiskSize(),
-                                    sequence.getCompressionDetails().getLocationsCount(), location);
+                                    sequence.getCompressionDetails().getLocationsCount(), location, skippedFrameCount.get());
                             EventBus.post(imageSavedEvent);
                             imageCapturePublishSubject.onNext(imageSavedEvent);
                         },
@@ -714,8 +741,8 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
                                 Log.d(TAG, "takeFrame. Status: timeout.");
                                 return;
                             }
-                            Log.d(TAG, String.format("takeFrame. Status: error. Error message: %s. Sequence id: %s. Video compression: %s. Recording started: %s",
-                                    throwable.getMessage(), sequence.getID(), isVideoCompression(), recording));
+                            Log.d(TAG, "takeFrame. Status: error. Error message: %s. Sequence id: %s. Video compression: %s. Recording started: %s",
+                                    throwable.getMessage(), sequence.getID(), isVideoCompression(), recording);
                             if (appPrefs.getBooleanPreference(PreferenceTypes.K_VIDEO_MODE_ENABLED)) {
                                 Toast.makeText(mContext, R.string.encoding_error_message, Toast.LENGTH_SHORT).show();
                             } else {
@@ -723,11 +750,11 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
                             }
                             if (throwable instanceof MediaCodec.CodecException) {
                                 MediaCodec.CodecException codecException = (MediaCodec.CodecException) throwable;
-                                Log.d(TAG, String.format("takeFrame. diagnostic %s ", codecException.getDiagnosticInfo()));
-                                Log.d(TAG, String.format("takeFrame. isRecoverable %s ", codecException.isRecoverable()));
-                                Log.d(TAG, String.format("takeFrame. isTransient %s", codecException.isTransient()));
+                                Log.d(TAG, "takeFrame. diagnostic %s ", codecException.getDiagnosticInfo());
+                                Log.d(TAG, "takeFrame. isRecoverable %s ", codecException.isRecoverable());
+                                Log.d(TAG, "takeFrame. isTransient %s", codecException.isTransient());
                             } else {
-                                Log.d(TAG, String.format("takeFrame. Status: error. Exception: %s %s", throwable.getMessage(), throwable.getClass().getSimpleName()));
+                                Log.d(TAG, "takeFrame. Status: error. Exception: %s %s", throwable.getMessage(), throwable.getClass().getSimpleName());
                             }
                             internalStopRecording();
                         });
@@ -738,7 +765,7 @@ public class RecorderManager implements ObdConnectionListener, MetadataWrittingS
      */
     private boolean isDiskSpaceUnavailable() {
         boolean isDiskSpaceUnavailable = Utils.getAvailableSpace(mContext) <= MIN_FREE_SPACE;
-        Log.d(TAG, String.format("Disk space available: %s", isDiskSpaceUnavailable));
+        Log.d(TAG, "Disk space available: %s", isDiskSpaceUnavailable);
         return isDiskSpaceUnavailable;
     }
 }
\ No newline at end of file
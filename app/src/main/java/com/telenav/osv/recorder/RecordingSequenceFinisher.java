@@ -0,0 +1,77 @@
+package com.telenav.osv.recorder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
+import com.telenav.osv.data.sequence.model.LocalSequence;
+import com.telenav.osv.item.KVFile;
+import com.telenav.osv.recorder.persistence.RecordingPersistence;
+import com.telenav.osv.utils.Log;
+import com.telenav.osv.utils.Utils;
+
+/**
+ * Finalises the recorded sequence when the recording stops.
+ * <p>
+ * The persistence has to be stopped before the sequence is finished since the stop commits the pending frames of the sequence, therefore the locations count and the disk
+ * size of the sequence are final only after it.
+ */
+class RecordingSequenceFinisher {
+
+    private static final String TAG = RecordingSequenceFinisher.class.getSimpleName();
+
+    /**
+     * The local data source for the sequence.
+     */
+    private SequenceLocalDataSource sequenceLocalDataSource;
+
+    /**
+     * Default constructor for the current class.
+     * @param sequenceLocalDataSource the local data source for the sequence.
+     */
+    RecordingSequenceFinisher(@NonNull SequenceLocalDataSource sequenceLocalDataSource) {
+        this.sequenceLocalDataSource = sequenceLocalDataSource;
+    }
+
+    /**
+     * Stops the recording persistence and awaits the commit of all the pending frames.
+     * @param recordingPersistence the persistence used for the recording, if {@code null} there is nothing to stop.
+     * @return {@code true} if the persistence stopped successfully or there was no persistence, {@code false} otherwise.
+     */
+    boolean stopPersistence(@Nullable RecordingPersistence recordingPersistence) {
+        if (recordingPersistence == null) {
+            return true;
+        }
+        Throwable stopError = recordingPersistence.stop().blockingGet();
+        if (stopError != null) {
+            Log.d(TAG, "stopPersistence. Status: error. Message: %s", stopError.getMessage());
+            return false;
+        }
+        Log.d(TAG, "stopPersistence. Status: success");
+        return true;
+    }
+
+    /**
+     * Finishes the sequence after the persistence was stopped. The sequence is removed if either the metadata or the locations are missing, otherwise the size of the
+     * metadata is added to the disk size of the sequence.
+     * @param sequence the recorded sequence.
+     * @return {@code true} if the sequence was kept, {@code false} if it was removed.
+     */
+    boolean finishSequence(@NonNull LocalSequence sequence) {
+        String sequenceID = sequence.getID();
+        KVFile sequenceFolder = sequence.getLocalDetails().getFolder();
+        // if the sequence metadata is missing or the sequence does not have any locations persisted any data related to it both on the persistence and on db.
+        if (!Utils.doesMetadataExist(sequenceFolder) || sequence.getCompressionDetails().getLocationsCount() == 0) {
+            boolean sequenceRemove = sequenceLocalDataSource.deleteSequence(sequenceID);
+            Log.d(TAG, "finishSequence removeSequence. Status: %s. Id: %s. Message: Removing sequence due issues with either location or metadata.", sequenceRemove, sequenceID);
+            if (sequenceFolder != null) {
+                boolean folderRemoved = sequenceFolder.delete();
+                Log.d(TAG, "finishSequence removeSequence. Status: %s. Id: %s. Message: Deleting folder for the sequence.", folderRemoved, sequenceID);
+            }
+            return false;
+        }
+        boolean updateMetadataDiskSize = sequenceLocalDataSource.updateDiskSize(sequenceID,
+                sequence.getLocalDetails().getDiskSize() + Utils.getMetadataSize(sequenceFolder));
+        Log.d(TAG, "finishSequence add metadata to disk size. Status: %s. Message: Attempting to update disk size of the sequence.", updateMetadataDiskSize);
+        return true;
+    }
+}
@@ -111,7 +111,7 @@ public class CameraManager implements Camera {
             cameraVersion = CAMERA_API_V1;
             cameraInitialization = new Camera1InitManager(context, pictureSize, screenSize, getSupportedImageFormat());
         } else {
-            Log.d(TAG, String.format("CameraApiV2: hardware level is %s.", cameraInitialization.getHardwareLevel()));
+            Log.d(TAG, "CameraApiV2: hardware level is %s.", cameraInitialization.getHardwareLevel());
         }
         this.ioScheduler = Schedulers.single();
     }
@@ -276,11 +276,11 @@ public class CameraManager implements Camera {
                 currentSize.getWidth(),
                 currentSize.getHeight());
         Log.d(TAG,
-                String.format("getCameraSensorDataAsync. Status: success. Current fLength: %s. Current hFoV: %s. Current vFoV: %s. Current apperture: %s",
-                        data.getFocalLength(),
-                        data.getHorizontalFOV(),
-                        data.getVerticalFOV(),
-                        data.getLensAperture()));
+                "getCameraSensorDataAsync. Status: success. Current fLength: %s. Current hFoV: %s. Current vFoV: %s. Current apperture: %s",
+                data.getFocalLength(),
+                data.getHorizontalFOV(),
+                data.getVerticalFOV(),
+                data.getLensAperture());
     }
 
     @Override
@@ -469,7 +469,7 @@ public class CameraManager implements Camera {
             backgroundThread = null;
             backgroundHandler = null;
         } catch (InterruptedException e) {
-            Log.e(TAG, String.format("stopBackground: %s", e.getMessage()));
+            Log.e(TAG, "stopBackground: %s", e.getMessage());
         }
     }
 
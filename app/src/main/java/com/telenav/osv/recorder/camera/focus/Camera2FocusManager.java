@@ -118,7 +118,7 @@ public class Camera2FocusManager implements Focus {
                                 captureSession.setRepeatingRequest(previewRequestBuilder.build(), null, null);
                             }
                         } catch (CameraAccessException | IllegalStateException | IllegalArgumentException e) {
-                            Log.e(TAG, String.format("Camera state: CAMERA_STATE_FOCUS_LOCKED - %s", e.getMessage()));
+                            Log.e(TAG, "Camera state: CAMERA_STATE_FOCUS_LOCKED - %s", e.getMessage());
                         }
                     }
                     break;
@@ -134,7 +134,7 @@ public class Camera2FocusManager implements Focus {
                                 captureSession.setRepeatingRequest(previewRequestBuilder.build(), captureCallback, null);
                             }
                         } catch (CameraAccessException | IllegalStateException | IllegalArgumentException e) {
-                            Log.e(TAG, String.format("Camera state: CAMERA_STATE_TAPPED_TO_FOCUS - %s", e.getMessage()));
+                            Log.e(TAG, "Camera state: CAMERA_STATE_TAPPED_TO_FOCUS - %s", e.getMessage());
                         }
                     }
                     break;
@@ -149,7 +149,7 @@ public class Camera2FocusManager implements Focus {
                             }
                         }
                     } catch (CameraAccessException | IllegalStateException | IllegalArgumentException e) {
-                        Log.e(TAG, String.format("Camera state: CAMERA_STATE_AUTO_FOCUS - %s", e.getMessage()));
+                        Log.e(TAG, "Camera state: CAMERA_STATE_AUTO_FOCUS - %s", e.getMessage());
                     }
                 }
             }
@@ -183,7 +183,7 @@ public class Camera2FocusManager implements Focus {
                 cameraState = CAMERA_STATE_TAPPED_TO_FOCUS;
                 captureSession.capture(previewRequestBuilder.build(), captureCallback, backgroundHandler);
             } catch (CameraAccessException | IllegalStateException | IllegalArgumentException e) {
-                Log.e(TAG, String.format("focusOnArea: %s", e.getMessage()));
+                Log.e(TAG, "focusOnArea: %s", e.getMessage());
             }
         }
     }
@@ -204,7 +204,7 @@ public class Camera2FocusManager implements Focus {
                 captureSession.capture(previewRequestBuilder.build(), captureCallback,
                         backgroundHandler);
             } catch (CameraAccessException | IllegalStateException | IllegalArgumentException e) {
-                Log.e(TAG, String.format("lockFocus: %s", e.getMessage()));
+                Log.e(TAG, "lockFocus: %s", e.getMessage());
             }
         }
     }
@@ -224,7 +224,7 @@ public class Camera2FocusManager implements Focus {
                 captureSession.setRepeatingRequest(previewRequestBuilder.build(), captureCallback,
                         backgroundHandler);
             } catch (CameraAccessException | IllegalStateException | IllegalArgumentException e) {
-                Log.e(TAG, String.format("unlockFocus: %s", e.getMessage()));
+                Log.e(TAG, "unlockFocus: %s", e.getMessage());
             }
         }
     }
@@ -288,7 +288,7 @@ public class Camera2FocusManager implements Focus {
             rect.left = rect.left + normalizeFocusValue;
             rect.right = rect.right + normalizeFocusValue;
         }
-        Log.d(TAG, String.format("Focus rectangle: left = %s; top = %s; right = %s; bottom = %s", rect.left, rect.top, rect.right, rect.bottom));
+        Log.d(TAG, "Focus rectangle: left = %s; top = %s; right = %s; bottom = %s", rect.left, rect.top, rect.right, rect.bottom);
         MeteringRectangle[] focusArea = new MeteringRectangle[]{new MeteringRectangle(rect, MeteringRectangle.METERING_WEIGHT_MAX - 1)};
         Integer autoFocusMaxRegion = cameraCharacteristics.get(CameraCharacteristics.CONTROL_MAX_REGIONS_AF);
         synchronized (syncObject) {
@@ -249,7 +249,7 @@ public class Camera1InitManager extends CameraInitManager implements Camera.Erro
 
     @Override
     public void onError(int error, Camera camera) {
-        Log.e(TAG, String.format("onError. Status: error. Message: An error occurred during the camera usage: errorId %s; camera %s", error, camera.toString()));
+        Log.e(TAG, "onError. Status: error. Message: An error occurred during the camera usage: errorId %s; camera %s", error, camera.toString());
         synchronized (syncObject) {
             closeCamera();
             reopenCamera();
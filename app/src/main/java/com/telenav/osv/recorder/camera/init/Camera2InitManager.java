@@ -25,6 +25,7 @@ import com.telenav.osv.recorder.camera.model.CameraFrame;
 import com.telenav.osv.recorder.camera.util.CameraError;
 import com.telenav.osv.recorder.camera.util.CameraHelper;
 import com.telenav.osv.recorder.camera.util.SizeMap;
+import com.telenav.osv.recorder.camera.util.YuvFramePacker;
 import com.telenav.osv.utils.Log;
 import com.telenav.osv.utils.Size;
 
@@ -59,11 +60,6 @@ public class Camera2InitManager extends CameraInitManager {
      */
     private static final int LOCK_TIME_OUT = 2500;
 
-    /**
-     * Divider for frame data pixels array.
-     */
-    private static final int QUARTER_DIVIDER = 4;
-
     /**
      * Constant used to calculate the horizontal field of view.
      */
@@ -144,6 +140,11 @@ public class Camera2InitManager extends CameraInitManager {
 
     private int hardwareLevel;
 
+    /**
+     * Packer which removes the plane padding from the {@code YUV} images, reused for all the frames of the current capture session.
+     */
+    private YuvFramePacker framePacker = new YuvFramePacker();
+
     /**
      * Callback to listen for new images or frames having the required image format.
      * The received frame or image byte array are redirected to the camera observer which
@@ -158,7 +159,7 @@ public class Camera2InitManager extends CameraInitManager {
         try {
             planes = image.getPlanes();
         } catch (IllegalStateException e) {
-            Log.d(TAG, String.format("onImageAvailable. Status: error. Operation: getPlanes. Message: %s", e.getMessage()));
+            Log.d(TAG, "onImageAvailable. Status: error. Operation: getPlanes. Message: %s", e.getMessage());
             return;
         }
         if (planes.length > 0 && shouldTakeFrame) {
@@ -173,7 +174,7 @@ public class Camera2InitManager extends CameraInitManager {
                     try {
                         cameraFrame = getCameraFrame(planes);
                     } catch (IllegalStateException e) {
-                        Log.d(TAG, String.format("onImageAvailable. Status: error. Operation: getCameraFrame Message: %s", e.getMessage()));
+                        Log.d(TAG, "onImageAvailable. Status: error. Operation: getCameraFrame Message: %s", e.getMessage());
                         image.close();
                         return;
                     }
@@ -321,6 +322,7 @@ public class Camera2InitManager extends CameraInitManager {
                 imageReader.close();
                 imageReader = null;
             }
+            framePacker.release();
             cameraDeviceData = null;
         } catch (Exception e) {
             Log.d(TAG, "Close camera: " + e.getMessage());
@@ -388,7 +390,7 @@ public class Camera2InitManager extends CameraInitManager {
                             capturePicture();
                         }
                     } catch (CameraAccessException | IllegalStateException e) {
-                        Log.d(TAG, String.format("addCameraPreviewSession: Failed to start camera preview - %s", e.getMessage()));
+                        Log.d(TAG, "addCameraPreviewSession: Failed to start camera preview - %s", e.getMessage());
                     }
                 }
 
@@ -403,7 +405,7 @@ public class Camera2InitManager extends CameraInitManager {
                 }
             }, backgroundHandler);
         } catch (CameraAccessException | NullPointerException | IllegalStateException | IllegalArgumentException e) {
-            Log.d(TAG, String.format("addCameraPreviewSession: %s", e.getMessage()));
+            Log.d(TAG, "addCameraPreviewSession: %s", e.getMessage());
         }
     }
 
@@ -445,7 +447,7 @@ public class Camera2InitManager extends CameraInitManager {
                         }
                         captureSession.setRepeatingRequest(previewRequest, null, backgroundHandler);
                     } catch (CameraAccessException | IllegalStateException e) {
-                        Log.d(TAG, String.format("createNoCameraPreviewSession: Failed to start camera preview - %s", e.getMessage()));
+                        Log.d(TAG, "createNoCameraPreviewSession: Failed to start camera preview - %s", e.getMessage());
                     }
                 }
 
@@ -456,7 +458,7 @@ public class Camera2InitManager extends CameraInitManager {
                 }
             }, backgroundHandler);
         } catch (Exception e) {
-            Log.d(TAG, String.format("createNoCameraPreviewSession: %s", e.getMessage()));
+            Log.d(TAG, "createNoCameraPreviewSession: %s", e.getMessage());
         }
     }
 
@@ -560,7 +562,7 @@ public class Camera2InitManager extends CameraInitManager {
                     }
                 }, backgroundHandler);
             } catch (CameraAccessException e) {
-                Log.d(TAG, String.format("Cannot take pictures - %s", e.getMessage()));
+                Log.d(TAG, "Cannot take pictures - %s", e.getMessage());
                 frameByteEmitter.onError(new CameraError(CameraError.ERROR_CAPTURE_FAILED));
             }
         }
@@ -574,81 +576,27 @@ public class Camera2InitManager extends CameraInitManager {
      * @throws IllegalStateException if the frame buffer is inaccessible.
      */
     private CameraFrame getCameraFrame(Image.Plane[] planes) throws IllegalStateException {
-        //the length for Y component is equal with the picture dimension
-        int yLength = pictureSize.getWidth() * pictureSize.getHeight();
-        //the length for U or V component is a quarter of the picture dimension.
-        int uvLength = yLength / QUARTER_DIVIDER;
         //get Y data frame with padding
         Image.Plane yPlane = planes[0];
         ByteBuffer yBuffer = yPlane.getBuffer();
-        Log.d(TAG, String.format("getCameraFrame. Y frame data remaining: %s  row stride: %s  pixel stride: %s",
-                yBuffer.remaining(), yPlane.getRowStride(), yPlane.getPixelStride()));
-        readYFrameData(yBuffer, yPlane.getRowStride(), pictureSize.getWidth(), pictureSize.getHeight());
+        Log.d(TAG, "getCameraFrame. Y frame data remaining: %s  row stride: %s  pixel stride: %s",
+                yBuffer.remaining(), yPlane.getRowStride(), yPlane.getPixelStride());
+        int index = framePacker.packLumaPlane(yBuffer, yPlane.getRowStride(), pictureSize.getWidth(), pictureSize.getHeight(), frameData, 0);
         //get U data frame with padding
         Image.Plane uPlane = planes[1];
         ByteBuffer uBuffer = uPlane.getBuffer();
-        Log.d(TAG, String.format("getCameraFrame. U frame data remaining: %s row stride: %s pixel stride: %s",
-                uBuffer.remaining(), uPlane.getRowStride(), uPlane.getPixelStride()));
-        readUVFrameData(uBuffer, uPlane.getRowStride(), uPlane.getPixelStride(), yLength, pictureSize.getWidth(), pictureSize.getHeight());
+        Log.d(TAG, "getCameraFrame. U frame data remaining: %s row stride: %s pixel stride: %s",
+                uBuffer.remaining(), uPlane.getRowStride(), uPlane.getPixelStride());
+        index = framePacker.packChromaPlane(uBuffer, uPlane.getRowStride(), uPlane.getPixelStride(), pictureSize.getWidth(), pictureSize.getHeight(), frameData, index);
         //get V data frame with padding
         Image.Plane vPlane = planes[2];
         ByteBuffer vBuffer = vPlane.getBuffer();
-        Log.d(TAG, String.format("getCameraFrame. V frame data remaining: %s row stride: %s pixel stride: %s",
-                vBuffer.remaining(), vPlane.getRowStride(), vPlane.getPixelStride()));
-        readUVFrameData(vBuffer, vPlane.getRowStride(), vPlane.getPixelStride(), yLength + uvLength, pictureSize.getWidth(), pictureSize.getHeight());
+        Log.d(TAG, "getCameraFrame. V frame data remaining: %s row stride: %s pixel stride: %s",
+                vBuffer.remaining(), vPlane.getRowStride(), vPlane.getPixelStride());
+        framePacker.packChromaPlane(vBuffer, vPlane.getRowStride(), vPlane.getPixelStride(), pictureSize.getWidth(), pictureSize.getHeight(), frameData, index);
         return new CameraFrame(frameData, imageFormat);
     }
 
-    /**
-     * Reads the U or V data from the given buffer and updates {@link #frameData} array.
-     * Frame data <tt>length</tt>:
-     * <ul>
-     * <li>Y data <tt>length</tt>: <tt>width * height</tt></li>
-     * <li>U data <tt>length</tt>: <tt>(width * height) / 2</tt></li>
-     * <li>V data <tt>length</tt>: <tt>(width * height) / 2</tt></li>
-     * </ul>
-     *
-     * @param uvFrameData the buffer for the U or V component.
-     * @param rowStride   the row stride for determining the row padding for the frame.
-     * @param pixelStride the pixel stride for determining the vertical padding for teh current frame
-     * @param index       the start index from where the data should be written in the {@link #frameData} array.
-     * @param width       the frame width
-     * @param height      the frame height.
-     */
-    private void readUVFrameData(ByteBuffer uvFrameData, int rowStride, int pixelStride, int index, int width, int height) {
-        for (int row = 0; row < height / 2; row++) {
-            for (int col = 0; col < width / 2; col++) {
-                frameData[index] = uvFrameData.get(col * pixelStride + row * (rowStride));
-                index++;
-            }
-        }
-    }
-
-    /**
-     * Reads the Y data from the given buffer and updates {@link #frameData} array.
-     * Frame data <tt>length</tt>:
-     * <ul>
-     * <li>Y data <tt>length</tt>: <tt>width * height</tt></li>
-     * <li>U data <tt>length</tt>: <tt>(width * height) / 2</tt></li>
-     * <li>V data <tt>length</tt>: <tt>(width * height) / 2</tt></li>
-     * </ul>
-     *
-     * @param yFrameData the buffer for the Y component.
-     * @param rowStride  the row stride for determining the row padding for the current frame.
-     * @param width      the frame width.
-     * @param height     the frame height.
-     */
-    private void readYFrameData(ByteBuffer yFrameData, int rowStride, int width, int height) {
-        ByteBuffer yBuffer = ByteBuffer.allocate(width * height);
-        byte[] yData = new byte[yFrameData.remaining()];
-        yFrameData.get(yData, 0, yFrameData.remaining());
-        for (int i = 0; i < height; i++) {
-            yBuffer.put(yData, i * rowStride, width);
-        }
-        yBuffer.flip();
-        yBuffer.get(frameData, 0, width * height);
-    }
-
     /**
      * Sets the auto exposure ON for the capture session.
      */
@@ -672,7 +620,7 @@ public class Camera2InitManager extends CameraInitManager {
                 captureSession.close();
                 captureSession = null;
             } catch (CameraAccessException | IllegalStateException e) {
-                Log.d(TAG, String.format("removePreviewFromCaptureSession: %s", e.getMessage()));
+                Log.d(TAG, "removePreviewFromCaptureSession: %s", e.getMessage());
             }
         }
     }
@@ -687,7 +635,7 @@ public class Camera2InitManager extends CameraInitManager {
         try {
             captureRequestBuilder = cameraDevice.createCaptureRequest(CameraDevice.TEMPLATE_STILL_CAPTURE);
         } catch (CameraAccessException e) {
-            Log.d(TAG, String.format("createCaptureRequest - %s", e.getMessage()));
+            Log.d(TAG, "createCaptureRequest - %s", e.getMessage());
         }
         if (captureRequestBuilder == null) {
             return null;
@@ -713,7 +661,7 @@ public class Camera2InitManager extends CameraInitManager {
         if (imageReader != null) {
             imageReader.close();
         }
-        Log.d(TAG, String.format("Image Reader: %s %s", pictureSize.getWidth(), pictureSize.getHeight()));
+        Log.d(TAG, "Image Reader: %s %s", pictureSize.getWidth(), pictureSize.getHeight());
         imageReader = ImageReader.newInstance(pictureSize.getWidth(), pictureSize.getHeight(), imageFormat, 2);
         imageReader.setOnImageAvailableListener(imageAvailableListener, backgroundHandler);
     }
@@ -775,7 +723,7 @@ public class Camera2InitManager extends CameraInitManager {
                 cameraCharacteristicsSubject.onNext(cameraCharacteristics);
             }
         } catch (CameraAccessException e) {
-            Log.d(TAG, String.format("prepareCameraCharacteristicForTheCaptureSession: %s", e.getMessage()));
+            Log.d(TAG, "prepareCameraCharacteristicForTheCaptureSession: %s", e.getMessage());
         }
     }
 
@@ -826,8 +774,8 @@ public class Camera2InitManager extends CameraInitManager {
         android.util.Size pixelArraySize = cameraCharacteristics.get(CameraCharacteristics.SENSOR_INFO_PIXEL_ARRAY_SIZE);
 
         if (sensorPhysicalSize == null || activeArraySize == null || pixelArraySize == null) {
-            Log.d(TAG, String.format("getHorizontalFieldOfView. Null data found. Sensor physical size: %s. Active array size: %s. Pixel array size: %s.", sensorPhysicalSize,
-                    activeArraySize, pixelArraySize));
+            Log.d(TAG, "getHorizontalFieldOfView. Null data found. Sensor physical size: %s. Active array size: %s. Pixel array size: %s.", sensorPhysicalSize,
+                    activeArraySize, pixelArraySize);
             return new Pair<>(horizontalFieldOfView, verticalFieldOfView);
         }
         int cameraAspectRatio = pictureSize.getWidth() / pictureSize.getHeight();
@@ -845,8 +793,8 @@ public class Camera2InitManager extends CameraInitManager {
 
         horizontalFieldOfView = calculateFieldOfView(outputPhysicalWidth, focalLength);
         verticalFieldOfView = calculateFieldOfView(outputPhysicalHeight, focalLength);
-        Log.d(TAG, String.format("getHorizontalFieldOfView. Output physical width: %s. Output physical height: %s. hFoV: %s. vFoV: %s", outputPhysicalWidth, outputPhysicalHeight
-                , horizontalFieldOfView, verticalFieldOfView));
+        Log.d(TAG, "getHorizontalFieldOfView. Output physical width: %s. Output physical height: %s. hFoV: %s. vFoV: %s", outputPhysicalWidth, outputPhysicalHeight
+                , horizontalFieldOfView, verticalFieldOfView);
         return new Pair<>(horizontalFieldOfView, verticalFieldOfView);
     }
 
@@ -11,6 +11,7 @@ import com.telenav.osv.recorder.camera.model.CameraDeviceData;
 import com.telenav.osv.recorder.camera.model.CameraFrame;
 import com.telenav.osv.recorder.camera.util.CameraHelper;
 import com.telenav.osv.recorder.camera.util.SizeMap;
+import com.telenav.osv.recorder.encoder.converter.FrameConverter;
 import com.telenav.osv.utils.Log;
 import com.telenav.osv.utils.Size;
 import com.telenav.osv.utils.Utils;
@@ -133,10 +134,10 @@ public abstract class CameraInitManager implements CameraInitialization {
     public void setPictureSize(Size pictureSize) {
         if (pictureSize == null || pictureSize.getWidth() == 0 || pictureSize.getHeight() == 0) {
             this.pictureSize = getDefaultPictureSize();
-            Log.d(TAG, String.format("setPictureSize. Status: Cached picture size not detected. Message: width - %s height - %s", this.pictureSize.getWidth(), this.pictureSize.getHeight()));
+            Log.d(TAG, "setPictureSize. Status: Cached picture size not detected. Message: width - %s height - %s", this.pictureSize.getWidth(), this.pictureSize.getHeight());
         } else {
             this.pictureSize = pictureSize;
-            Log.d(TAG, String.format("setPictureSize. Status: Cached picture size detected. Message: width - %s height - %s", this.pictureSize.getWidth(), this.pictureSize.getHeight()));
+            Log.d(TAG, "setPictureSize. Status: Cached picture size detected. Message: width - %s height - %s", this.pictureSize.getWidth(), this.pictureSize.getHeight());
         }
     }
 
@@ -170,28 +171,12 @@ public abstract class CameraInitManager implements CameraInitialization {
     }
 
     /**
-     * Initializes the frame buffer by allocating the size for the raw frame and for the converted data.
-     * The buffer length is depending on the image format.
-     * <ul>
-     * <li>{@link ImageFormat#NV21}</li>
-     * <p>
-     * The raw frame data length is: width * height + (width * height) / 2.
-     * The converted frame data length is: width * height + (width * height) / 2.
-     * </p>
-     * <li>{@link ImageFormat#YUV_420_888}</li>
-     * <p>
-     * The raw frame data length is: width * height + (width * height) / 2.
-     * The converted frame data length is: width * height + (width * height) / 2.
-     * </p>
-     * </ul>
-     * The total frame buffer is set to the highest needed space which is for the YUV format, therefore the total length for the frame buffer is:
-     * 3 * width * height.
-     * In case the frame format is NV21 between the raw frame data and the converted frame data will be a padding of (width * height) / 2.
+     * Initializes the frame buffer by allocating the size for the raw frame.
+     * For both {@link ImageFormat#NV21} and {@link ImageFormat#YUV_420_888} the raw frame data length is: width * height + (width * height) / 2.
+     * The conversion to the encoder color format writes straight into the encoder input buffer, therefore no space is reserved for the converted frame.
      */
     void initFrameBuffer(Size frameSize) {
-        //The buffer multiplier is defined by summing up the raw data length and converted data length.
-        int bufferMultiplier = 3;
-        frameData = ByteBuffer.allocateDirect(bufferMultiplier * frameSize.getWidth() * frameSize.getHeight()).array();
+        frameData = ByteBuffer.allocateDirect(FrameConverter.getFrameLength(frameSize.getWidth(), frameSize.getHeight())).array();
     }
 
     protected abstract void setDeviceOrientation(int deviceOrientation);
@@ -64,16 +64,6 @@ public class CameraHelper {
      */
     private static final int HALF_DIVIDER = 2;
 
-    /**
-     * Value for dividing a number to a quarter.
-     */
-    private static final int QUARTER_DIVIDER = 4;
-
-    /**
-     * Value to double a number.
-     */
-    private static final int DOUBLE_MULTIPLIER = 2;
-
     /**
      * The number of regions for the auto-focus (AF) or auto-exposure (AE) routine.
      * If the number of regions is equal to this value, then the AF or AE feature is not available on device.
@@ -150,8 +140,8 @@ public class CameraHelper {
             }
         }
         if (optimalSize != null) {
-            Log.d(TAG, String.format("chooseOptimalPreviewSize. Container size (width x height): %s x %s. Optimal size (width x height): %s x %s. ",
-                    containerWidth, containerHeight, optimalSize.getWidth(), optimalSize.getHeight()));
+            Log.d(TAG, "chooseOptimalPreviewSize. Container size (width x height): %s x %s. Optimal size (width x height): %s x %s. ",
+                    containerWidth, containerHeight, optimalSize.getWidth(), optimalSize.getHeight());
         }
         return optimalSize;
     }
@@ -399,149 +389,4 @@ public class CameraHelper {
     public static int getOrientation(int rotation, int sensorOrientation) {
         return (sensorOrientation + rotation) % MAXIMUM_ROTATION_DEGREES_360;
     }
-
-    /**
-     * Convert the camera output NV21 format to YUV420 Planar.
-     * This YUV format is used for frame encoding.
-     * <ul>The format representation:
-     * <li>NV21: Y0Y1Y2...V0U0V2U2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * <li>YUV420Planar: Y0Y1Y2...U0U2...V0V2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * </ul>
-     * In order to achieve the conversion between NV21 to YUV420Planar
-     * the U component must be the next after the Y component, followed by V component.
-     * @param frameData the buffer containing the raw frame data and also a padding which will be filled with the converted frame data.
-     * @param width the frame width.
-     * @param height the frame height.
-     * @return the frame data having the YUV420 planar format.
-     */
-    public static byte[] convertFromNV21ToYUV420Planar(byte[] frameData, int width, int height) {
-        int yLength = width * height;
-        int index = 0;
-        int yConvertedStartIndex = yLength + (yLength / DOUBLE_MULTIPLIER);
-        int uConvertedStartIndex = yConvertedStartIndex + yLength;
-        for (int i = yConvertedStartIndex; i < uConvertedStartIndex; i++) {
-            frameData[i] = frameData[index];
-            index++;
-        }
-        int vIndex = index;
-        int uIndex = index + 1;
-        for (int i = uConvertedStartIndex; i < uConvertedStartIndex + yLength / QUARTER_DIVIDER; i++) {
-            frameData[i] = frameData[uIndex];
-            frameData[i + yLength / QUARTER_DIVIDER] = frameData[vIndex];
-            uIndex += 2;
-            vIndex += 2;
-        }
-        return frameData;
-    }
-
-
-    /**
-     * Convert the camera output NV21 format to YUV420 Semi-Planar.
-     * This YUV format is used for frame encoding.
-     * <ul>The format representation:
-     * <li>NV21: Y0Y1Y2...V0U0V2U2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * <li>YUV420SemiPlanar: Y0Y1Y2...U0V0U2V2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * </ul>
-     * In order to achieve the conversion between NV21 to YUV420Planar
-     * the U component must be swapped with the V component.
-     * @param frameData the buffer containing the raw frame data and also a padding which will be filled with the converted frame data.
-     * @param width the frame width.
-     * @param height the frame height.
-     * @return the frame data having the YUV420 semi-planar format.
-     */
-    public static byte[] convertFromNV21ToYUV420SemiPlanar(byte[] frameData, int width, int height) {
-        int yLength = width * height;
-        int index = 0;
-        int yConvertedStartIndex = yLength + (yLength / DOUBLE_MULTIPLIER);
-        int uConvertedStartIndex = yConvertedStartIndex + yLength;
-        for (int i = yConvertedStartIndex; i < uConvertedStartIndex; i++) {
-            frameData[i] = frameData[index];
-            index++;
-        }
-        int vIndex = index;
-        int uIndex = index + 1;
-        for (int i = uConvertedStartIndex; i < uConvertedStartIndex + yLength / HALF_DIVIDER; i += 2) {
-            frameData[i] = frameData[uIndex];
-            frameData[i + 1] = frameData[vIndex];
-            uIndex += 2;
-            vIndex += 2;
-        }
-        return frameData;
-    }
-
-    /**
-     * Convert the camera output YUV420 format to YUV420 Planar.
-     * <ul>
-     * <li>YUV420: Y0Y1Y2...U0U2...V0V2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * <li>YUV420Planar: Y0Y1Y2...U0U2...V0V2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * </ul>
-     * @param frameData the buffer containing the raw frame data and also a padding which will be filled with the converted frame data.
-     * @param width the frame width.
-     * @param height the frame height.
-     * @return the frame data having the YUV420 planar format.
-     */
-    public static byte[] convertCameraYUVtoYUV420Planar(byte[] frameData, int width, int height) {
-        int yLength = width * height;
-        int index = yLength + yLength / HALF_DIVIDER;
-        for (int i = 0; i < yLength + yLength / HALF_DIVIDER; i++) {
-            frameData[index] = frameData[i];
-            index++;
-        }
-        return frameData;
-    }
-
-    /**
-     * Convert the camera output YUV420 format to YUV420 Semi-Planar.
-     * <ul>
-     * <li>YUV420: Y0Y1Y2...U0U2...V0V2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * <li>YUV420SemiPlanar: Y0Y1Y2...U0V0U2V2...</li>
-     * <p>The Y component length: frameWidth * frameHeight.</p>
-     * <p>The U component length: (frameWidth * frameHeight)/4.</p>
-     * <p>The V component length: (frameWidth * frameHeight)/4.</p>
-     * </ul>
-     * @param frameData the buffer containing the raw frame data and also a padding which will be filled with the converted frame data.
-     * @param width the frame width.
-     * @param height the frame height.
-     * @return the frame data having the YUV420 semi-planar format.
-     */
-    public static byte[] convertCameraYUVtoYUV420SemiPlanar(byte[] frameData, int width, int height) {
-        int yLength = width * height;
-        int index = 0;
-        int yConvertedStartIndex = yLength + (yLength / HALF_DIVIDER);
-        int uConvertedStartIndex = yConvertedStartIndex + yLength;
-        for (int i = yConvertedStartIndex; i < uConvertedStartIndex; i++) {
-            frameData[i] = frameData[index];
-            index++;
-        }
-        int indexU = yLength;
-        int indexV = yLength + yLength / QUARTER_DIVIDER;
-        for (int i = uConvertedStartIndex; i < uConvertedStartIndex + yLength / HALF_DIVIDER; i += 2) {
-            frameData[i] = frameData[indexU];
-            frameData[i + 1] = frameData[indexV];
-            indexU++;
-            indexV++;
-        }
-        return frameData;
-    }
 }
@@ -121,7 +121,7 @@ public class TextureViewPreview {
      */
     public void setCameraContainerSize(Size containerSize) {
         this.containerSize = containerSize;
-        Log.d(TAG, String.format("Camera container size: height - %s width -  %s", containerSize.getHeight(), containerSize.getWidth()));
+        Log.d(TAG, "Camera container size: height - %s width -  %s", containerSize.getHeight(), containerSize.getWidth());
         if (previewSize != null) {
             resizeTextureView();
         }
@@ -141,7 +141,7 @@ public class TextureViewPreview {
      */
     public void setPreviewSize(Size previewSize) {
         this.previewSize = previewSize;
-        Log.d(TAG, String.format("Camera preview size: height - %s width -  %s", previewSize.getHeight(), previewSize.getWidth()));
+        Log.d(TAG, "Camera preview size: height - %s width -  %s", previewSize.getHeight(), previewSize.getWidth());
         if (containerSize != null) {
             resizeTextureView();
         }
@@ -182,7 +182,7 @@ public class TextureViewPreview {
      * @param height the height of the camera surface.
      */
     private void setSize(int width, int height) {
-        Log.d(TAG, String.format("Camera surface size: height - %s width -  %s", height, width));
+        Log.d(TAG, "Camera surface size: height - %s width -  %s", height, width);
         this.width = width;
         this.height = height;
     }
@@ -0,0 +1,156 @@
+package com.telenav.osv.recorder.camera.util;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs the padded planes of a {@code YUV_420_888} image into a contiguous planar frame array (Y, U, V).
+ * <p>
+ * The packer copies whole rows with bulk {@link ByteBuffer#get(byte[], int, int)} calls instead of reading one byte at a time
+ * and never allocates per frame. Rows with a pixel stride of 1 are copied straight into the destination. A plane with a pixel stride of 2,
+ * the semi-planar layout delivered by most cameras, is copied with a single bulk read into a reusable buffer and then de-interleaved row by row.
+ * Planes with any other pixel stride are copied one row at a time into the reusable buffer and then de-interleaved.
+ * <p>
+ * One instance should be used per capture session, the buffer is kept between frames and is dropped by {@link #release()}.
+ * The class is not thread safe.
+ */
+public class YuvFramePacker {
+
+    /**
+     * Pixel stride for a plane which has the samples stored contiguously.
+     */
+    private static final int PIXEL_STRIDE_PACKED = 1;
+
+    /**
+     * Pixel stride for a plane which has the samples interleaved with the samples of another plane.
+     */
+    private static final int PIXEL_STRIDE_INTERLEAVED = 2;
+
+    /**
+     * Value for dividing a number in half.
+     */
+    private static final int HALF_DIVIDER = 2;
+
+    /**
+     * Reusable buffer holding the padded rows of a plane, either one row or the whole interleaved plane.
+     */
+    private byte[] rowBuffer;
+
+    /**
+     * Reads the Y data from the given plane buffer into the destination array, removing the row padding.
+     * @param yPlane the buffer for the Y component.
+     * @param rowStride the row stride for determining the row padding for the current frame.
+     * @param width the frame width.
+     * @param height the frame height.
+     * @param destination the array in which the data is written.
+     * @param offset the start index from where the data should be written in the {@code destination} array.
+     * @return the index in the {@code destination} array after the last written byte.
+     */
+    public int packLumaPlane(ByteBuffer yPlane, int rowStride, int width, int height, byte[] destination, int offset) {
+        return packPlane(yPlane, rowStride, PIXEL_STRIDE_PACKED, width, height, destination, offset);
+    }
+
+    /**
+     * Reads the U or V data from the given plane buffer into the destination array, removing the row and pixel padding.
+     * The chroma plane has half of the frame width and half of the frame height.
+     * @param uvPlane the buffer for the U or V component.
+     * @param rowStride the row stride for determining the row padding for the current frame.
+     * @param pixelStride the pixel stride for determining the padding between two consecutive samples.
+     * @param width the frame width.
+     * @param height the frame height.
+     * @param destination the array in which the data is written.
+     * @param offset the start index from where the data should be written in the {@code destination} array.
+     * @return the index in the {@code destination} array after the last written byte.
+     */
+    public int packChromaPlane(ByteBuffer uvPlane, int rowStride, int pixelStride, int width, int height, byte[] destination, int offset) {
+        return packPlane(uvPlane, rowStride, pixelStride, width / HALF_DIVIDER, height / HALF_DIVIDER, destination, offset);
+    }
+
+    /**
+     * Drops the reusable row buffer. Should be called when the capture session is closed.
+     */
+    public void release() {
+        rowBuffer = null;
+    }
+
+    /**
+     * Copies a plane of {@code columns x rows} samples into the destination array.
+     * <p>
+     * The last row of a plane is usually not padded up to the row stride, therefore only the bytes holding samples are read from it.
+     * @return the index in the {@code destination} array after the last written byte.
+     */
+    private int packPlane(ByteBuffer plane, int rowStride, int pixelStride, int columns, int rows, byte[] destination, int offset) {
+        if (pixelStride == PIXEL_STRIDE_PACKED && rowStride == columns) {
+            //no padding at all, the whole plane is copied at once
+            int start = plane.position();
+            plane.get(destination, offset, columns * rows);
+            plane.position(start);
+            return offset + columns * rows;
+        }
+        if (pixelStride == PIXEL_STRIDE_INTERLEAVED) {
+            return packInterleavedPlane(plane, rowStride, columns, rows, destination, offset);
+        }
+        return packStridedPlane(plane, rowStride, pixelStride, columns, rows, destination, offset);
+    }
+
+    /**
+     * Copies a plane with a pixel stride of {@link #PIXEL_STRIDE_INTERLEAVED}. The whole plane, from the first to the last sample, is read with one bulk call
+     * and each row is de-interleaved from the buffer.
+     * @return the index in the {@code destination} array after the last written byte.
+     */
+    private int packInterleavedPlane(ByteBuffer plane, int rowStride, int columns, int rows, byte[] destination, int offset) {
+        int start = plane.position();
+        int rowSpan = (columns - 1) * PIXEL_STRIDE_INTERLEAVED + 1;
+        int planeSpan = (rows - 1) * rowStride + rowSpan;
+        byte[] planeData = obtainRowBuffer(planeSpan);
+        plane.get(planeData, 0, planeSpan);
+        plane.position(start);
+        for (int row = 0; row < rows; row++) {
+            int rowStart = row * rowStride;
+            int rowEnd = rowStart + rowSpan;
+            for (int index = rowStart; index < rowEnd; index += PIXEL_STRIDE_INTERLEAVED) {
+                destination[offset++] = planeData[index];
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Copies a plane with any pixel stride one row at a time, the rows with a pixel stride other than {@link #PIXEL_STRIDE_PACKED} are de-interleaved from the
+     * row buffer.
+     * @return the index in the {@code destination} array after the last written byte.
+     */
+    @VisibleForTesting
+    int packStridedPlane(ByteBuffer plane, int rowStride, int pixelStride, int columns, int rows, byte[] destination, int offset) {
+        int start = plane.position();
+        //the number of bytes from the first sample to the last sample of a row, inclusive
+        int rowSpan = (columns - 1) * pixelStride + 1;
+        for (int row = 0; row < rows; row++) {
+            plane.position(start + row * rowStride);
+            if (pixelStride == PIXEL_STRIDE_PACKED) {
+                plane.get(destination, offset, columns);
+                offset += columns;
+                continue;
+            }
+            byte[] rowData = obtainRowBuffer(rowSpan);
+            plane.get(rowData, 0, rowSpan);
+            for (int col = 0; col < rowSpan; col += pixelStride) {
+                destination[offset++] = rowData[col];
+            }
+        }
+        plane.position(start);
+        return offset;
+    }
+
+    /**
+     * @param size the minimum size of the row buffer.
+     * @return the reusable row buffer, which is grown only when a wider row or a larger interleaved plane is received.
+     */
+    private byte[] obtainRowBuffer(int size) {
+        if (rowBuffer == null || rowBuffer.length < size) {
+            rowBuffer = new byte[size];
+        }
+        return rowBuffer;
+    }
+}
@@ -1,5 +1,6 @@
 package com.telenav.osv.recorder.encoder;
 
+import com.telenav.osv.recorder.encoder.converter.FrameConverter;
 import com.telenav.osv.utils.Size;
 import io.reactivex.Completable;
 
@@ -25,11 +26,12 @@ public interface VideoEncoder {
 
     /**
      * Sends the frame data which should be encoded in the video.
-     * @param frameData the frame data to encode which should have the color format
-     * given when the encoder was started.
+     * The frame is converted straight into the encoder input buffer, without an intermediate converted frame.
+     * @param frameData the raw camera frame data to encode.
+     * @param converter the converter from the camera format to the color format given when the encoder was started.
      * The observer will be notified on a background thread, other than the one defined in the {@code onSubscribe} operator.
      * @return a {@code Completable} which notifies the observer when the frame was encoded successfully
      * or when an error occurred.
      */
-    Completable encode(byte[] frameData);
+    Completable encode(byte[] frameData, FrameConverter converter);
 }
\ No newline at end of file
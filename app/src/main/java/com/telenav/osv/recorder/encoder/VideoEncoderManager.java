@@ -7,6 +7,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import android.media.MediaCodec;
 import android.media.MediaFormat;
 import android.media.MediaMuxer;
+import com.telenav.osv.recorder.encoder.converter.FrameConverter;
 import com.telenav.osv.utils.Log;
 import com.telenav.osv.utils.Size;
 import androidx.annotation.NonNull;
@@ -57,11 +58,6 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
      */
     private static final int INPUT_BUFFERS_QUEUE_CAPACITY = 10;
 
-    /**
-     * The value used to double the value or to divided it in half.
-     */
-    private static final int TWO_OPERATIONAL_VALUE = 2;
-
     /**
      * The queue containing all the available input buffers for encoding operation.
      */
@@ -129,13 +125,13 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
                 framePresentationTime = 0;
                 mediaCodec.start();
                 isMediaCodecStarted = true;
-                Log.d(TAG, String.format("startEncoder. Status: completed. Video path: %s", VideoEncoderManager.this.videoPath));
+                Log.d(TAG, "startEncoder. Status: completed. Video path: %s", VideoEncoderManager.this.videoPath);
                 emitter.onComplete();
             } catch (IOException e) {
-                Log.d(TAG, String.format("startEncoder. Status: error. Message: %s", e.getMessage()));
+                Log.d(TAG, "startEncoder. Status: error. Message: %s", e.getMessage());
                 emitter.onError(e);
             } catch (Exception e) {
-                Log.d(TAG, String.format("startEncoder. Status: error. Exception message: %s", e.getMessage()));
+                Log.d(TAG, "startEncoder. Status: error. Exception message: %s", e.getMessage());
                 emitter.onError(e);
             }
         });
@@ -167,14 +163,14 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
     //TODO: Check if the observer could be notified by default on the subscribing thread, if is not specified another observing thread.
     //Currently, the observer will be notified on the encoding thread which is different than subscribing thread.
     @Override
-    public Completable encode(byte[] frameData) {
+    public Completable encode(byte[] frameData, FrameConverter converter) {
         return Completable.create(emitter -> {
             Log.d(TAG, "encode. Status: started. Message: Frame encoding started.");
             if (frameData == null) {
                 return;
             }
             encodeCompleteEmitter = emitter;
-            queueInputBuffer(frameData);
+            queueInputBuffer(frameData, converter);
         });
     }
 
@@ -193,7 +189,7 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
 
     @Override
     public void onError(@NonNull MediaCodec mediaCodec, @NonNull MediaCodec.CodecException e) {
-        Log.d(TAG, String.format("onError. Message: Error thrown from MediaCodec. Error: %s", e.getMessage()));
+        Log.d(TAG, "onError. Message: Error thrown from MediaCodec. Error: %s", e.getMessage());
         emitEncodeError(e);
     }
 
@@ -204,13 +200,14 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
 
     /**
      * Send the frame data to codec in order to be encoded to H.264 format.
+     * The frame is converted by the given converter directly into the codec input buffer.
      */
-    private void queueInputBuffer(byte[] frameData) {
+    private void queueInputBuffer(byte[] frameData, FrameConverter converter) {
         int index;
         try {
             index = inputBuffersQueue.take();
         } catch (InterruptedException e) {
-            Log.d(TAG, String.format("queueInputBuffer. Status: error. Exception message: %s", e.getMessage()));
+            Log.d(TAG, "queueInputBuffer. Status: error. Exception message: %s", e.getMessage());
             return;
         }
         ByteBuffer inputBuffer;
@@ -227,9 +224,8 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
             return;
         }
         try {
-            int frameDataOffset = width * height + (width * height) / TWO_OPERATIONAL_VALUE;
-            int frameDataLength = width * height + (width * height) / TWO_OPERATIONAL_VALUE;
-            inputBuffer.put(frameData, frameDataOffset, frameDataLength);
+            inputBuffer.clear();
+            int frameDataLength = converter.convert(frameData, width, height, inputBuffer);
             mediaCodec.queueInputBuffer(index, 0, frameDataLength, framePresentationTime, 0);
             updatePresentationTime();
             Log.d(TAG, "queueInputBuffer. Status: success. Message: Frame data available and queued as input buffer.");
@@ -296,11 +292,11 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
             mediaMuxer = new MediaMuxer(videoPath, MediaMuxer.OutputFormat.MUXER_OUTPUT_MPEG_4);
             Log.d(TAG, "initMediaMuxer. Status: success. Message: MediaMuxer was initialized.");
         } catch (IOException e) {
-            Log.d(TAG, String.format("initMediaMuxer. Status: error. Message: MediaMuxer initialization error. Error msg: %s", e.getMessage()));
+            Log.d(TAG, "initMediaMuxer. Status: error. Message: MediaMuxer initialization error. Error msg: %s", e.getMessage());
             emitEncodeError(e);
             return false;
         }
-        Log.d(TAG, String.format("initMediaMuxer. Message: Create video index with MediaFormat. Output video index: %s", outputVideoIndex));
+        Log.d(TAG, "initMediaMuxer. Message: Create video index with MediaFormat. Output video index: %s", outputVideoIndex);
         outputVideoIndex = mediaMuxer.addTrack(mediaCodec.getOutputFormat());
         mediaMuxer.start();
         return true;
@@ -314,8 +310,8 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
      */
     private MediaFormat createOutputFormat(Size videoSize, int colorFormat) {
         MediaFormat result = MediaFormat.createVideoFormat(MediaFormat.MIMETYPE_VIDEO_AVC, videoSize.getWidth(), videoSize.getHeight());
-        Log.d(TAG, String.format("createOutputFormat. Video width x height: %s x %s ", videoSize.getWidth(), videoSize.getHeight()));
-        Log.d(TAG, String.format("createOutputFormat. Color format: %s ", colorFormat));
+        Log.d(TAG, "createOutputFormat. Video width x height: %s x %s ", videoSize.getWidth(), videoSize.getHeight());
+        Log.d(TAG, "createOutputFormat. Color format: %s ", colorFormat);
         result.setInteger(MediaFormat.KEY_COLOR_FORMAT, colorFormat);
         //this value for video bit rate was chosen after testing multiple values, in order to maintain a smaller video size.
         int videoBitRate;
@@ -325,9 +321,9 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
             videoBitRate = videoSize.getWidth() * videoSize.getHeight() * BITRATE_MULTIPLIER_LOW_RESOLUTION;
         }
         result.setInteger(MediaFormat.KEY_BIT_RATE, videoBitRate);
-        Log.d(TAG, String.format("createOutputFormat. Video bit rate: %s ", videoBitRate));
-        Log.d(TAG, String.format("createOutputFormat. Video frame rate: %s ", VIDEO_FRAME_RATE));
-        Log.d(TAG, String.format("createOutputFormat. Video I frame interval: %s ", VIDEO_KEY_FRAME_INTERVAL));
+        Log.d(TAG, "createOutputFormat. Video bit rate: %s ", videoBitRate);
+        Log.d(TAG, "createOutputFormat. Video frame rate: %s ", VIDEO_FRAME_RATE);
+        Log.d(TAG, "createOutputFormat. Video I frame interval: %s ", VIDEO_KEY_FRAME_INTERVAL);
         result.setInteger(MediaFormat.KEY_FRAME_RATE, VIDEO_FRAME_RATE);
         result.setInteger(MediaFormat.KEY_I_FRAME_INTERVAL, VIDEO_KEY_FRAME_INTERVAL);
         Log.d(TAG, "createOutputFormat. Status: success. Message: Output format available for encoder.");
@@ -340,7 +336,7 @@ public class VideoEncoderManager extends MediaCodec.Callback implements VideoEnc
      */
     private void emitEncodeError(Throwable e) {
         if (encodeCompleteEmitter != null && !encodeCompleteEmitter.isDisposed()) {
-            Log.d(TAG, String.format("emitEncodeError. Message: %s", e.getMessage()));
+            Log.d(TAG, "emitEncodeError. Message: %s", e.getMessage());
             encodeCompleteEmitter.onError(e);
         }
     }
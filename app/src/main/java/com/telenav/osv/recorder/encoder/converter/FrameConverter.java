@@ -0,0 +1,94 @@
+package com.telenav.osv.recorder.encoder.converter;
+
+import java.nio.ByteBuffer;
+import android.graphics.ImageFormat;
+import android.media.MediaCodecInfo;
+import androidx.annotation.NonNull;
+
+/**
+ * Converter of a raw camera frame into the color format expected by the encoder.
+ * <p>
+ * The converted frame is written directly into the destination buffer, which is usually the {@code MediaCodec} input buffer,
+ * therefore there is neither an intermediate frame array nor a second copy of the converted frame.
+ * The Y plane and the planes which keep their layout are copied with bulk {@link ByteBuffer#put(byte[], int, int)} calls,
+ * the rearranged chroma data is built one row at a time in a reusable row buffer and then copied in bulk.
+ * <p>
+ * There is one implementation for each pair of camera format and encoder color format, see {@link #create(int, int)}.
+ * An instance keeps its row buffer between frames and is not thread safe.
+ */
+public abstract class FrameConverter {
+
+    /**
+     * Value for dividing a number in half.
+     */
+    static final int HALF_DIVIDER = 2;
+
+    /**
+     * Value for dividing a number in quarters.
+     */
+    static final int QUARTER_DIVIDER = 4;
+
+    /**
+     * Reusable buffer holding one row of rearranged chroma data.
+     */
+    private byte[] rowBuffer;
+
+    /**
+     * @param imageFormat the camera frame format, either {@link ImageFormat#NV21} or {@link ImageFormat#YUV_420_888}.
+     * @param colorFormat the encoder color format, either {@link MediaCodecInfo.CodecCapabilities#COLOR_FormatYUV420SemiPlanar}
+     * or {@link MediaCodecInfo.CodecCapabilities#COLOR_FormatYUV420Planar}.
+     * @return the converter for the given formats.
+     */
+    @NonNull
+    public static FrameConverter create(int imageFormat, int colorFormat) {
+        if (colorFormat == MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420SemiPlanar) {
+            if (imageFormat == ImageFormat.NV21) {
+                return new NV21ToYUV420SemiPlanarConverter();
+            }
+            return new YUV420ToYUV420SemiPlanarConverter();
+        }
+        if (imageFormat == ImageFormat.NV21) {
+            return new NV21ToYUV420PlanarConverter();
+        }
+        return new YUV420ToYUV420PlanarConverter();
+    }
+
+    /**
+     * @param width the frame width.
+     * @param height the frame height.
+     * @return the length of a YUV 4:2:0 frame, which is the same for the raw and the converted frame.
+     */
+    public static int getFrameLength(int width, int height) {
+        return width * height + (width * height) / HALF_DIVIDER;
+    }
+
+    /**
+     * Converts the raw frame and writes the converted frame into the destination buffer, starting at its current position.
+     * When the method returns the position of the destination buffer is after the last written byte.
+     * @param frameData the raw camera frame, which is not modified.
+     * @param width the frame width.
+     * @param height the frame height.
+     * @param destination the buffer in which the converted frame is written.
+     * It must have at least {@link #getFrameLength(int, int)} bytes remaining.
+     * @return the number of bytes written in the destination buffer.
+     */
+    public abstract int convert(@NonNull byte[] frameData, int width, int height, @NonNull ByteBuffer destination);
+
+    /**
+     * Drops the reusable row buffer. Should be called when the recording is stopped.
+     */
+    public void release() {
+        rowBuffer = null;
+    }
+
+    /**
+     * @param size the minimum size of the row buffer.
+     * @return the reusable row buffer, which is grown only when a wider row is needed.
+     */
+    byte[] obtainRowBuffer(int size) {
+        if (rowBuffer == null || rowBuffer.length < size) {
+            rowBuffer = new byte[size];
+        }
+        return rowBuffer;
+    }
+}
@@ -0,0 +1,45 @@
+package com.telenav.osv.recorder.encoder.converter;
+
+import java.nio.ByteBuffer;
+import androidx.annotation.NonNull;
+
+/**
+ * Converts the camera NV21 format to YUV420 Planar.
+ * <ul>
+ * <li>NV21: Y0Y1Y2...V0U0V2U2...</li>
+ * <li>YUV420Planar: Y0Y1Y2...U0U2...V0V2...</li>
+ * </ul>
+ * The Y plane is copied as it is and the interleaved chroma samples are split into the U plane followed by the V plane.
+ * Each chroma row is split into the two halves of the row buffer, which are then written at the row position in their plane.
+ */
+class NV21ToYUV420PlanarConverter extends FrameConverter {
+
+    @Override
+    public int convert(@NonNull byte[] frameData, int width, int height, @NonNull ByteBuffer destination) {
+        int start = destination.position();
+        int yLength = width * height;
+        destination.put(frameData, 0, yLength);
+        int chromaWidth = width / HALF_DIVIDER;
+        int chromaRows = height / HALF_DIVIDER;
+        int uPosition = start + yLength;
+        int vPosition = uPosition + yLength / QUARTER_DIVIDER;
+        byte[] row = obtainRowBuffer(width);
+        int index = yLength;
+        for (int chromaRow = 0; chromaRow < chromaRows; chromaRow++) {
+            for (int col = 0; col < chromaWidth; col++) {
+                row[col] = frameData[index + 1];
+                row[chromaWidth + col] = frameData[index];
+                index += 2;
+            }
+            destination.position(uPosition);
+            destination.put(row, 0, chromaWidth);
+            destination.position(vPosition);
+            destination.put(row, chromaWidth, chromaWidth);
+            uPosition += chromaWidth;
+            vPosition += chromaWidth;
+        }
+        int frameLength = getFrameLength(width, height);
+        destination.position(start + frameLength);
+        return frameLength;
+    }
+}
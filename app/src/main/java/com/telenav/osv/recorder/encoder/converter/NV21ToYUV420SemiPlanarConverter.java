@@ -0,0 +1,33 @@
+package com.telenav.osv.recorder.encoder.converter;
+
+import java.nio.ByteBuffer;
+import androidx.annotation.NonNull;
+
+/**
+ * Converts the camera NV21 format to YUV420 Semi-Planar.
+ * <ul>
+ * <li>NV21: Y0Y1Y2...V0U0V2U2...</li>
+ * <li>YUV420SemiPlanar: Y0Y1Y2...U0V0U2V2...</li>
+ * </ul>
+ * The Y plane is copied as it is and each pair of chroma samples is swapped.
+ */
+class NV21ToYUV420SemiPlanarConverter extends FrameConverter {
+
+    @Override
+    public int convert(@NonNull byte[] frameData, int width, int height, @NonNull ByteBuffer destination) {
+        int yLength = width * height;
+        destination.put(frameData, 0, yLength);
+        byte[] row = obtainRowBuffer(width);
+        int chromaRows = height / HALF_DIVIDER;
+        int index = yLength;
+        for (int chromaRow = 0; chromaRow < chromaRows; chromaRow++) {
+            for (int col = 0; col < width; col += 2) {
+                row[col] = frameData[index + col + 1];
+                row[col + 1] = frameData[index + col];
+            }
+            destination.put(row, 0, width);
+            index += width;
+        }
+        return getFrameLength(width, height);
+    }
+}
@@ -0,0 +1,22 @@
+package com.telenav.osv.recorder.encoder.converter;
+
+import java.nio.ByteBuffer;
+import androidx.annotation.NonNull;
+
+/**
+ * Converts the camera YUV420 format, packed as planar by the camera, to YUV420 Planar.
+ * <ul>
+ * <li>YUV420: Y0Y1Y2...U0U2...V0V2...</li>
+ * <li>YUV420Planar: Y0Y1Y2...U0U2...V0V2...</li>
+ * </ul>
+ * The layouts are the same, therefore the whole frame is copied at once.
+ */
+class YUV420ToYUV420PlanarConverter extends FrameConverter {
+
+    @Override
+    public int convert(@NonNull byte[] frameData, int width, int height, @NonNull ByteBuffer destination) {
+        int frameLength = getFrameLength(width, height);
+        destination.put(frameData, 0, frameLength);
+        return frameLength;
+    }
+}
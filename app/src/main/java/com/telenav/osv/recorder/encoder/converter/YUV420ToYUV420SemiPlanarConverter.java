@@ -0,0 +1,34 @@
+package com.telenav.osv.recorder.encoder.converter;
+
+import java.nio.ByteBuffer;
+import androidx.annotation.NonNull;
+
+/**
+ * Converts the camera YUV420 format, packed as planar by the camera, to YUV420 Semi-Planar.
+ * <ul>
+ * <li>YUV420: Y0Y1Y2...U0U2...V0V2...</li>
+ * <li>YUV420SemiPlanar: Y0Y1Y2...U0V0U2V2...</li>
+ * </ul>
+ * The Y plane is copied as it is and the U and V planes are interleaved one row at a time.
+ */
+class YUV420ToYUV420SemiPlanarConverter extends FrameConverter {
+
+    @Override
+    public int convert(@NonNull byte[] frameData, int width, int height, @NonNull ByteBuffer destination) {
+        int yLength = width * height;
+        destination.put(frameData, 0, yLength);
+        int chromaWidth = width / HALF_DIVIDER;
+        int chromaRows = height / HALF_DIVIDER;
+        int uIndex = yLength;
+        int vIndex = yLength + yLength / QUARTER_DIVIDER;
+        byte[] row = obtainRowBuffer(width);
+        for (int chromaRow = 0; chromaRow < chromaRows; chromaRow++) {
+            for (int col = 0; col < chromaWidth; col++) {
+                row[2 * col] = frameData[uIndex++];
+                row[2 * col + 1] = frameData[vIndex++];
+            }
+            destination.put(row, 0, width);
+        }
+        return getFrameLength(width, height);
+    }
+}
@@ -0,0 +1,126 @@
+package com.telenav.osv.recorder.gpsTrail
+
+import android.location.Location
+
+/**
+ * Bounded store for the gps trail of a recording session.
+ *
+ * The locations are decimated before being stored:
+ * * a location closer than [minDistance] to the last stored location is ignored.
+ * * a location at least [maxDistance] away from the last stored location is always stored.
+ * * otherwise the location is stored only if the heading changes with at least [minBearingChange] degrees, which keeps the turns while dropping the points on straight roads.
+ *
+ * The stored locations are kept in a ring buffer of [capacity] size, when full the oldest location is dropped for each new one.
+ */
+class GpsTrail(private val capacity: Int = DEFAULT_CAPACITY,
+               private val minDistance: Double = DEFAULT_MIN_DISTANCE_METERS,
+               private val maxDistance: Double = DEFAULT_MAX_DISTANCE_METERS,
+               private val minBearingChange: Double = DEFAULT_MIN_BEARING_CHANGE_DEGREES) {
+
+    private val locations = arrayOfNulls<Location>(capacity)
+
+    private var head = 0
+
+    /**
+     * The number of stored locations.
+     */
+    var size = 0
+        private set
+
+    /**
+     * Stores the location if it passes the decimation.
+     * @return the number of oldest locations dropped in order to store the given location, `0` if none were dropped, or `-1` if the location was ignored.
+     */
+    fun append(location: Location): Int {
+        if (size > 0 && !shouldAppend(location.latitude, location.longitude)) {
+            return -1
+        }
+        val dropped: Int
+        if (size == capacity) {
+            locations[head] = location
+            head = (head + 1) % capacity
+            dropped = 1
+        } else {
+            locations[(head + size) % capacity] = location
+            size++
+            dropped = 0
+        }
+        return dropped
+    }
+
+    /**
+     * @return a copy of the stored locations, from the oldest to the newest.
+     */
+    fun snapshot(): List<Location> {
+        val snapshot = ArrayList<Location>(size)
+        for (i in 0 until size) {
+            snapshot.add(get(i))
+        }
+        return snapshot
+    }
+
+    /**
+     * Removes all the stored locations.
+     */
+    fun clear() {
+        locations.fill(null)
+        head = 0
+        size = 0
+    }
+
+    private fun get(index: Int): Location = locations[(head + index) % capacity]!!
+
+    private fun shouldAppend(latitude: Double, longitude: Double): Boolean {
+        val last = get(size - 1)
+        val distance = distance(last.latitude, last.longitude, latitude, longitude)
+        if (distance < minDistance) {
+            return false
+        }
+        if (distance >= maxDistance || size < 2) {
+            return true
+        }
+        val previous = get(size - 2)
+        val previousBearing = bearing(previous.latitude, previous.longitude, last.latitude, last.longitude)
+        val bearing = bearing(last.latitude, last.longitude, latitude, longitude)
+        var bearingChange = Math.abs(bearing - previousBearing) % FULL_CIRCLE_DEGREES
+        if (bearingChange > HALF_CIRCLE_DEGREES) {
+            bearingChange = FULL_CIRCLE_DEGREES - bearingChange
+        }
+        return bearingChange >= minBearingChange
+    }
+
+    companion object {
+
+        const val DEFAULT_CAPACITY = 10000
+
+        const val DEFAULT_MIN_DISTANCE_METERS = 3.0
+
+        const val DEFAULT_MAX_DISTANCE_METERS = 25.0
+
+        const val DEFAULT_MIN_BEARING_CHANGE_DEGREES = 8.0
+
+        private const val EARTH_RADIUS_METERS = 6371008.8
+
+        private const val FULL_CIRCLE_DEGREES = 360.0
+
+        private const val HALF_CIRCLE_DEGREES = 180.0
+
+        /**
+         * @return the distance in meters by using an equirectangular approximation, accurate for the short distances between consecutive locations.
+         */
+        private fun distance(fromLatitude: Double, fromLongitude: Double, toLatitude: Double, toLongitude: Double): Double {
+            val x = Math.toRadians(toLongitude - fromLongitude) * Math.cos(Math.toRadians((fromLatitude + toLatitude) / 2))
+            val y = Math.toRadians(toLatitude - fromLatitude)
+            return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS
+        }
+
+        /**
+         * @return the bearing in degrees, in the equirectangular approximation.
+         */
+        private fun bearing(fromLatitude: Double, fromLongitude: Double, toLatitude: Double, toLongitude: Double): Double {
+            val x = Math.toRadians(toLongitude - fromLongitude) * Math.cos(Math.toRadians((fromLatitude + toLatitude) / 2))
+            val y = Math.toRadians(toLatitude - fromLatitude)
+            return Math.toDegrees(Math.atan2(x, y))
+        }
+    }
+}
@@ -13,7 +13,8 @@ import java.util.concurrent.CopyOnWriteArraySet
 /**
  * Helper class which handle all logic for starting/stopping gps trail updates.
  *
- * This will also provide listener based callback for everyone who will listen to the trail updates.
+ * This will also provide listener based callback for everyone who will listen to the trail updates. The trail is stored in a bounded [GpsTrail], the listeners receive the
+ * whole trail only when set, while afterwards only the appended locations are sent.
  */
 class GpsTrailHelper(private val locationService: LocationService) {
 
@@ -23,7 +24,7 @@ class GpsTrailHelper(private val locationService: LocationService) {
 
     private val compositeDisposable = CompositeDisposable()
 
-    private var gpsTrail: MutableList<Location> = arrayListOf()
+    private val gpsTrail = GpsTrail()
 
     private var gpsTrailListeners = CopyOnWriteArraySet<ListenerRecordingGpsTrail>()
 
@@ -35,7 +36,10 @@ class GpsTrailHelper(private val locationService: LocationService) {
         recordingListenerGpsTrail?.let {
             setGpsTrailListener(recordingListenerGpsTrail)
         }
-        gpsTrail.clear()
+        synchronized(gpsTrail) {
+            gpsTrail.clear()
+        }
+        compositeDisposable.clear()
         initLocationUpdates()
     }
 
@@ -44,12 +48,16 @@ class GpsTrailHelper(private val locationService: LocationService) {
         recordingListenerGpsTrail?.let {
             removeListenerGpsTrail(recordingListenerGpsTrail)
         }
-        gpsTrail.clear()
+        compositeDisposable.clear()
+        synchronized(gpsTrail) {
+            gpsTrail.clear()
+        }
     }
 
     fun setGpsTrailListener(recordingListenerGpsTrail: ListenerRecordingGpsTrail) {
         Log.d(TAG, "setGpsTrailListener. Listener: $recordingListenerGpsTrail")
         gpsTrailListeners.add(recordingListenerGpsTrail)
+        recordingListenerGpsTrail.onGpsTrailChanged(synchronized(gpsTrail) { gpsTrail.snapshot() })
     }
 
     fun removeListenerGpsTrail(recordingListenerGpsTrail: ListenerRecordingGpsTrail) {
@@ -62,15 +70,17 @@ class GpsTrailHelper(private val locationService: LocationService) {
                 .filter(FilterFactory.getLocationFilter(LocationFilterType.FILTER_ZERO_VALUES))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe {
-                    gpsTrail.add(it)
-                    notifyListeners()
+                .subscribe { location ->
+                    val droppedCount = synchronized(gpsTrail) { gpsTrail.append(location) }
+                    if (droppedCount >= 0) {
+                        notifyListeners(location, droppedCount)
+                    }
                 })
     }
 
-    private fun notifyListeners() {
+    private fun notifyListeners(location: Location, droppedCount: Int) {
         gpsTrailListeners.forEach { recordingListener ->
-            recordingListener.onGpsTrailChanged(gpsTrail)
+            recordingListener.onGpsTrailAppended(location, droppedCount)
         }
     }
 
@@ -7,12 +7,20 @@ import android.location.Location
  *
  * Available functionality:
  * * [onGpsTrailChanged]
+ * * [onGpsTrailAppended]
  */
 interface ListenerRecordingGpsTrail {
 
     /**
-     * Gps trail callback to signal a change in the gps trail
+     * Gps trail callback to signal that the whole gps trail changed, i.e. when the listener is set or the trail is cleared. The following changes are signaled by [onGpsTrailAppended].
      * @param gpsTrail optional parameter to give either an empty list or the collection of [Location] representing the gps trail.
      */
     fun onGpsTrailChanged(gpsTrail: List<Location> = arrayListOf())
-}
\ No newline at end of file
+
+    /**
+     * Gps trail callback to signal that a location was appended to the gps trail.
+     * @param location the location appended at the end of the trail.
+     * @param droppedCount the number of the oldest locations removed from the start of the trail in order to keep it bounded.
+     */
+    fun onGpsTrailAppended(location: Location, droppedCount: Int)
+}
@@ -0,0 +1,89 @@
+package com.telenav.osv.recorder.metadata
+
+import com.telenav.osv.item.KVFile
+import timber.log.Timber
+import java.io.*
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+import java.util.zip.ZipException
+
+/**
+ * Recovers the compressed metadata of a recording which was not finished properly, e.g. the app was killed while recording.
+ *
+ * In the streaming compression mode the [MetadataWriter] writes the metadata in the [FILE_PART_NAME] file which is sync flushed on every
+ * disk flush and renamed to the `track.txt.gz` file only when the recording is finished. A partial file left behind is missing the gzip
+ * trailer, therefore the text is inflated up to the last sync flush and compressed again in a valid `track.txt.gz` file. Same as a text
+ * file which was not finished, the recovered metadata does not have the `END` footer.
+ */
+object MetadataGzipRecovery {
+
+    /**
+     * Name for the compressed metadata file while the recording is in progress.
+     */
+    const val FILE_PART_NAME = "track.txt.gz.part"
+
+    /**
+     * The size for the array used to read data.
+     */
+    private const val SIZE_BYTE_ARRAY = 8192
+
+    private const val INVALID_BYTE_ARRAY_SIZE = -1
+
+    /**
+     * Generates the `track.txt.gz` file from the partial compressed metadata file found in the [sequenceFolder]. The partial file is removed
+     * once the recovery is complete, any previous `track.txt.gz` file is replaced since it can only be the result of an interrupted recovery.
+     * @return the recovered file or `null` if there is no partial file or there was no metadata to recover.
+     */
+    fun recover(sequenceFolder: KVFile): KVFile? {
+        val partFile = KVFile(sequenceFolder, FILE_PART_NAME)
+        if (!partFile.exists()) {
+            return null
+        }
+        val zipFile = KVFile(sequenceFolder, MetadataWriter.FILE_ZIP_NAME)
+        val recoveredBytes = try {
+            GZIPOutputStream(BufferedOutputStream(FileOutputStream(zipFile))).use { out ->
+                inflateAvailable(partFile, out)
+            }
+        } catch (e: IOException) {
+            Timber.d("recover. Status: error. Message: ${e.message}")
+            zipFile.delete()
+            return null
+        }
+        val partFileRemove = partFile.delete()
+        Timber.d("recover. Status: recovered. Bytes: $recoveredBytes. Partial file removed: $partFileRemove.")
+        if (recoveredBytes == 0L) {
+            zipFile.delete()
+            return null
+        }
+        return zipFile
+    }
+
+    /**
+     * Writes the text which can be inflated from the given gzip file into the [output] stream. The end of the readable data, either the end
+     * of the compressed stream or a truncated stream, is not considered an error.
+     * @return the number of bytes written.
+     * @throws IOException if the file cannot be read or the data cannot be written.
+     */
+    @Throws(IOException::class)
+    fun inflateAvailable(gzipFile: File, output: OutputStream): Long {
+        var totalBytes = 0L
+        try {
+            GZIPInputStream(BufferedInputStream(FileInputStream(gzipFile))).use { input ->
+                val data = ByteArray(SIZE_BYTE_ARRAY)
+                while (true) {
+                    val readBytes = input.read(data)
+                    if (readBytes == INVALID_BYTE_ARRAY_SIZE) {
+                        break
+                    }
+                    output.write(data, 0, readBytes)
+                    totalBytes += readBytes
+                }
+            }
+        } catch (e: EOFException) {
+            Timber.d("inflateAvailable. Status: truncated stream. Message: Data inflated up to the last sync flush.")
+        } catch (e: ZipException) {
+            Timber.d("inflateAvailable. Status: corrupted stream. Message: ${e.message}")
+        }
+        return totalBytes
+    }
+}
@@ -1,12 +1,18 @@
 package com.telenav.osv.recorder.metadata
 
 import android.location.Location
+import com.telenav.osv.data.collector.datatype.datatypes.GravityObject
+import com.telenav.osv.data.collector.datatype.datatypes.LinearAccelerationObject
 import com.telenav.osv.data.collector.datatype.datatypes.ObdSpeedObject
 import com.telenav.osv.data.collector.datatype.datatypes.PressureObject
+import com.telenav.osv.data.collector.datatype.datatypes.RotationVectorRawObject
 import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.recorder.metadata.model.MetadataFooter
 import com.telenav.osv.recorder.metadata.model.MetadataHeader
 import com.telenav.osv.recorder.metadata.model.body.MetadataBodyBase
+import com.telenav.osv.recorder.metadata.sensor.MetadataSensorFusion
+import com.telenav.osv.utils.FormatUtils
 
 class MetadataLogger {
 
@@ -48,6 +54,23 @@ class MetadataLogger {
         return body(metadataConverterLog.convertPressure(pressureObject))
     }
 
+    /**
+     * @return the bodies of the values of a frame aligned by [MetadataSensorFusion], all with the timestamp of the frame.
+     */
+    fun bodySensorFrame(frame: MetadataSensorFusion.Frame): String {
+        val body = StringBuilder()
+        if (frame.hasValue(MetadataSensorFusion.STREAM_ACCELERATION)) {
+            body.append(bodyAcceleration(frameThreeAxes(LinearAccelerationObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS), frame, MetadataSensorFusion.STREAM_ACCELERATION)))
+        }
+        if (frame.hasValue(MetadataSensorFusion.STREAM_GRAVITY)) {
+            body.append(bodyGravity(frameThreeAxes(GravityObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS), frame, MetadataSensorFusion.STREAM_GRAVITY)))
+        }
+        if (frame.hasValue(MetadataSensorFusion.STREAM_ATTITUDE)) {
+            body.append(bodyAttitude(frameThreeAxes(RotationVectorRawObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS), frame, MetadataSensorFusion.STREAM_ATTITUDE)))
+        }
+        return body.toString()
+    }
+
     fun bodyGps(location: Location): String {
         return body(metadataConverterLog.convertGps(location))
     }
@@ -67,4 +90,78 @@ class MetadataLogger {
     fun bodyCamera(timestamp: Long, horizontalFieldOfView: Double, verticalFieldOfView: Double, lensAperture: Float): String {
         return body(metadataConverterLog.convertCamera(timestamp, horizontalFieldOfView, verticalFieldOfView, lensAperture))
     }
-}
\ No newline at end of file
+
+    /**
+     * Appends the acceleration body of a sample to the [line], without creating the body models. The text is identical to [bodyAcceleration].
+     */
+    fun appendAcceleration(line: StringBuilder, timestamp: Long, x: Float, y: Float, z: Float) {
+        appendValues(line, TemplateID.ACCELERATION, timestamp, FormatUtils.transformSquareMetersPerSecondIntoGravity(x),
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(y), FormatUtils.transformSquareMetersPerSecondIntoGravity(z))
+    }
+
+    /**
+     * Appends the gravity body of a sample to the [line], without creating the body models. The text is identical to [bodyGravity].
+     */
+    fun appendGravity(line: StringBuilder, timestamp: Long, x: Float, y: Float, z: Float) {
+        appendValues(line, TemplateID.GRAVITY, timestamp, FormatUtils.transformSquareMetersPerSecondIntoGravity(x),
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(y), FormatUtils.transformSquareMetersPerSecondIntoGravity(z))
+    }
+
+    /**
+     * Appends the attitude body of a sample to the [line], without creating the body models. The text is identical to [bodyAttitude].
+     */
+    fun appendAttitude(line: StringBuilder, timestamp: Long, x: Float, y: Float, z: Float) {
+        appendValues(line, TemplateID.ATTITUDE, timestamp, z, x, y)
+    }
+
+    /**
+     * Appends the pressure body of a sample to the [line], without creating the body models. The text is identical to [bodyPressure].
+     */
+    fun appendPressure(line: StringBuilder, timestamp: Long, pressure: Float) {
+        appendTimestampAndTemplate(line, TemplateID.PRESSURE, timestamp)
+        line.append(pressure).append('\n')
+    }
+
+    /**
+     * Appends the compass body of a sample to the [line], without creating the body models. The text is identical to [bodyCompass].
+     */
+    fun appendCompass(line: StringBuilder, timestamp: Long, compass: Float) {
+        appendTimestampAndTemplate(line, TemplateID.COMPASS, timestamp)
+        line.append(compass).append('\n')
+    }
+
+    private fun appendValues(line: StringBuilder, templateId: TemplateID, timestamp: Long, first: Float, second: Float, third: Float) {
+        appendTimestampAndTemplate(line, templateId, timestamp)
+        line.append(first).append(MetadataBodyBase.DELIMITER)
+                .append(second).append(MetadataBodyBase.DELIMITER)
+                .append(third).append('\n')
+    }
+
+    /**
+     * Appends the timestamp in seconds with three decimals, same as [FormatUtils.getMetadataFormatTimestampFromLong] for a timestamp in milliseconds,
+     * and the template id of the body.
+     */
+    private fun appendTimestampAndTemplate(line: StringBuilder, templateId: TemplateID, timestamp: Long) {
+        val millis = (timestamp % MILLIS_IN_SECOND).toInt()
+        line.append(timestamp / MILLIS_IN_SECOND).append('.')
+        if (millis < 100) {
+            line.append('0')
+        }
+        if (millis < 10) {
+            line.append('0')
+        }
+        line.append(millis).append(MetadataBodyBase.COLON).append(templateId.value).append(MetadataBodyBase.COLON)
+    }
+
+    private fun frameThreeAxes(threeAxesObject: ThreeAxesObject, frame: MetadataSensorFusion.Frame, stream: Int): ThreeAxesObject {
+        threeAxesObject.timestamp = frame.timestamp
+        threeAxesObject.setxValue(frame.getxValue(stream))
+        threeAxesObject.setyValue(frame.getyValue(stream))
+        threeAxesObject.setzValue(frame.getzValue(stream))
+        return threeAxesObject
+    }
+
+    private companion object {
+        const val MILLIS_IN_SECOND = 1000L
+    }
+}
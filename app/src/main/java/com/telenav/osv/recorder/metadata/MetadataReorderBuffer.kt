@@ -0,0 +1,66 @@
+package com.telenav.osv.recorder.metadata
+
+import java.util.*
+
+/**
+ * Holds the metadata records for up to [windowMs] in order to write them in timestamp order.
+ *
+ * In the batched collection mode the phone sensor samples are delivered in bursts from the hardware FIFO and the frames aligned by the sensor fusion wait for the
+ * slowest sensor, therefore their records reach the metadata later than the photo, gps or obd records with the same timestamp. Each record is added with the
+ * timestamp of its line and is written once a record newer by at least [windowMs] was added, or on [flush]. The records with the same timestamp are written in the
+ * order they were added. A record older than the records already written is written right away, since the lines before it can not be changed.
+ */
+class MetadataReorderBuffer(private val windowMs: Long) {
+
+    private val records = PriorityQueue<Record>(INITIAL_CAPACITY, Comparator { first, second ->
+        if (first.timestamp != second.timestamp) first.timestamp.compareTo(second.timestamp) else first.sequence.compareTo(second.sequence)
+    })
+
+    private var sequence = 0L
+
+    private var newestTimestamp = Long.MIN_VALUE
+
+    /**
+     * Adds a record and writes the records which are older than the newest one by at least [windowMs].
+     * @param timestamp the timestamp of the record line.
+     * @param write the action which writes the record, called on the thread adding the record which released it.
+     */
+    @Synchronized
+    fun add(timestamp: Long, write: () -> Unit) {
+        records.add(Record(timestamp, sequence++, write))
+        if (timestamp > newestTimestamp) {
+            newestTimestamp = timestamp
+        }
+        writeUpTo(newestTimestamp - windowMs)
+    }
+
+    /**
+     * Writes all the held records, called before the metadata is finished.
+     */
+    @Synchronized
+    fun flush() {
+        writeUpTo(Long.MAX_VALUE)
+    }
+
+    /**
+     * Drops the held records, called when a new metadata is started.
+     */
+    @Synchronized
+    fun reset() {
+        records.clear()
+        sequence = 0
+        newestTimestamp = Long.MIN_VALUE
+    }
+
+    private fun writeUpTo(timestamp: Long) {
+        while (records.isNotEmpty() && records.peek()!!.timestamp <= timestamp) {
+            records.poll()!!.write()
+        }
+    }
+
+    private class Record(val timestamp: Long, val sequence: Long, val write: () -> Unit)
+
+    private companion object {
+        const val INITIAL_CAPACITY = 256
+    }
+}
@@ -2,16 +2,23 @@ package com.telenav.osv.recorder.metadata
 
 import android.content.Context
 import android.location.Location
+import com.telenav.osv.BuildConfig
 import com.telenav.osv.data.collector.config.Config
 import com.telenav.osv.data.collector.datatype.EventDataListener
+import com.telenav.osv.data.collector.datatype.SensorSampleListener
 import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.datatype.datatypes.HeadingObject
 import com.telenav.osv.data.collector.datatype.datatypes.ObdSpeedObject
 import com.telenav.osv.data.collector.datatype.datatypes.PressureObject
+import com.telenav.osv.data.collector.datatype.datatypes.SensorSampleBuffer
 import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
 import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.data.collector.manager.DataCollectorManager
 import com.telenav.osv.item.KVFile
+import com.telenav.osv.recorder.metadata.binary.MetadataBinaryFormat
+import com.telenav.osv.recorder.metadata.binary.MetadataBinaryWriter
 import com.telenav.osv.recorder.metadata.callback.*
+import com.telenav.osv.recorder.metadata.sensor.MetadataSensorFusion
 import timber.log.Timber
 
 /**
@@ -19,7 +26,10 @@ import timber.log.Timber
  *
  * The class itself follows the Singleton pattern in order to maintain only one instance so all the data will be written in the order it is received.
  *
- * It uses [DataCollectorManager] as a dependency to get phone sensor data in the metadata file.
+ * It uses [DataCollectorManager] as a dependency to get phone sensor data in the metadata file. The phone sensors are received as samples by [onSensorSample],
+ * which are written in the binary metadata without allocating objects and in the text metadata without creating the body models. In the batched collection mode the samples are batched in the hardware FIFO and
+ * aligned by [MetadataSensorFusion] into frames at a fixed rate, each frame written with a single append, and all the records are written in timestamp order by
+ * the [reorderBuffer].
  *
  * Available lifecycle methods:
  * * [start]
@@ -32,17 +42,81 @@ import timber.log.Timber
  * * [onDeviceLog]
  * * [onGpsLog]
  */
-class MetadataSensorManager private constructor() : EventDataListener, MetadataObdCallback, MetadataPhotoVideoCallback, MetadataCameraCallback, MetadataGpsCallback {
+class MetadataSensorManager private constructor() : EventDataListener, SensorSampleListener, MetadataObdCallback, MetadataPhotoVideoCallback, MetadataCameraCallback, MetadataGpsCallback {
     private val metadataWriter: MetadataWriter = MetadataWriter()
 
+    private val metadataBinaryWriter: MetadataBinaryWriter = MetadataBinaryWriter()
+
     private val metadataLogger: MetadataLogger = MetadataLogger()
 
     private var dataCollector: DataCollectorManager? = null
 
-    private var photoCachedData: PhotoCachedData = PhotoCachedData(null, null)
+    private var photoCachedData: PhotoCachedData = PhotoCachedData(null)
+
+    /**
+     * The last compass values, cached as primitives for the photos. The values are updated on the sensor thread and read on the photo thread, therefore they
+     * are accessed only under the lock and each photo receives its own copy from [copyCachedCompass].
+     */
+    private val compassCache = FloatArray(SIZE_THREE_AXES)
+
+    private var compassCacheTimestamp = 0L
+
+    private var compassCached = false
+
+    private val compassCacheLock = Any()
+
+    /**
+     * The line reused by [onSensorSample] to write the text metadata of a sample without creating the body models. The samples are received only on the
+     * sensor thread.
+     */
+    private val sampleLine = StringBuilder(SIZE_SAMPLE_LINE)
+
+    private val sensorFusion = MetadataSensorFusion(FUSION_FRAME_PERIOD_MS, FUSION_MAX_LAG_MS, object : MetadataSensorFusion.FrameListener {
+        override fun onFrame(frame: MetadataSensorFusion.Frame) {
+            onSensorFrame(frame)
+        }
+    })
+
+    /**
+     * Orders the records by timestamp in the batched collection mode, in which the fused frames and the batched samples are received later than the other records.
+     */
+    private val reorderBuffer = MetadataReorderBuffer(REORDER_WINDOW_MS)
 
     var listener: MetadataWrittingStatusCallback? = null
 
+    /**
+     * Flag which enables the binary metadata format described by [MetadataBinaryFormat] instead of the text one. The value is read on [create].
+     *
+     * Enabled by default in the debug builds by [BuildConfig.METADATA_BINARY_FORMAT].
+     */
+    var binaryFormatEnabled = BuildConfig.METADATA_BINARY_FORMAT
+
+    private var binaryFormatActive = false
+
+    /**
+     * Flag which enables the batched collection of the phone sensors, batched in the hardware FIFO for up to [MAX_REPORT_LATENCY_US] and aligned into frames
+     * by [MetadataSensorFusion] before they are written. The value is read on [create].
+     *
+     * Enabled by default in the debug builds by [BuildConfig.METADATA_BATCHED_COLLECTION].
+     */
+    var batchedCollectionEnabled = BuildConfig.METADATA_BATCHED_COLLECTION
+
+    private var batchedCollectionActive = false
+
+    /**
+     * Flag which stores if the current [dataCollector] was configured for the batched collection.
+     */
+    private var dataCollectorBatched = false
+
+    /**
+     * Flag which enables the streaming compression of the text metadata, see [MetadataWriter.streamingCompressionEnabled]. The value is read on [create].
+     */
+    var streamingCompressionEnabled: Boolean
+        get() = metadataWriter.streamingCompressionEnabled
+        set(value) {
+            metadataWriter.streamingCompressionEnabled = value
+        }
+
     private object HOLDER {
         val INSTANCE = MetadataSensorManager()
     }
@@ -52,10 +126,19 @@ class MetadataSensorManager private constructor() : EventDataListener, MetadataO
             Timber.e("Listener not set!")
             return;
         }
-        metadataWriter.createFile(parentFolder, listener!!, metadataLogger.headerWithBody())
-        if (dataCollector == null) {
+        binaryFormatActive = binaryFormatEnabled
+        if (binaryFormatActive) {
+            metadataBinaryWriter.createFile(parentFolder, listener!!)
+        } else {
+            metadataWriter.createFile(parentFolder, listener!!, metadataLogger.headerWithBody())
+        }
+        batchedCollectionActive = batchedCollectionEnabled
+        sensorFusion.reset()
+        reorderBuffer.reset()
+        if (dataCollector == null || dataCollectorBatched != batchedCollectionActive) {
             val configBuilder = Config.Builder()
             configBuilder.addSource(LibraryUtil.PHONE_SOURCE)
+                    .setMaxReportLatency(if (batchedCollectionActive) MAX_REPORT_LATENCY_US else 0)
                     //heading
                     .addDataListener(this, LibraryUtil.HEADING)
                     .addSensorFrequency(LibraryUtil.HEADING, LibraryUtil.F_10HZ)
@@ -72,6 +155,7 @@ class MetadataSensorManager private constructor() : EventDataListener, MetadataO
                     .addDataListener(this, LibraryUtil.ROTATION_VECTOR_RAW)
                     .addSensorFrequency(LibraryUtil.ROTATION_VECTOR_RAW, LibraryUtil.F_10HZ)
             dataCollector = DataCollectorManager(context, configBuilder.build())
+            dataCollectorBatched = batchedCollectionActive
             Timber.d("start. Status: create data collector manager with specific settings")
         }
     }
@@ -91,7 +175,15 @@ class MetadataSensorManager private constructor() : EventDataListener, MetadataO
     fun stop() {
         dataCollector?.stopCollectingPhoneData()
         Timber.d("stop. Status: DC stopped collecting. Append footer and close file.")
-        metadataWriter.finish(metadataLogger.footer())
+        if (batchedCollectionActive) {
+            sensorFusion.flush()
+            reorderBuffer.flush()
+        }
+        if (binaryFormatActive) {
+            metadataBinaryWriter.finish()
+        } else {
+            metadataWriter.finish(metadataLogger.footer())
+        }
     }
 
     override fun onPhotoVideoCallback(timestamp: Long, frameIndex: Int, videoIndex: Int, location: Location) {
@@ -101,27 +193,93 @@ class MetadataSensorManager private constructor() : EventDataListener, MetadataO
             return
         }
         Timber.d("onPhotoVideoCallback. Status: log photo data")
-        metadataWriter.appendInFile(metadataLogger.bodyPhotoVideo(timestamp, videoIndex, frameIndex, location, photoCachedData.compassData, photoCachedData.obdSpeedObject), true)
+        val compassData = copyCachedCompass()
+        val obdSpeedObject = photoCachedData.obdSpeedObject
+        if (batchedCollectionActive) {
+            val heldLocation = Location(location)
+            reorderBuffer.add(timestamp) { writePhotoVideo(timestamp, frameIndex, videoIndex, heldLocation, compassData, obdSpeedObject) }
+            return
+        }
+        writePhotoVideo(timestamp, frameIndex, videoIndex, location, compassData, obdSpeedObject)
+    }
+
+    private fun writePhotoVideo(timestamp: Long, frameIndex: Int, videoIndex: Int, location: Location, compassData: ThreeAxesObject?, obdSpeedObject: ObdSpeedObject?) {
+        if (binaryFormatActive) {
+            metadataBinaryWriter.appendPhotoVideo(timestamp, videoIndex, frameIndex, location, compassData, obdSpeedObject)
+            return
+        }
+        metadataWriter.appendInFile(metadataLogger.bodyPhotoVideo(timestamp, videoIndex, frameIndex, location, compassData, obdSpeedObject), true)
     }
 
     override fun onObdCallback(timeStamp: Long, speed: Int) {
-        Timber.d("onObdCallback. Status: log obd data. Timestamp: $timeStamp. Speed:$speed.")
+        Timber.d("onObdCallback. Status: log obd data. Timestamp: %s. Speed:%s.", timeStamp, speed)
+        if (batchedCollectionActive) {
+            reorderBuffer.add(timeStamp) { writeObd(timeStamp, speed) }
+            return
+        }
+        writeObd(timeStamp, speed)
+    }
+
+    private fun writeObd(timeStamp: Long, speed: Int) {
+        if (binaryFormatActive) {
+            metadataBinaryWriter.appendObd(timeStamp, speed)
+            return
+        }
         metadataWriter.appendInFile(metadataLogger.bodyObd(timeStamp, speed))
     }
 
     override fun onCameraSensorCallback(timestamp: Long, focalLength: Float, horizontalFieldOfView: Double, verticalFieldOfView: Double, lensAperture: Float, cameraWidth: Int, cameraHeight: Int) {
-        Timber.d("onCameraSensorCallback. Status: log single exif data. Focal length: $focalLength")
+        Timber.d("onCameraSensorCallback. Status: log single exif data. Focal length: %s", focalLength)
+        if (batchedCollectionActive) {
+            reorderBuffer.add(timestamp) { writeCamera(timestamp, focalLength, horizontalFieldOfView, verticalFieldOfView, lensAperture, cameraWidth, cameraHeight) }
+            return
+        }
+        writeCamera(timestamp, focalLength, horizontalFieldOfView, verticalFieldOfView, lensAperture, cameraWidth, cameraHeight)
+    }
+
+    private fun writeCamera(timestamp: Long, focalLength: Float, horizontalFieldOfView: Double, verticalFieldOfView: Double, lensAperture: Float, cameraWidth: Int, cameraHeight: Int) {
+        if (binaryFormatActive) {
+            metadataBinaryWriter.appendExif(timestamp, focalLength, cameraWidth, cameraHeight)
+            metadataBinaryWriter.appendCamera(timestamp, horizontalFieldOfView, verticalFieldOfView, lensAperture)
+            return
+        }
         metadataWriter.appendInFile(metadataLogger.bodyExif(timestamp, focalLength, cameraWidth, cameraHeight))
-        Timber.d("onCameraSensorCallback. Status: log camera data. Horizontal field of view: $horizontalFieldOfView. Vertical field of view: $verticalFieldOfView.")
+        Timber.d("onCameraSensorCallback. Status: log camera data. Horizontal field of view: %s. Vertical field of view: %s.", horizontalFieldOfView, verticalFieldOfView)
         metadataWriter.appendInFile(metadataLogger.bodyCamera(timestamp, horizontalFieldOfView, verticalFieldOfView, lensAperture))
     }
 
     fun onDeviceLog(timeStamp: Long, platform: String, osRawName: String, osVersion: String, deviceRawName: String, appVersion: String, appBuildNumber: String, isVideoCompression: Boolean) {
         Timber.d("onDeviceLog. Status: log device data. Timestamp: $timeStamp. App Build number:$appBuildNumber. IsVideoCompression: $isVideoCompression")
-        metadataWriter.appendInFile(metadataLogger.bodyDevice(timeStamp, platform, osRawName, osVersion, deviceRawName, appVersion, appBuildNumber, if (isVideoCompression) COMPRESSION_VIDEO else COMPRESSION_PHOTO))
+        val recordingType = if (isVideoCompression) COMPRESSION_VIDEO else COMPRESSION_PHOTO
+        if (batchedCollectionActive) {
+            reorderBuffer.add(timeStamp) { writeDevice(timeStamp, platform, osRawName, osVersion, deviceRawName, appVersion, appBuildNumber, recordingType) }
+            return
+        }
+        writeDevice(timeStamp, platform, osRawName, osVersion, deviceRawName, appVersion, appBuildNumber, recordingType)
+    }
+
+    private fun writeDevice(timeStamp: Long, platform: String, osRawName: String, osVersion: String, deviceRawName: String, appVersion: String, appBuildNumber: String, recordingType: String) {
+        if (binaryFormatActive) {
+            metadataBinaryWriter.appendDevice(timeStamp, platform, osRawName, osVersion, deviceRawName, appVersion, appBuildNumber, recordingType)
+            return
+        }
+        metadataWriter.appendInFile(metadataLogger.bodyDevice(timeStamp, platform, osRawName, osVersion, deviceRawName, appVersion, appBuildNumber, recordingType))
     }
 
     override fun onGpsLog(location: Location) {
+        if (batchedCollectionActive) {
+            val heldLocation = Location(location)
+            reorderBuffer.add(heldLocation.time) { writeGps(heldLocation) }
+            return
+        }
+        writeGps(location)
+    }
+
+    private fun writeGps(location: Location) {
+        if (binaryFormatActive) {
+            metadataBinaryWriter.appendGps(location)
+            return
+        }
         metadataWriter.appendInFile(metadataLogger.bodyGps(location))
     }
 
@@ -131,31 +289,212 @@ class MetadataSensorManager private constructor() : EventDataListener, MetadataO
             return
         }
 
-        Timber.d(String.format("onNewEvent. Status: received sensor. type: %s", baseObject.getSensorType()))
+        Timber.d("onNewEvent. Status: received sensor. type: %s", baseObject.getSensorType())
+        if (baseObject.getSensorType() == LibraryUtil.HEADING) {
+            val compassData = baseObject as ThreeAxesObject
+            cacheCompass(compassData.timestamp, compassData.getxValue(), compassData.getyValue(), compassData.getzValue())
+        }
+        if (batchedCollectionActive) {
+            reorderBuffer.add(baseObject.timestamp) { writeEvent(baseObject) }
+            return
+        }
+        writeEvent(baseObject)
+    }
+
+    private fun writeEvent(baseObject: BaseObject<*>) {
+        if (binaryFormatActive) {
+            onNewBinaryEvent(baseObject)
+            return
+        }
         when (baseObject.getSensorType()) {
             LibraryUtil.ACCELEROMETER -> metadataWriter.appendInFile(metadataLogger.bodyAcceleration(baseObject as ThreeAxesObject))
             LibraryUtil.GRAVITY -> metadataWriter.appendInFile(metadataLogger.bodyGravity(baseObject as ThreeAxesObject))
             LibraryUtil.ROTATION_VECTOR_RAW -> metadataWriter.appendInFile(metadataLogger.bodyAttitude(baseObject as ThreeAxesObject))
             LibraryUtil.LINEAR_ACCELERATION -> metadataWriter.appendInFile(metadataLogger.bodyAcceleration(baseObject as ThreeAxesObject))
             LibraryUtil.PRESSURE -> {
-                Timber.d(String.format("onNewEvent. Status: pressure received sensor. "))
+                Timber.d("onNewEvent. Status: pressure received sensor. ")
                 metadataWriter.appendInFile(metadataLogger.bodyPressure(baseObject as PressureObject))
             }
+            LibraryUtil.HEADING -> metadataWriter.appendInFile(metadataLogger.bodyCompass(baseObject as ThreeAxesObject))
+        }
+    }
+
+    override fun onSensorSample(samples: SensorSampleBuffer, index: Int) {
+        if (batchedCollectionActive) {
+            onBatchedSample(samples, index)
+            return
+        }
+        if (!binaryFormatActive) {
+            onTextSample(samples, index)
+            return
+        }
+        val timestamp = samples.getTimestamp(index)
+        when (samples.sensorType) {
+            LibraryUtil.ACCELEROMETER, LibraryUtil.LINEAR_ACCELERATION -> metadataBinaryWriter.appendAcceleration(timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+            LibraryUtil.GRAVITY -> metadataBinaryWriter.appendGravity(timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+            LibraryUtil.ROTATION_VECTOR_RAW -> metadataBinaryWriter.appendAttitude(timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+            LibraryUtil.PRESSURE -> metadataBinaryWriter.appendPressure(timestamp, samples.getxValue(index))
             LibraryUtil.HEADING -> {
-                val compassData = baseObject as ThreeAxesObject
-                photoCachedData.compassData = compassData
-                metadataWriter.appendInFile(metadataLogger.bodyCompass(compassData))
+                cacheCompass(timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+                metadataBinaryWriter.appendCompass(timestamp, samples.getzValue(index))
+            }
+        }
+    }
+
+    /**
+     * Passes a sample received in the batched collection mode to the [sensorFusion] if it is aligned, otherwise adds it to the [reorderBuffer] so it is written
+     * exactly once, in timestamp order with the fused frames.
+     */
+    private fun onBatchedSample(samples: SensorSampleBuffer, index: Int) {
+        val sensorType = samples.sensorType
+        val timestamp = samples.getTimestamp(index)
+        val x = samples.getxValue(index)
+        val y = samples.getyValue(index)
+        val z = samples.getzValue(index)
+        if (MetadataSensorFusion.isAligned(sensorType)) {
+            sensorFusion.onSample(sensorType, timestamp, x, y, z)
+            return
+        }
+        if (sensorType == LibraryUtil.HEADING) {
+            cacheCompass(timestamp, x, y, z)
+        }
+        reorderBuffer.add(timestamp) {
+            if (binaryFormatActive) {
+                when (sensorType) {
+                    LibraryUtil.PRESSURE -> metadataBinaryWriter.appendPressure(timestamp, x)
+                    LibraryUtil.HEADING -> metadataBinaryWriter.appendCompass(timestamp, z)
+                }
+                return@add
+            }
+            val line = StringBuilder(SIZE_SAMPLE_LINE)
+            when (sensorType) {
+                LibraryUtil.PRESSURE -> metadataLogger.appendPressure(line, timestamp, x)
+                LibraryUtil.HEADING -> metadataLogger.appendCompass(line, timestamp, z)
+                else -> return@add
             }
+            metadataWriter.appendInFile(line.toString())
         }
     }
 
-    private data class PhotoCachedData(var compassData: ThreeAxesObject?, var obdSpeedObject: ObdSpeedObject?)
+    /**
+     * Logs a sample in the text metadata, the line is written from the sample values in the reused [sampleLine] without creating the body models.
+     */
+    private fun onTextSample(samples: SensorSampleBuffer, index: Int) {
+        val timestamp = samples.getTimestamp(index)
+        sampleLine.setLength(0)
+        when (samples.sensorType) {
+            LibraryUtil.ACCELEROMETER, LibraryUtil.LINEAR_ACCELERATION -> metadataLogger.appendAcceleration(sampleLine, timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+            LibraryUtil.GRAVITY -> metadataLogger.appendGravity(sampleLine, timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+            LibraryUtil.ROTATION_VECTOR_RAW -> metadataLogger.appendAttitude(sampleLine, timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+            LibraryUtil.PRESSURE -> metadataLogger.appendPressure(sampleLine, timestamp, samples.getxValue(index))
+            LibraryUtil.HEADING -> {
+                cacheCompass(timestamp, samples.getxValue(index), samples.getyValue(index), samples.getzValue(index))
+                metadataLogger.appendCompass(sampleLine, timestamp, samples.getzValue(index))
+            }
+            else -> return
+        }
+        metadataWriter.appendInFile(sampleLine.toString())
+    }
+
+    /**
+     * Caches the last compass values for the photos.
+     */
+    private fun cacheCompass(timestamp: Long, x: Float, y: Float, z: Float) {
+        synchronized(compassCacheLock) {
+            compassCacheTimestamp = timestamp
+            compassCache[INDEX_X] = x
+            compassCache[INDEX_Y] = y
+            compassCache[INDEX_Z] = z
+            compassCached = true
+        }
+    }
+
+    /**
+     * @return a new compass object with the cached values, owned by the caller, or null if no compass value was received.
+     */
+    private fun copyCachedCompass(): ThreeAxesObject? {
+        synchronized(compassCacheLock) {
+            if (!compassCached) {
+                return null
+            }
+            val compassData = HeadingObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            compassData.timestamp = compassCacheTimestamp
+            compassData.setxValue(compassCache[INDEX_X])
+            compassData.setyValue(compassCache[INDEX_Y])
+            compassData.setzValue(compassCache[INDEX_Z])
+            return compassData
+        }
+    }
+
+    /**
+     * Logs a frame aligned by the [sensorFusion] with a single append, in timestamp order with the other records.
+     */
+    private fun onSensorFrame(frame: MetadataSensorFusion.Frame) {
+        if (binaryFormatActive) {
+            //the frame is reused by the fusion, therefore the held record needs its own copy
+            val frameCopy = frame.copy()
+            reorderBuffer.add(frameCopy.timestamp) { metadataBinaryWriter.appendSensorFrame(frameCopy) }
+            return
+        }
+        val frameBody = metadataLogger.bodySensorFrame(frame)
+        reorderBuffer.add(frame.timestamp) { metadataWriter.appendInFile(frameBody) }
+    }
+
+    /**
+     * Logs the phone sensor data in the binary metadata, the values are passed as primitives without creating the text body models.
+     */
+    private fun onNewBinaryEvent(baseObject: BaseObject<*>) {
+        when (baseObject.getSensorType()) {
+            LibraryUtil.ACCELEROMETER, LibraryUtil.LINEAR_ACCELERATION -> metadataBinaryWriter.appendAcceleration(baseObject.timestamp, baseObject as ThreeAxesObject)
+            LibraryUtil.GRAVITY -> metadataBinaryWriter.appendGravity(baseObject.timestamp, baseObject as ThreeAxesObject)
+            LibraryUtil.ROTATION_VECTOR_RAW -> metadataBinaryWriter.appendAttitude(baseObject.timestamp, baseObject as ThreeAxesObject)
+            LibraryUtil.PRESSURE -> metadataBinaryWriter.appendPressure(baseObject.timestamp, (baseObject as PressureObject).pressure)
+            LibraryUtil.HEADING -> metadataBinaryWriter.appendCompass(baseObject.timestamp, (baseObject as ThreeAxesObject).getzValue())
+        }
+    }
+
+    private data class PhotoCachedData(var obdSpeedObject: ObdSpeedObject?)
 
     companion object {
         val INSTANCE: MetadataSensorManager by lazy { HOLDER.INSTANCE }
 
         private const val SIZE_ONE_VALUE = 1
 
+        private const val SIZE_THREE_AXES = 3
+
+        private const val INDEX_X = 0
+
+        private const val INDEX_Y = 1
+
+        private const val INDEX_Z = 2
+
+        /**
+         * The initial capacity of the [sampleLine], enough for the longest sample line.
+         */
+        private const val SIZE_SAMPLE_LINE = 128
+
+        /**
+         * The maximum time the phone sensor events are batched in the hardware FIFO in the batched collection mode, 10 samples at [LibraryUtil.F_10HZ].
+         */
+        private const val MAX_REPORT_LATENCY_US = 1000000
+
+        /**
+         * The period of the frames aligned by the [sensorFusion], the period of the sensors at [LibraryUtil.F_10HZ].
+         */
+        private const val FUSION_FRAME_PERIOD_MS = 100L
+
+        /**
+         * The time after which a sensor is considered stalled by the [sensorFusion], twice the [MAX_REPORT_LATENCY_US] since the FIFO of each sensor
+         * can be flushed at a different moment.
+         */
+        private const val FUSION_MAX_LAG_MS = 2000L
+
+        /**
+         * The time the records are held by the [reorderBuffer], enough for a fused frame which waited [FUSION_MAX_LAG_MS] for the samples of a batch of
+         * [MAX_REPORT_LATENCY_US] and for a photo which waited for the group commit of its frame.
+         */
+        private const val REORDER_WINDOW_MS = 4000L
+
         private const val COMPRESSION_PHOTO = "photo"
         private const val COMPRESSION_VIDEO = "video"
     }
@@ -4,6 +4,7 @@ import android.os.Handler
 import android.os.HandlerThread
 import android.os.Process
 import com.google.firebase.crashlytics.FirebaseCrashlytics
+import com.telenav.osv.BuildConfig
 import com.telenav.osv.item.KVFile
 import com.telenav.osv.recorder.metadata.callback.MetadataWrittingStatusCallback
 import com.telenav.osv.utils.Utils
@@ -17,6 +18,10 @@ import java.util.zip.GZIPOutputStream
 /**
  * Class which handles all metadata write requirements. It will hold a queue in order to only write a maximum number of rows since the write is quite expensive.
  *
+ * By default the metadata is written as text and compressed into a .gz file on [finish]. When [streamingCompressionEnabled] is set the
+ * metadata is compressed while it is written, in a partial file which is sync flushed on every disk flush, therefore the [finish] time
+ * does not depend on the recording length. A partial file left by a recording which was not finished is recovered by [MetadataGzipRecovery].
+ *
  * There are three methods available for the writer:
  * * [createFile]
  * * [appendInFile]
@@ -46,6 +51,15 @@ class MetadataWriter {
 
     private lateinit var parentFolder: KVFile
 
+    /**
+     * Flag which enables the streaming compression of the metadata. The value is read on [createFile].
+     *
+     * Enabled by default in all the builds by [BuildConfig.METADATA_STREAMING_COMPRESSION].
+     */
+    var streamingCompressionEnabled = BuildConfig.METADATA_STREAMING_COMPRESSION
+
+    private var streamingCompressionActive = false
+
     /**
      * Callback listener which can be set in order to obtain data for either success/failure in writing the metadata.
      */
@@ -61,7 +75,7 @@ class MetadataWriter {
      * @param flushNow the optional parameter which will trigger an immediate data flush on the disk with all the cached data including the [data] param.
      */
     fun appendInFile(data: String, flushNow: Boolean = false) {
-        Timber.d("appendInFile. Finish in progress: ${finishInProgress.get()}. Flush now: $flushNow. Data: $data")
+        Timber.d("appendInFile. Finish in progress: %s. Flush now: %s. Data: %s", finishInProgress.get(), flushNow, data)
         // if the finish was in progress new data is locked since it will be put under the END mark which will make the parser not able to finish the sequence
         if (!createInProgress.get() && !finishInProgress.get()) {
             sensorDataQueue.add(data)
@@ -94,15 +108,22 @@ class MetadataWriter {
         sensorDataQueue.add(header)
         bufferedLines.incrementAndGet()
         this.metadataCallback = metadataCallback
+        streamingCompressionActive = streamingCompressionEnabled
         createBackgroundHandlerIfNecessary()
         mBackgroundHandler?.post {
-            val newFile = KVFile(parentFolder, FILE_NAME)
+            val newFile = KVFile(parentFolder, if (streamingCompressionActive) MetadataGzipRecovery.FILE_PART_NAME else FILE_NAME)
             //check if the file exists, more a fail-safe than anything
             if (!newFile.exists()) {
                 try {
                     newFile.createNewFile()
-                    outputStream = FileOutputStream(newFile, true)
-                    bufferedWriter = outputStream!!.bufferedWriter()
+                    val fileOutputStream = FileOutputStream(newFile, true)
+                    outputStream = fileOutputStream
+                    bufferedWriter = if (streamingCompressionActive) {
+                        //the sync flush mode will make each flush of the writer write all the compressed data so far on the disk
+                        GZIPOutputStream(fileOutputStream, SIZE_GZIP_BUFFER, true).bufferedWriter()
+                    } else {
+                        fileOutputStream.bufferedWriter()
+                    }
                 } catch (e: Exception) {
                     Timber.d("createFile. Status: ${e.message}.")
                     val crashlytics = FirebaseCrashlytics.getInstance()
@@ -134,7 +155,7 @@ class MetadataWriter {
 
     private fun flushIfNeeded() {
         val count = bufferedLines.incrementAndGet()
-        Timber.d("flushIfNeeded. Status: buffered lines. No: $count")
+        Timber.d("flushIfNeeded. Status: buffered lines. No: %s", count)
         if (count >= MAX_BUFFERED_LINES) {
             flushToDisk()
         }
@@ -168,13 +189,88 @@ class MetadataWriter {
             }
             //the compression part where if the param signals a finish will compress the file
             if (zipLog) {
-                zipFile()
+                if (streamingCompressionActive) {
+                    finishCompressedFile()
+                } else {
+                    zipFile()
+                }
+            } else if (streamingCompressionActive && !syncFlush()) {
+                return@post
             }
             //rest the writing counter for the flushIfNeeded button
             bufferedLines.set(0)
         }
     }
 
+    /**
+     * Flushes the compressed data written so far on the disk, the partial file is readable up to this point in case the recording will not be finished.
+     * @return `true` if the flush was successful, `false` otherwise.
+     */
+    private fun syncFlush(): Boolean {
+        try {
+            bufferedWriter?.flush()
+        } catch (exception: IOException) {
+            Timber.d("syncFlush. Error: ${exception.message}")
+            val crashlytics = FirebaseCrashlytics.getInstance()
+            crashlytics.recordException(exception)
+            //signal error therefore metadata will close so there is no reason to add new sensor data
+            finishInProgress.set(true)
+            metadataCallback?.onMetadataLoggingError(exception)
+            return false
+        }
+        return true
+    }
+
+    /**
+     * Finishes the compressed stream and renames the partial file to the compressed metadata file. If the stream cannot be finished the
+     * partial file is recovered up to the last sync flush by using [MetadataGzipRecovery], same as after a crash. If the recovery fails too
+     * there is no compressed metadata file left for the upload, which is reported by [MetadataWrittingStatusCallback.onMetadataLoggingError]
+     * before the finish callback with the size set on 0.
+     */
+    private fun finishCompressedFile() {
+        val partFile = metadataFile
+        if (partFile == null || !partFile.exists()) {
+            closeResources()
+            finishInProgress.set(false)
+            //call a metadata finish with the size set on 0 since there is no physical file on the disk
+            metadataCallback?.onMetadataLoggingFinished(0)
+            return
+        }
+        val zipFile = KVFile(parentFolder, FILE_ZIP_NAME)
+        var finished = try {
+            closeResources()
+            true
+        } catch (e: IOException) {
+            Timber.d("finishCompressedFile. Status: error. Message: ${e.message}")
+            val crashlytics = FirebaseCrashlytics.getInstance()
+            crashlytics.recordException(e)
+            false
+        }
+        if (finished) {
+            finished = partFile.renameTo(zipFile)
+        }
+        if (!finished) {
+            //fail-safe to release the file when the compressed stream could not be finished
+            try {
+                outputStream?.close()
+            } catch (e: IOException) {
+                Timber.d("finishCompressedFile. Status: close error. Message: ${e.message}")
+            }
+            bufferedWriter = null
+            outputStream = null
+        }
+        val finishedFile = if (finished) zipFile else MetadataGzipRecovery.recover(parentFolder)
+        Timber.d("finishCompressedFile. Status: $finished. Recovered: ${!finished && finishedFile != null}. Message: Compressed metadata file finished.")
+        finishInProgress.set(false)
+        this.metadataFile = null
+        if (finishedFile == null) {
+            metadataCallback?.onMetadataLoggingError(IOException("Compressed metadata could not be finished or recovered"))
+            metadataCallback?.onMetadataLoggingFinished(0)
+            return
+        }
+        metadataCallback?.onMetadataLoggingFinished(Utils.fileSize(finishedFile))
+    }
+
     private fun zipFile() {
         closeResources()
         //for the cases when there was not anything written in the metadata but the file was created into the memory but not on the physical disk
@@ -240,29 +336,34 @@ class MetadataWriter {
         }
     }
 
-    private companion object {
+    companion object {
         /**
-         * Name for the text metadata file
+         * Name for the compressed metadata file, the file expected by the upload.
          */
-        const val FILE_NAME = "/track.txt"
+        const val FILE_ZIP_NAME = "track.txt.gz"
 
         /**
-         * Name for the compressed metadata file
+         * Name for the text metadata file
          */
-        const val FILE_ZIP_NAME = "track.txt.gz"
+        private const val FILE_NAME = "/track.txt"
 
         /**
          * Maximum number of values in the [sensorDataQueue] before an automatic trigger of a disk flush.
          */
-        const val MAX_BUFFERED_LINES = 40
+        private const val MAX_BUFFERED_LINES = 40
 
         /**
          * The size for the array used to read data
          */
-        const val SIZE_BYTE_ARRAY = 1024
+        private const val SIZE_BYTE_ARRAY = 1024
+
+        /**
+         * The size of the output buffer for the streaming compression.
+         */
+        private const val SIZE_GZIP_BUFFER = 8192
 
-        const val NAME_HANDLER_THREAD = "SensorCollector"
+        private const val NAME_HANDLER_THREAD = "SensorCollector"
 
-        const val INVALID_BYTE_ARRAY_SIZE = -1
+        private const val INVALID_BYTE_ARRAY_SIZE = -1
     }
 }
\ No newline at end of file
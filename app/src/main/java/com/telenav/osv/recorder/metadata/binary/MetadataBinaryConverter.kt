@@ -0,0 +1,114 @@
+package com.telenav.osv.recorder.metadata.binary
+
+import com.telenav.osv.item.KVFile
+import com.telenav.osv.recorder.metadata.MetadataWriter
+import com.telenav.osv.recorder.metadata.TemplateID
+import com.telenav.osv.recorder.metadata.model.MetadataFooter
+import com.telenav.osv.recorder.metadata.model.MetadataHeader
+import com.telenav.osv.recorder.metadata.model.body.MetadataBodyBase
+import com.telenav.osv.utils.FormatUtils
+import timber.log.Timber
+import java.io.*
+import java.util.zip.GZIPOutputStream
+import java.util.zip.InflaterInputStream
+
+/**
+ * Converts a binary metadata file written by [MetadataBinaryWriter] into the text metadata format.
+ *
+ * The text is produced by the same body models used by the text writer, therefore the output is identical to the `track.txt` content
+ * which would have been written for the same samples. A binary file which was not finished is converted up to its last complete block
+ * and, same as a text file which was not finished, without the `END` footer.
+ */
+object MetadataBinaryConverter {
+
+    /**
+     * Generates the `track.txt.gz` file from the binary metadata file found in the [sequenceFolder]. The binary file is removed on success.
+     * @return the compressed text file or `null` if there is no binary metadata file or the conversion failed.
+     */
+    fun convertToTrackGzip(sequenceFolder: KVFile): KVFile? {
+        val binaryFile = KVFile(sequenceFolder, MetadataBinaryFormat.FILE_NAME)
+        if (!binaryFile.exists()) {
+            return null
+        }
+        val zipFile = KVFile(sequenceFolder, MetadataWriter.FILE_ZIP_NAME)
+        return try {
+            GZIPOutputStream(BufferedOutputStream(FileOutputStream(zipFile))).use { out ->
+                convertToText(binaryFile, out)
+            }
+            binaryFile.delete()
+            zipFile
+        } catch (e: IOException) {
+            Timber.d("convertToTrackGzip. Status: error. Message: ${e.message}")
+            zipFile.delete()
+            null
+        }
+    }
+
+    /**
+     * Writes the text metadata for the given binary metadata file into the [output] stream.
+     * @throws IOException if the file is not a binary metadata file or it cannot be read.
+     */
+    @Throws(IOException::class)
+    fun convertToText(binaryFile: File, output: OutputStream) {
+        DataInputStream(BufferedInputStream(FileInputStream(binaryFile))).use { fileInput ->
+            if (fileInput.readInt() != MetadataBinaryFormat.MAGIC || fileInput.readInt() > MetadataBinaryFormat.VERSION) {
+                throw IOException("Unsupported metadata file")
+            }
+            val writer = BufferedWriter(OutputStreamWriter(output, Charsets.UTF_8))
+            writer.write(MetadataHeader().toString())
+            val input = DataInputStream(InflaterInputStream(fileInput))
+            val block = MetadataColumnBlock()
+            while (true) {
+                val marker = try {
+                    input.readInt()
+                } catch (e: EOFException) {
+                    Timber.d("convertToText. Status: unfinished file. Message: Metadata converted up to the last complete block.")
+                    break
+                }
+                if (marker == MetadataBinaryFormat.END_MARKER) {
+                    writer.write(MetadataFooter().toString())
+                    break
+                }
+                if (marker != MetadataBinaryFormat.BLOCK_MARKER) {
+                    throw IOException("Invalid metadata block marker")
+                }
+                try {
+                    block.readFrom(input)
+                } catch (e: EOFException) {
+                    Timber.d("convertToText. Status: unfinished file. Message: Incomplete block ignored.")
+                    break
+                }
+                while (block.hasNextRecord()) {
+                    writer.write(readRecord(block).toString())
+                }
+            }
+            writer.flush()
+        }
+    }
+
+    private fun readRecord(block: MetadataColumnBlock): MetadataBodyBase {
+        val templateID = block.nextTemplate()
+        val timestamp = FormatUtils.getMetadataFormatTimestampFromLong(block.nextLong())
+        val fieldTypes = MetadataBinaryFormat.fieldsOf(templateID)
+        val fields = arrayOfNulls<Any>(fieldTypes.size)
+        for (i in fieldTypes.indices) {
+            val fieldType = fieldTypes[i]
+            if (fieldType.nullable && !block.nextPresence()) {
+                continue
+            }
+            fields[i] = when (fieldType) {
+                MetadataFieldType.TIMESTAMP, MetadataFieldType.NULLABLE_TIMESTAMP -> FormatUtils.getMetadataFormatTimestampFromLong(block.nextLong())
+                MetadataFieldType.INT, MetadataFieldType.NULLABLE_INT -> block.nextInt()
+                MetadataFieldType.FLOAT, MetadataFieldType.NULLABLE_FLOAT -> block.nextFloat()
+                MetadataFieldType.DOUBLE -> block.nextDouble()
+                MetadataFieldType.STRING -> block.nextString()
+            }
+        }
+        return MetadataBodyRecord(timestamp, templateID, fields)
+    }
+
+    /**
+     * Generic body model for the records read from the binary file, formatted the same as the typed body models.
+     */
+    private class MetadataBodyRecord(timeStamp: String, templateId: TemplateID, fields: Array<Any?>) : MetadataBodyBase(timeStamp, templateId, fields)
+}
@@ -0,0 +1,83 @@
+package com.telenav.osv.recorder.metadata.binary
+
+import com.telenav.osv.recorder.metadata.TemplateID
+
+/**
+ * The typed column of a metadata field in the binary metadata format.
+ *
+ * Every value of a record is stored in the column of its primitive type, the nullable types have an additional presence flag stored in
+ * the [MetadataColumnBlock.presence] column and the value is stored only when present.
+ */
+enum class MetadataFieldType(val nullable: Boolean) {
+    /**
+     * Timestamp in milliseconds stored in the long column, written in text as seconds with 3 decimals.
+     */
+    TIMESTAMP(false),
+    INT(false),
+    FLOAT(false),
+    DOUBLE(false),
+    STRING(false),
+    NULLABLE_TIMESTAMP(true),
+    NULLABLE_INT(true),
+    NULLABLE_FLOAT(true)
+}
+
+/**
+ * The binary metadata format, a compact alternative to the text `track.txt` file.
+ *
+ * The file starts with the [MAGIC] and [VERSION] integers, followed by a zlib stream made of blocks. Each block holds up to
+ * [MetadataColumnBlock.MAX_RECORDS] records in struct-of-arrays form: one column with the [TemplateID] of each record in the order
+ * they were logged and one column for each primitive type. The stream is sync flushed after every block, therefore a file which was
+ * not closed properly is readable up to the last complete block. A finished file ends with the [END_MARKER].
+ *
+ * The fields of each template, excluding the record timestamp which is always the first value, are defined by [fieldsOf] in the same
+ * order as the fields of the text body models from the `model.body` package.
+ */
+object MetadataBinaryFormat {
+
+    /**
+     * Name for the binary metadata file.
+     */
+    const val FILE_NAME = "track.bin"
+
+    /**
+     * Identifier of the binary metadata file, the ASCII value of `KVMB`.
+     */
+    const val MAGIC = 0x4B564D42
+
+    const val VERSION = 1
+
+    /**
+     * Identifier written before each block, used to detect a corrupted stream.
+     */
+    const val BLOCK_MARKER = 0x424C4B31
+
+    /**
+     * Identifier written after the last block when the recording was finished, the equivalent of the `END` line of the text format.
+     */
+    const val END_MARKER = 0x454E4431
+
+    private val TEMPLATE_FIELDS: Map<TemplateID, Array<MetadataFieldType>> = mapOf(
+            TemplateID.DEVICE to Array(7) { MetadataFieldType.STRING },
+            TemplateID.GPS to arrayOf(MetadataFieldType.DOUBLE, MetadataFieldType.DOUBLE, MetadataFieldType.DOUBLE,
+                    MetadataFieldType.FLOAT, MetadataFieldType.FLOAT, MetadataFieldType.FLOAT),
+            TemplateID.OBD to arrayOf(MetadataFieldType.INT),
+            TemplateID.CAMERA to arrayOf(MetadataFieldType.DOUBLE, MetadataFieldType.DOUBLE, MetadataFieldType.FLOAT),
+            TemplateID.EXIF to arrayOf(MetadataFieldType.FLOAT, MetadataFieldType.INT, MetadataFieldType.INT),
+            TemplateID.PRESSURE to arrayOf(MetadataFieldType.FLOAT),
+            TemplateID.COMPASS to arrayOf(MetadataFieldType.FLOAT),
+            TemplateID.PHOTO to arrayOf(MetadataFieldType.INT, MetadataFieldType.INT, MetadataFieldType.TIMESTAMP,
+                    MetadataFieldType.DOUBLE, MetadataFieldType.DOUBLE, MetadataFieldType.FLOAT, MetadataFieldType.FLOAT,
+                    MetadataFieldType.NULLABLE_TIMESTAMP, MetadataFieldType.NULLABLE_FLOAT,
+                    MetadataFieldType.NULLABLE_TIMESTAMP, MetadataFieldType.NULLABLE_INT),
+            TemplateID.ACCELERATION to Array(3) { MetadataFieldType.FLOAT },
+            TemplateID.ATTITUDE to Array(3) { MetadataFieldType.FLOAT },
+            TemplateID.GRAVITY to Array(3) { MetadataFieldType.FLOAT })
+
+    /**
+     * @return the field types of the given template, without the record timestamp.
+     */
+    fun fieldsOf(templateID: TemplateID): Array<MetadataFieldType> {
+        return TEMPLATE_FIELDS.getValue(templateID)
+    }
+}
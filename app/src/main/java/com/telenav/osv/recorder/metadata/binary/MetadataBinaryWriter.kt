@@ -0,0 +1,386 @@
+package com.telenav.osv.recorder.metadata.binary
+
+import android.location.Location
+import android.os.Handler
+import android.os.HandlerThread
+import android.os.Process
+import com.google.firebase.crashlytics.FirebaseCrashlytics
+import com.telenav.osv.data.collector.datatype.datatypes.ObdSpeedObject
+import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
+import com.telenav.osv.item.KVFile
+import com.telenav.osv.recorder.metadata.TemplateID
+import com.telenav.osv.recorder.metadata.callback.MetadataWrittingStatusCallback
+import com.telenav.osv.recorder.metadata.sensor.MetadataSensorFusion
+import com.telenav.osv.utils.FormatUtils
+import com.telenav.osv.utils.Utils
+import timber.log.Timber
+import java.io.BufferedOutputStream
+import java.io.DataOutputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+
+/**
+ * Writer for the binary metadata format described by [MetadataBinaryFormat], an alternative to the text [com.telenav.osv.recorder.metadata.MetadataWriter].
+ *
+ * The samples are appended as primitives into a [MetadataColumnBlock], without creating any intermediate object. A full block is
+ * compressed and written on the background thread while the next block is filled, therefore the file is complete as soon as [finish]
+ * writes the last block and there is no compression pass at the end of the recording.
+ *
+ * The lifecycle is the same as for the text writer: [createFile], any number of `append*` calls and [finish]. The text `track.txt.gz`
+ * file required by the upload is generated from the binary file by [MetadataBinaryConverter].
+ */
+class MetadataBinaryWriter {
+
+    private val blockLock = Any()
+
+    private var currentBlock = MetadataColumnBlock()
+
+    /**
+     * Blocks which were already written and can be reused.
+     */
+    private val freeBlocks = ConcurrentLinkedQueue<MetadataColumnBlock>()
+
+    private val acceptingData = AtomicBoolean()
+
+    private var outputStream: DataOutputStream? = null
+
+    private var metadataFile: KVFile? = null
+
+    private var backgroundThread: HandlerThread? = null
+
+    private var backgroundHandler: Handler? = null
+
+    private var metadataCallback: MetadataWrittingStatusCallback? = null
+
+    /**
+     * Creates the binary metadata file in the given [parentFolder] and writes the file header.
+     * @param parentFolder the folder where the metadata file will be created in
+     * @param metadataCallback the callback listener to signal finish/error responses
+     */
+    fun createFile(parentFolder: KVFile, metadataCallback: MetadataWrittingStatusCallback) {
+        synchronized(blockLock) {
+            currentBlock.clear()
+        }
+        this.metadataCallback = metadataCallback
+        acceptingData.set(true)
+        createBackgroundHandlerIfNecessary()
+        backgroundHandler?.post {
+            val newFile = KVFile(parentFolder, MetadataBinaryFormat.FILE_NAME)
+            try {
+                val fileOutputStream = FileOutputStream(newFile)
+                DataOutputStream(BufferedOutputStream(fileOutputStream)).apply {
+                    writeInt(MetadataBinaryFormat.MAGIC)
+                    writeInt(MetadataBinaryFormat.VERSION)
+                    flush()
+                }
+                //the deflater stream is sync flushed after each block so the file can be read up to the last written block
+                outputStream = DataOutputStream(DeflaterOutputStream(BufferedOutputStream(fileOutputStream), Deflater(Deflater.DEFAULT_COMPRESSION), SIZE_BUFFER, true))
+            } catch (e: IOException) {
+                Timber.d("createFile. Status: ${e.message}.")
+                FirebaseCrashlytics.getInstance().recordException(e)
+                acceptingData.set(false)
+                closeResources()
+                this.metadataCallback?.onMetadataLoggingError(e)
+                return@post
+            }
+            metadataFile = newFile
+            this.metadataCallback?.onMetadataCreated()
+        }
+    }
+
+    fun appendAcceleration(timestamp: Long, threeAxesObject: ThreeAxesObject) {
+        appendAcceleration(timestamp, threeAxesObject.getxValue(), threeAxesObject.getyValue(), threeAxesObject.getzValue())
+    }
+
+    /**
+     * Appends the acceleration read in m/s^2 on the three axes, the values are stored in G.
+     */
+    fun appendAcceleration(timestamp: Long, x: Float, y: Float, z: Float) {
+        appendThreeAxes(TemplateID.ACCELERATION, timestamp,
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(x),
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(y),
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(z))
+    }
+
+    fun appendGravity(timestamp: Long, threeAxesObject: ThreeAxesObject) {
+        appendGravity(timestamp, threeAxesObject.getxValue(), threeAxesObject.getyValue(), threeAxesObject.getzValue())
+    }
+
+    /**
+     * Appends the gravity read in m/s^2 on the three axes, the values are stored in G.
+     */
+    fun appendGravity(timestamp: Long, x: Float, y: Float, z: Float) {
+        appendThreeAxes(TemplateID.GRAVITY, timestamp,
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(x),
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(y),
+                FormatUtils.transformSquareMetersPerSecondIntoGravity(z))
+    }
+
+    fun appendAttitude(timestamp: Long, threeAxesObject: ThreeAxesObject) {
+        appendAttitude(timestamp, threeAxesObject.getxValue(), threeAxesObject.getyValue(), threeAxesObject.getzValue())
+    }
+
+    /**
+     * Appends the attitude, the axes are stored in the z, x, y order of the text metadata.
+     */
+    fun appendAttitude(timestamp: Long, x: Float, y: Float, z: Float) {
+        appendThreeAxes(TemplateID.ATTITUDE, timestamp, z, x, y)
+    }
+
+    /**
+     * Appends the records of a frame aligned by [MetadataSensorFusion], all with the timestamp of the frame, under a single lock acquisition.
+     */
+    fun appendSensorFrame(frame: MetadataSensorFusion.Frame) {
+        if (!acceptingData.get()) {
+            return
+        }
+        val timestamp = frame.timestamp
+        synchronized(blockLock) {
+            if (frame.hasValue(MetadataSensorFusion.STREAM_ACCELERATION)) {
+                putThreeAxes(TemplateID.ACCELERATION, timestamp,
+                        FormatUtils.transformSquareMetersPerSecondIntoGravity(frame.getxValue(MetadataSensorFusion.STREAM_ACCELERATION)),
+                        FormatUtils.transformSquareMetersPerSecondIntoGravity(frame.getyValue(MetadataSensorFusion.STREAM_ACCELERATION)),
+                        FormatUtils.transformSquareMetersPerSecondIntoGravity(frame.getzValue(MetadataSensorFusion.STREAM_ACCELERATION)))
+            }
+            if (frame.hasValue(MetadataSensorFusion.STREAM_GRAVITY)) {
+                putThreeAxes(TemplateID.GRAVITY, timestamp,
+                        FormatUtils.transformSquareMetersPerSecondIntoGravity(frame.getxValue(MetadataSensorFusion.STREAM_GRAVITY)),
+                        FormatUtils.transformSquareMetersPerSecondIntoGravity(frame.getyValue(MetadataSensorFusion.STREAM_GRAVITY)),
+                        FormatUtils.transformSquareMetersPerSecondIntoGravity(frame.getzValue(MetadataSensorFusion.STREAM_GRAVITY)))
+            }
+            if (frame.hasValue(MetadataSensorFusion.STREAM_ATTITUDE)) {
+                putThreeAxes(TemplateID.ATTITUDE, timestamp,
+                        frame.getzValue(MetadataSensorFusion.STREAM_ATTITUDE),
+                        frame.getxValue(MetadataSensorFusion.STREAM_ATTITUDE),
+                        frame.getyValue(MetadataSensorFusion.STREAM_ATTITUDE))
+            }
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    fun appendCompass(timestamp: Long, compass: Float) {
+        appendSingleFloat(TemplateID.COMPASS, timestamp, compass)
+    }
+
+    fun appendPressure(timestamp: Long, pressure: Float) {
+        appendSingleFloat(TemplateID.PRESSURE, timestamp, pressure)
+    }
+
+    fun appendObd(timestamp: Long, speed: Int) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            currentBlock.beginRecord(TemplateID.OBD, timestamp)
+            currentBlock.putInt(speed)
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    fun appendGps(location: Location) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            currentBlock.beginRecord(TemplateID.GPS, location.time)
+            currentBlock.putDouble(location.latitude)
+            currentBlock.putDouble(location.longitude)
+            currentBlock.putDouble(location.altitude)
+            currentBlock.putFloat(location.accuracy)
+            currentBlock.putFloat(location.accuracy)
+            currentBlock.putFloat(location.speed)
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    /**
+     * Appends a photo/video frame record. The block is written right away, same as the text writer does for the frame lines,
+     * so the metadata on disk always covers the frames on disk.
+     */
+    fun appendPhotoVideo(timestamp: Long, videoIndex: Int, frameIndex: Int, location: Location, compassObject: ThreeAxesObject?, obdSpeedObject: ObdSpeedObject?) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            currentBlock.beginRecord(TemplateID.PHOTO, timestamp)
+            currentBlock.putInt(videoIndex)
+            currentBlock.putInt(frameIndex)
+            currentBlock.putLong(location.time)
+            currentBlock.putDouble(location.latitude)
+            currentBlock.putDouble(location.longitude)
+            currentBlock.putFloat(location.accuracy)
+            currentBlock.putFloat(location.speed)
+            currentBlock.putPresence(compassObject != null)
+            if (compassObject != null) {
+                currentBlock.putLong(compassObject.timestamp)
+            }
+            currentBlock.putPresence(compassObject != null)
+            if (compassObject != null) {
+                currentBlock.putFloat(compassObject.getzValue())
+            }
+            currentBlock.putPresence(obdSpeedObject != null)
+            if (obdSpeedObject != null) {
+                currentBlock.putLong(obdSpeedObject.timestamp)
+            }
+            currentBlock.putPresence(obdSpeedObject != null)
+            if (obdSpeedObject != null) {
+                currentBlock.putInt(obdSpeedObject.speed)
+            }
+            flushBlockIfNeeded(true)
+        }
+    }
+
+    fun appendExif(timestamp: Long, focalLength: Float, cameraWidth: Int, cameraHeight: Int) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            currentBlock.beginRecord(TemplateID.EXIF, timestamp)
+            currentBlock.putFloat(focalLength)
+            currentBlock.putInt(cameraWidth)
+            currentBlock.putInt(cameraHeight)
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    fun appendCamera(timestamp: Long, horizontalFieldOfView: Double, verticalFieldOfView: Double, lensAperture: Float) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            currentBlock.beginRecord(TemplateID.CAMERA, timestamp)
+            currentBlock.putDouble(horizontalFieldOfView)
+            currentBlock.putDouble(verticalFieldOfView)
+            currentBlock.putFloat(lensAperture)
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    fun appendDevice(timestamp: Long, platform: String, osRawName: String, osVersion: String, deviceRawName: String, appVersion: String, appBuildNumber: String, recordingType: String) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            currentBlock.beginRecord(TemplateID.DEVICE, timestamp)
+            currentBlock.putString(platform)
+            currentBlock.putString(osRawName)
+            currentBlock.putString(osVersion)
+            currentBlock.putString(deviceRawName)
+            currentBlock.putString(appVersion)
+            currentBlock.putString(appBuildNumber)
+            currentBlock.putString(recordingType)
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    /**
+     * Writes the remaining records and closes the file. The callback receives the size of the binary file.
+     */
+    fun finish() {
+        if (!acceptingData.getAndSet(false)) {
+            return
+        }
+        synchronized(blockLock) {
+            flushBlockIfNeeded(true)
+        }
+        backgroundHandler?.post {
+            try {
+                outputStream?.writeInt(MetadataBinaryFormat.END_MARKER)
+            } catch (e: IOException) {
+                Timber.d("finish. Status: error. Message: ${e.message}")
+            }
+            closeResources()
+            val file = metadataFile
+            metadataFile = null
+            metadataCallback?.onMetadataLoggingFinished(if (file != null && file.exists()) Utils.fileSize(file) else 0)
+        }
+    }
+
+    private fun appendThreeAxes(templateID: TemplateID, timestamp: Long, first: Float, second: Float, third: Float) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            putThreeAxes(templateID, timestamp, first, second, third)
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    /**
+     * Should be called while holding the [blockLock].
+     */
+    private fun putThreeAxes(templateID: TemplateID, timestamp: Long, first: Float, second: Float, third: Float) {
+        currentBlock.beginRecord(templateID, timestamp)
+        currentBlock.putFloat(first)
+        currentBlock.putFloat(second)
+        currentBlock.putFloat(third)
+    }
+
+    private fun appendSingleFloat(templateID: TemplateID, timestamp: Long, value: Float) {
+        if (!acceptingData.get()) {
+            return
+        }
+        synchronized(blockLock) {
+            currentBlock.beginRecord(templateID, timestamp)
+            currentBlock.putFloat(value)
+            flushBlockIfNeeded(false)
+        }
+    }
+
+    /**
+     * Hands the current block to the background thread if it is full or if [flushNow] is set and replaces it with a free block.
+     * Should be called while holding the [blockLock].
+     */
+    private fun flushBlockIfNeeded(flushNow: Boolean) {
+        if (currentBlock.isEmpty() || (!flushNow && !currentBlock.isFull())) {
+            return
+        }
+        val block = currentBlock
+        currentBlock = freeBlocks.poll() ?: MetadataColumnBlock()
+        backgroundHandler?.post {
+            try {
+                outputStream?.let {
+                    block.writeTo(it)
+                    it.flush()
+                }
+            } catch (e: IOException) {
+                Timber.d("flushBlock. Status: error. Message: ${e.message}")
+                FirebaseCrashlytics.getInstance().recordException(e)
+                acceptingData.set(false)
+                metadataCallback?.onMetadataLoggingError(e)
+            }
+            block.clear()
+            freeBlocks.offer(block)
+        }
+    }
+
+    private fun closeResources() {
+        try {
+            outputStream?.close()
+        } catch (e: IOException) {
+            Timber.d("closeResources. Status: error. Message: ${e.message}")
+        }
+        outputStream = null
+    }
+
+    private fun createBackgroundHandlerIfNecessary() {
+        if (backgroundHandler == null || backgroundThread == null || !backgroundThread!!.isAlive) {
+            backgroundThread = HandlerThread(NAME_HANDLER_THREAD, Process.THREAD_PRIORITY_FOREGROUND)
+            backgroundThread!!.start()
+            backgroundHandler = Handler(backgroundThread!!.looper)
+        }
+    }
+
+    private companion object {
+        const val NAME_HANDLER_THREAD = "BinaryMetadataWriter"
+
+        /**
+         * The size of the deflater output buffer.
+         */
+        const val SIZE_BUFFER = 8192
+    }
+}
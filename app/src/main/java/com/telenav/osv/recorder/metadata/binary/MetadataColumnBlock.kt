@@ -0,0 +1,261 @@
+package com.telenav.osv.recorder.metadata.binary
+
+import com.telenav.osv.recorder.metadata.TemplateID
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+
+/**
+ * A block of metadata records stored as typed columns.
+ *
+ * The records are appended by calling [beginRecord] followed by the values of the template fields, in the order defined by
+ * [MetadataBinaryFormat.fieldsOf]. The columns are primitive arrays which are grown only when needed, therefore a block can be
+ * reused by calling [clear] without any allocation for the following records.
+ *
+ * The values are read back in the same order by using the `next*` methods after [readFrom].
+ *
+ * The class is not thread safe.
+ */
+class MetadataColumnBlock {
+
+    var recordCount = 0
+        private set
+
+    private var templates = ByteArray(MAX_RECORDS)
+
+    private var longs = LongArray(MAX_RECORDS)
+
+    private var longCount = 0
+
+    private var ints = IntArray(MAX_RECORDS)
+
+    private var intCount = 0
+
+    private var floats = FloatArray(MAX_RECORDS * FLOATS_PER_RECORD)
+
+    private var floatCount = 0
+
+    private var doubles = DoubleArray(MAX_RECORDS)
+
+    private var doubleCount = 0
+
+    /**
+     * The presence flags for the nullable fields, `1` if the value is present, `0` otherwise.
+     */
+    private var presence = ByteArray(MAX_RECORDS)
+
+    private var presenceCount = 0
+
+    private val strings = ArrayList<String>()
+
+    /**
+     * Read cursors used after [readFrom].
+     */
+    private var recordCursor = 0
+    private var longCursor = 0
+    private var intCursor = 0
+    private var floatCursor = 0
+    private var doubleCursor = 0
+    private var presenceCursor = 0
+    private var stringCursor = 0
+
+    fun isFull(): Boolean {
+        return recordCount >= MAX_RECORDS
+    }
+
+    fun isEmpty(): Boolean {
+        return recordCount == 0
+    }
+
+    fun beginRecord(templateID: TemplateID, timestamp: Long) {
+        if (recordCount == templates.size) {
+            templates = templates.copyOf(recordCount * GROWTH_FACTOR)
+        }
+        templates[recordCount++] = templateID.ordinal.toByte()
+        putLong(timestamp)
+    }
+
+    fun putLong(value: Long) {
+        if (longCount == longs.size) {
+            longs = longs.copyOf(longCount * GROWTH_FACTOR)
+        }
+        longs[longCount++] = value
+    }
+
+    fun putInt(value: Int) {
+        if (intCount == ints.size) {
+            ints = ints.copyOf(intCount * GROWTH_FACTOR)
+        }
+        ints[intCount++] = value
+    }
+
+    fun putFloat(value: Float) {
+        if (floatCount == floats.size) {
+            floats = floats.copyOf(floatCount * GROWTH_FACTOR)
+        }
+        floats[floatCount++] = value
+    }
+
+    fun putDouble(value: Double) {
+        if (doubleCount == doubles.size) {
+            doubles = doubles.copyOf(doubleCount * GROWTH_FACTOR)
+        }
+        doubles[doubleCount++] = value
+    }
+
+    fun putString(value: String) {
+        strings.add(value)
+    }
+
+    /**
+     * Stores the presence flag of a nullable field. The value itself should be stored afterwards only if [present] is true.
+     */
+    fun putPresence(present: Boolean) {
+        if (presenceCount == presence.size) {
+            presence = presence.copyOf(presenceCount * GROWTH_FACTOR)
+        }
+        presence[presenceCount++] = if (present) PRESENT else ABSENT
+    }
+
+    fun clear() {
+        recordCount = 0
+        longCount = 0
+        intCount = 0
+        floatCount = 0
+        doubleCount = 0
+        presenceCount = 0
+        strings.clear()
+        recordCursor = 0
+        longCursor = 0
+        intCursor = 0
+        floatCursor = 0
+        doubleCursor = 0
+        presenceCursor = 0
+        stringCursor = 0
+    }
+
+    /**
+     * Writes the block, the columns are written one after another in order to keep similar values close for the compression.
+     */
+    @Throws(IOException::class)
+    fun writeTo(output: DataOutputStream) {
+        output.writeInt(MetadataBinaryFormat.BLOCK_MARKER)
+        output.writeInt(recordCount)
+        output.write(templates, 0, recordCount)
+        output.writeInt(longCount)
+        for (i in 0 until longCount) {
+            output.writeLong(longs[i])
+        }
+        output.writeInt(intCount)
+        for (i in 0 until intCount) {
+            output.writeInt(ints[i])
+        }
+        output.writeInt(floatCount)
+        for (i in 0 until floatCount) {
+            output.writeFloat(floats[i])
+        }
+        output.writeInt(doubleCount)
+        for (i in 0 until doubleCount) {
+            output.writeDouble(doubles[i])
+        }
+        output.writeInt(presenceCount)
+        output.write(presence, 0, presenceCount)
+        output.writeInt(strings.size)
+        for (value in strings) {
+            output.writeUTF(value)
+        }
+    }
+
+    /**
+     * Replaces the content of the block with the next block from the given stream. The [MetadataBinaryFormat.BLOCK_MARKER] is expected
+     * to be already consumed by the caller.
+     * @throws IOException if the stream does not contain a complete block, e.g. the end of the stream was reached.
+     */
+    @Throws(IOException::class)
+    fun readFrom(input: DataInputStream) {
+        clear()
+        recordCount = input.readInt()
+        templates = ensureCapacity(templates, recordCount)
+        input.readFully(templates, 0, recordCount)
+        longCount = input.readInt()
+        if (longs.size < longCount) longs = LongArray(longCount)
+        for (i in 0 until longCount) {
+            longs[i] = input.readLong()
+        }
+        intCount = input.readInt()
+        if (ints.size < intCount) ints = IntArray(intCount)
+        for (i in 0 until intCount) {
+            ints[i] = input.readInt()
+        }
+        floatCount = input.readInt()
+        if (floats.size < floatCount) floats = FloatArray(floatCount)
+        for (i in 0 until floatCount) {
+            floats[i] = input.readFloat()
+        }
+        doubleCount = input.readInt()
+        if (doubles.size < doubleCount) doubles = DoubleArray(doubleCount)
+        for (i in 0 until doubleCount) {
+            doubles[i] = input.readDouble()
+        }
+        presenceCount = input.readInt()
+        presence = ensureCapacity(presence, presenceCount)
+        input.readFully(presence, 0, presenceCount)
+        val stringCount = input.readInt()
+        for (i in 0 until stringCount) {
+            strings.add(input.readUTF())
+        }
+    }
+
+    fun hasNextRecord(): Boolean {
+        return recordCursor < recordCount
+    }
+
+    fun nextTemplate(): TemplateID {
+        return TEMPLATES[templates[recordCursor++].toInt()]
+    }
+
+    fun nextLong(): Long {
+        return longs[longCursor++]
+    }
+
+    fun nextInt(): Int {
+        return ints[intCursor++]
+    }
+
+    fun nextFloat(): Float {
+        return floats[floatCursor++]
+    }
+
+    fun nextDouble(): Double {
+        return doubles[doubleCursor++]
+    }
+
+    fun nextString(): String {
+        return strings[stringCursor++]
+    }
+
+    fun nextPresence(): Boolean {
+        return presence[presenceCursor++] == PRESENT
+    }
+
+    private fun ensureCapacity(array: ByteArray, size: Int): ByteArray {
+        return if (array.size < size) ByteArray(size) else array
+    }
+
+    companion object {
+        /**
+         * The maximum number of records in a block before it is written, around 10 seconds of recording for the default sensors.
+         */
+        const val MAX_RECORDS = 512
+
+        private const val FLOATS_PER_RECORD = 3
+
+        private const val GROWTH_FACTOR = 2
+
+        private const val PRESENT: Byte = 1
+
+        private const val ABSENT: Byte = 0
+
+        private val TEMPLATES = TemplateID.values()
+    }
+}
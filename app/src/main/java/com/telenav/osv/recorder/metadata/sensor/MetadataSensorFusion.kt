@@ -0,0 +1,295 @@
+package com.telenav.osv.recorder.metadata.sensor
+
+import com.telenav.osv.data.collector.datatype.datatypes.SensorSampleBuffer
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil.AvailableData
+
+/**
+ * Fusion stage which aligns the acceleration, gravity and attitude samples into frames at a fixed rate before they are written in the metadata. The pressure is not
+ * aligned since it changes slower than the frame rate, interpolating it would write each sample in several frames.
+ *
+ * When the sensors are batched in the hardware FIFO each sensor delivers its samples in bursts, independently of the others, therefore the samples of each stream
+ * are kept in a [SensorSampleBuffer] until every stream reached the timestamp of the next frame. A frame holds for each stream the value at the frame timestamp,
+ * linearly interpolated between the surrounding samples, except the attitude whose angles wrap around and which takes the nearest sample.
+ *
+ * A stream whose newest sample is older than [maxLagMs] compared to the newest sample of all streams is considered stalled and does not hold back the frames.
+ * A stream has no value in a frame if its samples are further than two frame periods from the frame timestamp, and the frames without any value are skipped.
+ *
+ * The [Frame] passed to the [FrameListener] is reused, the values have to be consumed during the call.
+ */
+class MetadataSensorFusion(private val framePeriodMs: Long, private val maxLagMs: Long, private val frameListener: FrameListener) {
+
+    /**
+     * The samples of each stream, indexed by the stream constants.
+     */
+    private val streams = arrayOf(SensorSampleBuffer(LibraryUtil.ACCELEROMETER),
+            SensorSampleBuffer(LibraryUtil.GRAVITY),
+            SensorSampleBuffer(LibraryUtil.ROTATION_VECTOR_RAW))
+
+    private val frame = Frame()
+
+    /**
+     * The maximum distance between a frame and the samples used for its values.
+     */
+    private val maxGapMs = framePeriodMs * MAX_GAP_PERIODS
+
+    private var nextFrameTimestamp = NO_FRAME
+
+    /**
+     * Adds a sample of a stream and emits the frames which became complete.
+     */
+    @Synchronized
+    fun onSample(@AvailableData sensorType: String, timestamp: Long, x: Float, y: Float, z: Float) {
+        val stream = getStream(sensorType)
+        if (stream == NO_STREAM) {
+            return
+        }
+        val samples = streams[stream]
+        if (samples.count > 0 && timestamp <= samples.getTimestamp(samples.latestIndex)) {
+            //the samples of a stream are expected in order, a late one can not change the frames already emitted
+            return
+        }
+        samples.append(timestamp, x, y, z)
+        if (nextFrameTimestamp == NO_FRAME) {
+            nextFrameTimestamp = alignToPeriod(timestamp)
+        }
+        emitFrames(false)
+    }
+
+    /**
+     * Emits the frames up to the newest sample without waiting for the streams which are behind, called before the metadata is finished.
+     */
+    @Synchronized
+    fun flush() {
+        emitFrames(true)
+    }
+
+    /**
+     * Drops the samples and the pending frames, called when a new metadata is started.
+     */
+    @Synchronized
+    fun reset() {
+        for (samples in streams) {
+            samples.clear()
+        }
+        nextFrameTimestamp = NO_FRAME
+    }
+
+    private fun emitFrames(force: Boolean) {
+        if (nextFrameTimestamp == NO_FRAME) {
+            return
+        }
+        val newestTimestamp = getNewestTimestamp()
+        while (nextFrameTimestamp <= newestTimestamp && (force || isReady(nextFrameTimestamp, newestTimestamp))) {
+            val nextSampleTimestamp = fillFrame(nextFrameTimestamp)
+            if (frame.isEmpty()) {
+                //skips the gaps without samples instead of iterating each empty frame
+                nextFrameTimestamp = Math.max(nextFrameTimestamp + framePeriodMs, alignToPeriod(nextSampleTimestamp))
+                continue
+            }
+            frameListener.onFrame(frame)
+            nextFrameTimestamp += framePeriodMs
+        }
+    }
+
+    /**
+     * @return true if every stream which is not stalled has samples up to the given frame timestamp.
+     */
+    private fun isReady(frameTimestamp: Long, newestTimestamp: Long): Boolean {
+        for (samples in streams) {
+            if (samples.count == 0L) {
+                continue
+            }
+            val latestTimestamp = samples.getTimestamp(samples.latestIndex)
+            if (latestTimestamp < frameTimestamp && newestTimestamp - latestTimestamp <= maxLagMs) {
+                return false
+            }
+        }
+        return true
+    }
+
+    /**
+     * Sets in the frame the value of each stream at the given timestamp.
+     * @return the oldest timestamp of a sample after the frame timestamp, used in order to skip the gaps.
+     */
+    private fun fillFrame(frameTimestamp: Long): Long {
+        frame.timestamp = frameTimestamp
+        var nextSampleTimestamp = Long.MAX_VALUE
+        for (stream in streams.indices) {
+            val samples = streams[stream]
+            val mask = samples.capacity - 1
+            val retained = Math.min(samples.count, samples.capacity.toLong()).toInt()
+            var before = NO_SAMPLE
+            var after = NO_SAMPLE
+            var index = samples.latestIndex
+            for (i in 0 until retained) {
+                if (samples.getTimestamp(index) <= frameTimestamp) {
+                    before = index
+                    break
+                }
+                after = index
+                index = (index - 1) and mask
+            }
+            if (after != NO_SAMPLE) {
+                nextSampleTimestamp = Math.min(nextSampleTimestamp, samples.getTimestamp(after))
+            }
+            setStreamValue(stream, samples, before, after, frameTimestamp)
+        }
+        return nextSampleTimestamp
+    }
+
+    private fun setStreamValue(stream: Int, samples: SensorSampleBuffer, before: Int, after: Int, frameTimestamp: Long) {
+        val beforeDistance = if (before == NO_SAMPLE) Long.MAX_VALUE else frameTimestamp - samples.getTimestamp(before)
+        val afterDistance = if (after == NO_SAMPLE) Long.MAX_VALUE else samples.getTimestamp(after) - frameTimestamp
+        if (stream != STREAM_ATTITUDE && before != NO_SAMPLE && after != NO_SAMPLE && beforeDistance + afterDistance <= maxGapMs) {
+            val ratio = beforeDistance.toFloat() / (beforeDistance + afterDistance)
+            frame.setValue(stream,
+                    interpolate(samples.getxValue(before), samples.getxValue(after), ratio),
+                    interpolate(samples.getyValue(before), samples.getyValue(after), ratio),
+                    interpolate(samples.getzValue(before), samples.getzValue(after), ratio))
+            return
+        }
+        val nearest = if (beforeDistance <= afterDistance) before else after
+        if (nearest == NO_SAMPLE || Math.min(beforeDistance, afterDistance) > maxGapMs) {
+            frame.clearValue(stream)
+            return
+        }
+        frame.setValue(stream, samples.getxValue(nearest), samples.getyValue(nearest), samples.getzValue(nearest))
+    }
+
+    private fun getNewestTimestamp(): Long {
+        var newestTimestamp = Long.MIN_VALUE
+        for (samples in streams) {
+            if (samples.count > 0) {
+                newestTimestamp = Math.max(newestTimestamp, samples.getTimestamp(samples.latestIndex))
+            }
+        }
+        return newestTimestamp
+    }
+
+    /**
+     * @return the first frame timestamp, multiple of the frame period, at or after the given timestamp.
+     */
+    private fun alignToPeriod(timestamp: Long): Long {
+        val remainder = timestamp % framePeriodMs
+        return if (remainder == 0L) timestamp else timestamp - remainder + framePeriodMs
+    }
+
+    private fun interpolate(from: Float, to: Float, ratio: Float): Float {
+        return from + (to - from) * ratio
+    }
+
+    /**
+     * The listener which receives the aligned frames, on the thread which delivered the sample completing the frame.
+     */
+    interface FrameListener {
+        fun onFrame(frame: Frame)
+    }
+
+    /**
+     * The values of the streams at the same timestamp.
+     */
+    class Frame internal constructor() {
+
+        var timestamp: Long = 0
+            internal set
+
+        private val present = BooleanArray(STREAM_COUNT)
+
+        private val values = FloatArray(STREAM_COUNT * AXES_COUNT)
+
+        fun hasValue(stream: Int): Boolean {
+            return present[stream]
+        }
+
+        fun getxValue(stream: Int): Float {
+            return values[stream * AXES_COUNT]
+        }
+
+        fun getyValue(stream: Int): Float {
+            return values[stream * AXES_COUNT + 1]
+        }
+
+        fun getzValue(stream: Int): Float {
+            return values[stream * AXES_COUNT + 2]
+        }
+
+        fun isEmpty(): Boolean {
+            for (value in present) {
+                if (value) {
+                    return false
+                }
+            }
+            return true
+        }
+
+        internal fun setValue(stream: Int, x: Float, y: Float, z: Float) {
+            present[stream] = true
+            values[stream * AXES_COUNT] = x
+            values[stream * AXES_COUNT + 1] = y
+            values[stream * AXES_COUNT + 2] = z
+        }
+
+        internal fun clearValue(stream: Int) {
+            present[stream] = false
+        }
+
+        /**
+         * @return a new frame with the same values, used when the frame is consumed after the call of the [FrameListener].
+         */
+        fun copy(): Frame {
+            val copy = Frame()
+            copy.timestamp = timestamp
+            System.arraycopy(present, 0, copy.present, 0, STREAM_COUNT)
+            System.arraycopy(values, 0, copy.values, 0, values.size)
+            return copy
+        }
+    }
+
+    companion object {
+        /**
+         * The acceleration stream, fed by the accelerometer or by the linear acceleration.
+         */
+        const val STREAM_ACCELERATION = 0
+
+        const val STREAM_GRAVITY = 1
+
+        /**
+         * The attitude stream, fed by the game rotation vector.
+         */
+        const val STREAM_ATTITUDE = 2
+
+        private const val STREAM_COUNT = 3
+
+        private const val AXES_COUNT = 3
+
+        private const val MAX_GAP_PERIODS = 2
+
+        private const val NO_STREAM = -1
+
+        private const val NO_SAMPLE = -1
+
+        private const val NO_FRAME = Long.MIN_VALUE
+
+        /**
+         * @return the stream fed by the sensor type or -1 if the sensor type is not aligned.
+         */
+        @JvmStatic
+        fun getStream(@AvailableData sensorType: String?): Int {
+            return when (sensorType) {
+                LibraryUtil.ACCELEROMETER, LibraryUtil.LINEAR_ACCELERATION -> STREAM_ACCELERATION
+                LibraryUtil.GRAVITY -> STREAM_GRAVITY
+                LibraryUtil.ROTATION_VECTOR_RAW -> STREAM_ATTITUDE
+                else -> NO_STREAM
+            }
+        }
+
+        /**
+         * @return true if the samples of the sensor type are aligned into frames.
+         */
+        @JvmStatic
+        fun isAligned(@AvailableData sensorType: String?): Boolean {
+            return getStream(sensorType) != NO_STREAM
+        }
+    }
+}
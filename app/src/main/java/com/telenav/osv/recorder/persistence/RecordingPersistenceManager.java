@@ -73,13 +73,13 @@ public abstract class RecordingPersistenceManager implements RecordingPersistenc
      * Local data source for the location storage.
      * This is used to store the location of a new frame.
      */
-    private LocationLocalDataSource locationLocalDataSource;
+    protected LocationLocalDataSource locationLocalDataSource;
 
     /**
      * Local data source for the sequence storage.
      * This is used to update the sequence when a new frame is received.
      */
-    private SequenceLocalDataSource sequenceLocalDataSource;
+    protected SequenceLocalDataSource sequenceLocalDataSource;
 
     /**
      * Reference to the callback for when a photo is taken.
@@ -142,21 +142,44 @@ public abstract class RecordingPersistenceManager implements RecordingPersistenc
             if (!updateSequenceDiskSize(diskSize)) {
                 //removing current location since the details of the sequence cannot be updated.
                 boolean locationRemoval = locationLocalDataSource.delete(locationID);
-                Log.d(TAG, String.format("persistLocation. Sequence details failed. Status: %s. Location id: %s. Sequence id: %s", locationRemoval, locationID, sequence.getID()));
+                Log.d(TAG, "persistLocation. Sequence details failed. Status: %s. Location id: %s. Sequence id: %s", locationRemoval, locationID, sequence.getID());
                 return false;
             }
-            //added a check for videoId which will not use the index since the index represents the persistence index therefore if it is photo it will be the same as the frameIndex
-            metadataPhotoVideoCallback.onPhotoVideoCallback(timestamp, frameIndex, videoID == null ? 0 : index, location);
-            //increment the index for the frame sequence identifier
-            synchronized (syncObject) {
-                frameIndex++;
-            }
+            onLocationPersisted(location, videoID, index, timestamp);
         } else {
             Log.d(TAG, "persistLocation. Status: error. Message: Location persist failed.");
         }
         return locationPersist;
     }
 
+    /**
+     * Notifies the metadata about the new frame location and moves to the next frame index.
+     * @param index the index representing either the video/photo index based on who will call this method
+     */
+    protected void onLocationPersisted(Location location, @Nullable String videoID, int index, long timestamp) {
+        //added a check for videoId which will not use the index since the index represents the persistence index therefore if it is photo it will be the same as the frameIndex
+        notifyPhotoVideo(location, frameIndex, videoID == null ? 0 : index, timestamp);
+        moveToNextFrameIndex();
+    }
+
+    /**
+     * Notifies the metadata about a persisted frame.
+     * @param frameIndex the index of the frame in the sequence.
+     * @param videoIndex the index of the video of the frame, {@code 0} for a photo.
+     */
+    protected void notifyPhotoVideo(Location location, int frameIndex, int videoIndex, long timestamp) {
+        metadataPhotoVideoCallback.onPhotoVideoCallback(timestamp, frameIndex, videoIndex, location);
+    }
+
+    /**
+     * Increments the index for the frame sequence identifier.
+     */
+    protected void moveToNextFrameIndex() {
+        synchronized (syncObject) {
+            frameIndex++;
+        }
+    }
+
     /**
      * Updates the disk size in persistence for the sequence.
      * @param diskSize the new disk size to be persisted.
@@ -167,15 +190,24 @@ public abstract class RecordingPersistenceManager implements RecordingPersistenc
             Log.d(TAG, "updateSequenceDiskSize. Status: error. Message: Sequence is null.");
             return false;
         }
+        return sequenceLocalDataSource.updateDiskSize(sequence.getID(), increaseSequenceDiskSize(diskSize));
+    }
+
+    /**
+     * Updates only the cached disk size of the sequence, without persisting it.
+     * @param diskSize the disk size to be added.
+     * @return the new disk size of the sequence.
+     */
+    protected long increaseSequenceDiskSize(long diskSize) {
         SequenceDetailsLocal sequenceDetailsLocal = sequence.getLocalDetails();
         long sequenceDiskSize = sequenceDetailsLocal.getDiskSize();
         long newSequenceDiskSize = sequenceDiskSize + diskSize;
         sequenceDetailsLocal.setDiskSize(newSequenceDiskSize);
         Log.w(TAG,
-                String.format("updateSequenceDiskSize. Status: persist location and update sequence disk size. Old size: %s. New size: %s.",
-                        sequenceDiskSize,
-                        newSequenceDiskSize));
-        return sequenceLocalDataSource.updateDiskSize(sequence.getID(), newSequenceDiskSize);
+                "updateSequenceDiskSize. Status: persist location and update sequence disk size. Old size: %s. New size: %s.",
+                sequenceDiskSize,
+                newSequenceDiskSize);
+        return newSequenceDiskSize;
     }
 
     /**
@@ -187,6 +219,15 @@ public abstract class RecordingPersistenceManager implements RecordingPersistenc
      * @param videoCompression the compression mode for the current sequence.
      */
     protected void updateSequenceCache(SequenceDetails sequenceDetails, Location location, double distance, boolean videoCompression) {
+        updateSequenceCacheDetails(sequenceDetails, location, distance, videoCompression);
+        boolean updateInPersistence = sequence != null && sequenceLocalDataSource.updateSequence(sequence);
+        Log.d(TAG, "updateSequenceCache. Status: %s. Message: Update the sequence in persistence. Sequence id: %s", updateInPersistence, sequence.getID());
+    }
+
+    /**
+     * Updates only the sequence cache, without persisting it. The parameters are the same as for {@link #updateSequenceCache(SequenceDetails, Location, double, boolean)}.
+     */
+    protected void updateSequenceCacheDetails(SequenceDetails sequenceDetails, Location location, double distance, boolean videoCompression) {
         //update the initial location for the sequence based on the frame index
         if (frameIndex == 1) {
             Location sequenceLocation = sequenceDetails.getInitialLocation();
@@ -208,8 +249,6 @@ public abstract class RecordingPersistenceManager implements RecordingPersistenc
             compressionBase.setLength(compressionVideo.getVideos().size());
         }
         compressionBase.setLocationsCount(frameIndex);
-        Log.d(TAG, String.format("updateSequenceCache. Message: Set location count to %s.", frameIndex));
-        boolean updateInPersistence = sequence != null && sequenceLocalDataSource.updateSequence(sequence);
-        Log.d(TAG, String.format("updateSequenceCache. Status: %s. Message: Update the sequence in persistence. Sequence id: %s", updateInPersistence, sequence.getID()));
+        Log.d(TAG, "updateSequenceCache. Message: Set location count to %s.", frameIndex);
     }
 }
@@ -1,28 +1,47 @@
 package com.telenav.osv.recorder.persistence.frame;
 
+import android.location.Location;
+
+import com.telenav.osv.common.Injection;
 import com.telenav.osv.data.frame.datasource.local.FrameLocalDataSource;
 import com.telenav.osv.data.frame.model.Frame;
 import com.telenav.osv.data.location.datasource.LocationLocalDataSource;
+import com.telenav.osv.data.location.model.KVLocation;
 import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
+import com.telenav.osv.data.sequence.model.details.SequenceDetails;
+import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionBase;
 import com.telenav.osv.item.KVFile;
 import com.telenav.osv.recorder.metadata.callback.MetadataPhotoVideoCallback;
 import com.telenav.osv.recorder.persistence.RecordingFrame;
 import com.telenav.osv.recorder.persistence.RecordingPersistenceManager;
 import com.telenav.osv.recorder.persistence.RecordingPersistenceStatus;
 import com.telenav.osv.utils.Log;
-import com.telenav.osv.utils.Utils;
 
 import org.joda.time.DateTime;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Completable;
+import io.reactivex.disposables.Disposable;
 
 /**
  * Manager which is responsible to persist each picture frame in database and on local storage.
  * The manager receives an array of byte representing the frame information which are converted to JPEG format.
+ * <p>
+ * By default each frame is persisted in its own database writes. In the group commit mode, enabled by a maximum number of frames per commit greater than 1,
+ * the frame, location and sequence details updates are kept in memory and committed in one transaction every {@code groupCommitMaxFrames} frames or
+ * {@code groupCommitMaxDelayMs} milliseconds, whichever comes first, and when the recording is stopped.
+ * In order to keep the database consistent with the files on disk, the JPEG files of a group are written first and synced to disk before the transaction,
+ * therefore a crash can leave JPEG files without a database entry, but never a database entry without its JPEG file. The metadata is notified about the frames
+ * of a group only after the transaction, therefore the metadata never references a frame which is not in the database.
+ * <p>
+ * The JPEG files are written by a {@link JpegFileWriter} on its own thread. In the group commit mode a frame is saved once its write was accepted, therefore when
+ * the writer queue is full the save waits for a free slot, which holds the next frame capture, and a failed write is reported by the next saved frame.
+ * When each frame is persisted separately, the frame is persisted only after its JPEG file is written, so a failed write never leaves a database entry.
+ * The writer sync policy decides when the files are synced, except for the group commit mode which always syncs the files of a group before its transaction.
  */
 public class FramePersistenceManager extends RecordingPersistenceManager {
 
@@ -34,11 +53,52 @@ public class FramePersistenceManager extends RecordingPersistenceManager {
      */
     private static final String FORMAT_FRAME_PATH = "%s/%s.jpg";
 
+    /**
+     * The default maximum number of frames committed in one transaction for the group commit mode.
+     */
+    public static final int GROUP_COMMIT_MAX_FRAMES = 10;
+
+    /**
+     * The default maximum time in milliseconds that a frame waits for its transaction in the group commit mode.
+     */
+    public static final long GROUP_COMMIT_MAX_DELAY_MS = 2000;
+
     /**
      * Local data source for frame database persistence.
      */
     private FrameLocalDataSource frameLocalDataSource;
 
+    /**
+     * The writer of the JPEG files.
+     */
+    private final JpegFileWriter jpegFileWriter;
+
+    /**
+     * The maximum number of frames committed in one transaction, {@code 1} if each frame is persisted separately.
+     */
+    private final int groupCommitMaxFrames;
+
+    /**
+     * The maximum time in milliseconds that a frame waits for its transaction.
+     */
+    private final long groupCommitMaxDelayMs;
+
+    /**
+     * The frames written on disk but not committed yet in the group commit mode.
+     * The collection is accessed only from the {@link #recordingPersistenceScheduler}.
+     */
+    private final List<PendingFrame> pendingFrames = new ArrayList<>();
+
+    /**
+     * The scheduled commit of the {@link #pendingFrames} after {@link #groupCommitMaxDelayMs}.
+     */
+    private Disposable scheduledCommit;
+
+    /**
+     * {@code true} if a scheduled commit failed, the failure is reported once to the next saved frame.
+     */
+    private boolean scheduledCommitFailed;
+
     /**
      * Constructor for frame persistence manager.
      * @param sequenceLocalDataSource local data source for sequence.
@@ -47,29 +107,89 @@ public class FramePersistenceManager extends RecordingPersistenceManager {
      */
     public FramePersistenceManager(SequenceLocalDataSource sequenceLocalDataSource, LocationLocalDataSource locationLocalDataSource,
                                    FrameLocalDataSource frameLocalDataSource, MetadataPhotoVideoCallback metadataPhotoVideoCallback) {
+        this(sequenceLocalDataSource,
+                locationLocalDataSource,
+                frameLocalDataSource,
+                metadataPhotoVideoCallback,
+                new JpegFileWriter(JpegFileWriter.DEFAULT_CAPACITY, JpegFileWriter.SyncPolicy.NONE, 0, Injection.provideJpegFileWriterExecutor()),
+                1,
+                0);
+    }
+
+    /**
+     * Constructor for frame persistence manager.
+     * @param sequenceLocalDataSource local data source for sequence.
+     * @param locationLocalDataSource local data source for location.
+     * @param frameLocalDataSource local data source for frame.
+     * @param jpegFileWriter the writer of the JPEG files.
+     * @param groupCommitMaxFrames the maximum number of frames committed in one transaction, {@code 1} in order to persist each frame separately.
+     * @param groupCommitMaxDelayMs the maximum time in milliseconds that a frame waits for its transaction.
+     */
+    public FramePersistenceManager(SequenceLocalDataSource sequenceLocalDataSource, LocationLocalDataSource locationLocalDataSource,
+                                   FrameLocalDataSource frameLocalDataSource, MetadataPhotoVideoCallback metadataPhotoVideoCallback,
+                                   JpegFileWriter jpegFileWriter, int groupCommitMaxFrames, long groupCommitMaxDelayMs) {
         super(sequenceLocalDataSource, locationLocalDataSource, metadataPhotoVideoCallback);
         this.frameLocalDataSource = frameLocalDataSource;
+        this.jpegFileWriter = jpegFileWriter;
+        this.groupCommitMaxFrames = Math.max(1, groupCommitMaxFrames);
+        this.groupCommitMaxDelayMs = groupCommitMaxDelayMs;
     }
 
     @Override
     public Completable save(RecordingFrame frame) {
-        return Completable.create(emitter -> {
+        if (groupCommitMaxFrames > 1) {
+            return saveInGroup(frame);
+        }
+        return Completable.defer(() -> {
             Log.d(TAG, "save()");
             int currentFrameIndex = frameIndex;
             String framePath = String.format(FORMAT_FRAME_PATH, folderPath, currentFrameIndex);
+            byte[] frameData = frame.getFrameData().getFrameData();
+            return jpegFileWriter.writeAndAwait(framePath, frameData)
+                    .observeOn(recordingPersistenceScheduler)
+                    .andThen(persistFrame(frame, framePath, frameData.length, currentFrameIndex));
+        }).subscribeOn(recordingPersistenceScheduler);
+    }
+
+    @Override
+    public Completable stop() {
+        return Completable
+                .create(emitter -> {
+                    if (!commitPendingFrames()) {
+                        Log.d(TAG, "stop. Status: error. Message: Failed to commit the pending frames.");
+                    }
+                    scheduledCommitFailed = false;
+                    boolean closeWriter = jpegFileWriter.close();
+                    Log.d(TAG, "stop. Status: %s. Message: Closed the jpeg writer.", closeWriter);
+                    emitter.onComplete();
+                })
+                .subscribeOn(recordingPersistenceScheduler)
+                .andThen(super.stop())
+                .doOnComplete(() -> {
+                    folderPath = null;
+                    sequence = null;
+                });
+    }
+
+    @Override
+    protected void remove(String id) {
+        boolean removeFrame = frameLocalDataSource.deleteFrame(id);
+        Log.d(TAG, "remove. Status: %s. Sequence id: %s. Frame id: %s", removeFrame, sequence.getID(), id);
+    }
+
+    /**
+     * Persists the frame and its location after the JPEG file was written, when each frame is persisted separately.
+     * @param fileSize the size of the JPEG file.
+     */
+    private Completable persistFrame(RecordingFrame frame, String framePath, long fileSize, int currentFrameIndex) {
+        return Completable.create(emitter -> {
             String frameID = UUID.randomUUID().toString();
             //persist frame to local storage
             boolean persistFrame = frameLocalDataSource.saveFrame(
                     new Frame(frameID, framePath, new DateTime(frame.getTimestamp()), currentFrameIndex),
                     sequence.getID());
             if (!persistFrame) {
-                Log.d(TAG, String.format("save. Status: error. Message: Failed to persist frame index %s", currentFrameIndex));
-                emitter.onError(new Throwable());
-                return;
-            }
-            //write frame on disk
-            if (!writeJpegFile(framePath, frame.getFrameData().getFrameData())) {
-                remove(frameID);
+                Log.d(TAG, "save. Status: error. Message: Failed to persist frame index %s", currentFrameIndex);
                 emitter.onError(new Throwable());
                 return;
             }
@@ -78,12 +198,12 @@ public class FramePersistenceManager extends RecordingPersistenceManager {
                     frame.getLocation(),
                     frameID,
                     null,
-                    Utils.fileSize(new KVFile(framePath)),
+                    fileSize,
                     currentFrameIndex,
                     frame.getTimestamp());
             //if the location could not be persisted removes the frame
-            Log.d(TAG, String.format("save. Status: %s. Sequence id: %s. Frame id: %s. Frame index: %s. Video compression: %s.",
-                    persistLocation, sequence.getID(), frameID, currentFrameIndex, false));
+            Log.d(TAG, "save. Status: %s. Sequence id: %s. Frame id: %s. Frame index: %s. Video compression: %s.",
+                    persistLocation, sequence.getID(), frameID, currentFrameIndex, false);
             if (!persistLocation) {
                 remove(frameID);
                 emitter.onError(new Throwable(RecordingPersistenceStatus.STATUS_ERROR_LOCATION_PERSISTENCE));
@@ -92,41 +212,186 @@ public class FramePersistenceManager extends RecordingPersistenceManager {
                 updateSequenceCache(sequence.getDetails(), frame.getLocation(), frame.getDistance(), false);
             }
             emitter.onComplete();
+        });
+    }
+
+    /**
+     * Saves the frame in the group commit mode. The JPEG file write is queued right away, while the sequence cache updates and the database writes
+     * are done by {@link #commitPendingFrames()}. The frame index of a pending frame follows the index of the last committed frame.
+     */
+    private Completable saveInGroup(RecordingFrame frame) {
+        return Completable.defer(() -> {
+            Log.d(TAG, "saveInGroup()");
+            if (scheduledCommitFailed) {
+                scheduledCommitFailed = false;
+                return Completable.error(new Throwable(RecordingPersistenceStatus.STATUS_ERROR_LOCATION_PERSISTENCE));
+            }
+            int currentFrameIndex = frameIndex + pendingFrames.size();
+            String framePath = String.format(FORMAT_FRAME_PATH, folderPath, currentFrameIndex);
+            byte[] frameData = frame.getFrameData().getFrameData();
+            return jpegFileWriter.write(framePath, frameData)
+                    .observeOn(recordingPersistenceScheduler)
+                    .andThen(addPendingFrame(frame, framePath, frameData.length, currentFrameIndex));
         }).subscribeOn(recordingPersistenceScheduler);
     }
 
-    @Override
-    public Completable stop() {
-        return super.stop().doOnComplete(() -> {
-            folderPath = null;
-            sequence = null;
+    /**
+     * Adds the frame to the {@link #pendingFrames} after its JPEG file write was accepted and commits the group if it is complete.
+     * @param fileSize the size of the JPEG file.
+     */
+    private Completable addPendingFrame(RecordingFrame frame, String framePath, long fileSize, int currentFrameIndex) {
+        return Completable.create(emitter -> {
+            String frameID = UUID.randomUUID().toString();
+            pendingFrames.add(new PendingFrame(
+                    new Frame(frameID, framePath, new DateTime(frame.getTimestamp()), currentFrameIndex),
+                    new KVLocation(UUID.randomUUID().toString(), frame.getLocation(), sequence.getID()),
+                    fileSize,
+                    frame.getDistance()));
+            Log.d(TAG, "saveInGroup. Status: pending. Sequence id: %s. Frame id: %s. Frame index: %s. Pending frames: %s.",
+                    sequence.getID(), frameID, currentFrameIndex, pendingFrames.size());
+            if (pendingFrames.size() >= groupCommitMaxFrames) {
+                if (!commitPendingFrames()) {
+                    emitter.onError(new Throwable(RecordingPersistenceStatus.STATUS_ERROR_LOCATION_PERSISTENCE));
+                    return;
+                }
+            } else if (scheduledCommit == null) {
+                scheduledCommit = recordingPersistenceScheduler.scheduleDirect(() -> {
+                    scheduledCommit = null;
+                    if (!commitPendingFrames()) {
+                        scheduledCommitFailed = true;
+                    }
+                }, groupCommitMaxDelayMs, TimeUnit.MILLISECONDS);
+            }
+            emitter.onComplete();
         });
     }
 
-    @Override
-    protected void remove(String id) {
-        boolean removeFrame = frameLocalDataSource.deleteFrame(id);
-        Log.d(TAG, String.format("remove. Status: %s. Sequence id: %s. Frame id: %s", removeFrame, sequence.getID(), id));
+    /**
+     * Commits the {@link #pendingFrames} together with the sequence details in one transaction, then notifies the metadata about the committed frames.
+     * The JPEG file writes are awaited and the files are synced to disk before the transaction. The sequence cache is updated with the pending frames before
+     * the transaction, since the transaction persists it. If the commit fails the sequence cache and the frame index are restored, the JPEG files of the pending
+     * frames are removed and the metadata is not notified about them.
+     * @return {@code true} if there were no pending frames or they were committed, {@code false} otherwise.
+     */
+    private boolean commitPendingFrames() {
+        if (scheduledCommit != null) {
+            scheduledCommit.dispose();
+            scheduledCommit = null;
+        }
+        if (pendingFrames.isEmpty()) {
+            return true;
+        }
+        SequenceCacheState previousState = new SequenceCacheState();
+        for (PendingFrame pendingFrame : pendingFrames) {
+            increaseSequenceDiskSize(pendingFrame.fileSize);
+            moveToNextFrameIndex();
+            updateSequenceCacheDetails(sequence.getDetails(), pendingFrame.location.getLocation(), pendingFrame.distance, false);
+        }
+        boolean committed = jpegFileWriter.flush(true) && frameLocalDataSource.runInTransaction(() -> {
+            String sequenceID = sequence.getID();
+            for (PendingFrame pendingFrame : pendingFrames) {
+                if (!frameLocalDataSource.saveFrame(pendingFrame.frame, sequenceID)
+                        || !locationLocalDataSource.saveLocation(pendingFrame.location, null, pendingFrame.frame.getID())) {
+                    return false;
+                }
+            }
+            return sequenceLocalDataSource.updateDiskSize(sequenceID, sequence.getLocalDetails().getDiskSize())
+                    && sequenceLocalDataSource.updateSequence(sequence);
+        });
+        Log.d(TAG, "commitPendingFrames. Status: %s. Sequence id: %s. Frames: %s.", committed, sequence.getID(), pendingFrames.size());
+        if (!committed) {
+            previousState.restore();
+        }
+        for (PendingFrame pendingFrame : pendingFrames) {
+            if (committed) {
+                Frame committedFrame = pendingFrame.frame;
+                notifyPhotoVideo(pendingFrame.location.getLocation(), committedFrame.getIndex(), 0, committedFrame.getDateTime().getMillis());
+            } else {
+                boolean removeFile = new KVFile(pendingFrame.frame.getFilePath()).delete();
+                Log.d(TAG, "commitPendingFrames. Status: %s. Message: Remove uncommitted frame file. Path: %s.", removeFile, pendingFrame.frame.getFilePath());
+            }
+        }
+        pendingFrames.clear();
+        return committed;
+    }
+
+    /**
+     * A frame queued to be written on disk which waits to be committed together with its location.
+     */
+    private static class PendingFrame {
+
+        private final Frame frame;
+
+        private final KVLocation location;
+
+        /**
+         * The size of the JPEG file.
+         */
+        private final long fileSize;
+
+        /**
+         * The distance between the previous and the current frame.
+         */
+        private final double distance;
+
+        private PendingFrame(Frame frame, KVLocation location, long fileSize, double distance) {
+            this.frame = frame;
+            this.location = location;
+            this.fileSize = fileSize;
+            this.distance = distance;
+        }
     }
 
     /**
-     * Writes on disk the frame data as a JPEG file.
-     * @param framePath the frame path where the jpeg file will be stored.
-     * @param frameData the byte array containing the jpeg information.
-     * @return {@code true} if the file was created, {@code false} otherwise.
-     */
-    private boolean writeJpegFile(String framePath, byte[] frameData) {
-        FileOutputStream out;
-        try {
-            out = new FileOutputStream(framePath);
-            out.write(frameData);
-            out.close();
-            Log.d(TAG, String.format("createJpegFile. Status: success. Message: Wrote jpeg with index %s on disk. Path: %s.",
-                    frameIndex, framePath));
-        } catch (IOException e) {
-            Log.e(TAG, String.format("createJpegFile. Status: error. Message: Failed to write jpeg with error: %s", e.getMessage()));
-            return false;
+     * The sequence cache values and the frame index changed by a group commit, captured before the commit in order to be restored if it fails.
+     */
+    private class SequenceCacheState {
+
+        private final int frameIndex;
+
+        private final long diskSize;
+
+        private final double distance;
+
+        private final int locationsCount;
+
+        /**
+         * The number of coordinates in the compression details, {@code -1} if there were no coordinates.
+         */
+        private final int coordinatesCount;
+
+        private final double initialLatitude;
+
+        private final double initialLongitude;
+
+        private SequenceCacheState() {
+            frameIndex = FramePersistenceManager.this.frameIndex;
+            diskSize = sequence.getLocalDetails().getDiskSize();
+            SequenceDetails details = sequence.getDetails();
+            distance = details.getDistance();
+            initialLatitude = details.getInitialLocation().getLatitude();
+            initialLongitude = details.getInitialLocation().getLongitude();
+            SequenceDetailsCompressionBase compressionBase = sequence.getCompressionDetails();
+            locationsCount = compressionBase.getLocationsCount();
+            coordinatesCount = compressionBase.getCoordinates() == null ? -1 : compressionBase.getCoordinates().size();
+        }
+
+        private void restore() {
+            FramePersistenceManager.this.frameIndex = frameIndex;
+            sequence.getLocalDetails().setDiskSize(diskSize);
+            SequenceDetails details = sequence.getDetails();
+            details.setDistance(distance);
+            details.getInitialLocation().setLatitude(initialLatitude);
+            details.getInitialLocation().setLongitude(initialLongitude);
+            SequenceDetailsCompressionBase compressionBase = sequence.getCompressionDetails();
+            compressionBase.setLocationsCount(locationsCount);
+            List<Location> coordinates = compressionBase.getCoordinates();
+            if (coordinatesCount < 0) {
+                compressionBase.setCoordinates(null);
+            } else if (coordinates != null && coordinates.size() > coordinatesCount) {
+                coordinates.subList(coordinatesCount, coordinates.size()).clear();
+            }
+            Log.d(TAG, "commitPendingFrames. Message: Restored the sequence cache. Frame index: %s.", frameIndex);
         }
-        return true;
     }
 }
@@ -0,0 +1,331 @@
+package com.telenav.osv.recorder.persistence.frame;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import androidx.annotation.NonNull;
+import com.telenav.osv.item.KVFile;
+import com.telenav.osv.utils.LatencyHistogram;
+import com.telenav.osv.utils.Log;
+import io.reactivex.Completable;
+import io.reactivex.CompletableEmitter;
+
+/**
+ * Dedicated I/O stage which writes the JPEG frame files on its own thread, so a stalled storage does not hold the database writes of the recording.
+ * <p>
+ * At most {@code capacity} writes are in flight, i.e. accepted and not yet written. The {@code Completable} returned by {@link #write(String, byte[])} completes when
+ * the write is accepted, therefore while the queue is full the caller waits for a free slot instead of queueing more frames in memory. The one returned by
+ * {@link #writeAndAwait(String, byte[])} completes only when the file is written.
+ * <p>
+ * The writes run on the given executor, which may be shared by several writers, e.g. {@link com.telenav.osv.common.Injection#provideJpegFileWriterExecutor()},
+ * since the writer does not own a thread and does not need to be released.
+ * <p>
+ * The files are synced to disk by the {@link SyncPolicy}, independently of that {@link #flush(boolean)} can wait for the accepted writes and sync the written files.
+ * <p>
+ * The latency of each write, from acceptance until the file is written, and of each sync are recorded in histograms which are logged by {@link #close()}.
+ * A failed write is reported by the following {@link #write(String, byte[])} and {@link #flush(boolean)} calls, until the writer is closed.
+ */
+public class JpegFileWriter {
+
+    /**
+     * The default number of writes in flight.
+     */
+    public static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * The default interval between two syncs for {@link SyncPolicy#PERIODIC}.
+     */
+    public static final long DEFAULT_SYNC_INTERVAL_MS = 3000;
+
+    private static final String TAG = JpegFileWriter.class.getSimpleName();
+
+    /**
+     * The writes waiting for a free slot, in order.
+     */
+    private final ArrayDeque<PendingWrite> waitingWrites = new ArrayDeque<>();
+
+    /**
+     * The paths of the written files which are not synced yet. Accessed only from the writer thread.
+     */
+    private final List<String> unsyncedPaths = new ArrayList<>();
+
+    private final LatencyHistogram writeLatency = new LatencyHistogram("Jpeg write");
+
+    private final LatencyHistogram syncLatency = new LatencyHistogram("Jpeg sync");
+
+    private final Executor executor;
+
+    private final int capacity;
+
+    private final SyncPolicy syncPolicy;
+
+    private final long syncIntervalMs;
+
+    /**
+     * The number of accepted writes which are not written yet.
+     */
+    private int inFlight;
+
+    /**
+     * The number of writes which had to wait for a free slot since the writer was closed last time.
+     */
+    private int backpressureCount;
+
+    /**
+     * The first write error since the writer was closed last time, {@code null} if there is none.
+     */
+    private IOException writeError;
+
+    /**
+     * The time of the last sync in nanoseconds. Accessed only from the writer thread.
+     */
+    private long lastSyncNanos = System.nanoTime();
+
+    /**
+     * Default constructor for the current class.
+     * @param capacity the maximum number of writes in flight.
+     * @param syncPolicy the policy for syncing the written files to disk.
+     * @param syncIntervalMs the interval between two syncs for {@link SyncPolicy#PERIODIC}.
+     * @param executor the executor running the writes, which must run them one at a time in order.
+     */
+    public JpegFileWriter(int capacity, @NonNull SyncPolicy syncPolicy, long syncIntervalMs, @NonNull Executor executor) {
+        this.capacity = Math.max(1, capacity);
+        this.syncPolicy = syncPolicy;
+        this.syncIntervalMs = syncIntervalMs;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the given data to be written in a file at the given path.
+     * @param path the path of the file.
+     * @param data the JPEG data, which must not be modified after this call.
+     * @return {@code Completable} which completes when the write was accepted, on the writer thread if the write waited for a free slot,
+     * or which emits the error of a previous failed write.
+     */
+    public Completable write(@NonNull String path, @NonNull byte[] data) {
+        return write(path, data, false);
+    }
+
+    /**
+     * Queues the given data to be written in a file at the given path, same as {@link #write(String, byte[])}, and waits for the file to be written.
+     * @param path the path of the file.
+     * @param data the JPEG data, which must not be modified after this call.
+     * @return {@code Completable} which completes on the writer thread when the file was written, or which emits the error of this write or of a previous failed write.
+     */
+    public Completable writeAndAwait(@NonNull String path, @NonNull byte[] data) {
+        return write(path, data, true);
+    }
+
+    /**
+     * @param awaitWritten {@code true} if the returned {@code Completable} completes when the file is written, {@code false} when the write is accepted.
+     */
+    private Completable write(String path, byte[] data, boolean awaitWritten) {
+        return Completable.create(emitter -> {
+            PendingWrite write = new PendingWrite(path, data, awaitWritten, emitter);
+            synchronized (this) {
+                if (writeError != null) {
+                    emitter.onError(writeError);
+                    return;
+                }
+                if (inFlight >= capacity) {
+                    backpressureCount++;
+                    Log.d(TAG, "write. Status: waiting. Message: %s writes in flight, waiting for a free slot. Path: %s.", inFlight, path);
+                    waitingWrites.add(write);
+                    emitter.setCancellable(() -> cancel(write));
+                    return;
+                }
+                inFlight++;
+            }
+            accept(write);
+        });
+    }
+
+    /**
+     * Waits until all the accepted writes are finished. Blocks the calling thread, which must not be the writer thread.
+     * @param sync {@code true} if the written files should be synced to disk regardless of the {@link SyncPolicy}.
+     * @return {@code true} if all the writes, and the sync if requested, were successful since the writer was closed last time, {@code false} otherwise.
+     */
+    public boolean flush(boolean sync) {
+        CountDownLatch latch = new CountDownLatch(1);
+        boolean[] synced = {true};
+        executor.execute(() -> {
+            if (sync) {
+                synced[0] = syncFiles();
+            }
+            latch.countDown();
+        });
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Log.d(TAG, "flush. Status: error. Message: %s.", e.getMessage());
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        synchronized (this) {
+            return synced[0] && writeError == null;
+        }
+    }
+
+    /**
+     * Closes the writer at the end of a sequence. Waits for the accepted writes, syncs the written files unless the policy is {@link SyncPolicy#NONE},
+     * logs the latency histograms and resets the error state and the statistics. The writer can be used again after this call.
+     * @return {@code true} if all the writes and the final sync were successful, {@code false} otherwise.
+     */
+    public boolean close() {
+        boolean success = flush(syncPolicy != SyncPolicy.NONE);
+        synchronized (this) {
+            //the histograms are reset below, therefore they are logged as strings instead of being formatted later by the file logger
+            Log.d(TAG, "close. Status: %s. Backpressure count: %s. %s. %s.", success, backpressureCount, writeLatency.toString(), syncLatency.toString());
+            writeError = null;
+            backpressureCount = 0;
+        }
+        writeLatency.reset();
+        syncLatency.reset();
+        executor.execute(unsyncedPaths::clear);
+        return success;
+    }
+
+    /**
+     * @return the latency histogram for the writes, from acceptance until the file is written.
+     */
+    public LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    /**
+     * @return the latency histogram for the syncs.
+     */
+    public LatencyHistogram getSyncLatency() {
+        return syncLatency;
+    }
+
+    /**
+     * @return the number of writes which had to wait for a free slot since the writer was closed last time.
+     */
+    public synchronized int getBackpressureCount() {
+        return backpressureCount;
+    }
+
+    /**
+     * Sends the accepted write to the writer thread and notifies the caller, unless the caller waits for the file to be written.
+     */
+    private void accept(PendingWrite write) {
+        long acceptedNanos = System.nanoTime();
+        executor.execute(() -> writeFile(write, acceptedNanos));
+        if (!write.awaitWritten) {
+            write.emitter.onComplete();
+        }
+    }
+
+    /**
+     * Writes the file on the writer thread, then frees the slot for the next waiting write.
+     */
+    private void writeFile(PendingWrite write, long acceptedNanos) {
+        String path = write.path;
+        try (FileOutputStream out = new FileOutputStream(path)) {
+            out.write(write.data);
+            unsyncedPaths.add(path);
+            Log.d(TAG, "writeFile. Status: success. Message: Wrote jpeg on disk. Path: %s.", path);
+            if (write.awaitWritten) {
+                write.emitter.onComplete();
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "writeFile. Status: error. Message: Failed to write jpeg with error: %s", e.getMessage());
+            boolean removeFile = new KVFile(path).delete();
+            Log.d(TAG, "writeFile. Status: %s. Message: Remove incomplete file. Path: %s.", removeFile, path);
+            synchronized (this) {
+                if (writeError == null) {
+                    writeError = e;
+                }
+            }
+            if (write.awaitWritten) {
+                write.emitter.onError(e);
+            }
+        }
+        writeLatency.record(System.nanoTime() - acceptedNanos);
+        if (syncPolicy == SyncPolicy.PERIODIC && System.nanoTime() - lastSyncNanos >= syncIntervalMs * 1_000_000L) {
+            syncFiles();
+        }
+        PendingWrite next;
+        synchronized (this) {
+            next = waitingWrites.poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        accept(next);
+    }
+
+    /**
+     * Syncs to disk the written files which are not synced yet. Must be called on the writer thread.
+     * @return {@code true} if all the files were synced, {@code false} otherwise.
+     */
+    private boolean syncFiles() {
+        lastSyncNanos = System.nanoTime();
+        if (unsyncedPaths.isEmpty()) {
+            return true;
+        }
+        boolean synced = true;
+        for (String path : unsyncedPaths) {
+            //the file is opened in append mode in order to sync the data written by the previous stream without modifying it
+            try (FileOutputStream out = new FileOutputStream(path, true)) {
+                out.getFD().sync();
+            } catch (IOException e) {
+                Log.e(TAG, "syncFiles. Status: error. Message: Failed to sync jpeg with error: %s", e.getMessage());
+                synced = false;
+            }
+        }
+        syncLatency.record(System.nanoTime() - lastSyncNanos);
+        Log.d(TAG, "syncFiles. Status: %s. Files: %s.", synced, unsyncedPaths.size());
+        unsyncedPaths.clear();
+        return synced;
+    }
+
+    private synchronized void cancel(PendingWrite write) {
+        waitingWrites.remove(write);
+    }
+
+    /**
+     * The policy for syncing the written files to disk.
+     */
+    public enum SyncPolicy {
+        /**
+         * The files are never synced explicitly, the system writes them to disk when it decides.
+         */
+        NONE,
+        /**
+         * The written files are synced together at most once per sync interval, after a write.
+         */
+        PERIODIC,
+        /**
+         * The written files are synced together when the writer is closed at the end of the sequence.
+         */
+        ON_CLOSE
+    }
+
+    /**
+     * A write waiting to be accepted.
+     */
+    private static class PendingWrite {
+
+        private final String path;
+
+        private final byte[] data;
+
+        private final boolean awaitWritten;
+
+        private final CompletableEmitter emitter;
+
+        private PendingWrite(String path, byte[] data, boolean awaitWritten, CompletableEmitter emitter) {
+            this.path = path;
+            this.data = data;
+            this.awaitWritten = awaitWritten;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.telenav.osv.recorder.persistence.video;
 
-import android.graphics.ImageFormat;
 import android.media.MediaCodecInfo;
 import android.os.HandlerThread;
 
@@ -11,9 +10,8 @@ import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCo
 import com.telenav.osv.data.video.datasource.VideoLocalDataSource;
 import com.telenav.osv.data.video.model.Video;
 import com.telenav.osv.item.KVFile;
-import com.telenav.osv.recorder.camera.model.CameraFrame;
-import com.telenav.osv.recorder.camera.util.CameraHelper;
 import com.telenav.osv.recorder.encoder.VideoEncoder;
+import com.telenav.osv.recorder.encoder.converter.FrameConverter;
 import com.telenav.osv.recorder.metadata.callback.MetadataPhotoVideoCallback;
 import com.telenav.osv.recorder.persistence.RecordingFrame;
 import com.telenav.osv.recorder.persistence.RecordingPersistenceManager;
@@ -81,6 +79,11 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
      */
     private int videoColorFormat;
 
+    /**
+     * The converter from the camera output format to the {@link #videoColorFormat}, chosen when the recording is started.
+     */
+    private FrameConverter frameConverter;
+
     /**
      * The thread for the encoding operation.
      */
@@ -103,6 +106,8 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
     @Override
     public Completable start(LocalSequence sequence, Size formatSize, int imageFormat) {
         startHandler();
+        frameConverter = FrameConverter.create(imageFormat, videoColorFormat);
+        Log.d(TAG, "start. Image format: %s. Codec format: %s. Converter: %s.", imageFormat, videoColorFormat, frameConverter.getClass().getSimpleName());
         return super.start(sequence, formatSize, imageFormat);
     }
 
@@ -110,7 +115,7 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
     public Completable save(RecordingFrame frame) {
         Log.d(TAG, "save()");
         return prepareVideoFileForEncoder()
-                .andThen(videoEncoder.encode(getConvertedFrameData(frame.getFrameData()))
+                .andThen(videoEncoder.encode(frame.getFrameData().getFrameData(), frameConverter)
                         .subscribeOn(Schedulers.computation()))
                 .observeOn(recordingPersistenceScheduler)
                 .andThen(persistVideoToLocalDataSource()
@@ -120,7 +125,7 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
     @Override
     protected void remove(String id) {
         boolean removeVideo = videoLocalDataSource.deleteVideo(id);
-        Log.d(TAG, String.format("remove. Status: %s. Video id: %s", removeVideo, id));
+        Log.d(TAG, "remove. Status: %s. Video id: %s", removeVideo, id);
     }
 
     @Override
@@ -128,6 +133,10 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
         return super.stop().doOnComplete(() -> {
             videoEncoder.stopEncoder();
             stopHandler();
+            if (frameConverter != null) {
+                frameConverter.release();
+                frameConverter = null;
+            }
             long newSize = Utils.fileSize(new KVFile(getCurrentVideoPath())) - diskSize;
             updateSequenceDiskSize(newSize);
             currentVideoIndex = -1;
@@ -156,7 +165,7 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
             backgroundThread.join();
             backgroundThread = null;
         } catch (InterruptedException e) {
-            Log.e(TAG, String.format("stopBackground: %s", e.getMessage()));
+            Log.e(TAG, "stopBackground: %s", e.getMessage());
         }
     }
 
@@ -177,7 +186,7 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
                     currentVideoIndex,
                     frame.getTimestamp());
             //if the location could not be persisted removes the video
-            Log.d(TAG, String.format("persistLocationToLocalDataSource. Status: %s. Sequence id: %s. Video compression: %s.", persistLocation, sequence.getID(), true));
+            Log.d(TAG, "persistLocationToLocalDataSource. Status: %s. Sequence id: %s. Video compression: %s.", persistLocation, sequence.getID(), true);
             if (!persistLocation) {
                 remove(video.getID());
                 emitter.onError(new Throwable(RecordingPersistenceStatus.STATUS_ERROR_LOCATION_PERSISTENCE));
@@ -217,24 +226,24 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
                 boolean saveVideo = videoLocalDataSource.saveVideo(video, sequenceID);
                 if (!saveVideo) {
                     boolean deleteVideoStatus = new KVFile(video.getPath()).delete();
-                    Log.d(TAG, String.format("persistVideoToLocalDataSource. Status: %s. Message: The video could not be persisted. Removing video physical device.",
-                            deleteVideoStatus));
+                    Log.d(TAG, "persistVideoToLocalDataSource. Status: %s. Message: The video could not be persisted. Removing video physical device.",
+                            deleteVideoStatus);
                     emitter.onError(new Throwable());
                     return;
                 } else {
-                    Log.d(TAG, String.format("persistVideoToLocalDataSource. Status: success. Message: Persist video. Sequence id: %s. ", sequenceID));
+                    Log.d(TAG, "persistVideoToLocalDataSource. Status: success. Message: Persist video. Sequence id: %s. ", sequenceID);
                 }
             } else if (compressionVideo.getVideos() != null) {
                 video = compressionVideo.getVideos().get(currentVideoIndex);
             }
             if (video == null) {
-                Log.d(TAG, String.format("persistVideoToLocalDataSource. Status: error. Message: Video not found for index - %s", currentVideoIndex));
+                Log.d(TAG, "persistVideoToLocalDataSource. Status: error. Message: Video not found for index - %s", currentVideoIndex);
                 emitter.onError(new Throwable());
                 return;
             }
             video.setLocationsCount(video.getLocationsCount() + 1);
             boolean updateVideo = videoLocalDataSource.updateFrameCount(video.getID(), video.getLocationsCount());
-            Log.d(TAG, String.format("persistVideoToLocalDataSource. Status: %s. Message: Update video frame count. Sequence id: %s", updateVideo, sequenceID));
+            Log.d(TAG, "persistVideoToLocalDataSource. Status: %s. Message: Update video frame count. Sequence id: %s", updateVideo, sequenceID);
             if (!updateVideo) {
                 emitter.onError(new Throwable());
                 return;
@@ -256,19 +265,19 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
                         Log.d(TAG, "prepareVideoFileForEncoder. currentVideoIndex: " + currentVideoIndex);
                         //for first frame the encoder is not started yet
                         if (frameIndex != 0) {
-                            Log.d(TAG, String.format("prepareVideoFileForEncoder. Status: pre stop encoder. Disk size: %s.", diskSize));
+                            Log.d(TAG, "prepareVideoFileForEncoder. Status: pre stop encoder. Disk size: %s.", diskSize);
                             videoEncoder.stopEncoder();
                             long newSize = Utils.fileSize(new KVFile(getCurrentVideoPath())) - diskSize;
                             updateSequenceDiskSize(newSize);
-                            Log.d(TAG, String.format("prepareVideoFileForEncoder. Status: post stop encoder. Disk size: %s.", newSize));
+                            Log.d(TAG, "prepareVideoFileForEncoder. Status: post stop encoder. Disk size: %s.", newSize);
                         }
                         currentVideoIndex++;
                         diskSize = 0;
                         new KVFile(getCurrentVideoPath());
-                        Log.d(TAG, String.format("prepareVideoFileForEncoder. Status: success. Message: New video file with index %s", currentVideoIndex));
+                        Log.d(TAG, "prepareVideoFileForEncoder. Status: success. Message: New video file with index %s", currentVideoIndex);
                         emitter.onSuccess(true);
                     } else {
-                        Log.d(TAG, String.format("prepareVideoFileForEncoder. Status: success. Message: Same video file, disk size - %s", diskSize));
+                        Log.d(TAG, "prepareVideoFileForEncoder. Status: success. Message: Same video file, disk size - %s", diskSize);
                         emitter.onSuccess(false);
                     }
                 })
@@ -299,33 +308,6 @@ public class VideoPersistenceManager extends RecordingPersistenceManager {
         return folderPath + "/" + currentVideoIndex + ".mp4";
     }
 
-    /**
-     * Handles the conversion from camera output format to encoding input format.
-     * @param cameraFrame the frame data in camera output format.
-     * @return the frame data having the encoding format YUV420 Planar/Semi-Planar or
-     * {@code null} when none of the YUV format is supported by encoder.
-     */
-    private byte[] getConvertedFrameData(CameraFrame cameraFrame) {
-        Log.d(TAG, "getConvertedFrameData. Image format " + cameraFrame.getImageFormat());
-        if (videoColorFormat == MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420SemiPlanar) {
-            if (imageFormat == ImageFormat.NV21) {
-                Log.d(TAG, "getConvertedFrameData. Status: converting. Message: Convert image to YUV420SemiPlanar from NV21.");
-                return CameraHelper.convertFromNV21ToYUV420SemiPlanar(cameraFrame.getFrameData(), formatSize.getWidth(), formatSize.getHeight());
-            } else {
-                Log.d(TAG, "getConvertedFrameData. Status: converting. Message: Convert image to YUV420SemiPlanar from YUV.");
-                return CameraHelper.convertCameraYUVtoYUV420SemiPlanar(cameraFrame.getFrameData(), formatSize.getWidth(), formatSize.getHeight());
-            }
-        } else {
-            if (imageFormat == ImageFormat.NV21) {
-                Log.d(TAG, "getConvertedFrameData. Status: converting. Message: Convert image to YUV420Planar from NV21.");
-                return CameraHelper.convertFromNV21ToYUV420Planar(cameraFrame.getFrameData(), formatSize.getWidth(), formatSize.getHeight());
-            } else {
-                Log.d(TAG, "getConvertedFrameData. Status: converting. Message: Convert image to YUV420Planar from YUV.");
-                return CameraHelper.convertCameraYUVtoYUV420Planar(cameraFrame.getFrameData(), formatSize.getWidth(), formatSize.getHeight());
-            }
-        }
-    }
-
     /**
      * Sets the format for encoder considering also the frame format.
      */
@@ -48,6 +48,11 @@ public class PositionMatcher {
 
     private ArrayList<Polyline> polylines;
 
+    /**
+     * Spatial index over the segments of {@link #polylines}, rebuilt each time new segments are received.
+     */
+    private SegmentGridIndex segmentIndex;
+
     private boolean requestSent = false;
 
     private long lastCheckTime;
@@ -121,7 +126,7 @@ public class PositionMatcher {
             double weight = HEADING_WEIGHTS[weightIndex];
             totalWeight += weight;
             totalWeightedBearing += bearing * weight;
-            Log.d(TAG, String.format("getBearing. Status: calculated weight. Message: Calculating total weight: %s", totalWeightedBearing));
+            Log.d(TAG, "getBearing. Status: calculated weight. Message: Calculating total weight: %s", totalWeightedBearing);
         }
         double bearing = 0;
         if (totalWeight > 0) {
@@ -189,6 +194,7 @@ public class PositionMatcher {
             }
             polylines.clear();
             polylines.addAll(segments);
+            segmentIndex = new SegmentGridIndex(polylines, MATCH_DISTANCE_LIMIT);
             if (polylines.isEmpty()) {
                 Log.d(TAG, "requestNewDataIfNeeded: no segments were received");
             }
@@ -218,43 +224,42 @@ public class PositionMatcher {
             synchronized (matcherSyncObject) {
                 long time = System.currentTimeMillis();
                 ArrayList<Segment> candidates = new ArrayList<>();
-                for (Polyline polyline : polylines) {
+                int[] candidateSegments = coordinate != null ? segmentIndex.query(coordinate) : new int[0];
+                for (int segmentId : candidateSegments) {
+                    Polyline polyline = segmentIndex.getPolyline(segmentId);
                     List<KVLatLng> track = polyline.getNodes();
-                    if (coordinate != null && !track.isEmpty()) {
-                        for (int i = 0; i < track.size() - 1; i++) {
-                            KVLatLng coord1 = track.get(i);
-                            KVLatLng coord2 = track.get(i + 1);
-                            double distanceToPos = ComputingDistance.getDistanceFromSegment(coordinate, coord1, coord2);
-                            if (distanceToPos < MATCH_DISTANCE_LIMIT) {
-                                double dist1 = ComputingDistance.distanceBetween(coord1, coordinate);
-                                double dist2 = ComputingDistance.distanceBetween(coord2, coordinate);
-
-                                KVLatLng firstCoord;
-                                KVLatLng secondCoord;
-                                if (dist1 < dist2) {
-                                    firstCoord = coord1;
-                                    secondCoord = coord2;
-                                } else {
-                                    firstCoord = coord2;
-                                    secondCoord = coord1;
-                                }
-                                double bearing = calculateBearing(firstCoord, secondCoord);
-                                double altBearing = (bearing + 180) % 360;
-                                if ((distanceToPos < dist1 || distanceToPos < dist2) &&
-                                        (Math.abs(bearing - historicalBearing) > Math.abs(altBearing - historicalBearing))) {
-                                    bearing = altBearing;
-                                    KVLatLng temp = firstCoord;
-                                    firstCoord = secondCoord;
-                                    secondCoord = temp;
-                                }
-                                double deltaBearing = Math.abs(bearing - historicalBearing);
-                                Log.d(TAG, "match:" + polyline.getIdentifier() + " bearing for " + i + " is " + bearing + " delta is " + deltaBearing);
-
-                                //                          0-20                0-180
-                                float score = (float) (((distanceToPos / MATCH_DISTANCE_LIMIT) * 50.0 + (deltaBearing / 180) * 50.0) / 100f);
-                                candidates.add(new Segment(distanceToPos, coordinate, polyline, firstCoord, secondCoord, deltaBearing, score));
-                            }
+                    int i = segmentIndex.getNodeIndex(segmentId);
+                    KVLatLng coord1 = track.get(i);
+                    KVLatLng coord2 = track.get(i + 1);
+                    double distanceToPos = ComputingDistance.getDistanceFromSegment(coordinate, coord1, coord2);
+                    if (distanceToPos < MATCH_DISTANCE_LIMIT) {
+                        double dist1 = ComputingDistance.distanceBetween(coord1, coordinate);
+                        double dist2 = ComputingDistance.distanceBetween(coord2, coordinate);
+
+                        KVLatLng firstCoord;
+                        KVLatLng secondCoord;
+                        if (dist1 < dist2) {
+                            firstCoord = coord1;
+                            secondCoord = coord2;
+                        } else {
+                            firstCoord = coord2;
+                            secondCoord = coord1;
+                        }
+                        double bearing = calculateBearing(firstCoord, secondCoord);
+                        double altBearing = (bearing + 180) % 360;
+                        if ((distanceToPos < dist1 || distanceToPos < dist2) &&
+                                (Math.abs(bearing - historicalBearing) > Math.abs(altBearing - historicalBearing))) {
+                            bearing = altBearing;
+                            KVLatLng temp = firstCoord;
+                            firstCoord = secondCoord;
+                            secondCoord = temp;
                         }
+                        double deltaBearing = Math.abs(bearing - historicalBearing);
+                        Log.d(TAG, "match:" + polyline.getIdentifier() + " bearing for " + i + " is " + bearing + " delta is " + deltaBearing);
+
+                        //                          0-20                0-180
+                        float score = (float) (((distanceToPos / MATCH_DISTANCE_LIMIT) * 50.0 + (deltaBearing / 180) * 50.0) / 100f);
+                        candidates.add(new Segment(distanceToPos, coordinate, polyline, firstCoord, secondCoord, deltaBearing, score));
                     }
                 }
 
@@ -270,7 +275,8 @@ public class PositionMatcher {
                     }
                 }
 
-                Log.d(TAG, "match: matched segment called on " + polylines.size() + " segments, run in " + (System.currentTimeMillis() - time));
+                Log.d(TAG, "match: matched segment called on " + candidateSegments.length + " of " + segmentIndex.getSegmentCount() + " segments, run in " +
+                        (System.currentTimeMillis() - time));
 
                 if (bestCandidate == null) {
                     Polyline polyline = new Polyline(404);
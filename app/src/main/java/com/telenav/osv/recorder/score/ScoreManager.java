@@ -270,7 +270,7 @@ public class ScoreManager implements Score, PositionMatcher.SegmentsListener, Ob
                         scoreHistory = new ScoreHistory(UUID.randomUUID().toString(), cappedCoverage, 0, 0);
                         scoreHistoryMap.put(scoreHistory.getCoverage(), scoreHistory);
                         boolean insertScore = scoreDataSource.insertScore(scoreHistory, sequenceId);
-                        Log.d(TAG, String.format("updateScore. Status: %s. Message: Insert new score history into persistence.", insertScore));
+                        Log.d(TAG, "updateScore. Status: %s. Message: Insert new score history into persistence.", insertScore);
                     }
                     boolean updateScore;
                     if (isObdConnected) {
@@ -280,10 +280,10 @@ public class ScoreManager implements Score, PositionMatcher.SegmentsListener, Ob
                         scoreHistory.setPhotoCount(scoreHistory.getPhotoCount() + SCORE_PHOTO_INCREMENT_VALUE);
                         updateScore = scoreDataSource.updatePhotoCount(scoreHistory.getID(), scoreHistory.getPhotoCount());
                     }
-                    Log.d(TAG, String.format("updateScore. Status: %s. Message: Updating score history photo counts into persistence.", updateScore));
+                    Log.d(TAG, "updateScore. Status: %s. Message: Updating score history photo counts into persistence.", updateScore);
                 }
                 points = points + ((isObdConnected ? OBD_CONNECTED_MULTIPLIER : OBD_DISCONNECTED_MULTIPLIER) * segmentValue);
-                Log.d(TAG, String.format("onPictureTaken: segmentValue %s points %s ", segmentValue, points));
+                Log.d(TAG, "onPictureTaken: segmentValue %s points %s ", segmentValue, points);
             }
             emitter.onComplete();
         }).subscribeOn(Schedulers.io())
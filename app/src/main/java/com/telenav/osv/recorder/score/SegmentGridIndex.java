@@ -0,0 +1,207 @@
+package com.telenav.osv.recorder.score;
+
+import com.telenav.osv.common.model.KVLatLng;
+import com.telenav.osv.item.Polyline;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Uniform grid index over the segments of a list of {@link Polyline}s, used by the {@link PositionMatcher} in order to avoid
+ * checking every segment of the loaded bounding box for each position.
+ * <p>
+ * Each segment, defined by two consecutive nodes of a polyline, receives an id in the polyline iteration order and is registered in every
+ * grid cell touched by its bounding box. A query returns the ids of all the segments registered in the cells touched by the search box
+ * around the coordinate, sorted ascending, so the candidates are visited in the same order as a full scan would visit them.
+ * <p>
+ * The index is immutable after creation and it should be rebuilt when new segments are received.
+ */
+class SegmentGridIndex {
+
+    /**
+     * The cell size expressed as a multiple of the search distance.
+     * Bigger cells keep long segments in fewer cells, while smaller cells return fewer false candidates.
+     */
+    private static final int CELL_SIZE_MULTIPLIER = 4;
+
+    /**
+     * The number of bits used for the column of a cell in the cell key.
+     */
+    private static final int CELL_KEY_SHIFT = 32;
+
+    /**
+     * Mask for the column of a cell in the cell key.
+     */
+    private static final long CELL_KEY_MASK = 0xFFFFFFFFL;
+
+    /**
+     * The initial capacity of a cell.
+     */
+    private static final int CELL_INITIAL_CAPACITY = 4;
+
+    /**
+     * The polylines which are indexed.
+     */
+    private final List<Polyline> polylines;
+
+    /**
+     * The index in {@link #polylines} of the polyline for each segment id.
+     */
+    private final int[] segmentPolylines;
+
+    /**
+     * The index of the first node in the polyline for each segment id.
+     */
+    private final int[] segmentNodes;
+
+    /**
+     * The cells of the grid which contain at least one segment, identified by the key returned by {@link #getCellKey(int, int)}.
+     */
+    private final HashMap<Long, Cell> cells = new HashMap<>();
+
+    /**
+     * The distance, in degrees, around a query coordinate in which the segments are searched.
+     */
+    private final double searchDistance;
+
+    /**
+     * The size, in degrees, of a grid cell.
+     */
+    private final double cellSize;
+
+    /**
+     * Creates the index for the segments of the given polylines.
+     * @param polylines the polylines for which the segments are indexed.
+     * @param searchDistance the distance, in degrees, around a query coordinate for which the segments are returned.
+     */
+    SegmentGridIndex(List<Polyline> polylines, double searchDistance) {
+        this.polylines = polylines;
+        this.searchDistance = searchDistance;
+        this.cellSize = searchDistance * CELL_SIZE_MULTIPLIER;
+        int segmentCount = 0;
+        for (Polyline polyline : polylines) {
+            segmentCount += Math.max(0, polyline.getNodes().size() - 1);
+        }
+        segmentPolylines = new int[segmentCount];
+        segmentNodes = new int[segmentCount];
+        int segmentId = 0;
+        for (int polylineIndex = 0; polylineIndex < polylines.size(); polylineIndex++) {
+            List<KVLatLng> nodes = polylines.get(polylineIndex).getNodes();
+            for (int nodeIndex = 0; nodeIndex < nodes.size() - 1; nodeIndex++) {
+                segmentPolylines[segmentId] = polylineIndex;
+                segmentNodes[segmentId] = nodeIndex;
+                addSegment(segmentId, nodes.get(nodeIndex), nodes.get(nodeIndex + 1));
+                segmentId++;
+            }
+        }
+    }
+
+    /**
+     * @param coordinate the coordinate for which the candidates are searched.
+     * @return the sorted ids of the segments which might be closer than the search distance to the given coordinate.
+     * The returned segments are a superset of the segments in range, the exact distance should be checked by the caller.
+     */
+    int[] query(KVLatLng coordinate) {
+        int minRow = getCellIndex(coordinate.getLat() - searchDistance);
+        int maxRow = getCellIndex(coordinate.getLat() + searchDistance);
+        int minColumn = getCellIndex(coordinate.getLon() - searchDistance);
+        int maxColumn = getCellIndex(coordinate.getLon() + searchDistance);
+        int[] result = new int[0];
+        int size = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                Cell cell = cells.get(getCellKey(row, column));
+                if (cell == null) {
+                    continue;
+                }
+                if (result.length < size + cell.size) {
+                    result = Arrays.copyOf(result, size + cell.size);
+                }
+                System.arraycopy(cell.segments, 0, result, size, cell.size);
+                size += cell.size;
+            }
+        }
+        if (size == 0) {
+            return result;
+        }
+        //a segment touching more than one of the searched cells is removed by keeping only the first of the consecutive duplicates
+        Arrays.sort(result, 0, size);
+        int uniqueSize = 1;
+        for (int i = 1; i < size; i++) {
+            if (result[i] != result[uniqueSize - 1]) {
+                result[uniqueSize++] = result[i];
+            }
+        }
+        return uniqueSize == result.length ? result : Arrays.copyOf(result, uniqueSize);
+    }
+
+    /**
+     * @param segmentId the id of a segment returned by {@link #query(KVLatLng)}.
+     * @return the polyline which contains the segment.
+     */
+    Polyline getPolyline(int segmentId) {
+        return polylines.get(segmentPolylines[segmentId]);
+    }
+
+    /**
+     * @param segmentId the id of a segment returned by {@link #query(KVLatLng)}.
+     * @return the index of the first node of the segment in the nodes of its polyline.
+     */
+    int getNodeIndex(int segmentId) {
+        return segmentNodes[segmentId];
+    }
+
+    /**
+     * @return the number of indexed segments.
+     */
+    int getSegmentCount() {
+        return segmentNodes.length;
+    }
+
+    /**
+     * Registers the segment in all the cells touched by its bounding box.
+     */
+    private void addSegment(int segmentId, KVLatLng start, KVLatLng end) {
+        int minRow = getCellIndex(Math.min(start.getLat(), end.getLat()));
+        int maxRow = getCellIndex(Math.max(start.getLat(), end.getLat()));
+        int minColumn = getCellIndex(Math.min(start.getLon(), end.getLon()));
+        int maxColumn = getCellIndex(Math.max(start.getLon(), end.getLon()));
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                long key = getCellKey(row, column);
+                Cell cell = cells.get(key);
+                if (cell == null) {
+                    cell = new Cell();
+                    cells.put(key, cell);
+                }
+                cell.add(segmentId);
+            }
+        }
+    }
+
+    private int getCellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    private long getCellKey(int row, int column) {
+        return ((long) row << CELL_KEY_SHIFT) | (column & CELL_KEY_MASK);
+    }
+
+    /**
+     * A grid cell holding the ids of the segments which touch it.
+     */
+    private static class Cell {
+
+        private int[] segments = new int[CELL_INITIAL_CAPACITY];
+
+        private int size;
+
+        void add(int segmentId) {
+            if (size == segments.length) {
+                segments = Arrays.copyOf(segments, size * 2);
+            }
+            segments[size++] = segmentId;
+        }
+    }
+}
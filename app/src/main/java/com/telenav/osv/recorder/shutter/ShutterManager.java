@@ -302,7 +302,7 @@ public class ShutterManager implements Shutter, ShutterListener, ObdManager.ObdC
      * @param type the type of the location accuracy
      */
     private void onGpsAccuracyChangeIfNeccesary(int type) {
-        Log.d(TAG, String.format("onLocationAccuracyChanged: %s", type));
+        Log.d(TAG, "onLocationAccuracyChanged: %s", type);
         if (type == AccuracyType.ACCURACY_BAD && gpsLogic.isFunctional()) {
             gpsLogic.setFunctional(false);
             logicPrioritiesChanged();
@@ -36,7 +36,7 @@ public class ObdShutterLogic extends ShutterLogic {
 
     @Override
     public void onSpeedChanged(SpeedData speedData) {
-        Log.d(TAG, String.format("Current speed: %s m/s", speedData.getSpeed()));
+        Log.d(TAG, "Current speed: %s m/s", speedData.getSpeed());
         if (speedData.getSpeed() != UNKNOWN_SPEED_VALUE) {
             if (referenceTime == 0) {
                 referenceTime = speedData.getTimestamp();
@@ -44,9 +44,9 @@ public class ObdShutterLogic extends ShutterLogic {
             int speedInMetersPerSec = speedData.getSpeed();
             //transformation in km/h due to metadata requirements to log km/h.
             float speedInKmH = (float) (speedInMetersPerSec * KM_PER_H_MULTIPLIER);
-            Log.d(TAG, String.format("Current speed: %s km/h. %s m/s",
+            Log.d(TAG, "Current speed: %s km/h. %s m/s",
                     speedInKmH,
-                    speedData.getSpeed()));
+                    speedData.getSpeed());
             //calculates the speed category used for photo frequency
             recalculateSpeedCategory(speedInKmH);
             //request snapshot to be taken based on specific criteria
@@ -81,15 +81,15 @@ public class ObdShutterLogic extends ShutterLogic {
      * @param timestamp {@code long} value representing the current timestamp.
      */
     private void requestSnapshotIfRequired(int speed, long timestamp) {
-        Log.d(TAG, String.format("CheckDistance. Speed: %s. Last update time: %s. Current update time: %s."
+        Log.d(TAG, "CheckDistance. Speed: %s. Last update time: %s. Current update time: %s."
                 , speed
                 , referenceTime
-                , timestamp));
+                , timestamp);
         double lastUpdateInSeconds = (timestamp - referenceTime) / SECOND_IN_MS;
         referenceTime = timestamp;
 
         distanceBetweenUpdates += lastUpdateInSeconds * speed;
-        Log.d(TAG, String.format("CheckDistance. Distance covered between photos: %s.", distanceBetweenUpdates));
+        Log.d(TAG, "CheckDistance. Distance covered between photos: %s.", distanceBetweenUpdates);
         if (distanceBetweenUpdates >= mSpeedCategory && mShutterListener != null) {
             mShutterListener.requestTakeSnapshot((float) distanceBetweenUpdates, currentCachedLocation);
             distanceBetweenUpdates = 0;
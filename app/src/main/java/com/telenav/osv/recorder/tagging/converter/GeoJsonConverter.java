@@ -99,7 +99,7 @@ public class GeoJsonConverter {
             KVFile geoJsonFile = new KVFile(geoJsonOutputFolder, RECORDING_TAGGING_FILE_NAME);
             return writeToFile(featureCollection.toGeoJson(), geoJsonFile);
         } catch (IOException e) {
-            Log.w(TAG, String.format("convert. Status: error. Message: %s", e.getLocalizedMessage()));
+            Log.w(TAG, "convert. Status: error. Message: %s", e.getLocalizedMessage());
         }
         //returns nothing if there was problem or error encountered during conversion.
         return 0;
@@ -179,7 +179,7 @@ public class GeoJsonConverter {
 
     private void addRoadTypeFeature(double lat, double lon, String roadType) {
         if (!roadType.equals(previousRoadType)) {
-            Log.d(TAG, String.format("addRoadTypeFeature. Status: new road type found. Type: %s.", roadType));
+            Log.d(TAG, "addRoadTypeFeature. Status: new road type found. Type: %s.", roadType);
             //add to the previous road type the current location
             if (featureLineString != null) {
                 featureLineString.addCoordinate(new TaggingCoordinate(lat, lon));
@@ -228,7 +228,7 @@ public class GeoJsonConverter {
                 Log.w(TAG, "addEventIfRequired. Status: decode note error. Message: Could not decode the note.");
             }
         }
-        Log.w(TAG, String.format("addEventIfRequired. Status: complete. Type: %s. Note: %s. Message: Adding event.", evenType, note));
+        Log.w(TAG, "addEventIfRequired. Status: complete. Type: %s. Note: %s. Message: Adding event.", evenType, note);
         featureCollection.addFeature(
                 new TaggingFeature(
                         new TaggingProperties(timeStamp, evenType, note),
@@ -164,10 +164,10 @@ public class RecordingTaggingLoggerImpl implements RecordingTaggingLogger {
         long taggingFileSize = geoJsonConverter.convert(recordingTxtFile, sequenceFolder);
         long newSequenceSize = sequenceDiskSize + taggingFileSize;
         Log.d(TAG,
-                String.format("finish. Status: update sequence disk size. New size: %s. Sequence size: %s. Tagging size: %s.",
-                        newSequenceSize,
-                        sequenceDiskSize,
-                        taggingFileSize));
+                "finish. Status: update sequence disk size. New size: %s. Sequence size: %s. Tagging size: %s.",
+                newSequenceSize,
+                sequenceDiskSize,
+                taggingFileSize);
         sequenceLocalDataSource.updateDiskSize(sequenceId, newSequenceSize);
         sequenceDetailsLocal.setDiskSize(newSequenceSize);
     }
@@ -252,10 +252,10 @@ public class RecordingTaggingLoggerImpl implements RecordingTaggingLogger {
                                 logSensorData(false, false, null);
                             }
 
-                            Log.d(TAG, String.format("observeOnImageCaptureEvents. Status: imageSavedEvent. Message: New picture at location %s",
-                                    imageSavedEvent.getImageLocation()));
+                            Log.d(TAG, "observeOnImageCaptureEvents. Status: imageSavedEvent. Message: New picture at location %s",
+                                    imageSavedEvent.getImageLocation());
                         },
-                        throwable -> Log.d(TAG, String.format("observeOnImageCaptureEvents. Status: error. Message: %s", throwable.getLocalizedMessage()))
+                        throwable -> Log.d(TAG, "observeOnImageCaptureEvents. Status: error. Message: %s", throwable.getLocalizedMessage())
                 );
     }
 
@@ -362,7 +362,7 @@ class ScreenDecorator {
                                     },
                                     //onError
                                     throwable -> {
-                                        Log.d(TAG, String.format("initNavigationDrawer. Status: error. Message: %s", throwable.getLocalizedMessage()));
+                                        Log.d(TAG, "initNavigationDrawer. Status: error. Message: %s", throwable.getLocalizedMessage());
                                         mDrawer.closeDrawers();
                                         showSnackBar(getString(R.string.no_local_recordings_message), Snackbar.LENGTH_LONG);
                                     });
@@ -382,7 +382,7 @@ class ScreenDecorator {
                                                 mDrawer.closeDrawers();
                                             },
                                             //onError
-                                            throwable -> Log.d(TAG, String.format("initNavigationDrawer profileTap. Status: error. Message: %s", throwable.getMessage())),
+                                            throwable -> Log.d(TAG, "initNavigationDrawer profileTap. Status: error. Message: %s", throwable.getMessage()),
                                             //onComplete
                                             () -> {
                                                 Log.d(TAG, "initNavigationDrawer profileTap. Status: complete. Message: User not found.");
@@ -437,7 +437,7 @@ class ScreenDecorator {
                                     mLogOutImage.setOnClickListener(logoutOnClickListener);
                                 },
                                 //onError
-                                throwable -> Log.d(TAG, String.format("Get user invalid. Status: error. Message: %s", throwable.getMessage())),
+                                throwable -> Log.d(TAG, "Get user invalid. Status: error. Message: %s", throwable.getMessage()),
                                 //onComplete
                                 () -> {
                                     Log.d(TAG, "initNavigationDrawer. Status: success. Message: User not found. Updating profile info.");
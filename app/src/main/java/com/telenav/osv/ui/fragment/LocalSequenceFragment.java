@@ -340,7 +340,7 @@ public class LocalSequenceFragment extends KVBaseFragment implements GenericList
         }
         uploadCompositeDisposable.add(Completable.create(emitter -> {
             boolean isInternetAvailable = NetworkUtils.isInternetConnectionAvailable(getContext(), appPrefs.getBooleanPreference(PreferenceTypes.K_UPLOAD_DATA_ENABLED));
-            Log.d(TAG, String.format("actionUploadAllListener internet. Status: %s.", isInternetAvailable));
+            Log.d(TAG, "actionUploadAllListener internet. Status: %s.", isInternetAvailable);
             if (isInternetAvailable) {
                 emitter.onComplete();
             } else {
@@ -361,7 +361,7 @@ public class LocalSequenceFragment extends KVBaseFragment implements GenericList
                         user -> handleUploadSuccess(),
                         //onError
                         throwable -> {
-                            Log.d(TAG, String.format("startUploadIfPossible. Status: error. Message :%s.", throwable.getMessage()));
+                            Log.d(TAG, "startUploadIfPossible. Status: error. Message :%s.", throwable.getMessage());
                             UiUtils.showSnackBar(getContext(), parentView, throwable.getMessage(), Snackbar.LENGTH_SHORT, null, null);
                         },
                         //onComplete
@@ -590,7 +590,7 @@ public class LocalSequenceFragment extends KVBaseFragment implements GenericList
                                 //throwable
                                 throwable -> {
                                     hideLoadingIndicator();
-                                    Log.d(TAG, String.format("sequenceListAdapter refresh. Status: error. Message: %s.", throwable.getLocalizedMessage()));
+                                    Log.d(TAG, "sequenceListAdapter refresh. Status: error. Message: %s.", throwable.getLocalizedMessage());
                                     Toast.makeText(getContext(), R.string.something_wrong_try_again, Toast.LENGTH_SHORT).show();
                                     closeFragment();
                                 }));
@@ -626,7 +626,7 @@ public class LocalSequenceFragment extends KVBaseFragment implements GenericList
                         boolean delete = sequenceLocalDataSource.deleteSequence(sequenceId);
                         if (delete) {
                             boolean deleteFolder = sequence.getLocalDetails().getFolder().delete();
-                            Log.d(TAG, String.format("onDeleteItem. Status: %s. Message: Deleting sequence folder from the device.", deleteFolder));
+                            Log.d(TAG, "onDeleteItem. Status: %s. Message: Deleting sequence folder from the device.", deleteFolder);
                             emitter.onComplete();
                         } else {
                             emitter.onError(new Throwable("Delete failed."));
@@ -637,15 +637,15 @@ public class LocalSequenceFragment extends KVBaseFragment implements GenericList
                             .subscribe(
                                     //onSuccess
                                     () -> {
-                                        Log.d(TAG, String.format("onDeleteItem. Status: successful. Sequence id: %s. Message: Delete was successful.", sequenceId));
+                                        Log.d(TAG, "onDeleteItem. Status: successful. Sequence id: %s. Message: Delete was successful.", sequenceId);
                                         long deleteSequenceSize = sequence.getLocalDetails().getDiskSize();
                                         diskSize -= deleteSequenceSize;
                                         refresh();
                                         EventBus.post(new SequencesChangedEvent(false, true, diskSize));
                                     },
                                     //onError
-                                    throwable -> Log.d(TAG, String.format("onDeleteItem. Status: error. Sequence id: %s. Message: %s.", sequenceId,
-                                            throwable.getLocalizedMessage()))
+                                    throwable -> Log.d(TAG, "onDeleteItem. Status: error. Sequence id: %s. Message: %s.", sequenceId,
+                                            throwable.getLocalizedMessage())
                             ));
         }
 
@@ -675,13 +675,13 @@ public class LocalSequenceFragment extends KVBaseFragment implements GenericList
                     .subscribeOn(Schedulers.io())
                     .subscribeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
-                        Log.d(TAG, String.format("onBindViewHolder tap. Status: dispose. Id: %s. Message: Cleaning resources.", sequenceId));
+                        Log.d(TAG, "onBindViewHolder tap. Status: dispose. Id: %s. Message: Cleaning resources.", sequenceId);
                         hideLoadingIndicator();
                     })
                     .subscribe(
                             //onSuccess
                             item -> {
-                                Log.d(TAG, String.format("onBindViewHolder tap. Status: success. Id: %s. Message: Sequence loaded successful.", sequenceId));
+                                Log.d(TAG, "onBindViewHolder tap. Status: success. Id: %s. Message: Sequence loaded successful.", sequenceId);
                                 Context context = getContext();
                                 if (context != null) {
                                     Intent intent = new Intent(getContext(), PlayerActivity.class);
@@ -691,12 +691,12 @@ public class LocalSequenceFragment extends KVBaseFragment implements GenericList
                             },
                             //onError
                             throwable -> {
-                                Log.d(TAG, String.format("onBindViewHolder tap. Status: error. Id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage()));
+                                Log.d(TAG, "onBindViewHolder tap. Status: error. Id: %s. Message: %s.", sequenceId, throwable.getLocalizedMessage());
                                 Toast.makeText(getContext(), R.string.something_wrong_try_again, Toast.LENGTH_SHORT).show();
                             },
                             //onComplete
                             () -> {
-                                Log.d(TAG, String.format("onBindViewHolder tap. Status: complete. Id: %s. Message: Sequence not found.", sequenceId));
+                                Log.d(TAG, "onBindViewHolder tap. Status: complete. Id: %s. Message: Sequence not found.", sequenceId);
                                 Toast.makeText(getContext(), R.string.something_wrong_try_again, Toast.LENGTH_SHORT).show();
                             }
                     ));
@@ -68,19 +68,19 @@ public class SimpleProfileFragment extends ProfileFragment {
 
             @Override
             public void requestFailed(int status, UserData details) {
-                Log.d(TAG, String.format("requestUserDetails. Status: error. Status code: %s. User data: %s. Message: Request details failed.", status, details));
+                Log.d(TAG, "requestUserDetails. Status: error. Status code: %s. User data: %s. Message: Request details failed.", status, details);
                 activity.showSnackBar(getString(R.string.failed_server_login), Snackbar.LENGTH_LONG);
                 Log.d(TAG, "requestUserDetails: " + " status - > " + status + " details - > " + details);
             }
 
             @Override
             public void requestFinished(int status, final UserData userData) {
-                Log.d(TAG, String.format("requestUserDetails. Status: success. Status code: %s. User data: %s. Message: Request details successful.", status, userData));
+                Log.d(TAG, "requestUserDetails. Status: success. Status code: %s. User data: %s. Message: Request details successful.", status, userData);
                 displayCachedStats(user -> {
                             Log.d(TAG, "requestDetails. Status: complete. Message: User found.");
                             displayGamificationDetails(user);
                         },
-                        throwable -> Log.d(TAG, String.format("requestDetails. Status: error. Message: %s", throwable.getMessage())),
+                        throwable -> Log.d(TAG, "requestDetails. Status: error. Message: %s", throwable.getMessage()),
                         () -> Log.d(TAG, "requestDetails. Status: complete. Message: User not found.")
                 );
             }
@@ -112,18 +112,18 @@ public class UserProfileFragment extends SimpleProfileFragment {
 
             @Override
             public void requestFailed(int status, UserData details) {
-                Log.d(TAG, String.format("requestDetails. Status: error. Status code: %s. User data: %s. Message: Request details failed.", status, details));
+                Log.d(TAG, "requestDetails. Status: error. Status code: %s. User data: %s. Message: Request details failed.", status, details);
                 activity.showSnackBar(getString(R.string.failed_server_login), Snackbar.LENGTH_LONG);
             }
 
             @Override
             public void requestFinished(int status, final UserData userData) {
-                Log.d(TAG, String.format("requestDetails. Status: success. Status code: %s. User data: %s. Message: Request details successful.", status, userData));
+                Log.d(TAG, "requestDetails. Status: success. Status code: %s. User data: %s. Message: Request details successful.", status, userData);
                 displayCachedStats(user -> {
                             Log.d(TAG, "requestDetails. Status: complete. Message: User found.");
                             displayGamificationDetails(user);
                         },
-                        throwable -> Log.d(TAG, String.format("requestDetails. Status: error. Message: %s", throwable.getMessage())),
+                        throwable -> Log.d(TAG, "requestDetails. Status: error. Message: %s", throwable.getMessage()),
                         () -> Log.d(TAG, "requestDetails. Status: complete. Message: User not found.")
                 );
             }
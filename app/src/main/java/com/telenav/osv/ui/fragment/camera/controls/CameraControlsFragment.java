@@ -478,7 +478,7 @@ public class CameraControlsFragment extends KVBaseFragment implements ObdContrac
      */
     private void observeOnObdDetailsErrors() {
         obdViewModel.getObdErrorObservable().observe(this, errorId -> {
-            Log.d(TAG, String.format("observeOnObdDetailsErrors. Status: error. Message: Error id passed: %s.", errorId));
+            Log.d(TAG, "observeOnObdDetailsErrors. Status: error. Message: Error id passed: %s.", errorId);
             @StringRes int messageRes;
             switch (errorId) {
                 case CameraObdContract.CameraObdErrors.RECORDING_SEQUENCE_NOT_FOUND:
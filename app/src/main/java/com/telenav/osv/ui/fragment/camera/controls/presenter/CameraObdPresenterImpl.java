@@ -112,7 +112,7 @@ public class CameraObdPresenterImpl implements CameraObdPresenter, ObdManager.Ob
     public void startObdConnection() {
         int obdType = appPrefs.getIntPreference(PreferenceTypes.K_OBD_TYPE, ObdManager.ObdTypes.NOT_SET);
         boolean obdSetup = obdManager.setupObd(obdType);
-        Log.d(TAG, String.format("Obd setup. Success status: %s. Type: %s", obdSetup, obdType));
+        Log.d(TAG, "Obd setup. Success status: %s. Type: %s", obdSetup, obdType);
         if (obdSetup) {
             obdManager.startCollecting();
         }
@@ -146,7 +146,7 @@ public class CameraObdPresenterImpl implements CameraObdPresenter, ObdManager.Ob
                                     view.openObdDetails(bundle);
                                 },
                                 throwable -> {
-                                    Log.d(TAG, String.format("processObdDetails. Status: error. Message: %s", throwable.getLocalizedMessage()));
+                                    Log.d(TAG, "processObdDetails. Status: error. Message: %s", throwable.getLocalizedMessage());
                                     // the unknown error is passed since this case is extremely unlikely to happen.
                                     view.displayObdErrors(CameraObdContract.CameraObdErrors.UNKOWN_ERROR);
                                 },
@@ -206,7 +206,7 @@ public class CameraObdPresenterImpl implements CameraObdPresenter, ObdManager.Ob
     public void onSpeedObtained(SpeedData speed) {
         Log.d(TAG, "onObdSpeedObtain");
         uiHandler.post(() -> {
-            Log.d(TAG, String.format("onSpeedObtained: %s", speed.getSpeed()));
+            Log.d(TAG, "onSpeedObtained: %s", speed.getSpeed());
             if (speed.getSpeed() != -1) {
                 String[] speedArray = FormatUtils.fromDistanceFromMetersToUnit(
                         !appPrefs.getBooleanPreference(PreferenceTypes.K_DISTANCE_UNIT_METRIC),
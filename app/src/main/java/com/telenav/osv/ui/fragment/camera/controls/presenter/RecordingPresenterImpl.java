@@ -186,7 +186,7 @@ public class RecordingPresenterImpl implements RecordingContract.CameraControlsP
         locationAccuracyCompositeDisposable.add(recorder.getAccuracyType()
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(accuracyType -> {
-                    Log.d(TAG, String.format("onLocationAccuracyChanged: %s", accuracyType));
+                    Log.d(TAG, "onLocationAccuracyChanged: %s", accuracyType);
                     view.onLocationAccuracyChanged(accuracyType);
                 }));
     }
@@ -219,7 +219,7 @@ public class RecordingPresenterImpl implements RecordingContract.CameraControlsP
                             view.onSavedImagesChanged(imageSavedEvent.getFrameCount());
                             score.onPictureTaken(imageSavedEvent.getImageLocation());
                         },
-                        throwable -> Log.d(TAG, String.format("observeOnImageCaptureEvents. Status: error. Message: %s", throwable.getLocalizedMessage()))
+                        throwable -> Log.d(TAG, "observeOnImageCaptureEvents. Status: error. Message: %s", throwable.getLocalizedMessage())
                 ));
     }
 
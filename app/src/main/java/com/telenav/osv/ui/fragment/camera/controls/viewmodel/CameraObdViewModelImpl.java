@@ -145,7 +145,7 @@ public class CameraObdViewModelImpl extends AndroidViewModel implements CameraOb
                 }
                 break;
             default:
-                Log.d(TAG, String.format("Handle obd state. State not handled: %s", obdState));
+                Log.d(TAG, "Handle obd state. State not handled: %s", obdState);
                 return;
         }
         obdStateObservable.setValue(imageViewResId);
@@ -192,7 +192,7 @@ public class CameraObdViewModelImpl extends AndroidViewModel implements CameraOb
                 obdTooltipObservable.setValue(new TooltipStyleEvent(getApplication().getString(R.string.recording_info_obd_connecting), R.style.tooltipStyleDefault));
                 break;
             default:
-                Log.d(TAG, String.format("Not supported. State: %s", obdSate));
+                Log.d(TAG, "Not supported. State: %s", obdSate);
                 break;
         }
     }
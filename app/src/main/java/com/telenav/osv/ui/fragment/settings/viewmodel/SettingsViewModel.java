@@ -288,8 +288,8 @@ public class SettingsViewModel extends SettingsBaseViewModel {
     private boolean handleRemovableStoragePreferenceChange(boolean isRemovableStorageEnable) {
         Context context = getApplication().getApplicationContext();
         if (uploadManager.isInProgress()) {
-            Log.d(TAG, String.format("handleRemovableStoragePreferenceChange. Status: not allowed. Message: Not allowed to switch while uploading. Value: %s",
-                    isRemovableStorageEnable));
+            Log.d(TAG, "handleRemovableStoragePreferenceChange. Status: not allowed. Message: Not allowed to switch while uploading. Value: %s",
+                    isRemovableStorageEnable);
             Toast.makeText(context, context.getString(R.string.settings_storage_not_allowed_while_upload), Toast.LENGTH_SHORT)
                     .show();
             return false;
@@ -297,7 +297,7 @@ public class SettingsViewModel extends SettingsBaseViewModel {
         if (isRemovableStorageEnable) {
             Utils.generateOSVFolder(context);
         }
-        Log.d(TAG, String.format("handleRemovableStoragePreferenceChange. Status: success. Message:Set external storage: %s", isRemovableStorageEnable));
+        Log.d(TAG, "handleRemovableStoragePreferenceChange. Status: success. Message:Set external storage: %s", isRemovableStorageEnable);
         return true;
     }
 
@@ -45,6 +45,7 @@ import io.reactivex.Flowable;
 import io.reactivex.Scheduler;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
+import okhttp3.HttpUrl;
 
 /**
  * Concrete implementation of {@link ServiceUpload} general interface which will handle all upload related functionality. This will have both functionality of a bindable and
@@ -76,6 +77,11 @@ public final class ServiceUploadImpl extends Service implements ServiceUpload, L
 
     private FactoryServerEndpointUrl urlFactory;
 
+    /**
+     * The host of the server endpoint used by {@link #api}.
+     */
+    private String serverHost;
+
     private KVApplication kvApplication;
 
     private SequenceLocalDataSource sequenceLocalDataSource;
@@ -114,7 +120,9 @@ public final class ServiceUploadImpl extends Service implements ServiceUpload, L
         kvApplication = (KVApplication) getApplication();
         internetEventBus = new SimpleEventBus();
         urlFactory = Injection.provideNetworkFactoryUrl(kvApplication.getAppPrefs());
-        api = Injection.provideUploadKvApi(urlFactory.getServerEndpoint(), internetEventBus, kvApplication.getAppPrefs(), getApplicationContext(), this);
+        String serverEndpoint = urlFactory.getServerEndpoint();
+        api = Injection.provideUploadKvApi(serverEndpoint, internetEventBus, kvApplication.getAppPrefs(), getApplicationContext(), this);
+        serverHost = HttpUrl.get(serverEndpoint).host();
         Context context = getApplicationContext();
         frameLocalDataSource = Injection.provideFrameLocalDataSource(context);
         videoLocalDataSource = Injection.provideVideoDataSource(context);
@@ -258,6 +266,7 @@ public final class ServiceUploadImpl extends Service implements ServiceUpload, L
                             sequenceLocalDataSource,
                             accessToken,
                             api,
+                            serverHost,
                             frameLocalDataSource,
                             videoLocalDataSource,
                             uploadProgress -> {
@@ -82,7 +82,7 @@ public class UploadManagerImpl implements UploadManager {
     public void onViewCreated() {
         if (!isBoundUploadHandler()) {
             boolean bindService = settingsUpload.getContext().bindService(uploadIntent, connection, 0);
-            Log.d(TAG, String.format("onViewCreated. Status: %s. Message: Attempting to bind the upload service.", bindService));
+            Log.d(TAG, "onViewCreated. Status: %s. Message: Attempting to bind the upload service.", bindService);
         }
     }
 
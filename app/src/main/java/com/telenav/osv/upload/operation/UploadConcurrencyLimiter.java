@@ -0,0 +1,278 @@
+package com.telenav.osv.upload.operation;
+
+import androidx.annotation.NonNull;
+
+import com.telenav.osv.utils.Log;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.CompletableEmitter;
+import io.reactivex.Scheduler;
+
+/**
+ * Limiter for the number of upload operations which run at the same time, the limit is adjusted to the measured throughput.
+ * <p> The throughput is measured in windows of at least {@link #WINDOW_DURATION_MS} and {@link #WINDOW_MIN_OPERATIONS} completed operations. After each window the limit is
+ * moved by one in the current direction while the throughput improves, reversed when the throughput drops and kept when the throughput is stable. Any failed operation halves
+ * the limit, since failures on a poor link are made worse by more parallel requests.
+ * <p> Usage:
+ * <ul>
+ * <li>{@link #run(Completable)} wraps the operation, which is subscribed when a permit is available. The permit is returned when the operation terminates or is disposed.</li>
+ * <li>{@link #onBytesUploaded(long)} for each uploaded payload.</li>
+ * </ul>
+ * The permit can also be handled manually by {@link #acquire()} before the operation starts and {@link #release(boolean)} when the operation finished.
+ */
+public class UploadConcurrencyLimiter {
+
+    /**
+     * The minimum duration of a throughput window.
+     */
+    static final long WINDOW_DURATION_MS = 2000;
+
+    /**
+     * The minimum number of completed operations in a throughput window.
+     */
+    static final int WINDOW_MIN_OPERATIONS = 4;
+
+    /**
+     * The relative throughput change under which the throughput is considered stable.
+     */
+    private static final double THROUGHPUT_STABLE_RATIO = 0.05;
+
+    private static final String TAG = UploadConcurrencyLimiter.class.getSimpleName();
+
+    /**
+     * The operations waiting for a permit, in order.
+     */
+    private final ArrayDeque<Permit> waiting = new ArrayDeque<>();
+
+    /**
+     * The scheduler used as time source.
+     */
+    private final Scheduler scheduler;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private int limit;
+
+    private int running;
+
+    /**
+     * The direction in which the limit is moved after a window, either {@code 1} or {@code -1}.
+     */
+    private int direction = 1;
+
+    private long windowStart;
+
+    private long windowBytes;
+
+    private int windowOperations;
+
+    /**
+     * The throughput in bytes per second of the previous window, {@code 0} if there is none.
+     */
+    private double previousThroughput;
+
+    /**
+     * Default constructor for the current class.
+     * @param initialLimit the initial number of concurrent operations.
+     * @param minLimit the minimum number of concurrent operations.
+     * @param maxLimit the maximum number of concurrent operations.
+     * @param scheduler the scheduler used as time source.
+     */
+    public UploadConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, @NonNull Scheduler scheduler) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.scheduler = scheduler;
+        this.windowStart = now();
+    }
+
+    /**
+     * @param operation the operation which requires a permit.
+     * @return {@code Completable} which subscribes to the operation when a permit is available. The permit is returned when the operation completes, fails or is disposed,
+     * a disposed operation does not change the limit.
+     */
+    public Completable run(@NonNull Completable operation) {
+        return Completable.defer(() -> {
+            Permit permit = new Permit();
+            return acquire(permit)
+                    .andThen(operation)
+                    .doOnComplete(() -> permit.success = Boolean.TRUE)
+                    .doOnError(throwable -> permit.success = Boolean.FALSE)
+                    .doFinally(() -> release(permit));
+        });
+    }
+
+    /**
+     * @return {@code Completable} which completes when a permit is available for the operation. The permit must be returned by {@link #release(boolean)}.
+     */
+    public Completable acquire() {
+        return Completable.defer(() -> acquire(new Permit()));
+    }
+
+    /**
+     * Returns the permit of a finished operation.
+     * @param success {@code true} if the operation was successful, {@code false} otherwise.
+     */
+    public void release(boolean success) {
+        synchronized (this) {
+            running--;
+            if (success) {
+                windowOperations++;
+                updateWindow();
+            } else {
+                int newLimit = Math.max(minLimit, limit / 2);
+                Log.d(TAG, "release. Status: failure. Message: Limit decreased from %s to %s.", limit, newLimit);
+                limit = newLimit;
+                direction = 1;
+                resetWindow(0);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Returns the permit taken by {@link #run(Completable)}, if it was granted.
+     */
+    private void release(Permit permit) {
+        Boolean success;
+        synchronized (this) {
+            if (!permit.granted) {
+                return;
+            }
+            permit.granted = false;
+            success = permit.success;
+            if (success == null) {
+                running--;
+            }
+        }
+        if (success == null) {
+            Log.d(TAG, "release. Status: disposed. Message: Permit returned without changing the limit.");
+            drain();
+        } else {
+            release(success);
+        }
+    }
+
+    /**
+     * Adds the uploaded bytes to the current throughput window.
+     */
+    public synchronized void onBytesUploaded(long bytes) {
+        windowBytes += bytes;
+    }
+
+    /**
+     * @return the current number of concurrent operations allowed.
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    private Completable acquire(Permit permit) {
+        return Completable.create(emitter -> {
+            synchronized (this) {
+                permit.emitter = emitter;
+                if (running < limit) {
+                    running++;
+                    permit.granted = true;
+                } else {
+                    waiting.add(permit);
+                    emitter.setCancellable(() -> cancel(permit));
+                    return;
+                }
+            }
+            emitter.onComplete();
+        });
+    }
+
+    /**
+     * Closes the current window if it is complete and adjusts the limit by the throughput.
+     */
+    private void updateWindow() {
+        long duration = now() - windowStart;
+        if (duration < WINDOW_DURATION_MS || windowOperations < WINDOW_MIN_OPERATIONS) {
+            return;
+        }
+        double throughput = windowBytes * 1000d / duration;
+        int oldLimit = limit;
+        if (previousThroughput == 0 || throughput > previousThroughput * (1 + THROUGHPUT_STABLE_RATIO)) {
+            moveLimit();
+        } else if (throughput < previousThroughput * (1 - THROUGHPUT_STABLE_RATIO)) {
+            direction = -direction;
+            moveLimit();
+        }
+        Log.d(TAG, "updateWindow. Status: success. Throughput: %.0f B/s. Previous throughput: %.0f B/s. Limit: %s -> %s.",
+                throughput,
+                previousThroughput,
+                oldLimit,
+                limit);
+        resetWindow(throughput);
+    }
+
+    private void moveLimit() {
+        int newLimit = limit + direction;
+        if (newLimit < minLimit || newLimit > maxLimit) {
+            direction = -direction;
+            return;
+        }
+        limit = newLimit;
+    }
+
+    private void resetWindow(double throughput) {
+        previousThroughput = throughput;
+        windowStart = now();
+        windowBytes = 0;
+        windowOperations = 0;
+    }
+
+    /**
+     * Starts the waiting operations while there are permits available.
+     */
+    private void drain() {
+        while (true) {
+            Permit permit;
+            synchronized (this) {
+                if (running >= limit || waiting.isEmpty()) {
+                    return;
+                }
+                permit = waiting.poll();
+                if (permit.emitter.isDisposed()) {
+                    continue;
+                }
+                running++;
+                permit.granted = true;
+            }
+            permit.emitter.onComplete();
+        }
+    }
+
+    private void cancel(Permit permit) {
+        synchronized (this) {
+            waiting.remove(permit);
+        }
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The permit of a single operation. The {@link #granted} flag is changed only under the lock of the limiter, therefore a permit granted while the operation is disposed is
+     * still returned by {@link #release(Permit)}.
+     */
+    private static class Permit {
+
+        private CompletableEmitter emitter;
+
+        private boolean granted;
+
+        /**
+         * The outcome of the operation, {@code null} while it runs or if it was disposed.
+         */
+        private volatile Boolean success;
+    }
+}
@@ -60,6 +60,12 @@ public abstract class UploadOperationBase {
      */
     protected static final int MERGE_DELAY_ERROR_CONCURRENT_NO = 5;
 
+    /**
+     * Specify the maximum number of concurrent operations when the concurrency is adjusted to the measured throughput.
+     * @see UploadConcurrencyLimiter
+     */
+    protected static final int MERGE_DELAY_ERROR_CONCURRENT_MAX_NO = 8;
+
     /**
      * The identifier for the current class in logs.
      */
@@ -125,7 +131,7 @@ public abstract class UploadOperationBase {
                 return Flowable.timer(DEFAULT_NO_INTERNET_DELAY_IN_SECONDS, TimeUnit.SECONDS);
             }
             if (atomicInteger.getAndIncrement() != RETRIES_LIMIT) {
-                Log.d(TAG, String.format("handleDefaultRetryFlowableWithTimer. Status: error retry. Counter: %s.", atomicInteger.get()));
+                Log.d(TAG, "handleDefaultRetryFlowableWithTimer. Status: error retry. Counter: %s.", atomicInteger.get());
                 return Flowable.timer(atomicInteger.get(), TimeUnit.SECONDS);
             }
 
@@ -148,7 +154,7 @@ public abstract class UploadOperationBase {
                 ResponseNetworkBase status = new Gson().fromJson(errorBodyJson, ResponseNetworkBase.class);
                 return handleResponse(status);
             } catch (IOException e) {
-                Log.d(TAG, String.format("error exception. Status: error. Message: %s.", e.getLocalizedMessage()));
+                Log.d(TAG, "error exception. Status: error. Message: %s.", e.getLocalizedMessage());
                 return false;
             }
         }
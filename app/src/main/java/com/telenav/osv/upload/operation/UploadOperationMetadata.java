@@ -17,6 +17,8 @@ import com.telenav.osv.network.KVApi;
 import com.telenav.osv.network.model.generic.ResponseNetworkBase;
 import com.telenav.osv.network.model.metadata.ResponseModelUploadMetadata;
 import com.telenav.osv.network.util.NetworkRequestConverter;
+import com.telenav.osv.recorder.metadata.MetadataGzipRecovery;
+import com.telenav.osv.recorder.metadata.binary.MetadataBinaryConverter;
 import com.telenav.osv.upload.progress.model.UploadUpdateDisk;
 import com.telenav.osv.upload.progress.model.UploadUpdateProgress;
 import com.telenav.osv.utils.Log;
@@ -158,7 +160,7 @@ public class UploadOperationMetadata extends UploadOperationBase {
      */
     public Completable getStream() {
         return Completable.defer(this::uploadMetadataStream)
-                .doOnError(throwable -> Log.d(TAG, String.format("getStream. Status: error. Message: %s.", throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getStream. Status: error. Message: %s.", throwable.getLocalizedMessage()));
     }
 
     @Override
@@ -247,19 +249,33 @@ public class UploadOperationMetadata extends UploadOperationBase {
             long metadataSize = Utils.fileSize(metadataFile);
             boolean metadataFileRemove = metadataFile.delete();
             Log.d(TAG,
-                    String.format("removeMetadataFileIfExists. Status : %s. Message: Remove physical metadata file from the device. Size: %s.", metadataFileRemove, metadataSize));
+                    "removeMetadataFileIfExists. Status : %s. Message: Remove physical metadata file from the device. Size: %s.", metadataFileRemove, metadataSize);
             updateEventBus.post(new UploadUpdateDisk(metadataSize));
             updateEventBus.post(new UploadUpdateProgress(metadataSize, metadataSize));
         }
     }
 
     /**
-     * Loads either the zip or the txt file of the metadata into memory in case it is not already
+     * Loads either the zip or the txt file of the metadata into memory in case it is not already.
+     * <p> A sequence recorded in the binary metadata format is converted to the zip file first, by using {@link MetadataBinaryConverter}, while a
+     * partial compressed file of an unfinished recording is recovered by using {@link MetadataGzipRecovery}.</p>
      */
     private void loadMetadataFileIntoMemory() {
         if (metadataFile != null && metadataFile.exists()) {
             return;
         }
+        KVFile convertedMetadataFile = MetadataBinaryConverter.INSTANCE.convertToTrackGzip(sequenceFolder);
+        if (convertedMetadataFile != null) {
+            Log.d(TAG, "loadMetadataFileIntoMemory. Status: converted binary metadata. Message: Using the generated zip file.");
+            metadataFile = convertedMetadataFile;
+            return;
+        }
+        KVFile recoveredMetadataFile = MetadataGzipRecovery.INSTANCE.recover(sequenceFolder);
+        if (recoveredMetadataFile != null) {
+            Log.d(TAG, "loadMetadataFileIntoMemory. Status: recovered partial metadata. Message: Using the recovered zip file.");
+            metadataFile = recoveredMetadataFile;
+            return;
+        }
         metadataFile = new KVFile(sequenceFolder, METADATA_NAME_ZIP);
         if (!metadataFile.exists()) {
             metadataFile = new KVFile(sequenceFolder, METADATA_NAME_TXT_FILE);
@@ -319,7 +335,7 @@ public class UploadOperationMetadata extends UploadOperationBase {
                 obj.put(SCORE_HISTORY_NAME_OBD_PHOTO_COUNT, String.valueOf(history.getObdPhotoCount()));
             } catch (JSONException e) {
                 e.printStackTrace();
-                Log.d(TAG, String.format("getEncodedScoreHistory. Status: error. Message: %s.", e.getLocalizedMessage()));
+                Log.d(TAG, "getEncodedScoreHistory. Status: error. Message: %s.", e.getLocalizedMessage());
             }
             array.put(obj);
         }
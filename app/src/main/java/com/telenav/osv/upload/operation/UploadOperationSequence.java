@@ -3,6 +3,9 @@ package com.telenav.osv.upload.operation;
 import androidx.annotation.NonNull;
 import androidx.core.util.Consumer;
 
+import com.facebook.network.connectionclass.ConnectionClassManager;
+import com.facebook.network.connectionclass.ConnectionQuality;
+
 import com.telenav.osv.common.event.SimpleEventBus;
 import com.telenav.osv.data.frame.datasource.local.FrameLocalDataSource;
 import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
@@ -41,6 +44,11 @@ public class UploadOperationSequence extends UploadOperationBase {
      */
     private static final String TAG = UploadOperationSequence.class.getSimpleName();
 
+    /**
+     * The number of frame identifiers loaded by a persistence query while uploading the frames.
+     */
+    private static final int FRAME_IDS_PAGE_SIZE = 100;
+
     /**
      * The synchronization objects used in updates to provide thread safe operations.
      */
@@ -89,6 +97,16 @@ public class UploadOperationSequence extends UploadOperationBase {
      */
     private Consumer<UploadUpdateProgress> updateConsumer;
 
+    /**
+     * The limiter for the concurrent frame uploads, available only while the frames are uploaded.
+     */
+    private volatile UploadConcurrencyLimiter frameUploadLimiter;
+
+    /**
+     * The host of the server to which the sequence is uploaded.
+     */
+    private String serverHost;
+
     /**
      * Default constructor for the current class.
      */
@@ -96,28 +114,36 @@ public class UploadOperationSequence extends UploadOperationBase {
                                    @NonNull SequenceLocalDataSource sequenceLocalDataSource,
                                    @NonNull String accessToken,
                                    @NonNull KVApi api,
+                                   @NonNull String serverHost,
                                    @NonNull FrameLocalDataSource frameLocalDataSource,
                                    @NonNull VideoLocalDataSource videoLocalDataSource,
                                    @NonNull Consumer<UploadUpdateProgress> updateConsumer) {
         super(accessToken, api, new SimpleEventBus());
         this.sequenceId = sequenceId;
+        this.serverHost = serverHost;
         this.frameLocalDataSource = frameLocalDataSource;
         this.videoLocalDataSource = videoLocalDataSource;
         this.sequenceLocalDataSource = sequenceLocalDataSource;
         this.updateConsumer = updateConsumer;
         compositeDisposableUpdate = new CompositeDisposable();
 
+        //the disk updates waiting for the consumer are summed, since each one holds the size of a removed file
         compositeDisposableUpdate.add(updateEventBus
-                .filteredObservable(UploadUpdateDisk.class)
-                .observeOn(Schedulers.io())
+                .conflatedObservable(UploadUpdateDisk.class,
+                        update -> UploadUpdateDisk.class,
+                        (pendingUpdate, update) -> new UploadUpdateDisk(pendingUpdate.getTotalUnit() + update.getTotalUnit()),
+                        Schedulers.io())
                 .subscribe(this::processUploadUpdateDisk,
-                        throwable -> Log.d(TAG, String.format("constructor updates disk. Error: %s", throwable.getLocalizedMessage()))));
+                        throwable -> Log.d(TAG, "constructor updates disk. Error: %s", throwable.getLocalizedMessage())));
 
+        //the progress of a child is processed based on its state, therefore only its last post waiting for the consumer is kept
         compositeDisposableUpdate.add(updateEventBus
-                .filteredObservable(UploadUpdateProgress.class)
-                .observeOn(Schedulers.io())
+                .conflatedObservable(UploadUpdateProgress.class,
+                        update -> update,
+                        (pendingUpdate, update) -> update,
+                        Schedulers.io())
                 .subscribe(this::processUploadUpdateProgress,
-                        throwable -> Log.d(TAG, String.format("constructor updates progress. Error: %s", throwable.getLocalizedMessage()))));
+                        throwable -> Log.d(TAG, "constructor updates progress. Error: %s", throwable.getLocalizedMessage())));
     }
 
     /**
@@ -150,7 +176,7 @@ public class UploadOperationSequence extends UploadOperationBase {
                                 .andThen(Completable.defer(() -> processSequenceUploadCompression(sequence.getCompressionDetails() instanceof SequenceDetailsCompressionVideo)))
                                 .andThen(Completable.defer(this::processSequenceUploadComplete)))
                 .retryWhen(this::handleDefaultRetryFlowableWithTimer)
-                .doOnError(throwable -> Log.d(TAG, String.format("getStream. Status: error. Message: %s.", throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getStream. Status: error. Message: %s.", throwable.getLocalizedMessage()));
     }
 
     @Override
@@ -170,15 +196,19 @@ public class UploadOperationSequence extends UploadOperationBase {
             long newCurrentDiskSize = oldSize - uploadUpdateDisk.getTotalUnit();
             boolean updateDiskSize = sequenceLocalDataSource.updateDiskSize(sequenceId, newCurrentDiskSize);
             Log.d(TAG,
-                    String.format("updateDiskSize. Status: %s. Sequence id: %s. Old disk size: %s. New disk Size: %s.",
-                            updateDiskSize,
-                            sequenceId,
-                            oldSize,
-                            newCurrentDiskSize));
+                    "updateDiskSize. Status: %s. Sequence id: %s. Old disk size: %s. New disk Size: %s.",
+                    updateDiskSize,
+                    sequenceId,
+                    oldSize,
+                    newCurrentDiskSize);
             if (updateDiskSize) {
                 localSequence.getLocalDetails().setDiskSize(newCurrentDiskSize);
             }
         }
+        UploadConcurrencyLimiter limiter = frameUploadLimiter;
+        if (limiter != null) {
+            limiter.onBytesUploaded(uploadUpdateDisk.getTotalUnit());
+        }
     }
 
     /**
@@ -210,6 +240,7 @@ public class UploadOperationSequence extends UploadOperationBase {
                     new UploadOperationVideo(
                             accessToken,
                             api,
+                            serverHost,
                             videoLocalDataSource,
                             videoId,
                             localSequence.getDetails().getOnlineId(),
@@ -222,25 +253,46 @@ public class UploadOperationSequence extends UploadOperationBase {
     }
 
     /**
-     * @param frameIds the identifiers for all frames which will be uploaded.
-     * @return {@code collection} with all the completable returned by creation and call of {@link UploadOperationImage#getStream()} correlated to each frame identifier given.
+     * @param limiter the limiter for the concurrent uploads which is acquired before the upload starts and released after it finishes or is disposed.
+     * @return {@code Completable} which uploads all the frames of the sequence. The frame identifiers are loaded lazily in pages, therefore an {@link UploadOperationImage} is
+     * created only when the limiter allows its upload to start.
      */
-    private Flowable<Completable> setUploadFrameStreamCollection(List<String> frameIds) {
-        List<Completable> uploadCompressionCompletables = new ArrayList<>();
-        for (String frameId : frameIds) {
-            uploadCompressionCompletables.add(
-                    new UploadOperationImage(
-                            accessToken,
-                            api,
-                            frameLocalDataSource,
-                            frameId,
-                            localSequence.getDetails().getOnlineId(),
-                            updateEventBus,
-                            frameSuccessResponseAction(),
-                            null)
-                            .getStream());
+    private Completable setUploadFrameStreamCollection(UploadConcurrencyLimiter limiter) {
+        return frameLocalDataSource
+                .getFrameIdsBySequenceIdLazy(sequenceId, FRAME_IDS_PAGE_SIZE)
+                .flatMapCompletable(frameId -> limiter
+                                .run(Completable.defer(() -> new UploadOperationImage(
+                                        accessToken,
+                                        api,
+                                        frameLocalDataSource,
+                                        frameId,
+                                        localSequence.getDetails().getOnlineId(),
+                                        updateEventBus,
+                                        frameSuccessResponseAction(),
+                                        null)
+                                        .getStream())),
+                        true,
+                        MERGE_DELAY_ERROR_CONCURRENT_MAX_NO);
+    }
+
+    /**
+     * @return the initial number of concurrent frame uploads based on the bandwidth quality measured by the {@code ConnectionClassManager}, or
+     * {@link #MERGE_DELAY_ERROR_CONCURRENT_NO} when the quality is unknown.
+     */
+    private int getInitialFrameUploadConcurrency() {
+        ConnectionQuality connectionQuality = ConnectionClassManager.getInstance().getCurrentBandwidthQuality();
+        switch (connectionQuality) {
+            case POOR:
+                return MERGE_DELAY_ERROR_NO_SERIAL;
+            case MODERATE:
+                return MERGE_DELAY_ERROR_CONCURRENT_NO / 2;
+            case EXCELLENT:
+                return MERGE_DELAY_ERROR_CONCURRENT_MAX_NO;
+            case GOOD:
+            case UNKNOWN:
+            default:
+                return MERGE_DELAY_ERROR_CONCURRENT_NO;
         }
-        return Flowable.fromIterable(uploadCompressionCompletables);
     }
 
     /**
@@ -253,9 +305,9 @@ public class UploadOperationSequence extends UploadOperationBase {
                 int newLocationsCount = compressionBase.getLocationsCount() - 1;
                 boolean updateSizeCount = sequenceLocalDataSource.updateCompressionSizeInfo(localSequence.getID(), newLocationsCount, 0);
                 Log.d(TAG,
-                        String.format("frameSuccessResponseAction. Status: %s. Message: Updating compression size info. Frame count: %s",
-                                updateSizeCount,
-                                newLocationsCount));
+                        "frameSuccessResponseAction. Status: %s. Message: Updating compression size info. Frame count: %s",
+                        updateSizeCount,
+                        newLocationsCount);
                 compressionBase.setLocationsCount(newLocationsCount);
             }
         };
@@ -271,10 +323,10 @@ public class UploadOperationSequence extends UploadOperationBase {
             int newVideoCount = compressionBase.getLength() - 1;
             boolean updateSizeCount = sequenceLocalDataSource.updateCompressionSizeInfo(localSequence.getID(), newLocationsCount, newVideoCount);
             Log.d(TAG,
-                    String.format("handleVideoSuccessSequenceUpdate. Status: %s. Message: Updating compression size info. Loc count: %s. Video count: %s",
-                            updateSizeCount,
-                            newLocationsCount,
-                            newVideoCount));
+                    "handleVideoSuccessSequenceUpdate. Status: %s. Message: Updating compression size info. Loc count: %s. Video count: %s",
+                    updateSizeCount,
+                    newLocationsCount,
+                    newVideoCount);
             compressionBase.setLength(newVideoCount);
             compressionBase.setLocationsCount(newLocationsCount);
         };
@@ -294,7 +346,7 @@ public class UploadOperationSequence extends UploadOperationBase {
                 this.localSequence.getRewardDetails(),
                 (onlineId) -> {
                     boolean updateOnlineId = sequenceLocalDataSource.updateOnlineId(sequenceId, onlineId);
-                    Log.d(TAG, String.format("processSequenceUploadMetadata. Status: %s. Message: Persisting the sequence online id in the persistence.", updateOnlineId));
+                    Log.d(TAG, "processSequenceUploadMetadata. Status: %s. Message: Persisting the sequence online id in the persistence.", updateOnlineId);
                     localSequence.getDetails().setOnlineId(onlineId);
                 },
                 null)
@@ -323,8 +375,8 @@ public class UploadOperationSequence extends UploadOperationBase {
      * video/frame local data source search by ids based on the given param.
      * </li>
      * <li>
-     * process above ids into a stream by using {@link Completable#mergeDelayError(Iterable)} with the iterable returned by {@link #setUploadVideoStreamCollection(List)} or
-     * {@link #setUploadFrameStreamCollection(List)}.
+     * process above ids into a stream by using {@link Completable#mergeDelayError(Iterable)} with the iterable returned by {@link #setUploadVideoStreamCollection(List)}, or
+     * by {@link #setUploadFrameStreamCollection(UploadConcurrencyLimiter)} for frames which are loaded lazily and uploaded with a concurrency adjusted to the throughput.
      * </li>
      * </ul>
      */
@@ -333,20 +385,25 @@ public class UploadOperationSequence extends UploadOperationBase {
             return videoLocalDataSource
                     .getVideoIdsBySequenceId(sequenceId)
                     .doOnSuccess(frameIds -> Log.d(TAG,
-                            String.format("processSequenceUploadCompression. Status: success. Count: %s. Message: Videos found for sequence.", frameIds.size())))
+                            "processSequenceUploadCompression. Status: success. Count: %s. Message: Videos found for sequence.", frameIds.size()))
                     .flatMapCompletable(videoIds -> Completable
                             .mergeDelayError(setUploadVideoStreamCollection(videoIds), MERGE_DELAY_ERROR_NO_SERIAL)
                             .retryWhen(this::handleDefaultRetryFlowableWithTimer));
         }
 
-        return frameLocalDataSource
-                .getFrameIdsBySequenceId(sequenceId)
-                .doOnSuccess(frameIds -> Log.d(TAG,
-                        String.format("processSequenceUploadCompression. Status: success. Count: %s. Message: Frames found for sequence.", frameIds.size())))
-                .flatMapCompletable(framesIds ->
-                        Completable
-                                .mergeDelayError(setUploadFrameStreamCollection(framesIds), MERGE_DELAY_ERROR_CONCURRENT_NO)
-                                .retryWhen(this::handleDefaultRetryFlowableWithTimer));
+        return Completable
+                .defer(() -> {
+                    UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(
+                            getInitialFrameUploadConcurrency(),
+                            MERGE_DELAY_ERROR_NO_SERIAL,
+                            MERGE_DELAY_ERROR_CONCURRENT_MAX_NO,
+                            Schedulers.io());
+                    Log.d(TAG, "processSequenceUploadCompression. Status: starting. Concurrency: %s. Message: Uploading frames for sequence.", limiter.getLimit());
+                    frameUploadLimiter = limiter;
+                    return setUploadFrameStreamCollection(limiter);
+                })
+                .doFinally(() -> frameUploadLimiter = null)
+                .retryWhen(this::handleDefaultRetryFlowableWithTimer);
     }
 
     /**
@@ -371,20 +428,20 @@ public class UploadOperationSequence extends UploadOperationBase {
         return () -> {
             if (localSequence.getLocalDetails().getDiskSize() != 0) {
                 boolean updateDiskSize = sequenceLocalDataSource.updateDiskSize(sequenceId, 0);
-                Log.d(TAG, String.format("sequenceCompleteSuccessAction. Status: %s. Sequence id: %s. New size: 0", updateDiskSize, localSequence.getID()));
+                Log.d(TAG, "sequenceCompleteSuccessAction. Status: %s. Sequence id: %s. New size: 0", updateDiskSize, localSequence.getID());
                 uploadUpdateProgressSequence.setCurrentUnit(uploadUpdateProgressSequence.getTotalUnit());
             }
             boolean deleteSequenceFromPersistence = sequenceLocalDataSource.deleteSequence(sequenceId);
-            Log.d(TAG, String.format(
+            Log.d(TAG,
                     "sequenceCompleteSuccessAction. Status: %s. Sequence id: %s. Message: Attempting to remove sequence from persistence.",
                     deleteSequenceFromPersistence,
-                    sequenceId));
+                    sequenceId);
             KVFile sequenceFolder = localSequence.getLocalDetails().getFolder();
             if (deleteSequenceFromPersistence && sequenceFolder.exists()) {
                 boolean folderDelete = sequenceFolder.delete();
-                Log.w(TAG, String.format("sequenceCompleteSuccessAction. Status: %s. Attempting to remove the folder for the sequence local id: %s.",
+                Log.w(TAG, "sequenceCompleteSuccessAction. Status: %s. Attempting to remove the folder for the sequence local id: %s.",
                         folderDelete,
-                        sequenceId));
+                        sequenceId);
             }
             uploadUpdateProgressSequence.complete();
         };
@@ -66,7 +66,7 @@ public class UploadOperationSequenceComplete extends UploadOperationBase {
         return uploadCompleteSequenceStream()
                 .flatMapCompletable(response -> handleDefaultResponse(response, handleUploadSequenceCompleteSuccessResponse(), null))
                 .retryWhen(this::handleDefaultRetryFlowableWithTimer)
-                .doOnError(throwable -> Log.d(TAG, String.format("getStream. Status: error. Message: %s.", throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getStream. Status: error. Message: %s.", throwable.getLocalizedMessage()));
     }
 
     @Override
@@ -93,7 +93,7 @@ public class UploadOperationSequenceComplete extends UploadOperationBase {
                 try {
                     actionSuccess.run();
                 } catch (Exception e) {
-                    Log.d(TAG, String.format("handleUploadSequenceCompleteSuccessResponse. Status: error. Message: %s", e.getLocalizedMessage()));
+                    Log.d(TAG, "handleUploadSequenceCompleteSuccessResponse. Status: error. Message: %s", e.getLocalizedMessage());
                     return;
                 }
                 Log.d(TAG, "handleUploadSequenceCompleteSuccessResponse. Status: true. Message: Sequence complete successful.");
@@ -74,7 +74,7 @@ public class UploadOperationTagging extends UploadOperationBase {
     @Override
     public Completable getStream() {
         return Completable.defer(this::uploadTaggingStream)
-                .doOnError(throwable -> Log.d(TAG, String.format("getStream. Status: error. Message: %s.", throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getStream. Status: error. Message: %s.", throwable.getLocalizedMessage()));
     }
 
     private Completable uploadTaggingStream() {
@@ -135,7 +135,7 @@ public class UploadOperationTagging extends UploadOperationBase {
         if (taggingFile.exists()) {
             long taggingSize = Utils.fileSize(taggingFile);
             boolean taggingFileRemove = taggingFile.delete();
-            Log.d(TAG, String.format("removeTaggingFileIfExists. Status : %s. Message: Remove physical tagging file from the device. Size: %s.", taggingFileRemove, taggingSize));
+            Log.d(TAG, "removeTaggingFileIfExists. Status : %s. Message: Remove physical tagging file from the device. Size: %s.", taggingFileRemove, taggingSize);
             updateEventBus.post(new UploadUpdateDisk(taggingSize));
             updateEventBus.post(new UploadUpdateProgress(taggingSize, taggingSize));
         }
@@ -109,7 +109,7 @@ public class UploadOperationImage extends UploadOperationBase {
                 .getFrameWithLocation(frameId)
                 .filter(item -> item != null)
                 .flatMapCompletable(this::uploadImageStream)
-                .doOnError(throwable -> Log.d(TAG, String.format("getStream. Status: error. Frame id: %s. Message: %s.", frameId, throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getStream. Status: error. Frame id: %s. Message: %s.", frameId, throwable.getLocalizedMessage()));
     }
 
     /**
@@ -136,7 +136,7 @@ public class UploadOperationImage extends UploadOperationBase {
             if (imageFile.exists()) {
                 long imageSize = Utils.fileSize(imageFile);
                 boolean imageFileRemove = imageFile.delete();
-                Log.d(TAG, String.format("handleUploadImageSuccessResponse. Status :%s. Message: Attempting remove image from persistence. Size: %s.", imageFileRemove, imageSize));
+                Log.d(TAG, "handleUploadImageSuccessResponse. Status :%s. Message: Attempting remove image from persistence. Size: %s.", imageFileRemove, imageSize);
                 if (imageFileRemove) {
                     //signal updates for disk size
                     updateEventBus.post(new UploadUpdateDisk(imageSize));
@@ -149,7 +149,7 @@ public class UploadOperationImage extends UploadOperationBase {
                         try {
                             actionSuccess.run();
                         } catch (Exception e) {
-                            Log.d(TAG, String.format("handleUploadImageSuccessResponse. Status: error. Message: %s", e.getLocalizedMessage()));
+                            Log.d(TAG, "handleUploadImageSuccessResponse. Status: error. Message: %s", e.getLocalizedMessage());
                         }
                     }
                 }
@@ -4,12 +4,17 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.util.Consumer;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.jakewharton.retrofit2.adapter.rxjava2.HttpException;
+import com.telenav.osv.BuildConfig;
 import com.telenav.osv.common.event.SimpleEventBus;
 import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
 import com.telenav.osv.data.video.datasource.VideoLocalDataSource;
 import com.telenav.osv.data.video.model.Video;
 import com.telenav.osv.item.KVFile;
 import com.telenav.osv.network.KVApi;
+import com.telenav.osv.network.model.generic.ResponseNetworkBase;
 import com.telenav.osv.network.request.ProgressRequestListener;
 import com.telenav.osv.network.util.NetworkRequestConverter;
 import com.telenav.osv.upload.operation.UploadOperationBase;
@@ -18,11 +23,25 @@ import com.telenav.osv.upload.progress.model.UploadUpdateProgress;
 import com.telenav.osv.utils.Log;
 import com.telenav.osv.utils.Utils;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import okhttp3.ResponseBody;
 
 /**
  * The operation which will upload a video file to the network.
  * <p> This will generate a stream via {@link #getStream()} method which is the only public entry point to this operation.
+ * <p> When the chunk upload is enabled, by {@link BuildConfig#VIDEO_CHUNKED_UPLOAD}, a video file larger than {@link #VIDEO_CHUNK_SIZE_IN_BYTES} is uploaded in fixed size
+ * chunks, in order. The chunks and their upload state are kept in memory by a {@link VideoChunkStore}, therefore when the stream is retried after a failure the upload
+ * resumes from the last chunk acknowledged by the server instead of the beginning of the file. If the server does not support the chunk upload the whole file is uploaded
+ * in one request.
  * @author horatiuf
  * @see UploadOperationBase
  * @see #getStream()
@@ -44,6 +63,28 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
      */
     private static final String VIDEO_NAME_MULTI_PART_BODY = "video";
 
+    /**
+     * The size of the ranges in which a video file is uploaded.
+     */
+    static final long VIDEO_CHUNK_SIZE_IN_BYTES = 1024 * 1024;
+
+    /**
+     * The http codes received when the chunk upload is not available on the server.
+     */
+    private static final int HTTP_CODE_NOT_FOUND = 404;
+
+    private static final int HTTP_CODE_METHOD_NOT_ALLOWED = 405;
+
+    /**
+     * The hosts of the servers which rejected a chunk upload, in order for the next videos uploaded to them to be uploaded directly in one request.
+     */
+    private static final Set<String> chunkUploadUnsupportedHosts = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * The chunks of the videos which upload in chunks was started, shared by the operations in order for a new operation for the same video to resume its upload.
+     */
+    private static final VideoChunkStore sharedVideoChunkStore = new VideoChunkStore();
+
     /**
      * The video identifier use to get and process video data before network request.
      */
@@ -80,22 +121,71 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
      */
     private UploadUpdateProgress uploadUpdateProgressVideo;
 
+    /**
+     * Flag which enables the upload of the large video files in chunks.
+     */
+    private boolean chunkUploadEnabled;
+
+    /**
+     * The size of the ranges in which the video file is uploaded.
+     */
+    private long chunkSize;
+
+    /**
+     * The number of bytes from the beginning of the video file which were acknowledged by the server.
+     */
+    private long acknowledgedSize;
+
+    /**
+     * The host of the server to which the video is uploaded.
+     */
+    private String serverHost;
+
+    /**
+     * The chunks of the videos which upload in chunks was started.
+     */
+    private VideoChunkStore videoChunkStore;
+
     /**
      * Default constructor for the current class.
      */
     public UploadOperationVideo(@NonNull String accessToken,
                                 @NonNull KVApi api,
+                                @NonNull String serverHost,
                                 @NonNull VideoLocalDataSource videoLocalDataSource,
                                 @NonNull String videoId,
                                 long onlineSequenceId,
                                 @NonNull SimpleEventBus eventBus,
                                 @Nullable Consumer<Integer> consumerSuccess,
                                 @Nullable Consumer<Throwable> consumerError) {
+        this(accessToken, api, serverHost, videoLocalDataSource, videoId, onlineSequenceId, eventBus, consumerSuccess, consumerError,
+                BuildConfig.VIDEO_CHUNKED_UPLOAD, VIDEO_CHUNK_SIZE_IN_BYTES, sharedVideoChunkStore);
+    }
+
+    /**
+     * Constructor for the current class with a custom chunk upload configuration.
+     */
+    UploadOperationVideo(@NonNull String accessToken,
+                         @NonNull KVApi api,
+                         @NonNull String serverHost,
+                         @NonNull VideoLocalDataSource videoLocalDataSource,
+                         @NonNull String videoId,
+                         long onlineSequenceId,
+                         @NonNull SimpleEventBus eventBus,
+                         @Nullable Consumer<Integer> consumerSuccess,
+                         @Nullable Consumer<Throwable> consumerError,
+                         boolean chunkUploadEnabled,
+                         long chunkSize,
+                         @NonNull VideoChunkStore videoChunkStore) {
         super(accessToken, api, eventBus, consumerError);
+        this.serverHost = serverHost;
         this.videoLocalDataSource = videoLocalDataSource;
         this.videoId = videoId;
         this.onlineSequenceId = onlineSequenceId;
         this.consumerSuccess = consumerSuccess;
+        this.chunkUploadEnabled = chunkUploadEnabled;
+        this.chunkSize = chunkSize;
+        this.videoChunkStore = videoChunkStore;
     }
 
     /**
@@ -111,7 +201,7 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
                 .getVideo(videoId)
                 .filter(item -> item != null)
                 .flatMapCompletable(this::processUploadVideoCompletable)
-                .doOnError(throwable -> Log.d(TAG, String.format("getStream. Status: error. Video id: %s. Message: %s.", videoId, throwable.getLocalizedMessage())));
+                .doOnError(throwable -> Log.d(TAG, "getStream. Status: error. Video id: %s. Message: %s.", videoId, throwable.getLocalizedMessage()));
     }
 
     @Override
@@ -121,14 +211,24 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
 
     @Override
     public void update(long bytesWritten, long contentLength) {
-        long currentUnit = (long) (((double) bytesWritten / contentLength) * uploadUpdateProgressVideo.getTotalUnit());
+        //the written bytes are relative to the request body which starts after the acknowledged bytes
+        long currentUnit = Math.min(acknowledgedSize + bytesWritten, uploadUpdateProgressVideo.getTotalUnit());
         uploadUpdateProgressVideo.setCurrentUnit(currentUnit);
     }
 
+    /**
+     * Clears the hosts for which the chunk upload was disabled after their server rejected it.
+     */
+    static void resetChunkUploadSupported() {
+        chunkUploadUnsupportedHosts.clear();
+    }
+
     private void handleUploadVideoErrorResponse(Throwable throwable) {
-        Log.d(TAG, String.format("handleUploadVideoErrorResponse. Status: error. Video id: %s. Message: %s.", videoId, throwable.getLocalizedMessage()));
-        uploadUpdateProgressVideo.cancel();
-        updateEventBus.post(uploadUpdateProgressVideo);
+        Log.d(TAG, "handleUploadVideoErrorResponse. Status: error. Video id: %s. Message: %s.", videoId, throwable.getLocalizedMessage());
+        if (uploadUpdateProgressVideo != null) {
+            uploadUpdateProgressVideo.cancel();
+            updateEventBus.post(uploadUpdateProgressVideo);
+        }
         videoFile = null;
     }
 
@@ -151,10 +251,11 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
      */
     private void handleUploadVideoSuccessResponse() {
         boolean deleteVideoFromPersistence = videoLocalDataSource.deleteVideo(videoId);
+        videoChunkStore.removeVideoChunks(videoId);
         dispose();
         long videoSize = Utils.fileSize(videoFile);
         Log.d(TAG,
-                String.format("handleUploadVideoSuccessResponse. Status: %s. Message: Attempting remove video from persistence. Size: %s.", deleteVideoFromPersistence, videoSize));
+                "handleUploadVideoSuccessResponse. Status: %s. Message: Attempting remove video from persistence. Size: %s.", deleteVideoFromPersistence, videoSize);
         if (deleteVideoFromPersistence) {
             if (videoFile.exists()) {
                 boolean videoFileRemove = videoFile.delete();
@@ -184,6 +285,10 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
         this.video = video;
         videoFile = new KVFile(video.getPath());
         if (videoFile.exists()) {
+            long videoSize = Utils.fileSize(videoFile);
+            if (chunkUploadEnabled && !chunkUploadUnsupportedHosts.contains(serverHost) && videoSize > chunkSize) {
+                return getUploadVideoChunksCompletable(videoSize);
+            }
             return getUploadVideoRequestCompletable();
         } else {
             Throwable throwable = new Throwable(THROWABLE_MESSAGE_VIDEO_FILE_NOT_FOUND);
@@ -205,6 +310,7 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
                         NetworkRequestConverter.generateTextRequestBody(String.valueOf(video.getIndex())),
                         NetworkRequestConverter.generateMultipartBodyPart(NetworkRequestConverter.REQUEST_MEDIA_TYPE_VIDEO, VIDEO_NAME_MULTI_PART_BODY, videoFile, this))
                 .doOnSubscribe(consumer -> {
+                    acknowledgedSize = 0;
                     uploadUpdateProgressVideo = new UploadUpdateProgress(0, Utils.fileSize(videoFile));
                     updateEventBus.post(uploadUpdateProgressVideo);
                 })
@@ -227,4 +333,188 @@ public class UploadOperationVideo extends UploadOperationBase implements Progres
                     return false;
                 });
     }
+
+    /**
+     * @param videoSize the size of the video file.
+     * @return {@code Completable} which will upload in order the chunks of the video which were not acknowledged by the server. On success the video is processed the same as
+     * for the upload in one request, while for a server which does not support chunks the upload falls back to {@link #getUploadVideoRequestCompletable()}.
+     */
+    private Completable getUploadVideoChunksCompletable(long videoSize) {
+        return Single
+                .fromCallable(() -> getVideoChunks(videoSize))
+                .flatMapCompletable(videoChunks -> {
+                    acknowledgedSize = 0;
+                    List<VideoChunk> pendingVideoChunks = new ArrayList<>();
+                    for (VideoChunk videoChunk : videoChunks) {
+                        if (videoChunk.isUploaded()) {
+                            acknowledgedSize += videoChunk.getLength();
+                        } else {
+                            pendingVideoChunks.add(videoChunk);
+                        }
+                    }
+                    Log.d(TAG, "getUploadVideoChunksCompletable. Status: start. Video id: %s. Acknowledged size: %s. Video size: %s. Pending chunks: %s.",
+                            videoId,
+                            acknowledgedSize,
+                            videoSize,
+                            pendingVideoChunks.size());
+                    uploadUpdateProgressVideo = new UploadUpdateProgress(acknowledgedSize, videoSize);
+                    updateEventBus.post(uploadUpdateProgressVideo);
+                    return Flowable
+                            .fromIterable(pendingVideoChunks)
+                            .concatMapCompletable(videoChunk -> getUploadVideoChunkRequestCompletable(videoChunk, videoSize));
+                })
+                .andThen(Completable.fromAction(this::handleUploadVideoSuccessResponse))
+                .onErrorResumeNext(error -> {
+                    if (error instanceof ChunkUploadUnsupportedException) {
+                        Log.d(TAG, "getUploadVideoChunksCompletable. Status: unsupported. Video id: %s. Host: %s. Message: Fallback to the upload in one request.",
+                                videoId,
+                                serverHost);
+                        chunkUploadUnsupportedHosts.add(serverHost);
+                        uploadUpdateProgressVideo.cancel();
+                        updateEventBus.post(uploadUpdateProgressVideo);
+                        return getUploadVideoRequestCompletable();
+                    }
+                    handleUploadVideoErrorResponse(error);
+                    return Completable.error(error);
+                });
+    }
+
+    /**
+     * @param videoChunk the chunk which will be uploaded.
+     * @param videoSize the size of the video file.
+     * @return {@code Completable} which will make the upload request for the given chunk and set the chunk as uploaded on a valid response.
+     */
+    private Completable getUploadVideoChunkRequestCompletable(VideoChunk videoChunk, long videoSize) {
+        return api
+                .uploadVideoChunk(
+                        NetworkRequestConverter.generateTextRequestBody(accessToken),
+                        NetworkRequestConverter.generateTextRequestBody(String.valueOf(onlineSequenceId)),
+                        NetworkRequestConverter.generateTextRequestBody(String.valueOf(video.getIndex())),
+                        NetworkRequestConverter.generateTextRequestBody(String.valueOf(videoChunk.getOffset())),
+                        NetworkRequestConverter.generateTextRequestBody(String.valueOf(videoSize)),
+                        NetworkRequestConverter.generateMultipartBodyPart(
+                                NetworkRequestConverter.REQUEST_MEDIA_TYPE_VIDEO,
+                                VIDEO_NAME_MULTI_PART_BODY,
+                                videoFile,
+                                videoChunk.getOffset(),
+                                videoChunk.getLength(),
+                                this))
+                .flatMapCompletable(response -> {
+                    if (handleResponse(response)) {
+                        handleUploadVideoChunkSuccessResponse(videoChunk);
+                        return Completable.complete();
+                    }
+                    return Completable.error(new Throwable(String.valueOf(response.getStatus().code)));
+                })
+                //a duplicate error means that the chunk was received by the server but the response was not, therefore the chunk is acknowledged
+                .onErrorResumeNext(error -> {
+                    if (!(error instanceof HttpException)) {
+                        return Completable.error(error);
+                    }
+                    //the error body can be read only once, therefore it is parsed here for both checks
+                    HttpException httpException = (HttpException) error;
+                    ResponseNetworkBase response = getErrorResponse(httpException);
+                    if (isChunkUploadUnsupported(httpException.code(), response)) {
+                        return Completable.error(new ChunkUploadUnsupportedException());
+                    }
+                    if (handleResponse(response)) {
+                        handleUploadVideoChunkSuccessResponse(videoChunk);
+                        return Completable.complete();
+                    }
+                    return Completable.error(error);
+                });
+    }
+
+    /**
+     * Sets the given chunk as uploaded and updates the progress to the new acknowledged size.
+     */
+    private void handleUploadVideoChunkSuccessResponse(VideoChunk videoChunk) {
+        videoChunk.setUploaded();
+        acknowledgedSize += videoChunk.getLength();
+        uploadUpdateProgressVideo.setCurrentUnit(acknowledgedSize);
+        Log.d(TAG, "handleUploadVideoChunkSuccessResponse. Status: success. Video id: %s. Chunk index: %s. Acknowledged size: %s.",
+                videoId,
+                videoChunk.getIndex(),
+                acknowledgedSize);
+    }
+
+    /**
+     * @param videoSize the size of the video file.
+     * @return the stored chunks of the video if they cover the video file, otherwise new chunks of {@link #chunkSize} which are stored before the upload starts.
+     */
+    private List<VideoChunk> getVideoChunks(long videoSize) {
+        List<VideoChunk> videoChunks = videoChunkStore.getVideoChunks(videoId);
+        if (isCoveringVideo(videoChunks, videoSize)) {
+            return videoChunks;
+        }
+        videoChunks = new ArrayList<>();
+        int index = 0;
+        for (long offset = 0; offset < videoSize; offset += chunkSize) {
+            videoChunks.add(new VideoChunk(index++, offset, Math.min(chunkSize, videoSize - offset), false));
+        }
+        videoChunkStore.saveVideoChunks(videoId, videoChunks);
+        return videoChunks;
+    }
+
+    /**
+     * @return {@code true} if the chunks are contiguous from the beginning to the end of the video file, {@code false} otherwise, e.g. the video file was changed since the
+     * chunks were stored.
+     */
+    private boolean isCoveringVideo(List<VideoChunk> videoChunks, long videoSize) {
+        if (videoChunks.isEmpty()) {
+            return false;
+        }
+        long offset = 0;
+        for (VideoChunk videoChunk : videoChunks) {
+            if (videoChunk.getOffset() != offset) {
+                return false;
+            }
+            offset += videoChunk.getLength();
+        }
+        return offset == videoSize;
+    }
+
+    /**
+     * @param code the http code of the chunk request error.
+     * @param response the api response from the error body, {@code null} if the body is not an api response.
+     * @return {@code true} if the error shows that the server does not provide the chunk upload, {@code false} otherwise. A not found code is a missing chunk endpoint only
+     * when it does not come with an api response, since the api uses it for its own errors, e.g. an unknown sequence.
+     */
+    private boolean isChunkUploadUnsupported(int code, @Nullable ResponseNetworkBase response) {
+        return code == HTTP_CODE_METHOD_NOT_ALLOWED || (code == HTTP_CODE_NOT_FOUND && response == null);
+    }
+
+    /**
+     * @return the api response from the error body, {@code null} if the body cannot be read or is not an api response.
+     */
+    @Nullable
+    private ResponseNetworkBase getErrorResponse(HttpException httpException) {
+        ResponseBody errorBody = httpException.response().errorBody();
+        if (errorBody == null) {
+            return null;
+        }
+        try {
+            ResponseNetworkBase response = new Gson().fromJson(errorBody.string(), ResponseNetworkBase.class);
+            return response != null && response.getStatus() != null ? response : null;
+        } catch (IOException | JsonParseException e) {
+            Log.d(TAG, "getErrorResponse. Status: error. Video id: %s. Message: %s.", videoId, e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Exception signaled by a chunk request which was rejected since the server does not provide the chunk upload.
+     */
+    private static class ChunkUploadUnsupportedException extends Exception {
+
+        /**
+         * Message for when the chunk upload is not provided by the server.
+         */
+        private static final String EXCEPTION_MESSAGE_CHUNK_UPLOAD_UNSUPPORTED = "Chunk upload not supported by the server.";
+
+        @Override
+        public String getMessage() {
+            return EXCEPTION_MESSAGE_CHUNK_UPLOAD_UNSUPPORTED;
+        }
+    }
 }
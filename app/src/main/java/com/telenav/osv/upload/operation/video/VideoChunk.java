@@ -0,0 +1,76 @@
+package com.telenav.osv.upload.operation.video;
+
+/**
+ * The upload state of a fixed size byte range of a video file.
+ */
+class VideoChunk {
+
+    /**
+     * The index representing the position of the chunk in the video file.
+     */
+    private int index;
+
+    /**
+     * The offset in bytes of the chunk in the video file.
+     */
+    private long offset;
+
+    /**
+     * The length in bytes of the chunk.
+     */
+    private long length;
+
+    /**
+     * Flag which is {@code true} if the upload of the chunk was acknowledged by the server, {@code false} otherwise.
+     */
+    private boolean uploaded;
+
+    /**
+     * Default constructor for the current model class.
+     * @param index the index of the chunk in the video file.
+     * @param offset the offset in bytes of the chunk in the video file.
+     * @param length the length in bytes of the chunk.
+     * @param uploaded {@code true} if the upload of the chunk was acknowledged, {@code false} otherwise.
+     */
+    public VideoChunk(int index, long offset, long length, boolean uploaded) {
+        this.index = index;
+        this.offset = offset;
+        this.length = length;
+        this.uploaded = uploaded;
+    }
+
+    /**
+     * @return {@code int} representing {@link #index}.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return {@code long} representing {@link #offset}.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return {@code long} representing {@link #length}.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return {@code boolean} representing {@link #uploaded}.
+     */
+    public boolean isUploaded() {
+        return uploaded;
+    }
+
+    /**
+     * Sets the chunk as uploaded.
+     */
+    public void setUploaded() {
+        this.uploaded = true;
+    }
+}
@@ -0,0 +1,47 @@
+package com.telenav.osv.upload.operation.video;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds in memory the chunks of the videos which upload in chunks was started, in order for a retried upload to resume from the last chunk acknowledged by the server.
+ * <p> The chunks are kept only for the process lifetime, therefore an upload started again after the app was restarted begins from the first chunk.
+ */
+class VideoChunkStore {
+
+    /**
+     * The chunks of each video, by the video identifier.
+     */
+    private final Map<String, List<VideoChunk>> videoChunks = new ConcurrentHashMap<>();
+
+    /**
+     * @param videoId the identifier of the video.
+     * @return the chunks of the video ordered by their position in the video file, or an empty collection if the upload of the video was not started in chunks.
+     */
+    @NonNull
+    List<VideoChunk> getVideoChunks(@NonNull String videoId) {
+        List<VideoChunk> chunks = videoChunks.get(videoId);
+        return chunks != null ? chunks : Collections.emptyList();
+    }
+
+    /**
+     * Replaces the chunks of the video with the given ones.
+     * @param videoId the identifier of the video.
+     * @param chunks the chunks which cover the video file.
+     */
+    void saveVideoChunks(@NonNull String videoId, @NonNull List<VideoChunk> chunks) {
+        videoChunks.put(videoId, chunks);
+    }
+
+    /**
+     * Removes the chunks of the video, called once the video was uploaded.
+     * @param videoId the identifier of the video.
+     */
+    void removeVideoChunks(@NonNull String videoId) {
+        videoChunks.remove(videoId);
+    }
+}
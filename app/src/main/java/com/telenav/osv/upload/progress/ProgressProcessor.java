@@ -88,12 +88,12 @@ public class ProgressProcessor {
                             }
                         }
                         Log.d(TAG,
-                                String.format("calculateProgress. Percentage: %s. Current unit: %s. Total unit: %s. Bandwidth: %s. Eta: %s.",
-                                        percentage,
-                                        currentUnit,
-                                        totalUnit,
-                                        bandwidth,
-                                        eta));
+                                "calculateProgress. Percentage: %s. Current unit: %s. Total unit: %s. Bandwidth: %s. Eta: %s.",
+                                percentage,
+                                currentUnit,
+                                totalUnit,
+                                bandwidth,
+                                eta);
                         //post the updates by calling the update consumer callback
                         uploadUpdateConsumer.accept(new UploadUpdate(percentage, eta, bandwidth, currentUnit, totalUnit));
 
@@ -0,0 +1,448 @@
+package com.telenav.osv.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.IllegalFormatException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * File logger which never blocks the logging thread.
+ * <p>
+ * The entries are stored in a bounded lock-free ring buffer, with their format and arguments, and a single writer thread formats them and appends them to a file kept
+ * open. Since the arguments are read later on the writer thread, the ones which are not immutable values, such as strings, boxed primitives and enums, are converted
+ * to strings when the entry is added, see {@link #snapshotArgs(Object[])}. The writer flushes the file each time the buffer is drained, or when {@link #flush(long)} is requested, and rotates it when it exceeds the maximum
+ * size, keeping the previous content in a single rotated file. When the buffer is full the entry is dropped and counted, see {@link #getDroppedCount()}, the number of dropped entries being written in the file
+ * once the writer catches up.
+ * <p>
+ * The ring buffer is a multiple producers, single consumer queue: each slot has a sequence which tells the producers when the slot is free and the writer when the
+ * entry is published.
+ */
+public class AsyncFileLogger {
+
+    /**
+     * The default number of entries which can wait for the writer.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The default size of the log file after which it is rotated.
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE_BYTES = 5 * 1024 * 1024;
+
+    /**
+     * The suffix added to the name of the rotated file, before the extension.
+     */
+    static final String ROTATED_SUFFIX = "_1";
+
+    private static final String TAG = AsyncFileLogger.class.getSimpleName();
+
+    private static final String[] TYPES = new String[]{"D", "D", "V", "D", "I", "W", "E", "A"};
+
+    /**
+     * The time the writer waits for new entries before checking the buffer again.
+     */
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long CLOSE_TIMEOUT_MS = 2000;
+
+    /**
+     * The time {@link #flush(long)} waits before checking again if the writer flushed the file.
+     */
+    private static final long FLUSH_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final int WRITER_BUFFER_SIZE = 16 * 1024;
+
+    private final Entry[] entries;
+
+    /**
+     * The sequence of each slot: equal to the position of the producer when the slot is free, to the position + 1 when the entry is published.
+     */
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong producerPosition = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * The position up to which the entries should be flushed, requested by {@link #flush(long)}.
+     */
+    private final AtomicLong flushRequestPosition = new AtomicLong();
+
+    private final File file;
+
+    private final long maxFileSizeBytes;
+
+    @Nullable
+    private final EntryListener entryListener;
+
+    private final Object writerLock = new Object();
+
+    /**
+     * The position of the writer, accessed only by the writer thread.
+     */
+    private long consumerPosition;
+
+    /**
+     * The position of the writer when it last flushed the file, all the entries before it being written in the file.
+     */
+    private volatile long flushedPosition;
+
+    private volatile Thread writerThread;
+
+    private volatile boolean closed;
+
+    /**
+     * Default constructor for the current class.
+     * @param file the log file, appended if it exists.
+     * @param capacity the number of entries which can wait for the writer, rounded up to a power of two.
+     * @param maxFileSizeBytes the size of the log file after which it is rotated.
+     * @param entryListener the listener notified on the writer thread for each formatted entry, or {@code null}.
+     */
+    public AsyncFileLogger(@NonNull File file, int capacity, long maxFileSizeBytes, @Nullable EntryListener entryListener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = Math.max(1, Integer.highestOneBit((capacity - 1) << 1));
+        this.entries = new Entry[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.file = file;
+        this.maxFileSizeBytes = maxFileSizeBytes;
+        this.entryListener = entryListener;
+    }
+
+    /**
+     * Adds an entry without waiting, the message being formatted on the writer thread from a snapshot of the arguments taken by the calling thread.
+     * @param priority the priority of the entry, one of the {@link android.util.Log} priorities.
+     * @param tag the tag of the entry.
+     * @param format the message, or its format if there are arguments.
+     * @param args the arguments of the format, or {@code null}.
+     * @param throwable the throwable whose stack trace is appended to the message, or {@code null}.
+     * @return false if the entry was dropped because the buffer is full or the logger is closed.
+     */
+    public boolean log(int priority, String tag, String format, @Nullable Object[] args, @Nullable Throwable throwable) {
+        if (closed) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        Object[] argsSnapshot = snapshotArgs(args);
+        long position;
+        int index;
+        while (true) {
+            position = producerPosition.get();
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                //the writer did not release the slot yet, the buffer is full
+                droppedCount.incrementAndGet();
+                return false;
+            }
+        }
+        Entry entry = entries[index];
+        entry.timestamp = System.currentTimeMillis();
+        entry.priority = priority;
+        entry.tag = tag;
+        entry.format = format;
+        entry.args = argsSnapshot;
+        entry.throwable = throwable;
+        sequences.lazySet(index, position + 1);
+        startWriterIfNeeded();
+        return true;
+    }
+
+    /**
+     * @return the number of entries dropped since the creation of the logger.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Waits until the entries added before this call are written and flushed in the file, without stopping the writer. Used when the process is about to die,
+     * e.g. on a crash, since the writer is a daemon thread.
+     * @param timeoutMs the maximum time to wait for the writer.
+     * @return true if the entries were flushed, false if the timeout elapsed first.
+     */
+    public boolean flush(long timeoutMs) {
+        long position = producerPosition.get();
+        long requestedPosition;
+        do {
+            requestedPosition = flushRequestPosition.get();
+        } while (requestedPosition < position && !flushRequestPosition.compareAndSet(requestedPosition, position));
+        Thread thread = writerThread;
+        if (thread == null || thread == Thread.currentThread()) {
+            return flushedPosition >= position;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (flushedPosition < position) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !thread.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, Math.min(remaining, FLUSH_POLL_NANOS));
+        }
+        return true;
+    }
+
+    /**
+     * Writes the entries already added, then stops the writer and closes the file. The entries added afterwards are dropped.
+     */
+    public void close() {
+        closed = true;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(CLOSE_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the file which holds the content written before the last rotation.
+     */
+    public File getRotatedFile() {
+        String name = file.getName();
+        int extension = name.lastIndexOf('.');
+        String rotatedName = extension > 0 ? name.substring(0, extension) + ROTATED_SUFFIX + name.substring(extension) : name + ROTATED_SUFFIX;
+        return new File(file.getParentFile(), rotatedName);
+    }
+
+    private void startWriterIfNeeded() {
+        if (writerThread != null) {
+            return;
+        }
+        synchronized (writerLock) {
+            if (writerThread == null && !closed) {
+                Thread thread = new Thread(this::writeEntries, TAG);
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                writerThread = thread;
+                thread.start();
+            }
+        }
+    }
+
+    /**
+     * The loop of the writer thread, which drains the buffer into the file until the logger is closed. The file is flushed when the buffer is empty or when the
+     * entries requested by {@link #flush(long)} are written, so a flush does not wait for the other threads to stop logging.
+     */
+    private void writeEntries() {
+        StringBuilder line = new StringBuilder();
+        Writer writer = null;
+        long fileSize = 0;
+        long reportedDroppedCount = 0;
+        while (true) {
+            Entry entry = peek();
+            long requestedPosition = flushRequestPosition.get();
+            if (entry == null || flushedPosition < requestedPosition && consumerPosition >= requestedPosition) {
+                if (writer != null) {
+                    flush(writer);
+                }
+                flushedPosition = consumerPosition;
+            }
+            if (entry == null) {
+                if (closed) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                continue;
+            }
+            try {
+                if (writer == null || fileSize > maxFileSizeBytes) {
+                    writer = openWriter(writer, fileSize > maxFileSizeBytes);
+                    fileSize = file.length();
+                }
+                long dropped = droppedCount.get();
+                if (dropped != reportedDroppedCount) {
+                    line.setLength(0);
+                    appendLine(line, entry.timestamp, android.util.Log.WARN, TAG, String.format(Locale.US, "%s log entries dropped", dropped - reportedDroppedCount));
+                    writer.append(line);
+                    fileSize += line.length();
+                    reportedDroppedCount = dropped;
+                }
+                String message = formatMessage(entry);
+                line.setLength(0);
+                appendLine(line, entry.timestamp, entry.priority, entry.tag, message);
+                writer.append(line);
+                fileSize += line.length();
+                if (entryListener != null) {
+                    entryListener.onEntry(entry.priority, entry.tag, message);
+                }
+            } catch (IOException e) {
+                android.util.Log.d(TAG, "writeEntries: " + e.getLocalizedMessage());
+                writer = null;
+            } finally {
+                release(entry);
+            }
+        }
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                android.util.Log.d(TAG, "writeEntries: " + e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the next published entry or null if the buffer is empty.
+     */
+    @Nullable
+    private Entry peek() {
+        int index = (int) (consumerPosition & mask);
+        if (sequences.get(index) != consumerPosition + 1) {
+            return null;
+        }
+        return entries[index];
+    }
+
+    /**
+     * Frees the slot of the entry returned by {@link #peek()} for the producers.
+     */
+    private void release(Entry entry) {
+        entry.tag = null;
+        entry.format = null;
+        entry.args = null;
+        entry.throwable = null;
+        int index = (int) (consumerPosition & mask);
+        sequences.lazySet(index, consumerPosition + mask + 1);
+        consumerPosition++;
+    }
+
+    private Writer openWriter(@Nullable Writer writer, boolean rotate) throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        if (rotate) {
+            File rotatedFile = getRotatedFile();
+            if (rotatedFile.exists() && !rotatedFile.delete()) {
+                android.util.Log.d(TAG, "openWriter: could not delete " + rotatedFile.getName());
+            }
+            if (!file.renameTo(rotatedFile)) {
+                android.util.Log.d(TAG, "openWriter: could not rotate " + file.getName());
+            }
+        }
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), Charset.forName("UTF-8")), WRITER_BUFFER_SIZE);
+    }
+
+    private void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            android.util.Log.d(TAG, "flush: " + e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * @return the arguments in which each argument which might change before the writer formats it is replaced by its string, the given array if all the
+     * arguments are immutable values.
+     */
+    @Nullable
+    static Object[] snapshotArgs(@Nullable Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] snapshot = args;
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (!isImmutableValue(arg)) {
+                if (snapshot == args) {
+                    snapshot = args.clone();
+                }
+                snapshot[i] = String.valueOf(arg);
+            }
+        }
+        return snapshot;
+    }
+
+    private static boolean isImmutableValue(@Nullable Object arg) {
+        return arg == null
+                || arg instanceof String
+                || arg instanceof Integer
+                || arg instanceof Long
+                || arg instanceof Double
+                || arg instanceof Float
+                || arg instanceof Short
+                || arg instanceof Byte
+                || arg instanceof Boolean
+                || arg instanceof Character
+                || arg instanceof Enum;
+    }
+
+    private static String formatMessage(Entry entry) {
+        String message = entry.format;
+        if (entry.args != null && entry.args.length > 0) {
+            try {
+                message = String.format(Locale.US, entry.format, entry.args);
+            } catch (IllegalFormatException e) {
+                message = entry.format + " " + Arrays.toString(entry.args);
+            }
+        }
+        if (entry.throwable != null) {
+            StringWriter stackTrace = new StringWriter();
+            entry.throwable.printStackTrace(new PrintWriter(stackTrace));
+            message = message + " " + stackTrace;
+        }
+        return message;
+    }
+
+    private static void appendLine(StringBuilder line, long timestamp, int priority, String tag, String message) {
+        line.append(timestamp).append(' ');
+        line.append(priority >= 0 && priority < TYPES.length ? TYPES[priority] : TYPES[0]).append('/').append(tag).append(": ");
+        line.append(message).append('\n');
+    }
+
+    /**
+     * Listener notified on the writer thread for each entry, after its message was formatted.
+     */
+    public interface EntryListener {
+
+        void onEntry(int priority, String tag, String message);
+    }
+
+    /**
+     * A slot of the ring buffer, reused for the entries.
+     */
+    private static class Entry {
+
+        private long timestamp;
+
+        private int priority;
+
+        private String tag;
+
+        private String format;
+
+        private Object[] args;
+
+        private Throwable throwable;
+    }
+}
@@ -0,0 +1,135 @@
+package com.telenav.osv.utils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import androidx.annotation.NonNull;
+
+/**
+ * Histogram of operation latencies with exponential buckets: up to 1 ms, up to 2 ms, up to 4 ms and so on up to {@link #MAX_BUCKET_BOUND_MS},
+ * followed by one bucket for all the slower operations.
+ * <p>
+ * The histogram has a fixed size and does not allocate when a latency is recorded, therefore it can be used on hot paths. The class is thread safe.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The upper bound of the last bounded bucket.
+     */
+    private static final long MAX_BUCKET_BOUND_MS = 4096;
+
+    /**
+     * The number of buckets, including the last unbounded bucket.
+     */
+    private static final int BUCKET_COUNT = Long.numberOfTrailingZeros(MAX_BUCKET_BOUND_MS) + 2;
+
+    private final String name;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+
+    private long count;
+
+    private long totalNanos;
+
+    private long maxNanos;
+
+    /**
+     * @param name the name of the measured operation, used by {@link #toString()}.
+     */
+    public LatencyHistogram(@NonNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records the latency of an operation.
+     * @param latencyNanos the latency in nanoseconds.
+     */
+    public synchronized void record(long latencyNanos) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        int bucket = 0;
+        //the bucket with the upper bound 2^bucket ms, which is the first one greater than or equal to the latency
+        while (bucket < BUCKET_COUNT - 1 && latencyMs > getBucketBoundMs(bucket)) {
+            bucket++;
+        }
+        buckets[bucket]++;
+        count++;
+        totalNanos += latencyNanos;
+        maxNanos = Math.max(maxNanos, latencyNanos);
+    }
+
+    /**
+     * @return the number of recorded latencies.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile the percentile between 0 and 100.
+     * @return the upper bound in milliseconds of the bucket holding the given percentile,
+     * {@code Long.MAX_VALUE} if it is in the unbounded bucket or {@code 0} if there is no recorded latency.
+     */
+    public synchronized long getPercentileBoundMs(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT - 1; bucket++) {
+            cumulative += buckets[bucket];
+            if (cumulative >= rank) {
+                return getBucketBoundMs(bucket);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the maximum recorded latency in milliseconds.
+     */
+    public synchronized double getMaxMs() {
+        return maxNanos / 1_000_000d;
+    }
+
+    /**
+     * Removes all the recorded latencies.
+     */
+    public synchronized void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            buckets[bucket] = 0;
+        }
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.US, "%s. Count: %s. Mean: %.1f ms. P50: %s ms. P99: %s ms. Max: %.1f ms. Buckets:",
+                name,
+                count,
+                count == 0 ? 0 : totalNanos / count / 1_000_000d,
+                formatBound(getPercentileBoundMs(50)),
+                formatBound(getPercentileBoundMs(99)),
+                getMaxMs()));
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            if (buckets[bucket] == 0) {
+                continue;
+            }
+            if (bucket < BUCKET_COUNT - 1) {
+                builder.append(String.format(Locale.US, " <=%s ms: %s", getBucketBoundMs(bucket), buckets[bucket]));
+            } else {
+                builder.append(String.format(Locale.US, " >%s ms: %s", MAX_BUCKET_BOUND_MS, buckets[bucket]));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String formatBound(long boundMs) {
+        return boundMs == Long.MAX_VALUE ? ">" + MAX_BUCKET_BOUND_MS : "<=" + boundMs;
+    }
+
+    private static long getBucketBoundMs(int bucket) {
+        return 1L << bucket;
+    }
+}
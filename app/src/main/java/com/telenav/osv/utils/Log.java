@@ -3,21 +3,27 @@ package com.telenav.osv.utils;
 import android.annotation.SuppressLint;
 import android.content.Context;
 
+import androidx.annotation.Nullable;
+
 import com.google.firebase.crashlytics.FirebaseCrashlytics;
+import com.telenav.osv.BuildConfig;
 import com.telenav.osv.application.KVApplication;
 import com.telenav.osv.item.KVFile;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.FilenameFilter;
-import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 
 /**
  * Internal logging chained through crashlytics logging
+ * <p>
+ * The entries below the minimum level of the build type, {@code BuildConfig.LOG_MIN_LEVEL}, are discarded by {@link #isLoggable(int)} before they are queued or
+ * formatted. The check runs on every call and the arguments are still evaluated by the caller, therefore a message built by the caller, e.g. with
+ * {@link String#format(String, Object...)}, costs the same at any level. On hot paths use the parameterized methods, such as
+ * {@link #d(String, String, Object...)}, which format the message on the thread of the file logger, or the {@link MessageSupplier} methods, which build the message
+ * only if the level is enabled.
  * Created by Kalman on 2/8/16.
  */
 public class Log {
@@ -55,22 +61,39 @@ public class Log {
 
     private static final long TEN_DAYS = 10L * 24L * 60L * 60L * 1000L;
 
-    private static final String[] TYPES = new String[]{"D", "D", "V", "D", "I", "W", "E"};
-
     private static final long TWO_DAYS = 48L * 60L * 60L * 1000L;
 
+    /**
+     * The minimum priority of the entries which are logged, set per build type.
+     */
+    private static final int MIN_LEVEL = BuildConfig.LOG_MIN_LEVEL;
+
+    /**
+     * The maximum time {@link #flush()} waits for the file logger.
+     */
+    private static final long FLUSH_TIMEOUT_MS = 1000;
+
     @SuppressLint("SdCardPath")
     public static String externalFilesDir = "/sdcard/Android/data/com.telenav.streetview/files/";
 
     private static File logFile;
 
-    public static File getLogFile() {
+    private static volatile AsyncFileLogger fileLogger;
+
+    public static synchronized File getLogFile() {
         if (logFile == null) {
             logFile = new File(externalFilesDir, "log_" + dateFormat.format(KVApplication.runTime) + ".txt");
         }
         return logFile;
     }
 
+    /**
+     * @return true if the entries with the given priority are logged in the current build type.
+     */
+    public static boolean isLoggable(int priority) {
+        return priority >= MIN_LEVEL;
+    }
+
     public static void d(String tag, String message) {
         appendLog(android.util.Log.DEBUG, tag, message);
     }
@@ -91,23 +114,86 @@ public class Log {
         appendLog(android.util.Log.INFO, tag, message);
     }
 
+    /**
+     * Logs a message formatted with {@link String#format(String, Object...)} on the thread of the file logger. The arguments which are not immutable values are
+     * converted to strings when the entry is added, therefore their later changes are not logged.
+     */
+    public static void d(String tag, String format, Object... args) {
+        appendLog(android.util.Log.DEBUG, tag, format, args, null);
+    }
+
+    public static void w(String tag, String format, Object... args) {
+        appendLog(android.util.Log.WARN, tag, format, args, null);
+    }
+
+    public static void e(String tag, String format, Object... args) {
+        appendLog(android.util.Log.ERROR, tag, format, args, null);
+    }
+
+    public static void v(String tag, String format, Object... args) {
+        appendLog(android.util.Log.VERBOSE, tag, format, args, null);
+    }
+
+    public static void i(String tag, String format, Object... args) {
+        appendLog(android.util.Log.INFO, tag, format, args, null);
+    }
+
+    /**
+     * Logs the message built by the supplier, which is called only if the level is enabled.
+     */
+    public static void d(String tag, MessageSupplier message) {
+        if (isLoggable(android.util.Log.DEBUG)) {
+            appendLog(android.util.Log.DEBUG, tag, message.get());
+        }
+    }
+
+    public static void w(String tag, MessageSupplier message) {
+        if (isLoggable(android.util.Log.WARN)) {
+            appendLog(android.util.Log.WARN, tag, message.get());
+        }
+    }
+
+    public static void e(String tag, MessageSupplier message) {
+        if (isLoggable(android.util.Log.ERROR)) {
+            appendLog(android.util.Log.ERROR, tag, message.get());
+        }
+    }
+
+    public static void v(String tag, MessageSupplier message) {
+        if (isLoggable(android.util.Log.VERBOSE)) {
+            appendLog(android.util.Log.VERBOSE, tag, message.get());
+        }
+    }
+
+    public static void i(String tag, MessageSupplier message) {
+        if (isLoggable(android.util.Log.INFO)) {
+            appendLog(android.util.Log.INFO, tag, message.get());
+        }
+    }
+
     public static String getStackTraceString(Throwable throwable) {
         return android.util.Log.getStackTraceString(throwable);
     }
 
     public static void d(String tag, String message, Exception e) {
-        appendLog(android.util.Log.DEBUG, tag, message + " " + android.util.Log.getStackTraceString(e));
-        android.util.Log.d(tag, message, e);
+        if (isLoggable(android.util.Log.DEBUG)) {
+            appendLog(android.util.Log.DEBUG, tag, message, null, e);
+            android.util.Log.d(tag, message, e);
+        }
     }
 
     public static void e(String tag, String message, Exception e) {
-        appendLog(android.util.Log.ERROR, tag, message + " " + android.util.Log.getStackTraceString(e));
-        android.util.Log.e(tag, message, e);
+        if (isLoggable(android.util.Log.ERROR)) {
+            appendLog(android.util.Log.ERROR, tag, message, null, e);
+            android.util.Log.e(tag, message, e);
+        }
     }
 
     public static void i(String tag, String message, Exception e) {
-        appendLog(android.util.Log.INFO, tag, message + " " + android.util.Log.getStackTraceString(e));
-        android.util.Log.i(tag, message, e);
+        if (isLoggable(android.util.Log.INFO)) {
+            appendLog(android.util.Log.INFO, tag, message, null, e);
+            android.util.Log.i(tag, message, e);
+        }
     }
 
     public static void deleteOldLogs(Context context) {
@@ -151,34 +237,65 @@ public class Log {
         return files;
     }
 
+    /**
+     * @return the number of log entries dropped because the file logger could not keep up.
+     */
+    public static long getDroppedCount() {
+        AsyncFileLogger logger = fileLogger;
+        return logger == null ? 0 : logger.getDroppedCount();
+    }
+
+    /**
+     * Waits, for at most {@link #FLUSH_TIMEOUT_MS}, until the entries logged before this call are written in the log file and sent to crashlytics.
+     * Must be called before the process is killed, e.g. by an uncaught exception, since the entries are written on a daemon thread.
+     * @return true if the entries were written, false if the timeout elapsed first.
+     */
+    public static boolean flush() {
+        AsyncFileLogger logger = fileLogger;
+        return logger == null || logger.flush(FLUSH_TIMEOUT_MS);
+    }
+
     private static void appendLog(int priority, String tag, String text) {
-        if (logFile == null) {
-            logFile = new File(externalFilesDir, "log_" + dateFormat.format(KVApplication.runTime) + ".txt");
+        appendLog(priority, tag, text, null, null);
+    }
+
+    /**
+     * Hands the entry to the file logger, which formats it and writes it on its own thread, in order to never block the caller.
+     */
+    private static void appendLog(int priority, String tag, String format, @Nullable Object[] args, @Nullable Throwable throwable) {
+        if (!isLoggable(priority)) {
+            return;
         }
-        if (!logFile.exists()) {
-            try {
-                logFile.createNewFile();
-            } catch (IOException e) {
-                //e.printStackTrace();
-            }
+        AsyncFileLogger logger = fileLogger;
+        if (logger == null) {
+            logger = getFileLogger();
         }
-        try {
-            //BufferedWriter for performance, true to set append to file flag
-            BufferedWriter buf = new BufferedWriter(new FileWriter(logFile, true));
-            buf.append(String.valueOf(System.currentTimeMillis())).append(" ");
-            buf.append(TYPES[priority]).append("/").append(tag).append(": ");
-            buf.append(text);
-            buf.newLine();
-            buf.close();
-        } catch (IOException e) {
-            //e.printStackTrace();
+        logger.log(priority, tag, format, args, throwable);
+    }
+
+    private static synchronized AsyncFileLogger getFileLogger() {
+        if (fileLogger == null) {
+            fileLogger = new AsyncFileLogger(getLogFile(), AsyncFileLogger.DEFAULT_CAPACITY, AsyncFileLogger.DEFAULT_MAX_FILE_SIZE_BYTES, Log::logToCrashlytics);
         }
-        FirebaseCrashlytics crashlytics = FirebaseCrashlytics.getInstance();
+        return fileLogger;
+    }
 
+    /**
+     * Chains the entry to crashlytics logging, called on the thread of the file logger.
+     */
+    private static void logToCrashlytics(int priority, String tag, String text) {
         try {
-            crashlytics.log(String.format("%s %s %s", priority, tag, text));
+            FirebaseCrashlytics.getInstance().log(priority + " " + tag + " " + text);
         } catch (Exception ignored) {
             android.util.Log.println(priority, tag, text);
         }
     }
+
+    /**
+     * Builds the message of an entry, called only if its level is enabled.
+     */
+    public interface MessageSupplier {
+
+        String get();
+    }
 }
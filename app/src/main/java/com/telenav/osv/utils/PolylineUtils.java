@@ -0,0 +1,195 @@
+package com.telenav.osv.utils;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Utils class for the polylines persisted as a summary of a sequence.
+ * <p> The class provides:
+ * <ul>
+ * <li>{@link #simplify(double[], double[], double)} - Douglas-Peucker simplification with a tolerance in meters</li>
+ * <li>{@link #encode(double[], double[], int[])} - encoding in the encoded polyline algorithm format with a precision of 5 decimals</li>
+ * <li>{@link #decode(String)} - decoding of a polyline in the same format</li>
+ * </ul>
+ */
+public class PolylineUtils {
+
+    /**
+     * The multiplier for the 5 decimals precision of the encoded coordinates.
+     */
+    private static final double ENCODING_PRECISION = 1e5;
+
+    /**
+     * The offset added to each 5 bit chunk in order to obtain a printable character.
+     */
+    private static final int ENCODING_CHAR_OFFSET = 63;
+
+    /**
+     * The flag set on a 5 bit chunk when more chunks follow for the same value.
+     */
+    private static final int ENCODING_CONTINUATION_FLAG = 0x20;
+
+    private static final int ENCODING_CHUNK_MASK = 0x1f;
+
+    private static final int ENCODING_CHUNK_BITS = 5;
+
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    private PolylineUtils() {}
+
+    /**
+     * Simplifies the given polyline by using the Douglas-Peucker algorithm. The distances are computed in meters on an equirectangular projection centered on the first point,
+     * which is accurate enough for the extent of a sequence.
+     * @param latitudes the latitudes of the points.
+     * @param longitudes the longitudes of the points, same size as the latitudes.
+     * @param tolerance the maximum distance in meters between a removed point and the simplified polyline.
+     * @return the sorted indexes of the points kept, the first and the last points are always kept.
+     */
+    @NonNull
+    public static int[] simplify(@NonNull double[] latitudes, @NonNull double[] longitudes, double tolerance) {
+        int size = latitudes.length;
+        if (size <= 2) {
+            int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = i;
+            }
+            return indexes;
+        }
+        double metersPerDegreeLat = Math.toRadians(EARTH_RADIUS_METERS);
+        double metersPerDegreeLon = metersPerDegreeLat * Math.cos(Math.toRadians(latitudes[0]));
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = (longitudes[i] - longitudes[0]) * metersPerDegreeLon;
+            y[i] = (latitudes[i] - latitudes[0]) * metersPerDegreeLat;
+        }
+        boolean[] kept = new boolean[size];
+        kept[0] = true;
+        kept[size - 1] = true;
+        int keptCount = 2;
+        double squaredTolerance = tolerance * tolerance;
+        //iterative implementation, the stack holds the start and end index of the ranges which are not processed yet
+        int[] stack = new int[size * 2];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        stack[stackSize++] = size - 1;
+        while (stackSize > 0) {
+            int end = stack[--stackSize];
+            int start = stack[--stackSize];
+            double maxSquaredDistance = 0;
+            int maxIndex = -1;
+            for (int i = start + 1; i < end; i++) {
+                double squaredDistance = squaredSegmentDistance(x[i], y[i], x[start], y[start], x[end], y[end]);
+                if (squaredDistance > maxSquaredDistance) {
+                    maxSquaredDistance = squaredDistance;
+                    maxIndex = i;
+                }
+            }
+            if (maxIndex != -1 && maxSquaredDistance > squaredTolerance) {
+                kept[maxIndex] = true;
+                keptCount++;
+                stack[stackSize++] = start;
+                stack[stackSize++] = maxIndex;
+                stack[stackSize++] = maxIndex;
+                stack[stackSize++] = end;
+            }
+        }
+        int[] indexes = new int[keptCount];
+        int index = 0;
+        for (int i = 0; i < size; i++) {
+            if (kept[i]) {
+                indexes[index++] = i;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * @param latitudes the latitudes of the points.
+     * @param longitudes the longitudes of the points, same size as the latitudes.
+     * @param indexes the indexes of the points to be encoded, in order.
+     * @return the encoded polyline for the points at the given indexes.
+     */
+    @NonNull
+    public static String encode(@NonNull double[] latitudes, @NonNull double[] longitudes, @NonNull int[] indexes) {
+        StringBuilder encoded = new StringBuilder(indexes.length * 8);
+        long previousLat = 0;
+        long previousLon = 0;
+        for (int index : indexes) {
+            long lat = Math.round(latitudes[index] * ENCODING_PRECISION);
+            long lon = Math.round(longitudes[index] * ENCODING_PRECISION);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lon - previousLon, encoded);
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * @param encoded the encoded polyline.
+     * @return the decoded coordinates as pairs of latitude and longitude, i.e. the latitude of the n-th point is at index 2 * n and the longitude at 2 * n + 1.
+     */
+    @NonNull
+    public static double[] decode(@NonNull String encoded) {
+        double[] coordinates = new double[encoded.length()];
+        int coordinateCount = 0;
+        int index = 0;
+        int length = encoded.length();
+        //the latitudes and longitudes are encoded as differences from the previous value of the same coordinate
+        long lat = 0;
+        long lon = 0;
+        while (index < length) {
+            long result = 0;
+            int shift = 0;
+            int chunk;
+            do {
+                chunk = encoded.charAt(index++) - ENCODING_CHAR_OFFSET;
+                result |= (long) (chunk & ENCODING_CHUNK_MASK) << shift;
+                shift += ENCODING_CHUNK_BITS;
+            } while (chunk >= ENCODING_CONTINUATION_FLAG && index < length);
+            long delta = (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+            if (coordinateCount % 2 == 0) {
+                lat += delta;
+                coordinates[coordinateCount++] = lat / ENCODING_PRECISION;
+            } else {
+                lon += delta;
+                coordinates[coordinateCount++] = lon / ENCODING_PRECISION;
+            }
+        }
+        double[] decoded = new double[coordinateCount - coordinateCount % 2];
+        System.arraycopy(coordinates, 0, decoded, 0, decoded.length);
+        return decoded;
+    }
+
+    private static void encodeValue(long value, StringBuilder encoded) {
+        long shifted = value < 0 ? ~(value << 1) : value << 1;
+        while (shifted >= ENCODING_CONTINUATION_FLAG) {
+            encoded.append((char) ((ENCODING_CONTINUATION_FLAG | (shifted & ENCODING_CHUNK_MASK)) + ENCODING_CHAR_OFFSET));
+            shifted >>= ENCODING_CHUNK_BITS;
+        }
+        encoded.append((char) (shifted + ENCODING_CHAR_OFFSET));
+    }
+
+    /**
+     * @return the squared distance between the point and the segment defined by the start and end points.
+     */
+    private static double squaredSegmentDistance(double x, double y, double startX, double startY, double endX, double endY) {
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double projectionX = startX;
+        double projectionY = startY;
+        if (dx != 0 || dy != 0) {
+            double t = ((x - startX) * dx + (y - startY) * dy) / (dx * dx + dy * dy);
+            if (t > 1) {
+                projectionX = endX;
+                projectionY = endY;
+            } else if (t > 0) {
+                projectionX = startX + dx * t;
+                projectionY = startY + dy * t;
+            }
+        }
+        dx = x - projectionX;
+        dy = y - projectionY;
+        return dx * dx + dy * dy;
+    }
+}
@@ -486,7 +486,7 @@ public class Utils {
                     codeName = field.getName();
                 }
             } catch (IllegalAccessException e) {
-                Log.d(TAG, String.format("getOSCodeName. Status: error. Message: %s.", e.getMessage()));
+                Log.d(TAG, "getOSCodeName. Status: error. Message: %s.", e.getMessage());
             }
         }
         return codeName;
@@ -514,9 +514,17 @@ public class Utils {
             {
                 add(SequenceDetailsCompressionBase.SequenceFilesExtensions.METADATA_TXT);
             }
+
+            {
+                add(SequenceDetailsCompressionBase.SequenceFilesExtensions.METADATA_BINARY);
+            }
+
+            {
+                add(SequenceDetailsCompressionBase.SequenceFilesExtensions.METADATA_PARTIAL);
+            }
         });
         boolean metadataExists = metadata.length != 0;
-        Log.d(TAG, String.format("doesMetadataExist. Status: %s. Message: Checking for metadata file extensions.", metadataExists));
+        Log.d(TAG, "doesMetadataExist. Status: %s. Message: Checking for metadata file extensions.", metadataExists);
         return metadataExists;
     }
 
@@ -771,7 +779,7 @@ public class Utils {
         MediaCodecInfo.CodecCapabilities capabilities = codecInfo.getCapabilitiesForType(MediaFormat.MIMETYPE_VIDEO_AVC);
         //Check which formats are supported by the encoder
         for (int i = 0; i < capabilities.colorFormats.length; i++) {
-            Log.d(TAG, String.format("setEncodingFormat. Format available: %s", capabilities.colorFormats[i]));
+            Log.d(TAG, "setEncodingFormat. Format available: %s", capabilities.colorFormats[i]);
             if (capabilities.colorFormats[i] == MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420SemiPlanar) {
                 return true;
             }
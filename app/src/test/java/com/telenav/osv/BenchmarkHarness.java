@@ -0,0 +1,71 @@
+package com.telenav.osv;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Times the implementations compared by the benchmarks of the unit tests and reports the average time per operation of each one.
+ * <p>
+ * The times depend on the machine, therefore the benchmarks only report them and are annotated with {@code @Ignore(BenchmarkHarness.IGNORED)}, so they run only
+ * when started manually. The outputs of the compared implementations are asserted by the regular tests of each class.
+ */
+public class BenchmarkHarness {
+
+    /**
+     * The reason of the {@code @Ignore} annotation of every benchmark.
+     */
+    public static final String IGNORED = "Benchmark, run manually.";
+
+    /**
+     * The number of rounds run before the measured one, in order to have the code compiled by the JIT.
+     */
+    private static final int WARM_UP_ROUNDS = 1;
+
+    private final String name;
+
+    private final int operationsPerRound;
+
+    /**
+     * The average time per operation in nanoseconds for each implementation, in the order they were measured.
+     */
+    private final Map<String, Double> results = new LinkedHashMap<>();
+
+    /**
+     * Default constructor for the current class.
+     * @param name the name of the benchmark which is reported.
+     * @param operationsPerRound the number of operations done by each round, used for the time per operation.
+     */
+    public BenchmarkHarness(String name, int operationsPerRound) {
+        this.name = name;
+        this.operationsPerRound = operationsPerRound;
+    }
+
+    /**
+     * Runs the warm up rounds, then measures one round of the given implementation.
+     * @param implementation the name of the implementation which is reported.
+     * @param round the round of operations.
+     * @return the current harness.
+     */
+    public BenchmarkHarness measure(String implementation, Runnable round) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        round.run();
+        results.put(implementation, (double) (System.nanoTime() - start) / operationsPerRound);
+        return this;
+    }
+
+    /**
+     * Reports the measured implementations on a single line.
+     */
+    public void report() {
+        StringBuilder report = new StringBuilder(name).append(':');
+        for (Map.Entry<String, Double> result : results.entrySet()) {
+            report.append(String.format(Locale.US, " %s %.0f ns/op,", result.getKey(), result.getValue()));
+        }
+        report.setLength(report.length() - 1);
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,194 @@
+package com.telenav.osv.application.initialisation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import android.location.Location;
+import com.telenav.osv.data.frame.datasource.local.FrameLocalDataSource;
+import com.telenav.osv.data.location.datasource.LocationLocalDataSource;
+import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
+import com.telenav.osv.data.sequence.model.LocalSequence;
+import com.telenav.osv.data.sequence.model.details.SequenceDetails;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsFingerprint;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal;
+import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionJpeg;
+import com.telenav.osv.data.video.datasource.VideoLocalDataSource;
+import com.telenav.osv.item.KVFile;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@RunWith(RobolectricTestRunner.class)
+public class DataConsistencyTest {
+
+    private static final String SEQUENCE_ID = "sequence";
+
+    private static final long DISK_SIZE = 42;
+
+    @Mock
+    private SequenceLocalDataSource sequenceLocalDataSource;
+
+    @Mock
+    private LocationLocalDataSource locationLocalDataSource;
+
+    @Mock
+    private VideoLocalDataSource videoLocalDataSource;
+
+    @Mock
+    private FrameLocalDataSource frameLocalDataSource;
+
+    /**
+     * The fingerprints persisted by the data source stub.
+     */
+    private final Map<String, SequenceDetailsFingerprint> fingerprints = new HashMap<>();
+
+    private File root;
+
+    private File folder;
+
+    private DataConsistency dataConsistency;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        RxJavaPlugins.setIoSchedulerHandler(ignored -> Schedulers.trampoline());
+        root = Files.createTempDirectory("consistency").toFile();
+        folder = new File(root, SEQUENCE_ID);
+        Assert.assertTrue(folder.mkdir());
+        writeFile("track.txt");
+        writeFile("0.jpg");
+        Mockito.when(sequenceLocalDataSource.updateConsistencyStatus(anyString(), anyInt())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.updateDiskSize(anyString(), anyLong())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.updateCompressionSizeInfo(anyString(), anyInt(), anyInt())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.getFingerprint(anyString())).thenAnswer(invocation -> fingerprints.get(invocation.<String>getArgument(0)));
+        Mockito.when(sequenceLocalDataSource.updateFingerprint(anyString(), any())).thenAnswer(invocation -> {
+            fingerprints.put(invocation.getArgument(0), invocation.getArgument(1));
+            return true;
+        });
+        Mockito.when(sequenceLocalDataSource.deleteFingerprint(anyString())).thenAnswer(invocation -> fingerprints.remove(invocation.<String>getArgument(0)) != null);
+        Mockito.when(frameLocalDataSource.getFrameFilePathsLazy(anyString())).thenReturn(Flowable.empty());
+        dataConsistency = DataConsistency.getInstance(sequenceLocalDataSource,
+                locationLocalDataSource,
+                videoLocalDataSource,
+                frameLocalDataSource,
+                RuntimeEnvironment.application);
+    }
+
+    @After
+    public void tearDown() {
+        dataConsistency.dispose();
+        RxJavaPlugins.reset();
+        deleteRecursive(root);
+    }
+
+    @Test
+    public void testUnchangedValidSequenceIsSkipped() {
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+        Assert.assertEquals(0, dataConsistency.getSkippedCount());
+        Assert.assertNotNull(fingerprints.get(SEQUENCE_ID));
+
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+
+        Assert.assertEquals(1, dataConsistency.getSkippedCount());
+        Mockito.verify(sequenceLocalDataSource, Mockito.times(1)).updateCompressionSizeInfo(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testChangedSequenceIsCheckedAgain() throws IOException {
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+        writeFile("1.jpg");
+
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+
+        Assert.assertEquals(0, dataConsistency.getSkippedCount());
+        Mockito.verify(sequenceLocalDataSource, Mockito.times(2)).updateCompressionSizeInfo(anyString(), anyInt(), anyInt());
+        Assert.assertEquals(SequenceDetailsFingerprint.fromFolder(new KVFile(folder.getPath())), fingerprints.get(SEQUENCE_ID));
+    }
+
+    @Test
+    public void testMissingThenRestoredFolderIsCheckedAgain() {
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+        File removedFolder = new File(root, "removed");
+        //the rename keeps the last modified time of the folder, as a removed sd card
+        Assert.assertTrue(folder.renameTo(removedFolder));
+
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+
+        Mockito.verify(sequenceLocalDataSource).updateConsistencyStatus(SEQUENCE_ID, SequenceDetailsLocal.SequenceConsistencyStatus.EXTERNAL_DATA_MISSING);
+        Mockito.verify(sequenceLocalDataSource).updateDiskSize(SEQUENCE_ID, 0);
+        Assert.assertNull(fingerprints.get(SEQUENCE_ID));
+
+        Assert.assertTrue(removedFolder.renameTo(folder));
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.EXTERNAL_DATA_MISSING, 0);
+
+        Assert.assertEquals(0, dataConsistency.getSkippedCount());
+        Mockito.verify(sequenceLocalDataSource, Mockito.times(2)).updateConsistencyStatus(SEQUENCE_ID, SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+        Mockito.verify(sequenceLocalDataSource).updateDiskSize(SEQUENCE_ID, 6);
+        Assert.assertNotNull(fingerprints.get(SEQUENCE_ID));
+    }
+
+    @Test
+    public void testInvalidSequenceWithStoredFingerprintIsCheckedAgain() {
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.VALID);
+
+        check(SequenceDetailsLocal.SequenceConsistencyStatus.DATA_MISSING);
+
+        Assert.assertEquals(0, dataConsistency.getSkippedCount());
+        Mockito.verify(sequenceLocalDataSource, Mockito.times(2)).updateCompressionSizeInfo(anyString(), anyInt(), anyInt());
+    }
+
+    private void check(int consistencyStatus) {
+        check(consistencyStatus, DISK_SIZE);
+    }
+
+    /**
+     * Runs the data consistency for the sequence with the given persisted consistency status and disk size.
+     */
+    private void check(int consistencyStatus, long diskSize) {
+        LocalSequence localSequence = new LocalSequence(SEQUENCE_ID,
+                new SequenceDetails(new Location(""), 0, "", new DateTime()),
+                new SequenceDetailsLocal(new KVFile(folder.getPath()), diskSize, consistencyStatus),
+                new SequenceDetailsCompressionJpeg(0, null, 0));
+        Mockito.when(sequenceLocalDataSource.getSequences()).thenReturn(Single.just(Collections.singletonList(localSequence)));
+        dataConsistency.start();
+        Assert.assertEquals(DataConsistency.DataConsistencyStatus.PROCESSED, dataConsistency.getStatus());
+        Assert.assertEquals(1, dataConsistency.getProcessedCount());
+    }
+
+    private void writeFile(String name) throws IOException {
+        try (FileOutputStream outputStream = new FileOutputStream(new File(folder, name))) {
+            outputStream.write(new byte[]{1, 2, 3});
+        }
+    }
+
+    private static void deleteRecursive(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursive(child);
+            }
+        }
+        file.delete();
+    }
+}
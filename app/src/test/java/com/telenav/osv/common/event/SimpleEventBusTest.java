@@ -0,0 +1,176 @@
+package com.telenav.osv.common.event;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.telenav.osv.BenchmarkHarness;
+import com.telenav.osv.upload.progress.model.UploadUpdateBase;
+import com.telenav.osv.upload.progress.model.UploadUpdateDisk;
+import com.telenav.osv.upload.progress.model.UploadUpdateProgress;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+
+public class SimpleEventBusTest {
+
+    private static final int BENCHMARK_EVENTS = 200000;
+
+    /**
+     * The classes of the events observed by the other subscribers of the progress posts.
+     */
+    private static final Class<?>[] OTHER_EVENTS = new Class<?>[]{Boolean.class, Integer.class, Long.class, Double.class, String.class,
+            UploadUpdateDisk.class, StringBuilder.class, Character.class};
+
+    private final SimpleEventBus bus = new SimpleEventBus();
+
+    @Test
+    public void testEventsAreDispatchedToTheirClassAndSupertypes() {
+        TestObserver<UploadUpdateDisk> disk = bus.filteredObservable(UploadUpdateDisk.class).test();
+        TestObserver<UploadUpdateProgress> progress = bus.filteredObservable(UploadUpdateProgress.class).test();
+        TestObserver<UploadUpdateBase> updates = bus.filteredObservable(UploadUpdateBase.class).test();
+        TestObserver<Object> all = bus.observable().test();
+        UploadUpdateDisk diskUpdate = new UploadUpdateDisk(10);
+        UploadUpdateProgress progressUpdate = new UploadUpdateProgress(0, 10);
+
+        bus.post(diskUpdate);
+        bus.post(progressUpdate);
+        bus.post(true);
+
+        disk.assertValues(diskUpdate);
+        progress.assertValues(progressUpdate);
+        updates.assertValues(diskUpdate, progressUpdate);
+        all.assertValues(diskUpdate, progressUpdate, true);
+    }
+
+    @Test
+    public void testChannelAddedAfterPostReceivesNextEvents() {
+        bus.post(true);
+        TestObserver<Boolean> internet = bus.filteredObservable(Boolean.class).test();
+
+        bus.post(false);
+
+        internet.assertValues(false);
+    }
+
+    @Test
+    public void testPendingEventsAreConflatedByKey() {
+        TestScheduler scheduler = new TestScheduler();
+        TestObserver<UploadUpdateDisk> disk = bus.conflatedObservable(UploadUpdateDisk.class,
+                update -> UploadUpdateDisk.class,
+                (pendingUpdate, update) -> new UploadUpdateDisk(pendingUpdate.getTotalUnit() + update.getTotalUnit()),
+                scheduler).test();
+        TestObserver<UploadUpdateProgress> progress = bus.conflatedObservable(UploadUpdateProgress.class,
+                update -> update,
+                (pendingUpdate, update) -> update,
+                scheduler).test();
+        UploadUpdateProgress first = new UploadUpdateProgress(0, 10);
+        UploadUpdateProgress second = new UploadUpdateProgress(0, 20);
+
+        bus.post(new UploadUpdateDisk(10));
+        bus.post(new UploadUpdateDisk(20));
+        bus.post(first);
+        bus.post(second);
+        first.archive();
+        bus.post(first);
+        disk.assertNoValues();
+        progress.assertNoValues();
+        scheduler.triggerActions();
+
+        disk.assertValueCount(1);
+        Assert.assertEquals(30, disk.values().get(0).getTotalUnit());
+        progress.assertValues(first, second);
+        Assert.assertTrue(progress.values().get(0).isArchive());
+
+        bus.post(new UploadUpdateDisk(5));
+        scheduler.triggerActions();
+        disk.assertValueCount(2);
+        Assert.assertEquals(5, disk.values().get(1).getTotalUnit());
+    }
+
+    @Test
+    public void testDisposedConflatedObserverReceivesNothing() {
+        TestScheduler scheduler = new TestScheduler();
+        TestObserver<UploadUpdateProgress> progress = bus.conflatedObservable(UploadUpdateProgress.class,
+                update -> update,
+                (pendingUpdate, update) -> update,
+                scheduler).test();
+
+        bus.post(new UploadUpdateProgress(0, 10));
+        progress.dispose();
+        scheduler.triggerActions();
+
+        progress.assertNoValues();
+    }
+
+    @Test
+    public void testProgressPostsReachTheSameSubscribersAsOnTheFilteringBus() {
+        PublishSubject<Object> filteringBus = PublishSubject.create();
+        List<TestObserver<?>> filteringOthers = new ArrayList<>();
+        List<TestObserver<?>> channelOthers = new ArrayList<>();
+        for (Class<?> eventClass : OTHER_EVENTS) {
+            filteringOthers.add(filter(filteringBus, eventClass).test());
+            channelOthers.add(bus.filteredObservable(eventClass).test());
+        }
+        TestObserver<UploadUpdateProgress> filteringProgress = filter(filteringBus, UploadUpdateProgress.class).test();
+        TestObserver<UploadUpdateProgress> channelProgress = bus.filteredObservable(UploadUpdateProgress.class).test();
+        UploadUpdateProgress first = new UploadUpdateProgress(0, 10);
+        UploadUpdateProgress second = new UploadUpdateProgress(0, 20);
+
+        filteringBus.onNext(first);
+        filteringBus.onNext(second);
+        bus.post(first);
+        bus.post(second);
+
+        filteringProgress.assertValues(first, second);
+        channelProgress.assertValues(first, second);
+        for (int i = 0; i < OTHER_EVENTS.length; i++) {
+            filteringOthers.get(i).assertNoValues();
+            channelOthers.get(i).assertNoValues();
+        }
+    }
+
+    /**
+     * Compares the cost of the upload progress posts with the previous bus, which filtered every event for every subscriber, and the channels per event class.
+     */
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    public void testProgressPostBenchmark() {
+        PublishSubject<Object> filteringBus = PublishSubject.create();
+        CompositeDisposable disposables = new CompositeDisposable();
+        for (Class<?> eventClass : OTHER_EVENTS) {
+            disposables.add(filter(filteringBus, eventClass).subscribe());
+            disposables.add(bus.filteredObservable(eventClass).subscribe());
+        }
+        disposables.add(filter(filteringBus, UploadUpdateProgress.class).subscribe());
+        disposables.add(bus.filteredObservable(UploadUpdateProgress.class).subscribe());
+        UploadUpdateProgress update = new UploadUpdateProgress(0, BENCHMARK_EVENTS);
+        new BenchmarkHarness(String.format("Progress post with %s other subscribers", OTHER_EVENTS.length), BENCHMARK_EVENTS)
+                .measure("filtering bus", () -> {
+                    for (int i = 0; i < BENCHMARK_EVENTS; i++) {
+                        filteringBus.onNext(update);
+                    }
+                })
+                .measure("channel bus", () -> {
+                    for (int i = 0; i < BENCHMARK_EVENTS; i++) {
+                        bus.post(update);
+                    }
+                })
+                .report();
+        disposables.dispose();
+    }
+
+    /**
+     * The subscription of the previous bus.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Observable<T> filter(PublishSubject<Object> filteringBus, Class<T> eventClass) {
+        return filteringBus.filter(eventClass::isInstance).map(event -> (T) event);
+    }
+}
@@ -0,0 +1,64 @@
+package com.telenav.osv.data.collector.datatype.datatypes
+
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import org.junit.Assert.*
+import org.junit.Test
+
+class SensorSampleBufferTest {
+
+    @Test
+    fun capacityIsRoundedToPowerOfTwo() {
+        assertEquals(1, SensorSampleBuffer(LibraryUtil.ACCELEROMETER, 1).capacity)
+        assertEquals(128, SensorSampleBuffer(LibraryUtil.ACCELEROMETER, 100).capacity)
+        assertEquals(128, SensorSampleBuffer(LibraryUtil.ACCELEROMETER).capacity)
+    }
+
+    @Test
+    fun appendOverwritesOldestSample() {
+        val buffer = SensorSampleBuffer(LibraryUtil.GRAVITY, 4)
+        assertEquals(-1, buffer.latestIndex)
+        for (i in 0 until 5) {
+            buffer.append(i.toLong(), i.toFloat(), i + 0.5f, -i.toFloat())
+        }
+
+        assertEquals(5L, buffer.count)
+        assertEquals(0, buffer.latestIndex)
+        assertEquals(4L, buffer.getTimestamp(0))
+        assertEquals(4f, buffer.getxValue(0), 0f)
+        assertEquals(4.5f, buffer.getyValue(0), 0f)
+        assertEquals(-4f, buffer.getzValue(0), 0f)
+        assertEquals(1L, buffer.getTimestamp(1))
+    }
+
+    @Test
+    fun toBaseObjectCreatesSensorObject() {
+        val buffer = SensorSampleBuffer(LibraryUtil.ROTATION_VECTOR_RAW)
+        val index = buffer.append(10, 1f, 2f, 3f)
+
+        val baseObject = buffer.toBaseObject(index) as RotationVectorRawObject
+        assertEquals(LibraryUtil.ROTATION_VECTOR_RAW, baseObject.getSensorType())
+        assertEquals(LibraryUtil.PHONE_SENSOR_READ_SUCCESS, baseObject.statusCode)
+        assertEquals(10L, baseObject.timestamp)
+        assertEquals(1f, baseObject.getxValue(), 0f)
+        assertEquals(2f, baseObject.getyValue(), 0f)
+        assertEquals(3f, baseObject.getzValue(), 0f)
+    }
+
+    @Test
+    fun toBaseObjectCreatesPressureObject() {
+        val buffer = SensorSampleBuffer(LibraryUtil.PRESSURE)
+        val index = buffer.append(10, 101.3f, 0f, 0f)
+
+        val pressureObject = buffer.toBaseObject(index) as PressureObject
+        assertEquals(101.3f, pressureObject.pressure, 0f)
+        assertEquals(10L, pressureObject.timestamp)
+    }
+
+    @Test
+    fun onlyPhoneMotionAndPressureSensorsAreSampled() {
+        assertTrue(SensorSampleBuffer.isSampled(LibraryUtil.HEADING))
+        assertTrue(SensorSampleBuffer.isSampled(LibraryUtil.PRESSURE))
+        assertFalse(SensorSampleBuffer.isSampled(LibraryUtil.PHONE_GPS))
+        assertNull(SensorSampleBuffer(LibraryUtil.PHONE_GPS).toBaseObject(0))
+    }
+}
@@ -0,0 +1,135 @@
+package com.telenav.osv.data.collector.log
+
+import android.util.Log
+import com.telenav.osv.BenchmarkHarness
+import com.telenav.osv.utils.AsyncFileLogger
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Ignore
+import org.junit.Test
+import timber.log.Timber
+import java.io.File
+import java.nio.file.Files
+import java.util.*
+
+class LogWrapperTreeTest {
+
+    private val folder: File = Files.createTempDirectory("log").toFile()
+
+    @After
+    fun tearDown() {
+        Timber.uprootAll()
+        folder.listFiles()?.forEach { it.delete() }
+        folder.delete()
+    }
+
+    @Test
+    fun disabledLevelsAreNotFormatted() {
+        val argument = CountingArgument()
+        Timber.uprootAll()
+        Timber.plant(LogWrapperTree(Log.INFO))
+
+        Timber.d("Data: %s", argument)
+        Timber.v("Data: %s", argument)
+        assertEquals(0, argument.formatCount)
+
+        Timber.i("Data: %s", argument)
+        assertEquals(1, argument.formatCount)
+    }
+
+    @Test
+    fun noOpTreeFormatsNothing() {
+        val argument = CountingArgument()
+        Timber.uprootAll()
+        Timber.plant(NoOpTree())
+
+        Timber.e("Data: %s", argument)
+        assertEquals(0, argument.formatCount)
+    }
+
+    @Test
+    fun parameterizedFileEntriesMatchTheFormattedOnes() {
+        val messages = Collections.synchronizedList(ArrayList<String>())
+        val fileLogger = AsyncFileLogger(File(folder, "log_entries.txt"), 2 * ENTRIES_FRAMES, AsyncFileLogger.DEFAULT_MAX_FILE_SIZE_BYTES,
+                AsyncFileLogger.EntryListener { _, _, message -> messages.add(message) })
+
+        for (frame in 0 until ENTRIES_FRAMES) {
+            logFormattedFrame(fileLogger, frame)
+            logParameterizedFrame(fileLogger, frame)
+        }
+        fileLogger.close()
+
+        assertEquals(0L, fileLogger.droppedCount)
+        assertEquals(2 * ENTRIES_FRAMES, messages.size)
+        for (frame in 0 until ENTRIES_FRAMES) {
+            assertEquals(messages[2 * frame], messages[2 * frame + 1])
+        }
+    }
+
+    /**
+     * Measures the logging done by the recording for each captured frame: the metadata lines logged by the Timber tree of a release build, and the frame
+     * persistence entries handed to the app file logger, first formatted by the caller then with the parameterized calls.
+     */
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    fun loggingOverheadPerFrameBenchmark() {
+        val fileLogger = AsyncFileLogger(File(folder, "log_benchmark.txt"), 4 * BENCHMARK_FRAMES, AsyncFileLogger.DEFAULT_MAX_FILE_SIZE_BYTES, null)
+        Timber.uprootAll()
+        Timber.plant(LogWrapperTree(Log.INFO))
+        val finishInProgress = false
+        val flushNow = true
+        BenchmarkHarness("Logging $BENCHMARK_FRAMES frames", BENCHMARK_FRAMES)
+                .measure("formatted by the caller") {
+                    for (frame in 0 until BENCHMARK_FRAMES) {
+                        val data = METADATA_LINE + frame
+                        Timber.d("appendInFile. Finish in progress: $finishInProgress. Flush now: $flushNow. Data: $data")
+                        Timber.d("flushIfNeeded. Status: buffered lines. No: $frame")
+                        logFormattedFrame(fileLogger, frame)
+                    }
+                }
+                .measure("lazy formatting") {
+                    for (frame in 0 until BENCHMARK_FRAMES) {
+                        val data = METADATA_LINE + frame
+                        Timber.d("appendInFile. Finish in progress: %s. Flush now: %s. Data: %s", finishInProgress, flushNow, data)
+                        Timber.d("flushIfNeeded. Status: buffered lines. No: %s", frame)
+                        logParameterizedFrame(fileLogger, frame)
+                    }
+                }
+                .report()
+        fileLogger.close()
+    }
+
+    private fun logFormattedFrame(fileLogger: AsyncFileLogger, frame: Int) {
+        fileLogger.log(Log.DEBUG, TAG, String.format("save. Status: %s. Sequence id: %s. Frame id: %s. Frame index: %s. Video compression: %s.",
+                true, SEQUENCE_ID, FRAME_ID, frame, false), null, null)
+    }
+
+    private fun logParameterizedFrame(fileLogger: AsyncFileLogger, frame: Int) {
+        fileLogger.log(Log.DEBUG, TAG, "save. Status: %s. Sequence id: %s. Frame id: %s. Frame index: %s. Video compression: %s.",
+                arrayOf(true, SEQUENCE_ID, FRAME_ID, frame, false), null)
+    }
+
+    private class CountingArgument {
+
+        var formatCount = 0
+
+        override fun toString(): String {
+            formatCount++
+            return "argument"
+        }
+    }
+
+    companion object {
+        private const val TAG = "FramePersistenceManager"
+
+        private const val ENTRIES_FRAMES = 100
+
+        private const val BENCHMARK_FRAMES = 20000
+
+        private const val SEQUENCE_ID = "6c1c4a4e-1f1a-4a59-9d0e-5b7c1f2b7d11"
+
+        private const val FRAME_ID = "0b6f3c52-7e0f-4b9e-8d65-0f5cb1b1f9a4"
+
+        private const val METADATA_LINE = "1602745200.123;46.770439;23.591423;390.0;4.0;;;;;;;;;;;;"
+    }
+}
@@ -0,0 +1,167 @@
+package com.telenav.osv.data.collector.obddata
+
+import com.telenav.osv.BenchmarkHarness
+import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.datatype.datatypes.EngineSpeedObject
+import com.telenav.osv.data.collector.datatype.datatypes.EngineTorqueObject
+import com.telenav.osv.data.collector.datatype.datatypes.FuelConsumptionRateObject
+import com.telenav.osv.data.collector.datatype.datatypes.FuelLevelObject
+import com.telenav.osv.data.collector.datatype.datatypes.FuelTypeObject
+import com.telenav.osv.data.collector.datatype.datatypes.SpeedObject
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import org.junit.Assert.*
+import org.junit.Ignore
+import org.junit.Test
+import java.io.ByteArrayInputStream
+
+class ElmResponseParserTest {
+
+    private val parser = ElmResponseParser()
+
+    @Test
+    fun singleFrameResponses() {
+        assertEquals(50, (parse("410D32\r\r>").single() as SpeedObject).speed)
+        assertEquals(1726.0, (parse("41 0C 1A F8 \r\r>").single() as EngineSpeedObject).engineSpeed, 0.0)
+        assertEquals(100 / 255.0 * 0x80, (parse("412F80\r\r>").single() as FuelLevelObject).fuelLevel, 1e-9)
+        assertEquals("Gasoline", (parse("415101\r\r>").single() as FuelTypeObject).fuelType)
+        assertEquals(listOf(50, 51), parse("410D32\r410D33\r\r>").map { (it as SpeedObject).speed })
+    }
+
+    @Test
+    fun multiFrameResponses() {
+        for (response in listOf(MULTI_FRAME_RESPONSE, "00E\r0: 41 0D 32 0C 1A F8 \r1: 2F 80 5E 01 90 63 01 \r2: 2C 00 00 00 00 00 00 \r\r>")) {
+            val results = parse(response)
+
+            assertEquals(MULTI_FRAME_SENSORS, results.map { it.getSensorType() })
+            assertEquals(20.0, (results[3] as FuelConsumptionRateObject).fuelConsumptionRate, 0.0)
+            assertEquals(300, (results[4] as EngineTorqueObject).engineTorque)
+        }
+    }
+
+    @Test
+    fun linesWhichAreNotResponsesAreIgnored() {
+        assertEquals(50, (parse("SEARCHING...\r410D32\r\r>").single() as SpeedObject).speed)
+        assertEquals(50, (parse("010D1\r410D32\r\r>").single() as SpeedObject).speed)
+        assertTrue(parse("NO DATA\r\r>").isEmpty())
+        assertTrue(parse("CAN ERROR\r\r>").isEmpty())
+        assertTrue(parse("41 0D\r\r>").isEmpty())
+        assertTrue(parse("490201\r\r>").isEmpty())
+    }
+
+    @Test
+    fun goldenResponsesMatchStringConversion() {
+        for (response in GOLDEN_RESPONSES) {
+            val expected = ObdHelper.convertResults(response)
+            val actual = parse(response)
+
+            assertEquals(response, expected.map { it.getSensorType() }, actual.map { it.getSensorType() })
+            for (i in expected.indices) {
+                assertEquals(response, expected[i].statusCode, actual[i].statusCode)
+                if (expected[i].statusCode == LibraryUtil.OBD_READ_SUCCESS) {
+                    assertValueEquals(response, expected[i], actual[i])
+                }
+            }
+        }
+    }
+
+    @Test
+    fun chunkedResponseIsCompleteAtPrompt() {
+        parser.reset()
+
+        assertFalse(parser.append("410D".toByteArray()))
+        assertFalse(parser.append("32\r\r".toByteArray()))
+        assertTrue(parser.append(">".toByteArray()))
+        assertEquals(50, (parser.parse().single() as SpeedObject).speed)
+    }
+
+    @Test
+    fun responseLongerThanCapacityIsConsumed() {
+        val stream = ByteArrayInputStream(("410D32".repeat(10) + "\r\r>410C1AF8\r\r>").toByteArray())
+        val smallParser = ElmResponseParser(16)
+
+        assertTrue(smallParser.readResponse(stream, RESPONSE_WAITING_TIME_MS))
+        assertTrue(smallParser.readResponse(stream, RESPONSE_WAITING_TIME_MS))
+        assertEquals(LibraryUtil.RPM, smallParser.parse().single().getSensorType())
+    }
+
+    /**
+     * Compares the string conversion of the golden responses read from a stream with the byte level parser. The decoded values are asserted by
+     * [goldenResponsesMatchStringConversion].
+     */
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    fun parserBenchmark() {
+        val streams = GOLDEN_RESPONSES.map { ByteArrayInputStream(it.toByteArray()) }
+        BenchmarkHarness("ELM327 response ${BENCHMARK_ITERATIONS * streams.size} responses", BENCHMARK_ITERATIONS * streams.size)
+                .measure("string conversion") {
+                    for (i in 0 until BENCHMARK_ITERATIONS) {
+                        for (stream in streams) {
+                            stream.reset()
+                            ObdHelper.convertResults(ObdHelper.getRawData(stream))
+                        }
+                    }
+                }
+                .measure("byte parser") {
+                    for (i in 0 until BENCHMARK_ITERATIONS) {
+                        for (stream in streams) {
+                            stream.reset()
+                            parser.readResponse(stream, RESPONSE_WAITING_TIME_MS)
+                            parser.parse()
+                        }
+                    }
+                }
+                .report()
+    }
+
+    /**
+     * Asserts that the value decoded by the sensor converters of the string conversion is the one decoded by the parser.
+     */
+    private fun assertValueEquals(message: String, expected: BaseObject<*>, actual: BaseObject<*>) {
+        when (expected) {
+            is SpeedObject -> assertEquals(message, expected.speed, (actual as SpeedObject).speed)
+            is EngineSpeedObject -> assertEquals(message, expected.engineSpeed, (actual as EngineSpeedObject).engineSpeed, VALUE_DELTA)
+            is FuelLevelObject -> assertEquals(message, expected.fuelLevel, (actual as FuelLevelObject).fuelLevel, VALUE_DELTA)
+            is FuelTypeObject -> assertEquals(message, expected.fuelType, (actual as FuelTypeObject).fuelType)
+            is FuelConsumptionRateObject -> assertEquals(message, expected.fuelConsumptionRate, (actual as FuelConsumptionRateObject).fuelConsumptionRate, VALUE_DELTA)
+            is EngineTorqueObject -> assertEquals(message, expected.engineTorque, (actual as EngineTorqueObject).engineTorque)
+            else -> fail("$message: unexpected sensor ${expected.getSensorType()}")
+        }
+    }
+
+    private fun parse(response: String): List<BaseObject<*>> {
+        assertTrue(parser.readResponse(ByteArrayInputStream(response.toByteArray()), RESPONSE_WAITING_TIME_MS))
+        return parser.parse()
+    }
+
+    companion object {
+        private const val RESPONSE_WAITING_TIME_MS = 1000L
+
+        private const val BENCHMARK_ITERATIONS = 20000
+
+        private const val VALUE_DELTA = 1e-9
+
+        private const val MULTI_FRAME_RESPONSE = "00E\r0:410D320C1AF8\r1:2F805E01906301\r2:2C000000000000\r\r>"
+
+        private val MULTI_FRAME_SENSORS = listOf(LibraryUtil.SPEED, LibraryUtil.RPM, LibraryUtil.FUEL_TANK_LEVEL_INPUT, LibraryUtil.FUEL_CONSUMPTION_RATE,
+                LibraryUtil.ENGINE_TORQUE)
+
+        /**
+         * responses of the ELM327 to the collection requests, as received on the stream
+         */
+        private val GOLDEN_RESPONSES = listOf("410D32\r\r>",
+                "410C1AF8\r\r>",
+                "41 0C 1A F8 \r\r>",
+                "412F80\r\r>",
+                "41 2F FF \r\r>",
+                "415101\r\r>",
+                "4151FF\r\r>",
+                "415E0190\r\r>",
+                "4163012C\r\r>",
+                "410D320C1AF8\r\r>",
+                "SEARCHING...\r410D32\r\r>",
+                "NO DATA\r\r>",
+                "410D32\r410D33\r\r>",
+                "009\r0:410D320C1AF8\r1:5E019000000000\r\r>",
+                MULTI_FRAME_RESPONSE)
+    }
+}
@@ -0,0 +1,106 @@
+package com.telenav.osv.data.collector.obddata
+
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.*
+
+/**
+ * Simulated ELM327 connected to a CAN vehicle, configured as by the OBD initializer: echo, spaces and headers off.
+ *
+ * The requests written on [outputStream] are answered on [inputStream] after [latencyMs], plus [FRAME_INTERVAL_MS] for each following frame of a response
+ * split in several CAN frames. A PID missing from [pidValues] is not answered, and if [multiPidSupported] is false the requests of several PIDs are answered with NO DATA.
+ */
+class SimulatedElm327(private val latencyMs: Long,
+                      private val multiPidSupported: Boolean = true,
+                      private val pidValues: Map<String, String> = DEFAULT_PID_VALUES) {
+
+    private val response: Queue<Char> = ArrayDeque()
+
+    private var responseReadyAt = 0L
+
+    private val command = StringBuilder()
+
+    /**
+     * the requests received, in order
+     */
+    val requests: MutableList<String> = ArrayList()
+
+    val outputStream: OutputStream = object : OutputStream() {
+        override fun write(b: Int) {
+            if (b.toChar() == '\r') {
+                respond(command.toString())
+                command.setLength(0)
+            } else {
+                command.append(b.toChar())
+            }
+        }
+    }
+
+    val inputStream: InputStream = object : InputStream() {
+        override fun read(): Int {
+            val remaining = responseReadyAt - System.currentTimeMillis()
+            if (remaining > 0) {
+                Thread.sleep(remaining)
+            }
+            return response.poll()?.toInt() ?: -1
+        }
+    }
+
+    private fun respond(request: String) {
+        requests.add(request)
+        //an odd length means the request ends with the number of expected responses
+        val pids = request.substring(OBDConstants.MODE_CURRENT_DATA.length, request.length - request.length % 2).chunked(2)
+        val payload = StringBuilder(OBDConstants.PREFIX_RESPONSE_MODE1_PID)
+        if (pids.size == 1 || multiPidSupported) {
+            for (pid in pids) {
+                pidValues[pid]?.let { payload.append(pid).append(it) }
+            }
+        }
+        var frameCount = 1
+        val lines = if (payload.length == OBDConstants.PREFIX_RESPONSE_MODE1_PID.length) {
+            NO_DATA
+        } else if (payload.length <= SINGLE_FRAME_LENGTH * 2) {
+            payload.toString()
+        } else {
+            val builder = StringBuilder(String.format(Locale.US, "%03X", payload.length / 2))
+            builder.append('\r').append("0:").append(payload, 0, FIRST_FRAME_LENGTH * 2)
+            var position = FIRST_FRAME_LENGTH * 2
+            while (position < payload.length) {
+                val frame = StringBuilder(payload.substring(position, Math.min(position + CONSECUTIVE_FRAME_LENGTH * 2, payload.length)))
+                while (frame.length < CONSECUTIVE_FRAME_LENGTH * 2) {
+                    frame.append("00")
+                }
+                builder.append('\r').append(Integer.toHexString(frameCount % 16).toUpperCase(Locale.US)).append(':').append(frame)
+                position += CONSECUTIVE_FRAME_LENGTH * 2
+                frameCount++
+            }
+            builder.toString()
+        }
+        for (character in "$lines\r\r>") {
+            response.add(character)
+        }
+        responseReadyAt = System.currentTimeMillis() + latencyMs + (frameCount - 1) * FRAME_INTERVAL_MS
+    }
+
+    companion object {
+        const val FRAME_INTERVAL_MS = 5L
+
+        const val NO_DATA = "NO DATA"
+
+        private const val SINGLE_FRAME_LENGTH = 7
+
+        private const val FIRST_FRAME_LENGTH = 6
+
+        private const val CONSECUTIVE_FRAME_LENGTH = 7
+
+        /**
+         * speed 50 km/h, 1726 rpm, fuel level 50.2%, gasoline, 20 l/h, 300 Nm
+         */
+        val DEFAULT_PID_VALUES = mapOf(OBDConstants.PID_SPEED to "32",
+                OBDConstants.PID_RPM to "1AF8",
+                OBDConstants.PID_FUEL_TANK_LEVEL_INPUT to "80",
+                OBDConstants.PID_FUEL_TYPE to "01",
+                OBDConstants.PID_FUEL_CONSUMPTION_RATE to "0190",
+                OBDConstants.PID_ENGINE_TORQUE to "012C")
+    }
+}
@@ -0,0 +1,145 @@
+package com.telenav.osv.data.collector.obddata.manager
+
+import com.telenav.osv.BenchmarkHarness
+import com.telenav.osv.data.collector.datatype.datatypes.BaseObject
+import com.telenav.osv.data.collector.datatype.datatypes.EngineSpeedObject
+import com.telenav.osv.data.collector.datatype.datatypes.EngineTorqueObject
+import com.telenav.osv.data.collector.datatype.datatypes.FuelConsumptionRateObject
+import com.telenav.osv.data.collector.datatype.datatypes.SpeedObject
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import com.telenav.osv.data.collector.obddata.ElmResponseParser
+import com.telenav.osv.data.collector.obddata.OBDConstants
+import com.telenav.osv.data.collector.obddata.ObdHelper
+import com.telenav.osv.data.collector.obddata.SimulatedElm327
+import org.junit.Assert.*
+import org.junit.Ignore
+import org.junit.Test
+import java.util.*
+
+class ObdCommandSchedulerTest {
+
+    private val responseParser = ElmResponseParser()
+
+    @Test
+    fun requestsGroupDistinctSensorsInFrequencyOrder() {
+        val scheduler = ObdCommandScheduler(arrayOf(LibraryUtil.SPEED, LibraryUtil.RPM, LibraryUtil.FUEL_TANK_LEVEL_INPUT, LibraryUtil.SPEED, LibraryUtil.RPM)) { true }
+
+        assertEquals("010D0C2F2", scheduler.nextRequest()!!.command)
+        assertEquals("010D0C1", scheduler.nextRequest()!!.command)
+        assertEquals("010D0C2F2", scheduler.nextRequest()!!.command)
+    }
+
+    @Test
+    fun singleSensorRequestKeepsLegacyCommand() {
+        val scheduler = ObdCommandScheduler(arrayOf(LibraryUtil.SPEED, LibraryUtil.RPM, LibraryUtil.VEHICLE_ID)) { it == LibraryUtil.SPEED }
+
+        assertEquals(OBDConstants.CMD_SPEED, scheduler.nextRequest()!!.command)
+        assertEquals(OBDConstants.CMD_SPEED, scheduler.nextRequest()!!.command)
+        assertNull(ObdCommandScheduler(arrayOf(LibraryUtil.SPEED)) { false }.nextRequest())
+    }
+
+    @Test
+    fun multiFrameResponseIsConverted() {
+        val results = ObdHelper.convertResults("00E\r0:410D320C1AF8\r1:2F805E01906301\r2:2C000000000000")
+
+        assertEquals(listOf(LibraryUtil.SPEED, LibraryUtil.RPM, LibraryUtil.FUEL_TANK_LEVEL_INPUT, LibraryUtil.FUEL_CONSUMPTION_RATE, LibraryUtil.ENGINE_TORQUE),
+                results.map { it.getSensorType() })
+        assertEquals(50, (results[0] as SpeedObject).speed)
+        assertEquals(1726.0, (results[1] as EngineSpeedObject).engineSpeed, 0.0)
+        assertEquals(20.0, (results[3] as FuelConsumptionRateObject).fuelConsumptionRate, 0.0)
+        assertEquals(300, (results[4] as EngineTorqueObject).engineTorque)
+        assertEquals(50, (ObdHelper.convertResults("410D32")[0] as SpeedObject).speed)
+        assertTrue(ObdHelper.convertResults(SimulatedElm327.NO_DATA).isEmpty())
+    }
+
+    @Test
+    fun missingSensorIsRequestedAlone() {
+        val values = HashMap(SimulatedElm327.DEFAULT_PID_VALUES)
+        values.remove(OBDConstants.PID_FUEL_TANK_LEVEL_INPUT)
+        val elm327 = SimulatedElm327(0, true, values)
+        val scheduler = ObdCommandScheduler(arrayOf(LibraryUtil.SPEED, LibraryUtil.RPM, LibraryUtil.FUEL_TANK_LEVEL_INPUT)) { true }
+
+        for (i in 0 until ObdCommandScheduler.MAX_MISSED_RESPONSES) {
+            assertEquals(2, collect(scheduler, elm327).size)
+        }
+
+        assertEquals("010D0C1", scheduler.nextRequest()!!.command)
+        assertEquals(OBDConstants.CMD_FUEL_TANK_LEVEL_INPUT, scheduler.nextRequest()!!.command)
+        assertEquals(ObdCommandScheduler.MAX_PIDS_PER_REQUEST, scheduler.maxPidsPerRequest)
+    }
+
+    @Test
+    fun unansweredMultiPidRequestsFallBackToSinglePid() {
+        val elm327 = SimulatedElm327(0, false)
+        val scheduler = ObdCommandScheduler(arrayOf(LibraryUtil.SPEED, LibraryUtil.RPM)) { true }
+
+        for (i in 0 until ObdCommandScheduler.MAX_FAILED_REQUESTS) {
+            assertTrue(collect(scheduler, elm327).isEmpty())
+        }
+
+        assertEquals(1, scheduler.maxPidsPerRequest)
+        assertEquals(LibraryUtil.SPEED, collect(scheduler, elm327).single().getSensorType())
+        assertEquals(LibraryUtil.RPM, collect(scheduler, elm327).single().getSensorType())
+        assertEquals(OBDConstants.CMD_RPM, elm327.requests.last())
+    }
+
+    /**
+     * Compares the collection of a fast speed, a fast rpm and a slow fuel consumption, as weighted by [OBDFrequencyManager], on an ELM327 answering after
+     * [BENCHMARK_LATENCY_MS]: one PID per request read after the fixed delay of the legacy collection, then the multi PID requests read until the prompt.
+     * Each round collects at least [BENCHMARK_SAMPLES] samples, therefore the reported time is the time per sample.
+     */
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    fun sampleCollectionBenchmark() {
+        val sensorFrequencies = arrayOf<String?>(LibraryUtil.SPEED, LibraryUtil.RPM, LibraryUtil.FUEL_CONSUMPTION_RATE, LibraryUtil.SPEED, LibraryUtil.RPM)
+        val legacyElm327 = SimulatedElm327(BENCHMARK_LATENCY_MS)
+        val scheduledElm327 = SimulatedElm327(BENCHMARK_LATENCY_MS)
+        val scheduler = ObdCommandScheduler(sensorFrequencies) { true }
+
+        BenchmarkHarness("OBD collection with $BENCHMARK_LATENCY_MS ms latency", BENCHMARK_SAMPLES)
+                .measure("single PID with $LEGACY_DELAY_MS ms delay") {
+                    var samples = 0
+                    while (samples < BENCHMARK_SAMPLES) {
+                        for (sensor in sensorFrequencies) {
+                            ObdHelper.sendCommand(legacyElm327.outputStream, ObdHelper.getCommandFromSensorType(sensor))
+                            Thread.sleep(LEGACY_DELAY_MS)
+                            if (ObdHelper.convertResult(ObdHelper.getRawData(legacyElm327.inputStream)) != null) {
+                                samples++
+                            }
+                        }
+                    }
+                }
+                .measure("multi PID") {
+                    var samples = 0
+                    while (samples < BENCHMARK_SAMPLES) {
+                        samples += collect(scheduler, scheduledElm327).size
+                    }
+                }
+                .report()
+    }
+
+    /**
+     * Sends the next request of the scheduler and reads the response as the Bluetooth and Wifi collection does.
+     */
+    private fun collect(scheduler: ObdCommandScheduler, elm327: SimulatedElm327): List<BaseObject<*>> {
+        val request = scheduler.nextRequest()!!
+        ObdHelper.sendCommand(elm327.outputStream, request.command)
+        responseParser.readResponse(elm327.inputStream, RESPONSE_WAITING_TIME_MS)
+        val results = ArrayList(responseParser.parse())
+        scheduler.onResponse(request, results)
+        return results
+    }
+
+    companion object {
+        private const val RESPONSE_WAITING_TIME_MS = 1000L
+
+        private const val BENCHMARK_LATENCY_MS = 30L
+
+        private const val BENCHMARK_SAMPLES = 20
+
+        /**
+         * the fixed delay of the legacy collection before reading the response to a sensor command
+         */
+        private const val LEGACY_DELAY_MS = 100L
+    }
+}
@@ -0,0 +1,92 @@
+package com.telenav.osv.event;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.EventBusBuilder;
+import org.greenrobot.eventbus.Subscribe;
+import org.greenrobot.eventbus.SubscriberMethod;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+import com.telenav.osv.BenchmarkHarness;
+import com.telenav.osv.activity.MainActivity;
+import com.telenav.osv.activity.PlayerActivity;
+import com.telenav.osv.manager.network.UploadManager;
+import com.telenav.osv.ui.ScreenComposer;
+import com.telenav.osv.ui.fragment.SettingsFragment;
+import com.telenav.osv.ui.fragment.UploadProgressFragment;
+import com.telenav.osv.ui.fragment.UserProfileFragment;
+
+/**
+ * Checks that the generated index holds the subscriber methods of the app subscribers. The ignored benchmark compares their registration on a cold bus, with the
+ * subscriber methods found by reflection and with the generated index.
+ */
+public class EventBusIndexBenchmarkTest {
+
+    private static final Class<?>[] SUBSCRIBERS = new Class<?>[]{MainActivity.class, PlayerActivity.class, SettingsFragment.class, UploadProgressFragment.class,
+            UserProfileFragment.class, ScreenComposer.class, UploadManager.class};
+
+    private static final int BENCHMARK_ITERATIONS = 200;
+
+    @Test
+    public void testIndexHoldsAppSubscribers() {
+        KVEventBusIndex index = new KVEventBusIndex();
+        for (Class<?> subscriber : SUBSCRIBERS) {
+            Assert.assertNotNull(subscriber.getSimpleName(), index.getSubscriberInfo(subscriber));
+        }
+    }
+
+    @Test
+    public void testIndexMatchesAnnotatedMethods() {
+        KVEventBusIndex index = new KVEventBusIndex();
+        for (Class<?> subscriber : SUBSCRIBERS) {
+            Set<SubscriberMethod> expected = new HashSet<>();
+            for (Method method : subscriber.getDeclaredMethods()) {
+                Subscribe subscribe = method.getAnnotation(Subscribe.class);
+                if (subscribe != null && Modifier.isPublic(method.getModifiers()) && method.getParameterTypes().length == 1) {
+                    expected.add(new SubscriberMethod(method, method.getParameterTypes()[0], subscribe.threadMode(), subscribe.priority(), subscribe.sticky()));
+                }
+            }
+            Set<SubscriberMethod> actual = new HashSet<>(Arrays.asList(index.getSubscriberInfo(subscriber).getSubscriberMethods()));
+            Assert.assertFalse(subscriber.getSimpleName(), expected.isEmpty());
+            Assert.assertEquals(subscriber.getSimpleName(), expected, actual);
+        }
+    }
+
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    public void testRegistrationBenchmark() {
+        Objenesis objenesis = new ObjenesisStd();
+        Object[] subscribers = new Object[SUBSCRIBERS.length];
+        for (int i = 0; i < SUBSCRIBERS.length; i++) {
+            //the subscribers are only registered, their constructors which need the android framework are not called
+            subscribers[i] = objenesis.newInstance(SUBSCRIBERS[i]);
+        }
+        new BenchmarkHarness(String.format("EventBus registration of %s subscribers on a cold bus", subscribers.length), BENCHMARK_ITERATIONS)
+                .measure("reflection", () -> registerOnColdBus(EventBus.builder().ignoreGeneratedIndex(true), subscribers))
+                .measure("index", () -> registerOnColdBus(EventBus.builder().addIndex(new KVEventBusIndex()), subscribers))
+                .report();
+    }
+
+    /**
+     * Registers and unregisters the subscribers, the cache of subscriber methods being cleared before each iteration as on a cold start.
+     */
+    private static void registerOnColdBus(EventBusBuilder builder, Object[] subscribers) {
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            EventBus.clearCaches();
+            EventBus bus = builder.build();
+            for (Object subscriber : subscribers) {
+                bus.register(subscriber);
+            }
+            for (Object subscriber : subscribers) {
+                bus.unregister(subscriber);
+            }
+        }
+    }
+}
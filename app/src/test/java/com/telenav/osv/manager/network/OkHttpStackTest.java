@@ -0,0 +1,110 @@
+package com.telenav.osv.manager.network;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.http.HttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.toolbox.StringRequest;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(RobolectricTestRunner.class)
+public class OkHttpStackTest {
+
+    private static final String BODY_CONTENT_TYPE = "application/x-www-form-urlencoded; charset=UTF-8";
+
+    private MockWebServer server;
+
+    private OkHttpClient client;
+
+    private OkHttpStack stack;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient();
+        stack = new OkHttpStack(client);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    @Test
+    public void testGetReturnsStatusHeadersAndBody() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201).addHeader("X-Test", "value").setBody("response"));
+        Request<String> request = new StringRequest(Request.Method.GET, server.url("/get").toString(), null, null) {
+
+            @Override
+            public Map<String, String> getHeaders() {
+                return Collections.singletonMap("X-Request", "request");
+            }
+        };
+
+        HttpResponse response = stack.performRequest(request, Collections.singletonMap("If-None-Match", "etag"));
+
+        Assert.assertEquals(201, response.getStatusLine().getStatusCode());
+        Assert.assertEquals("value", response.getFirstHeader("X-Test").getValue());
+        Assert.assertEquals("response", EntityUtils.toString(response.getEntity()));
+        RecordedRequest recordedRequest = server.takeRequest();
+        Assert.assertEquals("GET", recordedRequest.getMethod());
+        Assert.assertEquals("request", recordedRequest.getHeader("X-Request"));
+        Assert.assertEquals("etag", recordedRequest.getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testPostSendsBodyParams() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(204));
+        Request<String> request = new StringRequest(Request.Method.POST, server.url("/post").toString(), null, null) {
+
+            @Override
+            protected Map<String, String> getParams() {
+                Map<String, String> params = new HashMap<>();
+                params.put("access_token", "token");
+                return params;
+            }
+        };
+
+        HttpResponse response = stack.performRequest(request, Collections.emptyMap());
+
+        Assert.assertEquals(204, response.getStatusLine().getStatusCode());
+        Assert.assertNull(response.getEntity());
+        RecordedRequest recordedRequest = server.takeRequest();
+        Assert.assertEquals("POST", recordedRequest.getMethod());
+        Assert.assertEquals(BODY_CONTENT_TYPE, recordedRequest.getHeader("Content-Type"));
+        Assert.assertEquals("access_token=token", recordedRequest.getBody().readString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRequestTimeoutKeepsConnectionPool() throws Exception {
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setBody("second"));
+        Request<String> first = new StringRequest(Request.Method.GET, server.url("/first").toString(), null, null);
+        Request<String> second = new StringRequest(Request.Method.GET, server.url("/second").toString(), null, null);
+        second.setRetryPolicy(new DefaultRetryPolicy(DefaultRetryPolicy.DEFAULT_TIMEOUT_MS * 10, 0, 1));
+
+        EntityUtils.toString(stack.performRequest(first, Collections.emptyMap()).getEntity());
+        EntityUtils.toString(stack.performRequest(second, Collections.emptyMap()).getEntity());
+
+        Assert.assertEquals(0, server.takeRequest().getSequenceNumber());
+        //the second request reuses the connection of the first one although it has a different timeout
+        Assert.assertEquals(1, server.takeRequest().getSequenceNumber());
+        Assert.assertEquals(1, client.connectionPool().connectionCount());
+    }
+}
@@ -0,0 +1,244 @@
+package com.telenav.osv.manager.network.cache;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import com.android.volley.Cache;
+
+public class AppendOnlyDiskCacheTest {
+
+    private static final long MAX_SIZE_BYTES = 10 * 1024;
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("volley").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testEntriesSurviveReload() {
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        cache.put("first", entry(100, (byte) 1));
+        cache.put("second", entry(200, (byte) 2));
+        cache.put("first", entry(300, (byte) 3));
+        cache.remove("second");
+
+        AppendOnlyDiskCache reloaded = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+
+        Assert.assertEquals(1, reloaded.size());
+        Assert.assertNull(reloaded.get("second"));
+        Cache.Entry entry = reloaded.get("first");
+        Assert.assertEquals(300, entry.data.length);
+        Assert.assertEquals(3, entry.data[299]);
+        Assert.assertEquals("etag", entry.etag);
+        Assert.assertEquals(Long.MAX_VALUE, entry.ttl);
+        Assert.assertEquals("value", entry.responseHeaders.get("header"));
+    }
+
+    @Test
+    public void testTruncatedRecordIsDiscarded() throws IOException {
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        cache.put("first", entry(100, (byte) 1));
+        cache.put("second", entry(100, (byte) 2));
+        File file = new File(folder, AppendOnlyDiskCache.FILE_NAME);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 10);
+        }
+
+        AppendOnlyDiskCache reloaded = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+
+        Assert.assertNotNull(reloaded.get("first"));
+        Assert.assertNull(reloaded.get("second"));
+        reloaded.put("third", entry(100, (byte) 3));
+        Assert.assertEquals(2, new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES).size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreDropped() {
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        for (int i = 0; i < 3; i++) {
+            cache.put("key" + i, entry(3 * 1024, (byte) i));
+        }
+        cache.get("key0");
+        cache.put("key3", entry(3 * 1024, (byte) 3));
+
+        Assert.assertNotNull(cache.get("key0"));
+        Assert.assertNull(cache.get("key1"));
+        Assert.assertTrue(cache.getFileSize() <= MAX_SIZE_BYTES);
+        Assert.assertEquals(cache.size(), new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES).size());
+    }
+
+    @Test
+    public void testOverwritesAreCompacted() {
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key", entry(1024, (byte) i));
+        }
+
+        Assert.assertTrue(cache.getFileSize() < 3 * 1024);
+        Assert.assertEquals(99, new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES).get("key").data[0]);
+    }
+
+    @Test
+    public void testForeignFilesAreDeleted() throws IOException {
+        File legacyFile = new File(folder, "legacy");
+        Assert.assertTrue(legacyFile.createNewFile());
+
+        new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES).get("key");
+
+        Assert.assertFalse(legacyFile.exists());
+    }
+
+    @Test
+    public void testIndexIsReplayedFromTheJournal() throws IOException {
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        cache.put("first", entry(100, (byte) 1));
+        cache.put("second", entry(100, (byte) 2));
+        // a scan of the record headers would stop at the first record and truncate the file
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(new File(folder, AppendOnlyDiskCache.FILE_NAME), "rw")) {
+            randomAccessFile.writeInt(0);
+        }
+
+        AppendOnlyDiskCache reloaded = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+
+        Assert.assertEquals(2, reloaded.size());
+        Assert.assertEquals(1, reloaded.get("first").data[0]);
+        Assert.assertEquals(2, reloaded.get("second").data[0]);
+    }
+
+    @Test
+    public void testRecordsMissingFromTheJournalAreScanned() {
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        cache.put("first", entry(100, (byte) 1));
+        cache.put("second", entry(100, (byte) 2));
+        cache.remove("first");
+        Assert.assertTrue(new File(folder, AppendOnlyDiskCache.JOURNAL_FILE_NAME).delete());
+
+        AppendOnlyDiskCache reloaded = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+
+        Assert.assertEquals(1, reloaded.size());
+        Assert.assertNull(reloaded.get("first"));
+        Assert.assertTrue(new File(folder, AppendOnlyDiskCache.JOURNAL_FILE_NAME).exists());
+        reloaded.put("third", entry(100, (byte) 3));
+        AppendOnlyDiskCache journaled = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        Assert.assertEquals(2, journaled.size());
+        Assert.assertEquals(3, journaled.get("third").data[0]);
+    }
+
+    @Test
+    public void testConcurrentAccessToDifferentKeys() throws Exception {
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            String key = "key" + thread;
+            byte value = (byte) thread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    cache.put(key, entry(512, value));
+                    Cache.Entry entry = cache.get(key);
+                    Assert.assertEquals(value, entry.data[0]);
+                    Assert.assertEquals(value, entry.data[511]);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assert.assertEquals(4, cache.size());
+        AppendOnlyDiskCache reloaded = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        for (int thread = 0; thread < 4; thread++) {
+            Assert.assertEquals(thread, reloaded.get("key" + thread).data[0]);
+        }
+    }
+
+    @Test
+    public void testFailedWriteLeavesNoPartialRecord() {
+        FailingFile[] failingFile = new FailingFile[1];
+        AppendOnlyDiskCache cache = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES) {
+            @Override
+            RandomAccessFile openFile(File cacheFile) throws IOException {
+                failingFile[0] = new FailingFile(cacheFile);
+                return failingFile[0];
+            }
+        };
+        cache.put("first", entry(100, (byte) 1));
+        long length = new File(folder, AppendOnlyDiskCache.FILE_NAME).length();
+        // the header of the record is written, the data is not
+        failingFile[0].writesBeforeFailure = 1;
+
+        cache.put("second", entry(100, (byte) 2));
+
+        Assert.assertNull(cache.get("second"));
+        Assert.assertEquals(length, new File(folder, AppendOnlyDiskCache.FILE_NAME).length());
+        AppendOnlyDiskCache afterFailure = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        Assert.assertEquals(1, afterFailure.size());
+        Assert.assertEquals(length, afterFailure.getFileSize());
+
+        cache.put("third", entry(100, (byte) 3));
+        AppendOnlyDiskCache reloaded = new AppendOnlyDiskCache(folder, MAX_SIZE_BYTES);
+        Assert.assertEquals(2, reloaded.size());
+        Assert.assertNull(reloaded.get("second"));
+        Assert.assertEquals(1, reloaded.get("first").data[0]);
+        Assert.assertEquals(3, reloaded.get("third").data[99]);
+    }
+
+    private static Cache.Entry entry(int size, byte value) {
+        Cache.Entry entry = new Cache.Entry();
+        entry.data = new byte[size];
+        entry.data[size - 1] = value;
+        entry.data[0] = value;
+        entry.etag = "etag";
+        entry.ttl = Long.MAX_VALUE;
+        entry.softTtl = Long.MAX_VALUE;
+        entry.responseHeaders = Collections.singletonMap("header", "value");
+        return entry;
+    }
+
+    /**
+     * Cache file which fails a write after the given number of writes, in order to leave a partial record.
+     */
+    private static class FailingFile extends RandomAccessFile {
+
+        private int writesBeforeFailure = -1;
+
+        private FailingFile(File file) throws FileNotFoundException {
+            super(file, "rw");
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            if (writesBeforeFailure == 0) {
+                writesBeforeFailure = -1;
+                throw new IOException("Injected failure.");
+            }
+            if (writesBeforeFailure > 0) {
+                writesBeforeFailure--;
+            }
+            super.write(b);
+        }
+    }
+}
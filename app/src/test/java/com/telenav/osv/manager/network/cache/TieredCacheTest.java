@@ -0,0 +1,113 @@
+package com.telenav.osv.manager.network.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import com.android.volley.Cache;
+
+@RunWith(RobolectricTestRunner.class)
+public class TieredCacheTest {
+
+    private static final int MEMORY_SIZE_BYTES = 8 * 1024;
+
+    private File folder;
+
+    private AppendOnlyDiskCache diskCache;
+
+    private TieredCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("volley").toFile();
+        diskCache = new AppendOnlyDiskCache(folder, AppendOnlyDiskCache.DEFAULT_MAX_SIZE_BYTES);
+        cache = new TieredCache(MEMORY_SIZE_BYTES, diskCache);
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testMemoryHitReturnsSameData() {
+        Cache.Entry entry = entry(100);
+        cache.put("key", entry);
+
+        Assert.assertSame(entry.data, cache.get("key").data);
+        Assert.assertEquals(1, cache.getMemoryHitCount());
+        Assert.assertEquals(0, cache.getDiskHitCount());
+    }
+
+    @Test
+    public void testDiskHitIsPromotedToMemory() {
+        diskCache.put("key", entry(100));
+
+        Cache.Entry diskEntry = cache.get("key");
+        Cache.Entry memoryEntry = cache.get("key");
+
+        Assert.assertSame(diskEntry.data, memoryEntry.data);
+        Assert.assertEquals(1, cache.getDiskHitCount());
+        Assert.assertEquals(1, cache.getMemoryHitCount());
+    }
+
+    @Test
+    public void testReturnedEntryHasOwnMutableHeaders() {
+        cache.put("key", entry(100));
+        diskCache.put("headerless", entry(100));
+
+        Cache.Entry first = cache.get("key");
+        first.responseHeaders.put("ETag", "changed");
+        Cache.Entry headerless = cache.get("headerless");
+        headerless.responseHeaders.put("ETag", "changed");
+
+        Assert.assertFalse(cache.get("key").responseHeaders.containsKey("ETag"));
+        Assert.assertFalse(cache.get("headerless").responseHeaders.containsKey("ETag"));
+    }
+
+    @Test
+    public void testLargeEntryIsKeptOnlyOnDisk() {
+        cache.put("key", entry(MEMORY_SIZE_BYTES / 2));
+
+        Assert.assertNotNull(cache.get("key"));
+        Assert.assertNotNull(cache.get("key"));
+        Assert.assertEquals(0, cache.getMemoryHitCount());
+        Assert.assertEquals(2, cache.getDiskHitCount());
+    }
+
+    @Test
+    public void testMissAndRemove() {
+        cache.put("key", entry(100));
+        cache.remove("key");
+
+        Assert.assertNull(cache.get("key"));
+        Assert.assertNull(cache.get("other"));
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidateExpiresBothTiers() {
+        cache.put("key", entry(100));
+
+        cache.invalidate("key", true);
+
+        Assert.assertTrue(cache.get("key").isExpired());
+        Assert.assertTrue(diskCache.get("key").isExpired());
+    }
+
+    private static Cache.Entry entry(int size) {
+        Cache.Entry entry = new Cache.Entry();
+        entry.data = new byte[size];
+        entry.ttl = Long.MAX_VALUE;
+        entry.softTtl = Long.MAX_VALUE;
+        return entry;
+    }
+}
@@ -0,0 +1,137 @@
+package com.telenav.osv.recorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import android.graphics.ImageFormat;
+import android.location.Location;
+import com.telenav.osv.data.frame.datasource.local.FrameLocalDataSource;
+import com.telenav.osv.data.location.datasource.LocationLocalDataSource;
+import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
+import com.telenav.osv.data.sequence.model.LocalSequence;
+import com.telenav.osv.data.sequence.model.details.SequenceDetails;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal;
+import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionJpeg;
+import com.telenav.osv.item.KVFile;
+import com.telenav.osv.recorder.camera.model.CameraFrame;
+import com.telenav.osv.recorder.metadata.callback.MetadataPhotoVideoCallback;
+import com.telenav.osv.recorder.persistence.RecordingFrame;
+import com.telenav.osv.recorder.persistence.frame.FramePersistenceManager;
+import com.telenav.osv.recorder.persistence.frame.JpegFileWriter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+
+@RunWith(RobolectricTestRunner.class)
+public class RecordingSequenceFinisherTest {
+
+    private static final String SEQUENCE_ID = "sequence";
+
+    private static final int GROUP_FRAMES = 10;
+
+    private static final long GROUP_DELAY_MS = 60_000;
+
+    private static final byte[] JPEG = new byte[]{1, 2, 3, 4};
+
+    private static final byte[] METADATA = new byte[]{5, 6, 7};
+
+    @Mock
+    private SequenceLocalDataSource sequenceLocalDataSource;
+
+    @Mock
+    private LocationLocalDataSource locationLocalDataSource;
+
+    @Mock
+    private FrameLocalDataSource frameLocalDataSource;
+
+    @Mock
+    private MetadataPhotoVideoCallback metadataPhotoVideoCallback;
+
+    private File folder;
+
+    private LocalSequence sequence;
+
+    private FramePersistenceManager persistenceManager;
+
+    private RecordingSequenceFinisher sequenceFinisher;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        folder = Files.createTempDirectory("sequence").toFile();
+        Files.write(new File(folder, "track.txt").toPath(), METADATA);
+        Mockito.when(frameLocalDataSource.runInTransaction(any())).thenAnswer(invocation -> ((Callable<Boolean>) invocation.getArgument(0)).call());
+        Mockito.when(frameLocalDataSource.saveFrame(any(), anyString())).thenReturn(true);
+        Mockito.when(locationLocalDataSource.saveLocation(any(), isNull(), anyString())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.updateDiskSize(anyString(), anyLong())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.updateSequence(any())).thenReturn(true);
+        persistenceManager = new FramePersistenceManager(sequenceLocalDataSource,
+                locationLocalDataSource,
+                frameLocalDataSource,
+                metadataPhotoVideoCallback,
+                new JpegFileWriter(GROUP_FRAMES, JpegFileWriter.SyncPolicy.NONE, 0, Runnable::run),
+                GROUP_FRAMES,
+                GROUP_DELAY_MS);
+        sequence = new LocalSequence(SEQUENCE_ID,
+                new SequenceDetails(new Location(""), 0, "", null),
+                new SequenceDetailsLocal(new KVFile(folder.getPath()), 0, 0),
+                new SequenceDetailsCompressionJpeg(0, null, 0));
+        persistenceManager.start(sequence, null, ImageFormat.JPEG).blockingAwait();
+        sequenceFinisher = new RecordingSequenceFinisher(sequenceLocalDataSource);
+    }
+
+    @After
+    public void tearDown() {
+        new KVFile(folder.getPath()).delete();
+    }
+
+    @Test
+    public void testSequenceWithPendingFramesIsKeptOnStop() {
+        persistenceManager.save(newFrame()).blockingAwait();
+        persistenceManager.save(newFrame()).blockingAwait();
+        //both frames are still pending since neither the group size nor the delay were reached
+        Assert.assertEquals(0, sequence.getCompressionDetails().getLocationsCount());
+
+        Assert.assertTrue(sequenceFinisher.stopPersistence(persistenceManager));
+        Assert.assertTrue(sequenceFinisher.finishSequence(sequence));
+
+        Assert.assertEquals(2, sequence.getCompressionDetails().getLocationsCount());
+        Mockito.verify(sequenceLocalDataSource, Mockito.never()).deleteSequence(anyString());
+        //the disk size including the metadata is the last one persisted, therefore it is not overwritten by the commit of the pending frames
+        InOrder inOrder = Mockito.inOrder(sequenceLocalDataSource);
+        inOrder.verify(sequenceLocalDataSource).updateDiskSize(SEQUENCE_ID, 2 * JPEG.length);
+        inOrder.verify(sequenceLocalDataSource).updateDiskSize(SEQUENCE_ID, 2 * JPEG.length + METADATA.length);
+        inOrder.verify(sequenceLocalDataSource, Mockito.never()).updateDiskSize(anyString(), anyLong());
+    }
+
+    @Test
+    public void testSequenceWithoutFramesIsRemovedOnStop() {
+        Assert.assertTrue(sequenceFinisher.stopPersistence(persistenceManager));
+        Assert.assertFalse(sequenceFinisher.finishSequence(sequence));
+
+        Mockito.verify(sequenceLocalDataSource).deleteSequence(SEQUENCE_ID);
+        Assert.assertFalse(folder.exists());
+    }
+
+    @Test
+    public void testStopWithoutPersistence() {
+        Assert.assertTrue(sequenceFinisher.stopPersistence(null));
+    }
+
+    private RecordingFrame newFrame() {
+        return new RecordingFrame(new CameraFrame(JPEG, ImageFormat.JPEG), new Location(""), 0, 0);
+    }
+}
@@ -0,0 +1,165 @@
+package com.telenav.osv.recorder.camera.util;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import com.telenav.osv.BenchmarkHarness;
+
+/**
+ * Checks that {@link YuvFramePacker} produces the same planar frame as the byte by byte implementation previously used by
+ * {@code Camera2InitManager}. The packing time for synthetic padded planes is reported by the ignored benchmark.
+ */
+public class YuvFramePackerTest {
+
+    private static final int BENCHMARK_ITERATIONS = 20;
+
+    private static final int BENCHMARK_WIDTH = 3264;
+
+    private static final int BENCHMARK_HEIGHT = 2448;
+
+    private static final int ROW_PADDING = 64;
+
+    private Random random = new Random(42);
+
+    @Test
+    public void testPackPlanarFrame() {
+        assertSameOutput(8, 6, 8, 1);
+        assertSameOutput(8, 6, 16, 1);
+        assertSameOutput(640, 480, 704, 1);
+    }
+
+    @Test
+    public void testPackSemiPlanarFrame() {
+        assertSameOutput(8, 6, 8, 2);
+        assertSameOutput(8, 6, 16, 2);
+        assertSameOutput(640, 480, 704, 2);
+    }
+
+    @Test
+    public void testPackFullSizeSemiPlanarFrame() {
+        assertSameOutput(BENCHMARK_WIDTH, BENCHMARK_HEIGHT, BENCHMARK_WIDTH + ROW_PADDING, 2);
+    }
+
+    @Test
+    public void testPackReusesPackerBetweenFrames() {
+        YuvFramePacker packer = new YuvFramePacker();
+        assertSameOutput(packer, 320, 240, 320 + ROW_PADDING, 2);
+        assertSameOutput(packer, 640, 480, 640 + ROW_PADDING, 2);
+        assertSameOutput(packer, 320, 240, 320 + ROW_PADDING, 1);
+    }
+
+    @Test
+    public void testInterleavedPathMatchesStridedPath() {
+        assertInterleavedSameAsStrided(8, 6, 16);
+        assertInterleavedSameAsStrided(8, 6, 18);
+        assertInterleavedSameAsStrided(640, 480, 640);
+        assertInterleavedSameAsStrided(640, 480, 704);
+        assertInterleavedSameAsStrided(2, 2, 4);
+    }
+
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    public void testPackBenchmark() {
+        int rowStride = BENCHMARK_WIDTH + ROW_PADDING;
+        int pixelStride = 2;
+        ByteBuffer[] planes = createPlanes(BENCHMARK_WIDTH, BENCHMARK_HEIGHT, rowStride, pixelStride);
+        byte[] frameData = new byte[BENCHMARK_WIDTH * BENCHMARK_HEIGHT * 3];
+        YuvFramePacker packer = new YuvFramePacker();
+
+        new BenchmarkHarness(String.format("YuvFramePacker %sx%s", BENCHMARK_WIDTH, BENCHMARK_HEIGHT), BENCHMARK_ITERATIONS)
+                .measure("legacy", () -> {
+                    for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                        packLegacy(planes, BENCHMARK_WIDTH, BENCHMARK_HEIGHT, rowStride, pixelStride, frameData);
+                    }
+                })
+                .measure("packer", () -> {
+                    for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                        pack(packer, planes, BENCHMARK_WIDTH, BENCHMARK_HEIGHT, rowStride, pixelStride, frameData);
+                    }
+                })
+                .report();
+    }
+
+    private void assertSameOutput(int width, int height, int rowStride, int pixelStride) {
+        assertSameOutput(new YuvFramePacker(), width, height, rowStride, pixelStride);
+    }
+
+    private void assertSameOutput(YuvFramePacker packer, int width, int height, int rowStride, int pixelStride) {
+        ByteBuffer[] planes = createPlanes(width, height, rowStride, pixelStride);
+        byte[] expected = new byte[width * height * 3];
+        byte[] actual = new byte[width * height * 3];
+        packLegacy(planes, width, height, rowStride, pixelStride, expected);
+        pack(packer, planes, width, height, rowStride, pixelStride, actual);
+        Assert.assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Packs the same chroma plane with a pixel stride of 2 through the interleaved fast path and through the generic strided path and compares them byte by byte.
+     */
+    private void assertInterleavedSameAsStrided(int width, int height, int rowStride) {
+        int pixelStride = 2;
+        ByteBuffer uvPlane = createPlanes(width, height, rowStride, pixelStride)[1];
+        int chromaSize = width / 2 * height / 2;
+        byte[] expected = new byte[chromaSize];
+        byte[] actual = new byte[chromaSize];
+
+        int stridedEnd = new YuvFramePacker().packStridedPlane(uvPlane, rowStride, pixelStride, width / 2, height / 2, expected, 0);
+        int interleavedEnd = new YuvFramePacker().packChromaPlane(uvPlane, rowStride, pixelStride, width, height, actual, 0);
+
+        Assert.assertEquals(chromaSize, stridedEnd);
+        Assert.assertEquals(stridedEnd, interleavedEnd);
+        Assert.assertEquals(0, uvPlane.position());
+        Assert.assertArrayEquals(expected, actual);
+    }
+
+    private void pack(YuvFramePacker packer, ByteBuffer[] planes, int width, int height, int rowStride, int pixelStride, byte[] frameData) {
+        int index = packer.packLumaPlane(planes[0], rowStride, width, height, frameData, 0);
+        index = packer.packChromaPlane(planes[1], rowStride, pixelStride, width, height, frameData, index);
+        packer.packChromaPlane(planes[2], rowStride, pixelStride, width, height, frameData, index);
+    }
+
+    /**
+     * Creates the Y, U and V planes the way the camera delivers them, the last row of each plane is not padded.
+     */
+    private ByteBuffer[] createPlanes(int width, int height, int rowStride, int pixelStride) {
+        ByteBuffer yPlane = createPlane(rowStride * (height - 1) + width);
+        int uvRowSpan = (width / 2 - 1) * pixelStride + 1;
+        int uvSize = rowStride * (height / 2 - 1) + uvRowSpan;
+        return new ByteBuffer[]{yPlane, createPlane(uvSize), createPlane(uvSize)};
+    }
+
+    private ByteBuffer createPlane(int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        ByteBuffer plane = ByteBuffer.allocateDirect(size);
+        plane.put(data);
+        plane.rewind();
+        return plane;
+    }
+
+    /**
+     * The implementation of {@code Camera2InitManager#readYFrameData} and {@code Camera2InitManager#readUVFrameData} before the packer.
+     */
+    private void packLegacy(ByteBuffer[] planes, int width, int height, int rowStride, int pixelStride, byte[] frameData) {
+        ByteBuffer yFrameData = planes[0].duplicate();
+        ByteBuffer yBuffer = ByteBuffer.allocate(width * height);
+        byte[] yData = new byte[yFrameData.remaining()];
+        yFrameData.get(yData, 0, yFrameData.remaining());
+        for (int i = 0; i < height; i++) {
+            yBuffer.put(yData, i * rowStride, width);
+        }
+        yBuffer.flip();
+        yBuffer.get(frameData, 0, width * height);
+        int index = width * height;
+        for (int plane = 1; plane < planes.length; plane++) {
+            for (int row = 0; row < height / 2; row++) {
+                for (int col = 0; col < width / 2; col++) {
+                    frameData[index] = planes[plane].get(col * pixelStride + row * (rowStride));
+                    index++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.telenav.osv.recorder.encoder.converter;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import android.graphics.ImageFormat;
+import android.media.MediaCodecInfo;
+import com.telenav.osv.BenchmarkHarness;
+
+/**
+ * Checks that each {@link FrameConverter} writes into the encoder input buffer the same frame as the conversion previously used by
+ * {@code VideoPersistenceManager}, followed by the copy from {@code VideoEncoderManager}. The previous conversion, which wrote the converted frame in a padding
+ * after the raw frame, is kept below as the reference. The time per frame for synthetic frames is reported by the ignored benchmark.
+ */
+public class FrameConverterTest {
+
+    private static final int BENCHMARK_ITERATIONS = 20;
+
+    private static final int BENCHMARK_WIDTH = 3264;
+
+    private static final int BENCHMARK_HEIGHT = 2448;
+
+    private static final int[][] FORMATS = {
+            {ImageFormat.NV21, MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420Planar},
+            {ImageFormat.NV21, MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420SemiPlanar},
+            {ImageFormat.YUV_420_888, MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420Planar},
+            {ImageFormat.YUV_420_888, MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420SemiPlanar}};
+
+    private Random random = new Random(42);
+
+    @Test
+    public void testCreate() {
+        Assert.assertTrue(FrameConverter.create(FORMATS[0][0], FORMATS[0][1]) instanceof NV21ToYUV420PlanarConverter);
+        Assert.assertTrue(FrameConverter.create(FORMATS[1][0], FORMATS[1][1]) instanceof NV21ToYUV420SemiPlanarConverter);
+        Assert.assertTrue(FrameConverter.create(FORMATS[2][0], FORMATS[2][1]) instanceof YUV420ToYUV420PlanarConverter);
+        Assert.assertTrue(FrameConverter.create(FORMATS[3][0], FORMATS[3][1]) instanceof YUV420ToYUV420SemiPlanarConverter);
+    }
+
+    @Test
+    public void testConvertMatchesLegacyConversion() {
+        for (int[] format : FORMATS) {
+            FrameConverter converter = FrameConverter.create(format[0], format[1]);
+            assertSameOutput(converter, format, 4, 2);
+            assertSameOutput(converter, format, 8, 6);
+            //the converter is reused between frames of different sizes
+            assertSameOutput(converter, format, 640, 480);
+            assertSameOutput(converter, format, 320, 240);
+        }
+    }
+
+    @Test
+    public void testConvertDoesNotModifyFrame() {
+        for (int[] format : FORMATS) {
+            byte[] frame = createFrame(8, 6, FrameConverter.getFrameLength(8, 6));
+            byte[] expected = frame.clone();
+            FrameConverter.create(format[0], format[1]).convert(frame, 8, 6, ByteBuffer.allocateDirect(frame.length));
+            Assert.assertArrayEquals(expected, frame);
+        }
+    }
+
+    @Test
+    public void testConvertFullSizeFrameMatchesLegacyConversion() {
+        for (int[] format : FORMATS) {
+            assertSameOutput(FrameConverter.create(format[0], format[1]), format, BENCHMARK_WIDTH, BENCHMARK_HEIGHT);
+        }
+    }
+
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    public void testConverterBenchmark() {
+        ByteBuffer inputBuffer = ByteBuffer.allocateDirect(FrameConverter.getFrameLength(BENCHMARK_WIDTH, BENCHMARK_HEIGHT));
+        for (int[] format : FORMATS) {
+            byte[] frame = createFrame(BENCHMARK_WIDTH, BENCHMARK_HEIGHT, BENCHMARK_WIDTH * BENCHMARK_HEIGHT * 3);
+            FrameConverter converter = FrameConverter.create(format[0], format[1]);
+            new BenchmarkHarness(String.format("%s %sx%s", converter.getClass().getSimpleName(), BENCHMARK_WIDTH, BENCHMARK_HEIGHT), BENCHMARK_ITERATIONS)
+                    .measure("legacy", () -> {
+                        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                            inputBuffer.clear();
+                            convertLegacy(format, frame, BENCHMARK_WIDTH, BENCHMARK_HEIGHT, inputBuffer);
+                        }
+                    })
+                    .measure("converter", () -> {
+                        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                            inputBuffer.clear();
+                            converter.convert(frame, BENCHMARK_WIDTH, BENCHMARK_HEIGHT, inputBuffer);
+                        }
+                    })
+                    .report();
+        }
+    }
+
+    private void assertSameOutput(FrameConverter converter, int[] format, int width, int height) {
+        int frameLength = FrameConverter.getFrameLength(width, height);
+        //the legacy conversion needs the padding after the raw frame
+        byte[] frame = createFrame(width, height, width * height * 3);
+        ByteBuffer expected = ByteBuffer.allocateDirect(frameLength);
+        convertLegacy(format, frame.clone(), width, height, expected);
+        ByteBuffer actual = ByteBuffer.allocateDirect(frameLength);
+
+        int written = converter.convert(frame, width, height, actual);
+
+        Assert.assertEquals(frameLength, written);
+        Assert.assertEquals(frameLength, actual.position());
+        expected.flip();
+        actual.flip();
+        Assert.assertEquals(expected, actual);
+    }
+
+    /**
+     * The conversion from {@code VideoPersistenceManager#getConvertedFrameData} followed by the copy from {@code VideoEncoderManager#queueInputBuffer}
+     * before the converters.
+     */
+    private void convertLegacy(int[] format, byte[] frame, int width, int height, ByteBuffer inputBuffer) {
+        byte[] converted;
+        if (format[1] == MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420SemiPlanar) {
+            converted = format[0] == ImageFormat.NV21 ?
+                    convertLegacyNV21ToYUV420SemiPlanar(frame, width, height) :
+                    convertLegacyYUV420ToYUV420SemiPlanar(frame, width, height);
+        } else {
+            converted = format[0] == ImageFormat.NV21 ?
+                    convertLegacyNV21ToYUV420Planar(frame, width, height) :
+                    convertLegacyYUV420ToYUV420Planar(frame, width, height);
+        }
+        int frameLength = FrameConverter.getFrameLength(width, height);
+        inputBuffer.put(converted, frameLength, frameLength);
+    }
+
+    private static byte[] convertLegacyNV21ToYUV420Planar(byte[] frameData, int width, int height) {
+        int yLength = width * height;
+        int index = 0;
+        int yConvertedStartIndex = yLength + yLength / 2;
+        int uConvertedStartIndex = yConvertedStartIndex + yLength;
+        for (int i = yConvertedStartIndex; i < uConvertedStartIndex; i++) {
+            frameData[i] = frameData[index];
+            index++;
+        }
+        int vIndex = index;
+        int uIndex = index + 1;
+        for (int i = uConvertedStartIndex; i < uConvertedStartIndex + yLength / 4; i++) {
+            frameData[i] = frameData[uIndex];
+            frameData[i + yLength / 4] = frameData[vIndex];
+            uIndex += 2;
+            vIndex += 2;
+        }
+        return frameData;
+    }
+
+    private static byte[] convertLegacyNV21ToYUV420SemiPlanar(byte[] frameData, int width, int height) {
+        int yLength = width * height;
+        int index = 0;
+        int yConvertedStartIndex = yLength + yLength / 2;
+        int uConvertedStartIndex = yConvertedStartIndex + yLength;
+        for (int i = yConvertedStartIndex; i < uConvertedStartIndex; i++) {
+            frameData[i] = frameData[index];
+            index++;
+        }
+        int vIndex = index;
+        int uIndex = index + 1;
+        for (int i = uConvertedStartIndex; i < uConvertedStartIndex + yLength / 2; i += 2) {
+            frameData[i] = frameData[uIndex];
+            frameData[i + 1] = frameData[vIndex];
+            uIndex += 2;
+            vIndex += 2;
+        }
+        return frameData;
+    }
+
+    private static byte[] convertLegacyYUV420ToYUV420Planar(byte[] frameData, int width, int height) {
+        int yLength = width * height;
+        int index = yLength + yLength / 2;
+        for (int i = 0; i < yLength + yLength / 2; i++) {
+            frameData[index] = frameData[i];
+            index++;
+        }
+        return frameData;
+    }
+
+    private static byte[] convertLegacyYUV420ToYUV420SemiPlanar(byte[] frameData, int width, int height) {
+        int yLength = width * height;
+        int index = 0;
+        int yConvertedStartIndex = yLength + yLength / 2;
+        int uConvertedStartIndex = yConvertedStartIndex + yLength;
+        for (int i = yConvertedStartIndex; i < uConvertedStartIndex; i++) {
+            frameData[i] = frameData[index];
+            index++;
+        }
+        int indexU = yLength;
+        int indexV = yLength + yLength / 4;
+        for (int i = uConvertedStartIndex; i < uConvertedStartIndex + yLength / 2; i += 2) {
+            frameData[i] = frameData[indexU];
+            frameData[i + 1] = frameData[indexV];
+            indexU++;
+            indexV++;
+        }
+        return frameData;
+    }
+
+    /**
+     * @return an array of the given length having a random raw frame at the beginning.
+     */
+    private byte[] createFrame(int width, int height, int length) {
+        byte[] frame = new byte[length];
+        byte[] raw = new byte[FrameConverter.getFrameLength(width, height)];
+        random.nextBytes(raw);
+        System.arraycopy(raw, 0, frame, 0, raw.length);
+        return frame;
+    }
+}
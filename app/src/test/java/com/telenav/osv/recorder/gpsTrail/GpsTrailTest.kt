@@ -0,0 +1,70 @@
+package com.telenav.osv.recorder.gpsTrail
+
+import android.location.Location
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+
+class GpsTrailTest {
+
+    @Test
+    fun testStraightLineIsDecimatedByMaxDistance() {
+        val gpsTrail = GpsTrail()
+        var appended = 0
+        //1000 locations at ~1.1 m apart on a meridian
+        for (i in 0 until 1000) {
+            if (gpsTrail.append(location(46.77 + i * 1e-5, 23.59)) >= 0) {
+                appended++
+            }
+        }
+
+        assertEquals(appended, gpsTrail.size)
+        assertEquals(1000 * 1.11 / GpsTrail.DEFAULT_MAX_DISTANCE_METERS, gpsTrail.size.toDouble(), 5.0)
+    }
+
+    @Test
+    fun testTurnIsKept() {
+        val gpsTrail = GpsTrail()
+        assertEquals(0, gpsTrail.append(location(46.77, 23.59)))
+        assertEquals(0, gpsTrail.append(location(46.77005, 23.59)))
+        //~5.5 m further north on the same heading
+        assertEquals(-1, gpsTrail.append(location(46.7701, 23.59)))
+        //~6 m east from the last stored location
+        assertEquals(0, gpsTrail.append(location(46.77005, 23.59008)))
+
+        assertEquals(3, gpsTrail.size)
+    }
+
+    @Test
+    fun testCapacityDropsOldestLocations() {
+        val gpsTrail = GpsTrail(capacity = 3)
+        val locations = (0 until 5).map { location(46.77 + it * 1e-3, 23.59) }
+        val dropped = locations.map { gpsTrail.append(it) }
+
+        assertEquals(listOf(0, 0, 0, 1, 1), dropped)
+        assertEquals(3, gpsTrail.size)
+        val snapshot = gpsTrail.snapshot()
+        for (i in 0 until 3) {
+            assertSame(locations[i + 2], snapshot[i])
+        }
+    }
+
+    @Test
+    fun testClearRemovesLocations() {
+        val gpsTrail = GpsTrail()
+        gpsTrail.append(location(46.77, 23.59))
+        gpsTrail.clear()
+
+        assertEquals(0, gpsTrail.size)
+        assertEquals(0, gpsTrail.append(location(46.77, 23.59)))
+    }
+
+    private fun location(latitude: Double, longitude: Double): Location {
+        val location = mock(Location::class.java)
+        `when`(location.latitude).thenReturn(latitude)
+        `when`(location.longitude).thenReturn(longitude)
+        return location
+    }
+}
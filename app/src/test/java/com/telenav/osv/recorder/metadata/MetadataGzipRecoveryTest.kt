@@ -0,0 +1,84 @@
+package com.telenav.osv.recorder.metadata
+
+import com.telenav.osv.item.KVFile
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.nio.file.Files
+import java.util.zip.GZIPOutputStream
+
+class MetadataGzipRecoveryTest {
+
+    private lateinit var sequenceFolder: KVFile
+
+    @Before
+    fun setUp() {
+        sequenceFolder = KVFile(Files.createTempDirectory("sequence").toFile().path)
+    }
+
+    @After
+    fun tearDown() {
+        sequenceFolder.listFiles()?.forEach { it.delete() }
+        sequenceFolder.delete()
+    }
+
+    @Test
+    fun `test truncated stream is recovered up to the last sync flush`() {
+        val expected = StringBuilder()
+        val partFile = File(sequenceFolder, MetadataGzipRecovery.FILE_PART_NAME)
+        val fileOutput = FileOutputStream(partFile)
+        val writer = GZIPOutputStream(fileOutput, BUFFER_SIZE, true).bufferedWriter()
+        for (i in 0 until LINE_COUNT) {
+            val line = "1600000000.$i;2;46.77;23.59;$i;\n"
+            writer.write(line)
+            expected.append(line)
+            if (i % FLUSH_INTERVAL == FLUSH_INTERVAL - 1) {
+                writer.flush()
+            }
+        }
+        writer.flush()
+        //simulates a crash, the lines written after the last sync flush and the gzip trailer never reach the disk
+        writer.write("1600000001.000;2;46.77;23.59;0;\n")
+        fileOutput.close()
+
+        val recoveredFile = MetadataGzipRecovery.recover(sequenceFolder)
+
+        assertNotNull(recoveredFile)
+        assertFalse(partFile.exists())
+        assertEquals(expected.toString(), inflate(recoveredFile!!))
+    }
+
+    @Test
+    fun `test empty partial file is removed without metadata`() {
+        val partFile = File(sequenceFolder, MetadataGzipRecovery.FILE_PART_NAME)
+        partFile.createNewFile()
+
+        assertNull(MetadataGzipRecovery.recover(sequenceFolder))
+        assertFalse(partFile.exists())
+        assertEquals(0, sequenceFolder.listFiles()!!.size)
+    }
+
+    @Test
+    fun `test folder without partial file is not changed`() {
+        assertNull(MetadataGzipRecovery.recover(sequenceFolder))
+        assertEquals(0, sequenceFolder.listFiles()!!.size)
+    }
+
+    private fun inflate(file: File): String {
+        val output = ByteArrayOutputStream()
+        MetadataGzipRecovery.inflateAvailable(file, output)
+        return String(output.toByteArray(), Charsets.UTF_8)
+    }
+
+    private companion object {
+        const val LINE_COUNT = 1000
+
+        const val FLUSH_INTERVAL = 40
+
+        const val BUFFER_SIZE = 8192
+    }
+}
@@ -1,6 +1,13 @@
 package com.telenav.osv.recorder.metadata
 
 import com.telenav.RandomUtils
+import com.telenav.osv.data.collector.datatype.datatypes.GravityObject
+import com.telenav.osv.data.collector.datatype.datatypes.HeadingObject
+import com.telenav.osv.data.collector.datatype.datatypes.LinearAccelerationObject
+import com.telenav.osv.data.collector.datatype.datatypes.PressureObject
+import com.telenav.osv.data.collector.datatype.datatypes.RotationVectorRawObject
+import com.telenav.osv.data.collector.datatype.datatypes.ThreeAxesObject
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
 import com.telenav.osv.recorder.metadata.model.MetadataHeader
 import com.telenav.osv.recorder.metadata.model.body.*
 import com.telenav.osv.utils.StringUtils
@@ -162,6 +169,47 @@ class MetadataLoggerTest {
         assertEquals(obdBodyNoTimestamp.toString(), StringUtils.EMPTY_STRING)
     }
 
+    @Test
+    fun testSampleLinesMatchBodies() {
+        val logger = metadataLogger!!
+        val line = StringBuilder()
+        for (timestamp in longArrayOf(1568000000000L, 1568000000007L, 1568000000042L, 1568000000999L)) {
+            val x = RandomUtils.generateFloat()
+            val y = RandomUtils.generateFloat()
+            val z = RandomUtils.generateFloat()
+
+            line.setLength(0)
+            logger.appendAcceleration(line, timestamp, x, y, z)
+            assertEquals(logger.bodyAcceleration(threeAxes(LinearAccelerationObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS), timestamp, x, y, z)), line.toString())
+
+            line.setLength(0)
+            logger.appendGravity(line, timestamp, x, y, z)
+            assertEquals(logger.bodyGravity(threeAxes(GravityObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS), timestamp, x, y, z)), line.toString())
+
+            line.setLength(0)
+            logger.appendAttitude(line, timestamp, x, y, z)
+            assertEquals(logger.bodyAttitude(threeAxes(RotationVectorRawObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS), timestamp, x, y, z)), line.toString())
+
+            line.setLength(0)
+            logger.appendCompass(line, timestamp, z)
+            assertEquals(logger.bodyCompass(threeAxes(HeadingObject(LibraryUtil.PHONE_SENSOR_READ_SUCCESS), timestamp, x, y, z)), line.toString())
+
+            line.setLength(0)
+            logger.appendPressure(line, timestamp, x)
+            val pressureObject = PressureObject(x, LibraryUtil.PHONE_SENSOR_READ_SUCCESS)
+            pressureObject.timestamp = timestamp
+            assertEquals(logger.bodyPressure(pressureObject), line.toString())
+        }
+    }
+
+    private fun threeAxes(threeAxesObject: ThreeAxesObject, timestamp: Long, x: Float, y: Float, z: Float): ThreeAxesObject {
+        threeAxesObject.timestamp = timestamp
+        threeAxesObject.setxValue(x)
+        threeAxesObject.setyValue(y)
+        threeAxesObject.setzValue(z)
+        return threeAxesObject
+    }
+
     private fun testMetadataBody(metadataBodyBase: MetadataBodyBase, result: String) {
         assertNotNull(result)
 
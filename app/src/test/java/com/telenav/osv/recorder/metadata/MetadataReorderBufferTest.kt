@@ -0,0 +1,94 @@
+package com.telenav.osv.recorder.metadata
+
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import com.telenav.osv.recorder.metadata.sensor.MetadataSensorFusion
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+class MetadataReorderBufferTest {
+
+    private val written = ArrayList<Record>()
+
+    private lateinit var reorderBuffer: MetadataReorderBuffer
+
+    @Before
+    fun setUp() {
+        reorderBuffer = MetadataReorderBuffer(WINDOW_MS)
+    }
+
+    @Test
+    fun recordsAreHeldForTheWindow() {
+        add(1000, PHOTO)
+        add(2000, GPS)
+        assertTrue(written.isEmpty())
+
+        add(5000, GPS)
+
+        assertEquals(listOf(Record(1000, PHOTO)), written)
+    }
+
+    @Test
+    fun lateRecordsAreWrittenInTimestampOrder() {
+        add(1200, PHOTO)
+        add(1000, GPS)
+        add(1100, FRAME)
+        add(1100, PRESSURE)
+
+        reorderBuffer.flush()
+
+        assertEquals(listOf(Record(1000, GPS), Record(1100, FRAME), Record(1100, PRESSURE), Record(1200, PHOTO)), written)
+    }
+
+    @Test
+    fun recordOlderThanTheWrittenOnesIsWrittenRightAway() {
+        add(1000, GPS)
+        add(6000, GPS)
+        add(500, PHOTO)
+
+        assertEquals(listOf(Record(1000, GPS), Record(500, PHOTO)), written)
+    }
+
+    @Test
+    fun fusedFramesAndPressureSamplesAreWrittenInOrder() {
+        val sensorFusion = MetadataSensorFusion(FRAME_PERIOD_MS, MAX_LAG_MS, object : MetadataSensorFusion.FrameListener {
+            override fun onFrame(frame: MetadataSensorFusion.Frame) {
+                add(frame.timestamp, FRAME)
+            }
+        })
+        //the photo is received before the batch of samples which contains its timestamp
+        add(1150, PHOTO)
+        for (timestamp in 1000L..1500L step 50) {
+            sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, timestamp, 1f, 0f, 0f)
+        }
+        add(1050, PRESSURE)
+        add(1350, PRESSURE)
+        for (timestamp in 1000L..1500L step 50) {
+            sensorFusion.onSample(LibraryUtil.GRAVITY, timestamp, 9f, 0f, 0f)
+        }
+
+        sensorFusion.flush()
+        reorderBuffer.flush()
+
+        assertEquals(written.sortedBy { it.timestamp }, written)
+        assertEquals(listOf(1050L, 1350L), written.filter { it.type == PRESSURE }.map { it.timestamp })
+        assertEquals(listOf(1000L, 1100L, 1200L, 1300L, 1400L, 1500L), written.filter { it.type == FRAME }.map { it.timestamp })
+        assertEquals(Record(1150, PHOTO), written[3])
+    }
+
+    private fun add(timestamp: Long, type: String) {
+        reorderBuffer.add(timestamp) { written.add(Record(timestamp, type)) }
+    }
+
+    private data class Record(val timestamp: Long, val type: String)
+
+    companion object {
+        private const val WINDOW_MS = 4000L
+        private const val FRAME_PERIOD_MS = 100L
+        private const val MAX_LAG_MS = 2000L
+        private const val PHOTO = "photo"
+        private const val GPS = "gps"
+        private const val FRAME = "frame"
+        private const val PRESSURE = "pressure"
+    }
+}
@@ -0,0 +1,191 @@
+package com.telenav.osv.recorder.metadata.binary
+
+import com.telenav.osv.recorder.metadata.TemplateID
+import com.telenav.osv.recorder.metadata.model.MetadataFooter
+import com.telenav.osv.recorder.metadata.model.MetadataHeader
+import com.telenav.osv.recorder.metadata.model.body.*
+import com.telenav.osv.utils.FormatUtils
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.io.*
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+
+class MetadataBinaryConverterTest {
+
+    private lateinit var binaryFile: File
+
+    @Before
+    fun setUp() {
+        binaryFile = File.createTempFile("track", ".bin")
+    }
+
+    @After
+    fun tearDown() {
+        binaryFile.delete()
+    }
+
+    @Test
+    fun `test converted text matches the text writer output`() {
+        val expected = StringBuilder(MetadataHeader().toString())
+        val block = MetadataColumnBlock()
+        val blocks = ArrayList<ByteArray>()
+        for (i in 0 until RECORD_COUNT) {
+            expected.append(appendRecord(block, i))
+            if (block.isFull()) {
+                blocks.add(serialize(block))
+                block.clear()
+            }
+        }
+        blocks.add(serialize(block))
+        expected.append(MetadataFooter().toString())
+        writeBinaryFile(blocks, true)
+
+        assertEquals(expected.toString(), convert())
+    }
+
+    @Test
+    fun `test unfinished file is converted up to the last complete block`() {
+        val expected = StringBuilder(MetadataHeader().toString())
+        val block = MetadataColumnBlock()
+        for (i in 0 until TemplateID.values().size) {
+            expected.append(appendRecord(block, i))
+        }
+        val completeBlock = serialize(block)
+        block.clear()
+        appendRecord(block, 0)
+        val partialBlock = serialize(block).copyOf(PARTIAL_BLOCK_SIZE)
+        writeBinaryFile(listOf(completeBlock, partialBlock), false)
+
+        assertEquals(expected.toString(), convert())
+    }
+
+    /**
+     * Appends a record for the template selected by the given index both in the block and as text, by using the text body models.
+     * @return the text line for the record.
+     */
+    private fun appendRecord(block: MetadataColumnBlock, index: Int): String {
+        val timestamp = TIMESTAMP + index * 100L
+        val formattedTimestamp = FormatUtils.getMetadataFormatTimestampFromLong(timestamp)
+        val value = index * 0.37f
+        val templateID = TemplateID.values()[index % TemplateID.values().size]
+        block.beginRecord(templateID, timestamp)
+        return when (templateID) {
+            TemplateID.DEVICE -> {
+                val values = Array(7) { "value$it" }
+                values.forEach { block.putString(it) }
+                MetadataBodyDevice(formattedTimestamp, values[0], values[1], values[2], values[3], values[4], values[5], values[6]).toString()
+            }
+            TemplateID.GPS -> {
+                block.putDouble(46.77 + value)
+                block.putDouble(23.59 + value)
+                block.putDouble(value.toDouble())
+                block.putFloat(value)
+                block.putFloat(value)
+                block.putFloat(value * 2)
+                MetadataBodyGps(formattedTimestamp, 46.77 + value, 23.59 + value, value.toDouble(), value, value, value * 2).toString()
+            }
+            TemplateID.OBD -> {
+                block.putInt(index)
+                MetadataBodyObd(formattedTimestamp, index).toString()
+            }
+            TemplateID.CAMERA -> {
+                block.putDouble(value * 3.0)
+                block.putDouble(value * 2.0)
+                block.putFloat(value)
+                MetadataBodyCamera(formattedTimestamp, value * 3.0, value * 2.0, value).toString()
+            }
+            TemplateID.EXIF -> {
+                block.putFloat(value)
+                block.putInt(4032)
+                block.putInt(3024)
+                MetadataBodyCameraExif(formattedTimestamp, value, 4032, 3024).toString()
+            }
+            TemplateID.PRESSURE -> {
+                block.putFloat(1013.25f + value)
+                MetadataBodyPressure(formattedTimestamp, 1013.25f + value).toString()
+            }
+            TemplateID.COMPASS -> {
+                block.putFloat(value)
+                MetadataBodyCompass(formattedTimestamp, value).toString()
+            }
+            TemplateID.PHOTO -> {
+                val hasCompass = index % 2 == 0
+                block.putInt(0)
+                block.putInt(index)
+                block.putLong(timestamp)
+                block.putDouble(46.77 + value)
+                block.putDouble(23.59 + value)
+                block.putFloat(value)
+                block.putFloat(value)
+                block.putPresence(hasCompass)
+                if (hasCompass) block.putLong(timestamp)
+                block.putPresence(hasCompass)
+                if (hasCompass) block.putFloat(value)
+                block.putPresence(false)
+                block.putPresence(false)
+                MetadataPhotoVideo(formattedTimestamp, 0, index, formattedTimestamp, 46.77 + value, 23.59 + value, value, value,
+                        if (hasCompass) formattedTimestamp else null, if (hasCompass) value else null, null, null).toString()
+            }
+            TemplateID.ACCELERATION -> {
+                putThreeAxes(block, value)
+                MetadataBodyAcceleration(formattedTimestamp, value, -value, value * 2).toString()
+            }
+            TemplateID.ATTITUDE -> {
+                putThreeAxes(block, value)
+                MetadataBodyAttitude(formattedTimestamp, value, -value, value * 2).toString()
+            }
+            TemplateID.GRAVITY -> {
+                putThreeAxes(block, value)
+                MetadataBodyGravity(formattedTimestamp, value, -value, value * 2).toString()
+            }
+        }
+    }
+
+    private fun putThreeAxes(block: MetadataColumnBlock, value: Float) {
+        block.putFloat(value)
+        block.putFloat(-value)
+        block.putFloat(value * 2)
+    }
+
+    private fun serialize(block: MetadataColumnBlock): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { block.writeTo(it) }
+        return bytes.toByteArray()
+    }
+
+    private fun writeBinaryFile(blocks: List<ByteArray>, finished: Boolean) {
+        val fileOutput = FileOutputStream(binaryFile)
+        val header = DataOutputStream(fileOutput)
+        header.writeInt(MetadataBinaryFormat.MAGIC)
+        header.writeInt(MetadataBinaryFormat.VERSION)
+        val output = DataOutputStream(DeflaterOutputStream(fileOutput, Deflater(), true))
+        for (block in blocks) {
+            output.write(block)
+            output.flush()
+        }
+        if (finished) {
+            output.writeInt(MetadataBinaryFormat.END_MARKER)
+            output.close()
+        } else {
+            //simulates a crash, the stream is only sync flushed and never finished
+            fileOutput.close()
+        }
+    }
+
+    private fun convert(): String {
+        val output = ByteArrayOutputStream()
+        MetadataBinaryConverter.convertToText(binaryFile, output)
+        return String(output.toByteArray(), Charsets.UTF_8)
+    }
+
+    private companion object {
+        const val RECORD_COUNT = MetadataColumnBlock.MAX_RECORDS * 2 + 17
+
+        const val TIMESTAMP = 1_600_000_000_123L
+
+        const val PARTIAL_BLOCK_SIZE = 10
+    }
+}
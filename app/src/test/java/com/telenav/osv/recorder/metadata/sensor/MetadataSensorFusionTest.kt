@@ -0,0 +1,120 @@
+package com.telenav.osv.recorder.metadata.sensor
+
+import com.telenav.osv.data.collector.datatype.util.LibraryUtil
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+class MetadataSensorFusionTest {
+
+    private val frames = ArrayList<FrameValues>()
+
+    private lateinit var sensorFusion: MetadataSensorFusion
+
+    @Before
+    fun setUp() {
+        sensorFusion = MetadataSensorFusion(FRAME_PERIOD_MS, MAX_LAG_MS, object : MetadataSensorFusion.FrameListener {
+            override fun onFrame(frame: MetadataSensorFusion.Frame) {
+                frames.add(FrameValues(frame))
+            }
+        })
+    }
+
+    @Test
+    fun framesWaitForAllStreams() {
+        sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, 1000, 0f, 0f, 0f)
+        sensorFusion.onSample(LibraryUtil.GRAVITY, 1000, 1f, 0f, 0f)
+        assertEquals(1, frames.size)
+
+        sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, 1100, 10f, 0f, 0f)
+        sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, 1200, 20f, 0f, 0f)
+        sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, 1300, 30f, 0f, 0f)
+        assertEquals(1, frames.size)
+
+        sensorFusion.onSample(LibraryUtil.GRAVITY, 1150, 2f, 0f, 0f)
+        sensorFusion.onSample(LibraryUtil.GRAVITY, 1250, 3f, 0f, 0f)
+
+        assertEquals(3, frames.size)
+        assertEquals(1100L, frames[1].timestamp)
+        assertEquals(10f, frames[1].x[MetadataSensorFusion.STREAM_ACCELERATION]!!, DELTA)
+        assertEquals(1f + 2f / 3, frames[1].x[MetadataSensorFusion.STREAM_GRAVITY]!!, DELTA)
+        assertEquals(1200L, frames[2].timestamp)
+        assertEquals(20f, frames[2].x[MetadataSensorFusion.STREAM_ACCELERATION]!!, DELTA)
+        assertEquals(2.5f, frames[2].x[MetadataSensorFusion.STREAM_GRAVITY]!!, DELTA)
+        assertNull(frames[2].x[MetadataSensorFusion.STREAM_ATTITUDE])
+    }
+
+    @Test
+    fun stalledStreamDoesNotHoldFrames() {
+        sensorFusion.onSample(LibraryUtil.GRAVITY, 1000, 9f, 0f, 0f)
+        var timestamp = 1000L
+        while (timestamp <= 3500) {
+            sensorFusion.onSample(LibraryUtil.ACCELEROMETER, timestamp, 1f, 2f, 3f)
+            timestamp += FRAME_PERIOD_MS
+        }
+
+        assertEquals(26, frames.size)
+        //the last gravity sample is held for two frame periods
+        assertEquals(9f, frames.first { it.timestamp == 1200L }.x[MetadataSensorFusion.STREAM_GRAVITY]!!, DELTA)
+        assertNull(frames.first { it.timestamp == 1300L }.x[MetadataSensorFusion.STREAM_GRAVITY])
+    }
+
+    @Test
+    fun pressureIsNotAligned() {
+        assertFalse(MetadataSensorFusion.isAligned(LibraryUtil.PRESSURE))
+
+        sensorFusion.onSample(LibraryUtil.PRESSURE, 1000, 101f, 0f, 0f)
+        sensorFusion.flush()
+
+        assertTrue(frames.isEmpty())
+    }
+
+    @Test
+    fun attitudeTakesNearestSample() {
+        sensorFusion.onSample(LibraryUtil.ROTATION_VECTOR_RAW, 990, 0f, 0f, 3.1f)
+        sensorFusion.onSample(LibraryUtil.ROTATION_VECTOR_RAW, 1080, 0f, 0f, -3.1f)
+
+        assertEquals(1, frames.size)
+        assertEquals(1000L, frames[0].timestamp)
+        assertEquals(3.1f, frames[0].z[MetadataSensorFusion.STREAM_ATTITUDE]!!, DELTA)
+    }
+
+    @Test
+    fun flushEmitsPendingFramesAndGapsAreSkipped() {
+        sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, 1000, 0f, 0f, 0f)
+        sensorFusion.onSample(LibraryUtil.GRAVITY, 1000, 1f, 0f, 0f)
+        sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, 1200, 20f, 0f, 0f)
+        assertEquals(1, frames.size)
+
+        sensorFusion.flush()
+        assertEquals(listOf(1000L, 1100L, 1200L), frames.map { it.timestamp })
+
+        frames.clear()
+        sensorFusion.onSample(LibraryUtil.LINEAR_ACCELERATION, 60000, 1f, 0f, 0f)
+        sensorFusion.onSample(LibraryUtil.GRAVITY, 60000, 1f, 0f, 0f)
+        //the acceleration is held for two frame periods, then the frames are skipped up to the next samples
+        assertEquals(listOf(1300L, 1400L, 60000L), frames.map { it.timestamp })
+    }
+
+    private class FrameValues(frame: MetadataSensorFusion.Frame) {
+        val timestamp = frame.timestamp
+        val x = arrayOfNulls<Float>(STREAM_COUNT)
+        val z = arrayOfNulls<Float>(STREAM_COUNT)
+
+        init {
+            for (stream in 0 until STREAM_COUNT) {
+                if (frame.hasValue(stream)) {
+                    x[stream] = frame.getxValue(stream)
+                    z[stream] = frame.getzValue(stream)
+                }
+            }
+        }
+    }
+
+    companion object {
+        private const val FRAME_PERIOD_MS = 100L
+        private const val MAX_LAG_MS = 2000L
+        private const val STREAM_COUNT = 3
+        private const val DELTA = 0.001f
+    }
+}
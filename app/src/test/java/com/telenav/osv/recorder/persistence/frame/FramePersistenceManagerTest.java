@@ -0,0 +1,239 @@
+package com.telenav.osv.recorder.persistence.frame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import android.graphics.ImageFormat;
+import android.location.Location;
+import com.telenav.osv.data.frame.datasource.local.FrameLocalDataSource;
+import com.telenav.osv.data.frame.model.Frame;
+import com.telenav.osv.data.location.datasource.LocationLocalDataSource;
+import com.telenav.osv.data.location.model.KVLocation;
+import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
+import com.telenav.osv.data.sequence.model.LocalSequence;
+import com.telenav.osv.data.sequence.model.details.SequenceDetails;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal;
+import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionJpeg;
+import com.telenav.osv.item.KVFile;
+import com.telenav.osv.recorder.camera.model.CameraFrame;
+import com.telenav.osv.recorder.metadata.callback.MetadataPhotoVideoCallback;
+import com.telenav.osv.recorder.persistence.RecordingFrame;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.TestScheduler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+
+@RunWith(RobolectricTestRunner.class)
+public class FramePersistenceManagerTest {
+
+    private static final String SEQUENCE_ID = "sequence";
+
+    private static final int GROUP_FRAMES = 3;
+
+    private static final long GROUP_DELAY_MS = 1000;
+
+    private static final byte[] JPEG = new byte[]{1, 2, 3, 4};
+
+    @Mock
+    private SequenceLocalDataSource sequenceLocalDataSource;
+
+    @Mock
+    private LocationLocalDataSource locationLocalDataSource;
+
+    @Mock
+    private FrameLocalDataSource frameLocalDataSource;
+
+    @Mock
+    private MetadataPhotoVideoCallback metadataPhotoVideoCallback;
+
+    private TestScheduler scheduler = new TestScheduler();
+
+    private File folder;
+
+    private LocalSequence sequence;
+
+    private FramePersistenceManager persistenceManager;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        RxJavaPlugins.setSingleSchedulerHandler(ignored -> scheduler);
+        folder = Files.createTempDirectory("frames").toFile();
+        Mockito.when(frameLocalDataSource.runInTransaction(any())).thenAnswer(invocation -> ((Callable<Boolean>) invocation.getArgument(0)).call());
+        Mockito.when(frameLocalDataSource.saveFrame(any(), anyString())).thenReturn(true);
+        Mockito.when(locationLocalDataSource.saveLocation(any(), isNull(), anyString())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.updateDiskSize(anyString(), anyLong())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.updateSequence(any())).thenReturn(true);
+        persistenceManager = new FramePersistenceManager(sequenceLocalDataSource,
+                locationLocalDataSource,
+                frameLocalDataSource,
+                metadataPhotoVideoCallback,
+                new JpegFileWriter(GROUP_FRAMES, JpegFileWriter.SyncPolicy.NONE, 0, Runnable::run),
+                GROUP_FRAMES,
+                GROUP_DELAY_MS);
+        sequence = newSequence(folder);
+        persistenceManager.start(sequence, null, ImageFormat.JPEG).test();
+        scheduler.triggerActions();
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaPlugins.reset();
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testFramesCommittedInGroup() {
+        for (int i = 0; i < GROUP_FRAMES - 1; i++) {
+            save().assertComplete();
+        }
+        Mockito.verify(frameLocalDataSource, Mockito.never()).runInTransaction(any());
+        Mockito.verify(metadataPhotoVideoCallback, Mockito.never()).onPhotoVideoCallback(anyLong(), anyInt(), anyInt(), any());
+        Assert.assertEquals(GROUP_FRAMES - 1, folder.listFiles().length);
+
+        save().assertComplete();
+
+        InOrder inOrder = Mockito.inOrder(frameLocalDataSource, metadataPhotoVideoCallback);
+        inOrder.verify(frameLocalDataSource).runInTransaction(any());
+        for (int i = 0; i < GROUP_FRAMES; i++) {
+            inOrder.verify(metadataPhotoVideoCallback).onPhotoVideoCallback(anyLong(), Mockito.eq(i), Mockito.eq(0), any());
+        }
+
+        Mockito.verify(frameLocalDataSource, Mockito.times(1)).runInTransaction(any());
+        Mockito.verify(frameLocalDataSource, Mockito.times(GROUP_FRAMES)).saveFrame(any(Frame.class), Mockito.eq(SEQUENCE_ID));
+        Mockito.verify(locationLocalDataSource, Mockito.times(GROUP_FRAMES)).saveLocation(any(KVLocation.class), isNull(), anyString());
+        Mockito.verify(sequenceLocalDataSource, Mockito.times(1)).updateDiskSize(SEQUENCE_ID, GROUP_FRAMES * JPEG.length);
+        Mockito.verify(sequenceLocalDataSource, Mockito.times(1)).updateSequence(any());
+    }
+
+    @Test
+    public void testPendingFramesCommittedAfterDelay() {
+        save().assertComplete();
+        Mockito.verify(frameLocalDataSource, Mockito.never()).runInTransaction(any());
+
+        scheduler.advanceTimeBy(GROUP_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        Mockito.verify(frameLocalDataSource, Mockito.times(1)).runInTransaction(any());
+        Mockito.verify(frameLocalDataSource, Mockito.times(1)).saveFrame(any(Frame.class), Mockito.eq(SEQUENCE_ID));
+    }
+
+    @Test
+    public void testPendingFramesCommittedOnStop() {
+        save().assertComplete();
+        save().assertComplete();
+
+        persistenceManager.stop().test();
+        scheduler.triggerActions();
+
+        Mockito.verify(frameLocalDataSource, Mockito.times(1)).runInTransaction(any());
+        Mockito.verify(frameLocalDataSource, Mockito.times(2)).saveFrame(any(Frame.class), Mockito.eq(SEQUENCE_ID));
+        //the scheduled commit was cancelled by the commit on stop
+        scheduler.advanceTimeBy(GROUP_DELAY_MS, TimeUnit.MILLISECONDS);
+        Mockito.verify(frameLocalDataSource, Mockito.times(1)).runInTransaction(any());
+    }
+
+    @Test
+    public void testFailedCommitRemovesUncommittedFiles() {
+        Mockito.when(locationLocalDataSource.saveLocation(any(), isNull(), anyString())).thenReturn(false);
+        for (int i = 0; i < GROUP_FRAMES - 1; i++) {
+            save().assertComplete();
+        }
+
+        save().assertError(Throwable.class);
+
+        Assert.assertEquals(0, folder.listFiles().length);
+        Mockito.verify(sequenceLocalDataSource, Mockito.never()).updateSequence(any());
+        Mockito.verify(metadataPhotoVideoCallback, Mockito.never()).onPhotoVideoCallback(anyLong(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    public void testFailedCommitRestoresSequenceCache() {
+        Mockito.when(locationLocalDataSource.saveLocation(any(), isNull(), anyString())).thenReturn(false);
+        for (int i = 0; i < GROUP_FRAMES - 1; i++) {
+            save().assertComplete();
+        }
+        save().assertError(Throwable.class);
+
+        Assert.assertEquals(0, sequence.getLocalDetails().getDiskSize());
+        Assert.assertEquals(0, sequence.getCompressionDetails().getLocationsCount());
+        Assert.assertTrue(sequence.getCompressionDetails().getCoordinates() == null || sequence.getCompressionDetails().getCoordinates().isEmpty());
+
+        Mockito.when(locationLocalDataSource.saveLocation(any(), isNull(), anyString())).thenReturn(true);
+        for (int i = 0; i < GROUP_FRAMES; i++) {
+            save().assertComplete();
+        }
+
+        for (int i = 0; i < GROUP_FRAMES; i++) {
+            Mockito.verify(metadataPhotoVideoCallback).onPhotoVideoCallback(anyLong(), Mockito.eq(i), Mockito.eq(0), any());
+        }
+        Mockito.verify(sequenceLocalDataSource).updateDiskSize(SEQUENCE_ID, GROUP_FRAMES * JPEG.length);
+        Assert.assertEquals(GROUP_FRAMES, sequence.getCompressionDetails().getLocationsCount());
+        Assert.assertEquals(GROUP_FRAMES, folder.listFiles().length);
+    }
+
+    @Test
+    public void testScheduledCommitFailureReportedOnce() {
+        Mockito.when(locationLocalDataSource.saveLocation(any(), isNull(), anyString())).thenReturn(false);
+        save().assertComplete();
+        scheduler.advanceTimeBy(GROUP_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        save().assertError(Throwable.class);
+        save().assertComplete();
+    }
+
+    @Test
+    public void testFrameNotPersistedWhenWriteFails() {
+        FramePersistenceManager frameByFrameManager = new FramePersistenceManager(sequenceLocalDataSource,
+                locationLocalDataSource,
+                frameLocalDataSource,
+                metadataPhotoVideoCallback,
+                new JpegFileWriter(GROUP_FRAMES, JpegFileWriter.SyncPolicy.NONE, 0, Runnable::run),
+                1,
+                0);
+        frameByFrameManager.start(newSequence(new File(folder, "missing")), null, ImageFormat.JPEG).test();
+        scheduler.triggerActions();
+
+        TestObserver<Void> observer = frameByFrameManager.save(newFrame()).test();
+        scheduler.triggerActions();
+
+        observer.assertError(IOException.class);
+        Mockito.verify(frameLocalDataSource, Mockito.never()).saveFrame(any(Frame.class), anyString());
+    }
+
+    private LocalSequence newSequence(File sequenceFolder) {
+        return new LocalSequence(SEQUENCE_ID,
+                new SequenceDetails(new Location(""), 0, "", null),
+                new SequenceDetailsLocal(new KVFile(sequenceFolder.getPath()), 0, 0),
+                new SequenceDetailsCompressionJpeg(0, null, 0));
+    }
+
+    private RecordingFrame newFrame() {
+        return new RecordingFrame(new CameraFrame(JPEG, ImageFormat.JPEG), new Location(""), 0, 0);
+    }
+
+    private TestObserver<Void> save() {
+        TestObserver<Void> observer = persistenceManager.save(newFrame()).test();
+        scheduler.triggerActions();
+        return observer;
+    }
+}
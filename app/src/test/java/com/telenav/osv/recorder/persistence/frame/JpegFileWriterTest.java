@@ -0,0 +1,155 @@
+package com.telenav.osv.recorder.persistence.frame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import io.reactivex.observers.TestObserver;
+
+public class JpegFileWriterTest {
+
+    private static final byte[] JPEG = new byte[]{1, 2, 3, 4};
+
+    private File folder;
+
+    private ManualExecutor executor = new ManualExecutor();
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("jpegs").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testWriteWaitsForFreeSlot() {
+        JpegFileWriter writer = new JpegFileWriter(2, JpegFileWriter.SyncPolicy.NONE, 0, executor);
+
+        writer.write(path(0), JPEG).test().assertComplete();
+        writer.write(path(1), JPEG).test().assertComplete();
+        TestObserver<Void> waiting = writer.write(path(2), JPEG).test();
+        waiting.assertNotComplete();
+        Assert.assertEquals(1, writer.getBackpressureCount());
+        Assert.assertEquals(0, folder.listFiles().length);
+
+        executor.runNext();
+
+        waiting.assertComplete();
+        Assert.assertEquals(1, folder.listFiles().length);
+        executor.runAll();
+        Assert.assertEquals(3, folder.listFiles().length);
+        Assert.assertEquals(3, writer.getWriteLatency().getCount());
+    }
+
+    @Test
+    public void testCancelledWriteDoesNotTakeSlot() {
+        JpegFileWriter writer = new JpegFileWriter(1, JpegFileWriter.SyncPolicy.NONE, 0, executor);
+        writer.write(path(0), JPEG).test().assertComplete();
+        TestObserver<Void> cancelled = writer.write(path(1), JPEG).test();
+        TestObserver<Void> waiting = writer.write(path(2), JPEG).test();
+
+        cancelled.dispose();
+        executor.runNext();
+
+        waiting.assertComplete();
+        executor.runAll();
+        Assert.assertFalse(new File(path(1)).exists());
+        Assert.assertTrue(new File(path(2)).exists());
+    }
+
+    @Test
+    public void testFailedWriteIsReported() {
+        JpegFileWriter writer = new JpegFileWriter(2, JpegFileWriter.SyncPolicy.NONE, 0, Runnable::run);
+
+        writer.write(new File(folder, "missing/0.jpg").getPath(), JPEG).test().assertComplete();
+
+        writer.write(path(1), JPEG).test().assertError(IOException.class);
+        Assert.assertFalse(writer.flush(false));
+        Assert.assertFalse(writer.close());
+        //the error is reset when the writer is closed
+        writer.write(path(2), JPEG).test().assertComplete();
+        Assert.assertTrue(writer.flush(false));
+    }
+
+    @Test
+    public void testWriteAndAwaitCompletesWhenWritten() {
+        JpegFileWriter writer = new JpegFileWriter(2, JpegFileWriter.SyncPolicy.NONE, 0, executor);
+
+        TestObserver<Void> written = writer.writeAndAwait(path(0), JPEG).test();
+        written.assertNotComplete();
+
+        executor.runNext();
+
+        written.assertComplete();
+        Assert.assertEquals(JPEG.length, new File(path(0)).length());
+    }
+
+    @Test
+    public void testWriteAndAwaitReportsItsFailure() {
+        JpegFileWriter writer = new JpegFileWriter(2, JpegFileWriter.SyncPolicy.NONE, 0, Runnable::run);
+
+        writer.writeAndAwait(new File(folder, "missing/0.jpg").getPath(), JPEG).test().assertError(IOException.class);
+    }
+
+    @Test
+    public void testCloseSyncsAndResetsStatistics() {
+        JpegFileWriter writer = new JpegFileWriter(2, JpegFileWriter.SyncPolicy.ON_CLOSE, 0, Runnable::run);
+        writer.write(path(0), JPEG).test().assertComplete();
+        writer.write(path(1), JPEG).test().assertComplete();
+        Assert.assertEquals(0, writer.getSyncLatency().getCount());
+
+        Assert.assertTrue(writer.close());
+
+        Assert.assertEquals(0, writer.getSyncLatency().getCount());
+        Assert.assertEquals(0, writer.getWriteLatency().getCount());
+        Assert.assertEquals(JPEG.length, new File(path(1)).length());
+    }
+
+    @Test
+    public void testPeriodicSync() {
+        JpegFileWriter writer = new JpegFileWriter(2, JpegFileWriter.SyncPolicy.PERIODIC, 0, Runnable::run);
+
+        writer.write(path(0), JPEG).test().assertComplete();
+        writer.write(path(1), JPEG).test().assertComplete();
+
+        Assert.assertEquals(2, writer.getSyncLatency().getCount());
+    }
+
+    private String path(int index) {
+        return new File(folder, index + ".jpg").getPath();
+    }
+
+    /**
+     * Executor which runs the tasks only when requested, in order.
+     */
+    private static class ManualExecutor implements Executor {
+
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            tasks.add(runnable);
+        }
+
+        void runNext() {
+            tasks.poll().run();
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                runNext();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.telenav.osv.recorder.score;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import com.telenav.osv.BenchmarkHarness;
+import com.telenav.osv.common.model.KVLatLng;
+import com.telenav.osv.item.Polyline;
+import com.telenav.osv.utils.ComputingDistance;
+
+/**
+ * Tests for the segment index used by the {@link PositionMatcher}, checking the candidates against a full scan for an increasing number of segments. The query
+ * latency is reported by the ignored benchmark.
+ */
+public class SegmentGridIndexTest {
+
+    private static final double MATCH_DISTANCE_LIMIT = 15d / 110000d;
+
+    private static final double CENTER_LAT = 46.77324496178227;
+
+    private static final double CENTER_LON = 23.593161462125305;
+
+    /**
+     * The half size, in degrees, of the area covered by the generated segments, similar to the bounding box requested by the matcher.
+     */
+    private static final double AREA_HALF_SIZE = 3500d / 110000d;
+
+    private static final int NODES_PER_POLYLINE = 11;
+
+    private static final int QUERY_COUNT = 2000;
+
+    private static final int BENCHMARK_QUERY_COUNT = 200;
+
+    private static final int[] BENCHMARK_POLYLINE_COUNTS = new int[]{100, 1000, 10000};
+
+    private Random random = new Random(7);
+
+    @Test
+    public void testQueryReturnsAllSegmentsInRange() {
+        List<Polyline> polylines = createPolylines(500);
+        SegmentGridIndex index = new SegmentGridIndex(polylines, MATCH_DISTANCE_LIMIT);
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            KVLatLng coordinate = randomCoordinate();
+            Assert.assertEquals(scanSegmentsInRange(polylines, coordinate), indexSegmentsInRange(index, coordinate));
+        }
+    }
+
+    @Test
+    public void testQueryKeepsScanOrder() {
+        List<Polyline> polylines = createPolylines(200);
+        SegmentGridIndex index = new SegmentGridIndex(polylines, MATCH_DISTANCE_LIMIT);
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            int[] candidates = index.query(randomCoordinate());
+            for (int j = 1; j < candidates.length; j++) {
+                Assert.assertTrue(candidates[j - 1] < candidates[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        SegmentGridIndex index = new SegmentGridIndex(new ArrayList<>(), MATCH_DISTANCE_LIMIT);
+        Assert.assertEquals(0, index.getSegmentCount());
+        Assert.assertEquals(0, index.query(new KVLatLng(CENTER_LAT, CENTER_LON, 0)).length);
+    }
+
+    @Test
+    public void testQueryMatchesScanForLargeSegmentCounts() {
+        for (int polylineCount : BENCHMARK_POLYLINE_COUNTS) {
+            List<Polyline> polylines = createPolylines(polylineCount);
+            SegmentGridIndex index = new SegmentGridIndex(polylines, MATCH_DISTANCE_LIMIT);
+            Assert.assertEquals(polylineCount * (NODES_PER_POLYLINE - 1), index.getSegmentCount());
+            for (int i = 0; i < BENCHMARK_QUERY_COUNT; i++) {
+                KVLatLng coordinate = randomCoordinate();
+                Assert.assertEquals(scanSegmentsInRange(polylines, coordinate), indexSegmentsInRange(index, coordinate));
+            }
+        }
+    }
+
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    public void testQueryLatencyBySegmentCount() {
+        for (int polylineCount : BENCHMARK_POLYLINE_COUNTS) {
+            List<Polyline> polylines = createPolylines(polylineCount);
+            SegmentGridIndex index = new SegmentGridIndex(polylines, MATCH_DISTANCE_LIMIT);
+            List<KVLatLng> coordinates = new ArrayList<>();
+            for (int i = 0; i < BENCHMARK_QUERY_COUNT; i++) {
+                coordinates.add(randomCoordinate());
+            }
+            new BenchmarkHarness(String.format("SegmentGridIndex %s segments", index.getSegmentCount()), BENCHMARK_QUERY_COUNT)
+                    .measure("scan", () -> {
+                        for (KVLatLng coordinate : coordinates) {
+                            scanSegmentsInRange(polylines, coordinate);
+                        }
+                    })
+                    .measure("index", () -> {
+                        for (KVLatLng coordinate : coordinates) {
+                            indexSegmentsInRange(index, coordinate);
+                        }
+                    })
+                    .report();
+        }
+    }
+
+    private List<Integer> scanSegmentsInRange(List<Polyline> polylines, KVLatLng coordinate) {
+        List<Integer> segments = new ArrayList<>();
+        int segmentId = 0;
+        for (Polyline polyline : polylines) {
+            List<KVLatLng> track = polyline.getNodes();
+            for (int i = 0; i < track.size() - 1; i++) {
+                if (ComputingDistance.getDistanceFromSegment(coordinate, track.get(i), track.get(i + 1)) < MATCH_DISTANCE_LIMIT) {
+                    segments.add(segmentId);
+                }
+                segmentId++;
+            }
+        }
+        return segments;
+    }
+
+    private List<Integer> indexSegmentsInRange(SegmentGridIndex index, KVLatLng coordinate) {
+        List<Integer> segments = new ArrayList<>();
+        for (int segmentId : index.query(coordinate)) {
+            List<KVLatLng> track = index.getPolyline(segmentId).getNodes();
+            int i = index.getNodeIndex(segmentId);
+            if (ComputingDistance.getDistanceFromSegment(coordinate, track.get(i), track.get(i + 1)) < MATCH_DISTANCE_LIMIT) {
+                segments.add(segmentId);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Creates random walk polylines with segments between 5 and 100 meters inside the covered area.
+     */
+    private List<Polyline> createPolylines(int count) {
+        List<Polyline> polylines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Polyline polyline = new Polyline(i);
+            KVLatLng node = randomCoordinate();
+            polyline.getNodes().add(node);
+            for (int j = 1; j < NODES_PER_POLYLINE; j++) {
+                double length = (5 + random.nextDouble() * 95) / 110000d;
+                double angle = random.nextDouble() * 2 * Math.PI;
+                node = new KVLatLng(node.getLat() + Math.sin(angle) * length, node.getLon() + Math.cos(angle) * length, j);
+                polyline.getNodes().add(node);
+            }
+            polylines.add(polyline);
+        }
+        return polylines;
+    }
+
+    private KVLatLng randomCoordinate() {
+        return new KVLatLng(CENTER_LAT + (random.nextDouble() * 2 - 1) * AREA_HALF_SIZE,
+                CENTER_LON + (random.nextDouble() * 2 - 1) * AREA_HALF_SIZE, 0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.telenav.osv.upload.operation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.CompletableSubject;
+import io.reactivex.schedulers.TestScheduler;
+
+public class UploadConcurrencyLimiterTest {
+
+    private static final long BYTES_PER_OPERATION = 1000;
+
+    private TestScheduler scheduler = new TestScheduler();
+
+    @Test
+    public void testAcquireWaitsForRelease() {
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(2, 1, 4, scheduler);
+
+        limiter.acquire().test().assertComplete();
+        limiter.acquire().test().assertComplete();
+        TestObserver<Void> waiting = limiter.acquire().test();
+        waiting.assertNotComplete();
+
+        limiter.release(true);
+        waiting.assertComplete();
+    }
+
+    @Test
+    public void testDisposedAcquireDoesNotTakePermit() {
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(1, 1, 4, scheduler);
+        limiter.acquire().test().assertComplete();
+        TestObserver<Void> disposed = limiter.acquire().test();
+        TestObserver<Void> waiting = limiter.acquire().test();
+
+        disposed.dispose();
+        limiter.release(true);
+
+        waiting.assertComplete();
+        limiter.acquire().test().assertNotComplete();
+    }
+
+    @Test
+    public void testDisposedOperationReturnsPermit() {
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(1, 1, 4, scheduler);
+        CompletableSubject operation = CompletableSubject.create();
+        TestObserver<Void> running = limiter.run(operation).test();
+        Assert.assertTrue(operation.hasObservers());
+        TestObserver<Void> waiting = limiter.run(Completable.complete()).test();
+        waiting.assertNotComplete();
+
+        running.dispose();
+
+        waiting.assertComplete();
+        Assert.assertEquals(1, limiter.getLimit());
+        limiter.run(Completable.complete()).test().assertComplete();
+    }
+
+    @Test
+    public void testOperationReturnsPermitOnTermination() {
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(2, 1, 4, scheduler);
+
+        limiter.run(Completable.complete()).test().assertComplete();
+        limiter.run(Completable.error(new IllegalStateException())).test().assertError(IllegalStateException.class);
+
+        Assert.assertEquals(1, limiter.getLimit());
+        limiter.run(Completable.never()).test();
+        limiter.run(Completable.complete()).test().assertNotComplete();
+    }
+
+    @Test
+    public void testDisposedWaitingOperationIsNotSubscribed() {
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(1, 1, 4, scheduler);
+        CompletableSubject first = CompletableSubject.create();
+        CompletableSubject second = CompletableSubject.create();
+        limiter.run(first).test();
+        limiter.run(second).test().dispose();
+
+        first.onComplete();
+
+        Assert.assertFalse(second.hasObservers());
+        limiter.run(Completable.complete()).test().assertComplete();
+    }
+
+    @Test
+    public void testLimitFollowsThroughput() {
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(2, 1, 4, scheduler);
+
+        runWindow(limiter, BYTES_PER_OPERATION);
+        Assert.assertEquals(3, limiter.getLimit());
+        runWindow(limiter, BYTES_PER_OPERATION * 2);
+        Assert.assertEquals(4, limiter.getLimit());
+        runWindow(limiter, BYTES_PER_OPERATION);
+        Assert.assertEquals(3, limiter.getLimit());
+        runWindow(limiter, BYTES_PER_OPERATION);
+        Assert.assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    public void testFailureHalvesLimit() {
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(8, 1, 8, scheduler);
+
+        limiter.acquire().test();
+        limiter.release(false);
+        Assert.assertEquals(4, limiter.getLimit());
+        limiter.acquire().test();
+        limiter.release(false);
+        limiter.acquire().test();
+        limiter.release(false);
+        limiter.acquire().test();
+        limiter.release(false);
+        Assert.assertEquals(1, limiter.getLimit());
+    }
+
+    /**
+     * Runs a complete window of {@link UploadConcurrencyLimiter#WINDOW_MIN_OPERATIONS} operations during {@link UploadConcurrencyLimiter#WINDOW_DURATION_MS}.
+     */
+    private void runWindow(UploadConcurrencyLimiter limiter, long bytesPerOperation) {
+        for (int i = 0; i < UploadConcurrencyLimiter.WINDOW_MIN_OPERATIONS; i++) {
+            if (i == UploadConcurrencyLimiter.WINDOW_MIN_OPERATIONS - 1) {
+                scheduler.advanceTimeBy(UploadConcurrencyLimiter.WINDOW_DURATION_MS, TimeUnit.MILLISECONDS);
+            }
+            limiter.acquire().test().assertComplete();
+            limiter.onBytesUploaded(bytesPerOperation);
+            limiter.release(true);
+        }
+    }
+}
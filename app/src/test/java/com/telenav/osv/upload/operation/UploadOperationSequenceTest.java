@@ -0,0 +1,277 @@
+package com.telenav.osv.upload.operation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import android.location.Location;
+import com.telenav.osv.BenchmarkHarness;
+import com.jakewharton.retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+import com.telenav.osv.data.frame.datasource.local.FrameLocalDataSource;
+import com.telenav.osv.data.frame.model.Frame;
+import com.telenav.osv.data.sequence.datasource.local.SequenceLocalDataSource;
+import com.telenav.osv.data.sequence.model.LocalSequence;
+import com.telenav.osv.data.sequence.model.details.SequenceDetails;
+import com.telenav.osv.data.sequence.model.details.SequenceDetailsLocal;
+import com.telenav.osv.data.sequence.model.details.compression.SequenceDetailsCompressionJpeg;
+import com.telenav.osv.data.video.datasource.VideoLocalDataSource;
+import com.telenav.osv.item.KVFile;
+import com.telenav.osv.network.KVApi;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@RunWith(RobolectricTestRunner.class)
+public class UploadOperationSequenceTest {
+
+    private static final String SEQUENCE_ID = "sequence";
+
+    private static final long ONLINE_SEQUENCE_ID = 1;
+
+    private static final int FRAME_COUNT = 30;
+
+    private static final int FRAME_SIZE = 4 * 1024;
+
+    private static final long FRAME_LATENCY_MS = 50;
+
+    private static final long TIMEOUT_IN_SECONDS = 20;
+
+    private static final int BENCHMARK_FRAME_COUNT = 300;
+
+    private static final int BENCHMARK_FRAME_SIZE = 32 * 1024;
+
+    private static final long BENCHMARK_LATENCY_MS = 40;
+
+    private static final long BENCHMARK_BANDWIDTH_BYTES_PER_SECOND = 4 * 1024 * 1024;
+
+    private static final long BENCHMARK_TIMEOUT_IN_SECONDS = 120;
+
+    private static final String RESPONSE_SUCCESS = "{\"status\":{\"apiCode\":600}}";
+
+    @Mock
+    private SequenceLocalDataSource sequenceLocalDataSource;
+
+    @Mock
+    private FrameLocalDataSource frameLocalDataSource;
+
+    @Mock
+    private VideoLocalDataSource videoLocalDataSource;
+
+    private MockWebServer server;
+
+    private FrameServerDispatcher dispatcher;
+
+    private KVApi api;
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        dispatcher = new FrameServerDispatcher();
+        server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient.Builder().build())
+                .addCallAdapterFactory(RxJava2CallAdapterFactory.createWithScheduler(Schedulers.io()))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(KVApi.class);
+        folder = Files.createTempDirectory("sequence").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testFramesAreUploadedConcurrentlyWithinTheLimiterBounds() throws IOException {
+        LocalSequence sequence = mockSequence(FRAME_COUNT, FRAME_SIZE);
+        UploadOperationSequence operation = newOperation();
+
+        TestObserver<Void> observer = operation.getStream().test();
+        observer.awaitTerminalEvent(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        operation.dispose();
+
+        observer.assertComplete();
+        Assert.assertEquals(FRAME_COUNT, dispatcher.frameRequestCount.get());
+        Assert.assertEquals(1, dispatcher.completeRequestCount.get());
+        Assert.assertTrue("Max concurrent frame uploads: " + dispatcher.maxInFlight.get(), dispatcher.maxInFlight.get() > UploadOperationBase.MERGE_DELAY_ERROR_NO_SERIAL);
+        Assert.assertTrue("Max concurrent frame uploads: " + dispatcher.maxInFlight.get(),
+                dispatcher.maxInFlight.get() <= UploadOperationBase.MERGE_DELAY_ERROR_CONCURRENT_MAX_NO);
+        Mockito.verify(frameLocalDataSource, Mockito.times(FRAME_COUNT)).deleteFrame(anyString());
+        Assert.assertEquals(0, sequence.getCompressionDetails().getLocationsCount());
+        Assert.assertFalse(folder.exists());
+    }
+
+    /**
+     * Uploads a sequence through a link with a fixed latency for each request and a bandwidth shared by all the requests. The frames uploaded per second are printed only,
+     * since they depend on the machine. The whole upload is measured once, unlike the {@link BenchmarkHarness} rounds, since the uploaded frames are removed.
+     */
+    @Ignore(BenchmarkHarness.IGNORED)
+    @Test
+    public void testUploadBenchmark() throws IOException {
+        server.setDispatcher(new LinkDispatcher());
+        mockSequence(BENCHMARK_FRAME_COUNT, BENCHMARK_FRAME_SIZE);
+        UploadOperationSequence operation = newOperation();
+
+        long start = System.nanoTime();
+        TestObserver<Void> observer = operation.getStream().test();
+        observer.awaitTerminalEvent(BENCHMARK_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        long duration = System.nanoTime() - start;
+        operation.dispose();
+
+        observer.assertComplete();
+        System.out.println(String.format(Locale.US, "Frame upload benchmark %s frames of %s KB, %s ms latency, %s KB/s link: %.1f frames/s",
+                BENCHMARK_FRAME_COUNT,
+                BENCHMARK_FRAME_SIZE / 1024,
+                BENCHMARK_LATENCY_MS,
+                BENCHMARK_BANDWIDTH_BYTES_PER_SECOND / 1024,
+                BENCHMARK_FRAME_COUNT / (duration / 1e9)));
+    }
+
+    /**
+     * Mocks the local data sources for a sequence of JPEG frames written in the temporary folder.
+     * @return the mocked sequence.
+     */
+    private LocalSequence mockSequence(int frameCount, int frameSize) throws IOException {
+        List<String> frameIds = new ArrayList<>();
+        for (int i = 0; i < frameCount; i++) {
+            String frameId = "frame" + i;
+            frameIds.add(frameId);
+            Mockito.when(frameLocalDataSource.getFrameWithLocation(frameId)).thenReturn(Maybe.just(newFrame(frameId, i, frameSize)));
+            Mockito.when(frameLocalDataSource.deleteFrame(frameId)).thenReturn(true);
+        }
+        Mockito.when(frameLocalDataSource.getFrameIdsBySequenceIdLazy(Mockito.eq(SEQUENCE_ID), anyInt())).thenReturn(Flowable.fromIterable(frameIds));
+        LocalSequence sequence = newSequence(frameCount, frameSize);
+        Mockito.when(sequenceLocalDataSource.getSequenceWithReward(SEQUENCE_ID)).thenReturn(Maybe.just(sequence));
+        Mockito.when(sequenceLocalDataSource.updateDiskSize(Mockito.eq(SEQUENCE_ID), anyLong())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.updateCompressionSizeInfo(Mockito.eq(SEQUENCE_ID), anyInt(), anyInt())).thenReturn(true);
+        Mockito.when(sequenceLocalDataSource.deleteSequence(SEQUENCE_ID)).thenReturn(true);
+        return sequence;
+    }
+
+    private UploadOperationSequence newOperation() {
+        return new UploadOperationSequence(SEQUENCE_ID,
+                sequenceLocalDataSource,
+                "accessToken",
+                api,
+                server.getHostName(),
+                frameLocalDataSource,
+                videoLocalDataSource,
+                update -> {
+                });
+    }
+
+    private LocalSequence newSequence(int frameCount, int frameSize) {
+        SequenceDetails details = new SequenceDetails(new Location(""), 0, "", new DateTime());
+        details.setOnlineId(ONLINE_SEQUENCE_ID);
+        return new LocalSequence(SEQUENCE_ID,
+                details,
+                new SequenceDetailsLocal(new KVFile(folder.getPath()), frameCount * frameSize, 0),
+                new SequenceDetailsCompressionJpeg(frameCount, null, 0));
+    }
+
+    private Frame newFrame(String frameId, int index, int frameSize) throws IOException {
+        File file = new File(folder, index + ".jpg");
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(new byte[frameSize]);
+        }
+        Location location = new Location("");
+        location.setLatitude(46.77);
+        location.setLongitude(23.59);
+        return new Frame(frameId, file.getPath(), new DateTime(), index, location);
+    }
+
+    /**
+     * Dispatcher which answers every request with success, holding each frame upload for {@link #FRAME_LATENCY_MS} in order to measure how many run at the same time.
+     */
+    private static class FrameServerDispatcher extends Dispatcher {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private final AtomicInteger frameRequestCount = new AtomicInteger();
+
+        private final AtomicInteger completeRequestCount = new AtomicInteger();
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            String path = request.getPath();
+            if (path.contains("photo")) {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(FRAME_LATENCY_MS);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                frameRequestCount.incrementAndGet();
+            } else if (path.contains("finished-uploading")) {
+                completeRequestCount.incrementAndGet();
+            }
+            return new MockResponse().setBody(RESPONSE_SUCCESS);
+        }
+    }
+
+    /**
+     * Dispatcher which simulates a link with a fixed latency for each request and a bandwidth shared by all the requests.
+     */
+    private static class LinkDispatcher extends Dispatcher {
+
+        private long linkAvailableAt;
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            long transferredAt;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long transferDuration = request.getBodySize() * TimeUnit.SECONDS.toNanos(1) / BENCHMARK_BANDWIDTH_BYTES_PER_SECOND;
+                linkAvailableAt = Math.max(now, linkAvailableAt) + transferDuration;
+                transferredAt = linkAvailableAt;
+            }
+            long delay = transferredAt - System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BENCHMARK_LATENCY_MS);
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, delay));
+            return new MockResponse().setBody(RESPONSE_SUCCESS);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.telenav.osv.upload.operation.video;
+
+import androidx.annotation.NonNull;
+
+import com.jakewharton.retrofit2.adapter.rxjava2.HttpException;
+import com.jakewharton.retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+import com.telenav.osv.common.event.SimpleEventBus;
+import com.telenav.osv.data.video.datasource.VideoLocalDataSource;
+import com.telenav.osv.data.video.model.Video;
+import com.telenav.osv.network.KVApi;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.ByteString;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+public class UploadOperationVideoTest {
+
+    private static final long CHUNK_SIZE = 64 * 1024;
+
+    private static final int VIDEO_SIZE = (int) (CHUNK_SIZE * 3 + CHUNK_SIZE / 2);
+
+    private static final String VIDEO_ID = "videoId";
+
+    private static final int VIDEO_LOCATIONS_COUNT = 42;
+
+    private static final long TIMEOUT_IN_SECONDS = 10;
+
+    private static final String RESPONSE_SUCCESS = "{\"status\":{\"apiCode\":600}}";
+
+    private static final String RESPONSE_DUPLICATE = "{\"status\":{\"apiCode\":660}}";
+
+    private static final String RESPONSE_INVALID = "{\"status\":{\"apiCode\":611}}";
+
+    private static final String OTHER_SERVER_HOST = "other.host";
+
+    private MockWebServer server;
+
+    private ChunkServerDispatcher dispatcher;
+
+    private VideoLocalDataSourceStub videoLocalDataSource;
+
+    private VideoChunkStore videoChunkStore;
+
+    private AtomicInteger successLocationsCount;
+
+    private byte[] videoContent;
+
+    private File videoFile;
+
+    private KVApi api;
+
+    @Before
+    public void setUp() throws IOException {
+        dispatcher = new ChunkServerDispatcher();
+        server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .build();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(KVApi.class);
+        successLocationsCount = new AtomicInteger();
+        videoChunkStore = new VideoChunkStore();
+        UploadOperationVideo.resetChunkUploadSupported();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        if (videoFile != null) {
+            videoFile.delete();
+        }
+        UploadOperationVideo.resetChunkUploadSupported();
+    }
+
+    @Test
+    public void testUploadResumesAfterFailureDuringRequestBody() throws IOException {
+        Completable stream = createOperation(VIDEO_SIZE).getStream();
+        dispatcher.injectFailure(2, SocketPolicy.DISCONNECT_DURING_REQUEST_BODY);
+
+        await(stream).assertError(IOException.class);
+        Assert.assertEquals(Arrays.asList(true, true, false, false), getUploadedStates());
+        Assert.assertEquals(0, successLocationsCount.get());
+
+        dispatcher.clearFailure();
+        await(stream).assertComplete();
+
+        Assert.assertEquals(Arrays.asList(0L, CHUNK_SIZE, CHUNK_SIZE * 2, CHUNK_SIZE * 3), dispatcher.getReceivedOffsets());
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    @Test
+    public void testUploadAcknowledgesChunkWhenResponseIsLost() throws IOException {
+        Completable stream = createOperation(VIDEO_SIZE).getStream();
+        dispatcher.injectFailure(1, SocketPolicy.DISCONNECT_AFTER_REQUEST);
+
+        await(stream).assertError(IOException.class);
+        Assert.assertEquals(Arrays.asList(true, false, false, false), getUploadedStates());
+
+        dispatcher.clearFailure();
+        await(stream).assertComplete();
+
+        //the chunk which response was lost is sent again and acknowledged by the duplicate response
+        Assert.assertEquals(Arrays.asList(0L, CHUNK_SIZE, CHUNK_SIZE, CHUNK_SIZE * 2, CHUNK_SIZE * 3), dispatcher.getReceivedOffsets());
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    @Test
+    public void testUploadRestartsWhenVideoFileChanged() throws IOException {
+        Completable stream = createOperation(VIDEO_SIZE).getStream();
+        videoChunkStore.saveVideoChunks(VIDEO_ID, Arrays.asList(
+                new VideoChunk(0, 0, CHUNK_SIZE * 2, true),
+                new VideoChunk(1, CHUNK_SIZE * 2, CHUNK_SIZE * 2, false)));
+
+        await(stream).assertComplete();
+
+        Assert.assertEquals(Arrays.asList(0L, CHUNK_SIZE, CHUNK_SIZE * 2, CHUNK_SIZE * 3), dispatcher.getReceivedOffsets());
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    @Test
+    public void testUploadFallsBackToSingleRequestWhenChunksAreNotSupported() throws IOException {
+        dispatcher.chunkUploadSupported = false;
+
+        await(createOperation(VIDEO_SIZE).getStream()).assertComplete();
+
+        Assert.assertEquals(1, dispatcher.videoRequestCount);
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    @Test
+    public void testChunksAreDisabledOnlyForTheRejectingHost() throws IOException {
+        dispatcher.chunkUploadSupported = false;
+        await(createOperation(VIDEO_SIZE).getStream()).assertComplete();
+        dispatcher.chunkUploadSupported = true;
+        dispatcher.clearReceivedContent();
+
+        await(createOperation(VIDEO_SIZE, OTHER_SERVER_HOST).getStream()).assertComplete();
+
+        Assert.assertEquals(0, dispatcher.videoRequestCount);
+        Assert.assertEquals(Arrays.asList(0L, CHUNK_SIZE, CHUNK_SIZE * 2, CHUNK_SIZE * 3), dispatcher.getReceivedOffsets());
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    @Test
+    public void testApiNotFoundDoesNotDisableChunks() throws IOException {
+        dispatcher.apiNotFound = true;
+
+        await(createOperation(VIDEO_SIZE).getStream()).assertError(HttpException.class);
+        Assert.assertEquals(0, dispatcher.videoRequestCount);
+
+        dispatcher.apiNotFound = false;
+        await(createOperation(VIDEO_SIZE).getStream()).assertComplete();
+
+        Assert.assertEquals(0, dispatcher.videoRequestCount);
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    @Test
+    public void testVideoIsUploadedInSingleRequestWhenChunksAreDisabled() throws IOException {
+        await(createOperation(VIDEO_SIZE, server.getHostName(), false).getStream()).assertComplete();
+
+        Assert.assertEquals(1, dispatcher.videoRequestCount);
+        Assert.assertTrue(dispatcher.getReceivedOffsets().isEmpty());
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    @Test
+    public void testSmallVideoIsUploadedInSingleRequest() throws IOException {
+        await(createOperation((int) CHUNK_SIZE / 2).getStream()).assertComplete();
+
+        Assert.assertEquals(1, dispatcher.videoRequestCount);
+        Assert.assertTrue(dispatcher.getReceivedOffsets().isEmpty());
+        Assert.assertArrayEquals(videoContent, dispatcher.getReceivedContent());
+        assertVideoUploaded();
+    }
+
+    private UploadOperationVideo createOperation(int videoSize) throws IOException {
+        return createOperation(videoSize, server.getHostName());
+    }
+
+    private UploadOperationVideo createOperation(int videoSize, String serverHost) throws IOException {
+        return createOperation(videoSize, serverHost, true);
+    }
+
+    private UploadOperationVideo createOperation(int videoSize, String serverHost, boolean chunkUploadEnabled) throws IOException {
+        videoContent = new byte[videoSize];
+        new Random(videoSize).nextBytes(videoContent);
+        videoFile = File.createTempFile("video", ".mp4");
+        try (FileOutputStream outputStream = new FileOutputStream(videoFile)) {
+            outputStream.write(videoContent);
+        }
+        videoLocalDataSource = new VideoLocalDataSourceStub(new Video(VIDEO_ID, VIDEO_LOCATIONS_COUNT, 0, videoFile.getPath()));
+        return new UploadOperationVideo(
+                "accessToken",
+                api,
+                serverHost,
+                videoLocalDataSource,
+                VIDEO_ID,
+                1,
+                new SimpleEventBus(),
+                successLocationsCount::set,
+                null,
+                chunkUploadEnabled,
+                CHUNK_SIZE,
+                videoChunkStore);
+    }
+
+    private TestObserver<Void> await(Completable stream) {
+        TestObserver<Void> observer = stream.test();
+        observer.awaitTerminalEvent(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        return observer;
+    }
+
+    private void assertVideoUploaded() {
+        Assert.assertTrue(videoLocalDataSource.deleted);
+        Assert.assertFalse(videoFile.exists());
+        Assert.assertEquals(VIDEO_LOCATIONS_COUNT, successLocationsCount.get());
+        Assert.assertTrue(videoChunkStore.getVideoChunks(VIDEO_ID).isEmpty());
+    }
+
+    private List<Boolean> getUploadedStates() {
+        List<Boolean> uploadedStates = new ArrayList<>();
+        for (VideoChunk videoChunk : videoChunkStore.getVideoChunks(VIDEO_ID)) {
+            uploadedStates.add(videoChunk.isUploaded());
+        }
+        return uploadedStates;
+    }
+
+    /**
+     * Stand-in for the upload server. The chunks are appended to the received content only when they start at its end, a chunk which was already received gets a duplicate
+     * response. A failure can be injected for the chunk request after a given number of complete chunk requests, the failure lasts until it is cleared in order to be
+     * deterministic regardless of the number of attempts made by the client.
+     */
+    private static class ChunkServerDispatcher extends Dispatcher {
+
+        private static final String PATH_VIDEO = "/1.0/video/";
+
+        private static final String PATH_VIDEO_CHUNK = "/1.0/video/chunk/";
+
+        private static final String BOUNDARY_PARAMETER = "boundary=";
+
+        private final ByteArrayOutputStream receivedContent = new ByteArrayOutputStream();
+
+        private final List<Long> receivedOffsets = new ArrayList<>();
+
+        private volatile boolean chunkUploadSupported = true;
+
+        private volatile boolean apiNotFound;
+
+        private int videoRequestCount;
+
+        private int completeChunkRequestCount;
+
+        private int failAfterChunkRequestCount;
+
+        private SocketPolicy failurePolicy;
+
+        @Override
+        public synchronized MockResponse peek() {
+            //the policy for the request body is read before the request is dispatched
+            if (failurePolicy == SocketPolicy.DISCONNECT_DURING_REQUEST_BODY && completeChunkRequestCount >= failAfterChunkRequestCount) {
+                return new MockResponse().setSocketPolicy(failurePolicy);
+            }
+            return super.peek();
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest request) {
+            String contentLength = request.getHeader("Content-Length");
+            if (contentLength == null || request.getBodySize() < Long.parseLong(contentLength)) {
+                //request interrupted by an injected failure
+                return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+            }
+            Map<String, ByteString> parts = readParts(request);
+            ByteString video = parts.get("video");
+            if (PATH_VIDEO.equals(request.getPath())) {
+                videoRequestCount++;
+                receivedContent.write(video.toByteArray(), 0, video.size());
+                return new MockResponse().setBody(RESPONSE_SUCCESS);
+            }
+            if (!PATH_VIDEO_CHUNK.equals(request.getPath()) || !chunkUploadSupported) {
+                return new MockResponse().setResponseCode(404);
+            }
+            if (apiNotFound) {
+                return new MockResponse().setResponseCode(404).setBody(RESPONSE_INVALID);
+            }
+            long offset = Long.parseLong(parts.get("chunkOffset").utf8());
+            receivedOffsets.add(offset);
+            if (offset < receivedContent.size()) {
+                return new MockResponse().setResponseCode(400).setBody(RESPONSE_DUPLICATE);
+            }
+            if (offset > receivedContent.size() || VIDEO_SIZE != Long.parseLong(parts.get("totalSize").utf8())) {
+                return new MockResponse().setResponseCode(400).setBody(RESPONSE_INVALID);
+            }
+            receivedContent.write(video.toByteArray(), 0, video.size());
+            completeChunkRequestCount++;
+            if (failurePolicy == SocketPolicy.DISCONNECT_AFTER_REQUEST && completeChunkRequestCount == failAfterChunkRequestCount + 1) {
+                return new MockResponse().setSocketPolicy(failurePolicy);
+            }
+            return new MockResponse().setBody(RESPONSE_SUCCESS);
+        }
+
+        synchronized void injectFailure(int afterChunkRequestCount, SocketPolicy policy) {
+            failAfterChunkRequestCount = afterChunkRequestCount;
+            failurePolicy = policy;
+        }
+
+        synchronized void clearFailure() {
+            failurePolicy = null;
+        }
+
+        synchronized void clearReceivedContent() {
+            receivedContent.reset();
+            receivedOffsets.clear();
+            videoRequestCount = 0;
+        }
+
+        synchronized List<Long> getReceivedOffsets() {
+            return new ArrayList<>(receivedOffsets);
+        }
+
+        synchronized byte[] getReceivedContent() {
+            return receivedContent.toByteArray();
+        }
+
+        /**
+         * @return the parts of the multipart request body by their name.
+         */
+        private Map<String, ByteString> readParts(RecordedRequest request) {
+            String contentType = request.getHeader("Content-Type");
+            ByteString delimiter = ByteString.encodeUtf8("--" + contentType.substring(contentType.indexOf(BOUNDARY_PARAMETER) + BOUNDARY_PARAMETER.length()));
+            ByteString headersEnd = ByteString.encodeUtf8("\r\n\r\n");
+            ByteString body = request.getBody().readByteString();
+            Map<String, ByteString> parts = new HashMap<>();
+            int partStart = body.indexOf(delimiter) + delimiter.size();
+            while (!body.substring(partStart, partStart + 2).utf8().equals("--")) {
+                int contentStart = body.indexOf(headersEnd, partStart) + headersEnd.size();
+                int nextDelimiter = body.indexOf(delimiter, contentStart);
+                String headers = body.substring(partStart, contentStart).utf8();
+                String name = headers.replaceAll("(?s).*name=\"([^\"]*)\".*", "$1");
+                //the part content is followed by a line break before the delimiter
+                parts.put(name, body.substring(contentStart, nextDelimiter - 2));
+                partStart = nextDelimiter + delimiter.size();
+            }
+            return parts;
+        }
+    }
+
+    /**
+     * In memory data source which keeps the video until it is deleted.
+     */
+    private static class VideoLocalDataSourceStub implements VideoLocalDataSource {
+
+        private final Video video;
+
+        private volatile boolean deleted;
+
+        VideoLocalDataSourceStub(Video video) {
+            this.video = video;
+        }
+
+        @Override
+        public boolean saveVideo(@NonNull Video video, @NonNull String sequenceID) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Maybe<Video> getVideo(@NonNull String videoId) {
+            return Maybe.fromCallable(() -> deleted ? null : video);
+        }
+
+        @Override
+        public boolean updateVideo(@NonNull Video video, @NonNull String sequenceID) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean updateFrameCount(@NonNull String videoId, int frameCount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean deleteVideo(@NonNull String videoId) {
+            deleted = true;
+            return true;
+        }
+
+        @Override
+        public Single<List<String>> getVideoIdsBySequenceId(@NonNull String sequenceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Maybe<List<Video>> getVideos(@NonNull String sequenceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getVideoCountBySequenceId(@NonNull String sequenceId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.telenav.osv.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncFileLoggerTest {
+
+    private static final long MAX_FILE_SIZE_BYTES = 1024 * 1024;
+
+    private File folder;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("log").toFile();
+        file = new File(folder, "log_test.txt");
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testEntriesAreFormattedByWriter() throws IOException {
+        AsyncFileLogger logger = new AsyncFileLogger(file, 16, MAX_FILE_SIZE_BYTES, null);
+
+        logger.log(android.util.Log.DEBUG, "Tag", "plain %s message", null, null);
+        logger.log(android.util.Log.WARN, "Tag", "frame %d of %s", new Object[]{3, "sequence"}, null);
+        logger.log(android.util.Log.ERROR, "Tag", "failed", null, new IOException("disk full"));
+        logger.close();
+
+        List<String> lines = readLines(file);
+        Assert.assertTrue(lines.get(0).endsWith(" D/Tag: plain %s message"));
+        Assert.assertTrue(lines.get(1).endsWith(" W/Tag: frame 3 of sequence"));
+        Assert.assertTrue(lines.get(2).contains(" E/Tag: failed java.io.IOException: disk full"));
+        Assert.assertEquals(0, logger.getDroppedCount());
+    }
+
+    @Test
+    public void testMutableArgumentsAreCapturedWhenLogged() throws IOException {
+        AsyncFileLogger logger = new AsyncFileLogger(file, 16, MAX_FILE_SIZE_BYTES, null);
+        StringBuilder state = new StringBuilder("before");
+
+        logger.log(android.util.Log.DEBUG, "Tag", "state %s. count %d.", new Object[]{state, 2}, null);
+        state.setLength(0);
+        state.append("after");
+        logger.close();
+
+        List<String> lines = readLines(file);
+        Assert.assertTrue(lines.get(0).endsWith(" D/Tag: state before. count 2."));
+    }
+
+    @Test
+    public void testFullBufferDropsWithoutBlocking() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch unblockWriter = new CountDownLatch(1);
+        AsyncFileLogger logger = new AsyncFileLogger(file, 4, MAX_FILE_SIZE_BYTES, (priority, tag, message) -> {
+            writerBlocked.countDown();
+            try {
+                unblockWriter.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        logger.log(android.util.Log.DEBUG, "Tag", "first", null, null);
+        Assert.assertTrue(writerBlocked.await(1, TimeUnit.SECONDS));
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (logger.log(android.util.Log.DEBUG, "Tag", "entry " + i, null, null)) {
+                accepted++;
+            }
+        }
+        unblockWriter.countDown();
+        logger.close();
+
+        Assert.assertEquals(3, accepted);
+        Assert.assertEquals(7, logger.getDroppedCount());
+        List<String> lines = readLines(file);
+        Assert.assertEquals(5, lines.size());
+        Assert.assertTrue(lines.get(1).endsWith("7 log entries dropped"));
+    }
+
+    @Test
+    public void testFileIsRotated() throws IOException {
+        AsyncFileLogger logger = new AsyncFileLogger(file, 1024, 1000, null);
+        for (int i = 0; i < 100; i++) {
+            logger.log(android.util.Log.INFO, "Tag", "entry number %s of the rotation test", new Object[]{i}, null);
+        }
+        logger.close();
+
+        File rotatedFile = logger.getRotatedFile();
+        Assert.assertEquals("log_test_1.txt", rotatedFile.getName());
+        Assert.assertTrue(rotatedFile.exists());
+        Assert.assertTrue(file.length() <= 1000 + 100);
+        Assert.assertTrue(readLines(file).get(readLines(file).size() - 1).endsWith("entry number 99 of the rotation test"));
+    }
+
+    @Test
+    public void testFlushWritesEntriesWhileOtherThreadsLog() throws Exception {
+        AsyncFileLogger logger = new AsyncFileLogger(file, 1024, MAX_FILE_SIZE_BYTES * 16, null);
+        Assert.assertTrue(logger.flush(100));
+        Thread noise = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                logger.log(android.util.Log.DEBUG, "Noise", "noise entry", null, null);
+            }
+        });
+        noise.start();
+
+        logger.log(android.util.Log.ERROR, "Tag", "crash trace", null, null);
+        boolean flushed = logger.flush(5000);
+        List<String> lines = readLines(file);
+        noise.interrupt();
+        noise.join();
+        logger.close();
+
+        Assert.assertTrue(flushed);
+        Assert.assertTrue(lines.stream().anyMatch(line -> line.endsWith(" E/Tag: crash trace")));
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        AsyncFileLogger logger = new AsyncFileLogger(file, 1 << 16, MAX_FILE_SIZE_BYTES * 16, null);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    logger.log(android.util.Log.DEBUG, "Thread" + thread, "entry %s", new Object[]{i}, null);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        logger.close();
+
+        Assert.assertEquals(0, logger.getDroppedCount());
+        Assert.assertEquals(4 * 5000, readLines(file).size());
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), Charset.forName("UTF-8"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.telenav.osv.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PolylineUtilsTest {
+
+    private static final double COORDINATE_DELTA = 1e-5;
+
+    private static final double TOLERANCE_METERS = 2;
+
+    private static final double METERS_PER_DEGREE = 111195;
+
+    @Test
+    public void testEncodeMatchesReferenceExample() {
+        double[] latitudes = {38.5, 40.7, 43.252};
+        double[] longitudes = {-120.2, -120.95, -126.453};
+
+        String encoded = PolylineUtils.encode(latitudes, longitudes, new int[]{0, 1, 2});
+
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encoded);
+        assertArrayEquals(new double[]{38.5, -120.2, 40.7, -120.95, 43.252, -126.453}, PolylineUtils.decode(encoded), COORDINATE_DELTA);
+    }
+
+    @Test
+    public void testSimplifyRemovesCollinearPoints() {
+        int size = 100;
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = 46.77 + i * 1e-4;
+            longitudes[i] = 23.59 + i * 1e-4;
+        }
+
+        assertArrayEquals(new int[]{0, size - 1}, PolylineUtils.simplify(latitudes, longitudes, TOLERANCE_METERS));
+    }
+
+    @Test
+    public void testSimplifyKeepsPointsWithinTolerance() {
+        int size = 2000;
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            //a winding road with small gps noise
+            latitudes[i] = 46.77 + i * 5e-5;
+            longitudes[i] = 23.59 + Math.sin(i / 50d) * 2e-3 + ((i * 7919) % 13 - 6) * 1e-6;
+        }
+
+        int[] indexes = PolylineUtils.simplify(latitudes, longitudes, TOLERANCE_METERS);
+
+        assertTrue(indexes.length < size / 4);
+        assertEquals(0, indexes[0]);
+        assertEquals(size - 1, indexes[indexes.length - 1]);
+        for (int k = 0; k < indexes.length - 1; k++) {
+            for (int i = indexes[k] + 1; i < indexes[k + 1]; i++) {
+                double distance = distanceToSegment(latitudes, longitudes, i, indexes[k], indexes[k + 1]);
+                assertTrue("Point " + i + " at " + distance + " m.", distance <= TOLERANCE_METERS + 0.01);
+            }
+        }
+    }
+
+    private double distanceToSegment(double[] latitudes, double[] longitudes, int point, int start, int end) {
+        double metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitudes[0]));
+        double x = (longitudes[point] - longitudes[start]) * metersPerDegreeLon;
+        double y = (latitudes[point] - latitudes[start]) * METERS_PER_DEGREE;
+        double dx = (longitudes[end] - longitudes[start]) * metersPerDegreeLon;
+        double dy = (latitudes[end] - latitudes[start]) * METERS_PER_DEGREE;
+        double t = Math.max(0, Math.min(1, (x * dx + y * dy) / (dx * dx + dy * dy)));
+        return Math.hypot(x - dx * t, y - dy * t);
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2012-2016 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.annotationprocessor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates the {@code SubscriberInfoIndex} of the {@code @Subscribe} methods of a module, so the event bus finds the subscriber methods without scanning the
+ * classes by reflection on {@code register()}.
+ * <p>
+ * The fully qualified name of the generated index is given by the {@value #OPTION_EVENT_BUS_INDEX} option, and the index is added to the bus with
+ * {@code EventBusBuilder.addIndex()}. The classes which cannot be referenced from the package of the index, such as the private or anonymous classes, or whose
+ * event types cannot be referenced, are left out of the index and are still scanned by reflection. The superclasses of the indexed subscribers are indexed as
+ * well, even without subscriber methods, in order to not scan them by reflection either.
+ */
+public class EventBusAnnotationProcessor extends AbstractProcessor {
+
+    /**
+     * The option holding the fully qualified name of the generated index.
+     */
+    public static final String OPTION_EVENT_BUS_INDEX = "eventBusIndex";
+
+    /**
+     * The option which logs the indexed classes when set to true.
+     */
+    public static final String OPTION_VERBOSE = "verbose";
+
+    private static final String SUBSCRIBE = "org.greenrobot.eventbus.Subscribe";
+
+    private static final String THREAD_MODE_POSTING = "POSTING";
+
+    /**
+     * The subscriber methods of each class, in the order of the sources. A class without subscriber methods is a superclass of a subscriber.
+     */
+    private final Map<TypeElement, List<ExecutableElement>> methodsByClass = new LinkedHashMap<>();
+
+    private final Set<TypeElement> classesToSkip = new HashSet<>();
+
+    private boolean writerRoundDone;
+
+    private int round;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(SUBSCRIBE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return new LinkedHashSet<>(Arrays.asList(OPTION_EVENT_BUS_INDEX, OPTION_VERBOSE));
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment env) {
+        Messager messager = processingEnv.getMessager();
+        try {
+            String index = processingEnv.getOptions().get(OPTION_EVENT_BUS_INDEX);
+            if (index == null) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "No option " + OPTION_EVENT_BUS_INDEX + " passed to the annotation processor");
+                return false;
+            }
+            boolean verbose = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_VERBOSE));
+            round++;
+            if (verbose) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Processing round " + round + ", new annotations: " + !annotations.isEmpty() + ", processing over: " + env
+                        .processingOver());
+            }
+            if (env.processingOver() && !annotations.isEmpty()) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Unexpected processing state: annotations still available after processing over");
+                return false;
+            }
+            if (annotations.isEmpty()) {
+                return false;
+            }
+            if (writerRoundDone) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Unexpected processing state: annotations still available after writing.");
+            }
+            collectSubscribers(annotations, env, messager);
+            collectSuperclasses();
+            checkForSubscribersToSkip(messager, getPackageName(index));
+            if (!methodsByClass.isEmpty()) {
+                writeIndex(index, verbose);
+            } else {
+                messager.printMessage(Diagnostic.Kind.WARNING, "No @Subscribe annotations found");
+            }
+            writerRoundDone = true;
+        } catch (RuntimeException e) {
+            // IntelliJ does not handle exceptions nicely, so log and print a message
+            e.printStackTrace();
+            messager.printMessage(Diagnostic.Kind.ERROR, "Unexpected error in EventBusAnnotationProcessor: " + e);
+        }
+        return true;
+    }
+
+    private void collectSubscribers(Set<? extends TypeElement> annotations, RoundEnvironment env, Messager messager) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : env.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof ExecutableElement) {
+                    ExecutableElement method = (ExecutableElement) element;
+                    if (checkHasNoErrors(method, messager)) {
+                        TypeElement classElement = (TypeElement) method.getEnclosingElement();
+                        methodsByClass.computeIfAbsent(classElement, key -> new ArrayList<>()).add(method);
+                    }
+                } else {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "@Subscribe is only valid for methods", element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the superclasses of the subscribers, which are otherwise scanned by reflection when a subscriber registers.
+     */
+    private void collectSuperclasses() {
+        for (TypeElement subscriberClass : new ArrayList<>(methodsByClass.keySet())) {
+            TypeElement superclass = getSuperclass(subscriberClass);
+            while (superclass != null) {
+                if (!methodsByClass.containsKey(superclass)) {
+                    methodsByClass.put(superclass, getSubscriberMethods(superclass));
+                }
+                superclass = getSuperclass(superclass);
+            }
+        }
+    }
+
+    private boolean checkHasNoErrors(ExecutableElement element, Messager messager) {
+        if (element.getModifiers().contains(Modifier.STATIC)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Subscriber method must not be static", element);
+            return false;
+        }
+        if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Subscriber method must be public", element);
+            return false;
+        }
+        List<? extends VariableElement> parameters = element.getParameters();
+        if (parameters.size() != 1) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Subscriber method must have exactly 1 parameter", element);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Skips the subscribers which cannot be referenced from the index, and the subscribers whose superclasses are skipped.
+     */
+    private void checkForSubscribersToSkip(Messager messager, String indexPackage) {
+        for (TypeElement subscriberClass : methodsByClass.keySet()) {
+            TypeElement current = subscriberClass;
+            while (current != null) {
+                if (!isVisible(indexPackage, current)) {
+                    boolean added = classesToSkip.add(subscriberClass);
+                    if (added) {
+                        String message = current.equals(subscriberClass) ? "Falling back to reflection because class is not public" :
+                                "Falling back to reflection because " + subscriberClass + " has a non-public super class";
+                        messager.printMessage(Diagnostic.Kind.NOTE, message, subscriberClass);
+                    }
+                    break;
+                }
+                List<ExecutableElement> methods = methodsByClass.get(current);
+                if (methods != null) {
+                    for (ExecutableElement method : methods) {
+                        TypeElement eventType = getEventTypeElement(method);
+                        if (eventType == null) {
+                            classesToSkip.add(subscriberClass);
+                            messager.printMessage(Diagnostic.Kind.NOTE, "Falling back to reflection because event type is not a declared type", method);
+                            break;
+                        }
+                        if (!isVisible(indexPackage, eventType)) {
+                            classesToSkip.add(subscriberClass);
+                            messager.printMessage(Diagnostic.Kind.NOTE, "Falling back to reflection because event type is not public", method);
+                            break;
+                        }
+                    }
+                }
+                current = getSuperclass(current);
+            }
+        }
+    }
+
+    private List<ExecutableElement> getSubscriberMethods(TypeElement classElement) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (Element element : classElement.getEnclosedElements()) {
+            if (element.getKind() == ElementKind.METHOD && getSubscribeAnnotation(element) != null) {
+                methods.add((ExecutableElement) element);
+            }
+        }
+        return methods;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        if (type.getSuperclass().getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superclass = (TypeElement) processingEnv.getTypeUtils().asElement(type.getSuperclass());
+        String name = superclass.getQualifiedName().toString();
+        if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("android.") || name.startsWith("androidx.")) {
+            // skip system classes, the event bus does not look into them either
+            return null;
+        }
+        return superclass;
+    }
+
+    private TypeElement getEventTypeElement(ExecutableElement method) {
+        TypeMirror eventType = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType());
+        if (eventType.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) eventType).asElement();
+    }
+
+    private boolean isVisible(String indexPackage, TypeElement typeElement) {
+        if (typeElement.getNestingKind() == NestingKind.ANONYMOUS || typeElement.getNestingKind() == NestingKind.LOCAL) {
+            return false;
+        }
+        Set<Modifier> modifiers = typeElement.getModifiers();
+        boolean visible;
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            visible = true;
+        } else if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.PROTECTED)) {
+            visible = false;
+        } else {
+            visible = getPackageElement(typeElement).getQualifiedName().toString().equals(indexPackage);
+        }
+        if (visible && typeElement.getNestingKind() == NestingKind.MEMBER) {
+            return isVisible(indexPackage, (TypeElement) typeElement.getEnclosingElement());
+        }
+        return visible;
+    }
+
+    private PackageElement getPackageElement(TypeElement type) {
+        Element candidate = type.getEnclosingElement();
+        while (!(candidate instanceof PackageElement)) {
+            candidate = candidate.getEnclosingElement();
+        }
+        return (PackageElement) candidate;
+    }
+
+    private AnnotationMirror getSubscribeAnnotation(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SUBSCRIBE)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private void writeIndex(String index, boolean verbose) {
+        BufferedWriter writer = null;
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(index);
+            int period = index.lastIndexOf('.');
+            String indexPackage = period > 0 ? index.substring(0, period) : null;
+            String indexClass = index.substring(period + 1);
+            writer = new BufferedWriter(sourceFile.openWriter());
+            if (indexPackage != null) {
+                writer.write("package " + indexPackage + ";\n\n");
+            }
+            writer.write("import org.greenrobot.eventbus.meta.SimpleSubscriberInfo;\n");
+            writer.write("import org.greenrobot.eventbus.meta.SubscriberMethodInfo;\n");
+            writer.write("import org.greenrobot.eventbus.meta.SubscriberInfo;\n");
+            writer.write("import org.greenrobot.eventbus.meta.SubscriberInfoIndex;\n\n");
+            writer.write("import org.greenrobot.eventbus.ThreadMode;\n\n");
+            writer.write("import java.util.HashMap;\n");
+            writer.write("import java.util.Map;\n\n");
+            writer.write("/** This class is generated by EventBus, do not edit. */\n");
+            writer.write("public class " + indexClass + " implements SubscriberInfoIndex {\n");
+            writer.write("    private static final Map<Class<?>, SubscriberInfo> SUBSCRIBER_INDEX;\n\n");
+            writer.write("    static {\n");
+            writer.write("        SUBSCRIBER_INDEX = new HashMap<Class<?>, SubscriberInfo>();\n\n");
+            writeIndexLines(writer, indexPackage, verbose);
+            writer.write("    }\n\n");
+            writer.write("    private static void putIndex(SubscriberInfo info) {\n");
+            writer.write("        SUBSCRIBER_INDEX.put(info.getSubscriberClass(), info);\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public SubscriberInfo getSubscriberInfo(Class<?> subscriberClass) {\n");
+            writer.write("        return SUBSCRIBER_INDEX.get(subscriberClass);\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write source for " + index, e);
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    //Silent
+                }
+            }
+        }
+    }
+
+    private void writeIndexLines(BufferedWriter writer, String indexPackage, boolean verbose) throws IOException {
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : methodsByClass.entrySet()) {
+            TypeElement subscriberClass = entry.getKey();
+            if (classesToSkip.contains(subscriberClass)) {
+                continue;
+            }
+            String subscriberClassName = getClassString(subscriberClass, indexPackage);
+            if (verbose) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Indexing " + subscriberClassName + " with " + entry.getValue().size() + " methods");
+            }
+            writer.write("        putIndex(new SimpleSubscriberInfo(" + subscriberClassName + ".class, true, new SubscriberMethodInfo[] {\n");
+            for (ExecutableElement method : entry.getValue()) {
+                writeMethodInfo(writer, method, indexPackage);
+            }
+            writer.write("        }));\n\n");
+        }
+    }
+
+    private void writeMethodInfo(BufferedWriter writer, ExecutableElement method, String indexPackage) throws IOException {
+        String eventClass = getClassString(getEventTypeElement(method), indexPackage) + ".class";
+        String threadMode = THREAD_MODE_POSTING;
+        int priority = 0;
+        boolean sticky = false;
+        AnnotationMirror subscribe = getSubscribeAnnotation(method);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : subscribe.getElementValues().entrySet()) {
+            String name = value.getKey().getSimpleName().toString();
+            Object content = value.getValue().getValue();
+            if ("threadMode".equals(name)) {
+                threadMode = ((VariableElement) content).getSimpleName().toString();
+            } else if ("priority".equals(name)) {
+                priority = (Integer) content;
+            } else if ("sticky".equals(name)) {
+                sticky = (Boolean) content;
+            }
+        }
+        String methodName = method.getSimpleName().toString();
+        writer.write("            new SubscriberMethodInfo(\"" + methodName + "\", " + eventClass + ", ThreadMode." + threadMode + ", " + priority + ", " + sticky + "),\n");
+    }
+
+    private String getClassString(TypeElement typeElement, String indexPackage) {
+        PackageElement packageElement = getPackageElement(typeElement);
+        String packageString = packageElement.getQualifiedName().toString();
+        String className = typeElement.getQualifiedName().toString();
+        if (packageString.length() > 0) {
+            if (packageString.equals(indexPackage)) {
+                className = cutPackage(packageString, className);
+            } else if (packageString.equals("java.lang")) {
+                className = typeElement.getSimpleName().toString();
+            }
+        }
+        return className;
+    }
+
+    private String cutPackage(String packageString, String className) {
+        if (className.startsWith(packageString + '.')) {
+            // Don't use TypeElement.getSimpleName, it doesn't work for us with inner classes
+            return className.substring(packageString.length() + 1);
+        } else {
+            // Paranoia
+            throw new IllegalStateException("Mismatching " + packageString + " vs. " + className);
+        }
+    }
+
+    private String getPackageName(String index) {
+        int period = index.lastIndexOf('.');
+        return period > 0 ? index.substring(0, period) : "";
+    }
+}
@@ -17,12 +17,12 @@ package org.greenrobot.eventbus;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import android.os.Looper;
 import android.util.Log;
@@ -40,7 +40,9 @@ public class EventBus {
 
     private static final EventBusBuilder DEFAULT_BUILDER = new EventBusBuilder();
 
-    private static final Map<Class<?>, List<Class<?>>> eventTypesCache = new HashMap<>();
+    private static final Map<Class<?>, List<Class<?>>> eventTypesCache = new ConcurrentHashMap<>();
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
 
     /**
      * Log tag, apps may override it.
@@ -49,7 +51,16 @@ public class EventBus {
 
     static volatile EventBus defaultInstance;
 
-    private final Map<Class<?>, CopyOnWriteArrayList<Subscription>> subscriptionsByEventType;
+    /**
+     * The subscriptions by event type, modified only in synchronized blocks on this bus.
+     */
+    private final Map<Class<?>, List<Subscription>> subscriptionsByEventType;
+
+    /**
+     * Immutable copy of {@link #subscriptionsByEventType}, replaced after each registration change, which lets the posting threads read the subscriptions
+     * without taking the lock of the bus.
+     */
+    private volatile Map<Class<?>, Subscription[]> subscriptionsSnapshot = Collections.emptyMap();
 
     private final Map<Object, List<Class<?>>> typesBySubscriber;
 
@@ -142,22 +153,22 @@ public class EventBus {
 
     /**
      * Looks up all Class objects including super classes and interfaces. Should also work for interfaces.
+     * The cache is read without locking, concurrent lookups of a new class may compute the same list twice.
      */
     private static List<Class<?>> lookupAllEventTypes(Class<?> eventClass) {
-        synchronized (eventTypesCache) {
-            List<Class<?>> eventTypes = eventTypesCache.get(eventClass);
-            if (eventTypes == null) {
-                eventTypes = new ArrayList<>();
-                Class<?> clazz = eventClass;
-                while (clazz != null) {
-                    eventTypes.add(clazz);
-                    addInterfaces(eventTypes, clazz.getInterfaces());
-                    clazz = clazz.getSuperclass();
-                }
-                eventTypesCache.put(eventClass, eventTypes);
+        List<Class<?>> eventTypes = eventTypesCache.get(eventClass);
+        if (eventTypes == null) {
+            eventTypes = new ArrayList<>();
+            Class<?> clazz = eventClass;
+            while (clazz != null) {
+                eventTypes.add(clazz);
+                addInterfaces(eventTypes, clazz.getInterfaces());
+                clazz = clazz.getSuperclass();
             }
-            return eventTypes;
+            eventTypes = Collections.unmodifiableList(eventTypes);
+            eventTypesCache.put(eventClass, eventTypes);
         }
+        return eventTypes;
     }
 
     /**
@@ -184,8 +195,12 @@ public class EventBus {
         Class<?> subscriberClass = subscriber.getClass();
         List<SubscriberMethod> subscriberMethods = subscriberMethodFinder.findSubscriberMethods(subscriberClass);
         synchronized (this) {
-            for (SubscriberMethod subscriberMethod : subscriberMethods) {
-                subscribe(subscriber, subscriberMethod);
+            try {
+                for (SubscriberMethod subscriberMethod : subscriberMethods) {
+                    subscribe(subscriber, subscriberMethod);
+                }
+            } finally {
+                publishSubscriptionsSnapshot();
             }
         }
     }
@@ -204,6 +219,7 @@ public class EventBus {
                 unsubscribeByEventType(subscriber, eventType);
             }
             typesBySubscriber.remove(subscriber);
+            publishSubscriptionsSnapshot();
         } else {
             Log.w(TAG, "Subscriber to unregister was not registered before: " + subscriber.getClass());
         }
@@ -332,11 +348,8 @@ public class EventBus {
             int countTypes = eventTypes.size();
             for (int h = 0; h < countTypes; h++) {
                 Class<?> clazz = eventTypes.get(h);
-                CopyOnWriteArrayList<Subscription> subscriptions;
-                synchronized (this) {
-                    subscriptions = subscriptionsByEventType.get(clazz);
-                }
-                if (subscriptions != null && !subscriptions.isEmpty()) {
+                Subscription[] subscriptions = subscriptionsSnapshot.get(clazz);
+                if (subscriptions != null && subscriptions.length > 0) {
                     return true;
                 }
             }
@@ -353,9 +366,9 @@ public class EventBus {
     private void subscribe(Object subscriber, SubscriberMethod subscriberMethod) {
         Class<?> eventType = subscriberMethod.eventType;
         Subscription newSubscription = new Subscription(subscriber, subscriberMethod);
-        CopyOnWriteArrayList<Subscription> subscriptions = subscriptionsByEventType.get(eventType);
+        List<Subscription> subscriptions = subscriptionsByEventType.get(eventType);
         if (subscriptions == null) {
-            subscriptions = new CopyOnWriteArrayList<>();
+            subscriptions = new ArrayList<>();
             subscriptionsByEventType.put(eventType, subscriptions);
         } else {
             if (subscriptions.contains(newSubscription)) {
@@ -400,6 +413,20 @@ public class EventBus {
         }
     }
 
+    /**
+     * Replaces the snapshot read by the posting threads with a copy of the current subscriptions. Must be called in synchronized block.
+     */
+    private void publishSubscriptionsSnapshot() {
+        Map<Class<?>, Subscription[]> snapshot = new HashMap<>(subscriptionsByEventType.size() * 2);
+        for (Map.Entry<Class<?>, List<Subscription>> entry : subscriptionsByEventType.entrySet()) {
+            List<Subscription> subscriptions = entry.getValue();
+            if (!subscriptions.isEmpty()) {
+                snapshot.put(entry.getKey(), subscriptions.toArray(NO_SUBSCRIPTIONS));
+            }
+        }
+        subscriptionsSnapshot = Collections.unmodifiableMap(snapshot);
+    }
+
     private void checkPostStickyEventToSubscription(Subscription newSubscription, Object stickyEvent) {
         if (stickyEvent != null) {
             // If the subscriber is trying to abort the event, it will fail (event is not tracked in posting state)
@@ -451,11 +478,8 @@ public class EventBus {
     }
 
     private boolean postSingleEventForEventType(Object event, PostingThreadState postingState, Class<?> eventClass) {
-        CopyOnWriteArrayList<Subscription> subscriptions;
-        synchronized (this) {
-            subscriptions = subscriptionsByEventType.get(eventClass);
-        }
-        if (subscriptions != null && !subscriptions.isEmpty()) {
+        Subscription[] subscriptions = subscriptionsSnapshot.get(eventClass);
+        if (subscriptions != null && subscriptions.length > 0) {
             for (Subscription subscription : subscriptions) {
                 postingState.event = event;
                 postingState.subscription = subscription;
@@ -15,12 +15,19 @@
  */
 package org.greenrobot.eventbus;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 final class PendingPost {
 
-    private final static List<PendingPost> pendingPostPool = new ArrayList<PendingPost>();
+    /**
+     * The number of slots of the pool, each slot holding a released post or null.
+     */
+    private final static int POOL_SIZE = 64;
+
+    /**
+     * Pool of the released posts. A slot is taken and filled atomically, so the posting threads and the delivering threads never wait for each other.
+     */
+    private final static AtomicReferenceArray<PendingPost> pendingPostPool = new AtomicReferenceArray<PendingPost>(POOL_SIZE);
 
     Object event;
 
@@ -34,14 +41,17 @@ final class PendingPost {
     }
 
     static PendingPost obtainPendingPost(Subscription subscription, Object event) {
-        synchronized (pendingPostPool) {
-            int size = pendingPostPool.size();
-            if (size > 0) {
-                PendingPost pendingPost = pendingPostPool.remove(size - 1);
-                pendingPost.event = event;
-                pendingPost.subscription = subscription;
-                pendingPost.next = null;
-                return pendingPost;
+        int start = getPoolStart();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            int index = (start + i) & (POOL_SIZE - 1);
+            if (pendingPostPool.get(index) != null) {
+                PendingPost pendingPost = pendingPostPool.getAndSet(index, null);
+                if (pendingPost != null) {
+                    pendingPost.event = event;
+                    pendingPost.subscription = subscription;
+                    pendingPost.next = null;
+                    return pendingPost;
+                }
             }
         }
         return new PendingPost(event, subscription);
@@ -51,11 +61,20 @@ final class PendingPost {
         pendingPost.event = null;
         pendingPost.subscription = null;
         pendingPost.next = null;
-        synchronized (pendingPostPool) {
-            // Don't let the pool grow indefinitely
-            if (pendingPostPool.size() < 10000) {
-                pendingPostPool.add(pendingPost);
+        int start = getPoolStart();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            int index = (start + i) & (POOL_SIZE - 1);
+            if (pendingPostPool.get(index) == null && pendingPostPool.compareAndSet(index, null, pendingPost)) {
+                return;
             }
         }
+        // Don't let the pool grow indefinitely, the post is left to the garbage collector
+    }
+
+    /**
+     * @return the slot from which the current thread scans the pool, spreading the threads over the pool.
+     */
+    private static int getPoolStart() {
+        return (int) Thread.currentThread().getId() * 7;
     }
-}
\ No newline at end of file
+}
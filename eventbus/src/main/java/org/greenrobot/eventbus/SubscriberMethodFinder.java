@@ -56,6 +56,13 @@ class SubscriberMethodFinder {
         this.ignoreGeneratedIndex = ignoreGeneratedIndex;
     }
 
+    /**
+     * @return {@code true} if the class belongs to the JDK, the android framework or the android support libraries, which do not have subscriber methods.
+     */
+    static boolean isSystemClass(String clazzName) {
+        return clazzName.startsWith("java.") || clazzName.startsWith("javax.") || clazzName.startsWith("android.") || clazzName.startsWith("androidx.");
+    }
+
     static void clearCaches() {
         METHOD_CACHE.clear();
     }
@@ -247,9 +254,8 @@ class SubscriberMethodFinder {
                 clazz = null;
             } else {
                 clazz = clazz.getSuperclass();
-                String clazzName = clazz.getName();
-                /** Skip system classes, this just degrades performance. */
-                if (clazzName.startsWith("java.") || clazzName.startsWith("javax.") || clazzName.startsWith("android.")) {
+                /** Skip system and support library classes, this just degrades performance. */
+                if (isSystemClass(clazz.getName())) {
                     clazz = null;
                 }
             }
@@ -0,0 +1,136 @@
+package org.greenrobot.eventbus;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Throughput of the posts from several threads, as done by the sensor, OBD, upload and UI threads of the app, with and without registrations in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventBusPostBenchmark {
+
+    static final int POSTING_THREADS = 4;
+
+    private static final int SUBSCRIBERS_PER_TYPE = 4;
+
+    private final SensorEvent sensorEvent = new SensorEvent();
+
+    private final UploadEvent uploadEvent = new UploadEvent();
+
+    private EventBus bus;
+
+    private Object[] subscribers;
+
+    private ChurnSubscriber churnSubscriber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bus = EventBus.builder().logNoSubscriberMessages(false).sendNoSubscriberEvent(false).build();
+        subscribers = new Object[SUBSCRIBERS_PER_TYPE * 2];
+        for (int i = 0; i < SUBSCRIBERS_PER_TYPE; i++) {
+            subscribers[2 * i] = new SensorSubscriber();
+            subscribers[2 * i + 1] = new UploadSubscriber();
+        }
+        for (Object subscriber : subscribers) {
+            bus.register(subscriber);
+        }
+        churnSubscriber = new ChurnSubscriber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Object subscriber : subscribers) {
+            bus.unregister(subscriber);
+        }
+    }
+
+    @Benchmark
+    @Threads(POSTING_THREADS)
+    public void post() {
+        bus.post(sensorEvent);
+    }
+
+    @Benchmark
+    @Threads(POSTING_THREADS)
+    public void postSubclass() {
+        bus.post(uploadEvent);
+    }
+
+    @Benchmark
+    @Threads(POSTING_THREADS)
+    public boolean hasSubscriberForEvent() {
+        return bus.hasSubscriberForEvent(SensorEvent.class);
+    }
+
+    @Benchmark
+    @Group("postWhileRegistering")
+    @GroupThreads(POSTING_THREADS - 1)
+    public void postWhileRegistering() {
+        bus.post(sensorEvent);
+    }
+
+    @Benchmark
+    @Group("postWhileRegistering")
+    @GroupThreads(1)
+    public void registerWhilePosting() {
+        bus.register(churnSubscriber);
+        bus.unregister(churnSubscriber);
+    }
+
+    public static class SensorEvent {
+    }
+
+    public static class BaseUploadEvent {
+    }
+
+    public static class UploadEvent extends BaseUploadEvent {
+    }
+
+    public static class SensorSubscriber {
+
+        private int count;
+
+        @Subscribe
+        public void onSensorEvent(SensorEvent event) {
+            count++;
+        }
+    }
+
+    public static class UploadSubscriber {
+
+        private int count;
+
+        @Subscribe
+        public void onUploadEvent(UploadEvent event) {
+            count++;
+        }
+
+        @Subscribe
+        public void onBaseUploadEvent(BaseUploadEvent event) {
+            count++;
+        }
+    }
+
+    public static class ChurnSubscriber {
+
+        private int count;
+
+        @Subscribe
+        public void onSensorEvent(SensorEvent event) {
+            count++;
+        }
+    }
+}
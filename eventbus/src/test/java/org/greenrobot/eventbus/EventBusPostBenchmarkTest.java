@@ -0,0 +1,106 @@
+package org.greenrobot.eventbus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+public class EventBusPostBenchmarkTest {
+
+    private static final int POSTS_PER_THREAD = 20000;
+
+    @Test
+    public void testConcurrentPostsReachAllSubscribersWhileRegistering() throws InterruptedException {
+        EventBus bus = EventBus.builder().logNoSubscriberMessages(false).sendNoSubscriberEvent(false).build();
+        CountingSubscriber first = new CountingSubscriber();
+        CountingSubscriber second = new CountingSubscriber();
+        bus.register(first);
+        bus.register(second);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < EventBusPostBenchmark.POSTING_THREADS; i++) {
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int post = 0; post < POSTS_PER_THREAD; post++) {
+                    bus.post(new EventBusPostBenchmark.SensorEvent());
+                }
+            }));
+        }
+        Thread churn = new Thread(() -> {
+            awaitQuietly(start);
+            CountingSubscriber subscriber = new CountingSubscriber();
+            for (int i = 0; i < 1000; i++) {
+                bus.register(subscriber);
+                bus.unregister(subscriber);
+            }
+        });
+        threads.add(churn);
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int expected = EventBusPostBenchmark.POSTING_THREADS * POSTS_PER_THREAD;
+        Assert.assertEquals(expected, first.count.get());
+        Assert.assertEquals(expected, second.count.get());
+        Assert.assertTrue(bus.hasSubscriberForEvent(EventBusPostBenchmark.SensorEvent.class));
+        bus.unregister(first);
+        bus.unregister(second);
+        Assert.assertFalse(bus.hasSubscriberForEvent(EventBusPostBenchmark.SensorEvent.class));
+    }
+
+    /**
+     * Runs the JMH benchmark in the test JVM, the module being an android library without a benchmark application. Ignored by default since the module is built with the
+     * app, remove the {@link Ignore} to run it locally.
+     */
+    @Ignore("Benchmark, run manually.")
+    @Test
+    public void testPostBenchmark() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(EventBusPostBenchmark.class.getName())
+                .forks(0)
+                .warmupIterations(2)
+                .warmupTime(TimeValue.milliseconds(500))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.milliseconds(500))
+                .build()).run();
+
+        for (RunResult result : results) {
+            System.out.println(String.format(Locale.US, "EventBus %s: %.2f ops/us",
+                    result.getParams().getBenchmark(),
+                    result.getPrimaryResult().getScore()));
+        }
+        Assert.assertFalse(results.isEmpty());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class CountingSubscriber {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Subscribe
+        public void onSensorEvent(EventBusPostBenchmark.SensorEvent event) {
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.greenrobot.eventbus;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubscriberMethodFinderTest {
+
+    @Test
+    public void testFrameworkAndSupportClassesAreSkipped() {
+        Assert.assertTrue(SubscriberMethodFinder.isSystemClass("java.lang.Object"));
+        Assert.assertTrue(SubscriberMethodFinder.isSystemClass("android.app.Activity"));
+        Assert.assertTrue(SubscriberMethodFinder.isSystemClass("androidx.appcompat.app.AppCompatActivity"));
+        Assert.assertTrue(SubscriberMethodFinder.isSystemClass("androidx.fragment.app.Fragment"));
+        Assert.assertFalse(SubscriberMethodFinder.isSystemClass("com.telenav.osv.activity.MainActivity"));
+        Assert.assertFalse(SubscriberMethodFinder.isSystemClass("androidxtension.Activity"));
+    }
+
+    @Test
+    public void testSubscriberMethodsOfAppSuperclassesAreFound() {
+        EventBus bus = EventBus.builder().logNoSubscriberMessages(false).sendNoSubscriberEvent(false).build();
+        ChildSubscriber subscriber = new ChildSubscriber();
+        bus.register(subscriber);
+
+        bus.post("event");
+
+        Assert.assertEquals(1, subscriber.baseCount);
+        Assert.assertEquals(1, subscriber.childCount);
+    }
+
+    public static class BaseSubscriber {
+
+        int baseCount;
+
+        @Subscribe
+        public void onBaseEvent(String event) {
+            baseCount++;
+        }
+    }
+
+    public static class ChildSubscriber extends BaseSubscriber {
+
+        int childCount;
+
+        @Subscribe
+        public void onChildEvent(String event) {
+            childCount++;
+        }
+    }
+}